@@ -3,6 +3,7 @@ package org.biojava3.aaproperties;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,6 +29,43 @@ import org.biojava3.core.sequence.compound.AminoAcidCompoundSet;
  */
 public class PeptidePropertiesImpl implements IPeptideProperties{
 	
+	/**
+	 * JAXB contexts are expensive to create and thread safe, so they are created once and shared
+	 */
+	private static JAXBContext elementTableContext;
+	private static JAXBContext aminoAcidCompositionTableContext;
+	
+	private static synchronized JAXBContext getElementTableContext() throws JAXBException{
+		if(elementTableContext == null)
+			elementTableContext = JAXBContext.newInstance(ElementTable.class);
+		return elementTableContext;
+	}
+	
+	private static synchronized JAXBContext getAminoAcidCompositionTableContext() throws JAXBException{
+		if(aminoAcidCompositionTableContext == null)
+			aminoAcidCompositionTableContext = JAXBContext.newInstance(AminoAcidCompositionTable.class);
+		return aminoAcidCompositionTableContext;
+	}
+	
+	/**
+	 * Unmarshals a file, and closes it afterwards
+	 */
+	private static Object unmarshal(JAXBContext jc, File file) throws JAXBException, FileNotFoundException{
+		//Unmarshallers are not thread safe but cheap to create
+		Unmarshaller u = jc.createUnmarshaller();
+		u.setEventHandler(new MyValidationEventHandler());
+		FileInputStream is = new FileInputStream(file);
+		try{
+			return u.unmarshal(is);
+		}finally{
+			try{
+				is.close();
+			}catch(IOException e){
+				//nothing to do, the file has been read
+			}
+		}
+	}
+	
 	/**
 	 * @return the molecular weight of water
 	 */
@@ -110,21 +148,12 @@ public class PeptidePropertiesImpl implements IPeptideProperties{
 	public AminoAcidCompositionTable obtainAminoAcidCompositionTable(File elementMassFile, File aminoAcidCompositionFile) 
 		throws JAXBException, FileNotFoundException{
 		//Parse elementMassFile
-		ElementTable iTable = new ElementTable();
-		// Get a JAXB Context for the object we created above
-		JAXBContext jc = JAXBContext.newInstance(iTable.getClass());
-		Unmarshaller u = jc.createUnmarshaller();
-		u.setEventHandler(new MyValidationEventHandler()); 
-		iTable = (ElementTable)u.unmarshal(new FileInputStream(elementMassFile));
+		ElementTable iTable = (ElementTable)unmarshal(getElementTableContext(), elementMassFile);
 		iTable.populateMaps();
 		
 		//Parse aminoAcidCompositionFile
-		AminoAcidCompositionTable aTable = new AminoAcidCompositionTable();
-		// Get a JAXB Context for the object we created above
-		JAXBContext jc2 = JAXBContext.newInstance(aTable.getClass());
-		Unmarshaller u2 = jc2.createUnmarshaller();
-		u2.setEventHandler(new MyValidationEventHandler()); 
-		aTable = (AminoAcidCompositionTable)u2.unmarshal(new FileInputStream(aminoAcidCompositionFile));
+		AminoAcidCompositionTable aTable = 
+			(AminoAcidCompositionTable)unmarshal(getAminoAcidCompositionTableContext(), aminoAcidCompositionFile);
 		aTable.computeMolecularWeight(iTable);
 		return aTable;
 	}
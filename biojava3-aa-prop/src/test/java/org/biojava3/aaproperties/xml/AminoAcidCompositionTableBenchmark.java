@@ -0,0 +1,77 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava3.aaproperties.xml;
+
+import java.io.File;
+import java.io.FileInputStream;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+
+import org.biojava3.aaproperties.PeptidePropertiesImpl;
+
+/**
+ * Times loading an amino acid composition table with new JAXB contexts for every table, as
+ * PeptidePropertiesImpl did before, against obtainAminoAcidCompositionTable with its shared contexts.
+ *
+ * Arguments: [rounds], default 200
+ */
+public class AminoAcidCompositionTableBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+		File elementMassFile = new File("./src/main/resources/ElementMass.xml");
+		File aminoAcidCompositionFile = new File("./src/main/resources/AminoAcidComposition.xml");
+		PeptidePropertiesImpl impl = new PeptidePropertiesImpl();
+
+		for (int run = 0; run < 3; run++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < rounds; i++)
+				readWithNewContexts(elementMassFile, aminoAcidCompositionFile);
+			long newContexts = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < rounds; i++)
+				impl.obtainAminoAcidCompositionTable(elementMassFile, aminoAcidCompositionFile);
+			long shared = System.nanoTime() - start;
+
+			System.out.printf("new contexts: %.1f tables/s, shared contexts: %.1f tables/s%n",
+					rounds * 1e9 / newContexts, rounds * 1e9 / shared);
+		}
+	}
+
+	private static AminoAcidCompositionTable readWithNewContexts(File elementMassFile, File aminoAcidCompositionFile) throws Exception {
+		Unmarshaller u = JAXBContext.newInstance(ElementTable.class).createUnmarshaller();
+		FileInputStream is = new FileInputStream(elementMassFile);
+		ElementTable iTable = (ElementTable)u.unmarshal(is);
+		is.close();
+		iTable.populateMaps();
+
+		Unmarshaller u2 = JAXBContext.newInstance(AminoAcidCompositionTable.class).createUnmarshaller();
+		is = new FileInputStream(aminoAcidCompositionFile);
+		AminoAcidCompositionTable aTable = (AminoAcidCompositionTable)u2.unmarshal(is);
+		is.close();
+		aTable.computeMolecularWeight(iTable);
+		return aTable;
+	}
+}
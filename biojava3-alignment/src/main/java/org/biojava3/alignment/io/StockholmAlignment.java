@@ -0,0 +1,269 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on 10-19-2026
+ */
+
+package org.biojava3.alignment.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * One family of a Stockholm file stored compactly for large releases such as Pfam-A.full.<br>
+ * The aligned residues are kept in a single byte matrix with one row per sequence and a bitmap
+ * marking the gap columns of every row. The mark-up lines (#=GF, #=GS, #=GR and #=GC) are kept
+ * as text and only parsed into a {@link StockholmStructure} when {@link #getAnnotations()} is called.
+ * 
+ * @see StockholmAlignmentReader
+ * @see StockholmIndex
+ * @since 3.0.6
+ */
+public class StockholmAlignment {
+
+	private final String header;
+	private final String accession;
+	private final String identification;
+	private final String[] names;
+	private final int length;
+	private final byte[] residues;
+	private final long[] gaps;
+	private final String markup;
+	private StockholmStructure annotations;
+
+	/**
+	 * 
+	 * @param header the "# STOCKHOLM 1.0" line
+	 * @param accession #=GF AC or <code>null</code>
+	 * @param identification #=GF ID or <code>null</code>
+	 * @param names sequence names in the order of the alignment rows
+	 * @param length number of columns
+	 * @param residues row major matrix of <code>names.length * length</code> residues, gaps included
+	 * @param markup the mark-up lines of the family separated by new lines
+	 */
+	StockholmAlignment(String header, String accession, String identification, String[] names, int length,
+			byte[] residues, String markup) {
+		this.header = header;
+		this.accession = accession;
+		this.identification = identification;
+		this.names = names;
+		this.length = length;
+		this.residues = residues;
+		this.markup = markup;
+		gaps = new long[(residues.length + 63) >>> 6];
+		for (int i = 0; i < residues.length; i++) {
+			if (isGap(residues[i])) {
+				gaps[i >>> 6] |= 1L << i;
+			}
+		}
+	}
+
+	static boolean isGap(byte residue) {
+		return residue == '-' || residue == '.';
+	}
+
+	/**
+	 * @return the #=GF AC value, <code>null</code> if the family has none
+	 */
+	public String getAccession() {
+		return accession;
+	}
+
+	/**
+	 * @return the #=GF ID value, <code>null</code> if the family has none
+	 */
+	public String getIdentification() {
+		return identification;
+	}
+
+	/**
+	 * @return number of sequences (rows)
+	 */
+	public int getSequenceCount() {
+		return names.length;
+	}
+
+	/**
+	 * @return number of alignment columns
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @param row
+	 * @return the sequence name, e.g. COATB_BPIKE/30-81
+	 */
+	public String getSequenceName(int row) {
+		return names[row];
+	}
+
+	/**
+	 * @return the sequence names in the order of the alignment rows
+	 */
+	public List<String> getSequenceNames() {
+		return Arrays.asList(names.clone());
+	}
+
+	/**
+	 * @param name
+	 * @return the row of the sequence or -1 if the family has no sequence of that name
+	 */
+	public int indexOf(String name) {
+		for (int row = 0; row < names.length; row++) {
+			if (names[row].equals(name)) {
+				return row;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param row
+	 * @param column
+	 * @return the residue or gap character at the position
+	 */
+	public char getResidue(int row, int column) {
+		return (char) (residues[offset(row, column)] & 0xff);
+	}
+
+	/**
+	 * @param row
+	 * @param column
+	 * @return <code>true</code> if the position holds '-' or '.'
+	 */
+	public boolean isGap(int row, int column) {
+		int i = offset(row, column);
+		return (gaps[i >>> 6] & (1L << i)) != 0;
+	}
+
+	/**
+	 * @param row
+	 * @return the number of residues in the row that are not gaps
+	 */
+	public int getUngappedLength(int row) {
+		int count = 0;
+		int start = offset(row, 0);
+		int end = start + length;
+		int i = start;
+		// count whole words of the bitmap, bit by bit only at the row boundaries
+		while (i < end && (i & 63) != 0) {
+			if ((gaps[i >>> 6] & (1L << i)) == 0) {
+				count++;
+			}
+			i++;
+		}
+		while (i + 64 <= end) {
+			count += 64 - Long.bitCount(gaps[i >>> 6]);
+			i += 64;
+		}
+		while (i < end) {
+			if ((gaps[i >>> 6] & (1L << i)) == 0) {
+				count++;
+			}
+			i++;
+		}
+		return count;
+	}
+
+	/**
+	 * @param row
+	 * @return the aligned sequence including gap characters
+	 */
+	public String getAlignedSequence(int row) {
+		char[] chars = new char[length];
+		int start = offset(row, 0);
+		for (int column = 0; column < length; column++) {
+			chars[column] = (char) (residues[start + column] & 0xff);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * @param row
+	 * @return the sequence without gap characters
+	 */
+	public String getSequence(int row) {
+		char[] chars = new char[getUngappedLength(row)];
+		int start = offset(row, 0);
+		int j = 0;
+		for (int i = start; i < start + length; i++) {
+			if ((gaps[i >>> 6] & (1L << i)) == 0) {
+				chars[j++] = (char) (residues[i] & 0xff);
+			}
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Parses the mark-up lines of the family the first time it is called.
+	 * The returned structure holds the file, consensus, sequence and residue annotations but no sequences.
+	 * 
+	 * @return the annotations of the family
+	 */
+	public synchronized StockholmStructure getAnnotations() {
+		if (annotations == null) {
+			annotations = parseMarkup();
+		}
+		return annotations;
+	}
+
+	/**
+	 * Creates a {@link StockholmStructure} with the annotations and the aligned sequences of the family,
+	 * equivalent to what {@link StockholmFileParser} returns.
+	 * 
+	 * @return a new structure
+	 */
+	public StockholmStructure toStockholmStructure() {
+		StockholmStructure structure = parseMarkup();
+		for (int row = 0; row < names.length; row++) {
+			structure.addSequence(names[row], getAlignedSequence(row));
+		}
+		return structure;
+	}
+
+	private StockholmStructure parseMarkup() {
+		StringBuilder sb = new StringBuilder(header.length() + markup.length() + 4);
+		sb.append(header).append('\n').append(markup).append("//\n");
+		try {
+			return new StockholmFileParser().parse(new Scanner(sb.toString()));
+		} catch (IOException e) {
+			// can not happen when reading from a String
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private int offset(int row, int column) {
+		if (row < 0 || row >= names.length) {
+			throw new IndexOutOfBoundsException("Row " + row + " not in 0.." + (names.length - 1));
+		}
+		if (column < 0 || column >= length) {
+			throw new IndexOutOfBoundsException("Column " + column + " not in 0.." + (length - 1));
+		}
+		return row * length + column;
+	}
+
+	@Override
+	public String toString() {
+		return (accession == null ? identification : accession) + ": alignment with " + names.length + " rows and "
+				+ length + " columns";
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on 10-19-2026
+ */
+
+package org.biojava3.alignment.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.biojava3.core.exceptions.ParserException;
+
+/**
+ * Reads the families of a Stockholm file one at a time into {@link StockholmAlignment} objects.<br>
+ * Only the current family is held in memory, so whole Pfam or Rfam releases can be processed
+ * with a heap sized for the largest family. Sequences may be split over several blocks; the
+ * pieces of each sequence are concatenated in file order. Unlike {@link StockholmFileParser}, 
+ * a "#=GF SQ" line is not required before the sequences.
+ * 
+ * <pre>
+ * StockholmAlignmentReader reader = new StockholmAlignmentReader(new FileInputStream("Pfam-A.full"));
+ * StockholmAlignment alignment;
+ * while ((alignment = reader.next()) != null) {
+ *     ...
+ * }
+ * reader.close();
+ * </pre>
+ * 
+ * @see StockholmIndex
+ * @since 3.0.6
+ */
+public class StockholmAlignmentReader {
+
+	private final BufferedReader reader;
+	private int lineNumber = 0;
+
+	/**
+	 * The stream is read as ISO-8859-1 which covers the characters used in Pfam and Rfam.
+	 * @param inStream
+	 */
+	public StockholmAlignmentReader(InputStream inStream) {
+		this(new InputStreamReader(inStream, Charset.forName("ISO-8859-1")));
+	}
+
+	public StockholmAlignmentReader(Reader reader) {
+		this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 65536);
+	}
+
+	/**
+	 * Reads the next family.
+	 * 
+	 * @return the next family or <code>null</code> at the end of the stream
+	 * @throws IOException when the stream can not be read
+	 * @throws ParserException if unexpected format is encountered
+	 */
+	public StockholmAlignment next() throws IOException {
+		String header = null;
+		String accession = null;
+		String identification = null;
+		StringBuilder markup = new StringBuilder();
+		LinkedHashMap<String, Row> rows = new LinkedHashMap<String, Row>();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.trim().length() == 0) {
+				continue;
+			}
+			if (line.startsWith("# STOCKHOLM")) {
+				if (header != null) {
+					throw new ParserException("Unexpected format line at line " + lineNumber + ": [" + line + "]");
+				}
+				header = line;
+			} else if (line.startsWith("//")) {
+				if (header != null) {
+					return createAlignment(header, accession, identification, rows, markup);
+				}
+			} else if (line.startsWith("#")) {
+				if (header == null) {
+					throw new ParserException("Mark-up outside of a family at line " + lineNumber + ": [" + line + "]");
+				}
+				if (line.startsWith("#=G")) {
+					if (line.startsWith("#=GF AC ")) {
+						accession = line.substring(8).trim();
+					} else if (line.startsWith("#=GF ID ")) {
+						identification = line.substring(8).trim();
+					}
+					markup.append(line).append('\n');
+				}
+				// other lines starting with # are comments
+			} else {
+				if (header == null) {
+					throw new ParserException("Sequence outside of a family at line " + lineNumber + ": [" + line + "]");
+				}
+				addSequenceLine(line, rows);
+			}
+		}
+		if (header != null) {
+			// be as lenient as StockholmFileParser about a missing end of family line
+			return createAlignment(header, accession, identification, rows, markup);
+		}
+		return null;
+	}
+
+	/**
+	 * Reads all remaining families.
+	 * 
+	 * @return the families in file order
+	 * @throws IOException
+	 */
+	public List<StockholmAlignment> readAll() throws IOException {
+		List<StockholmAlignment> alignments = new ArrayList<StockholmAlignment>();
+		StockholmAlignment alignment;
+		while ((alignment = next()) != null) {
+			alignments.add(alignment);
+		}
+		return alignments;
+	}
+
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * e.g.: COATB_BPIKE/30-81 AEPNAATNYATEAMDSLKTQAIDLISQTWPVVTTVVVAGLVIRLFKKFSSKA
+	 */
+	private void addSequenceLine(String line, LinkedHashMap<String, Row> rows) {
+		int nameEnd = 0;
+		while (nameEnd < line.length() && line.charAt(nameEnd) > ' ') {
+			nameEnd++;
+		}
+		int start = nameEnd;
+		while (start < line.length() && line.charAt(start) <= ' ') {
+			start++;
+		}
+		int end = line.length();
+		while (end > start && line.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (start == nameEnd || start == end) {
+			throw new ParserException("Could not split sequence line into sequence name and sequence at line "
+					+ lineNumber + ":\n" + line);
+		}
+		String name = line.substring(0, nameEnd);
+		Row row = rows.get(name);
+		if (row == null) {
+			row = new Row(end - start);
+			rows.put(name, row);
+		}
+		row.append(line, start, end);
+	}
+
+	private StockholmAlignment createAlignment(String header, String accession, String identification,
+			LinkedHashMap<String, Row> rows, StringBuilder markup) {
+		String[] names = rows.keySet().toArray(new String[rows.size()]);
+		int length = names.length == 0 ? 0 : rows.get(names[0]).length;
+		if ((long) length * names.length > Integer.MAX_VALUE) {
+			throw new ParserException("Family " + accession + " is too large for a single byte matrix");
+		}
+		byte[] residues = new byte[length * names.length];
+		int offset = 0;
+		for (String name : names) {
+			Row row = rows.get(name);
+			if (row.length != length) {
+				throw new ParserException("Sequences have different lengths in family "
+						+ (accession == null ? identification : accession) + ": " + name);
+			}
+			System.arraycopy(row.residues, 0, residues, offset, length);
+			offset += length;
+		}
+		return new StockholmAlignment(header, accession, identification, names, length, residues, markup.toString());
+	}
+
+	/**
+	 * Growable residue buffer for one sequence while its family is read
+	 */
+	private static class Row {
+
+		private byte[] residues;
+		private int length = 0;
+
+		Row(int capacity) {
+			residues = new byte[capacity];
+		}
+
+		void append(String line, int start, int end) {
+			int needed = length + end - start;
+			if (needed > residues.length) {
+				byte[] larger = new byte[Math.max(needed, residues.length * 2)];
+				System.arraycopy(residues, 0, larger, 0, length);
+				residues = larger;
+			}
+			for (int i = start; i < end; i++) {
+				char c = line.charAt(i);
+				if (c <= ' ') {
+					throw new ParserException("Sequence contains white space: " + line);
+				}
+				residues[length++] = (byte) c;
+			}
+		}
+	}
+}
@@ -0,0 +1,313 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on 10-19-2026
+ */
+
+package org.biojava3.alignment.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * An index of the families in a Stockholm file such as Pfam-A.full. The index records the byte
+ * offset and length of every family together with its accession and identification, so a single
+ * family can be read with {@link #readAlignment(File, String)} without scanning the file. The index
+ * is built with one pass over the bytes of the file and can be persisted next to it as a small
+ * tab separated text file. Compressed files can not be indexed because they can not be seeked.
+ * 
+ * @see StockholmAlignmentReader
+ * @since 3.0.6
+ */
+public class StockholmIndex {
+
+	private static final Logger logger = Logger.getLogger(StockholmIndex.class.getName());
+
+	/**
+	 * Extension appended to the Stockholm file name for the persisted index
+	 */
+	public static final String INDEX_EXTENSION = ".idx";
+
+	private final List<StockholmIndexEntry> entries = new ArrayList<StockholmIndexEntry>();
+	private final HashMap<String, StockholmIndexEntry> byAccession = new HashMap<String, StockholmIndexEntry>();
+	private final HashMap<String, StockholmIndexEntry> byIdentification = new HashMap<String, StockholmIndexEntry>();
+
+	public StockholmIndex() {
+	}
+
+	/**
+	 * 
+	 * @param entry
+	 */
+	public void addEntry(StockholmIndexEntry entry) {
+		entries.add(entry);
+		if (entry.getAccession() != null) {
+			byAccession.put(entry.getAccession(), entry);
+			byAccession.put(stripVersion(entry.getAccession()), entry);
+		}
+		if (entry.getIdentification() != null) {
+			byIdentification.put(entry.getIdentification(), entry);
+		}
+	}
+
+	/**
+	 * Finds a family by accession, with or without version (PF00069.21 or PF00069), or by identification (Pkinase).
+	 * @param name
+	 * @return the entry or <code>null</code> if no family matches
+	 */
+	public StockholmIndexEntry getEntry(String name) {
+		StockholmIndexEntry entry = byAccession.get(name);
+		if (entry == null) {
+			entry = byAccession.get(stripVersion(name));
+		}
+		if (entry == null) {
+			entry = byIdentification.get(name);
+		}
+		return entry;
+	}
+
+	/**
+	 * @return the entries in the order the families appear in the file
+	 */
+	public List<StockholmIndexEntry> getEntries() {
+		return new ArrayList<StockholmIndexEntry>(entries);
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private static String stripVersion(String accession) {
+		int dot = accession.lastIndexOf('.');
+		return dot == -1 ? accession : accession.substring(0, dot);
+	}
+
+	/**
+	 * Reads a single family from the Stockholm file this index was built for.
+	 * 
+	 * @param stockholmFile
+	 * @param name accession or identification of the family, see {@link #getEntry(String)}
+	 * @return the family or <code>null</code> if the index has no family of that name
+	 * @throws IOException
+	 */
+	public StockholmAlignment readAlignment(File stockholmFile, String name) throws IOException {
+		StockholmIndexEntry entry = getEntry(name);
+		if (entry == null) {
+			return null;
+		}
+		FileInputStream fi = new FileInputStream(stockholmFile);
+		try {
+			fi.getChannel().position(entry.getOffset());
+			return new StockholmAlignmentReader(fi).next();
+		} finally {
+			fi.close();
+		}
+	}
+
+	/**
+	 * The default location of the index for a Stockholm file which is the file name with .idx appended
+	 * @param stockholmFile
+	 * @return
+	 */
+	public static File getIndexFile(File stockholmFile) {
+		return new File(stockholmFile.getPath() + INDEX_EXTENSION);
+	}
+
+	/**
+	 * Load the index stored next to the Stockholm file. If the index does not exist or is older than
+	 * the Stockholm file then the index is built and written so it only needs to be built once.
+	 * @param stockholmFile
+	 * @return
+	 * @throws IOException
+	 */
+	public static StockholmIndex getIndex(File stockholmFile) throws IOException {
+		File indexFile = getIndexFile(stockholmFile);
+		if (indexFile.exists() && indexFile.lastModified() >= stockholmFile.lastModified()) {
+			return read(indexFile);
+		}
+		StockholmIndex index = build(stockholmFile);
+		try {
+			index.write(indexFile);
+		} catch (IOException e) {
+			// read only directory so the index will be rebuilt next time
+			logger.warning("Unable to write Stockholm index " + indexFile + " " + e.getMessage());
+		}
+		return index;
+	}
+
+	/**
+	 * Read an index file
+	 * @param indexFile
+	 * @return
+	 * @throws IOException
+	 */
+	public static StockholmIndex read(File indexFile) throws IOException {
+		StockholmIndex index = new StockholmIndex();
+		BufferedReader br = new BufferedReader(new FileReader(indexFile));
+		try {
+			String line;
+			int lineNumber = 0;
+			while ((line = br.readLine()) != null) {
+				lineNumber++;
+				if (line.length() == 0) {
+					continue;
+				}
+				String[] values = line.split("\t", -1);
+				if (values.length < 4) {
+					throw new IOException("Expecting 4 columns at line " + lineNumber + " of " + indexFile);
+				}
+				try {
+					index.addEntry(new StockholmIndexEntry(values[0].length() == 0 ? null : values[0],
+							values[1].length() == 0 ? null : values[1], Long.parseLong(values[2]), Long.parseLong(values[3])));
+				} catch (NumberFormatException e) {
+					throw new IOException("Invalid number at line " + lineNumber + " of " + indexFile + " " + e.getMessage());
+				}
+			}
+		} finally {
+			br.close();
+		}
+		return index;
+	}
+
+	/**
+	 * Write the index as one tab separated line per family
+	 * @param indexFile
+	 * @throws IOException
+	 */
+	public void write(File indexFile) throws IOException {
+		BufferedWriter bw = new BufferedWriter(new FileWriter(indexFile));
+		try {
+			for (StockholmIndexEntry entry : entries) {
+				bw.write(entry.toString());
+				bw.write("\n");
+			}
+		} finally {
+			bw.close();
+		}
+	}
+
+	/**
+	 * Build the index by scanning the bytes of the Stockholm file.
+	 * @param stockholmFile
+	 * @return
+	 * @throws IOException
+	 */
+	public static StockholmIndex build(File stockholmFile) throws IOException {
+		FileInputStream fi = new FileInputStream(stockholmFile);
+		try {
+			return build(fi);
+		} finally {
+			fi.close();
+		}
+	}
+
+	/**
+	 * Build the index from a stream positioned at the start of the Stockholm file. The stream is not closed.
+	 * @param is
+	 * @return
+	 * @throws IOException
+	 */
+	public static StockholmIndex build(InputStream is) throws IOException {
+		IndexBuilder builder = new IndexBuilder();
+		byte[] buffer = new byte[65536];
+		int read;
+		while ((read = is.read(buffer)) != -1) {
+			builder.process(buffer, read);
+		}
+		return builder.finish();
+	}
+
+	/**
+	 * Byte level state machine used to build the index. Only lines starting with '#' or '/' are
+	 * collected, sequence lines are skipped byte by byte without creating a String.
+	 */
+	private static class IndexBuilder {
+
+		private static final int MAX_COLLECTED = 256;
+
+		private final StockholmIndex index = new StockholmIndex();
+		private final StringBuilder line = new StringBuilder();
+		private long position = 0;
+		private long lineStart = 0;
+		private boolean collect = false;
+		private long offset = -1;
+		private String accession = null;
+		private String identification = null;
+
+		void process(byte[] buffer, int count) throws IOException {
+			for (int i = 0; i < count; i++) {
+				byte b = buffer[i];
+				if (position == lineStart) {
+					collect = b == '#' || b == '/';
+					line.setLength(0);
+				}
+				position++;
+				if (b == '\n') {
+					if (collect) {
+						endLine();
+					}
+					lineStart = position;
+				} else if (collect && line.length() < MAX_COLLECTED && b != '\r') {
+					line.append((char) (b & 0xff));
+				}
+			}
+		}
+
+		private void endLine() throws IOException {
+			if (line.indexOf("# STOCKHOLM") == 0) {
+				if (offset != -1) {
+					throw new IOException("Missing // before the family starting at byte " + lineStart);
+				}
+				offset = lineStart;
+				accession = null;
+				identification = null;
+			} else if (offset == -1) {
+				return;
+			} else if (line.indexOf("#=GF AC ") == 0) {
+				accession = line.substring(8).trim();
+			} else if (line.indexOf("#=GF ID ") == 0) {
+				identification = line.substring(8).trim();
+			} else if (line.indexOf("//") == 0) {
+				index.addEntry(new StockholmIndexEntry(accession, identification, offset, position - offset));
+				offset = -1;
+			}
+		}
+
+		StockholmIndex finish() throws IOException {
+			if (collect && position != lineStart) {
+				// last line without a new line
+				endLine();
+			}
+			if (offset != -1) {
+				index.addEntry(new StockholmIndexEntry(accession, identification, offset, position - offset));
+			}
+			return index;
+		}
+	}
+}
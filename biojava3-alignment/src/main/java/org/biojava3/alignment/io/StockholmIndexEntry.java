@@ -0,0 +1,76 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on 10-19-2026
+ */
+
+package org.biojava3.alignment.io;
+
+/**
+ * Location of one family in a Stockholm file.
+ * 
+ * @see StockholmIndex
+ * @since 3.0.6
+ */
+public class StockholmIndexEntry {
+
+	private final String accession;
+	private final String identification;
+	private final long offset;
+	private final long length;
+
+	/**
+	 * 
+	 * @param accession #=GF AC or <code>null</code>
+	 * @param identification #=GF ID or <code>null</code>
+	 * @param offset byte offset of the "# STOCKHOLM" line
+	 * @param length number of bytes up to and including the "//" line
+	 */
+	public StockholmIndexEntry(String accession, String identification, long offset, long length) {
+		this.accession = accession;
+		this.identification = identification;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	public String getAccession() {
+		return accession;
+	}
+
+	public String getIdentification() {
+		return identification;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * The tab separated line written to the index file, missing values are written as empty columns
+	 */
+	@Override
+	public String toString() {
+		return (accession == null ? "" : accession) + "\t" + (identification == null ? "" : identification) + "\t"
+				+ offset + "\t" + length;
+	}
+}
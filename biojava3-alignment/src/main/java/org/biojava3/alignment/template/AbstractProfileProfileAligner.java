@@ -51,7 +51,8 @@ public abstract class AbstractProfileProfileAligner<S extends Sequence<C>, C ext
 
     // cached fields
     private List<C> cslist;
-    private float[][] qfrac, tfrac;
+    private float[][] qfrac, tfrac, subs;
+    private int[][] qnonzero, tnonzero;
 
     // additional output field
     protected ProfilePair<S, C> pair;
@@ -199,7 +200,8 @@ public abstract class AbstractProfileProfileAligner<S extends Sequence<C>, C ext
 
     @Override
     protected short getSubstitutionScore(int queryColumn, int targetColumn) {
-        return getSubstitutionScore(qfrac[queryColumn - 1], tfrac[targetColumn - 1]);
+        return getSubstitutionScore(qfrac[queryColumn - 1], qnonzero[queryColumn - 1], tfrac[targetColumn - 1],
+                tnonzero[targetColumn - 1]);
     }
 
     @Override
@@ -230,15 +232,20 @@ public abstract class AbstractProfileProfileAligner<S extends Sequence<C>, C ext
                 query.getCompoundSet().equals(target.getCompoundSet())) {
             int maxq = 0, maxt = 0;
             cslist = query.getCompoundSet().getAllCompounds();
+            subs = getSubstitutionValues(cslist);
             qfrac = new float[query.getLength()][];
+            qnonzero = new int[query.getLength()][];
             for (int i = 0; i < qfrac.length; i++) {
                 qfrac[i] = query.getCompoundWeightsAt(i + 1, cslist);
-                maxq += getSubstitutionScore(qfrac[i], qfrac[i]);
+                qnonzero[i] = getNonZeroIndices(qfrac[i]);
+                maxq += getSubstitutionScore(qfrac[i], qnonzero[i], qfrac[i], qnonzero[i]);
             }
             tfrac = new float[target.getLength()][];
+            tnonzero = new int[target.getLength()][];
             for (int i = 0; i < tfrac.length; i++) {
                 tfrac[i] = target.getCompoundWeightsAt(i + 1, cslist);
-                maxt += getSubstitutionScore(tfrac[i], tfrac[i]);
+                tnonzero[i] = getNonZeroIndices(tfrac[i]);
+                maxt += getSubstitutionScore(tfrac[i], tnonzero[i], tfrac[i], tnonzero[i]);
             }
             max = (short) Math.max(maxq, maxt);
             score = min = isLocal() ? 0 : (short) (2 * getGapPenalty().getOpenPenalty() + (query.getLength() +
@@ -246,16 +253,42 @@ public abstract class AbstractProfileProfileAligner<S extends Sequence<C>, C ext
         }
     }
 
-    // helper method that scores alignment of two column vectors
-    private short getSubstitutionScore(float[] qv, float[] tv) {
+    // helper method that looks up the substitution matrix once for every pair of compounds
+    private float[][] getSubstitutionValues(List<C> compounds) {
+        float[][] subs = new float[compounds.size()][compounds.size()];
+        for (int q = 0; q < subs.length; q++) {
+            for (int t = 0; t < subs[q].length; t++) {
+                subs[q][t] = getSubstitutionMatrix().getValue(compounds.get(q), compounds.get(t));
+            }
+        }
+        return subs;
+    }
+
+    // helper method that returns the indices of the compounds present in a column vector
+    private static int[] getNonZeroIndices(float[] v) {
+        int n = 0;
+        for (float f : v) {
+            if (f > 0.0f) {
+                n++;
+            }
+        }
+        int[] indices = new int[n];
+        for (int i = 0, j = 0; i < v.length; i++) {
+            if (v[i] > 0.0f) {
+                indices[j++] = i;
+            }
+        }
+        return indices;
+    }
+
+    // helper method that scores alignment of two column vectors; only the compounds present in the columns are
+    // visited, but the products are summed in the same order as over all pairs, so the scores are identical
+    private short getSubstitutionScore(float[] qv, int[] qnonzero, float[] tv, int[] tnonzero) {
         float score = 0.0f;
-        for (int q = 0; q < qv.length; q++) {
-            if (qv[q] > 0.0f) {
-                for (int t = 0; t < tv.length; t++) {
-                    if (tv[t] > 0.0f) {
-                        score += qv[q]*tv[t]*getSubstitutionMatrix().getValue(cslist.get(q), cslist.get(t));
-                    }
-                }
+        for (int q : qnonzero) {
+            float[] row = subs[q];
+            for (int t : tnonzero) {
+                score += qv[q]*tv[t]*row[t];
             }
         }
         return (short) Math.round(score);
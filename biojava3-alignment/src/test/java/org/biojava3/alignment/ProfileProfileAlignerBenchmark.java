@@ -0,0 +1,114 @@
+package org.biojava3.alignment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.biojava3.alignment.template.AlignedSequence;
+import org.biojava3.alignment.template.AlignedSequence.Step;
+import org.biojava3.alignment.template.GapPenalty;
+import org.biojava3.alignment.template.Profile;
+import org.biojava3.alignment.template.SubstitutionMatrix;
+import org.biojava3.core.sequence.ProteinSequence;
+import org.biojava3.core.sequence.compound.AminoAcidCompound;
+
+/**
+ * Times a profile-profile alignment of two synthetic families, as found in the last steps of a progressive
+ * alignment, against the cost of scoring every cell with a loop over all pairs of compounds.
+ *
+ * Arguments: [family size] [columns] [gap fraction], defaults 500 300 0.3
+ */
+public class ProfileProfileAlignerBenchmark {
+
+    private static final String RESIDUES = "ACDEFGHIKLMNPQRSTVWY";
+
+    public static void main(String[] args) {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 500;
+        int columns = (args.length > 1) ? Integer.parseInt(args[1]) : 300;
+        double gapFraction = (args.length > 2) ? Double.parseDouble(args[2]) : 0.3;
+
+        Random random = new Random(42L);
+        String ancestor = randomSequence(random, columns);
+        Profile<ProteinSequence, AminoAcidCompound> query = family(random, ancestor, size, gapFraction),
+                target = family(random, ancestor, size, gapFraction);
+        GapPenalty gaps = new SimpleGapPenalty();
+        SubstitutionMatrix<AminoAcidCompound> blosum62 = SubstitutionMatrixHelper.getBlosum62();
+        System.out.printf("Two families of %d sequences with %d columns, %.0f%% gaps%n", size, columns,
+                gapFraction*100);
+
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            SimpleProfileProfileAligner<ProteinSequence, AminoAcidCompound> aligner =
+                    new SimpleProfileProfileAligner<ProteinSequence, AminoAcidCompound>(query, target, gaps, blosum62);
+            aligner.getPair();
+            System.out.printf("alignment: score %d in %d ms%n", aligner.getScore(),
+                    (System.nanoTime() - start)/1000000);
+        }
+
+        long start = System.nanoTime();
+        long total = columnLoop(query, target, blosum62);
+        System.out.printf("scoring all cells with the loop over all pairs of compounds (checksum %d): %d ms%n",
+                total, (System.nanoTime() - start)/1000000);
+    }
+
+    // scores every cell the way the aligner did before the substitution matrix was read into a table and the
+    // non-zero weights of each column were listed
+    private static long columnLoop(Profile<ProteinSequence, AminoAcidCompound> query,
+            Profile<ProteinSequence, AminoAcidCompound> target, SubstitutionMatrix<AminoAcidCompound> matrix) {
+        List<AminoAcidCompound> cslist = query.getCompoundSet().getAllCompounds();
+        float[][] tfrac = new float[target.getLength()][];
+        for (int y = 0; y < tfrac.length; y++) {
+            tfrac[y] = target.getCompoundWeightsAt(y + 1, cslist);
+        }
+        long total = 0;
+        for (int x = 1; x <= query.getLength(); x++) {
+            float[] qv = query.getCompoundWeightsAt(x, cslist);
+            for (float[] tv : tfrac) {
+                float score = 0.0f;
+                for (int q = 0; q < qv.length; q++) {
+                    if (qv[q] > 0.0f) {
+                        for (int t = 0; t < tv.length; t++) {
+                            if (tv[t] > 0.0f) {
+                                score += qv[q]*tv[t]*matrix.getValue(cslist.get(q), cslist.get(t));
+                            }
+                        }
+                    }
+                }
+                total += Math.round(score);
+            }
+        }
+        return total;
+    }
+
+    private static String randomSequence(Random random, int length) {
+        StringBuilder s = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            s.append(RESIDUES.charAt(random.nextInt(RESIDUES.length())));
+        }
+        return s.toString();
+    }
+
+    // mutates a fifth of the residues of the ancestor and replaces a fraction of the columns with gaps
+    private static Profile<ProteinSequence, AminoAcidCompound> family(Random random, String ancestor, int size,
+            double gapFraction) {
+        List<AlignedSequence<ProteinSequence, AminoAcidCompound>> list =
+                new ArrayList<AlignedSequence<ProteinSequence, AminoAcidCompound>>();
+        for (int i = 0; i < size; i++) {
+            StringBuilder sequence = new StringBuilder();
+            List<Step> steps = new ArrayList<Step>();
+            for (int j = 0; j < ancestor.length(); j++) {
+                if (j > 0 && random.nextDouble() < gapFraction) {
+                    steps.add(Step.GAP);
+                } else {
+                    steps.add(Step.COMPOUND);
+                    sequence.append((random.nextInt(5) == 0) ? RESIDUES.charAt(random.nextInt(RESIDUES.length())) :
+                            ancestor.charAt(j));
+                }
+            }
+            list.add(new SimpleAlignedSequence<ProteinSequence, AminoAcidCompound>(
+                    new ProteinSequence(sequence.toString()), steps));
+        }
+        return new SimpleProfile<ProteinSequence, AminoAcidCompound>(list);
+    }
+
+}
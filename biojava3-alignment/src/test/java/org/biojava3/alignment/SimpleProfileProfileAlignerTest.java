@@ -25,6 +25,12 @@ package org.biojava3.alignment;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.biojava3.alignment.template.AlignedSequence;
+import org.biojava3.alignment.template.AlignedSequence.Step;
 import org.biojava3.alignment.template.GapPenalty;
 import org.biojava3.alignment.template.Profile;
 import org.biojava3.alignment.template.ProfilePair;
@@ -239,4 +245,80 @@ public class SimpleProfileProfileAlignerTest {
         assertEquals(all.toString(), String.format("ARND--%nARND--%n--HILK%nA-ND-R%n"));
     }
 
+    @Test
+    public void testSubstitutionScoresOfGappedProfiles() {
+        Random random = new Random(1L);
+        assertSameColumnScores(randomProfile(random, 60, 80), randomProfile(random, 40, 70));
+    }
+
+    @Test
+    public void testSubstitutionScoresOfSmallProfiles() {
+        // few sequences give fractions such as 1/3 and 1/7, whose sums round differently if reordered
+        Random random = new Random(7L);
+        for (int i = 0; i < 200; i++) {
+            assertSameColumnScores(randomProfile(random, 2 + random.nextInt(6), 30),
+                    randomProfile(random, 2 + random.nextInt(6), 30));
+        }
+    }
+
+    private void assertSameColumnScores(Profile<ProteinSequence, AminoAcidCompound> query,
+            Profile<ProteinSequence, AminoAcidCompound> target) {
+        ColumnScoringAligner aligner = new ColumnScoringAligner(query, target, gaps, blosum62);
+        List<AminoAcidCompound> cslist = query.getCompoundSet().getAllCompounds();
+        for (int x = 1; x <= query.getLength(); x++) {
+            float[] qv = query.getCompoundWeightsAt(x, cslist);
+            for (int y = 1; y <= target.getLength(); y++) {
+                float[] tv = target.getCompoundWeightsAt(y, cslist);
+                // the original loop over all pairs of compounds
+                float score = 0.0f;
+                for (int q = 0; q < qv.length; q++) {
+                    if (qv[q] > 0.0f) {
+                        for (int t = 0; t < tv.length; t++) {
+                            if (tv[t] > 0.0f) {
+                                score += qv[q]*tv[t]*blosum62.getValue(cslist.get(q), cslist.get(t));
+                            }
+                        }
+                    }
+                }
+                assertEquals(Math.round(score), aligner.getColumnScore(x, y));
+            }
+        }
+    }
+
+    private static Profile<ProteinSequence, AminoAcidCompound> randomProfile(Random random, int size, int length) {
+        String residues = "ACDEFGHIKLMNPQRSTVWY";
+        List<AlignedSequence<ProteinSequence, AminoAcidCompound>> list =
+                new ArrayList<AlignedSequence<ProteinSequence, AminoAcidCompound>>();
+        for (int i = 0; i < size; i++) {
+            StringBuilder sequence = new StringBuilder();
+            List<Step> steps = new ArrayList<Step>();
+            for (int j = 0; j < length; j++) {
+                if (random.nextInt(3) == 0 && j > 0) {
+                    steps.add(Step.GAP);
+                } else {
+                    steps.add(Step.COMPOUND);
+                    sequence.append(residues.charAt(random.nextInt(j % 4 == 0 ? residues.length() : 3)));
+                }
+            }
+            list.add(new SimpleAlignedSequence<ProteinSequence, AminoAcidCompound>(
+                    new ProteinSequence(sequence.toString()), steps));
+        }
+        return new SimpleProfile<ProteinSequence, AminoAcidCompound>(list);
+    }
+
+    private static class ColumnScoringAligner
+            extends SimpleProfileProfileAligner<ProteinSequence, AminoAcidCompound> {
+
+        private ColumnScoringAligner(Profile<ProteinSequence, AminoAcidCompound> query,
+                Profile<ProteinSequence, AminoAcidCompound> target, GapPenalty gapPenalty,
+                SubstitutionMatrix<AminoAcidCompound> subMatrix) {
+            super(query, target, gapPenalty, subMatrix);
+        }
+
+        private short getColumnScore(int queryColumn, int targetColumn) {
+            return getSubstitutionScore(queryColumn, targetColumn);
+        }
+
+    }
+
 }
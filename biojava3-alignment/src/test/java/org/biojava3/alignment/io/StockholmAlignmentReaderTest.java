@@ -0,0 +1,123 @@
+package org.biojava3.alignment.io;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import junit.framework.TestCase;
+
+public class StockholmAlignmentReaderTest extends TestCase {
+
+	private static final String[] FILES = { "/longTest(Ankyrin repeat).sto" };
+
+	public void testSameAsStockholmFileParser() throws Exception {
+		for (String file : FILES) {
+			StockholmStructure expected = new StockholmFileParser().parse(getClass().getResourceAsStream(file));
+			StockholmAlignment alignment = new StockholmAlignmentReader(getClass().getResourceAsStream(file)).next();
+			assertSameSequences(file, expected, alignment);
+			assertEquals(String.valueOf(expected.getFileAnnotation().getIdentification()), alignment.getIdentification());
+			assertEquals(String.valueOf(expected.getFileAnnotation().getIdentification()),
+					String.valueOf(alignment.getAnnotations().getFileAnnotation().getIdentification()));
+			assertEquals(String.valueOf(expected.getFileAnnotation().getDefinition()),
+					String.valueOf(alignment.getAnnotations().getFileAnnotation().getDefinition()));
+			assertEquals(expected.getConsAnnotation().getSecondaryStructure(),
+					alignment.getAnnotations().getConsAnnotation().getSecondaryStructure());
+			assertTrue(alignment.getAnnotations().getSequences().isEmpty());
+			assertEquals(expected.getSequences().size(), alignment.toStockholmStructure().getSequences().size());
+		}
+
+		InputStream inStream = new GZIPInputStream(getClass().getResourceAsStream("/piwi.sth.gz"));
+		StockholmStructure expected = new StockholmFileParser().parse(inStream);
+		inStream.close();
+		inStream = new GZIPInputStream(getClass().getResourceAsStream("/piwi.sth.gz"));
+		StockholmAlignment alignment = new StockholmAlignmentReader(inStream).next();
+		inStream.close();
+		assertEquals(20, alignment.getSequenceCount());
+		assertSameSequences("piwi", expected, alignment);
+	}
+
+	public void testInterleavedBlocks() throws Exception {
+		StockholmAlignmentReader reader = new StockholmAlignmentReader(getClass().getResourceAsStream("/rrm.sto"));
+		StockholmAlignment alignment = reader.next();
+		assertNull(reader.next());
+		assertNull(alignment.getAccession());
+		int row = alignment.indexOf("YIS5_YEAST/33-104");
+		assertEquals(0, row);
+		assertTrue(alignment.getAlignedSequence(row).startsWith("IYIGNL......NRELTEGDILTVFS"));
+		// 33-104 is 72 residues
+		assertEquals(72, alignment.getUngappedLength(row));
+		assertEquals(72, alignment.getSequence(row).length());
+		assertTrue(alignment.isGap(row, 6));
+		assertFalse(alignment.isGap(row, 5));
+		assertEquals('L', alignment.getResidue(row, 5));
+	}
+
+	public void testIndex() throws Exception {
+		File file = File.createTempFile("StockholmIndexTest", ".sto");
+		File indexFile = StockholmIndex.getIndexFile(file);
+		try {
+			OutputStream os = new FileOutputStream(file);
+			for (String name : new String[] { "/pkinase.sto", "/rrm.sto", "/test.sth", "/test1.sth", "/longTest(Ankyrin repeat).sto" }) {
+				copy(getClass().getResourceAsStream(name), os);
+				// test.sth has no new line after its last line
+				os.write('\n');
+			}
+			os.close();
+
+			StockholmAlignmentReader reader = new StockholmAlignmentReader(new java.io.FileInputStream(file));
+			List<StockholmAlignment> all = reader.readAll();
+			reader.close();
+			assertEquals(5, all.size());
+
+			StockholmIndex index = StockholmIndex.getIndex(file);
+			assertTrue(indexFile.exists());
+			assertEquals(5, index.size());
+			StockholmIndex reread = StockholmIndex.read(indexFile);
+			for (int i = 0; i < index.size(); i++) {
+				assertEquals(index.getEntries().get(i).toString(), reread.getEntries().get(i).toString());
+			}
+
+			assertSameAlignment(all.get(0), index.readAlignment(file, "PF00069"));
+			assertSameAlignment(all.get(2), index.readAlignment(file, "CBS"));
+			assertSameAlignment(all.get(3), index.readAlignment(file, "UPSK"));
+			assertSameAlignment(all.get(4), index.readAlignment(file, "PF00023"));
+			assertSameAlignment(all.get(4), index.readAlignment(file, "PF00023.22"));
+			assertNull(index.readAlignment(file, "PF99999"));
+			assertNull(index.getEntries().get(1).getAccession());
+		} finally {
+			indexFile.delete();
+			file.delete();
+		}
+	}
+
+	private static void assertSameSequences(String file, StockholmStructure expected, StockholmAlignment alignment) {
+		Map<String, StringBuffer> sequences = expected.getSequences();
+		assertEquals(file, sequences.size(), alignment.getSequenceCount());
+		for (int row = 0; row < alignment.getSequenceCount(); row++) {
+			String name = alignment.getSequenceName(row);
+			assertEquals(file + " " + name, sequences.get(name).toString(), alignment.getAlignedSequence(row));
+		}
+	}
+
+	private static void assertSameAlignment(StockholmAlignment expected, StockholmAlignment actual) {
+		assertEquals(expected.getIdentification(), actual.getIdentification());
+		assertEquals(expected.getSequenceNames(), actual.getSequenceNames());
+		for (int row = 0; row < expected.getSequenceCount(); row++) {
+			assertEquals(expected.getAlignedSequence(row), actual.getAlignedSequence(row));
+		}
+	}
+
+	private static void copy(InputStream is, OutputStream os) throws IOException {
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = is.read(buffer)) != -1) {
+			os.write(buffer, 0, read);
+		}
+		is.close();
+	}
+}
@@ -0,0 +1,323 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on 10-19-2026
+ */
+package org.biojava3.core.sequence.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * An index of a fasta file that is compatible with the .fai files written by samtools faidx.
+ * The index is built with a single pass over the bytes of the file and can be persisted next
+ * to the fasta file so later runs only need to read the small index file. Every sequence in
+ * the file must use the same number of bases per line with only the last line allowed to be
+ * shorter.
+ *
+ * @see IndexedFastaFile
+ */
+public class FastaIndex {
+
+    private static final Logger logger = Logger.getLogger(FastaIndex.class.getName());
+
+    /**
+     * Extension appended to the fasta file name for the persisted index
+     */
+    public static final String INDEX_EXTENSION = ".fai";
+
+    private final LinkedHashMap<String, FastaIndexEntry> entries = new LinkedHashMap<String, FastaIndexEntry>();
+
+    public FastaIndex() {
+    }
+
+    /**
+     *
+     * @param entry
+     */
+    public void addEntry(FastaIndexEntry entry) {
+        if (entries.containsKey(entry.getName())) {
+            throw new IllegalArgumentException("Duplicate sequence name " + entry.getName() + " in fasta index");
+        }
+        entries.put(entry.getName(), entry);
+    }
+
+    /**
+     *
+     * @param name the first word of the fasta header
+     * @return the entry or null if the name is not in the index
+     */
+    public FastaIndexEntry getEntry(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * @return the entries in the order they appear in the fasta file
+     */
+    public List<FastaIndexEntry> getEntries() {
+        return new ArrayList<FastaIndexEntry>(entries.values());
+    }
+
+    /**
+     * @return the sequence names in the order they appear in the fasta file
+     */
+    public List<String> getNames() {
+        return new ArrayList<String>(entries.keySet());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * The default location of the index for a fasta file which is the fasta file name with .fai appended
+     * @param fastaFile
+     * @return
+     */
+    public static File getIndexFile(File fastaFile) {
+        return new File(fastaFile.getPath() + INDEX_EXTENSION);
+    }
+
+    /**
+     * Load the index stored next to the fasta file. If the index does not exist or is older than
+     * the fasta file then the index is built and written so it only needs to be built once.
+     * @param fastaFile
+     * @return
+     * @throws IOException
+     */
+    public static FastaIndex getIndex(File fastaFile) throws IOException {
+        File indexFile = getIndexFile(fastaFile);
+        if (indexFile.exists() && indexFile.lastModified() >= fastaFile.lastModified()) {
+            return read(indexFile);
+        }
+        FastaIndex index = build(fastaFile);
+        try {
+            index.write(indexFile);
+        } catch (IOException e) {
+            // read only directory so the index will be rebuilt next time
+            logger.warning("Unable to write fasta index " + indexFile + " " + e.getMessage());
+        }
+        return index;
+    }
+
+    /**
+     * Read a .fai file
+     * @param indexFile
+     * @return
+     * @throws IOException
+     */
+    public static FastaIndex read(File indexFile) throws IOException {
+        FastaIndex index = new FastaIndex();
+        BufferedReader br = new BufferedReader(new FileReader(indexFile));
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.length() == 0) {
+                    continue;
+                }
+                String[] values = line.split("\t");
+                if (values.length < 5) {
+                    throw new IOException("Expecting 5 columns at line " + lineNumber + " of " + indexFile);
+                }
+                try {
+                    index.addEntry(new FastaIndexEntry(values[0], Long.parseLong(values[1]), Long.parseLong(values[2]),
+                            Integer.parseInt(values[3]), Integer.parseInt(values[4])));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid number at line " + lineNumber + " of " + indexFile + " " + e.getMessage());
+                }
+            }
+        } finally {
+            br.close();
+        }
+        return index;
+    }
+
+    /**
+     * Write the index in the samtools .fai format
+     * @param indexFile
+     * @throws IOException
+     */
+    public void write(File indexFile) throws IOException {
+        BufferedWriter bw = new BufferedWriter(new FileWriter(indexFile));
+        try {
+            for (FastaIndexEntry entry : entries.values()) {
+                bw.write(entry.toString());
+                bw.write("\n");
+            }
+        } finally {
+            bw.close();
+        }
+    }
+
+    /**
+     * Build the index by scanning the bytes of the fasta file. The name of each sequence is
+     * the first word of the header line.
+     * @param fastaFile
+     * @return
+     * @throws IOException if the file can not be read or a sequence has lines of different length
+     */
+    public static FastaIndex build(File fastaFile) throws IOException {
+        FileInputStream fi = new FileInputStream(fastaFile);
+        try {
+            return build(fi);
+        } finally {
+            fi.close();
+        }
+    }
+
+    /**
+     * Build the index from a stream positioned at the start of the fasta file. The stream is not closed.
+     * @param is
+     * @return
+     * @throws IOException
+     */
+    public static FastaIndex build(InputStream is) throws IOException {
+        IndexBuilder builder = new IndexBuilder();
+        byte[] buffer = new byte[65536];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            builder.process(buffer, read);
+        }
+        return builder.finish();
+    }
+
+    /**
+     * Byte level state machine used to build the index without creating a String per line
+     */
+    private static class IndexBuilder {
+
+        private final FastaIndex index = new FastaIndex();
+        private final StringBuilder header = new StringBuilder();
+        private long position = 0;
+        private boolean lineStart = true;
+        private boolean inHeader = false;
+        private String name = null;
+        private long offset = -1;
+        private long length = 0;
+        private int lineBases = -1;
+        private int lineWidth = -1;
+        private boolean shortLine = false;
+        private int currentBases = 0;
+        private int currentWidth = 0;
+
+        void process(byte[] buffer, int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                byte b = buffer[i];
+                if (inHeader) {
+                    if (b == '\n') {
+                        startSequence();
+                    } else {
+                        header.append((char) b);
+                    }
+                } else if (lineStart && b == '>') {
+                    finishSequence();
+                    inHeader = true;
+                    header.setLength(0);
+                } else if (b == '\n') {
+                    endLine(currentWidth + 1, currentBases, true);
+                } else {
+                    currentWidth++;
+                    if (b != '\r') {
+                        currentBases++;
+                    }
+                }
+                lineStart = b == '\n';
+                position++;
+            }
+        }
+
+        FastaIndex finish() throws IOException {
+            if (inHeader) {
+                startSequence();
+            } else if (currentWidth > 0) {
+                endLine(currentWidth, currentBases, false);
+            }
+            finishSequence();
+            return index;
+        }
+
+        private void startSequence() {
+            inHeader = false;
+            String line = header.toString().trim();
+            int space = 0;
+            while (space < line.length() && !Character.isWhitespace(line.charAt(space))) {
+                space++;
+            }
+            name = line.substring(0, space);
+            offset = position + 1;
+            length = 0;
+            lineBases = -1;
+            lineWidth = -1;
+            shortLine = false;
+        }
+
+        private void endLine(int width, int bases, boolean terminated) throws IOException {
+            currentBases = 0;
+            currentWidth = 0;
+            if (bases == 0) {
+                if (lineBases == -1) {
+                    // blank lines between the header and the first sequence line
+                    if (name != null) {
+                        offset = position + 1;
+                    }
+                } else {
+                    // like samtools faidx only blank lines at the end of a sequence are allowed
+                    shortLine = true;
+                }
+                return;
+            }
+            if (name == null) {
+                throw new IOException("Sequence data found before the first header at offset " + position);
+            }
+            if (lineBases == -1) {
+                lineBases = bases;
+                lineWidth = width;
+            } else if (shortLine || bases > lineBases || (terminated && bases == lineBases && width != lineWidth)) {
+                throw new IOException("Different line length in sequence " + name + " at offset " + position);
+            } else if (bases < lineBases) {
+                shortLine = true;
+            }
+            length += bases;
+        }
+
+        private void finishSequence() {
+            if (name == null) {
+                return;
+            }
+            if (lineBases == -1) {
+                lineBases = 0;
+                lineWidth = 0;
+            }
+            index.addEntry(new FastaIndexEntry(name, length, offset, lineBases, lineWidth));
+            name = null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on 10-19-2026
+ */
+package org.biojava3.core.sequence.io;
+
+/**
+ * A single line of a samtools compatible fasta index (.fai). Records the name of the
+ * sequence, the number of bases, the file offset of the first base and the line layout
+ * so that the file offset of any base can be computed without reading the file.
+ *
+ * @see FastaIndex
+ */
+public class FastaIndexEntry {
+
+    private final String name;
+    private final long length;
+    private final long offset;
+    private final int lineBases;
+    private final int lineWidth;
+
+    /**
+     *
+     * @param name the first word of the fasta header
+     * @param length the number of bases in the sequence
+     * @param offset the file offset of the first base
+     * @param lineBases the number of bases on each full line
+     * @param lineWidth the number of bytes on each full line including the line terminator
+     */
+    public FastaIndexEntry(String name, long length, long offset, int lineBases, int lineWidth) {
+        this.name = name;
+        this.length = length;
+        this.offset = offset;
+        this.lineBases = lineBases;
+        this.lineWidth = lineWidth;
+    }
+
+    /**
+     * Compute the file offset of a base
+     * @param position zero based position in the sequence
+     * @return the offset in the fasta file
+     */
+    public long getFileOffset(long position) {
+        if (position < 0 || position >= length) {
+            throw new IndexOutOfBoundsException("Position " + position + " outside of " + name + " length=" + length);
+        }
+        return offset + (position / lineBases) * lineWidth + (position % lineBases);
+    }
+
+    /**
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the length
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return the offset
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the lineBases
+     */
+    public int getLineBases() {
+        return lineBases;
+    }
+
+    /**
+     * @return the lineWidth
+     */
+    public int getLineWidth() {
+        return lineWidth;
+    }
+
+    @Override
+    public String toString() {
+        return name + "\t" + length + "\t" + offset + "\t" + lineBases + "\t" + lineWidth;
+    }
+}
@@ -27,8 +27,11 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.NoSuchElementException;
 
+import org.biojava3.core.exceptions.ParserException;
 import org.biojava3.core.sequence.ProteinSequence;
 import org.biojava3.core.sequence.compound.AminoAcidCompound;
 import org.biojava3.core.sequence.compound.AminoAcidCompoundSet;
@@ -42,13 +45,17 @@ import org.biojava3.core.sequence.template.Sequence;
  * primary class used to read Fasta files
  * @author Scooter Willis <willishf at gmail dot com>
  */
-public class FastaReader<S extends Sequence<?>, C extends Compound> {
+public class FastaReader<S extends Sequence<?>, C extends Compound> implements Iterable<S> {
 
     SequenceCreatorInterface<C> sequenceCreator;
     FastaHeaderParserInterface<S,C> headerParser;
     BufferedReaderBytesRead br;
     InputStreamReader isr;
     FileInputStream fi = null;
+    private String header = null;
+    private StringBuilder sb = new StringBuilder();
+    private long sequenceIndex = 0;
+    private boolean finished = false;
 
     /**
      * If you are going to use FileProxyProteinSequenceCreator then do not use this constructor because we need details about
@@ -88,63 +95,140 @@ public class FastaReader<S extends Sequence<?>, C extends Compound> {
     }
 
     /**
-     * The parsing is done in this method
+     * The parsing is done in this method. All sequences in the file are returned and the file is closed.
+     * For files that do not fit in memory use {@link #process(int)} or {@link #iterator()}
      * @return
      * @throws IOException if an error occurs reading the input file
      */
-    @SuppressWarnings("unchecked")
     public LinkedHashMap<String,S> process() throws IOException {
-        LinkedHashMap<String,S> sequences = new LinkedHashMap<String,S>();
+        LinkedHashMap<String,S> sequences = process(-1);
+        close();
+        return sequences;
+    }
 
+    /**
+     * Parse the next max sequences from the file so large files can be processed in batches with
+     * bounded memory. Call repeatedly until an empty map is returned and then call {@link #close()}.
+     * @param max the maximum number of sequences to return or -1 for all remaining sequences
+     * @return the sequences keyed by accession id, empty when the end of the file has been reached
+     * @throws IOException if an error occurs reading the input file
+     */
+    public LinkedHashMap<String,S> process(int max) throws IOException {
+        LinkedHashMap<String,S> sequences = new LinkedHashMap<String,S>();
+        int count = 0;
+        S sequence;
+        while ((max < 0 || count < max) && (sequence = readNext()) != null) {
+            sequences.put(sequence.getAccession().getID(), sequence);
+            count++;
+        }
+        return sequences;
+    }
 
-        String line = "";
-        String header = "";
-        StringBuilder sb = new StringBuilder();
-        int maxSequenceLength = -1;
-        long fileIndex = 0;
-        long sequenceIndex = 0;
-        boolean keepGoing = true;
-        do {
+    /**
+     * Parse the next sequence from the file. The sequence buffer is reused between sequences so memory
+     * use is bounded by the longest sequence in the file.
+     * @return the next sequence or null when the end of the file has been reached
+     * @throws IOException if an error occurs reading the input file
+     */
+    public S readNext() throws IOException {
+        if (finished) {
+            return null;
+        }
+        while (true) {
+            long fileIndex = br.getBytesRead();
+            String line = br.readLine();
+            if (line == null) {
+                finished = true;
+                if (header == null && sb.length() == 0) {
+                    return null;
+                }
+                S sequence = createSequence();
+                header = null;
+                return sequence;
+            }
             line = line.trim(); // nice to have but probably not needed
-            if (line.length() != 0) {
-                if (line.startsWith(">")) {
-                    if (sb.length() > 0) {
-                    //    System.out.println("Sequence index=" + sequenceIndex);
-                        S sequence = (S)sequenceCreator.getSequence(sb.toString(), sequenceIndex);
-                        headerParser.parseHeader(header, sequence);
-                        sequences.put(sequence.getAccession().getID(),sequence);
-                        if (maxSequenceLength < sb.length()) {
-                            maxSequenceLength = sb.length();
+            if (line.length() == 0) {
+                continue;
+            }
+            if (line.charAt(0) == '>') {
+                S sequence = null;
+                if (sb.length() > 0) {
+                    sequence = createSequence();
+                }
+                header = line.substring(1);
+                if (sequence != null) {
+                    return sequence;
+                }
+            } else if (line.charAt(0) == ';') {
+            } else {
+                //mark the start of the sequence with the fileIndex before the line was read
+                if (sb.length() == 0) {
+                    sequenceIndex = fileIndex;
+                }
+                sb.append(line);
+            }
+        }
+    }
+
+    /**
+     * Iterate over the sequences as they are parsed. The file is closed when the last sequence
+     * has been returned. IOExceptions are rethrown as ParserException.
+     * @return
+     */
+    public Iterator<S> iterator() {
+        return new Iterator<S>() {
+
+            private S next = null;
+
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = readNext();
+                        if (next == null) {
+                            close();
                         }
-                        sb = new StringBuilder(maxSequenceLength);
-                    }
-                    header = line.substring(1);
-                } else if (line.startsWith(";")) {
-                } else {
-                    //mark the start of the sequence with the fileIndex before the line was read
-                    if(sb.length() == 0){
-                        sequenceIndex = fileIndex;
+                    } catch (IOException e) {
+                        throw new ParserException("Error reading fasta file", e);
                     }
-                    sb.append(line);
                 }
+                return next != null;
             }
-            fileIndex = br.getBytesRead();
-            line = br.readLine();
-            if (line == null) {
-            //    System.out.println("Sequence index=" + sequenceIndex + " " + fileIndex );
-                S sequence = (S)sequenceCreator.getSequence(sb.toString(), sequenceIndex);
-                headerParser.parseHeader(header, sequence);
-                sequences.put(sequence.getAccession().getID(),sequence);
-                keepGoing = false;
+
+            public S next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                S sequence = next;
+                next = null;
+                return sequence;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException("Not supported.");
             }
-        } while (keepGoing);
+        };
+    }
+
+    /**
+     * Close the underlying streams. If the stream was created from a File object then the file is closed as well.
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        finished = true;
         br.close();
         isr.close();
         //If stream was created from File object then we need to close it
         if (fi != null) {
             fi.close();
         }
-        return sequences;
+    }
+
+    @SuppressWarnings("unchecked")
+    private S createSequence() {
+        S sequence = (S)sequenceCreator.getSequence(sb.toString(), sequenceIndex);
+        headerParser.parseHeader(header == null ? "" : header, sequence);
+        sb.setLength(0);
+        return sequence;
     }
 
     public static void main(String[] args) {
@@ -24,7 +24,15 @@ package org.biojava3.core.sequence.io;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import org.biojava3.core.sequence.AccessionID;
 import org.biojava3.core.sequence.DNASequence;
 import org.biojava3.core.sequence.ProteinSequence;
 
@@ -32,6 +40,10 @@ import org.biojava3.core.sequence.compound.AminoAcidCompound;
 import org.biojava3.core.sequence.compound.AminoAcidCompoundSet;
 import org.biojava3.core.sequence.compound.DNACompoundSet;
 import org.biojava3.core.sequence.compound.NucleotideCompound;
+import org.biojava3.core.sequence.io.template.SequenceBatchProcessorInterface;
+import org.biojava3.core.sequence.template.Compound;
+import org.biojava3.core.sequence.template.Sequence;
+import org.biojava3.core.util.ConcurrencyTools;
 
 /**
  *
@@ -58,6 +70,27 @@ public class FastaReaderHelper {
 
     }
 
+    /**
+     * Open a fasta file through a samtools compatible index (.fai) that is built and saved next to the file
+     * the first time it is needed. The file is memory mapped once and shared by all the returned sequences
+     * so sequence data is only read from disk for the regions that are requested. Use this for genome sized
+     * files where only parts of each chromosome are needed. The key and accession of each sequence is the
+     * first word of the fasta header.
+     * @param file
+     * @return
+     * @throws Exception
+     */
+    public static LinkedHashMap<String, DNASequence> readIndexedFastaDNASequence(File file) throws Exception {
+        IndexedFastaFile indexedFastaFile = new IndexedFastaFile(file);
+        LinkedHashMap<String, DNASequence> dnaSequences = new LinkedHashMap<String, DNASequence>();
+        for (FastaIndexEntry entry : indexedFastaFile.getIndex().getEntries()) {
+            DNASequence dnaSequence = new DNASequence(indexedFastaFile.getSequenceReader(entry.getName(), DNACompoundSet.getDNACompoundSet()), DNACompoundSet.getDNACompoundSet());
+            dnaSequence.setAccession(new AccessionID(entry.getName()));
+            dnaSequences.put(entry.getName(), dnaSequence);
+        }
+        return dnaSequences;
+    }
+
     /**
      * Read a fasta file containing amino acids with setup that would handle most
      * cases.
@@ -120,6 +153,74 @@ public class FastaReaderHelper {
         return dnaSequences;
     }
 
+    /**
+     * Read a fasta file in batches and hand each batch to the processor on the shared ConcurrencyTools
+     * thread pool. Parsing happens on the calling thread and blocks while maxBatchesInFlight batches are
+     * waiting or being processed so memory use stays bounded no matter how large the file is. The reader
+     * is closed when the end of the file is reached.
+     * @param <S>
+     * @param <C>
+     * @param fastaReader
+     * @param batchSize the number of sequences in each batch
+     * @param maxBatchesInFlight the maximum number of batches parsed but not yet processed
+     * @param processor
+     * @return the number of sequences read
+     * @throws Exception the first exception thrown by the processor or while reading the file
+     */
+    public static <S extends Sequence<?>, C extends Compound> long processInBatches(FastaReader<S, C> fastaReader,
+            int batchSize, int maxBatchesInFlight, final SequenceBatchProcessorInterface<S> processor) throws Exception {
+        final Semaphore inFlight = new Semaphore(maxBatchesInFlight);
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        long count = 0;
+        try {
+            while (true) {
+                final LinkedHashMap<String, S> batch = fastaReader.process(batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                count += batch.size();
+                inFlight.acquire();
+                futures.add(ConcurrencyTools.submit(new Callable<Void>() {
+
+                    public Void call() throws Exception {
+                        try {
+                            processor.process(batch);
+                        } finally {
+                            inFlight.release();
+                        }
+                        return null;
+                    }
+                }));
+                // check finished batches so failures are reported early and the list stays small
+                Iterator<Future<Void>> iterator = futures.iterator();
+                while (iterator.hasNext()) {
+                    Future<Void> future = iterator.next();
+                    if (future.isDone()) {
+                        getResult(future);
+                        iterator.remove();
+                    }
+                }
+            }
+            for (Future<Void> future : futures) {
+                getResult(future);
+            }
+        } finally {
+            fastaReader.close();
+        }
+        return count;
+    }
+
+    private static void getResult(Future<Void> future) throws Exception {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     public static void main(String args[]) throws Exception {
 
         LinkedHashMap<String, DNASequence> dnaSequences = FastaReaderHelper.readFastaDNASequence(new File("fasta.fna"));
@@ -0,0 +1,196 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on 10-19-2026
+ */
+package org.biojava3.core.sequence.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.biojava3.core.sequence.loader.IndexedFastaProxySequenceReader;
+import org.biojava3.core.sequence.template.Compound;
+import org.biojava3.core.sequence.template.CompoundSet;
+
+/**
+ * A fasta file that is memory mapped once and shared by all the sequences it contains. Bases are
+ * located with the {@link FastaIndex} so a request for a region only touches the pages of the file
+ * that hold the region. The file handle is closed after mapping so any number of sequences can be
+ * created without leaking file handles. Reads use absolute gets on the mapped buffers so one instance
+ * can be used from multiple threads.
+ *
+ * Files larger than 2GB are mapped as a series of 1GB segments.
+ */
+public class IndexedFastaFile {
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final File file;
+    private final FastaIndex index;
+    private final MappedByteBuffer[] segments;
+    private final long fileLength;
+
+    /**
+     * Map the fasta file using the index stored next to it, building the index if needed
+     * @param file
+     * @throws IOException
+     */
+    public IndexedFastaFile(File file) throws IOException {
+        this(file, FastaIndex.getIndex(file));
+    }
+
+    /**
+     *
+     * @param file
+     * @param index
+     * @throws IOException
+     */
+    public IndexedFastaFile(File file, FastaIndex index) throws IOException {
+        this.file = file;
+        this.index = index;
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            fileLength = channel.size();
+            int segmentCount = (int) ((fileLength + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+            segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, fileLength - start));
+            }
+        } finally {
+            randomAccessFile.close(); // the mapping stays valid after the channel is closed
+        }
+    }
+
+    /**
+     * @return the fasta file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the index
+     */
+    public FastaIndex getIndex() {
+        return index;
+    }
+
+    /**
+     *
+     * @param name
+     * @return the index entry for the sequence
+     * @throws IllegalArgumentException if the sequence is not in the file
+     */
+    public FastaIndexEntry getEntry(String name) {
+        FastaIndexEntry entry = index.getEntry(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("Sequence " + name + " not found in " + file);
+        }
+        return entry;
+    }
+
+    /**
+     *
+     * @param entry
+     * @param position zero based position in the sequence
+     * @return the byte stored in the file for the base
+     */
+    public byte getBase(FastaIndexEntry entry, long position) {
+        return getByte(entry.getFileOffset(position));
+    }
+
+    /**
+     * Copy a range of bases skipping the line terminators
+     * @param entry
+     * @param start zero based start position
+     * @param length the number of bases to copy
+     * @param destination
+     * @param destinationOffset
+     */
+    public void getBases(FastaIndexEntry entry, long start, int length, byte[] destination, int destinationOffset) {
+        if (length == 0) {
+            return;
+        }
+        if (start < 0 || start + length > entry.getLength()) {
+            throw new IndexOutOfBoundsException("Range " + start + "-" + (start + length) + " outside of "
+                    + entry.getName() + " length=" + entry.getLength());
+        }
+        int lineBases = entry.getLineBases();
+        long fileOffset = entry.getFileOffset(start);
+        int column = (int) (start % lineBases);
+        int copied = 0;
+        while (copied < length) {
+            int count = Math.min(lineBases - column, length - copied);
+            for (int i = 0; i < count; i++) {
+                destination[destinationOffset + copied + i] = getByte(fileOffset + i);
+            }
+            copied += count;
+            fileOffset += count + (entry.getLineWidth() - lineBases);
+            column = 0;
+        }
+    }
+
+    /**
+     *
+     * @param entry
+     * @param start zero based start position
+     * @param length
+     * @return the bases in the range
+     */
+    public byte[] getBases(FastaIndexEntry entry, long start, int length) {
+        byte[] bases = new byte[length];
+        getBases(entry, start, length, bases, 0);
+        return bases;
+    }
+
+    /**
+     *
+     * @param name
+     * @param bioBegin one based start position
+     * @param bioEnd one based inclusive end position
+     * @return the bases in the range as found in the file
+     */
+    @SuppressWarnings("deprecation")
+    public String getSequence(String name, long bioBegin, long bioEnd) {
+        byte[] bases = getBases(getEntry(name), bioBegin - 1, (int) (bioEnd - bioBegin + 1));
+        return new String(bases, 0, 0, bases.length);
+    }
+
+    /**
+     * Create a ProxySequenceReader that reads the sequence from this file as needed
+     * @param <C>
+     * @param name
+     * @param compoundSet
+     * @return
+     */
+    public <C extends Compound> IndexedFastaProxySequenceReader<C> getSequenceReader(String name, CompoundSet<C> compoundSet) {
+        return new IndexedFastaProxySequenceReader<C>(this, getEntry(name), compoundSet);
+    }
+
+    private byte getByte(long fileOffset) {
+        return segments[(int) (fileOffset >>> SEGMENT_SHIFT)].get((int) (fileOffset & SEGMENT_MASK));
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on 10-19-2026
+ */
+
+package org.biojava3.core.sequence.io.template;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Receives batches of sequences as they are parsed so large files can be handled by
+ * a pool of consumers without loading the whole file.
+ *
+ * @param <S>
+ * @see org.biojava3.core.sequence.io.FastaReaderHelper#processInBatches
+ */
+public interface SequenceBatchProcessorInterface<S> {
+/**
+ * Called from a worker thread, so implementations must be thread safe
+ * @param sequences the batch keyed by accession id
+ * @throws Exception
+ */
+    public void process(LinkedHashMap<String, S> sequences) throws Exception;
+}
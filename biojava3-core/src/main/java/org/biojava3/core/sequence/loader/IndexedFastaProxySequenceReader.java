@@ -0,0 +1,270 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on 10-19-2026
+ */
+package org.biojava3.core.sequence.loader;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.biojava3.core.exceptions.CompoundNotFoundError;
+import org.biojava3.core.sequence.AccessionID;
+import org.biojava3.core.sequence.Strand;
+import org.biojava3.core.sequence.io.FastaIndexEntry;
+import org.biojava3.core.sequence.io.IndexedFastaFile;
+import org.biojava3.core.sequence.template.Compound;
+import org.biojava3.core.sequence.template.CompoundSet;
+import org.biojava3.core.sequence.template.ProxySequenceReader;
+import org.biojava3.core.sequence.template.SequenceMixin;
+import org.biojava3.core.sequence.template.SequenceProxyView;
+import org.biojava3.core.sequence.template.SequenceView;
+
+/**
+ * A ProxySequenceReader backed by a shared memory mapped {@link IndexedFastaFile}. Unlike the
+ * SequenceFileProxyLoader nothing is parsed or kept in memory and no file is opened per call. Each
+ * request goes straight to the bytes of the mapped file so getSubSequence(start, end) on a
+ * chromosome only touches the bases in the range. Compounds are assumed to be a single character
+ * which is true for the nucleotide and amino acid compound sets.
+ *
+ * @param <C>
+ */
+public class IndexedFastaProxySequenceReader<C extends Compound> implements ProxySequenceReader<C> {
+
+    private final IndexedFastaFile fastaFile;
+    private final FastaIndexEntry entry;
+    private CompoundSet<C> compoundSet;
+    private List<C> byteToCompound = null;
+
+    /**
+     *
+     * @param fastaFile the shared mapped fasta file
+     * @param entry the index entry of the sequence
+     * @param compoundSet
+     */
+    public IndexedFastaProxySequenceReader(IndexedFastaFile fastaFile, FastaIndexEntry entry, CompoundSet<C> compoundSet) {
+        this.fastaFile = fastaFile;
+        this.entry = entry;
+        setCompoundSet(compoundSet);
+    }
+
+    /**
+     *
+     * @param compoundSet
+     */
+    public void setCompoundSet(CompoundSet<C> compoundSet) {
+        this.compoundSet = compoundSet;
+        this.byteToCompound = null;
+    }
+
+    /**
+     * The sequence is read from the file so it can not be replaced
+     * @param sequence
+     */
+    public void setContents(String sequence) {
+        throw new UnsupportedOperationException("Sequence " + entry.getName() + " is read only");
+    }
+
+    /**
+     * @return the index entry of the sequence
+     */
+    public FastaIndexEntry getIndexEntry() {
+        return entry;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public int getLength() {
+        return (int) entry.getLength();
+    }
+
+    /**
+     *
+     * @param position
+     * @return
+     */
+    public C getCompoundAt(int position) {
+        return getCompound(fastaFile.getBase(entry, position - 1));
+    }
+
+    /**
+     *
+     * @param compound
+     * @return
+     */
+    public int getIndexOf(C compound) {
+        return SequenceMixin.indexOf(this, compound);
+    }
+
+    /**
+     *
+     * @param compound
+     * @return
+     */
+    public int getLastIndexOf(C compound) {
+        return SequenceMixin.lastIndexOf(this, compound);
+    }
+
+    /**
+     *
+     * @return
+     */
+    @Override
+    public String toString() {
+        return getSequenceAsString();
+    }
+
+    /**
+     *
+     * @return
+     */
+    public String getSequenceAsString() {
+        return getSequenceAsString(1, getLength(), Strand.POSITIVE);
+    }
+
+    /**
+     * Same semantics as SequenceAsStringHelper but reads the bytes of the range directly from the file
+     * @param bioBegin
+     * @param bioEnd
+     * @param strand
+     * @return
+     */
+    public String getSequenceAsString(Integer bioBegin, Integer bioEnd, Strand strand) {
+        if (getLength() == 0) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        if (strand.equals(Strand.NEGATIVE)) {
+            if (bioBegin <= bioEnd) {
+                appendReverse(builder, bioBegin, bioEnd);
+            } else {
+                appendReverse(builder, 1, bioBegin);
+                appendReverse(builder, bioEnd, getLength());
+            }
+        } else {
+            if (bioBegin <= bioEnd) {
+                append(builder, bioBegin, bioEnd);
+            } else {
+                append(builder, bioBegin, getLength());
+                append(builder, 1, bioEnd);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Creates a list of all compounds in the sequence which for a chromosome can be very large
+     * @return
+     */
+    public List<C> getAsList() {
+        List<C> compounds = new ArrayList<C>(getLength());
+        for (C compound : this) {
+            compounds.add(compound);
+        }
+        return compounds;
+    }
+
+    /**
+     *
+     * @param bioBegin
+     * @param bioEnd
+     * @return
+     */
+    public SequenceView<C> getSubSequence(final Integer bioBegin, final Integer bioEnd) {
+        return new SequenceProxyView<C>(IndexedFastaProxySequenceReader.this, bioBegin, bioEnd);
+    }
+
+    /**
+     *
+     * @return
+     */
+    public Iterator<C> iterator() {
+        return new SequenceMixin.SequenceIterator<C>(this);
+    }
+
+    /**
+     *
+     * @return
+     */
+    public CompoundSet<C> getCompoundSet() {
+        return compoundSet;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public AccessionID getAccession() {
+        return new AccessionID(entry.getName());
+    }
+
+    /**
+     *
+     * @param compounds
+     * @return
+     */
+    public int countCompounds(C... compounds) {
+        return SequenceMixin.countCompounds(this, compounds);
+    }
+
+    /**
+     *
+     * @return
+     */
+    @Override
+    public SequenceView<C> getInverse() {
+        return SequenceMixin.inverse(this);
+    }
+
+    private void append(StringBuilder builder, int bioBegin, int bioEnd) {
+        byte[] bases = fastaFile.getBases(entry, bioBegin - 1, bioEnd - bioBegin + 1);
+        for (int i = 0; i < bases.length; i++) {
+            builder.append(compoundSet.getStringForCompound(getCompound(bases[i])));
+        }
+    }
+
+    private void appendReverse(StringBuilder builder, int bioBegin, int bioEnd) {
+        byte[] bases = fastaFile.getBases(entry, bioBegin - 1, bioEnd - bioBegin + 1);
+        for (int i = bases.length - 1; i >= 0; i--) {
+            builder.append(compoundSet.getStringForCompound(getCompound(bases[i])));
+        }
+    }
+
+    /**
+     * Compounds are looked up once per byte value and cached
+     */
+    private C getCompound(byte base) {
+        List<C> lookup = byteToCompound;
+        if (lookup == null) {
+            lookup = new ArrayList<C>(256);
+            for (int i = 0; i < 256; i++) {
+                lookup.add(compoundSet.getCompoundForString(String.valueOf((char) i)));
+            }
+            byteToCompound = lookup;
+        }
+        C compound = lookup.get(base & 0xFF);
+        if (compound == null) {
+            throw new CompoundNotFoundError(String.valueOf((char) (base & 0xFF)));
+        }
+        return compound;
+    }
+}
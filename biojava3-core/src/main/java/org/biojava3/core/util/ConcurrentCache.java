@@ -0,0 +1,556 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava3.core.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/** A thread safe in memory cache.
+ *
+ * The keys are spread over a number of independently locked segments, so threads that access different keys
+ * rarely block each other. Values can be held with strong, soft or weak references, and the cache can be bounded
+ * by the number of entries or by a user defined weight, in which case the least recently used entries of a segment
+ * are evicted first.
+ *
+ * {@link #computeIfAbsent(Object, Loader)} loads every missing value only once, even if several threads request
+ * the same key at the same time. Hits, misses, loads and evictions are counted.
+ *
+ * This class replaces the {@link SoftHashMap}, which is not safe for concurrent use.
+ *
+ * @since 3.0.6
+ */
+public class ConcurrentCache<K, V> {
+
+	/** How the values of the cache are referenced. */
+	public enum Retention {
+		/** values are only removed by eviction or explicitly */
+		STRONG,
+		/** values can be garbage collected when memory runs low */
+		SOFT,
+		/** values can be garbage collected as soon as they are not used elsewhere */
+		WEAK
+	}
+
+	/** Loads the value for a key that is missing from the cache. */
+	public interface Loader<K, V> {
+		/**
+		 * @param key the key
+		 * @return the value for this key, or null if there is none. Null values are not cached.
+		 */
+		V load(K key);
+	}
+
+	/** Determines the weight of a cache entry, e.g. its approximate size in bytes. */
+	public interface Weigher<K, V> {
+		/**
+		 * @return the weight of this entry, must be at least zero
+		 */
+		int weigh(K key, V value);
+	}
+
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	/** a max weight that means the cache is not bounded */
+	public static final long UNBOUNDED = -1;
+
+	private final Retention retention;
+	private final Weigher<? super K, ? super V> weigher;
+	private final long maxWeight;
+	private final Segment<K, V>[] segments;
+	private final int segmentMask;
+
+	private final AtomicLong hits      = new AtomicLong();
+	private final AtomicLong misses    = new AtomicLong();
+	private final AtomicLong loads     = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/** Creates an unbounded cache.
+	 *
+	 * @param retention how values are referenced
+	 */
+	public ConcurrentCache(Retention retention) {
+		this(retention, UNBOUNDED);
+	}
+
+	/** Creates a cache that holds at most maxSize entries.
+	 *
+	 * @param retention how values are referenced
+	 * @param maxSize the maximum number of entries, or {@link #UNBOUNDED}
+	 */
+	public ConcurrentCache(Retention retention, long maxSize) {
+		this(retention, maxSize, null, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/** Creates a cache that is bounded by the total weight of its entries.
+	 *
+	 * @param retention how values are referenced
+	 * @param maxWeight the maximum total weight, or {@link #UNBOUNDED}
+	 * @param weigher determines the weight of an entry. If null, every entry has a weight of 1.
+	 * @param concurrencyLevel the expected number of threads that update the cache concurrently. Determines the number of segments.
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentCache(Retention retention, long maxWeight, Weigher<? super K, ? super V> weigher, int concurrencyLevel) {
+		if ( retention == null)
+			throw new IllegalArgumentException("retention must not be null");
+		if ( concurrencyLevel < 1)
+			throw new IllegalArgumentException("concurrencyLevel must be at least 1");
+		if ( maxWeight < 0 && maxWeight != UNBOUNDED)
+			throw new IllegalArgumentException("maxWeight must be at least zero");
+
+		this.retention = retention;
+		this.weigher = weigher;
+		this.maxWeight = maxWeight;
+
+		int nrSegments = 1;
+		while ( nrSegments < concurrencyLevel)
+			nrSegments <<= 1;
+		// a bounded cache needs at least one unit of weight per segment
+		if ( maxWeight != UNBOUNDED)
+			while ( nrSegments > 1 && nrSegments > maxWeight)
+				nrSegments >>= 1;
+
+		segments = (Segment<K, V>[]) new Segment<?, ?>[nrSegments];
+		segmentMask = nrSegments - 1;
+
+		long segmentWeight = UNBOUNDED;
+		if ( maxWeight != UNBOUNDED)
+			segmentWeight = (maxWeight + nrSegments - 1) / nrSegments;
+
+		for (int i = 0 ; i < nrSegments ; i++)
+			segments[i] = new Segment<K, V>(this, segmentWeight);
+	}
+
+	/** Returns the cached value for this key.
+	 *
+	 * @param key
+	 * @return the value, or null if it is not in the cache
+	 */
+	public V get(K key) {
+		V value = segmentFor(key).get(key);
+		if ( value == null)
+			misses.incrementAndGet();
+		else
+			hits.incrementAndGet();
+		return value;
+	}
+
+	/** Returns the cached value for this key. If it is not in the cache, it is loaded and cached.
+	 * If other threads request the same key while the value is being loaded, they wait for that
+	 * load instead of starting their own.
+	 *
+	 * @param key
+	 * @param loader loads the value if it is not in the cache
+	 * @return the value, or null if the loader returned null
+	 * @throws RuntimeException any exception thrown by the loader
+	 */
+	public V computeIfAbsent(final K key, final Loader<? super K, ? extends V> loader) {
+		Segment<K, V> segment = segmentFor(key);
+
+		FutureTask<V> task;
+		boolean owner = false;
+
+		segment.lock();
+		try {
+			V value = segment.getLocked(key);
+			if ( value != null) {
+				hits.incrementAndGet();
+				return value;
+			}
+			misses.incrementAndGet();
+
+			task = segment.loading.get(key);
+			if ( task == null) {
+				task = new FutureTask<V>(new Callable<V>() {
+					public V call() {
+						return loader.load(key);
+					}
+				});
+				segment.loading.put(key, task);
+				owner = true;
+			}
+		} finally {
+			segment.unlock();
+		}
+
+		if ( owner) {
+			task.run();
+			loads.incrementAndGet();
+
+			segment.lock();
+			try {
+				segment.loading.remove(key);
+				V value = getDone(task);
+				if ( value != null)
+					segment.putLocked(key, value);
+			} finally {
+				segment.unlock();
+			}
+		}
+		return getDone(task);
+	}
+
+	/** waits for a load to complete and rethrows exceptions of the loader unchanged */
+	private V getDone(FutureTask<V> task) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return task.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if ( cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if ( cause instanceof Error)
+				throw (Error) cause;
+			throw new RuntimeException(cause);
+		} finally {
+			if ( interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/** Adds a value to the cache.
+	 *
+	 * @param key
+	 * @param value must not be null
+	 */
+	public void put(K key, V value) {
+		if ( value == null)
+			throw new IllegalArgumentException("value must not be null");
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock();
+		try {
+			segment.putLocked(key, value);
+		} finally {
+			segment.unlock();
+		}
+	}
+
+	/** Removes a value from the cache.
+	 *
+	 * @param key
+	 * @return the removed value, or null if there was none
+	 */
+	public V remove(K key) {
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock();
+		try {
+			segment.expunge();
+			Entry<V> e = segment.map.remove(key);
+			if ( e == null)
+				return null;
+			segment.weight -= e.getWeight();
+			return e.get();
+		} finally {
+			segment.unlock();
+		}
+	}
+
+	public boolean containsKey(K key) {
+		return segmentFor(key).get(key) != null;
+	}
+
+	/** Removes all entries from the cache. The statistics are not reset.
+	 *
+	 */
+	public void clear() {
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+			try {
+				segment.map.clear();
+				segment.weight = 0;
+				// drop references that were cleared before
+				while ( segment.queue.poll() != null);
+			} finally {
+				segment.unlock();
+			}
+		}
+	}
+
+	/** Returns the number of entries in the cache. Entries whose values have been garbage collected are not counted.
+	 *
+	 * @return the number of entries
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+			try {
+				segment.expunge();
+				size += segment.map.size();
+			} finally {
+				segment.unlock();
+			}
+		}
+		return size;
+	}
+
+	/** Returns the total weight of all entries in the cache.
+	 *
+	 * @return the total weight
+	 */
+	public long getWeight() {
+		long weight = 0;
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+			try {
+				segment.expunge();
+				weight += segment.weight;
+			} finally {
+				segment.unlock();
+			}
+		}
+		return weight;
+	}
+
+	public Retention getRetention() {
+		return retention;
+	}
+
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/** @return the number of values that were loaded by {@link #computeIfAbsent(Object, Loader)} */
+	public long getLoadCount() {
+		return loads.get();
+	}
+
+	/** @return the number of entries that were evicted because the cache was full, or because their values had been garbage collected */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/** @return the fraction of requests that were answered from the cache, or 1 if there were no requests */
+	public double getHitRate() {
+		long h = hits.get();
+		long total = h + misses.get();
+		return total == 0 ? 1.0 : (double) h / total;
+	}
+
+	public String toString() {
+		return "ConcurrentCache [retention=" + retention + ", size=" + size() + ", weight=" + getWeight()
+				+ ", maxWeight=" + maxWeight + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+				+ ", loads=" + getLoadCount() + ", evictions=" + getEvictionCount() + "]";
+	}
+
+	private Segment<K, V> segmentFor(Object key) {
+		int h = key.hashCode();
+		// spread the hash, so that keys with similar hash codes end up in different segments
+		h ^= (h >>> 20) ^ (h >>> 12);
+		h ^= (h >>> 7) ^ (h >>> 4);
+		return segments[h & segmentMask];
+	}
+
+	private int weigh(K key, V value) {
+		if ( weigher == null)
+			return 1;
+		int w = weigher.weigh(key, value);
+		if ( w < 0)
+			throw new IllegalStateException("negative weight " + w + " for " + key);
+		return w;
+	}
+
+	/** The value of an entry, held in the way defined by the {@link Retention}. */
+	private interface Entry<V> {
+		V get();
+		int getWeight();
+	}
+
+	private static class StrongEntry<V> implements Entry<V> {
+		final V value;
+		final int weight;
+
+		StrongEntry(V value, int weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+
+		public V get() {
+			return value;
+		}
+
+		public int getWeight() {
+			return weight;
+		}
+	}
+
+	private static class SoftEntry<K, V> extends SoftReference<V> implements Entry<V> {
+		final K key;
+		final int weight;
+
+		SoftEntry(K key, V value, int weight, ReferenceQueue<? super V> queue) {
+			super(value, queue);
+			this.key = key;
+			this.weight = weight;
+		}
+
+		public int getWeight() {
+			return weight;
+		}
+	}
+
+	private static class WeakEntry<K, V> extends WeakReference<V> implements Entry<V> {
+		final K key;
+		final int weight;
+
+		WeakEntry(K key, V value, int weight, ReferenceQueue<? super V> queue) {
+			super(value, queue);
+			this.key = key;
+			this.weight = weight;
+		}
+
+		public int getWeight() {
+			return weight;
+		}
+	}
+
+	/** A part of the cache with its own lock. All fields are guarded by the lock. */
+	private static class Segment<K, V> extends ReentrantLock {
+
+		private static final long serialVersionUID = 1L;
+
+		final ConcurrentCache<K, V> cache;
+		final long maxWeight;
+
+		/** access ordered, the eldest entry is the least recently used one */
+		final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true);
+		final Map<K, FutureTask<V>> loading = new HashMap<K, FutureTask<V>>();
+		final ReferenceQueue<V> queue = new ReferenceQueue<V>();
+		long weight;
+
+		Segment(ConcurrentCache<K, V> cache, long maxWeight) {
+			this.cache = cache;
+			this.maxWeight = maxWeight;
+		}
+
+		V get(K key) {
+			lock();
+			try {
+				return getLocked(key);
+			} finally {
+				unlock();
+			}
+		}
+
+		V getLocked(K key) {
+			expunge();
+			Entry<V> e = map.get(key);
+			if ( e == null)
+				return null;
+			V value = e.get();
+			if ( value == null) {
+				// collected, but not enqueued yet
+				map.remove(key);
+				weight -= e.getWeight();
+				cache.evictions.incrementAndGet();
+			}
+			return value;
+		}
+
+		void putLocked(K key, V value) {
+			expunge();
+			int w = cache.weigh(key, value);
+
+			Entry<V> e;
+			switch (cache.retention) {
+			case SOFT:
+				e = new SoftEntry<K, V>(key, value, w, queue);
+				break;
+			case WEAK:
+				e = new WeakEntry<K, V>(key, value, w, queue);
+				break;
+			default:
+				e = new StrongEntry<V>(value, w);
+			}
+
+			Entry<V> old = map.put(key, e);
+			if ( old != null) {
+				weight -= old.getWeight();
+				if ( old instanceof Reference)
+					((Reference<?>) old).clear();
+			}
+			weight += w;
+
+			if ( maxWeight == UNBOUNDED)
+				return;
+
+			Iterator<Entry<V>> it = map.values().iterator();
+			while ( weight > maxWeight && it.hasNext()) {
+				Entry<V> eldest = it.next();
+				if ( eldest == e)
+					// never evict the entry that was just added
+					continue;
+				it.remove();
+				weight -= eldest.getWeight();
+				if ( eldest instanceof Reference)
+					((Reference<?>) eldest).clear();
+				cache.evictions.incrementAndGet();
+			}
+		}
+
+		/** removes entries whose values have been garbage collected */
+		@SuppressWarnings("unchecked")
+		void expunge() {
+			Reference<? extends V> ref;
+			while ( (ref = queue.poll()) != null) {
+				K key;
+				if ( ref instanceof SoftEntry)
+					key = ((SoftEntry<K, V>) ref).key;
+				else
+					key = ((WeakEntry<K, V>) ref).key;
+
+				// the key might have been mapped to a new value in the meantime
+				if ( map.get(key) == ref) {
+					map.remove(key);
+					weight -= ((Entry<V>) ref).getWeight();
+					cache.evictions.incrementAndGet();
+				}
+			}
+		}
+	}
+}
@@ -39,7 +39,7 @@ public class FlatFileCache {
 
 	private static FlatFileCache me ;
 
-	private static SoftHashMap<String, byte[]> cache = new SoftHashMap<String, byte[]>(0);
+	private static ConcurrentCache<String, byte[]> cache = new ConcurrentCache<String, byte[]>(ConcurrentCache.Retention.SOFT);
 	
 	public static FlatFileCache getInstance() {
 
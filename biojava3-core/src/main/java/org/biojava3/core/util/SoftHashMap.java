@@ -19,11 +19,7 @@
 
 package org.biojava3.core.util;
 
-import java.lang.ref.ReferenceQueue;
-import java.lang.ref.SoftReference;
 import java.util.AbstractMap;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,9 +27,14 @@ import java.util.Set;
 /** A in memory cache using soft references. (can be garbage collected)
  * 
  * This code is based on: http://java-interview-faqs.blogspot.com/2008/09/building-faster-and-efficient-cache.html 
+ * 
+ * The map is now backed by a {@link ConcurrentCache} with soft retention and can be used from several threads.
+ * The hard size is ignored, values are only referenced softly.
+ * 
+ * @deprecated use {@link ConcurrentCache}, which supports loading, eviction by size or weight and statistics.
  * */
 
-
+@Deprecated
 public class SoftHashMap<K, V> extends AbstractMap<K, V> {
 
    public static final boolean DEBUG = false;
@@ -41,21 +42,7 @@ public class SoftHashMap<K, V> extends AbstractMap<K, V> {
 
    public static final int DEFAULT_LIMIT = 1;
 
-   /** The internal HashMap that stores SoftReference to actual data. */
-
-   private final Map<K, SoftReference<V>> map = new HashMap<K, SoftReference<V>>();
-
-   /** Maximum Number of references you dont want GC to collect. */
-
-   private final int max_limit;
-
-   /** The FIFO list of hard references, order of last access. */
-
-   private final LinkedList<V> hardCache = new LinkedList<V>();
-
-   /** Reference queue for cleared SoftReference objects. */
-
-   private final ReferenceQueue<V> queue = new ReferenceQueue<V>();
+   private final ConcurrentCache<K, V> cache;
 
    public SoftHashMap() {
 
@@ -65,171 +52,53 @@ public class SoftHashMap<K, V> extends AbstractMap<K, V> {
 
    public SoftHashMap(int hardSize) {
 
-      max_limit = hardSize;
-
-   }
-
-   public V get(Object key) {
-
-      V result = null;
-
-      // We get the SoftReference represented by that key
-
-      SoftReference<V> soft_ref = map.get(key);
-
-      if (soft_ref != null) {
-
-         try {
-
-            // From the SoftReference we get the value, which can be
-
-            // null if it was not in the map, or it was removed in
-
-            // the clearGCCollected() method defined below
-
-            result = soft_ref.get();
-
-            if (result == null) {
-
-               // If the value has been garbage collected, remove the
-
-               // entry from the HashMap.
-
-               map.remove(key);
-
-            } else {
-
-               // We now add this object to the beginning of the hard
-
-               // reference queue. One reference can occur more than
-
-               // once, because lookups of the FIFO queue are slow, so
-
-               // we don't want to search through it each time to remove
-
-               // duplicates.
-
-               synchronized (hardCache){
-                  hardCache.addFirst(result);
-
-                  if (hardCache.size() > max_limit) {
-
-                     // Remove the last entry if list greater than MAX_LIMIT
-
-                     hardCache.removeLast();
-
-                  }
-               }
-
-            }
-         } catch (Exception e){
-            e.printStackTrace();
-         }
-
-      }
-
-      return result;
+      this(new ConcurrentCache<K, V>(ConcurrentCache.Retention.SOFT));
 
    }
 
-
-
-   /**
-
-    * We define our own subclass of SoftReference which contains not only the
-
-    * value but also the key to make it easier to find the entry in the HashMap
-
-    * after it's been garbage collected.
-
+   /** a map view of an existing cache, changes are visible in both
+    * 
+    * @param cache
     */
+   public SoftHashMap(ConcurrentCache<K, V> cache) {
 
-   private static class SoftValue<K, V> extends SoftReference<V> {
-
-      private final Object key; // always make data member final
-
-
-
-      /**
-
-       * Did you know that an outer class can access private data members and
-
-       * methods of an inner class? I didn't know that! I thought it was only
-
-       * the inner class who could access the outer class's private
-
-       * information. An outer class can also access private members of an
-
-       * inner class inside its inner class.
-
-       */
-
-      private SoftValue(V k, K key, ReferenceQueue<? super V> q) {
-
-         super(k, q);
-
-         this.key = key;
-
-      }
+      this.cache = cache;
 
    }
 
+   @SuppressWarnings("unchecked")
+   public V get(Object key) {
 
-
-   /**
-
-    * Here we go through the ReferenceQueue and remove garbage collected
-
-    * SoftValue objects from the HashMap by looking them up using the
-
-    * SoftValue.key data member.
-
-    */
-
-   @SuppressWarnings("unchecked") // every Reference in queue is stored as a SoftValue
-   private void clearGCCollected() {
-
-      SoftValue<K, V> sv;
-
-      while ((sv = (SoftValue<K, V>) queue.poll()) != null) {
-
-         map.remove(sv.key); // we can access private data!
-
-      }
+      return cache.get((K) key);
 
    }
 
+   @SuppressWarnings("unchecked")
+   public boolean containsKey(Object key) {
 
+      return cache.containsKey((K) key);
 
-   /**
-
-    * Here we put the key, value pair into the HashMap using a SoftValue
-
-    * object.
-
-    */
-
-   public synchronized V put(K key, V value) {
+   }
 
-      clearGCCollected();
+   public V put(K key, V value) {
 
       if ( DEBUG)
          System.out.println("putting " + key + " on cache. size: " + size());
-      
-      map.put(key, new SoftValue<K, V>(value, key, queue));
-      
+
+      cache.put(key, value);
+
       return value;
 
    }
 
 
 
+   @SuppressWarnings("unchecked")
    public V remove(Object key) {
 
-      clearGCCollected();
       if ( DEBUG)
           System.out.println("removing " + key + " from cache. size: " + size());
-      return map.remove(key).get();
+      return cache.remove((K) key);
 
    }
 
@@ -237,14 +106,9 @@ public class SoftHashMap<K, V> extends AbstractMap<K, V> {
 
    public void clear() {
 
-      synchronized (hardCache){
-         hardCache.clear();
-      }
-
-      clearGCCollected();
       if ( DEBUG)
           System.out.println("clearing cache");
-      map.clear();
+      cache.clear();
 
    }
 
@@ -252,9 +116,7 @@ public class SoftHashMap<K, V> extends AbstractMap<K, V> {
 
    public int size() {
 
-      clearGCCollected();
-
-      return map.size();
+      return cache.size();
 
    }
 
@@ -266,4 +128,4 @@ public class SoftHashMap<K, V> extends AbstractMap<K, V> {
 
    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package org.biojava3.core.sequence.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+
+import org.biojava3.core.sequence.DNASequence;
+import org.biojava3.core.sequence.Strand;
+import org.biojava3.core.sequence.compound.DNACompoundSet;
+import org.biojava3.core.sequence.compound.NucleotideCompound;
+import org.biojava3.core.sequence.loader.IndexedFastaProxySequenceReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the samtools compatible fasta index and the memory mapped sequence reader
+ */
+public class FastaIndexTest {
+
+	private static final String CHR1 = "ACGTACGTAAGGCCTTNNACGTAC";
+	private static final String CHR2 = "GGGGCCCCAT";
+
+	private File fastaFile;
+
+	@Before
+	public void setUp() throws IOException {
+		fastaFile = File.createTempFile("FastaIndexTest", ".fasta");
+		FileWriter fw = new FileWriter(fastaFile);
+		fw.write(">chr1 first chromosome\n");
+		fw.write("ACGTACGTAA\nGGCCTTNNAC\nGTAC\n");
+		fw.write(">chr2\r\n");
+		fw.write("GGGG\r\nCCCC\r\nAT\r\n");
+		fw.close();
+	}
+
+	@After
+	public void tearDown() {
+		FastaIndex.getIndexFile(fastaFile).delete();
+		fastaFile.delete();
+	}
+
+	@Test
+	public void testBuild() throws Exception {
+		FastaIndex index = FastaIndex.build(fastaFile);
+		assertEquals(2, index.size());
+
+		FastaIndexEntry chr1 = index.getEntry("chr1");
+		assertEquals(24, chr1.getLength());
+		assertEquals(23, chr1.getOffset());
+		assertEquals(10, chr1.getLineBases());
+		assertEquals(11, chr1.getLineWidth());
+
+		FastaIndexEntry chr2 = index.getEntry("chr2");
+		assertEquals(10, chr2.getLength());
+		assertEquals(4, chr2.getLineBases());
+		assertEquals(6, chr2.getLineWidth());
+	}
+
+	@Test
+	public void testPersistedIndex() throws Exception {
+		FastaIndex index = FastaIndex.getIndex(fastaFile);
+		File indexFile = FastaIndex.getIndexFile(fastaFile);
+		assertTrue(indexFile.exists());
+
+		FastaIndex reread = FastaIndex.read(indexFile);
+		assertEquals(index.getNames(), reread.getNames());
+		for (FastaIndexEntry entry : index.getEntries()) {
+			assertEquals(entry.toString(), reread.getEntry(entry.getName()).toString());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testInconsistentLineLength() throws Exception {
+		FileWriter fw = new FileWriter(fastaFile);
+		fw.write(">bad\nACGT\nAC\nACGT\n");
+		fw.close();
+		FastaIndex.build(fastaFile);
+	}
+
+	@Test(expected = IOException.class)
+	public void testBlankLineInSequence() throws Exception {
+		FileWriter fw = new FileWriter(fastaFile);
+		fw.write(">bad\nACGT\n\nACGT\n");
+		fw.close();
+		FastaIndex.build(fastaFile);
+	}
+
+	@Test
+	public void testBlankLinesAroundSequence() throws Exception {
+		FileWriter fw = new FileWriter(fastaFile);
+		fw.write(">chr1\n\nACGT\nAC\n\n\n>chr2\nGGCC\n\n");
+		fw.close();
+		FastaIndex index = FastaIndex.build(fastaFile);
+
+		FastaIndexEntry chr1 = index.getEntry("chr1");
+		assertEquals(6, chr1.getLength());
+		assertEquals(7, chr1.getOffset());
+		assertEquals(4, chr1.getLineBases());
+		assertEquals(5, chr1.getLineWidth());
+		assertEquals(4, index.getEntry("chr2").getLength());
+
+		IndexedFastaFile indexedFastaFile = new IndexedFastaFile(fastaFile);
+		assertEquals("ACGTAC", indexedFastaFile.getSequence("chr1", 1, 6));
+		assertEquals("GGCC", indexedFastaFile.getSequence("chr2", 1, 4));
+	}
+
+	@Test
+	public void testMappedSequence() throws Exception {
+		IndexedFastaFile indexedFastaFile = new IndexedFastaFile(fastaFile);
+		assertEquals("CCTTNNAC", indexedFastaFile.getSequence("chr1", 13, 20));
+		assertEquals(CHR2, indexedFastaFile.getSequence("chr2", 1, 10));
+
+		IndexedFastaProxySequenceReader<NucleotideCompound> reader =
+				indexedFastaFile.getSequenceReader("chr1", DNACompoundSet.getDNACompoundSet());
+		assertEquals(CHR1.length(), reader.getLength());
+		assertEquals(CHR1, reader.getSequenceAsString());
+		assertEquals("G", reader.getCompoundAt(11).getShortName());
+		assertEquals(CHR1.substring(8, 14), reader.getSubSequence(9, 14).getSequenceAsString());
+		assertEquals(new StringBuilder(CHR1.substring(8, 14)).reverse().toString(),
+				reader.getSequenceAsString(9, 14, Strand.NEGATIVE));
+		assertEquals(CHR1.substring(20) + CHR1.substring(0, 3),
+				reader.getSequenceAsString(21, 3, Strand.POSITIVE));
+	}
+
+	@Test
+	public void testReadIndexedFastaDNASequence() throws Exception {
+		LinkedHashMap<String, DNASequence> sequences = FastaReaderHelper.readIndexedFastaDNASequence(fastaFile);
+		assertEquals(2, sequences.size());
+		assertEquals(CHR1, sequences.get("chr1").getSequenceAsString());
+		assertEquals(CHR2, sequences.get("chr2").getSequenceAsString());
+		assertEquals("chr2", sequences.get("chr2").getAccession().getID());
+		assertEquals(CHR1.substring(4, 12), sequences.get("chr1").getSubSequence(5, 12).getSequenceAsString());
+	}
+}
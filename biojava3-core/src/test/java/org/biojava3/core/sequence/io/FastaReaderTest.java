@@ -6,13 +6,18 @@ package org.biojava3.core.sequence.io;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.biojava3.core.sequence.ProteinSequence;
 import org.biojava3.core.sequence.compound.AminoAcidCompound;
 import org.biojava3.core.sequence.compound.AminoAcidCompoundSet;
+import org.biojava3.core.sequence.io.template.SequenceBatchProcessorInterface;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -86,4 +91,60 @@ public class FastaReaderTest {
 		assertEquals(seqNum,283);
 	}
 	
+
+	/**
+	 * Test of process(int) and the iterator, which should return the same sequences as process()
+	 */
+	@Test
+	public void testProcessInBatches() throws Exception {
+		InputStream inStream = this.getClass().getResourceAsStream("/PF00104_small.fasta");
+		FastaReader<ProteinSequence,AminoAcidCompound> fastaReader = new FastaReader<ProteinSequence,AminoAcidCompound>(inStream, new GenericFastaHeaderParser<ProteinSequence,AminoAcidCompound>(), new ProteinSequenceCreator(AminoAcidCompoundSet.getAminoAcidCompoundSet()));
+		LinkedHashMap<String,ProteinSequence> proteinSequences = fastaReader.process();
+
+		inStream = this.getClass().getResourceAsStream("/PF00104_small.fasta");
+		fastaReader = new FastaReader<ProteinSequence,AminoAcidCompound>(inStream, new GenericFastaHeaderParser<ProteinSequence,AminoAcidCompound>(), new ProteinSequenceCreator(AminoAcidCompoundSet.getAminoAcidCompoundSet()));
+		List<ProteinSequence> batched = new ArrayList<ProteinSequence>();
+		LinkedHashMap<String,ProteinSequence> batch;
+		while (!(batch = fastaReader.process(50)).isEmpty()) {
+			assertTrue(batch.size() <= 50);
+			batched.addAll(batch.values());
+		}
+		fastaReader.close();
+		assertSequences(proteinSequences, batched);
+
+		inStream = this.getClass().getResourceAsStream("/PF00104_small.fasta");
+		fastaReader = new FastaReader<ProteinSequence,AminoAcidCompound>(inStream, new GenericFastaHeaderParser<ProteinSequence,AminoAcidCompound>(), new ProteinSequenceCreator(AminoAcidCompoundSet.getAminoAcidCompoundSet()));
+		List<ProteinSequence> iterated = new ArrayList<ProteinSequence>();
+		for (ProteinSequence proteinSequence : fastaReader) {
+			iterated.add(proteinSequence);
+		}
+		assertSequences(proteinSequences, iterated);
+	}
+
+	/**
+	 * Test of FastaReaderHelper.processInBatches
+	 */
+	@Test
+	public void testProcessInParallel() throws Exception {
+		InputStream inStream = this.getClass().getResourceAsStream("/PF00104_small.fasta");
+		FastaReader<ProteinSequence,AminoAcidCompound> fastaReader = new FastaReader<ProteinSequence,AminoAcidCompound>(inStream, new GenericFastaHeaderParser<ProteinSequence,AminoAcidCompound>(), new ProteinSequenceCreator(AminoAcidCompoundSet.getAminoAcidCompoundSet()));
+		final AtomicInteger processed = new AtomicInteger();
+		long count = FastaReaderHelper.processInBatches(fastaReader, 20, 2, new SequenceBatchProcessorInterface<ProteinSequence>() {
+			public void process(LinkedHashMap<String, ProteinSequence> sequences) {
+				processed.addAndGet(sequences.size());
+			}
+		});
+		assertEquals(283, count);
+		assertEquals(283, processed.get());
+	}
+
+	private void assertSequences(LinkedHashMap<String,ProteinSequence> expected, List<ProteinSequence> actual) {
+		assertEquals(expected.size(), actual.size());
+		int i = 0;
+		for (ProteinSequence proteinSequence : expected.values()) {
+			assertEquals(proteinSequence.getAccession().getID(), actual.get(i).getAccession().getID());
+			assertEquals(proteinSequence.getSequenceAsString(), actual.get(i).getSequenceAsString());
+			i++;
+		}
+	}
 }
@@ -0,0 +1,163 @@
+package org.biojava3.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests for the lock striped cache
+ */
+public class ConcurrentCacheTest {
+
+	@Test
+	public void testPutGetRemove() {
+		ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>(ConcurrentCache.Retention.STRONG);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		assertEquals("1", cache.get("a"));
+		assertNull(cache.get("c"));
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		assertEquals("2", cache.remove("b"));
+		assertNull(cache.remove("b"));
+		assertEquals(1, cache.size());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getWeight());
+	}
+
+	@Test
+	public void testSizeEviction() {
+		// one segment, so the least recently used order is global
+		ConcurrentCache<Integer, String> cache = new ConcurrentCache<Integer, String>(ConcurrentCache.Retention.STRONG, 3, null, 1);
+		cache.put(1, "1");
+		cache.put(2, "2");
+		cache.put(3, "3");
+		// 1 is now more recently used than 2
+		cache.get(1);
+		cache.put(4, "4");
+
+		assertEquals(3, cache.size());
+		assertNull(cache.get(2));
+		assertEquals("1", cache.get(1));
+		assertEquals("4", cache.get(4));
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void testWeightEviction() {
+		ConcurrentCache.Weigher<String, byte[]> weigher = new ConcurrentCache.Weigher<String, byte[]>() {
+			public int weigh(String key, byte[] value) {
+				return value.length;
+			}
+		};
+		ConcurrentCache<String, byte[]> cache = new ConcurrentCache<String, byte[]>(ConcurrentCache.Retention.STRONG, 100, weigher, 1);
+		cache.put("a", new byte[40]);
+		cache.put("b", new byte[40]);
+		assertEquals(80, cache.getWeight());
+		cache.put("c", new byte[40]);
+		assertEquals(80, cache.getWeight());
+		assertNull(cache.get("a"));
+
+		// an entry that is heavier than the whole cache is still kept until the next put
+		cache.put("d", new byte[200]);
+		assertEquals(1, cache.size());
+		assertEquals(200, cache.get("d").length);
+	}
+
+	@Test
+	public void testComputeIfAbsent() throws Exception {
+		final ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>(ConcurrentCache.Retention.SOFT);
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch start = new CountDownLatch(1);
+
+		final ConcurrentCache.Loader<String, String> loader = new ConcurrentCache.Loader<String, String>() {
+			public String load(String key) {
+				loads.incrementAndGet();
+				try {
+					// give the other threads time to ask for the same key
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return key.toUpperCase();
+			}
+		};
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<Future<String>>();
+			for (int i = 0; i < 32; i++) {
+				final String key = (i % 2 == 0) ? "x" : "y";
+				results.add(pool.submit(new Callable<String>() {
+					public String call() throws Exception {
+						start.await();
+						return cache.computeIfAbsent(key, loader);
+					}
+				}));
+			}
+			start.countDown();
+
+			String x = results.get(0).get();
+			String y = results.get(1).get();
+			for (int i = 0; i < results.size(); i++) {
+				assertSame(i % 2 == 0 ? x : y, results.get(i).get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(2, loads.get());
+		assertEquals(2, cache.getLoadCount());
+		assertEquals(32, cache.getHitCount() + cache.getMissCount());
+		assertEquals("X", cache.computeIfAbsent("x", loader));
+		assertEquals(2, loads.get());
+		assertTrue(cache.getHitRate() > 0.0);
+	}
+
+	@Test
+	public void testComputeIfAbsentNullAndFailure() {
+		ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>(ConcurrentCache.Retention.WEAK);
+		ConcurrentCache.Loader<String, String> none = new ConcurrentCache.Loader<String, String>() {
+			public String load(String key) {
+				return null;
+			}
+		};
+		assertNull(cache.computeIfAbsent("a", none));
+		assertEquals(0, cache.size());
+
+		try {
+			cache.computeIfAbsent("b", new ConcurrentCache.Loader<String, String>() {
+				public String load(String key) {
+					throw new IllegalStateException("failed");
+				}
+			});
+			fail("expected the exception of the loader");
+		} catch (IllegalStateException e) {
+			assertEquals("failed", e.getMessage());
+		}
+
+		// a failed load is not cached
+		assertEquals("B", cache.computeIfAbsent("b", new ConcurrentCache.Loader<String, String>() {
+			public String load(String key) {
+				return key.toUpperCase();
+			}
+		}));
+	}
+}
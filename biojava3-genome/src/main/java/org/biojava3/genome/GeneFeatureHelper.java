@@ -10,6 +10,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 import org.biojava3.core.sequence.AccessionID;
 import org.biojava3.core.sequence.CDSSequence;
@@ -22,6 +27,7 @@ import org.biojava3.core.sequence.GeneSequence;
 import org.biojava3.core.sequence.ProteinSequence;
 import org.biojava3.core.sequence.Strand;
 import org.biojava3.core.sequence.TranscriptSequence;
+import org.biojava3.core.util.ConcurrencyTools;
 import org.biojava3.genome.parsers.gff.Feature;
 import org.biojava3.genome.parsers.gff.FeatureHelper;
 import org.biojava3.genome.parsers.gff.FeatureI;
@@ -195,113 +201,127 @@ public class GeneFeatureHelper {
      */
     static public void addGeneIDGFF2GeneFeatures(LinkedHashMap<String, ChromosomeSequence> chromosomeSequenceList, FeatureList listGenes) throws Exception {
         Collection<String> geneIds = listGenes.attributeValues("gene_id");
+        final LinkedHashMap<String, FeatureList> geneIdHashMap = FeatureHelper.buildFeatureAtrributeIndex("gene_id", listGenes);
+        LinkedHashMap<String, List<String>> geneIdsBySequence = new LinkedHashMap<String, List<String>>();
         for (String geneid : geneIds) {
-            FeatureList gene = listGenes.selectByAttribute("gene_id", geneid);
-            FeatureI geneFeature = gene.get(0);
-            ChromosomeSequence seq = chromosomeSequenceList.get(geneFeature.seqname());
-            geneid = geneid.replaceAll("_", ".G");
-            AccessionID geneAccessionID = new AccessionID(geneid);
-            GeneSequence geneSequence = null;
-            Collection<String> transcriptids = gene.attributeValues("gene_id");
-            for (String transcriptid : transcriptids) {
-                // get all the individual features (exons, CDS regions, etc.) of this gene
-                FeatureList transcriptFeature = listGenes.selectByAttribute("gene_id", transcriptid);
-                transcriptid = transcriptid.replaceAll("_", ".G");
-
-
-
-
-                //      String seqName = feature.seqname();
-                FeatureI startCodon = null;
-                FeatureI stopCodon = null;
-                Integer startCodonBegin = null;
-                Integer stopCodonEnd = null;
-                String startCodonName = "";
-                String stopCodonName = "";
-
-
-                // now select only the coding regions of this gene
-                FeatureList firstFeatures = transcriptFeature.selectByType("First");
-                FeatureList terminalFeatures = transcriptFeature.selectByType("Terminal");
-                FeatureList internalFeatures = transcriptFeature.selectByType("Internal");
-                FeatureList singleFeatures = transcriptFeature.selectByType("Single");
-                FeatureList cdsFeatures = new FeatureList();
-                cdsFeatures.add(firstFeatures);
-                cdsFeatures.add(terminalFeatures);
-                cdsFeatures.add(internalFeatures);
-                cdsFeatures.add(singleFeatures);
-                // sort them
-                cdsFeatures = cdsFeatures.sortByStart();
-                Strand strand = Strand.POSITIVE;
-                FeatureI feature = cdsFeatures.get(0);
-                if (feature.location().isNegative()) {
-                    strand = strand.NEGATIVE;
-                }
-                if (startCodonBegin == null) {
-                    FeatureI firstFeature = cdsFeatures.get(0);
-                    if (strand == strand.NEGATIVE) {
-                        startCodonBegin = firstFeature.location().bioEnd();
-                    } else {
-                        startCodonBegin = firstFeature.location().bioStart();
-                    }
-                }
+            FeatureI geneFeature = getFeatureList(geneIdHashMap, geneid).get(0);
+            addToSequenceGroup(geneIdsBySequence, geneFeature.seqname(), geneid);
+        }
+        buildByChromosome(chromosomeSequenceList, geneIdsBySequence, new GeneModelBuilder<String>() {
 
-                if (stopCodonEnd == null) {
+            public void add(ChromosomeSequence seq, String geneid) throws Exception {
+                addGeneIDGFF2Gene(seq, geneid, geneIdHashMap);
+            }
+        });
+    }
 
-                    FeatureI lastFeature = cdsFeatures.get(cdsFeatures.size() - 1);
-                    if (strand == strand.NEGATIVE) {
-                        stopCodonEnd = lastFeature.location().bioStart();
-                    } else {
-                        stopCodonEnd = lastFeature.location().bioEnd();
-                    }
-                }
-                //for gtf ordering can be strand based so first is last and last is first
-                if (startCodonBegin > stopCodonEnd) {
-                    int temp = startCodonBegin;
-                    startCodonBegin = stopCodonEnd;
-                    stopCodonEnd = temp;
+    /**
+     * Add one geneid gene and its transcript to the chromosome sequence
+     */
+    static private void addGeneIDGFF2Gene(ChromosomeSequence seq, String geneid, LinkedHashMap<String, FeatureList> geneIdHashMap) throws Exception {
+        FeatureList gene = getFeatureList(geneIdHashMap, geneid);
+        geneid = geneid.replaceAll("_", ".G");
+        AccessionID geneAccessionID = new AccessionID(geneid);
+        GeneSequence geneSequence = null;
+        Collection<String> transcriptids = gene.attributeValues("gene_id");
+        for (String transcriptid : transcriptids) {
+            // get all the individual features (exons, CDS regions, etc.) of this gene
+            FeatureList transcriptFeature = getFeatureList(geneIdHashMap, transcriptid);
+            transcriptid = transcriptid.replaceAll("_", ".G");
+
+
+
+
+            //      String seqName = feature.seqname();
+            FeatureI startCodon = null;
+            FeatureI stopCodon = null;
+            Integer startCodonBegin = null;
+            Integer stopCodonEnd = null;
+            String startCodonName = "";
+            String stopCodonName = "";
+
+
+            // now select only the coding regions of this gene
+            FeatureList firstFeatures = transcriptFeature.selectByType("First");
+            FeatureList terminalFeatures = transcriptFeature.selectByType("Terminal");
+            FeatureList internalFeatures = transcriptFeature.selectByType("Internal");
+            FeatureList singleFeatures = transcriptFeature.selectByType("Single");
+            FeatureList cdsFeatures = new FeatureList();
+            cdsFeatures.add(firstFeatures);
+            cdsFeatures.add(terminalFeatures);
+            cdsFeatures.add(internalFeatures);
+            cdsFeatures.add(singleFeatures);
+            // sort them
+            cdsFeatures = cdsFeatures.sortByStart();
+            Strand strand = Strand.POSITIVE;
+            FeatureI feature = cdsFeatures.get(0);
+            if (feature.location().isNegative()) {
+                strand = strand.NEGATIVE;
+            }
+            if (startCodonBegin == null) {
+                FeatureI firstFeature = cdsFeatures.get(0);
+                if (strand == strand.NEGATIVE) {
+                    startCodonBegin = firstFeature.location().bioEnd();
+                } else {
+                    startCodonBegin = firstFeature.location().bioStart();
                 }
+            }
+
+            if (stopCodonEnd == null) {
 
-                AccessionID transcriptAccessionID = new AccessionID(transcriptid);
-                if (geneSequence == null) {
-                    geneSequence = seq.addGene(geneAccessionID, startCodonBegin, stopCodonEnd, strand);
-                    geneSequence.setSource(((Feature) feature).source());
+                FeatureI lastFeature = cdsFeatures.get(cdsFeatures.size() - 1);
+                if (strand == strand.NEGATIVE) {
+                    stopCodonEnd = lastFeature.location().bioStart();
                 } else {
-                    //if multiple transcripts for one gene make sure the gene is defined as the min and max start/end
+                    stopCodonEnd = lastFeature.location().bioEnd();
+                }
+            }
+            //for gtf ordering can be strand based so first is last and last is first
+            if (startCodonBegin > stopCodonEnd) {
+                int temp = startCodonBegin;
+                startCodonBegin = stopCodonEnd;
+                stopCodonEnd = temp;
+            }
 
-                    if (startCodonBegin < geneSequence.getBioBegin()) {
-                        geneSequence.setBioBegin(startCodonBegin);
-                    }
-                    if (stopCodonEnd > geneSequence.getBioBegin()) {
-                        geneSequence.setBioEnd(stopCodonEnd);
-                    }
+            AccessionID transcriptAccessionID = new AccessionID(transcriptid);
+            if (geneSequence == null) {
+                geneSequence = seq.addGene(geneAccessionID, startCodonBegin, stopCodonEnd, strand);
+                geneSequence.setSource(((Feature) feature).source());
+            } else {
+                //if multiple transcripts for one gene make sure the gene is defined as the min and max start/end
 
+                if (startCodonBegin < geneSequence.getBioBegin()) {
+                    geneSequence.setBioBegin(startCodonBegin);
                 }
-                TranscriptSequence transcriptSequence = geneSequence.addTranscript(transcriptAccessionID, startCodonBegin, stopCodonEnd);
-                if (startCodon != null) {
-                    if (startCodonName == null || startCodonName.length() == 0) {
-                        startCodonName = transcriptid + "-start_codon-" + startCodon.location().bioStart() + "-" + startCodon.location().bioEnd();
-                    }
-                    transcriptSequence.addStartCodonSequence(new AccessionID(startCodonName), startCodon.location().bioStart(), startCodon.location().bioEnd());
+                if (stopCodonEnd > geneSequence.getBioBegin()) {
+                    geneSequence.setBioEnd(stopCodonEnd);
                 }
-                if (stopCodon != null) {
-                    if (stopCodonName == null || stopCodonName.length() == 0) {
-                        stopCodonName = transcriptid + "-stop_codon-" + stopCodon.location().bioStart() + "-" + stopCodon.location().bioEnd();
-                    }
-                    transcriptSequence.addStopCodonSequence(new AccessionID(stopCodonName), stopCodon.location().bioStart(), stopCodon.location().bioEnd());
+
+            }
+            TranscriptSequence transcriptSequence = geneSequence.addTranscript(transcriptAccessionID, startCodonBegin, stopCodonEnd);
+            if (startCodon != null) {
+                if (startCodonName == null || startCodonName.length() == 0) {
+                    startCodonName = transcriptid + "-start_codon-" + startCodon.location().bioStart() + "-" + startCodon.location().bioEnd();
                 }
+                transcriptSequence.addStartCodonSequence(new AccessionID(startCodonName), startCodon.location().bioStart(), startCodon.location().bioEnd());
+            }
+            if (stopCodon != null) {
+                if (stopCodonName == null || stopCodonName.length() == 0) {
+                    stopCodonName = transcriptid + "-stop_codon-" + stopCodon.location().bioStart() + "-" + stopCodon.location().bioEnd();
+                }
+                transcriptSequence.addStopCodonSequence(new AccessionID(stopCodonName), stopCodon.location().bioStart(), stopCodon.location().bioEnd());
+            }
 
-                for (FeatureI cdsFeature : cdsFeatures) {
-                    Feature cds = (Feature) cdsFeature;
-                    String cdsName = cds.getAttribute("transcript_name");
-                    if (cdsName == null || cdsName.length() == 0) {
-                        cdsName = transcriptid + "-cds-" + cds.location().bioStart() + "-" + cds.location().bioEnd();
-                    }
-                    AccessionID cdsAccessionID = new AccessionID(cdsName);
-                    ExonSequence exonSequence = geneSequence.addExon(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd());
-                    CDSSequence cdsSequence = transcriptSequence.addCDS(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd(), cds.frame());
-                    cdsSequence.setSequenceScore(cds.score());
+            for (FeatureI cdsFeature : cdsFeatures) {
+                Feature cds = (Feature) cdsFeature;
+                String cdsName = cds.getAttribute("transcript_name");
+                if (cdsName == null || cdsName.length() == 0) {
+                    cdsName = transcriptid + "-cds-" + cds.location().bioStart() + "-" + cds.location().bioEnd();
                 }
+                AccessionID cdsAccessionID = new AccessionID(cdsName);
+                ExonSequence exonSequence = geneSequence.addExon(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd());
+                CDSSequence cdsSequence = transcriptSequence.addCDS(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd(), cds.frame());
+                cdsSequence.setSequenceScore(cds.score());
             }
         }
 
@@ -349,180 +369,197 @@ public class GeneFeatureHelper {
 
 
         FeatureList mRNAFeatures = listGenes.selectByType("mRNA");
-        LinkedHashMap<String,FeatureList> featureIDHashMap = FeatureHelper.buildFeatureAtrributeIndex("ID", listGenes);
-        LinkedHashMap<String,FeatureList> featureParentHashMap = FeatureHelper.buildFeatureAtrributeIndex("Parent", listGenes);
+        final LinkedHashMap<String,FeatureList> featureIDHashMap = FeatureHelper.buildFeatureAtrributeIndex("ID", listGenes);
+        final LinkedHashMap<String,FeatureList> featureParentHashMap = FeatureHelper.buildFeatureAtrributeIndex("Parent", listGenes);
 
+        LinkedHashMap<String, List<Feature>> mRNAFeaturesBySequence = new LinkedHashMap<String, List<Feature>>();
         for (FeatureI f : mRNAFeatures) {
-            String geneID;
-            String geneNote = null;
-            String geneSource = null;
-            String sequenceName = null;
-            ChromosomeSequence seq = null;
-            GeneSequence geneSequence = null;
-
             Feature mRNAFeature = (Feature) f;
-            String mRNAID = mRNAFeature.getAttribute("ID");
-            String mRNAsource = mRNAFeature.source();
-            String mRNANote = mRNAFeature.getAttribute("Note");
+            String sequenceName = mRNAFeature.seqname();
             String mRNAParent = mRNAFeature.getAttribute("Parent");
             if (mRNAParent != null && mRNAParent.length() > 0) {
-               // FeatureList geneFeatureList = listGenes.selectByAttribute("ID", mRNAParent);
-                FeatureList geneFeatureList = featureIDHashMap.get(mRNAParent);
-                Feature geneFeature = (Feature) geneFeatureList.get(0);
-                geneID = geneFeature.getAttribute("ID");
-                geneNote = geneFeature.getAttribute("Note");
-                geneSource = ((Feature) geneFeature).source();
-                sequenceName = geneFeature.seqname();
-
-                //
-            } else {
-                //deal with cases where no parent gene is given
-                geneID = mRNAID;
-                geneSource = mRNAsource;
-                sequenceName = mRNAFeature.seqname();
+                // the gene decides which chromosome the transcript is added to
+                sequenceName = featureIDHashMap.get(mRNAParent).get(0).seqname();
             }
+            addToSequenceGroup(mRNAFeaturesBySequence, sequenceName, mRNAFeature);
+        }
+        buildByChromosome(chromosomeSequenceList, mRNAFeaturesBySequence, new GeneModelBuilder<Feature>() {
 
-            seq = chromosomeSequenceList.get(sequenceName);
+            public void add(ChromosomeSequence seq, Feature mRNAFeature) throws Exception {
+                addGmodGFF3Transcript(seq, mRNAFeature, featureIDHashMap, featureParentHashMap);
+            }
+        });
+    }
 
-            AccessionID geneAccessionID = new AccessionID(geneID);
+    /**
+     * Add one mRNA and its CDS features to the chromosome sequence, creating the gene if needed
+     */
+    static private void addGmodGFF3Transcript(ChromosomeSequence seq, Feature mRNAFeature, LinkedHashMap<String,FeatureList> featureIDHashMap, LinkedHashMap<String,FeatureList> featureParentHashMap) throws Exception {
+        String geneID;
+        String geneNote = null;
+        String geneSource = null;
+        String sequenceName = null;
+        GeneSequence geneSequence = null;
+
+        String mRNAID = mRNAFeature.getAttribute("ID");
+        String mRNAsource = mRNAFeature.source();
+        String mRNANote = mRNAFeature.getAttribute("Note");
+        String mRNAParent = mRNAFeature.getAttribute("Parent");
+        if (mRNAParent != null && mRNAParent.length() > 0) {
+           // FeatureList geneFeatureList = listGenes.selectByAttribute("ID", mRNAParent);
+            FeatureList geneFeatureList = featureIDHashMap.get(mRNAParent);
+            Feature geneFeature = (Feature) geneFeatureList.get(0);
+            geneID = geneFeature.getAttribute("ID");
+            geneNote = geneFeature.getAttribute("Note");
+            geneSource = ((Feature) geneFeature).source();
+            sequenceName = geneFeature.seqname();
+
+            //
+        } else {
+            //deal with cases where no parent gene is given
+            geneID = mRNAID;
+            geneSource = mRNAsource;
+            sequenceName = mRNAFeature.seqname();
+        }
 
-          //  FeatureList mRNAChildren = listGenes.selectByAttribute("Parent", mRNAID);
-            FeatureList mRNAChildren = featureParentHashMap.get(mRNAID);
-            FeatureList cdsFeatures = mRNAChildren.selectByType("CDS");
-            FeatureI feature = cdsFeatures.get(0);
-            Strand strand = Strand.POSITIVE;
+        AccessionID geneAccessionID = new AccessionID(geneID);
 
-            if (feature.location().isNegative()) {
-                strand = strand.NEGATIVE;
-            }
-            cdsFeatures = cdsFeatures.sortByStart();
+      //  FeatureList mRNAChildren = listGenes.selectByAttribute("Parent", mRNAID);
+        FeatureList mRNAChildren = featureParentHashMap.get(mRNAID);
+        FeatureList cdsFeatures = mRNAChildren.selectByType("CDS");
+        FeatureI feature = cdsFeatures.get(0);
+        Strand strand = Strand.POSITIVE;
 
+        if (feature.location().isNegative()) {
+            strand = strand.NEGATIVE;
+        }
+        cdsFeatures = cdsFeatures.sortByStart();
 
 
 
 
 
 
-            String seqName = feature.seqname();
-            FeatureI startCodon = null;
-            FeatureI stopCodon = null;
-            Integer startCodonBegin = null;
-            Integer stopCodonEnd = null;
-            String startCodonName = "";
-            String stopCodonName = "";
-            FeatureList startCodonList = mRNAChildren.selectByType("five_prime_UTR");
-            if (startCodonList != null && startCodonList.size() > 0) {
-                startCodon = startCodonList.get(0);
-                if (strand == Strand.NEGATIVE) {
-                    startCodonBegin = startCodon.location().bioEnd();
-                } else {
-                    startCodonBegin = startCodon.location().bioStart();
-                }
-                startCodonName = startCodon.getAttribute("ID");
-            }
 
-            FeatureList stopCodonList = mRNAChildren.selectByType("three_prime_UTR");
+        String seqName = feature.seqname();
+        FeatureI startCodon = null;
+        FeatureI stopCodon = null;
+        Integer startCodonBegin = null;
+        Integer stopCodonEnd = null;
+        String startCodonName = "";
+        String stopCodonName = "";
+        FeatureList startCodonList = mRNAChildren.selectByType("five_prime_UTR");
+        if (startCodonList != null && startCodonList.size() > 0) {
+            startCodon = startCodonList.get(0);
+            if (strand == Strand.NEGATIVE) {
+                startCodonBegin = startCodon.location().bioEnd();
+            } else {
+                startCodonBegin = startCodon.location().bioStart();
+            }
+            startCodonName = startCodon.getAttribute("ID");
+        }
 
-            if (stopCodonList != null && stopCodonList.size() > 0) {
-                stopCodon = stopCodonList.get(0);
-                if (strand == Strand.NEGATIVE) {
-                    stopCodonEnd = stopCodon.location().bioStart();
-                } else {
-                    stopCodonEnd = stopCodon.location().bioEnd();
-                }
-                stopCodonName = stopCodon.getAttribute("ID");
+        FeatureList stopCodonList = mRNAChildren.selectByType("three_prime_UTR");
 
+        if (stopCodonList != null && stopCodonList.size() > 0) {
+            stopCodon = stopCodonList.get(0);
+            if (strand == Strand.NEGATIVE) {
+                stopCodonEnd = stopCodon.location().bioStart();
+            } else {
+                stopCodonEnd = stopCodon.location().bioEnd();
             }
+            stopCodonName = stopCodon.getAttribute("ID");
 
+        }
 
 
 
-            if (startCodonBegin == null) {
-                if (strand == Strand.NEGATIVE) {
-                    FeatureI firstFeature = cdsFeatures.get(0);
 
-                    startCodonBegin = firstFeature.location().bioEnd();
-                } else {
-                    FeatureI firstFeature = cdsFeatures.get(0);
+        if (startCodonBegin == null) {
+            if (strand == Strand.NEGATIVE) {
+                FeatureI firstFeature = cdsFeatures.get(0);
 
-                    startCodonBegin = firstFeature.location().bioStart();
-                }
-            }
+                startCodonBegin = firstFeature.location().bioEnd();
+            } else {
+                FeatureI firstFeature = cdsFeatures.get(0);
 
-            if (stopCodonEnd == null) {
-                if (strand == Strand.NEGATIVE) {
-                    FeatureI lastFeature = cdsFeatures.get(cdsFeatures.size() - 1);
-                    stopCodonEnd = lastFeature.location().bioStart();
-                } else {
-                    FeatureI lastFeature = cdsFeatures.get(cdsFeatures.size() - 1);
-                    stopCodonEnd = lastFeature.location().bioEnd();
-                }
-            }
-            //for gtf ordering can be strand based so first is last and last is first
-            if (startCodonBegin > stopCodonEnd) {
-                int temp = startCodonBegin;
-                startCodonBegin = stopCodonEnd;
-                stopCodonEnd = temp;
+                startCodonBegin = firstFeature.location().bioStart();
             }
+        }
 
-
-
-            AccessionID transcriptAccessionID = new AccessionID(mRNAID);
-            geneSequence = seq.getGene(geneID);
-            if (geneSequence == null) {
-                geneSequence = seq.addGene(geneAccessionID, startCodonBegin, stopCodonEnd, strand);
-                geneSequence.setSource(geneSource);
-                if (geneNote != null && geneNote.length() > 0) {
-                    geneSequence.addNote(geneNote);
-                }
+        if (stopCodonEnd == null) {
+            if (strand == Strand.NEGATIVE) {
+                FeatureI lastFeature = cdsFeatures.get(cdsFeatures.size() - 1);
+                stopCodonEnd = lastFeature.location().bioStart();
             } else {
+                FeatureI lastFeature = cdsFeatures.get(cdsFeatures.size() - 1);
+                stopCodonEnd = lastFeature.location().bioEnd();
+            }
+        }
+        //for gtf ordering can be strand based so first is last and last is first
+        if (startCodonBegin > stopCodonEnd) {
+            int temp = startCodonBegin;
+            startCodonBegin = stopCodonEnd;
+            stopCodonEnd = temp;
+        }
 
-                if (startCodonBegin < geneSequence.getBioBegin()) {
-                    geneSequence.setBioBegin(startCodonBegin);
-                }
-                if (stopCodonEnd > geneSequence.getBioBegin()) {
-                    geneSequence.setBioEnd(stopCodonEnd);
-                }
 
-            }
-            TranscriptSequence transcriptSequence = geneSequence.addTranscript(transcriptAccessionID, startCodonBegin, stopCodonEnd);
-            transcriptSequence.setSource(mRNAsource);
-            if (mRNANote != null && mRNANote.length() > 0) {
-                transcriptSequence.addNote(mRNANote);
 
+        AccessionID transcriptAccessionID = new AccessionID(mRNAID);
+        geneSequence = seq.getGene(geneID);
+        if (geneSequence == null) {
+            geneSequence = seq.addGene(geneAccessionID, startCodonBegin, stopCodonEnd, strand);
+            geneSequence.setSource(geneSource);
+            if (geneNote != null && geneNote.length() > 0) {
+                geneSequence.addNote(geneNote);
             }
-            if (startCodon != null) {
-                if (startCodonName == null || startCodonName.length() == 0) {
-                    startCodonName = mRNAID + "-start_codon-" + startCodon.location().bioStart() + "-" + startCodon.location().bioEnd();
-                }
-                transcriptSequence.addStartCodonSequence(new AccessionID(startCodonName), startCodon.location().bioStart(), startCodon.location().bioEnd());
+        } else {
+
+            if (startCodonBegin < geneSequence.getBioBegin()) {
+                geneSequence.setBioBegin(startCodonBegin);
             }
-            if (stopCodon != null) {
-                if (stopCodonName == null || stopCodonName.length() == 0) {
-                    stopCodonName = mRNAID + "-stop_codon-" + stopCodon.location().bioStart() + "-" + stopCodon.location().bioEnd();
-                }
-                transcriptSequence.addStopCodonSequence(new AccessionID(stopCodonName), stopCodon.location().bioStart(), stopCodon.location().bioEnd());
+            if (stopCodonEnd > geneSequence.getBioBegin()) {
+                geneSequence.setBioEnd(stopCodonEnd);
             }
 
-            for (FeatureI cdsFeature : cdsFeatures) {
-                Feature cds = (Feature) cdsFeature;
-                String cdsNote = cdsFeature.getAttribute("Note");
-                String cdsSource = cds.source();
-                String cdsName = cds.getAttribute("ID");
-                if (cdsName == null || cdsName.length() == 0) {
-                    cdsName = mRNAID + "-cds-" + cds.location().bioStart() + "-" + cds.location().bioEnd();
-                }
-                AccessionID cdsAccessionID = new AccessionID(cdsName);
-                ExonSequence exonSequence = geneSequence.addExon(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd());
-                exonSequence.setSource(cdsSource);
-                if (cdsNote != null && cdsNote.length() > 0) {
-                    exonSequence.addNote(cdsNote);
-                }
-                transcriptSequence.addCDS(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd(), cds.frame());
+        }
+        TranscriptSequence transcriptSequence = geneSequence.addTranscript(transcriptAccessionID, startCodonBegin, stopCodonEnd);
+        transcriptSequence.setSource(mRNAsource);
+        if (mRNANote != null && mRNANote.length() > 0) {
+            transcriptSequence.addNote(mRNANote);
+
+        }
+        if (startCodon != null) {
+            if (startCodonName == null || startCodonName.length() == 0) {
+                startCodonName = mRNAID + "-start_codon-" + startCodon.location().bioStart() + "-" + startCodon.location().bioEnd();
             }
-            geneSequence.addIntronsUsingExons();
+            transcriptSequence.addStartCodonSequence(new AccessionID(startCodonName), startCodon.location().bioStart(), startCodon.location().bioEnd());
+        }
+        if (stopCodon != null) {
+            if (stopCodonName == null || stopCodonName.length() == 0) {
+                stopCodonName = mRNAID + "-stop_codon-" + stopCodon.location().bioStart() + "-" + stopCodon.location().bioEnd();
+            }
+            transcriptSequence.addStopCodonSequence(new AccessionID(stopCodonName), stopCodon.location().bioStart(), stopCodon.location().bioEnd());
+        }
 
+        for (FeatureI cdsFeature : cdsFeatures) {
+            Feature cds = (Feature) cdsFeature;
+            String cdsNote = cdsFeature.getAttribute("Note");
+            String cdsSource = cds.source();
+            String cdsName = cds.getAttribute("ID");
+            if (cdsName == null || cdsName.length() == 0) {
+                cdsName = mRNAID + "-cds-" + cds.location().bioStart() + "-" + cds.location().bioEnd();
+            }
+            AccessionID cdsAccessionID = new AccessionID(cdsName);
+            ExonSequence exonSequence = geneSequence.addExon(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd());
+            exonSequence.setSource(cdsSource);
+            if (cdsNote != null && cdsNote.length() > 0) {
+                exonSequence.addNote(cdsNote);
+            }
+            transcriptSequence.addCDS(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd(), cds.frame());
         }
+        geneSequence.addIntronsUsingExons();
+
 
     }
 
@@ -536,31 +573,205 @@ public class GeneFeatureHelper {
 
     static public void addGlimmerGFF3GeneFeatures(LinkedHashMap<String, ChromosomeSequence> chromosomeSequenceList, FeatureList listGenes) throws Exception {
         FeatureList mRNAFeatures = listGenes.selectByType("mRNA");
+        final LinkedHashMap<String, FeatureList> featureParentHashMap = FeatureHelper.buildFeatureAtrributeIndex("Parent", listGenes);
+        LinkedHashMap<String, List<Feature>> mRNAFeaturesBySequence = new LinkedHashMap<String, List<Feature>>();
         for (FeatureI f : mRNAFeatures) {
             Feature mRNAFeature = (Feature) f;
-            String geneid = mRNAFeature.getAttribute("ID");
-            String source = mRNAFeature.source();
+            FeatureI geneFeature = getFeatureList(featureParentHashMap, mRNAFeature.getAttribute("ID")).get(0);
+            addToSequenceGroup(mRNAFeaturesBySequence, geneFeature.seqname(), mRNAFeature);
+        }
+        buildByChromosome(chromosomeSequenceList, mRNAFeaturesBySequence, new GeneModelBuilder<Feature>() {
 
-            FeatureList gene = listGenes.selectByAttribute("Parent", geneid);
-            FeatureI geneFeature = gene.get(0);
-            ChromosomeSequence seq = chromosomeSequenceList.get(geneFeature.seqname());
-            AccessionID geneAccessionID = new AccessionID(geneid);
-            GeneSequence geneSequence = null;
+            public void add(ChromosomeSequence seq, Feature mRNAFeature) throws Exception {
+                addGlimmerGFF3Gene(seq, mRNAFeature, featureParentHashMap);
+            }
+        });
+    }
 
-            FeatureList cdsFeatures = gene.selectByType("CDS");
-            FeatureI feature = cdsFeatures.get(0);
-            Strand strand = Strand.POSITIVE;
+    /**
+     * Add one glimmer mRNA as a gene with a single transcript to the chromosome sequence
+     */
+    static private void addGlimmerGFF3Gene(ChromosomeSequence seq, Feature mRNAFeature, LinkedHashMap<String, FeatureList> featureParentHashMap) throws Exception {
+        String geneid = mRNAFeature.getAttribute("ID");
+        String source = mRNAFeature.source();
 
-            if (feature.location().isNegative()) {
-                strand = strand.NEGATIVE;
+        FeatureList gene = getFeatureList(featureParentHashMap, geneid);
+        AccessionID geneAccessionID = new AccessionID(geneid);
+        GeneSequence geneSequence = null;
+
+        FeatureList cdsFeatures = gene.selectByType("CDS");
+        FeatureI feature = cdsFeatures.get(0);
+        Strand strand = Strand.POSITIVE;
+
+        if (feature.location().isNegative()) {
+            strand = strand.NEGATIVE;
+        }
+        cdsFeatures = cdsFeatures.sortByStart();
+
+
+
+
+
+
+
+        String seqName = feature.seqname();
+        FeatureI startCodon = null;
+        FeatureI stopCodon = null;
+        Integer startCodonBegin = null;
+        Integer stopCodonEnd = null;
+        String startCodonName = "";
+        String stopCodonName = "";
+        FeatureList startCodonList = gene.selectByAttribute("Note", "initial-exon");
+        if (startCodonList != null && startCodonList.size() > 0) {
+            startCodon = startCodonList.get(0);
+            if (strand == Strand.NEGATIVE) {
+                startCodonBegin = startCodon.location().bioEnd();
+            } else {
+                startCodonBegin = startCodon.location().bioStart();
             }
-            cdsFeatures = cdsFeatures.sortByStart();
+            startCodonName = startCodon.getAttribute("ID");
+        }
+
+        FeatureList stopCodonList = gene.selectByAttribute("Note", "final-exon");
+
+        if (stopCodonList != null && stopCodonList.size() > 0) {
+            stopCodon = stopCodonList.get(0);
+            if (strand == Strand.NEGATIVE) {
+                stopCodonEnd = stopCodon.location().bioStart();
+            } else {
+                stopCodonEnd = stopCodon.location().bioEnd();
+            }
+            stopCodonName = stopCodon.getAttribute("ID");
+
+        }
+
+
+
+
+        if (startCodonBegin == null) {
+            if (strand == Strand.NEGATIVE) {
+                FeatureI firstFeature = cdsFeatures.get(0);
+
+                startCodonBegin = firstFeature.location().bioEnd();
+            } else {
+                FeatureI firstFeature = cdsFeatures.get(0);
+
+                startCodonBegin = firstFeature.location().bioStart();
+            }
+        }
+
+        if (stopCodonEnd == null) {
+            if (strand == Strand.NEGATIVE) {
+                FeatureI lastFeature = cdsFeatures.get(cdsFeatures.size() - 1);
+                stopCodonEnd = lastFeature.location().bioStart();
+            } else {
+                FeatureI lastFeature = cdsFeatures.get(cdsFeatures.size() - 1);
+                stopCodonEnd = lastFeature.location().bioEnd();
+            }
+        }
+        //for gtf ordering can be strand based so first is last and last is first
+        if (startCodonBegin > stopCodonEnd) {
+            int temp = startCodonBegin;
+            startCodonBegin = stopCodonEnd;
+            stopCodonEnd = temp;
+        }
 
 
 
+        AccessionID transcriptAccessionID = new AccessionID(geneid);
+        if (geneSequence == null) {
+            geneSequence = seq.addGene(geneAccessionID, startCodonBegin, stopCodonEnd, strand);
+            geneSequence.setSource(source);
+        } else {
 
+            if (startCodonBegin < geneSequence.getBioBegin()) {
+                geneSequence.setBioBegin(startCodonBegin);
+            }
+            if (stopCodonEnd > geneSequence.getBioBegin()) {
+                geneSequence.setBioEnd(stopCodonEnd);
+            }
+
+        }
+        TranscriptSequence transcriptSequence = geneSequence.addTranscript(transcriptAccessionID, startCodonBegin, stopCodonEnd);
+        if (startCodon != null) {
+            if (startCodonName == null || startCodonName.length() == 0) {
+                startCodonName = geneid + "-start_codon-" + startCodon.location().bioStart() + "-" + startCodon.location().bioEnd();
+            }
+            transcriptSequence.addStartCodonSequence(new AccessionID(startCodonName), startCodon.location().bioStart(), startCodon.location().bioEnd());
+        }
+        if (stopCodon != null) {
+            if (stopCodonName == null || stopCodonName.length() == 0) {
+                stopCodonName = geneid + "-stop_codon-" + stopCodon.location().bioStart() + "-" + stopCodon.location().bioEnd();
+            }
+            transcriptSequence.addStopCodonSequence(new AccessionID(stopCodonName), stopCodon.location().bioStart(), stopCodon.location().bioEnd());
+        }
+
+        for (FeatureI cdsFeature : cdsFeatures) {
+            Feature cds = (Feature) cdsFeature;
+            String cdsName = cds.getAttribute("ID");
+            if (cdsName == null || cdsName.length() == 0) {
+                cdsName = geneid + "-cds-" + cds.location().bioStart() + "-" + cds.location().bioEnd();
+            }
+            AccessionID cdsAccessionID = new AccessionID(cdsName);
+            ExonSequence exonSequence = geneSequence.addExon(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd());
+            transcriptSequence.addCDS(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd(), cds.frame());
+        }
+
+
+    }
+
+    static public LinkedHashMap<String, ChromosomeSequence> loadFastaAddGeneFeaturesFromGeneMarkGTF(File fastaSequenceFile, File gffFile) throws Exception {
+        LinkedHashMap<String, DNASequence> dnaSequenceList = FastaReaderHelper.readFastaDNASequence(fastaSequenceFile);
+        LinkedHashMap<String, ChromosomeSequence> chromosomeSequenceList = GeneFeatureHelper.getChromosomeSequenceFromDNASequence(dnaSequenceList);
+        FeatureList listGenes = GeneMarkGTFReader.read(gffFile.getAbsolutePath());
+        addGeneMarkGTFGeneFeatures(chromosomeSequenceList, listGenes);
+        return chromosomeSequenceList;
+    }
+
+    static public void addGeneMarkGTFGeneFeatures(LinkedHashMap<String, ChromosomeSequence> chromosomeSequenceList, FeatureList listGenes) throws Exception {
+        Collection<String> geneIds = listGenes.attributeValues("gene_id");
+        final LinkedHashMap<String, FeatureList> geneIdHashMap = FeatureHelper.buildFeatureAtrributeIndex("gene_id", listGenes);
+        final LinkedHashMap<String, FeatureList> transcriptIdHashMap = FeatureHelper.buildFeatureAtrributeIndex("transcript_id", listGenes);
+        LinkedHashMap<String, List<String>> geneIdsBySequence = new LinkedHashMap<String, List<String>>();
+        for (String geneid : geneIds) {
+            FeatureI geneFeature = getFeatureList(geneIdHashMap, geneid).get(0);
+            addToSequenceGroup(geneIdsBySequence, geneFeature.seqname(), geneid);
+        }
+        buildByChromosome(chromosomeSequenceList, geneIdsBySequence, new GeneModelBuilder<String>() {
+
+            public void add(ChromosomeSequence seq, String geneid) throws Exception {
+                addGeneMarkGTFGene(seq, geneid, geneIdHashMap, transcriptIdHashMap);
+            }
+        });
+    }
+
+    /**
+     * Add one genemark gene and all of its transcripts to the chromosome sequence
+     */
+    static private void addGeneMarkGTFGene(ChromosomeSequence seq, String geneid, LinkedHashMap<String, FeatureList> geneIdHashMap, LinkedHashMap<String, FeatureList> transcriptIdHashMap) throws Exception {
+        //       if(geneid.equals("45_g")){
+        //           int dummy =1;
+        //       }
+        FeatureList gene = getFeatureList(geneIdHashMap, geneid);
+        AccessionID geneAccessionID = new AccessionID(geneid);
+        GeneSequence geneSequence = null;
+        Collection<String> transcriptids = gene.attributeValues("transcript_id");
+        for (String transcriptid : transcriptids) {
+            // get all the individual features (exons, CDS regions, etc.) of this gene
+
+
+            FeatureList transcriptFeature = getFeatureList(transcriptIdHashMap, transcriptid);
+            // now select only the coding regions of this gene
+            FeatureList cdsFeatures = transcriptFeature.selectByType("CDS");
+            // sort them
+            cdsFeatures = cdsFeatures.sortByStart();
 
+            FeatureI feature = cdsFeatures.get(0);
+            Strand strand = Strand.POSITIVE;
 
+            if (feature.location().isNegative()) {
+                strand = strand.NEGATIVE;
+            }
 
             String seqName = feature.seqname();
             FeatureI startCodon = null;
@@ -569,27 +780,28 @@ public class GeneFeatureHelper {
             Integer stopCodonEnd = null;
             String startCodonName = "";
             String stopCodonName = "";
-            FeatureList startCodonList = gene.selectByAttribute("Note", "initial-exon");
+            FeatureList startCodonList = transcriptFeature.selectByType("start_codon");
             if (startCodonList != null && startCodonList.size() > 0) {
                 startCodon = startCodonList.get(0);
-                if (strand == Strand.NEGATIVE) {
-                    startCodonBegin = startCodon.location().bioEnd();
-                } else {
+                if (strand == Strand.POSITIVE) {
                     startCodonBegin = startCodon.location().bioStart();
+                } else {
+                    startCodonBegin = startCodon.location().bioEnd();
                 }
-                startCodonName = startCodon.getAttribute("ID");
+                startCodonName = startCodon.getAttribute("transcript_name");
             }
 
-            FeatureList stopCodonList = gene.selectByAttribute("Note", "final-exon");
+            FeatureList stopCodonList = transcriptFeature.selectByType("stop_codon");
 
             if (stopCodonList != null && stopCodonList.size() > 0) {
                 stopCodon = stopCodonList.get(0);
-                if (strand == Strand.NEGATIVE) {
-                    stopCodonEnd = stopCodon.location().bioStart();
-                } else {
+                if (strand == Strand.POSITIVE) {
                     stopCodonEnd = stopCodon.location().bioEnd();
+                } else {
+                    stopCodonEnd = stopCodon.location().bioStart();
                 }
-                stopCodonName = stopCodon.getAttribute("ID");
+
+                stopCodonName = stopCodon.getAttribute("transcript_name");
 
             }
 
@@ -624,13 +836,12 @@ public class GeneFeatureHelper {
                 stopCodonEnd = temp;
             }
 
-
-
-            AccessionID transcriptAccessionID = new AccessionID(geneid);
+            AccessionID transcriptAccessionID = new AccessionID(transcriptid);
             if (geneSequence == null) {
                 geneSequence = seq.addGene(geneAccessionID, startCodonBegin, stopCodonEnd, strand);
-                geneSequence.setSource(source);
+                geneSequence.setSource(((Feature) feature).source());
             } else {
+                //if multiple transcripts for one gene make sure the gene is defined as the min and max start/end
 
                 if (startCodonBegin < geneSequence.getBioBegin()) {
                     geneSequence.setBioBegin(startCodonBegin);
@@ -643,188 +854,120 @@ public class GeneFeatureHelper {
             TranscriptSequence transcriptSequence = geneSequence.addTranscript(transcriptAccessionID, startCodonBegin, stopCodonEnd);
             if (startCodon != null) {
                 if (startCodonName == null || startCodonName.length() == 0) {
-                    startCodonName = geneid + "-start_codon-" + startCodon.location().bioStart() + "-" + startCodon.location().bioEnd();
+                    startCodonName = transcriptid + "-start_codon-" + startCodon.location().bioStart() + "-" + startCodon.location().bioEnd();
                 }
                 transcriptSequence.addStartCodonSequence(new AccessionID(startCodonName), startCodon.location().bioStart(), startCodon.location().bioEnd());
             }
             if (stopCodon != null) {
                 if (stopCodonName == null || stopCodonName.length() == 0) {
-                    stopCodonName = geneid + "-stop_codon-" + stopCodon.location().bioStart() + "-" + stopCodon.location().bioEnd();
+                    stopCodonName = transcriptid + "-stop_codon-" + stopCodon.location().bioStart() + "-" + stopCodon.location().bioEnd();
                 }
                 transcriptSequence.addStopCodonSequence(new AccessionID(stopCodonName), stopCodon.location().bioStart(), stopCodon.location().bioEnd());
             }
 
             for (FeatureI cdsFeature : cdsFeatures) {
                 Feature cds = (Feature) cdsFeature;
-                String cdsName = cds.getAttribute("ID");
+                // for genemark it appears frame of 2 =1 and frame of 1 = 2
+                // doesn't matter when you string cds regions together as one block
+                // but does make a difference when you try to make a protein sequence for each CDS region where
+                // you give up or borrow based on the frame value
+                // compared with gff like files and docs for geneid and glimmer where geneid and glimmer both do it the same
+                // way that appears to match the gff3 docs.
+                int frame = cds.frame();
+                if (frame == 1) {
+                    frame = 2;
+                } else if (frame == 2) {
+                    frame = 1;
+                } else {
+                    frame = 0;
+                }
+                String cdsName = cds.getAttribute("transcript_name");
                 if (cdsName == null || cdsName.length() == 0) {
-                    cdsName = geneid + "-cds-" + cds.location().bioStart() + "-" + cds.location().bioEnd();
+                    cdsName = transcriptid + "-cds-" + cds.location().bioStart() + "-" + cds.location().bioEnd();
                 }
                 AccessionID cdsAccessionID = new AccessionID(cdsName);
                 ExonSequence exonSequence = geneSequence.addExon(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd());
-                transcriptSequence.addCDS(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd(), cds.frame());
+                transcriptSequence.addCDS(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd(), frame);
             }
-
         }
 
     }
 
-    static public LinkedHashMap<String, ChromosomeSequence> loadFastaAddGeneFeaturesFromGeneMarkGTF(File fastaSequenceFile, File gffFile) throws Exception {
-        LinkedHashMap<String, DNASequence> dnaSequenceList = FastaReaderHelper.readFastaDNASequence(fastaSequenceFile);
-        LinkedHashMap<String, ChromosomeSequence> chromosomeSequenceList = GeneFeatureHelper.getChromosomeSequenceFromDNASequence(dnaSequenceList);
-        FeatureList listGenes = GeneMarkGTFReader.read(gffFile.getAbsolutePath());
-        addGeneMarkGTFGeneFeatures(chromosomeSequenceList, listGenes);
-        return chromosomeSequenceList;
-    }
-
-    static public void addGeneMarkGTFGeneFeatures(LinkedHashMap<String, ChromosomeSequence> chromosomeSequenceList, FeatureList listGenes) throws Exception {
-        Collection<String> geneIds = listGenes.attributeValues("gene_id");
-        for (String geneid : geneIds) {
-            //       if(geneid.equals("45_g")){
-            //           int dummy =1;
-            //       }
-            FeatureList gene = listGenes.selectByAttribute("gene_id", geneid);
-            FeatureI geneFeature = gene.get(0);
-            ChromosomeSequence seq = chromosomeSequenceList.get(geneFeature.seqname());
-            AccessionID geneAccessionID = new AccessionID(geneid);
-            GeneSequence geneSequence = null;
-            Collection<String> transcriptids = gene.attributeValues("transcript_id");
-            for (String transcriptid : transcriptids) {
-                // get all the individual features (exons, CDS regions, etc.) of this gene
-
-
-                FeatureList transcriptFeature = listGenes.selectByAttribute("transcript_id", transcriptid);
-                // now select only the coding regions of this gene
-                FeatureList cdsFeatures = transcriptFeature.selectByType("CDS");
-                // sort them
-                cdsFeatures = cdsFeatures.sortByStart();
-
-                FeatureI feature = cdsFeatures.get(0);
-                Strand strand = Strand.POSITIVE;
-
-                if (feature.location().isNegative()) {
-                    strand = strand.NEGATIVE;
-                }
-
-                String seqName = feature.seqname();
-                FeatureI startCodon = null;
-                FeatureI stopCodon = null;
-                Integer startCodonBegin = null;
-                Integer stopCodonEnd = null;
-                String startCodonName = "";
-                String stopCodonName = "";
-                FeatureList startCodonList = transcriptFeature.selectByType("start_codon");
-                if (startCodonList != null && startCodonList.size() > 0) {
-                    startCodon = startCodonList.get(0);
-                    if (strand == Strand.POSITIVE) {
-                        startCodonBegin = startCodon.location().bioStart();
-                    } else {
-                        startCodonBegin = startCodon.location().bioEnd();
-                    }
-                    startCodonName = startCodon.getAttribute("transcript_name");
-                }
-
-                FeatureList stopCodonList = transcriptFeature.selectByType("stop_codon");
-
-                if (stopCodonList != null && stopCodonList.size() > 0) {
-                    stopCodon = stopCodonList.get(0);
-                    if (strand == Strand.POSITIVE) {
-                        stopCodonEnd = stopCodon.location().bioEnd();
-                    } else {
-                        stopCodonEnd = stopCodon.location().bioStart();
-                    }
-
-                    stopCodonName = stopCodon.getAttribute("transcript_name");
-
-                }
-
-
-
-
-                if (startCodonBegin == null) {
-                    if (strand == Strand.NEGATIVE) {
-                        FeatureI firstFeature = cdsFeatures.get(0);
-
-                        startCodonBegin = firstFeature.location().bioEnd();
-                    } else {
-                        FeatureI firstFeature = cdsFeatures.get(0);
-
-                        startCodonBegin = firstFeature.location().bioStart();
-                    }
-                }
-
-                if (stopCodonEnd == null) {
-                    if (strand == Strand.NEGATIVE) {
-                        FeatureI lastFeature = cdsFeatures.get(cdsFeatures.size() - 1);
-                        stopCodonEnd = lastFeature.location().bioStart();
-                    } else {
-                        FeatureI lastFeature = cdsFeatures.get(cdsFeatures.size() - 1);
-                        stopCodonEnd = lastFeature.location().bioEnd();
-                    }
-                }
-                //for gtf ordering can be strand based so first is last and last is first
-                if (startCodonBegin > stopCodonEnd) {
-                    int temp = startCodonBegin;
-                    startCodonBegin = stopCodonEnd;
-                    stopCodonEnd = temp;
-                }
-
-                AccessionID transcriptAccessionID = new AccessionID(transcriptid);
-                if (geneSequence == null) {
-                    geneSequence = seq.addGene(geneAccessionID, startCodonBegin, stopCodonEnd, strand);
-                    geneSequence.setSource(((Feature) feature).source());
-                } else {
-                    //if multiple transcripts for one gene make sure the gene is defined as the min and max start/end
+    /**
+     * Adds the gene model of one item (a gene id or an mRNA feature) to the chromosome sequence it belongs to
+     */
+    private interface GeneModelBuilder<T> {
 
-                    if (startCodonBegin < geneSequence.getBioBegin()) {
-                        geneSequence.setBioBegin(startCodonBegin);
-                    }
-                    if (stopCodonEnd > geneSequence.getBioBegin()) {
-                        geneSequence.setBioEnd(stopCodonEnd);
-                    }
+        void add(ChromosomeSequence seq, T item) throws Exception;
+    }
 
-                }
-                TranscriptSequence transcriptSequence = geneSequence.addTranscript(transcriptAccessionID, startCodonBegin, stopCodonEnd);
-                if (startCodon != null) {
-                    if (startCodonName == null || startCodonName.length() == 0) {
-                        startCodonName = transcriptid + "-start_codon-" + startCodon.location().bioStart() + "-" + startCodon.location().bioEnd();
-                    }
-                    transcriptSequence.addStartCodonSequence(new AccessionID(startCodonName), startCodon.location().bioStart(), startCodon.location().bioEnd());
-                }
-                if (stopCodon != null) {
-                    if (stopCodonName == null || stopCodonName.length() == 0) {
-                        stopCodonName = transcriptid + "-stop_codon-" + stopCodon.location().bioStart() + "-" + stopCodon.location().bioEnd();
+    /**
+     * Build the gene models of each chromosome as a task on the shared ConcurrencyTools thread pool. The items
+     * of one chromosome are added in order by a single task so the genes, transcripts and exons end up in the same
+     * order as when everything is added serially, and no two threads ever touch the same chromosome sequence.
+     * Waits for all tasks and then rethrows the first failure in chromosome order.
+     */
+    static private <T> void buildByChromosome(final LinkedHashMap<String, ChromosomeSequence> chromosomeSequenceList, LinkedHashMap<String, List<T>> itemsBySequence, final GeneModelBuilder<T> builder) throws Exception {
+        if (itemsBySequence.size() == 1) {
+            Map.Entry<String, List<T>> entry = itemsBySequence.entrySet().iterator().next();
+            ChromosomeSequence seq = chromosomeSequenceList.get(entry.getKey());
+            for (T item : entry.getValue()) {
+                builder.add(seq, item);
+            }
+            return;
+        }
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for (final Map.Entry<String, List<T>> entry : itemsBySequence.entrySet()) {
+            futures.add(ConcurrencyTools.submit(new Callable<Void>() {
+
+                public Void call() throws Exception {
+                    ChromosomeSequence seq = chromosomeSequenceList.get(entry.getKey());
+                    for (T item : entry.getValue()) {
+                        builder.add(seq, item);
                     }
-                    transcriptSequence.addStopCodonSequence(new AccessionID(stopCodonName), stopCodon.location().bioStart(), stopCodon.location().bioEnd());
+                    return null;
                 }
-
-                for (FeatureI cdsFeature : cdsFeatures) {
-                    Feature cds = (Feature) cdsFeature;
-                    // for genemark it appears frame of 2 =1 and frame of 1 = 2
-                    // doesn't matter when you string cds regions together as one block
-                    // but does make a difference when you try to make a protein sequence for each CDS region where
-                    // you give up or borrow based on the frame value
-                    // compared with gff like files and docs for geneid and glimmer where geneid and glimmer both do it the same
-                    // way that appears to match the gff3 docs.
-                    int frame = cds.frame();
-                    if (frame == 1) {
-                        frame = 2;
-                    } else if (frame == 2) {
-                        frame = 1;
-                    } else {
-                        frame = 0;
-                    }
-                    String cdsName = cds.getAttribute("transcript_name");
-                    if (cdsName == null || cdsName.length() == 0) {
-                        cdsName = transcriptid + "-cds-" + cds.location().bioStart() + "-" + cds.location().bioEnd();
-                    }
-                    AccessionID cdsAccessionID = new AccessionID(cdsName);
-                    ExonSequence exonSequence = geneSequence.addExon(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd());
-                    transcriptSequence.addCDS(cdsAccessionID, cdsFeature.location().bioStart(), cdsFeature.location().bioEnd(), frame);
+            }, "Adding gene features to " + entry.getKey()));
+        }
+        Throwable failure = null;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
                 }
             }
         }
+        if (failure instanceof Exception) {
+            throw (Exception) failure;
+        } else if (failure != null) {
+            throw (Error) failure;
+        }
+    }
+
+    /**
+     * helper method to group items by sequence name keeping the order of the items
+     */
+    static private <T> void addToSequenceGroup(LinkedHashMap<String, List<T>> itemsBySequence, String sequenceName, T item) {
+        List<T> items = itemsBySequence.get(sequenceName);
+        if (items == null) {
+            items = new ArrayList<T>();
+            itemsBySequence.put(sequenceName, items);
+        }
+        items.add(item);
+    }
 
+    /**
+     * helper method that returns the same features as FeatureList.selectByAttribute(key, value) from an index
+     * built with FeatureHelper.buildFeatureAtrributeIndex(key, list)
+     */
+    static private FeatureList getFeatureList(LinkedHashMap<String, FeatureList> featureHashMap, String value) {
+        FeatureList features = featureHashMap.get(value);
+        if (features == null || value == null) {
+            return new FeatureList();
+        }
+        return features;
     }
 
     static public LinkedHashMap<String, ProteinSequence> getProteinSequences(Collection<ChromosomeSequence> chromosomeSequences) throws Exception {
@@ -130,7 +130,6 @@ public class Feature implements FeatureI {
         mScore = feature.mScore;
         mFrame = feature.mFrame;
         mAttributes = feature.mAttributes;
-        initAttributeHashMap();
         mUserMap = new HashMap<String, String>(feature.mUserMap);
     }
 
@@ -154,7 +153,6 @@ public class Feature implements FeatureI {
         mScore = score;
         mFrame = frame;
         mAttributes = attributes;
-        initAttributeHashMap();
         mUserMap = new HashMap<String, String>();
 
     }
@@ -176,10 +174,29 @@ public class Feature implements FeatureI {
         return mUserMap;
     }
 
-     HashMap<String,String> attributeHashMap = new HashMap<String,String>();
-    
-    private void initAttributeHashMap(){
-       String[] values = mAttributes.split(";");
+     volatile HashMap<String,String> attributeHashMap = null;
+
+    /**
+     * The attributes are parsed the first time they are needed, so features that are only
+     * located or filtered by type never pay for parsing the attribute string.
+     */
+    private HashMap<String,String> attributeHashMap(){
+       if(attributeHashMap == null){
+           HashMap<String,String> map = new HashMap<String,String>();
+           parseAttributes(mAttributes, map);
+           attributeHashMap = map;
+       }
+       return attributeHashMap;
+    }
+
+    /**
+     * Parse a GFF3 (key=value) or GTF (key "value") attribute string into the map.
+     *
+     * @param attributes The attribute string (field 9).
+     * @param map The map to add the key/value pairs to.
+     */
+    static void parseAttributes(String attributes, Map<String,String> map){
+       String[] values = attributes.split(";");
        for(String attribute : values){
            attribute = attribute.trim();
            int equalindex = attribute.indexOf("=");
@@ -193,7 +210,7 @@ public class Feature implements FeatureI {
            }else if(data.length >= 2){
                value = data[1].trim();
            }
-           attributeHashMap.put(data[0].trim(), value);
+           map.put(data[0].trim(), value);
        }
     }
     
@@ -207,7 +224,7 @@ public class Feature implements FeatureI {
      */
     public String getAttribute(String key) {
         
-        return attributeHashMap.get(key);
+        return attributeHashMap().get(key);
     }
 
     public String getAttributeOld(String key) {
@@ -236,7 +253,7 @@ public class Feature implements FeatureI {
     }
 
     public boolean hasAttribute(String key) {
-        return attributeHashMap.containsKey(key);
+        return attributeHashMap().containsKey(key);
     }
 
     public boolean hasAttribute(String key, String value) {
@@ -309,6 +326,6 @@ public class Feature implements FeatureI {
 	@Override
 	public HashMap<String, String> getAttributes() {
 		
-		return attributeHashMap;
+		return attributeHashMap();
 	}
 }
@@ -0,0 +1,576 @@
+package org.biojava3.genome.parsers.gff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of the locations of a list of features. The features are grouped by seqname and
+ * strand, and each group is kept sorted by start together with an implicit interval tree of end
+ * positions. Overlap and containment queries therefore take O(log n + k) instead of a scan of
+ * the whole list. The seqname is looked up once per query instead of being compared for every feature.
+ *<br><br>
+ * Query results are the same as the matching FeatureList methods, in the order of the indexed list.
+ * Features with a null location are never returned by a location query. The index does not
+ * follow changes to the list it was built from.
+ *
+ * @see FeatureList#selectOverlapping(String, Location, boolean)
+ */
+public class FeatureIndex {
+
+    private final FeatureI[] mFeatures;
+    // for each seqname the positive strand group at 0 and the negative strand group at 1
+    private final Map<String, Group[]> mGroups = new HashMap<String, Group[]>();
+
+    /**
+     * Index the features.
+     *
+     * @param features The features, usually a FeatureList.
+     */
+    public FeatureIndex(Collection<FeatureI> features) {
+        mFeatures = features.toArray(new FeatureI[features.size()]);
+
+        Map<String, int[]> counts = new HashMap<String, int[]>();
+        for (FeatureI feature : mFeatures) {
+            Location location = feature.location();
+            if (location != null) {
+                int[] count = counts.get(feature.seqname());
+                if (count == null) {
+                    count = new int[2];
+                    counts.put(feature.seqname(), count);
+                }
+                count[strand(location)]++;
+            }
+        }
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            int[] count = entry.getValue();
+            mGroups.put(entry.getKey(), new Group[]{new Group(count[0]), new Group(count[1])});
+        }
+        for (int row = 0; row < mFeatures.length; row++) {
+            Location location = mFeatures[row].location();
+            if (location != null) {
+                mGroups.get(mFeatures[row].seqname())[strand(location)].add(location.start(), location.end(), row);
+            }
+        }
+        for (Group[] groups : mGroups.values()) {
+            groups[0].sort();
+            groups[1].sort();
+        }
+    }
+
+    /**
+     * @return The number of indexed features.
+     */
+    public int size() {
+        return mFeatures.length;
+    }
+
+    /**
+     * @return The seqnames of the indexed features.
+     */
+    public Collection<String> seqnames() {
+        return mGroups.keySet();
+    }
+
+    /**
+     * Create a list of all features that overlap the specified location on the specified sequence.
+     *
+     * @param seqname The sequence name. Only features with this sequence name will be checked for overlap.
+     * @param location The location to check.
+     * @param useBothStrands If true, locations are mapped to their positive strand image
+     * before being checked for overlap. If false, only features whose locations are
+     * on the same strand as the specified location will be considered for inclusion.
+     * @return The new list of features that overlap the location.
+     */
+    public FeatureList selectOverlapping(String seqname, Location location, boolean useBothStrands) {
+        return toFeatureList(overlapping(seqname, location, useBothStrands));
+    }
+
+    /**
+     * Create a list of all features that do not overlap the specified location on the specified sequence.
+     *
+     * @param seqname The sequence name. Only features with this sequence name will be checked for overlap.
+     * @param location The location to check.
+     * @param useBothStrands If true, locations are mapped to their positive strand image
+     * before being checked for overlap.
+     * @return The new list of features that do not overlap the location.
+     */
+    public FeatureList omitOverlapping(String seqname, Location location, boolean useBothStrands) {
+        int[] rows = overlapping(seqname, location, useBothStrands);
+        FeatureList list = new FeatureList();
+        int next = 0;
+        for (int row = 0; row < mFeatures.length; row++) {
+            if (next < rows.length && rows[next] == row) {
+                next++;
+            } else {
+                list.add(mFeatures[row]);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Create a list of all features that are contained by the specified location on the specified sequence.
+     *
+     * @param seqname The sequence name.
+     * @param location The location to check.
+     * @param useBothStrands If true, locations are mapped to their positive strand image
+     * before being checked for containment.
+     * @return The new list of features that lie entirely within the location.
+     */
+    public FeatureList selectContainedBy(String seqname, Location location, boolean useBothStrands) {
+        Group[] groups = mGroups.get(seqname);
+        if (groups == null) {
+            return new FeatureList();
+        }
+        IntList rows = new IntList();
+        int strand = strand(location);
+        groups[strand].containedBy(location.start(), location.end(), rows);
+        if (useBothStrands) {
+            groups[1 - strand].containedBy(-location.end(), -location.start(), rows);
+        }
+        return toFeatureList(rows.toSortedArray());
+    }
+
+    /**
+     * Create a list of all features that contain the specified location on the specified sequence.
+     *
+     * @param seqname The sequence name.
+     * @param location The location to check.
+     * @param useBothStrands If true, locations are mapped to their positive strand image
+     * before being checked for containment.
+     * @return The new list of features that contain the whole location.
+     */
+    public FeatureList selectContaining(String seqname, Location location, boolean useBothStrands) {
+        Group[] groups = mGroups.get(seqname);
+        if (groups == null) {
+            return new FeatureList();
+        }
+        IntList rows = new IntList();
+        int strand = strand(location);
+        groups[strand].query(location.start(), location.end(), rows);
+        if (useBothStrands) {
+            groups[1 - strand].query(-location.end(), -location.start(), rows);
+        }
+        return toFeatureList(rows.toSortedArray());
+    }
+
+    /**
+     * Find the feature closest to the specified location, as measured by Location.distance(). An
+     * overlapping feature is always closest, and of several overlapping features the one that comes
+     * first in the indexed list is returned. Otherwise ties are broken arbitrarily.
+     *
+     * @param seqname The sequence name.
+     * @param location The location to check.
+     * @param useBothStrands If true, locations are mapped to their positive strand image
+     * before the distance is measured.
+     * @return The closest feature, or null if there is no feature on the sequence (and strand).
+     */
+    public FeatureI nearest(String seqname, Location location, boolean useBothStrands) {
+        Group[] groups = mGroups.get(seqname);
+        if (groups == null) {
+            return null;
+        }
+        int strand = strand(location);
+        long best = groups[strand].nearest(location.start(), location.end());
+        if (useBothStrands) {
+            best = Math.min(best, groups[1 - strand].nearest(-location.end(), -location.start()));
+        }
+        return (best == Long.MAX_VALUE) ? null : mFeatures[(int) best];
+    }
+
+    /**
+     * Find every pair of overlapping features between this index and the other, like bedtools intersect -wa -wb.
+     * Each seqname and strand is handled by one sweep over the two sorted groups, which takes O(n + m + k)
+     * time. If useBothStrands is set the positive strand images are sorted first.
+     *
+     * @param other The other index.
+     * @param useBothStrands If true, locations are mapped to their positive strand image
+     * before being checked for overlap.
+     * @return The overlapping pairs, ordered by the position of the feature in this index and then
+     * by the position of the feature in the other index.
+     */
+    public List<Overlap> intersect(FeatureIndex other, boolean useBothStrands) {
+        LongList pairs = new LongList();
+        for (Map.Entry<String, Group[]> entry : mGroups.entrySet()) {
+            Group[] otherGroups = other.mGroups.get(entry.getKey());
+            if (otherGroups == null) {
+                continue;
+            }
+            Group[] groups = entry.getValue();
+            if (useBothStrands) {
+                Group.sweep(Group.plus(groups), Group.plus(otherGroups), pairs);
+            } else {
+                Group.sweep(groups[0], otherGroups[0], pairs);
+                Group.sweep(groups[1], otherGroups[1], pairs);
+            }
+        }
+        long[] sorted = pairs.toSortedArray();
+        List<Overlap> overlaps = new ArrayList<Overlap>(sorted.length);
+        for (long pair : sorted) {
+            overlaps.add(new Overlap(mFeatures[(int) (pair >>> 32)], other.mFeatures[(int) pair]));
+        }
+        return overlaps;
+    }
+
+    /**
+     * Find every pair of overlapping features between two lists.
+     *
+     * @param features The first list.
+     * @param others The second list.
+     * @param useBothStrands If true, locations are mapped to their positive strand image
+     * before being checked for overlap.
+     * @return The overlapping pairs.
+     * @see #intersect(FeatureIndex, boolean)
+     */
+    public static List<Overlap> intersect(FeatureList features, FeatureList others, boolean useBothStrands) {
+        return new FeatureIndex(features).intersect(new FeatureIndex(others), useBothStrands);
+    }
+
+    private int[] overlapping(String seqname, Location location, boolean useBothStrands) {
+        Group[] groups = mGroups.get(seqname);
+        if (groups == null) {
+            return new int[0];
+        }
+        IntList rows = new IntList();
+        int strand = strand(location);
+        // overlap means start < location.end() and end > location.start()
+        groups[strand].query(location.end() - 1, location.start() + 1, rows);
+        if (useBothStrands) {
+            Location opposite = location.opposite();
+            groups[1 - strand].query(opposite.end() - 1, opposite.start() + 1, rows);
+        }
+        return rows.toSortedArray();
+    }
+
+    private FeatureList toFeatureList(int[] rows) {
+        FeatureList list = new FeatureList();
+        for (int row : rows) {
+            list.add(mFeatures[row]);
+        }
+        return list;
+    }
+
+    private static int strand(Location location) {
+        return location.isNegative() ? 1 : 0;
+    }
+
+    /**
+     * A pair of overlapping features found by intersect().
+     */
+    public static class Overlap {
+
+        private final FeatureI mFeature;
+        private final FeatureI mOther;
+
+        Overlap(FeatureI feature, FeatureI other) {
+            mFeature = feature;
+            mOther = other;
+        }
+
+        /**
+         * @return The feature from the first list or index.
+         */
+        public FeatureI getFeature() {
+            return mFeature;
+        }
+
+        /**
+         * @return The feature from the second list or index.
+         */
+        public FeatureI getOther() {
+            return mOther;
+        }
+
+        /**
+         * @return The overlapping part of the two locations, on the strand of the first feature.
+         */
+        public Location intersection() {
+            Location location = mFeature.location();
+            Location other = mOther.location();
+            return location.intersection(location.isSameStrand(other) ? other : other.opposite());
+        }
+
+        @Override
+        public String toString() {
+            return mFeature.seqname() + ":" + mFeature + "\t" + mOther.seqname() + ":" + mOther;
+        }
+    }
+
+    /**
+     * The features of one seqname and strand, sorted by start. maxEnd[mid] holds the largest end of
+     * the range [lo, hi) that has mid as its middle, which makes the sorted arrays a balanced interval
+     * tree without any node objects.
+     */
+    private static class Group {
+
+        int size = 0;
+        int[] starts;
+        int[] ends;
+        int[] rows;
+        int[] maxEnds;
+        // row of the largest end among the first i + 1 features
+        int[] prefixMaxEnd;
+
+        Group(int capacity) {
+            starts = new int[capacity];
+            ends = new int[capacity];
+            rows = new int[capacity];
+        }
+
+        void add(int start, int end, int row) {
+            starts[size] = start;
+            ends[size] = end;
+            rows[size] = row;
+            size++;
+        }
+
+        /**
+         * Sort by start, then by row, and build the tree.
+         */
+        void sort() {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) starts[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            int[] sortedStarts = new int[size];
+            int[] sortedEnds = new int[size];
+            int[] sortedRows = new int[size];
+            for (int i = 0; i < size; i++) {
+                int from = (int) keys[i];
+                sortedStarts[i] = starts[from];
+                sortedEnds[i] = ends[from];
+                sortedRows[i] = rows[from];
+            }
+            starts = sortedStarts;
+            ends = sortedEnds;
+            rows = sortedRows;
+            maxEnds = new int[size];
+            build(0, size);
+            prefixMaxEnd = new int[size];
+            for (int i = 0; i < size; i++) {
+                prefixMaxEnd[i] = (i > 0 && ends[prefixMaxEnd[i - 1]] >= ends[i]) ? prefixMaxEnd[i - 1] : i;
+            }
+        }
+
+        private int build(int lo, int hi) {
+            if (lo >= hi) {
+                return Integer.MIN_VALUE;
+            }
+            int mid = (lo + hi) >>> 1;
+            int max = Math.max(ends[mid], Math.max(build(lo, mid), build(mid + 1, hi)));
+            maxEnds[mid] = max;
+            return max;
+        }
+
+        /**
+         * Add the rows of all features with start <= startMax and end >= endMin.
+         */
+        void query(int startMax, int endMin, IntList out) {
+            query(0, size, startMax, endMin, out);
+        }
+
+        private void query(int lo, int hi, int startMax, int endMin, IntList out) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (maxEnds[mid] < endMin) {
+                    return;
+                }
+                query(lo, mid, startMax, endMin, out);
+                if (starts[mid] > startMax) {
+                    return;
+                }
+                if (ends[mid] >= endMin) {
+                    out.add(rows[mid]);
+                }
+                lo = mid + 1;
+            }
+        }
+
+        /**
+         * Add the rows of all features with start >= start and end <= end.
+         */
+        void containedBy(int start, int end, IntList out) {
+            for (int i = lowerBound(start); i < size && starts[i] <= end; i++) {
+                if (ends[i] <= end) {
+                    out.add(rows[i]);
+                }
+            }
+        }
+
+        /**
+         * @return The row of the closest feature, or Long.MAX_VALUE if the group is empty. The
+         * distance is kept in the high bits so the closest of two groups is the smaller value.
+         */
+        long nearest(int start, int end) {
+            IntList overlapping = new IntList();
+            query(end - 1, start + 1, overlapping);
+            if (overlapping.size > 0) {
+                // distance -1, stored as 0
+                return overlapping.toSortedArray()[0];
+            }
+            long best = Long.MAX_VALUE;
+            // the feature that ends last among those starting at or before start
+            int left = upperBound(start) - 1;
+            if (left >= 0) {
+                int i = prefixMaxEnd[left];
+                best = Math.min(best, candidate(distance(start, end, starts[i], ends[i]), rows[i]));
+            }
+            // the feature that starts first at or after end
+            int right = lowerBound(end);
+            for (int i = right; i < size && starts[i] == starts[right]; i++) {
+                best = Math.min(best, candidate(distance(start, end, starts[i], ends[i]), rows[i]));
+            }
+            return best;
+        }
+
+        private static long candidate(int distance, int row) {
+            return ((long) (distance + 1) << 32) | row;
+        }
+
+        /**
+         * Same as Location.distance() for two locations that do not overlap.
+         */
+        private static int distance(int start, int end, int otherStart, int otherEnd) {
+            return (end <= otherStart) ? (otherStart - end) : (start - otherEnd);
+        }
+
+        /**
+         * @return The first index with a start >= value.
+         */
+        private int lowerBound(int value) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * @return The first index with a start > value.
+         */
+        private int upperBound(int value) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] <= value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Map both strands of a seqname to the positive strand and sort them as one group.
+         */
+        static Group plus(Group[] groups) {
+            Group plus = new Group(groups[0].size + groups[1].size);
+            for (int i = 0; i < groups[0].size; i++) {
+                plus.add(groups[0].starts[i], groups[0].ends[i], groups[0].rows[i]);
+            }
+            for (int i = 0; i < groups[1].size; i++) {
+                plus.add(-groups[1].ends[i], -groups[1].starts[i], groups[1].rows[i]);
+            }
+            plus.sort();
+            return plus;
+        }
+
+        /**
+         * Walk both groups in order of start. Each feature is checked against the features of the
+         * other group that started before it and have not ended yet.
+         */
+        static void sweep(Group a, Group b, LongList pairs) {
+            IntList activeA = new IntList();
+            IntList activeB = new IntList();
+            int i = 0;
+            int j = 0;
+            while (i < a.size || j < b.size) {
+                if (j >= b.size || (i < a.size && a.starts[i] <= b.starts[j])) {
+                    activeB.retainEndingAfter(b.ends, a.starts[i]);
+                    for (int k = 0; k < activeB.size; k++) {
+                        int other = activeB.values[k];
+                        if (b.starts[other] < a.ends[i]) {
+                            pairs.add(((long) a.rows[i] << 32) | b.rows[other]);
+                        }
+                    }
+                    activeA.add(i++);
+                } else {
+                    activeA.retainEndingAfter(a.ends, b.starts[j]);
+                    for (int k = 0; k < activeA.size; k++) {
+                        int other = activeA.values[k];
+                        if (a.starts[other] < b.ends[j]) {
+                            pairs.add(((long) a.rows[other] << 32) | b.rows[j]);
+                        }
+                    }
+                    activeB.add(j++);
+                }
+            }
+        }
+    }
+
+    // helper class growable int array
+    private static class IntList {
+
+        int size = 0;
+        int[] values = new int[8];
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Drop the indices whose end is not after position.
+         */
+        void retainEndingAfter(int[] ends, int position) {
+            int kept = 0;
+            for (int k = 0; k < size; k++) {
+                if (ends[values[k]] > position) {
+                    values[kept++] = values[k];
+                }
+            }
+            size = kept;
+        }
+
+        int[] toSortedArray() {
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    // helper class growable long array
+    private static class LongList {
+
+        int size = 0;
+        long[] values = new long[8];
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
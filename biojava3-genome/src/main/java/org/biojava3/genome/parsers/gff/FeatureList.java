@@ -54,20 +54,21 @@ public class FeatureList extends ArrayList<FeatureI> {
 		} else if (null != feature.location()) {
 			mLocation = mLocation.union(feature.location().plus());
 		}
-		for (Entry<String, String> entry : feature.getAttributes().entrySet()){
-			if (featindex.containsKey(entry.getKey())){
-				Map<String,List<FeatureI>> feat = featindex.get(entry.getKey());
+		// only look up the indexed keys so the attributes of features are not parsed when there are no indexes
+		for (Entry<String, Map<String,List<FeatureI>>> entry : featindex.entrySet()){
+			String value = feature.getAttribute(entry.getKey());
+			if (value != null){
+				Map<String,List<FeatureI>> feat = entry.getValue();
 				if (feat==null){
 					feat= new HashMap<String,List<FeatureI>>();
+					entry.setValue(feat);
 				}
-				List<FeatureI> features = feat.get(entry.getValue());
+				List<FeatureI> features = feat.get(value);
 				if (features==null){
 					features = new ArrayList<FeatureI>();
+					feat.put(value, features);
 				}
 				features.add(feature);
-				feat.put(entry.getValue(), features);
-				featindex.put(entry.getKey(), feat);
-				//featindex.put(key, value)
 			}
 		}
 
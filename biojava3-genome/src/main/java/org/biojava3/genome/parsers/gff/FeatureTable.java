@@ -0,0 +1,246 @@
+package org.biojava3.genome.parsers.gff;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The rows of a GFF file stored column by column. Each column is a primitive array, the seqname,
+ * source and type columns hold codes into a shared symbol table and the attribute column keeps the
+ * raw strings, which are only parsed when an attribute is asked for. A table of a few million rows
+ * therefore takes a fraction of the memory of the equivalent FeatureList, which holds a Feature, a
+ * Location and an attribute map per row.
+ *<br><br>
+ * Rows are addressed by their index in file order. Features are created on demand with
+ * {@link #getFeature(int)} or all at once with {@link #toFeatureList()}.
+ *
+ * @see GFFStreamReader#readTable(String)
+ */
+public class FeatureTable implements Iterable<FeatureI> {
+
+    private final SymbolTable mSymbols = new SymbolTable();
+    private int mSize = 0;
+    private int[] mSeqnames = new int[16];
+    private int[] mSources = new int[16];
+    private int[] mTypes = new int[16];
+    private int[] mStarts = new int[16];
+    private int[] mEnds = new int[16];
+    private byte[] mStrands = new byte[16];
+    private byte[] mFrames = new byte[16];
+    private double[] mScores = new double[16];
+    private String[] mAttributes = new String[16];
+
+    /**
+     * Make an empty table.
+     */
+    public FeatureTable() {
+    }
+
+    SymbolTable symbols() {
+        return mSymbols;
+    }
+
+    /**
+     * Add a row with the values of the record.
+     *
+     * @param record The record.
+     */
+    public void add(GFFRecord record) {
+        if (record.frame() < Byte.MIN_VALUE || record.frame() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Frame " + record.frame() + " does not fit the frame column");
+        }
+        if (mSize == mStarts.length) {
+            resize(2 * mSize);
+        }
+        mSeqnames[mSize] = mSymbols.code(record.seqname());
+        mSources[mSize] = mSymbols.code(record.source());
+        mTypes[mSize] = mSymbols.code(record.type());
+        mStarts[mSize] = record.bioStart();
+        mEnds[mSize] = record.bioEnd();
+        mStrands[mSize] = (byte) record.strand();
+        mFrames[mSize] = (byte) record.frame();
+        mScores[mSize] = record.score();
+        mAttributes[mSize] = record.attributes();
+        mSize++;
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @param row The row.
+     * @return The sequence name.
+     */
+    public String seqname(int row) {
+        return mSymbols.get(mSeqnames[check(row)]);
+    }
+
+    /**
+     * @param row The row.
+     * @return The source.
+     */
+    public String source(int row) {
+        return mSymbols.get(mSources[check(row)]);
+    }
+
+    /**
+     * @param row The row.
+     * @return The feature type.
+     */
+    public String type(int row) {
+        return mSymbols.get(mTypes[check(row)]);
+    }
+
+    /**
+     * @param row The row.
+     * @return The one based start.
+     */
+    public int bioStart(int row) {
+        return mStarts[check(row)];
+    }
+
+    /**
+     * @param row The row.
+     * @return The one based, inclusive end.
+     */
+    public int bioEnd(int row) {
+        return mEnds[check(row)];
+    }
+
+    /**
+     * @param row The row.
+     * @return The strand, '+', '-' or '.'.
+     */
+    public char strand(int row) {
+        return (char) mStrands[check(row)];
+    }
+
+    /**
+     * @param row The row.
+     * @return The frame (0, 1, 2), or -1 if none.
+     */
+    public int frame(int row) {
+        return mFrames[check(row)];
+    }
+
+    /**
+     * @param row The row.
+     * @return The score.
+     */
+    public double score(int row) {
+        return mScores[check(row)];
+    }
+
+    /**
+     * @param row The row.
+     * @return The attribute string.
+     */
+    public String attributes(int row) {
+        return mAttributes[check(row)];
+    }
+
+    /**
+     * Get the attribute value for this key. The attribute string of the row is parsed on each call,
+     * use {@link #getFeature(int)} to look up several attributes of the same row.
+     *
+     * @param row The row.
+     * @param key The key.
+     * @return The corresponding value. Null if the key has no value defined.
+     */
+    public String getAttribute(int row, String key) {
+        HashMap<String, String> map = new HashMap<String, String>();
+        Feature.parseAttributes(attributes(row), map);
+        return map.get(key);
+    }
+
+    /**
+     * @param row The row.
+     * @return A new Location of the row.
+     */
+    public Location location(int row) {
+        return Location.fromBio(bioStart(row), bioEnd(row), strand(row));
+    }
+
+    /**
+     * @param row The row.
+     * @return A new Feature with the values of the row.
+     */
+    public Feature getFeature(int row) {
+        return new Feature(seqname(row), source(row), type(row), location(row), score(row), frame(row), attributes(row));
+    }
+
+    /**
+     * Make a Feature of every row.
+     *
+     * @return A FeatureList in row order.
+     */
+    public FeatureList toFeatureList() {
+        FeatureList features = new FeatureList();
+        features.ensureCapacity(mSize);
+        for (int row = 0; row < mSize; row++) {
+            features.add(getFeature(row));
+        }
+        return features;
+    }
+
+    /**
+     * Iterate over the rows as new Feature objects.
+     *
+     * @return The iterator.
+     */
+    public Iterator<FeatureI> iterator() {
+        return new Iterator<FeatureI>() {
+
+            private int row = 0;
+
+            public boolean hasNext() {
+                return row < mSize;
+            }
+
+            public FeatureI next() {
+                if (row >= mSize) {
+                    throw new NoSuchElementException();
+                }
+                return getFeature(row++);
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Release the unused capacity of the columns.
+     */
+    public void trimToSize() {
+        if (mSize < mStarts.length) {
+            resize(mSize);
+        }
+    }
+
+    private void resize(int capacity) {
+        capacity = Math.max(capacity, 16);
+        mSeqnames = Arrays.copyOf(mSeqnames, capacity);
+        mSources = Arrays.copyOf(mSources, capacity);
+        mTypes = Arrays.copyOf(mTypes, capacity);
+        mStarts = Arrays.copyOf(mStarts, capacity);
+        mEnds = Arrays.copyOf(mEnds, capacity);
+        mStrands = Arrays.copyOf(mStrands, capacity);
+        mFrames = Arrays.copyOf(mFrames, capacity);
+        mScores = Arrays.copyOf(mScores, capacity);
+        mAttributes = Arrays.copyOf(mAttributes, capacity);
+    }
+
+    private int check(int row) {
+        if (row < 0 || row >= mSize) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + mSize);
+        }
+        return row;
+    }
+}
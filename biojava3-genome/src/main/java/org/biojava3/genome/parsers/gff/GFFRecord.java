@@ -0,0 +1,167 @@
+package org.biojava3.genome.parsers.gff;
+
+import java.util.HashMap;
+
+/**
+ * A single row of a GFF/GTF file as seen by {@link GFFStreamReader}. The reader fills the same
+ * record for every line, so reading a file does not create a Feature, a Location or an attribute
+ * map per line. The seqname, source and type strings are shared by all rows with the same value.
+ * The attribute column is only cut out of the line, and only parsed into key/value pairs, when it
+ * is asked for.
+ */
+public class GFFRecord {
+
+    String mSeqname;
+    String mSource;
+    String mType;
+    int mBioStart;
+    int mBioEnd;
+    char mStrand;
+    double mScore;
+    int mFrame;
+
+    private String mLine;
+    private int mAttributesStart;
+    private int mAttributesEnd;
+    private String mAttributes;
+    private final HashMap<String, String> mAttributeMap = new HashMap<String, String>();
+    private boolean mAttributesParsed;
+
+    GFFRecord() {
+    }
+
+    /**
+     * Point the record at the attribute column of a new line.
+     */
+    void setAttributes(String line, int start, int end) {
+        mLine = line;
+        mAttributesStart = start;
+        mAttributesEnd = end;
+        mAttributes = null;
+        mAttributesParsed = false;
+    }
+
+    /**
+     * Get the sequence name. (GFF field 1).
+     *
+     * @return Sequence name.
+     */
+    public String seqname() {
+        return mSeqname;
+    }
+
+    /**
+     * Get source (aka method). (GFF field 2).
+     *
+     * @return Source field.
+     */
+    public String source() {
+        return mSource;
+    }
+
+    /**
+     * Get feature type, such as "exon" or "CDS". (GFF field 3).
+     *
+     * @return Feature type.
+     */
+    public String type() {
+        return mType;
+    }
+
+    /**
+     * Get the one based start of the feature. (GFF field 4). If the file lists the start
+     * after the end the two are swapped, as GFF3Reader does.
+     *
+     * @return The start.
+     */
+    public int bioStart() {
+        return mBioStart;
+    }
+
+    /**
+     * Get the one based, inclusive end of the feature. (GFF field 5).
+     *
+     * @return The end.
+     */
+    public int bioEnd() {
+        return mBioEnd;
+    }
+
+    /**
+     * Get the strand. (GFF field 7).
+     *
+     * @return '+', '-' or '.'.
+     */
+    public char strand() {
+        return mStrand;
+    }
+
+    /**
+     * Get score. (GFF field 6). 0.0 if the field is not a number.
+     *
+     * @return Score value.
+     */
+    public double score() {
+        return mScore;
+    }
+
+    /**
+     * Get frame (aka phase). (GFF field 8).
+     *
+     * @return The frame (0, 1, 2), or -1 if none.
+     */
+    public int frame() {
+        return mFrame;
+    }
+
+    /**
+     * Get location of feature.
+     *
+     * @return A new Location.
+     */
+    public Location location() {
+        return Location.fromBio(mBioStart, mBioEnd, mStrand);
+    }
+
+    /**
+     * Get the string of key/value attributes. (GFF field 9), up to any trailing # comment.
+     *
+     * @return The attribute string.
+     */
+    public String attributes() {
+        if (mAttributes == null) {
+            mAttributes = mLine.substring(mAttributesStart, mAttributesEnd);
+        }
+        return mAttributes;
+    }
+
+    /**
+     * Get the attribute value for this key. The attributes of the line are parsed on the first call.
+     *
+     * @param key The key.
+     * @return The corresponding value. Null if the key has no value defined.
+     */
+    public String getAttribute(String key) {
+        if (!mAttributesParsed) {
+            mAttributeMap.clear();
+            Feature.parseAttributes(attributes(), mAttributeMap);
+            mAttributesParsed = true;
+        }
+        return mAttributeMap.get(key);
+    }
+
+    /**
+     * Make a Feature with the values of this record. The Feature is equal to the one
+     * GFF3Reader creates for the same line.
+     *
+     * @return A new Feature.
+     */
+    public Feature toFeature() {
+        return new Feature(mSeqname, mSource, mType, location(), mScore, mFrame, attributes());
+    }
+
+    @Override
+    public String toString() {
+        return toFeature().toString();
+    }
+}
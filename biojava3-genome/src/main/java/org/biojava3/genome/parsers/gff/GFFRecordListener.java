@@ -0,0 +1,19 @@
+package org.biojava3.genome.parsers.gff;
+
+import java.io.IOException;
+
+/**
+ * Callback for {@link GFFStreamReader}. The reader hands every data line of the file to the listener as
+ * one {@link GFFRecord}. The record object is reused for the next line, so a listener that wants to keep
+ * a record must copy it, for example with {@link GFFRecord#toFeature()}.
+ */
+public interface GFFRecordListener {
+
+    /**
+     * Called once for each data line of the file, in file order.
+     *
+     * @param record The record of the current line. Only valid until this method returns.
+     * @throws IOException To stop reading the file.
+     */
+    public void record(GFFRecord record) throws IOException;
+}
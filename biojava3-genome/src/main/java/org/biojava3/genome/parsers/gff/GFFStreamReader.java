@@ -0,0 +1,283 @@
+package org.biojava3.genome.parsers.gff;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Streaming reader for GFF/GTF formatted files. Lines are read the same way as {@link GFF3Reader}
+ * but the columns are found with indexOf instead of a regex split, numbers are parsed straight from
+ * the line and the seqname, source and type columns are shared through a symbol table. Each line is
+ * handed to a {@link GFFRecordListener} as a reused {@link GFFRecord}, so a pass that only counts,
+ * filters or summarizes features does not keep the file in memory.
+ *<br><br>
+ * To keep the features use {@link #readTable(String)}, which stores the columns in a compact
+ * {@link FeatureTable}, or {@link #read(String, List)} for a FeatureList as returned by GFF3Reader.
+ */
+public class GFFStreamReader {
+
+    private static final Logger log = Logger.getLogger(GFFStreamReader.class.getName());
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final SymbolTable symbols;
+    private final GFFRecord record = new GFFRecord();
+    // start and end of the first 8 columns of the current line
+    private final int[] bounds = new int[16];
+
+    private GFFStreamReader(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Read a file and pass each data line to the listener.
+     *
+     * @param filename The path to the GFF file.
+     * @param listener The listener.
+     * @throws IOException Something went wrong -- check exception detail message.
+     */
+    public static void read(String filename, GFFRecordListener listener) throws IOException {
+        log.info("GFFStreamReader.read(): Reading " + filename);
+        read(new FileReader(filename), listener);
+    }
+
+    /**
+     * Read GFF lines and pass each data line to the listener. The reader is closed when done.
+     *
+     * @param reader The GFF lines.
+     * @param listener The listener.
+     * @throws IOException Something went wrong -- check exception detail message.
+     */
+    public static void read(Reader reader, GFFRecordListener listener) throws IOException {
+        new GFFStreamReader(new SymbolTable()).parse(reader, listener);
+    }
+
+    /**
+     * Read a file into a FeatureList. The result is the same as {@link GFF3Reader#read(String, List)}.
+     *
+     * @param filename The path to the GFF file.
+     * @param indexes The attribute keys to index.
+     * @return A FeatureList.
+     * @throws IOException Something went wrong -- check exception detail message.
+     */
+    public static FeatureList read(String filename, List<String> indexes) throws IOException {
+        final FeatureList features = new FeatureList();
+        features.addIndexes(indexes);
+        read(filename, new GFFRecordListener() {
+
+            public void record(GFFRecord record) {
+                features.add(record.toFeature());
+            }
+        });
+        return features;
+    }
+
+    /**
+     * Read a file into a FeatureTable.
+     *
+     * @param filename The path to the GFF file.
+     * @return A FeatureTable.
+     * @throws IOException Something went wrong -- check exception detail message.
+     */
+    public static FeatureTable readTable(String filename) throws IOException {
+        log.info("GFFStreamReader.readTable(): Reading " + filename);
+        return readTable(new FileReader(filename));
+    }
+
+    /**
+     * Read GFF lines into a FeatureTable. The reader is closed when done.
+     *
+     * @param reader The GFF lines.
+     * @return A FeatureTable.
+     * @throws IOException Something went wrong -- check exception detail message.
+     */
+    public static FeatureTable readTable(Reader reader) throws IOException {
+        final FeatureTable table = new FeatureTable();
+        new GFFStreamReader(table.symbols()).parse(reader, new GFFRecordListener() {
+
+            public void record(GFFRecord record) {
+                table.add(record);
+            }
+        });
+        table.trimToSize();
+        return table;
+    }
+
+    private void parse(Reader reader, GFFRecordListener listener) throws IOException {
+        BufferedReader br = new BufferedReader(reader, BUFFER_SIZE);
+        try {
+            int lineNumber = 0;
+            for (String s = br.readLine(); null != s; s = br.readLine()) {
+                lineNumber++;
+                int start = skipSpace(s, 0, s.length());
+                int end = trimSpace(s, start, s.length());
+                if (start == end) {
+                    continue;
+                }
+                if (s.charAt(start) == '#') {
+                    //ignore comment lines
+                    if (s.regionMatches(true, start, "##fasta", 0, 7)) {
+                        break;
+                    }
+                    continue;
+                }
+                parseLine(s, start, end, lineNumber);
+                listener.record(record);
+            }
+        } finally {
+            br.close();
+        }
+    }
+
+    /**
+     * Fill the record from the trimmed part [start, end) of the line.
+     */
+    private void parseLine(String s, int start, int end, int lineNumber) throws IOException {
+        int[] bounds = this.bounds;
+        int from = start;
+        for (int field = 0; field < 8; field++) {
+            int tab = s.indexOf('\t', from);
+            if (tab < 0 || tab >= end) {
+                if (field < 7) {
+                    throw new IOException("Line " + lineNumber + " has " + (field + 1) + " fields, expected at least 8: " + s);
+                }
+                // no attribute column
+                tab = end;
+            }
+            bounds[2 * field] = from;
+            bounds[2 * field + 1] = tab;
+            from = Math.min(tab + 1, end);
+        }
+
+        record.mSeqname = symbol(s, bounds[0], bounds[1]);
+        record.mSource = symbol(s, bounds[2], bounds[3]);
+        record.mType = symbol(s, bounds[4], bounds[5]);
+
+        int locationStart;
+        int locationEnd;
+        try {
+            locationStart = parseInt(s, bounds[6], bounds[7]);
+            locationEnd = parseInt(s, bounds[8], bounds[9]);
+        } catch (NumberFormatException e) {
+            throw new IOException("Line " + lineNumber + " has an invalid location: " + s);
+        }
+        //added by scooter willis to deal with glimmer predictions that
+        //have the start after the end but is a negative strand
+        if (locationStart > locationEnd) {
+            int temp = locationStart;
+            locationStart = locationEnd;
+            locationEnd = temp;
+        }
+        record.mBioStart = locationStart;
+        record.mBioEnd = locationEnd;
+
+        record.mScore = parseScore(s, bounds[10], bounds[11]);
+
+        int strandStart = skipSpace(s, bounds[12], bounds[13]);
+        if (strandStart == bounds[13]) {
+            throw new IOException("Line " + lineNumber + " has no strand: " + s);
+        }
+        char strand = s.charAt(strandStart);
+        if (!(strand == '-' || strand == '+' || strand == '.')) {
+            throw new IOException("Line " + lineNumber + " has an invalid strand: " + s);
+        }
+        record.mStrand = strand;
+
+        record.mFrame = parseFrame(s, bounds[14], bounds[15]);
+
+        //grab everything until the next tab or # comment
+        int attributesStart = from;
+        int attributesEnd = attributesStart;
+        while (attributesEnd < end) {
+            char c = s.charAt(attributesEnd);
+            if (c == '\t' || c == '#') {
+                break;
+            }
+            attributesEnd++;
+        }
+        record.setAttributes(s, attributesStart, attributesEnd);
+    }
+
+    private String symbol(String s, int start, int end) {
+        start = skipSpace(s, start, end);
+        end = trimSpace(s, start, end);
+        return symbols.get(symbols.code(s, start, end));
+    }
+
+    /**
+     * Same result as Integer.parseInt on the trimmed field.
+     */
+    private static int parseInt(String s, int start, int end) {
+        start = skipSpace(s, start, end);
+        end = trimSpace(s, start, end);
+        int i = start;
+        boolean negative = false;
+        if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        if (i == end || end - i > 9) {
+            // empty or possibly out of range, let the JDK decide
+            return Integer.parseInt(s.substring(start, end));
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException(s.substring(start, end));
+            }
+            value = 10 * value + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private static double parseScore(String s, int start, int end) {
+        start = skipSpace(s, start, end);
+        end = trimSpace(s, start, end);
+        if (end - start == 1 && s.charAt(start) == '.') {
+            return 0.0;
+        }
+        try {
+            return Double.parseDouble(s.substring(start, end));
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    private static int parseFrame(String s, int start, int end) {
+        start = skipSpace(s, start, end);
+        end = trimSpace(s, start, end);
+        if (end - start == 1) {
+            int digit = s.charAt(start) - '0';
+            return (digit >= 0 && digit <= 9) ? digit : -1;
+        }
+        try {
+            return parseInt(s, start, end);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return The first index in [start, end) that is not white space as defined by String.trim(), or end.
+     */
+    private static int skipSpace(String s, int start, int end) {
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * @return The index after the last character in [start, end) that is not white space, or start.
+     */
+    private static int trimSpace(String s, int start, int end) {
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,103 @@
+package org.biojava3.genome.parsers.gff;
+
+import java.util.Arrays;
+
+/**
+ * Dictionary of the few distinct strings found in the seqname, source and type columns of a GFF file.
+ * Strings are looked up by a range of characters of the line so a column only becomes a String the
+ * first time it is seen, and every later occurrence shares that String and gets the same integer code.
+ */
+class SymbolTable {
+
+    private String[] symbols = new String[16];
+    private int[] hashes = new int[16];
+    private int size = 0;
+    // open addressing table of symbol codes + 1, 0 marks an empty slot
+    private int[] slots = new int[64];
+
+    /**
+     * Get the code of the symbol, adding it if it has not been seen before.
+     *
+     * @param line The line holding the symbol.
+     * @param start Index of the first character of the symbol.
+     * @param end Index after the last character of the symbol.
+     * @return The code of the symbol.
+     */
+    int code(String line, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + line.charAt(i);
+        }
+        int length = end - start;
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int code = slots[slot] - 1;
+            if (code == -1) {
+                return add(line.substring(start, end), hash, slot);
+            }
+            String symbol = symbols[code];
+            if (hashes[code] == hash && symbol.length() == length && symbol.regionMatches(0, line, start, length)) {
+                return code;
+            }
+        }
+    }
+
+    /**
+     * Get the code of the symbol, adding it if it has not been seen before.
+     *
+     * @param symbol The symbol.
+     * @return The code of the symbol.
+     */
+    int code(String symbol) {
+        return code(symbol, 0, symbol.length());
+    }
+
+    /**
+     * @param code The code of a symbol.
+     * @return The symbol.
+     */
+    String get(int code) {
+        return symbols[code];
+    }
+
+    /**
+     * @return The number of distinct symbols.
+     */
+    int size() {
+        return size;
+    }
+
+    private int add(String symbol, int hash, int slot) {
+        if (size == symbols.length) {
+            symbols = Arrays.copyOf(symbols, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        symbols[size] = symbol;
+        hashes[size] = hash;
+        slots[slot] = size + 1;
+        size++;
+        if (2 * size > slots.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int code = 0; code < size; code++) {
+            int slot = mix(hashes[code]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = code + 1;
+        }
+    }
+
+    private static int mix(int hash) {
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return hash;
+    }
+}
@@ -0,0 +1,212 @@
+package org.biojava3.genome.query;
+
+/**
+ * One high scoring pair of a BLAST XML result together with the query and hit it belongs to.
+ * The query and hit strings are shared by all HSPs of the same iteration and hit.
+ *
+ * @see BlastXMLReader
+ */
+public class BlastHsp {
+
+    String queryID;
+    String queryDef;
+    int queryLen;
+    String hitID;
+    String hitDef;
+    String hitAccession;
+    int hitLen;
+    int hspNum;
+    double bitScore;
+    double score;
+    double evalue;
+    int queryFrom;
+    int queryTo;
+    int hitFrom;
+    int hitTo;
+    int queryFrame;
+    int hitFrame;
+    int identity;
+    int positive;
+    int gaps;
+    int alignLen;
+    String qseq;
+    String hseq;
+    String midline;
+
+    BlastHsp() {
+    }
+
+    /**
+     * @return Iteration_query-ID
+     */
+    public String getQueryID() {
+        return queryID;
+    }
+
+    /**
+     * @return Iteration_query-def, the FASTA header of the query
+     */
+    public String getQueryDef() {
+        return queryDef;
+    }
+
+    /**
+     * @return Iteration_query-len
+     */
+    public int getQueryLen() {
+        return queryLen;
+    }
+
+    /**
+     * @return Hit_id
+     */
+    public String getHitID() {
+        return hitID;
+    }
+
+    /**
+     * @return Hit_def
+     */
+    public String getHitDef() {
+        return hitDef;
+    }
+
+    /**
+     * @return Hit_accession
+     */
+    public String getHitAccession() {
+        return hitAccession;
+    }
+
+    /**
+     * @return Hit_len
+     */
+    public int getHitLen() {
+        return hitLen;
+    }
+
+    /**
+     * @return Hsp_num
+     */
+    public int getHspNum() {
+        return hspNum;
+    }
+
+    /**
+     * @return Hsp_bit-score
+     */
+    public double getBitScore() {
+        return bitScore;
+    }
+
+    /**
+     * @return Hsp_score
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * @return Hsp_evalue
+     */
+    public double getEvalue() {
+        return evalue;
+    }
+
+    /**
+     * @return Hsp_query-from
+     */
+    public int getQueryFrom() {
+        return queryFrom;
+    }
+
+    /**
+     * @return Hsp_query-to
+     */
+    public int getQueryTo() {
+        return queryTo;
+    }
+
+    /**
+     * @return Hsp_hit-from
+     */
+    public int getHitFrom() {
+        return hitFrom;
+    }
+
+    /**
+     * @return Hsp_hit-to
+     */
+    public int getHitTo() {
+        return hitTo;
+    }
+
+    /**
+     * @return Hsp_query-frame
+     */
+    public int getQueryFrame() {
+        return queryFrame;
+    }
+
+    /**
+     * @return Hsp_hit-frame
+     */
+    public int getHitFrame() {
+        return hitFrame;
+    }
+
+    /**
+     * @return Hsp_identity
+     */
+    public int getIdentity() {
+        return identity;
+    }
+
+    /**
+     * @return Hsp_positive
+     */
+    public int getPositive() {
+        return positive;
+    }
+
+    /**
+     * @return Hsp_gaps
+     */
+    public int getGaps() {
+        return gaps;
+    }
+
+    /**
+     * @return Hsp_align-len
+     */
+    public int getAlignLen() {
+        return alignLen;
+    }
+
+    /**
+     * @return Hsp_qseq, the aligned query sequence
+     */
+    public String getQseq() {
+        return qseq;
+    }
+
+    /**
+     * @return Hsp_hseq, the aligned hit sequence
+     */
+    public String getHseq() {
+        return hseq;
+    }
+
+    /**
+     * @return Hsp_midline
+     */
+    public String getMidline() {
+        return midline;
+    }
+
+    @Override
+    public String toString() {
+        return queryDef + "\t" + hitAccession + "\t" + hspNum + "\t" + evalue + "\t" + bitScore + "\t"
+                + queryFrom + "\t" + queryTo + "\t" + hitFrom + "\t" + hitTo;
+    }
+}
@@ -0,0 +1,15 @@
+package org.biojava3.genome.query;
+
+/**
+ * Callback for {@link BlastXMLReader}. Receives the HSPs that pass the e-value cutoff in file order.
+ */
+public interface BlastHspListener {
+
+    /**
+     * Called for each HSP with an e-value at or below the cutoff.
+     *
+     * @param hsp the HSP, a new object for every call
+     * @throws Exception to stop reading
+     */
+    public void hsp(BlastHsp hsp) throws Exception;
+}
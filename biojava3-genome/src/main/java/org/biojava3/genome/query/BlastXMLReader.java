@@ -0,0 +1,275 @@
+package org.biojava3.genome.query;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming reader for NCBI BLAST XML output. The file is read with StAX in a single pass, so memory
+ * use does not depend on the size of the result. HSPs with an e-value above the cutoff are skipped
+ * as soon as Hsp_evalue has been read, without materializing their alignment strings.
+ */
+public class BlastXMLReader {
+
+    private static final int ITERATION = 1;
+    private static final int ITERATION_QUERY_ID = 2;
+    private static final int ITERATION_QUERY_DEF = 3;
+    private static final int ITERATION_QUERY_LEN = 4;
+    private static final int HIT = 5;
+    private static final int HIT_ID = 6;
+    private static final int HIT_DEF = 7;
+    private static final int HIT_ACCESSION = 8;
+    private static final int HIT_LEN = 9;
+    private static final int HSP = 10;
+    private static final int HSP_NUM = 11;
+    private static final int HSP_BIT_SCORE = 12;
+    private static final int HSP_SCORE = 13;
+    private static final int HSP_EVALUE = 14;
+    private static final int HSP_QUERY_FROM = 15;
+    private static final int HSP_QUERY_TO = 16;
+    private static final int HSP_HIT_FROM = 17;
+    private static final int HSP_HIT_TO = 18;
+    private static final int HSP_QUERY_FRAME = 19;
+    private static final int HSP_HIT_FRAME = 20;
+    private static final int HSP_IDENTITY = 21;
+    private static final int HSP_POSITIVE = 22;
+    private static final int HSP_GAPS = 23;
+    private static final int HSP_ALIGN_LEN = 24;
+    private static final int HSP_QSEQ = 25;
+    private static final int HSP_HSEQ = 26;
+    private static final int HSP_MIDLINE = 27;
+    private static final HashMap<String, Integer> elements = new HashMap<String, Integer>();
+
+    static {
+        elements.put("Iteration", ITERATION);
+        elements.put("Iteration_query-ID", ITERATION_QUERY_ID);
+        elements.put("Iteration_query-def", ITERATION_QUERY_DEF);
+        elements.put("Iteration_query-len", ITERATION_QUERY_LEN);
+        elements.put("Hit", HIT);
+        elements.put("Hit_id", HIT_ID);
+        elements.put("Hit_def", HIT_DEF);
+        elements.put("Hit_accession", HIT_ACCESSION);
+        elements.put("Hit_len", HIT_LEN);
+        elements.put("Hsp", HSP);
+        elements.put("Hsp_num", HSP_NUM);
+        elements.put("Hsp_bit-score", HSP_BIT_SCORE);
+        elements.put("Hsp_score", HSP_SCORE);
+        elements.put("Hsp_evalue", HSP_EVALUE);
+        elements.put("Hsp_query-from", HSP_QUERY_FROM);
+        elements.put("Hsp_query-to", HSP_QUERY_TO);
+        elements.put("Hsp_hit-from", HSP_HIT_FROM);
+        elements.put("Hsp_hit-to", HSP_HIT_TO);
+        elements.put("Hsp_query-frame", HSP_QUERY_FRAME);
+        elements.put("Hsp_hit-frame", HSP_HIT_FRAME);
+        elements.put("Hsp_identity", HSP_IDENTITY);
+        elements.put("Hsp_positive", HSP_POSITIVE);
+        elements.put("Hsp_gaps", HSP_GAPS);
+        elements.put("Hsp_align-len", HSP_ALIGN_LEN);
+        elements.put("Hsp_qseq", HSP_QSEQ);
+        elements.put("Hsp_hseq", HSP_HSEQ);
+        elements.put("Hsp_midline", HSP_MIDLINE);
+    }
+
+    /**
+     * Read a BLAST XML file and pass every HSP with an e-value at or below maxEValue to the listener.
+     *
+     * @param blastFile
+     * @param maxEValue
+     * @param listener
+     * @throws Exception
+     */
+    static public void read(File blastFile, double maxEValue, BlastHspListener listener) throws Exception {
+        InputStream is = new BufferedInputStream(new FileInputStream(blastFile));
+        try {
+            read(is, maxEValue, listener);
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * Read BLAST XML from a stream and pass every HSP with an e-value at or below maxEValue to the listener.
+     * The stream is not closed.
+     *
+     * @param is
+     * @param maxEValue
+     * @param listener
+     * @throws Exception
+     */
+    static public void read(InputStream is, double maxEValue, BlastHspListener listener) throws Exception {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // the NCBI DTD is only referenced, never needed, and fetching it would go over the network
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        XMLStreamReader reader = factory.createXMLStreamReader(is);
+        try {
+            read(reader, maxEValue, listener);
+        } finally {
+            reader.close();
+        }
+    }
+
+    static private void read(XMLStreamReader reader, double maxEValue, BlastHspListener listener) throws Exception {
+        String queryID = null;
+        String queryDef = null;
+        int queryLen = 0;
+        String hitID = null;
+        String hitDef = null;
+        String hitAccession = null;
+        int hitLen = 0;
+        BlastHsp hsp = null;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                if (hsp != null && "Hsp".equals(reader.getLocalName())) {
+                    listener.hsp(hsp);
+                    hsp = null;
+                }
+                continue;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            Integer element = elements.get(reader.getLocalName());
+            if (element == null) {
+                continue;
+            }
+            switch (element.intValue()) {
+                case ITERATION:
+                    queryID = null;
+                    queryDef = null;
+                    queryLen = 0;
+                    break;
+                case ITERATION_QUERY_ID:
+                    queryID = reader.getElementText();
+                    break;
+                case ITERATION_QUERY_DEF:
+                    queryDef = reader.getElementText();
+                    break;
+                case ITERATION_QUERY_LEN:
+                    queryLen = parseInt(reader);
+                    break;
+                case HIT:
+                    hitID = null;
+                    hitDef = null;
+                    hitAccession = null;
+                    hitLen = 0;
+                    break;
+                case HIT_ID:
+                    hitID = reader.getElementText();
+                    break;
+                case HIT_DEF:
+                    hitDef = reader.getElementText();
+                    break;
+                case HIT_ACCESSION:
+                    hitAccession = reader.getElementText();
+                    break;
+                case HIT_LEN:
+                    hitLen = parseInt(reader);
+                    break;
+                case HSP:
+                    hsp = new BlastHsp();
+                    hsp.queryID = queryID;
+                    hsp.queryDef = queryDef;
+                    hsp.queryLen = queryLen;
+                    hsp.hitID = hitID;
+                    hsp.hitDef = hitDef;
+                    hsp.hitAccession = hitAccession;
+                    hsp.hitLen = hitLen;
+                    break;
+                default:
+                    if (hsp != null) {
+                        readHspElement(reader, element.intValue(), hsp);
+                        if (element.intValue() == HSP_EVALUE && hsp.evalue > maxEValue) {
+                            skipToEndOfHsp(reader);
+                            hsp = null;
+                        }
+                    }
+            }
+        }
+    }
+
+    static private void readHspElement(XMLStreamReader reader, int element, BlastHsp hsp) throws XMLStreamException {
+        switch (element) {
+            case HSP_NUM:
+                hsp.hspNum = parseInt(reader);
+                break;
+            case HSP_BIT_SCORE:
+                hsp.bitScore = parseDouble(reader);
+                break;
+            case HSP_SCORE:
+                hsp.score = parseDouble(reader);
+                break;
+            case HSP_EVALUE:
+                hsp.evalue = parseDouble(reader);
+                break;
+            case HSP_QUERY_FROM:
+                hsp.queryFrom = parseInt(reader);
+                break;
+            case HSP_QUERY_TO:
+                hsp.queryTo = parseInt(reader);
+                break;
+            case HSP_HIT_FROM:
+                hsp.hitFrom = parseInt(reader);
+                break;
+            case HSP_HIT_TO:
+                hsp.hitTo = parseInt(reader);
+                break;
+            case HSP_QUERY_FRAME:
+                hsp.queryFrame = parseInt(reader);
+                break;
+            case HSP_HIT_FRAME:
+                hsp.hitFrame = parseInt(reader);
+                break;
+            case HSP_IDENTITY:
+                hsp.identity = parseInt(reader);
+                break;
+            case HSP_POSITIVE:
+                hsp.positive = parseInt(reader);
+                break;
+            case HSP_GAPS:
+                hsp.gaps = parseInt(reader);
+                break;
+            case HSP_ALIGN_LEN:
+                hsp.alignLen = parseInt(reader);
+                break;
+            case HSP_QSEQ:
+                hsp.qseq = reader.getElementText();
+                break;
+            case HSP_HSEQ:
+                hsp.hseq = reader.getElementText();
+                break;
+            case HSP_MIDLINE:
+                hsp.midline = reader.getElementText();
+                break;
+        }
+    }
+
+    // helper method, leaves the reader on the end tag of the enclosing Hsp
+    static private void skipToEndOfHsp(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    static private int parseInt(XMLStreamReader reader) throws XMLStreamException {
+        return Integer.parseInt(reader.getElementText().trim());
+    }
+
+    static private double parseDouble(XMLStreamReader reader) throws XMLStreamException {
+        return Double.parseDouble(reader.getElementText().trim());
+    }
+}
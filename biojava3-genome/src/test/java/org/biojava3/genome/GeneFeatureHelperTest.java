@@ -10,10 +10,15 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import junit.framework.TestCase;
 import junitx.framework.FileAssert;
+import org.biojava3.core.sequence.AccessionID;
 import org.biojava3.core.sequence.ChromosomeSequence;
+import org.biojava3.core.sequence.DNASequence;
 import org.biojava3.core.sequence.GeneSequence;
 import org.biojava3.core.sequence.ProteinSequence;
+import org.biojava3.core.sequence.TranscriptSequence;
+import org.biojava3.core.sequence.io.FastaReaderHelper;
 import org.biojava3.core.sequence.io.FastaWriterHelper;
+import org.biojava3.genome.parsers.gff.Feature;
 import org.biojava3.genome.parsers.gff.FeatureI;
 import org.biojava3.genome.parsers.gff.FeatureList;
 import org.biojava3.genome.parsers.gff.GFF3Reader;
@@ -125,4 +130,43 @@ public class GeneFeatureHelperTest extends TestCase {
     }
 
 
+    /**
+     * The gene models of each chromosome are built concurrently. Copy the volvox features to a second chromosome
+     * with a prefix on the ids and check that both chromosomes get the same genes and proteins.
+     */
+    public void testAddGmodGFF3GeneFeaturesOnSeveralChromosomes() throws Exception {
+        LinkedHashMap<String, DNASequence> dnaSequenceList = FastaReaderHelper.readFastaDNASequence(new File("src/test/resources/volvox_all.fna"));
+        DNASequence ctgB = new DNASequence(dnaSequenceList.get("ctgA").getSequenceAsString());
+        ctgB.setAccession(new AccessionID("ctgB"));
+        dnaSequenceList.put("ctgB", ctgB);
+        LinkedHashMap<String, ChromosomeSequence> chromosomeSequenceList = GeneFeatureHelper.getChromosomeSequenceFromDNASequence(dnaSequenceList);
+
+        FeatureList features = GFF3Reader.read("src/test/resources/volvox.gff3");
+        FeatureList listGenes = new FeatureList(features);
+        for (FeatureI f : features) {
+            Feature feature = (Feature) f;
+            String attributes = feature.attributes().replace("ID=", "ID=B-").replace("Parent=", "Parent=B-");
+            listGenes.add(new Feature("ctgB", feature.source(), feature.type(), feature.location(), feature.score(), feature.frame(), attributes));
+        }
+        GeneFeatureHelper.addGmodGFF3GeneFeatures(chromosomeSequenceList, listGenes);
+
+        LinkedHashMap<String, GeneSequence> ctgAGenes = chromosomeSequenceList.get("ctgA").getGeneSequences();
+        LinkedHashMap<String, GeneSequence> ctgBGenes = chromosomeSequenceList.get("ctgB").getGeneSequences();
+        assertEquals(ctgAGenes.size(), ctgBGenes.size());
+        for (GeneSequence gene : ctgAGenes.values()) {
+            GeneSequence copy = ctgBGenes.get("B-" + gene.getAccession().getID());
+            assertEquals(gene.getBioBegin(), copy.getBioBegin());
+            assertEquals(gene.getBioEnd(), copy.getBioEnd());
+            assertEquals(gene.getTranscripts().size(), copy.getTranscripts().size());
+            for (TranscriptSequence transcript : gene.getTranscripts().values()) {
+                TranscriptSequence transcriptCopy = copy.getTranscripts().get("B-" + transcript.getAccession().getID());
+                assertEquals(transcript.getProteinSequence().getSequenceAsString(), transcriptCopy.getProteinSequence().getSequenceAsString());
+            }
+        }
+
+        LinkedHashMap<String, ChromosomeSequence> reference = GeneFeatureHelper.loadFastaAddGeneFeaturesFromGmodGFF3(new File("src/test/resources/volvox_all.fna"), new File("src/test/resources/volvox.gff3"), false);
+        assertEquals(reference.get("ctgA").getGeneSequences().keySet(), ctgAGenes.keySet());
+    }
+
+
 }
@@ -0,0 +1,118 @@
+package org.biojava3.genome.parsers.gff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/**
+ * Checks the index queries against a scan of the whole list.
+ */
+public class FeatureIndexTest extends TestCase {
+
+    private static final String[] SEQNAMES = {"chr1", "chr2", "chr3"};
+
+    public FeatureIndexTest(String testName) {
+        super(testName);
+    }
+
+    public void testVolvoxOverlapping() throws Exception {
+        FeatureList features = GFF3Reader.read("src/test/resources/volvox.gff3");
+        FeatureIndex index = new FeatureIndex(features);
+        assertEquals(features.size(), index.size());
+        for (FeatureI feature : features) {
+            for (boolean useBothStrands : new boolean[]{false, true}) {
+                assertEquals(features.selectOverlapping(feature.seqname(), feature.location(), useBothStrands).toString(),
+                        index.selectOverlapping(feature.seqname(), feature.location(), useBothStrands).toString());
+                assertEquals(features.omitOverlapping(feature.seqname(), feature.location(), useBothStrands).toString(),
+                        index.omitOverlapping(feature.seqname(), feature.location(), useBothStrands).toString());
+            }
+        }
+        assertTrue(index.selectOverlapping("unknown", new Location(0, 10), true).isEmpty());
+        assertNull(index.nearest("unknown", new Location(0, 10), true));
+    }
+
+    public void testRandomQueries() throws Exception {
+        Random random = new Random(42);
+        FeatureList features = randomFeatures(random, 2000);
+        FeatureIndex index = new FeatureIndex(features);
+        for (int q = 0; q < 500; q++) {
+            String seqname = SEQNAMES[random.nextInt(SEQNAMES.length)];
+            Location location = randomLocation(random);
+            boolean useBothStrands = random.nextBoolean();
+            assertEquals(features.selectOverlapping(seqname, location, useBothStrands),
+                    index.selectOverlapping(seqname, location, useBothStrands));
+
+            FeatureList contained = new FeatureList();
+            FeatureList containing = new FeatureList();
+            int bestDistance = Integer.MAX_VALUE;
+            for (FeatureI feature : features) {
+                if (feature.seqname().equals(seqname)) {
+                    Location other = feature.location();
+                    if (!location.isSameStrand(other)) {
+                        if (!useBothStrands) {
+                            continue;
+                        }
+                        other = other.opposite();
+                    }
+                    if (location.contains(other)) {
+                        contained.add(feature);
+                    }
+                    if (other.contains(location)) {
+                        containing.add(feature);
+                    }
+                    bestDistance = Math.min(bestDistance, location.distance(other));
+                }
+            }
+            assertEquals(contained, index.selectContainedBy(seqname, location, useBothStrands));
+            assertEquals(containing, index.selectContaining(seqname, location, useBothStrands));
+
+            FeatureI nearest = index.nearest(seqname, location, useBothStrands);
+            if (bestDistance == Integer.MAX_VALUE) {
+                assertNull(nearest);
+            } else {
+                Location other = nearest.location();
+                if (!location.isSameStrand(other)) {
+                    other = other.opposite();
+                }
+                assertEquals(bestDistance, location.distance(other));
+            }
+        }
+    }
+
+    public void testIntersect() throws Exception {
+        Random random = new Random(7);
+        FeatureList features = randomFeatures(random, 1000);
+        FeatureList others = randomFeatures(random, 800);
+        for (boolean useBothStrands : new boolean[]{false, true}) {
+            List<String> expected = new ArrayList<String>();
+            for (FeatureI feature : features) {
+                for (FeatureI other : others.selectOverlapping(feature.seqname(), feature.location(), useBothStrands)) {
+                    expected.add(feature.seqname() + ":" + feature + "\t" + other.seqname() + ":" + other);
+                }
+            }
+            List<String> found = new ArrayList<String>();
+            for (FeatureIndex.Overlap overlap : FeatureIndex.intersect(features, others, useBothStrands)) {
+                found.add(overlap.toString());
+                assertNotNull(overlap.intersection());
+            }
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, found);
+        }
+    }
+
+    private static FeatureList randomFeatures(Random random, int count) {
+        FeatureList features = new FeatureList();
+        for (int i = 0; i < count; i++) {
+            features.add(new Feature(SEQNAMES[random.nextInt(SEQNAMES.length)], "test", "exon",
+                    randomLocation(random), 0.0, -1, "ID=f" + i));
+        }
+        return features;
+    }
+
+    private static Location randomLocation(Random random) {
+        int start = 1 + random.nextInt(100000);
+        int length = random.nextInt(10) == 0 ? random.nextInt(20000) : random.nextInt(500);
+        return Location.fromBio(start, start + length, random.nextBoolean() ? '+' : '-');
+    }
+}
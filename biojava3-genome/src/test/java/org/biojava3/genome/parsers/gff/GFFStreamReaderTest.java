@@ -0,0 +1,149 @@
+package org.biojava3.genome.parsers.gff;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import junit.framework.TestCase;
+
+/**
+ * Checks that the streaming reader and the feature table give the same features as splitting
+ * each line on tabs.
+ */
+public class GFFStreamReaderTest extends TestCase {
+
+    private static final Pattern TAB = Pattern.compile("\t");
+
+    public GFFStreamReaderTest(String testName) {
+        super(testName);
+    }
+
+    public void testVolvox() throws Exception {
+        assertSameFeatures("src/test/resources/volvox.gff3");
+    }
+
+    public void testAmphimedon() throws Exception {
+        assertSameFeatures("src/test/resources/amphimedon.gff3");
+    }
+
+    public void testIndexes() throws Exception {
+        FeatureList features = GFF3Reader.read("src/test/resources/volvox.gff3", Arrays.asList("ID", "Parent"));
+        FeatureList expected = new FeatureList();
+        for (FeatureI feature : splitFile("src/test/resources/volvox.gff3")) {
+            if ("EDEN.1".equals(feature.getAttribute("Parent"))) {
+                expected.add(feature);
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.toString(), features.selectByAttribute("Parent", "EDEN.1").toString());
+    }
+
+    public void testRecordListener() throws Exception {
+        String gff = "##gff-version 3\n"
+                + "\n"
+                + "  ctgA\texample\tgene\t1050\t1000\t.\t-\t.\tID=g1;Name=EDEN # comment\n"
+                + "ctgA\texample\tmRNA\t1050\t9000\t3.5\t+\t2\tID=m1;Parent=g1\n"
+                + "ctgB\texample\tCDS\t10\t20\tx\t+\tx\n"
+                + "##FASTA\n"
+                + ">ctgA\n"
+                + "ACGT\n";
+        final List<String> lines = new ArrayList<String>();
+        final List<String> names = new ArrayList<String>();
+        final List<String> seqnames = new ArrayList<String>();
+        GFFStreamReader.read(new StringReader(gff), new GFFRecordListener() {
+
+            public void record(GFFRecord record) {
+                lines.add(record.toString());
+                names.add(record.getAttribute("Name"));
+                seqnames.add(record.seqname());
+            }
+        });
+        assertEquals(3, lines.size());
+        assertEquals("ctgA\texample\tgene\t-1050\t-999\t0.0\t.\tID=g1;Name=EDEN ", lines.get(0));
+        assertEquals("ctgA\texample\tmRNA\t1049\t9000\t3.5\t2\tID=m1;Parent=g1", lines.get(1));
+        assertEquals("ctgB\texample\tCDS\t9\t20\t0.0\t.\t", lines.get(2));
+        assertEquals(Arrays.asList("EDEN", null, null), names);
+        // symbols are shared between rows
+        assertSame(seqnames.get(0), seqnames.get(1));
+        assertEquals(3, GFFStreamReader.readTable(new StringReader(gff)).size());
+    }
+
+    public void testShortLine() throws Exception {
+        try {
+            GFFStreamReader.readTable(new StringReader("ctgA\texample\tgene\t1\t2\n"));
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Line 1 "));
+        }
+    }
+
+    public void testSymbolTable() {
+        SymbolTable symbols = new SymbolTable();
+        List<String> added = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            String symbol = "chr" + i;
+            assertEquals(i, symbols.code("\t" + symbol + "\t", 1, symbol.length() + 1));
+            added.add(symbol);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, symbols.code(added.get(i)));
+            assertEquals(added.get(i), symbols.get(i));
+        }
+        assertEquals(1000, symbols.size());
+    }
+
+    private void assertSameFeatures(String filename) throws Exception {
+        FeatureList expected = splitFile(filename);
+        FeatureList features = GFF3Reader.read(filename);
+        FeatureTable table = GFFStreamReader.readTable(filename);
+        assertEquals(expected.size(), features.size());
+        assertEquals(expected.size(), table.size());
+        for (int i = 0; i < expected.size(); i++) {
+            FeatureI feature = expected.get(i);
+            assertEquals(feature.toString(), features.get(i).toString());
+            assertEquals(feature.toString(), table.getFeature(i).toString());
+            assertEquals(feature.getAttributes(), features.get(i).getAttributes());
+            assertEquals(feature.getAttribute("ID"), table.getAttribute(i, "ID"));
+        }
+        assertEquals(expected.toString(), table.toFeatureList().toString());
+    }
+
+    /**
+     * Read the file by splitting each line on tabs
+     */
+    private static FeatureList splitFile(String filename) throws IOException {
+        FeatureList features = new FeatureList();
+        BufferedReader br = new BufferedReader(new FileReader(filename));
+        for (String s = br.readLine(); null != s; s = br.readLine()) {
+            s = s.trim();
+            if (s.startsWith("##fasta")) {
+                break;
+            }
+            if (s.length() > 0 && s.charAt(0) != '#') {
+                String[] line = TAB.split(s);
+                int start = Integer.parseInt(line[3].trim());
+                int end = Integer.parseInt(line[4].trim());
+                double score;
+                try {
+                    score = Double.parseDouble(line[5].trim());
+                } catch (NumberFormatException e) {
+                    score = 0.0;
+                }
+                int frame;
+                try {
+                    frame = Integer.parseInt(line[7].trim());
+                } catch (NumberFormatException e) {
+                    frame = -1;
+                }
+                Location location = Location.fromBio(Math.min(start, end), Math.max(start, end), line[6].trim().charAt(0));
+                features.add(new Feature(line[0].trim(), line[1].trim(), line[2].trim(), location, score, frame, line[8].split("#")[0]));
+            }
+        }
+        br.close();
+        return features;
+    }
+}
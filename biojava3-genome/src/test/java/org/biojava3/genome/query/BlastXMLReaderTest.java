@@ -0,0 +1,83 @@
+package org.biojava3.genome.query;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import junit.framework.TestCase;
+
+/**
+ * Reads a small blastx result with the streaming reader.
+ */
+public class BlastXMLReaderTest extends TestCase {
+
+    private static final String BLAST_FILE = "src/test/resources/blast_hits.xml";
+
+    public BlastXMLReaderTest(String testName) {
+        super(testName);
+    }
+
+    public void testReadAllHsps() throws Exception {
+        final ArrayList<BlastHsp> hsps = new ArrayList<BlastHsp>();
+        BlastXMLReader.read(new File(BLAST_FILE), Double.MAX_VALUE, new BlastHspListener() {
+
+            public void hsp(BlastHsp hsp) {
+                hsps.add(hsp);
+            }
+        });
+        assertEquals(4, hsps.size());
+
+        BlastHsp hsp = hsps.get(0);
+        assertEquals("Query_1", hsp.getQueryID());
+        assertEquals("contig1 length=120", hsp.getQueryDef());
+        assertEquals(120, hsp.getQueryLen());
+        assertEquals("sp|P12345|AATM_RABIT", hsp.getHitID());
+        assertEquals("Aspartate aminotransferase", hsp.getHitDef());
+        assertEquals("P12345", hsp.getHitAccession());
+        assertEquals(430, hsp.getHitLen());
+        assertEquals(1, hsp.getHspNum());
+        assertEquals(75.4, hsp.getBitScore(), 0.0);
+        assertEquals(184.0, hsp.getScore(), 0.0);
+        assertEquals(2.5e-15, hsp.getEvalue(), 0.0);
+        assertEquals(1, hsp.getQueryFrom());
+        assertEquals(36, hsp.getQueryTo());
+        assertEquals(10, hsp.getHitFrom());
+        assertEquals(21, hsp.getHitTo());
+        assertEquals(1, hsp.getQueryFrame());
+        assertEquals(11, hsp.getIdentity());
+        assertEquals(12, hsp.getPositive());
+        assertEquals(0, hsp.getGaps());
+        assertEquals(12, hsp.getAlignLen());
+        assertEquals("MALLHSGRVLPG", hsp.getQseq());
+        assertEquals("MALLHSARVLSG", hsp.getHseq());
+        assertEquals("MALLHS RVL G", hsp.getMidline());
+
+        assertEquals(2, hsps.get(1).getHspNum());
+        assertEquals("Q67890", hsps.get(2).getHitAccession());
+        assertEquals("contig3 length=150", hsps.get(3).getQueryDef());
+        assertEquals(-1, hsps.get(3).getQueryFrame());
+        assertEquals(1, hsps.get(3).getGaps());
+    }
+
+    public void testEValueCutoff() throws Exception {
+        final ArrayList<BlastHsp> hsps = new ArrayList<BlastHsp>();
+        BlastXMLReader.read(new File(BLAST_FILE), 1e-10, new BlastHspListener() {
+
+            public void hsp(BlastHsp hsp) {
+                hsps.add(hsp);
+            }
+        });
+        assertEquals(2, hsps.size());
+        for (BlastHsp hsp : hsps) {
+            assertTrue(hsp.getEvalue() <= 1e-10);
+            assertEquals("contig1 length=120", hsp.getQueryDef());
+        }
+    }
+
+    public void testHitsQueryDef() throws Exception {
+        BlastXMLQuery blastXMLQuery = new BlastXMLQuery(BLAST_FILE);
+        LinkedHashMap<String, ArrayList<String>> hits = blastXMLQuery.getHitsQueryDef(0.01);
+        assertEquals(2, hits.size());
+        assertEquals("[P12345, Q67890]", hits.get("contig1 length=120").toString());
+        assertEquals("[P12345]", hits.get("contig3 length=150").toString());
+    }
+}
@@ -37,8 +37,11 @@ import java.util.Map;
 import java.util.Set;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.biojava3.protmod.Component;
 import org.biojava3.protmod.ModificationCategory;
@@ -46,14 +49,10 @@ import org.biojava3.protmod.ModificationCondition;
 import org.biojava3.protmod.ModificationConditionImpl;
 import org.biojava3.protmod.ModificationOccurrenceType;
 import org.biojava3.protmod.ModificationLinkage;
+import org.biojava3.protmod.ProteinModification;
 import org.biojava3.protmod.ProteinModificationImpl;
 import org.biojava3.protmod.ProteinModificationRegistry;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
 import org.xml.sax.SAXException;
 
 /**
@@ -62,17 +61,66 @@ import org.xml.sax.SAXException;
  * @since 3.0
  */
 public final class ProteinModificationXmlReader {
+	/**
+	 * Shared by all reads; an {@link XMLInputFactory} can be used by several
+	 * threads once it has been configured.
+	 */
+	private static final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+	
 	/**
 	 * This is a utility class and thus cannot be instantialized.
 	 */
 	private ProteinModificationXmlReader() {}
 	
+	/**
+	 * An element of the XML file. Only the current &lt;Entry&gt; is kept
+	 * in memory while the file is read.
+	 */
+	private static final class Node {
+		private final Map<String,String> attributes = new HashMap<String,String>();
+		private final List<Node> children = new ArrayList<Node>();
+		private final StringBuilder text = new StringBuilder();
+		private final String name;
+		
+		Node(String name) {
+			this.name = name;
+		}
+		
+		String getNodeName() {
+			return name;
+		}
+		
+		/**
+		 * @return the value of an attribute, or null if there is no such attribute.
+		 */
+		String getAttribute(String attribute) {
+			return attributes.get(attribute);
+		}
+		
+		/**
+		 * @return the text of this element and of all its descendants.
+		 */
+		String getTextContent() {
+			if (children.isEmpty())
+				return text.toString();
+			StringBuilder sb = new StringBuilder(text);
+			for (Node child : children)
+				sb.append(child.getTextContent());
+			return sb.toString();
+		}
+	}
+	
 	/**
 	 * Read protein modifications from XML file and register them.
+	 * The file is read as a stream, one &lt;Entry&gt; at a time. The
+	 * modifications are registered after the whole file has been read, so
+	 * nothing is registered if the file is not well-formed or an entry is
+	 * invalid.
 	 * @param isXml {@link InputStream} of the XML file.
 	 * @throws IOException if failed to read the XML file.
-	 * @throws ParserConfigurationException if parse errors occur.
-	 * @throws SAXException the {@link DocumentBuilder} cannot be created.
+	 * @throws ParserConfigurationException declared for compatibility, 
+	 *  no {@link DocumentBuilder} is used any more.
+	 * @throws SAXException if the XML file is not well-formed.
 	 */
 	public static void registerProteinModificationFromXml(InputStream isXml)
 			throws IOException, ParserConfigurationException, SAXException {
@@ -80,275 +128,306 @@ public final class ProteinModificationXmlReader {
 			throw new IllegalArgumentException("Null argument.");
 		}
 		
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		DocumentBuilder builder = factory.newDocumentBuilder();
-		Document doc = builder.parse(isXml);
+		List<ProteinModification> mods = new ArrayList<ProteinModification>();
+		try {
+			XMLStreamReader reader = inputFactory.createXMLStreamReader(isXml);
+			try {
+				List<Node> open = new ArrayList<Node>();
+				while (reader.hasNext()) {
+					int event = reader.next();
+					if (event==XMLStreamConstants.START_ELEMENT) {
+						String name = reader.getLocalName();
+						if (open.isEmpty() && !name.equals("Entry"))
+							continue;
+						Node node = new Node(name);
+						for (int i=0; i<reader.getAttributeCount(); i++) {
+							node.attributes.put(reader.getAttributeLocalName(i),
+									reader.getAttributeValue(i));
+						}
+						if (!open.isEmpty())
+							open.get(open.size()-1).children.add(node);
+						open.add(node);
+					} else if (event==XMLStreamConstants.CHARACTERS
+							|| event==XMLStreamConstants.CDATA) {
+						if (!open.isEmpty())
+							open.get(open.size()-1).text.append(reader.getText());
+					} else if (event==XMLStreamConstants.END_ELEMENT) {
+						if (open.isEmpty())
+							continue;
+						Node node = open.remove(open.size()-1);
+						if (open.isEmpty())
+							mods.add(buildProteinModification(node));
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new SAXException(e);
+		}
 		
-		NodeList modNodes = doc.getElementsByTagName("Entry");		
-		int modSize = modNodes.getLength();
+		for (ProteinModification mod : mods) {
+			ProteinModificationRegistry.register(mod);
+		}
+	}
+	
+	/**
+	 * Build the protein modification of an &lt;Entry&gt;.
+	 * @param modNode the &lt;Entry&gt; element.
+	 * @return the modification.
+	 */
+	private static ProteinModification buildProteinModification(Node modNode) {
+		Map<String,List<Node>> infoNodes = getChildNodes(modNode);
 		List<Node> nodes;
-		for (int iMod=0; iMod<modSize; iMod++) {
-			Node modNode = modNodes.item(iMod);
-			Map<String,List<Node>> infoNodes = getChildNodes(modNode);
-			
-			// ID
-			nodes = infoNodes.get("Id");
+		
+		// ID
+		nodes = infoNodes.get("Id");
+		if (nodes==null || nodes.size()!=1) {
+			throw new RuntimeException("Each modification must have exact " +
+					"one <Id> field.");
+		}
+		String id = nodes.get(0).getTextContent();
+		
+		// modification category
+		nodes = infoNodes.get("Category");
+		if (nodes==null || nodes.size()!=1) {
+			throw new RuntimeException("Each modification must have exact " +
+					"one <Category> field. See Modification "+id+".");
+		}
+		ModificationCategory cat = ModificationCategory.getByLabel(
+				nodes.get(0).getTextContent());
+		if (cat==null) {
+			throw new RuntimeException(nodes.get(0).getTextContent()+
+				" is not defined as an modification category." +
+				" See Modification "+id+".");
+		}
+		
+		// occurrence type
+		nodes = infoNodes.get("Occurrence");
+		if (nodes==null || nodes.size()!=1) {
+			throw new RuntimeException("Each modification must have exact " +
+					"one <Occurrence> field. See Modification "+id+".");
+		}
+		ModificationOccurrenceType occType = ModificationOccurrenceType
+			.getByLabel(nodes.get(0).getTextContent());
+		if (occType==null) {
+			throw new RuntimeException(nodes.get(0).getTextContent()+
+				" is not defined as an modification occurence type." +
+				" See Modification "+id+".");
+		}
+		
+		// condition
+		ModificationCondition condition = null;
+		{
+			nodes = infoNodes.get("Condition");
 			if (nodes==null || nodes.size()!=1) {
 				throw new RuntimeException("Each modification must have exact " +
-						"one <Id> field.");
+						"one <Condition> field. See Modification "+id+".");
 			}
-			String id = nodes.get(0).getTextContent();
 			
-			// modification category
-			nodes = infoNodes.get("Category");
-			if (nodes==null || nodes.size()!=1) {
-				throw new RuntimeException("Each modification must have exact " +
-						"one <Category> field. See Modification "+id+".");
-			}
-			ModificationCategory cat = ModificationCategory.getByLabel(
-					nodes.get(0).getTextContent());
-			if (cat==null) {
-				throw new RuntimeException(nodes.get(0).getTextContent()+
-					" is not defined as an modification category." +
-					" See Modification "+id+".");
-			}
+			Node compsNode = nodes.get(0);
 			
-			// occurrence type
-			nodes = infoNodes.get("Occurrence");
-			if (nodes==null || nodes.size()!=1) {
-				throw new RuntimeException("Each modification must have exact " +
-						"one <Occurrence> field. See Modification "+id+".");
-			}
-			ModificationOccurrenceType occType = ModificationOccurrenceType
-				.getByLabel(nodes.get(0).getTextContent());
-			if (occType==null) {
-				throw new RuntimeException(nodes.get(0).getTextContent()+
-					" is not defined as an modification occurence type." +
-					" See Modification "+id+".");
-			}
+			// keep track of the labels of component indices
+			Map<String,Integer> mapLabelComp = new HashMap<String,Integer>();
+
+			Map<String,List<Node>> compInfoNodes = getChildNodes(compsNode);
 			
-			// condition
-			ModificationCondition condition = null;
-			{
-				nodes = infoNodes.get("Condition");
-				if (nodes==null || nodes.size()!=1) {
-					throw new RuntimeException("Each modification must have exact " +
-							"one <Condition> field. See Modification "+id+".");
+			// components
+			List<Node> compNodes = compInfoNodes.get("Component");
+			int sizeComp = compNodes.size();
+			List<Component> comps = new ArrayList<Component>(sizeComp);
+			for (int iComp=0; iComp<sizeComp; iComp++) {
+				Node compNode = compNodes.get(iComp);
+				// comp label
+				String label = compNode.getAttribute("component");
+				if (label==null) {
+					throw new RuntimeException("Each component must have a label." +
+							" See Modification "+id+".");
 				}
 				
-				Node compsNode = nodes.get(0);
+				if (mapLabelComp.containsKey(label)) {
+					throw new RuntimeException("Each component must have a unique label." +
+							" See Modification "+id+".");
+				}
 				
-				// keep track of the labels of component indices
-				Map<String,Integer> mapLabelComp = new HashMap<String,Integer>();
-
-				Map<String,List<Node>> compInfoNodes = getChildNodes(compsNode);
+				// comp PDBCC ID
+				Set<String> compIds = new HashSet<String>();
+				List<Node> compIdNodes = getChildNodes(compNode).get("Id");
+				if (compIdNodes!=null) {
+					for (Node compIdNode : compIdNodes) {
+						String compIdSource = compIdNode.getAttribute("source");
+						if (compIdSource!=null && compIdSource.equals("PDBCC")) {
+							String strComps = compIdNode.getTextContent();
+							if (strComps.isEmpty()) {
+								throw new RuntimeException("Empty component." +
+										" See Modification "+id+".");
+							}
+							compIds.addAll(Arrays.asList(strComps.split(",")));
+						}
+					}
+				}
+				
+				if (compIds.isEmpty()) {
+					throw new RuntimeException("Each component must have a PDBCC ID." +
+							" See Modification "+id+".");
+				}
 				
-				// components
-				List<Node> compNodes = compInfoNodes.get("Component");
-				int sizeComp = compNodes.size();
-				List<Component> comps = new ArrayList<Component>(sizeComp);
-				for (int iComp=0; iComp<sizeComp; iComp++) {
-					Node compNode = compNodes.get(iComp);
-					// comp label
-					NamedNodeMap compNodeAttrs = compNode.getAttributes();
-					Node labelNode = compNodeAttrs.getNamedItem("component");
-					if (labelNode==null) {
-						throw new RuntimeException("Each component must have a label." +
+				// terminal
+				boolean nTerminal = false;
+				boolean cTerminal = false;
+				List<Node> compTermNode = getChildNodes(compNode).get("Terminal");
+				if (compTermNode!=null) {
+					if (compTermNode.size()!=1) {
+						throw new RuntimeException("Only one <Terminal> condition is allowed for " +
+								"each component. See Modification "+id+".");
+					}
+					String nc = compTermNode.get(0).getTextContent();
+					if (nc.equals("N")) {
+						nTerminal = true;
+					} else if (nc.equals("C")) {
+						cTerminal = true;
+					} else {
+						throw new RuntimeException("Only N or C is allowed for <Terminal>." +
 								" See Modification "+id+".");
 					}
-					String label = labelNode.getTextContent();
-					
-					if (mapLabelComp.containsKey(label)) {
-						throw new RuntimeException("Each component must have a unique label." +
+				}
+
+				// register
+				Component comp = Component.of(compIds, nTerminal, cTerminal);
+				comps.add(comp);						
+				mapLabelComp.put(label, comps.size()-1);
+			}
+			
+			// bonds
+			List<Node> bondNodes = compInfoNodes.get("Bond");
+			List<ModificationLinkage> linkages = null;
+			if (bondNodes!=null) {
+				int sizeBonds = bondNodes.size();
+				linkages = new ArrayList<ModificationLinkage>(sizeBonds);
+				for (int iBond=0; iBond<sizeBonds; iBond++) {
+					Node bondNode = bondNodes.get(iBond);
+					Map<String,List<Node>> bondChildNodes = getChildNodes(bondNode);
+					if (bondChildNodes==null) {
+						throw new RuntimeException("Each bond must contain two atoms" +
 								" See Modification "+id+".");
 					}
 					
-					// comp PDBCC ID
-					Set<String> compIds = new HashSet<String>();
-					List<Node> compIdNodes = getChildNodes(compNode).get("Id");
-					if (compIdNodes!=null) {
-						for (Node compIdNode : compIdNodes) {
-							NamedNodeMap compIdNodeAttr = compIdNode.getAttributes();
-							Node compIdSource = compIdNodeAttr.getNamedItem("source");
-							if (compIdSource!=null && compIdSource.getTextContent().equals("PDBCC")) {
-								String strComps = compIdNode.getTextContent();
-								if (strComps.isEmpty()) {
-									throw new RuntimeException("Empty component." +
-											" See Modification "+id+".");
-								}
-								compIds.addAll(Arrays.asList(strComps.split(",")));
-							}
-						}
+					List<Node> atomNodes = bondChildNodes.get("Atom");
+					if (atomNodes==null || atomNodes.size()!=2) {
+						throw new RuntimeException("Each bond must contain two atoms" +
+								" See Modification "+id+".");
 					}
 					
-					if (compIds.isEmpty()) {
-						throw new RuntimeException("Each component must have a PDBCC ID." +
+					// atom 1
+					String labelComp1 = atomNodes.get(0).getAttribute("component");
+					if (labelComp1==null) {
+						throw new RuntimeException("Each atom must on a component." +
 								" See Modification "+id+".");
 					}
+					int iComp1 = mapLabelComp.get(labelComp1);
 					
-					// terminal
-					boolean nTerminal = false;
-					boolean cTerminal = false;
-					List<Node> compTermNode = getChildNodes(compNode).get("Terminal");
-					if (compTermNode!=null) {
-						if (compTermNode.size()!=1) {
-							throw new RuntimeException("Only one <Terminal> condition is allowed for " +
-									"each component. See Modification "+id+".");
-						}
-						String nc = compTermNode.get(0).getTextContent();
-						if (nc.equals("N")) {
-							nTerminal = true;
-						} else if (nc.equals("C")) {
-							cTerminal = true;
-						} else {
-							throw new RuntimeException("Only N or C is allowed for <Terminal>." +
-									" See Modification "+id+".");
-						}
-					}
-
-					// register
-					Component comp = Component.of(compIds, nTerminal, cTerminal);
-					comps.add(comp);						
-					mapLabelComp.put(label, comps.size()-1);
-				}
-				
-				// bonds
-				List<Node> bondNodes = compInfoNodes.get("Bond");
-				List<ModificationLinkage> linkages = null;
-				if (bondNodes!=null) {
-					int sizeBonds = bondNodes.size();
-					linkages = new ArrayList<ModificationLinkage>(sizeBonds);
-					for (int iBond=0; iBond<sizeBonds; iBond++) {
-						Node bondNode = bondNodes.get(iBond);
-						Map<String,List<Node>> bondChildNodes = getChildNodes(bondNode);
-						if (bondChildNodes==null) {
-							throw new RuntimeException("Each bond must contain two atoms" +
-									" See Modification "+id+".");
-						}
-						
-						List<Node> atomNodes = bondChildNodes.get("Atom");
-						if (atomNodes==null || atomNodes.size()!=2) {
-							throw new RuntimeException("Each bond must contain two atoms" +
-									" See Modification "+id+".");
-						}
-						
-						// atom 1
-						NamedNodeMap atomNodeAttrs = atomNodes.get(0).getAttributes();
-						Node compNode = atomNodeAttrs.getNamedItem("component");
-						if (compNode==null) {
-							throw new RuntimeException("Each atom must on a component." +
-									" See Modification "+id+".");
-						}
-						String labelComp1 = compNode.getTextContent();
-						int iComp1 = mapLabelComp.get(labelComp1);
-						
-						Node labelNode = atomNodeAttrs.getNamedItem("atom");
-						String labelAtom1 = labelNode==null?null:labelNode.getTextContent();
-						
-						String atom1 = atomNodes.get(0).getTextContent();
-						if (atom1.isEmpty()) {
-							throw new RuntimeException("Each atom must have a name. Please use wildcard * if unknown." +
-									" See Modification "+id+".");
-						}
-						List<String> potentialAtoms1 = Arrays.asList(atom1.split(","));
-						
-						// atom 2
-						atomNodeAttrs = atomNodes.get(1).getAttributes();
-						compNode = atomNodeAttrs.getNamedItem("component");
-						if (compNode==null) {
-							throw new RuntimeException("Each atom must on a component." +
-									" See Modification "+id+".");
-						}
-						String labelComp2 = compNode.getTextContent();
-						int iComp2 = mapLabelComp.get(labelComp2);
-
-						labelNode = atomNodeAttrs.getNamedItem("atom");
-						String labelAtom2 = labelNode==null?null:labelNode.getTextContent();
-						
-						String atom2 = atomNodes.get(1).getTextContent();
-						if (atom2.isEmpty()) {
-							throw new RuntimeException("Each atom must have a name. Please use wildcard * if unknown." +
-									" See Modification "+id+".");
-						}
-						List<String> potentialAtoms2 = Arrays.asList(atom2.split(","));
-						
-						// add linkage
-						ModificationLinkage linkage = new ModificationLinkage(comps,
-								iComp1, potentialAtoms1, labelAtom1,
-								iComp2, potentialAtoms2, labelAtom2);
-						linkages.add(linkage);
-					}
-				}
-				
-				condition = new ModificationConditionImpl(comps, linkages);
-			} // end of condition	
-			
-			ProteinModificationImpl.Builder modBuilder = 
-				new ProteinModificationImpl.Builder(id, cat, occType, condition);
-			
-			// description
-			nodes = infoNodes.get("Description");
-			if (nodes!=null && !nodes.isEmpty()) {
-				modBuilder.setDescription(nodes.get(0).getTextContent());
-			}
-			
-			// cross references
-			nodes = infoNodes.get("CrossReference");
-			if (nodes!=null) {
-				for (Node node:nodes) {
-					Map<String,List<Node>> xrefInfoNodes = getChildNodes(node);
+					String labelAtom1 = atomNodes.get(0).getAttribute("atom");
 					
-					// source
-					List<Node> xrefNode = xrefInfoNodes.get("Source");
-					if (xrefNode==null || xrefNode.size()!=1) {
-						throw new RuntimeException("Error in XML file: " +
-							"a cross reference must contain exactly one <Source> field." +
-							" See Modification "+id+".");
+					String atom1 = atomNodes.get(0).getTextContent();
+					if (atom1.isEmpty()) {
+						throw new RuntimeException("Each atom must have a name. Please use wildcard * if unknown." +
+								" See Modification "+id+".");
 					}
-					String xrefDb = xrefNode.get(0).getTextContent();
+					List<String> potentialAtoms1 = Arrays.asList(atom1.split(","));
 					
-					// id
-					xrefNode = xrefInfoNodes.get("Id");
-					if (xrefNode==null || xrefNode.size()!=1) {
-						throw new RuntimeException("Error in XML file: " +
-							"a cross reference must contain exactly one <Id> field." +
-							" See Modification "+id+".");
+					// atom 2
+					String labelComp2 = atomNodes.get(1).getAttribute("component");
+					if (labelComp2==null) {
+						throw new RuntimeException("Each atom must on a component." +
+								" See Modification "+id+".");
 					}
-					String xrefId = xrefNode.get(0).getTextContent();
+					int iComp2 = mapLabelComp.get(labelComp2);
+
+					String labelAtom2 = atomNodes.get(1).getAttribute("atom");
 					
-					// name
-					String xrefName = null;
-					xrefNode = xrefInfoNodes.get("Name");
-					if (xrefNode!=null && !xrefNode.isEmpty()) {
-						xrefName = xrefNode.get(0).getTextContent();
+					String atom2 = atomNodes.get(1).getTextContent();
+					if (atom2.isEmpty()) {
+						throw new RuntimeException("Each atom must have a name. Please use wildcard * if unknown." +
+								" See Modification "+id+".");
 					}
+					List<String> potentialAtoms2 = Arrays.asList(atom2.split(","));
 					
-					if (xrefDb.equals("PDBCC")) {
-						modBuilder.setPdbccId(xrefId).setPdbccName(xrefName);
-					} else if (xrefDb.equals("RESID")) {
-						modBuilder.setResidId(xrefId).setResidName(xrefName);
-					} else if (xrefDb.equals("PSI-MOD")) {
-						modBuilder.setPsimodId(xrefId).setPsimodName(xrefName);
-					}
+					// add linkage
+					ModificationLinkage linkage = new ModificationLinkage(comps,
+							iComp1, potentialAtoms1, labelAtom1,
+							iComp2, potentialAtoms2, labelAtom2);
+					linkages.add(linkage);
 				}
-			} // end of cross references
-			
-			// formula
-			nodes = infoNodes.get("Formula");
-			if (nodes!=null && !nodes.isEmpty()) {
-				modBuilder.setFormula(nodes.get(0).getTextContent());
 			}
 			
-			// keywords
-			nodes = infoNodes.get("Keyword");
-			if (nodes!=null && !nodes.isEmpty()) {
-				for (Node node : nodes) {
-					modBuilder.addKeyword(node.getTextContent());
+			condition = new ModificationConditionImpl(comps, linkages);
+		} // end of condition	
+		
+		ProteinModificationImpl.Builder modBuilder = 
+			new ProteinModificationImpl.Builder(id, cat, occType, condition);
+		
+		// description
+		nodes = infoNodes.get("Description");
+		if (nodes!=null && !nodes.isEmpty()) {
+			modBuilder.setDescription(nodes.get(0).getTextContent());
+		}
+		
+		// cross references
+		nodes = infoNodes.get("CrossReference");
+		if (nodes!=null) {
+			for (Node node:nodes) {
+				Map<String,List<Node>> xrefInfoNodes = getChildNodes(node);
+				
+				// source
+				List<Node> xrefNode = xrefInfoNodes.get("Source");
+				if (xrefNode==null || xrefNode.size()!=1) {
+					throw new RuntimeException("Error in XML file: " +
+						"a cross reference must contain exactly one <Source> field." +
+						" See Modification "+id+".");
+				}
+				String xrefDb = xrefNode.get(0).getTextContent();
+				
+				// id
+				xrefNode = xrefInfoNodes.get("Id");
+				if (xrefNode==null || xrefNode.size()!=1) {
+					throw new RuntimeException("Error in XML file: " +
+						"a cross reference must contain exactly one <Id> field." +
+						" See Modification "+id+".");
+				}
+				String xrefId = xrefNode.get(0).getTextContent();
+				
+				// name
+				String xrefName = null;
+				xrefNode = xrefInfoNodes.get("Name");
+				if (xrefNode!=null && !xrefNode.isEmpty()) {
+					xrefName = xrefNode.get(0).getTextContent();
+				}
+				
+				if (xrefDb.equals("PDBCC")) {
+					modBuilder.setPdbccId(xrefId).setPdbccName(xrefName);
+				} else if (xrefDb.equals("RESID")) {
+					modBuilder.setResidId(xrefId).setResidName(xrefName);
+				} else if (xrefDb.equals("PSI-MOD")) {
+					modBuilder.setPsimodId(xrefId).setPsimodName(xrefName);
 				}
 			}
-			
-			ProteinModificationRegistry.register(modBuilder.build());
+		} // end of cross references
+		
+		// formula
+		nodes = infoNodes.get("Formula");
+		if (nodes!=null && !nodes.isEmpty()) {
+			modBuilder.setFormula(nodes.get(0).getTextContent());
+		}
+		
+		// keywords
+		nodes = infoNodes.get("Keyword");
+		if (nodes!=null && !nodes.isEmpty()) {
+			for (Node node : nodes) {
+				modBuilder.addKeyword(node.getTextContent());
+			}
 		}
+		
+		return modBuilder.build();
 	}
 	
 	/**
@@ -362,13 +441,7 @@ public final class ProteinModificationXmlReader {
 		
 		Map<String,List<Node>> children = new HashMap<String,List<Node>>();
 		
-		NodeList nodes = parent.getChildNodes();
-		int nNodes = nodes.getLength();
-		for (int i=0; i<nNodes; i++) {
-			Node node = nodes.item(i);
-			if (node.getNodeType()!=Node.ELEMENT_NODE)
-				continue;
-			
+		for (Node node : parent.children) {
 			String name = node.getNodeName();
 			List<Node> namesakes = children.get(name);
 			if (namesakes==null) {
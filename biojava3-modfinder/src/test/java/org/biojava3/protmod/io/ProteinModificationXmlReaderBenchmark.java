@@ -0,0 +1,79 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava3.protmod.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.biojava3.protmod.ProteinModification;
+import org.biojava3.protmod.ProteinModificationRegistry;
+
+/**
+ * Times reading ptm_list.xml: building a DOM document of the file, which is what the reader did before it
+ * registered anything, against reading and registering all modifications with the streaming reader.
+ *
+ * Arguments: [rounds], default 20
+ */
+public class ProteinModificationXmlReaderBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 20;
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		InputStream is = ProteinModification.class.getResourceAsStream("ptm_list.xml");
+		byte[] buf = new byte[8192];
+		int n;
+		while ((n = is.read(buf)) > 0)
+			out.write(buf, 0, n);
+		is.close();
+		byte[] xml = out.toByteArray();
+
+		int entries = ProteinModificationRegistry.allModifications().size();
+		System.out.printf("ptm_list.xml: %d bytes, %d modifications%n", xml.length, entries);
+
+		for (int run = 0; run < 3; run++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < rounds; i++)
+				DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+			long dom = System.nanoTime() - start;
+
+			long streaming = 0;
+			for (int i = 0; i < rounds; i++) {
+				List<ProteinModification> mods = new ArrayList<ProteinModification>(ProteinModificationRegistry.allModifications());
+				for (ProteinModification mod : mods)
+					ProteinModificationRegistry.unregister(mod);
+				start = System.nanoTime();
+				ProteinModificationXmlReader.registerProteinModificationFromXml(new ByteArrayInputStream(xml));
+				streaming += System.nanoTime() - start;
+			}
+
+			System.out.printf("DOM document only: %.1f files/s, streaming reader with registration: %.1f files/s (%d modifications)%n",
+					rounds * 1e9 / dom, rounds * 1e9 / streaming, ProteinModificationRegistry.allModifications().size());
+		}
+	}
+}
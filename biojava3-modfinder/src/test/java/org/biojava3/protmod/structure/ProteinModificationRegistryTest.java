@@ -24,6 +24,7 @@
 
 package org.biojava3.protmod.structure;
 
+import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -38,6 +39,9 @@ import org.biojava3.protmod.ModificationOccurrenceType;
 import org.biojava3.protmod.ProteinModification;
 import org.biojava3.protmod.ProteinModificationImpl;
 import org.biojava3.protmod.ProteinModificationRegistry;
+import org.biojava3.protmod.io.ProteinModificationXmlReader;
+
+import org.xml.sax.SAXException;
 
 import junit.framework.TestCase;
 
@@ -151,4 +155,20 @@ public class ProteinModificationRegistryTest extends TestCase {
 //		}
 //	}
 	
+	
+	public void testMalformedXmlRegistersNothing() throws Exception {
+		String xml = "<ProteinModifications><Entry><Id>0001_malformed</Id>" +
+				"<Condition><Component component=\"1\"><Id source=\"PDBCC\">SER</Id></Component></Condition>" +
+				"<Occurrence>natural</Occurrence><Category>attachment</Category></Entry><Entry><Id>";
+		int size = ProteinModificationRegistry.allModifications().size();
+		try {
+			ProteinModificationXmlReader.registerProteinModificationFromXml(
+					new ByteArrayInputStream(xml.getBytes("UTF-8")));
+			fail("a truncated file must not be read");
+		} catch (SAXException e) {
+			// expected
+		}
+		assertNull(ProteinModificationRegistry.getById("0001_malformed"));
+		assertEquals(size, ProteinModificationRegistry.allModifications().size());
+	}
 }
@@ -0,0 +1,173 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.io.fastq;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Precomputed quality score lookup tables for the FASTQ sequence format variants.
+ *
+ * @since 3.0.6
+ */
+final class FastqQualityTable
+{
+    /** Quality score marking an ASCII value that is out of range for a variant. */
+    static final int INVALID = Integer.MIN_VALUE;
+
+    /** Decode tables keyed by FASTQ sequence format variant. */
+    private static final Map<FastqVariant, int[]> DECODE_TABLES = new EnumMap<FastqVariant, int[]>(FastqVariant.class);
+
+    /** Conversion tables keyed by source and target FASTQ sequence format variant. */
+    private static final Map<FastqVariant, Map<FastqVariant, byte[]>> CONVERSION_TABLES =
+        new EnumMap<FastqVariant, Map<FastqVariant, byte[]>>(FastqVariant.class);
+
+    static
+    {
+        for (FastqVariant variant : FastqVariant.values())
+        {
+            int[] table = new int[128];
+            for (int i = 0; i < table.length; i++)
+            {
+                int qualityScore = variant.qualityScore((char) i);
+                boolean valid = (qualityScore >= variant.minimumQualityScore()) && (qualityScore <= variant.maximumQualityScore());
+                table[i] = valid ? qualityScore : INVALID;
+            }
+            DECODE_TABLES.put(variant, table);
+        }
+        for (FastqVariant from : FastqVariant.values())
+        {
+            Map<FastqVariant, byte[]> tables = new EnumMap<FastqVariant, byte[]>(FastqVariant.class);
+            for (FastqVariant to : FastqVariant.values())
+            {
+                tables.put(to, createConversionTable(from, to));
+            }
+            CONVERSION_TABLES.put(from, tables);
+        }
+    }
+
+
+    /**
+     * Private no-arg constructor.
+     */
+    private FastqQualityTable()
+    {
+        // empty
+    }
+
+
+    /**
+     * Return the quality score for each ASCII value for the specified FASTQ sequence format variant,
+     * or {@link #INVALID} if the ASCII value is not valid for the variant.  The returned
+     * array is shared and must not be modified.
+     *
+     * @param variant FASTQ sequence format variant, must not be null
+     * @return the quality score for each ASCII value for the specified FASTQ sequence format variant
+     */
+    static int[] decodeTable(final FastqVariant variant)
+    {
+        if (variant == null)
+        {
+            throw new IllegalArgumentException("variant must not be null");
+        }
+        return DECODE_TABLES.get(variant);
+    }
+
+    /**
+     * Return the target ASCII value for each source ASCII value when converting quality
+     * from one FASTQ sequence format variant to another, or zero if the source ASCII value is not
+     * valid for the source variant.  The returned array is shared and must not be modified.
+     *
+     * @param from source FASTQ sequence format variant, must not be null
+     * @param to target FASTQ sequence format variant, must not be null
+     * @return the target ASCII value for each source ASCII value
+     */
+    static byte[] conversionTable(final FastqVariant from, final FastqVariant to)
+    {
+        if (from == null)
+        {
+            throw new IllegalArgumentException("from must not be null");
+        }
+        if (to == null)
+        {
+            throw new IllegalArgumentException("to must not be null");
+        }
+        return CONVERSION_TABLES.get(from).get(to);
+    }
+
+    /**
+     * Return the ASCII offset of the specified FASTQ sequence format variant.
+     *
+     * @param variant FASTQ sequence format variant
+     * @return the ASCII offset of the specified FASTQ sequence format variant
+     */
+    static int offset(final FastqVariant variant)
+    {
+        return -variant.qualityScore((char) 0);
+    }
+
+    /**
+     * Convert the specified quality score from one FASTQ sequence format variant to another.  Solexa
+     * scores are log odds rather than PHRED scores, so converting between Solexa and Sanger or Illumina
+     * maps through the error probability and rounds to the nearest score.  The result is clamped to
+     * the range of the target variant.
+     *
+     * @param qualityScore quality score
+     * @param from source FASTQ sequence format variant
+     * @param to target FASTQ sequence format variant
+     * @return the converted quality score
+     */
+    static int convert(final int qualityScore, final FastqVariant from, final FastqVariant to)
+    {
+        int converted = qualityScore;
+        if (from.isSolexa() && !to.isSolexa())
+        {
+            converted = (int) Math.round(10.0d * Math.log10(Math.pow(10.0d, qualityScore / 10.0d) + 1.0d));
+        }
+        else if (!from.isSolexa() && to.isSolexa())
+        {
+            converted = (qualityScore == 0) ? to.minimumQualityScore()
+                : (int) Math.round(10.0d * Math.log10(Math.pow(10.0d, qualityScore / 10.0d) - 1.0d));
+        }
+        return Math.max(to.minimumQualityScore(), Math.min(to.maximumQualityScore(), converted));
+    }
+
+    /**
+     * Create a conversion table.
+     *
+     * @param from source FASTQ sequence format variant
+     * @param to target FASTQ sequence format variant
+     * @return a new conversion table
+     */
+    private static byte[] createConversionTable(final FastqVariant from, final FastqVariant to)
+    {
+        int[] decode = DECODE_TABLES.get(from);
+        byte[] table = new byte[128];
+        for (int i = 0; i < table.length; i++)
+        {
+            if (decode[i] != INVALID)
+            {
+                table[i] = (byte) (convert(decode[i], from, to) + offset(to));
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.io.fastq;
+
+/**
+ * Transform applied in place to mutable FASTQ formatted sequences, for example by
+ * {@link ParallelFastqPipeline}.  A transform may modify the sequence, for example to convert
+ * or trim its quality, and may drop it by returning false.
+ *
+ * <p>
+ * Transforms used by {@link ParallelFastqPipeline} are called concurrently from several
+ * threads and must be thread safe.
+ * </p>
+ *
+ * @see FastqTransforms
+ * @since 3.0.6
+ */
+public interface FastqTransform
+{
+    /**
+     * Transform the specified mutable FASTQ formatted sequence in place.
+     *
+     * @param fastq mutable FASTQ formatted sequence to transform, will not be null
+     * @return true to keep the specified mutable FASTQ formatted sequence, false to drop it
+     */
+    boolean transform(MutableFastq fastq);
+}
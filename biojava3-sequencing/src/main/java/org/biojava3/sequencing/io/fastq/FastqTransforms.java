@@ -0,0 +1,241 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.io.fastq;
+
+/**
+ * Static factory methods for common {@link FastqTransform}s.  All of the transforms
+ * returned are stateless and thread safe.
+ *
+ * @since 3.0.6
+ */
+public final class FastqTransforms
+{
+
+    /**
+     * Private no-arg constructor.
+     */
+    private FastqTransforms()
+    {
+        // empty
+    }
+
+
+    /**
+     * Return a transform that converts quality to the specified FASTQ sequence format variant.
+     *
+     * @see MutableFastq#convert(FastqVariant)
+     * @param variant FASTQ sequence format variant to convert to, must not be null
+     * @return a transform that converts quality to the specified FASTQ sequence format variant
+     */
+    public static FastqTransform convert(final FastqVariant variant)
+    {
+        if (variant == null)
+        {
+            throw new IllegalArgumentException("variant must not be null");
+        }
+        return new FastqTransform()
+            {
+                /** {@inheritDoc} */
+                public boolean transform(final MutableFastq fastq)
+                {
+                    fastq.convert(variant);
+                    return true;
+                }
+            };
+    }
+
+    /**
+     * Return a transform that trims bases with quality scores below the specified minimum quality
+     * score from both ends of the sequence.
+     *
+     * @param minimumQualityScore minimum quality score to keep
+     * @return a transform that trims low quality bases from both ends of the sequence
+     */
+    public static FastqTransform trimQuality(final int minimumQualityScore)
+    {
+        return new FastqTransform()
+            {
+                /** {@inheritDoc} */
+                public boolean transform(final MutableFastq fastq)
+                {
+                    int[] qualityScores = fastq.getQualityScores();
+                    int start = 0;
+                    int end = fastq.getQualityLength();
+                    while ((start < end) && (qualityScores[start] < minimumQualityScore))
+                    {
+                        start++;
+                    }
+                    while ((end > start) && (qualityScores[end - 1] < minimumQualityScore))
+                    {
+                        end--;
+                    }
+                    fastq.trim(start, end);
+                    return true;
+                }
+            };
+    }
+
+    /**
+     * Return a transform that scans the sequence from the 5' end with a sliding window and cuts
+     * it where the mean quality score in the window first falls below the specified minimum.  Bases
+     * at the start of that window with quality scores at or above the minimum are kept.
+     *
+     * @param windowSize window size, must be at least one
+     * @param minimumMeanQualityScore minimum mean quality score in the window
+     * @return a transform that trims the sequence with a sliding window
+     */
+    public static FastqTransform slidingWindowTrim(final int windowSize, final int minimumMeanQualityScore)
+    {
+        if (windowSize < 1)
+        {
+            throw new IllegalArgumentException("windowSize must be at least one");
+        }
+        return new FastqTransform()
+            {
+                /** {@inheritDoc} */
+                public boolean transform(final MutableFastq fastq)
+                {
+                    int[] qualityScores = fastq.getQualityScores();
+                    int length = fastq.getQualityLength();
+                    if (length < windowSize)
+                    {
+                        return true;
+                    }
+                    // compare sums rather than means to stay in integer arithmetic
+                    long minimumSum = (long) minimumMeanQualityScore * windowSize;
+                    long sum = 0;
+                    for (int i = 0; i < windowSize; i++)
+                    {
+                        sum += qualityScores[i];
+                    }
+                    for (int start = 0; start + windowSize <= length; start++)
+                    {
+                        if (start > 0)
+                        {
+                            sum += qualityScores[start + windowSize - 1] - qualityScores[start - 1];
+                        }
+                        if (sum < minimumSum)
+                        {
+                            int end = start;
+                            while ((end < start + windowSize) && (qualityScores[end] >= minimumMeanQualityScore))
+                            {
+                                end++;
+                            }
+                            fastq.trim(0, end);
+                            return true;
+                        }
+                    }
+                    return true;
+                }
+            };
+    }
+
+    /**
+     * Return a transform that removes the specified adapter and anything after it from the 3' end of the sequence.
+     * The adapter is matched anywhere in the sequence, or as a prefix of the adapter overlapping the end of the
+     * sequence by at least <code>minimumOverlap</code> bases.  Partial matches at the end of the sequence allow
+     * proportionally fewer mismatches.  Matching ignores case and N is always a mismatch.
+     *
+     * @param adapter adapter sequence, must not be null and must not be empty
+     * @param minimumOverlap minimum number of adapter bases that must overlap the sequence, must be at least one
+     * @param maximumMismatches maximum number of mismatches allowed in a match of the whole adapter, must be at least zero
+     * @return a transform that removes the specified adapter from the 3' end of the sequence
+     */
+    public static FastqTransform adapterTrim(final String adapter, final int minimumOverlap, final int maximumMismatches)
+    {
+        if (adapter == null)
+        {
+            throw new IllegalArgumentException("adapter must not be null");
+        }
+        if (adapter.length() == 0)
+        {
+            throw new IllegalArgumentException("adapter must not be empty");
+        }
+        if (minimumOverlap < 1)
+        {
+            throw new IllegalArgumentException("minimumOverlap must be at least one");
+        }
+        if (maximumMismatches < 0)
+        {
+            throw new IllegalArgumentException("maximumMismatches must be at least zero");
+        }
+        final byte[] adapterBytes = new byte[adapter.length()];
+        for (int i = 0; i < adapterBytes.length; i++)
+        {
+            adapterBytes[i] = (byte) Character.toUpperCase(adapter.charAt(i));
+        }
+        return new FastqTransform()
+            {
+                /** {@inheritDoc} */
+                public boolean transform(final MutableFastq fastq)
+                {
+                    byte[] sequence = fastq.getSequenceBytes();
+                    int length = fastq.getSequenceLength();
+                    for (int start = 0, last = length - Math.min(minimumOverlap, adapterBytes.length); start <= last; start++)
+                    {
+                        int overlap = Math.min(adapterBytes.length, length - start);
+                        int allowed = (maximumMismatches * overlap) / adapterBytes.length;
+                        int mismatches = 0;
+                        for (int i = 0; (i < overlap) && (mismatches <= allowed); i++)
+                        {
+                            byte b = sequence[start + i];
+                            if ((b >= 'a') && (b <= 'z'))
+                            {
+                                b -= 'a' - 'A';
+                            }
+                            if ((b != adapterBytes[i]) || (b == 'N'))
+                            {
+                                mismatches++;
+                            }
+                        }
+                        if (mismatches <= allowed)
+                        {
+                            fastq.trim(0, start);
+                            return true;
+                        }
+                    }
+                    return true;
+                }
+            };
+    }
+
+    /**
+     * Return a transform that drops sequences shorter than the specified minimum length.
+     *
+     * @param minimumLength minimum sequence length to keep, must be at least zero
+     * @return a transform that drops sequences shorter than the specified minimum length
+     */
+    public static FastqTransform minimumLength(final int minimumLength)
+    {
+        if (minimumLength < 0)
+        {
+            throw new IllegalArgumentException("minimumLength must be at least zero");
+        }
+        return new FastqTransform()
+            {
+                /** {@inheritDoc} */
+                public boolean transform(final MutableFastq fastq)
+                {
+                    return fastq.getSequenceLength() >= minimumLength;
+                }
+            };
+    }
+}
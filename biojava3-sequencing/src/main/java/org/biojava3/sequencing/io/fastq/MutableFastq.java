@@ -0,0 +1,387 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.io.fastq;
+
+import java.nio.charset.Charset;
+
+/**
+ * Mutable, reusable FASTQ formatted sequence backed by byte arrays.
+ *
+ * <p>
+ * Unlike {@link Fastq}, a mutable FASTQ formatted sequence is designed to be filled
+ * over and over again by {@link MutableFastqReader} so that no objects are allocated
+ * per record once the buffers have grown to the longest record.  Quality scores are
+ * decoded once when the record is read and are available as an int array.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread safe.  Call {@link #toFastq()} to create an immutable copy.
+ * </p>
+ *
+ * @since 3.0.6
+ */
+public final class MutableFastq
+{
+    /** Default initial capacity of the buffers. */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    /** ASCII charset. */
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    /** Description bytes. */
+    private byte[] description;
+
+    /** Length of the description. */
+    private int descriptionLength;
+
+    /** Sequence bytes. */
+    private byte[] sequence;
+
+    /** Length of the sequence. */
+    private int sequenceLength;
+
+    /** Quality bytes in ASCII format. */
+    private byte[] quality;
+
+    /** Length of the quality. */
+    private int qualityLength;
+
+    /** Decoded quality scores. */
+    private int[] qualityScores;
+
+    /** FASTQ sequence format variant. */
+    private FastqVariant variant = FastqBuilder.DEFAULT_VARIANT;
+
+
+    /**
+     * Create a new mutable FASTQ formatted sequence.
+     */
+    public MutableFastq()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new mutable FASTQ formatted sequence with the specified initial capacity.
+     *
+     * @param capacity initial capacity of the sequence and quality buffers, must be at least zero
+     */
+    public MutableFastq(final int capacity)
+    {
+        if (capacity < 0)
+        {
+            throw new IllegalArgumentException("capacity must be at least zero");
+        }
+        description = new byte[DEFAULT_CAPACITY];
+        sequence = new byte[capacity];
+        quality = new byte[capacity];
+        qualityScores = new int[capacity];
+    }
+
+
+    /**
+     * Clear this mutable FASTQ formatted sequence and set its FASTQ sequence format variant.
+     *
+     * @param variant FASTQ sequence format variant, must not be null
+     */
+    public void clear(final FastqVariant variant)
+    {
+        if (variant == null)
+        {
+            throw new IllegalArgumentException("variant must not be null");
+        }
+        this.variant = variant;
+        descriptionLength = 0;
+        sequenceLength = 0;
+        qualityLength = 0;
+    }
+
+    /**
+     * Return the FASTQ sequence format variant for this mutable FASTQ formatted sequence.
+     *
+     * @return the FASTQ sequence format variant for this mutable FASTQ formatted sequence
+     */
+    public FastqVariant getVariant()
+    {
+        return variant;
+    }
+
+    /**
+     * Return the description buffer.  Only the first {@link #getDescriptionLength()} bytes are valid.
+     *
+     * @return the description buffer
+     */
+    public byte[] getDescriptionBytes()
+    {
+        return description;
+    }
+
+    /**
+     * Return the length of the description.
+     *
+     * @return the length of the description
+     */
+    public int getDescriptionLength()
+    {
+        return descriptionLength;
+    }
+
+    /**
+     * Return the description as a new string.
+     *
+     * @return the description as a new string
+     */
+    public String getDescription()
+    {
+        return new String(description, 0, descriptionLength, ASCII);
+    }
+
+    /**
+     * Return the sequence buffer.  Only the first {@link #getSequenceLength()} bytes are valid.
+     *
+     * @return the sequence buffer
+     */
+    public byte[] getSequenceBytes()
+    {
+        return sequence;
+    }
+
+    /**
+     * Return the length of the sequence.
+     *
+     * @return the length of the sequence
+     */
+    public int getSequenceLength()
+    {
+        return sequenceLength;
+    }
+
+    /**
+     * Return the sequence as a new string.
+     *
+     * @return the sequence as a new string
+     */
+    public String getSequence()
+    {
+        return new String(sequence, 0, sequenceLength, ASCII);
+    }
+
+    /**
+     * Return the quality buffer in ASCII format.  Only the first {@link #getQualityLength()} bytes are valid.
+     *
+     * @return the quality buffer in ASCII format
+     */
+    public byte[] getQualityBytes()
+    {
+        return quality;
+    }
+
+    /**
+     * Return the length of the quality.
+     *
+     * @return the length of the quality
+     */
+    public int getQualityLength()
+    {
+        return qualityLength;
+    }
+
+    /**
+     * Return the quality in ASCII format as a new string.
+     *
+     * @return the quality in ASCII format as a new string
+     */
+    public String getQuality()
+    {
+        return new String(quality, 0, qualityLength, ASCII);
+    }
+
+    /**
+     * Return the decoded quality scores.  Only the first {@link #getQualityLength()} values are valid.
+     *
+     * @return the decoded quality scores
+     */
+    public int[] getQualityScores()
+    {
+        return qualityScores;
+    }
+
+    /**
+     * Append the specified bytes to the description.
+     *
+     * @param bytes bytes to append
+     * @param offset offset of the first byte
+     * @param length number of bytes to append
+     */
+    void appendDescription(final byte[] bytes, final int offset, final int length)
+    {
+        description = ensureCapacity(description, descriptionLength + length);
+        System.arraycopy(bytes, offset, description, descriptionLength, length);
+        descriptionLength += length;
+    }
+
+    /**
+     * Append the specified bytes to the sequence.
+     *
+     * @param bytes bytes to append
+     * @param offset offset of the first byte
+     * @param length number of bytes to append
+     */
+    void appendSequence(final byte[] bytes, final int offset, final int length)
+    {
+        sequence = ensureCapacity(sequence, sequenceLength + length);
+        System.arraycopy(bytes, offset, sequence, sequenceLength, length);
+        sequenceLength += length;
+    }
+
+    /**
+     * Append the specified quality bytes in ASCII format and their decoded quality scores.
+     *
+     * @param bytes quality bytes to append
+     * @param offset offset of the first byte
+     * @param length number of bytes to append
+     * @param decode quality score for each ASCII value
+     */
+    void appendQuality(final byte[] bytes, final int offset, final int length, final int[] decode)
+    {
+        int newLength = qualityLength + length;
+        quality = ensureCapacity(quality, newLength);
+        if (qualityScores.length < newLength)
+        {
+            int[] scores = new int[Math.max(newLength, qualityScores.length * 2)];
+            System.arraycopy(qualityScores, 0, scores, 0, qualityLength);
+            qualityScores = scores;
+        }
+        System.arraycopy(bytes, offset, quality, qualityLength, length);
+        for (int i = 0; i < length; i++)
+        {
+            qualityScores[qualityLength + i] = decode[bytes[offset + i] & 0x7f];
+        }
+        qualityLength = newLength;
+    }
+
+    /**
+     * Convert the quality of this mutable FASTQ formatted sequence to the specified FASTQ sequence format variant
+     * in place.  Quality scores that can not be represented in the target variant are clamped to its range.
+     *
+     * @param variant FASTQ sequence format variant to convert to, must not be null
+     * @return this mutable FASTQ formatted sequence
+     */
+    public MutableFastq convert(final FastqVariant variant)
+    {
+        if (variant == null)
+        {
+            throw new IllegalArgumentException("variant must not be null");
+        }
+        if (variant == this.variant)
+        {
+            return this;
+        }
+        byte[] conversion = FastqQualityTable.conversionTable(this.variant, variant);
+        int[] decode = FastqQualityTable.decodeTable(variant);
+        for (int i = 0; i < qualityLength; i++)
+        {
+            quality[i] = conversion[quality[i] & 0x7f];
+            qualityScores[i] = decode[quality[i]];
+        }
+        this.variant = variant;
+        return this;
+    }
+
+    /**
+     * Trim the sequence and quality of this mutable FASTQ formatted sequence in place to the specified range.
+     *
+     * @param start start of the range to keep, inclusive, must be at least zero
+     * @param end end of the range to keep, exclusive, must be at least <code>start</code> and at most the sequence length
+     * @return this mutable FASTQ formatted sequence
+     */
+    public MutableFastq trim(final int start, final int end)
+    {
+        if (start < 0)
+        {
+            throw new IllegalArgumentException("start must be at least zero");
+        }
+        if (end < start || end > sequenceLength)
+        {
+            throw new IllegalArgumentException("end must be at least start and at most the sequence length");
+        }
+        int length = end - start;
+        if (start > 0)
+        {
+            System.arraycopy(sequence, start, sequence, 0, length);
+            System.arraycopy(quality, start, quality, 0, length);
+            System.arraycopy(qualityScores, start, qualityScores, 0, length);
+        }
+        sequenceLength = length;
+        qualityLength = length;
+        return this;
+    }
+
+    /**
+     * Set this mutable FASTQ formatted sequence to the values of the specified FASTQ formatted sequence.
+     *
+     * @param fastq FASTQ formatted sequence, must not be null
+     * @return this mutable FASTQ formatted sequence
+     */
+    public MutableFastq set(final Fastq fastq)
+    {
+        if (fastq == null)
+        {
+            throw new IllegalArgumentException("fastq must not be null");
+        }
+        clear(fastq.getVariant());
+        byte[] bytes = fastq.getDescription().getBytes(ASCII);
+        appendDescription(bytes, 0, bytes.length);
+        bytes = fastq.getSequence().getBytes(ASCII);
+        appendSequence(bytes, 0, bytes.length);
+        bytes = fastq.getQuality().getBytes(ASCII);
+        appendQuality(bytes, 0, bytes.length, FastqQualityTable.decodeTable(variant));
+        return this;
+    }
+
+    /**
+     * Create and return a new immutable {@link Fastq} with the values of this mutable FASTQ formatted sequence.
+     *
+     * @return a new immutable {@link Fastq} with the values of this mutable FASTQ formatted sequence
+     */
+    public Fastq toFastq()
+    {
+        return new Fastq(getDescription(), getSequence(), getQuality(), variant);
+    }
+
+    /**
+     * Return the specified buffer or a larger copy if it can not hold the specified number of bytes.
+     *
+     * @param buffer buffer
+     * @param capacity required capacity
+     * @return the specified buffer or a larger copy
+     */
+    private static byte[] ensureCapacity(final byte[] buffer, final int capacity)
+    {
+        if (buffer.length >= capacity)
+        {
+            return buffer;
+        }
+        byte[] larger = new byte[Math.max(capacity, buffer.length * 2)];
+        System.arraycopy(buffer, 0, larger, 0, buffer.length);
+        return larger;
+    }
+}
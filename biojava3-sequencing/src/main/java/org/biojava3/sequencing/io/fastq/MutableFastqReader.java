@@ -0,0 +1,441 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.io.fastq;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Byte oriented reader for FASTQ formatted sequences.
+ *
+ * <p>
+ * Records are read directly from the bytes of a channel into a reusable {@link MutableFastq},
+ * without creating strings or immutable {@link Fastq} objects, which keeps the garbage
+ * collector out of the way when reading very large sequencing runs.  The accepted format
+ * and the error checks are the same as for {@link SangerFastqReader}, {@link SolexaFastqReader}
+ * and {@link IlluminaFastqReader}, including sequence and quality lines wrapped over
+ * multiple lines.
+ * </p>
+ *
+ * <pre>
+ * MutableFastqReader reader = MutableFastqReader.open(new File("sanger.fastq.gz"), FastqVariant.FASTQ_SANGER);
+ * MutableFastq fastq = new MutableFastq();
+ * while (reader.read(fastq))
+ * {
+ *   // ...
+ * }
+ * reader.close();
+ * </pre>
+ *
+ * @since 3.0.6
+ */
+public final class MutableFastqReader
+    implements Closeable
+{
+    /** Default buffer size. */
+    private static final int DEFAULT_BUFFER_SIZE = 65536;
+
+    /** Input channel. */
+    private final ReadableByteChannel channel;
+
+    /** FASTQ sequence format variant. */
+    private final FastqVariant variant;
+
+    /** Quality score for each ASCII value. */
+    private final int[] decode;
+
+    /** Read buffer. */
+    private byte[] buffer;
+
+    /** Read buffer wrapped for channel reads. */
+    private ByteBuffer byteBuffer;
+
+    /** Position of the next unread byte in the read buffer. */
+    private int position = 0;
+
+    /** Number of valid bytes in the read buffer. */
+    private int limit = 0;
+
+    /** True if the end of the channel has been reached. */
+    private boolean eof = false;
+
+    /** Start of the current line, before trimming. */
+    private int rawLineStart;
+
+    /** End of the current line, exclusive, before trimming. */
+    private int rawLineEnd;
+
+    /** Start of the current line, after trimming. */
+    private int lineStart;
+
+    /** End of the current line, exclusive, after trimming. */
+    private int lineEnd;
+
+
+    /**
+     * Create a new byte oriented reader for the specified channel.
+     *
+     * @param channel input channel, must not be null
+     * @param variant FASTQ sequence format variant, must not be null
+     */
+    public MutableFastqReader(final ReadableByteChannel channel, final FastqVariant variant)
+    {
+        this(channel, variant, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a new byte oriented reader for the specified channel.
+     *
+     * @param channel input channel, must not be null
+     * @param variant FASTQ sequence format variant, must not be null
+     * @param bufferSize initial read buffer size, must be at least one
+     */
+    public MutableFastqReader(final ReadableByteChannel channel, final FastqVariant variant, final int bufferSize)
+    {
+        if (channel == null)
+        {
+            throw new IllegalArgumentException("channel must not be null");
+        }
+        if (variant == null)
+        {
+            throw new IllegalArgumentException("variant must not be null");
+        }
+        if (bufferSize < 1)
+        {
+            throw new IllegalArgumentException("bufferSize must be at least one");
+        }
+        this.channel = channel;
+        this.variant = variant;
+        this.decode = FastqQualityTable.decodeTable(variant);
+        this.buffer = new byte[bufferSize];
+        this.byteBuffer = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Create a new byte oriented reader for the specified input stream.
+     *
+     * @param inputStream input stream, must not be null
+     * @param variant FASTQ sequence format variant, must not be null
+     */
+    public MutableFastqReader(final InputStream inputStream, final FastqVariant variant)
+    {
+        this(Channels.newChannel(checkNotNull(inputStream)), variant);
+    }
+
+
+    /**
+     * Open the specified file for reading.  Files with names ending in <code>.gz</code>
+     * are decompressed.
+     *
+     * @param file file to read, must not be null
+     * @param variant FASTQ sequence format variant, must not be null
+     * @return a new byte oriented reader for the specified file
+     * @throws IOException if an I/O error occurs
+     */
+    public static MutableFastqReader open(final File file, final FastqVariant variant) throws IOException
+    {
+        if (file == null)
+        {
+            throw new IllegalArgumentException("file must not be null");
+        }
+        FileInputStream inputStream = new FileInputStream(file);
+        if (file.getName().endsWith(".gz"))
+        {
+            return new MutableFastqReader(new GZIPInputStream(inputStream, DEFAULT_BUFFER_SIZE), variant);
+        }
+        return new MutableFastqReader(inputStream.getChannel(), variant);
+    }
+
+    /**
+     * Return the FASTQ sequence format variant for this reader.
+     *
+     * @return the FASTQ sequence format variant for this reader
+     */
+    public FastqVariant getVariant()
+    {
+        return variant;
+    }
+
+    /**
+     * Read the next FASTQ formatted sequence into the specified mutable FASTQ formatted sequence.
+     *
+     * @param fastq mutable FASTQ formatted sequence to fill, must not be null
+     * @return true if a FASTQ formatted sequence was read, false if the end of the input has been reached
+     * @throws IOException if an I/O error occurs or the input is not valid
+     */
+    public boolean read(final MutableFastq fastq) throws IOException
+    {
+        if (fastq == null)
+        {
+            throw new IllegalArgumentException("fastq must not be null");
+        }
+        if (!nextLine())
+        {
+            return false;
+        }
+        fastq.clear(variant);
+
+        if (!lineStartsWith('@'))
+        {
+            throw new IOException("description must begin with a '@' character");
+        }
+        int descriptionStart = trimStart(lineStart + 1, lineEnd);
+        fastq.appendDescription(buffer, descriptionStart, lineEnd - descriptionStart);
+
+        if (!nextLine())
+        {
+            throw new IOException("truncated sequence");
+        }
+        fastq.appendSequence(buffer, lineStart, lineEnd - lineStart);
+        while (true)
+        {
+            if (!nextLine())
+            {
+                throw new IOException("truncated sequence");
+            }
+            if (lineStartsWith('+'))
+            {
+                validateRepeatDescription(fastq, trimStart(lineStart + 1, lineEnd));
+                break;
+            }
+            fastq.appendSequence(buffer, lineStart, lineEnd - lineStart);
+        }
+
+        if (!nextLine())
+        {
+            throw new IOException("truncated sequence");
+        }
+        appendQuality(fastq);
+        while (fastq.getQualityLength() < fastq.getSequenceLength())
+        {
+            if (!nextLine())
+            {
+                break;
+            }
+            appendQuality(fastq);
+        }
+        if (fastq.getQualityLength() != fastq.getSequenceLength())
+        {
+            throw new IOException("sequence and quality scores must be the same length");
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /**
+     * Validate the repeat description in the current line against the description.
+     *
+     * @param fastq mutable FASTQ formatted sequence
+     * @param start start of the repeat description
+     * @throws IOException if the repeat description does not match the description
+     */
+    private void validateRepeatDescription(final MutableFastq fastq, final int start) throws IOException
+    {
+        int length = lineEnd - start;
+        if ((length == 0) || (fastq.getDescriptionLength() == 0))
+        {
+            return;
+        }
+        boolean matches = (length == fastq.getDescriptionLength());
+        byte[] description = fastq.getDescriptionBytes();
+        for (int i = 0; matches && (i < length); i++)
+        {
+            matches = (buffer[start + i] == description[i]);
+        }
+        if (!matches)
+        {
+            throw new IOException("repeat description must match description");
+        }
+    }
+
+    /**
+     * Validate and append the quality in the current line.
+     *
+     * @param fastq mutable FASTQ formatted sequence
+     * @throws IOException if the quality is not valid for the FASTQ sequence format variant of this reader
+     */
+    private void appendQuality(final MutableFastq fastq) throws IOException
+    {
+        for (int i = lineStart; i < lineEnd; i++)
+        {
+            byte b = buffer[i];
+            if ((b < 0) || (decode[b] == FastqQualityTable.INVALID))
+            {
+                char c = (char) (b & 0xff);
+                throw new IOException("quality score must be between " + variant.minimumQualityScore() +
+                                      " and " + variant.maximumQualityScore() + ", was " + variant.qualityScore(c) +
+                                      " for ASCII char '" + c + "'");
+            }
+        }
+        fastq.appendQuality(buffer, lineStart, lineEnd - lineStart, decode);
+    }
+
+    /**
+     * Advance to the next line, trimming leading and trailing whitespace.
+     *
+     * @return true if a line was read, false if the end of the input has been reached
+     * @throws IOException if an I/O error occurs
+     */
+    private boolean nextLine() throws IOException
+    {
+        int scan = position;
+        while (true)
+        {
+            for (int i = scan; i < limit; i++)
+            {
+                if (buffer[i] == '\n')
+                {
+                    setLine(position, i);
+                    position = i + 1;
+                    return true;
+                }
+            }
+            if (eof)
+            {
+                if (position < limit)
+                {
+                    setLine(position, limit);
+                    position = limit;
+                    return true;
+                }
+                return false;
+            }
+            scan = fill();
+        }
+    }
+
+    /**
+     * Read more bytes from the channel, compacting or growing the read buffer as needed.
+     *
+     * @return the position in the read buffer from which to continue scanning for the end of the line
+     * @throws IOException if an I/O error occurs
+     */
+    private int fill() throws IOException
+    {
+        int pending = limit - position;
+        if (position > 0)
+        {
+            System.arraycopy(buffer, position, buffer, 0, pending);
+        }
+        else if (pending == buffer.length)
+        {
+            byte[] larger = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, larger, 0, pending);
+            buffer = larger;
+            byteBuffer = ByteBuffer.wrap(buffer);
+        }
+        position = 0;
+        limit = pending;
+        byteBuffer.clear();
+        byteBuffer.position(limit);
+        int read = channel.read(byteBuffer);
+        while (read == 0)
+        {
+            read = channel.read(byteBuffer);
+        }
+        if (read < 0)
+        {
+            eof = true;
+        }
+        else
+        {
+            limit += read;
+        }
+        return pending;
+    }
+
+    /**
+     * Return true if the current line, before trimming, starts with the specified character.
+     *
+     * @param c character
+     * @return true if the current line, before trimming, starts with the specified character
+     */
+    private boolean lineStartsWith(final char c)
+    {
+        return (rawLineEnd > rawLineStart) && (buffer[rawLineStart] == c);
+    }
+
+    /**
+     * Set the current line to the specified range of the read buffer, trimming whitespace.
+     *
+     * @param start start of the line
+     * @param end end of the line, exclusive
+     */
+    private void setLine(final int start, final int end)
+    {
+        rawLineStart = start;
+        rawLineEnd = end;
+        int e = end;
+        while ((e > start) && ((buffer[e - 1] & 0xff) <= ' '))
+        {
+            e--;
+        }
+        lineStart = trimStart(start, e);
+        lineEnd = e;
+    }
+
+    /**
+     * Return the first position in the specified range of the read buffer that is not whitespace.
+     *
+     * @param start start of the range
+     * @param end end of the range, exclusive
+     * @return the first position in the specified range that is not whitespace
+     */
+    private int trimStart(final int start, final int end)
+    {
+        int s = start;
+        while ((s < end) && ((buffer[s] & 0xff) <= ' '))
+        {
+            s++;
+        }
+        return s;
+    }
+
+    /**
+     * Check the specified input stream is not null.
+     *
+     * @param inputStream input stream
+     * @return the specified input stream
+     */
+    private static InputStream checkNotNull(final InputStream inputStream)
+    {
+        if (inputStream == null)
+        {
+            throw new IllegalArgumentException("inputStream must not be null");
+        }
+        return inputStream;
+    }
+}
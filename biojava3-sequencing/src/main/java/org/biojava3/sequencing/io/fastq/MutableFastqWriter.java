@@ -0,0 +1,244 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.io.fastq;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Byte oriented writer for FASTQ formatted sequences.
+ *
+ * <p>
+ * The bytes of a {@link MutableFastq} are copied straight into the output buffer without
+ * creating any strings, so a run can be read with {@link MutableFastqReader} and written
+ * back out without allocating per record.  As with {@link SangerFastqWriter} and friends,
+ * a writer only accepts FASTQ formatted sequences of its own FASTQ sequence format variant.
+ * </p>
+ *
+ * @since 3.0.6
+ */
+public final class MutableFastqWriter
+    implements Closeable, Flushable
+{
+    /** Default buffer size. */
+    private static final int DEFAULT_BUFFER_SIZE = 65536;
+
+    /** Output channel. */
+    private final WritableByteChannel channel;
+
+    /** FASTQ sequence format variant. */
+    private final FastqVariant variant;
+
+    /** Write buffer. */
+    private final byte[] buffer;
+
+    /** Write buffer wrapped for channel writes. */
+    private final ByteBuffer byteBuffer;
+
+    /** Number of bytes in the write buffer. */
+    private int count = 0;
+
+
+    /**
+     * Create a new byte oriented writer for the specified channel.
+     *
+     * @param channel output channel, must not be null
+     * @param variant FASTQ sequence format variant, must not be null
+     */
+    public MutableFastqWriter(final WritableByteChannel channel, final FastqVariant variant)
+    {
+        if (channel == null)
+        {
+            throw new IllegalArgumentException("channel must not be null");
+        }
+        if (variant == null)
+        {
+            throw new IllegalArgumentException("variant must not be null");
+        }
+        this.channel = channel;
+        this.variant = variant;
+        this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+        this.byteBuffer = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Create a new byte oriented writer for the specified output stream.
+     *
+     * @param outputStream output stream, must not be null
+     * @param variant FASTQ sequence format variant, must not be null
+     */
+    public MutableFastqWriter(final OutputStream outputStream, final FastqVariant variant)
+    {
+        this(Channels.newChannel(checkNotNull(outputStream)), variant);
+    }
+
+
+    /**
+     * Open the specified file for writing.  Files with names ending in <code>.gz</code>
+     * are compressed.
+     *
+     * @param file file to write, must not be null
+     * @param variant FASTQ sequence format variant, must not be null
+     * @return a new byte oriented writer for the specified file
+     * @throws IOException if an I/O error occurs
+     */
+    public static MutableFastqWriter open(final File file, final FastqVariant variant) throws IOException
+    {
+        if (file == null)
+        {
+            throw new IllegalArgumentException("file must not be null");
+        }
+        FileOutputStream outputStream = new FileOutputStream(file);
+        if (file.getName().endsWith(".gz"))
+        {
+            return new MutableFastqWriter(new GZIPOutputStream(outputStream, DEFAULT_BUFFER_SIZE), variant);
+        }
+        return new MutableFastqWriter(outputStream.getChannel(), variant);
+    }
+
+    /**
+     * Return the FASTQ sequence format variant for this writer.
+     *
+     * @return the FASTQ sequence format variant for this writer
+     */
+    public FastqVariant getVariant()
+    {
+        return variant;
+    }
+
+    /**
+     * Write the specified mutable FASTQ formatted sequence.
+     *
+     * @param fastq mutable FASTQ formatted sequence to write, must not be null
+     * @throws IOException if an I/O error occurs or the FASTQ formatted sequence is not
+     *    of the FASTQ sequence format variant of this writer
+     */
+    public void write(final MutableFastq fastq) throws IOException
+    {
+        if (fastq == null)
+        {
+            throw new IllegalArgumentException("fastq must not be null");
+        }
+        if (fastq.getVariant() != variant)
+        {
+            throw new IOException("sequence " + fastq.getDescription() + " not " + variant.lowercaseName()
+                                  + " format, was " + fastq.getVariant().lowercaseName());
+        }
+        write((byte) '@');
+        write(fastq.getDescriptionBytes(), fastq.getDescriptionLength());
+        write((byte) '\n');
+        write(fastq.getSequenceBytes(), fastq.getSequenceLength());
+        write((byte) '\n');
+        write((byte) '+');
+        write((byte) '\n');
+        write(fastq.getQualityBytes(), fastq.getQualityLength());
+        write((byte) '\n');
+    }
+
+    /** {@inheritDoc} */
+    public void flush() throws IOException
+    {
+        byteBuffer.clear();
+        byteBuffer.limit(count);
+        while (byteBuffer.hasRemaining())
+        {
+            channel.write(byteBuffer);
+        }
+        count = 0;
+    }
+
+    /** {@inheritDoc} */
+    public void close() throws IOException
+    {
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+
+    /**
+     * Write the specified byte to the write buffer.
+     *
+     * @param b byte to write
+     * @throws IOException if an I/O error occurs
+     */
+    private void write(final byte b) throws IOException
+    {
+        if (count == buffer.length)
+        {
+            flush();
+        }
+        buffer[count++] = b;
+    }
+
+    /**
+     * Write the first <code>length</code> bytes of the specified array to the write buffer.
+     *
+     * @param bytes bytes to write
+     * @param length number of bytes to write
+     * @throws IOException if an I/O error occurs
+     */
+    private void write(final byte[] bytes, final int length) throws IOException
+    {
+        int offset = 0;
+        while (offset < length)
+        {
+            if (count == buffer.length)
+            {
+                flush();
+            }
+            int n = Math.min(length - offset, buffer.length - count);
+            System.arraycopy(bytes, offset, buffer, count, n);
+            count += n;
+            offset += n;
+        }
+    }
+
+    /**
+     * Check the specified output stream is not null.
+     *
+     * @param outputStream output stream
+     * @return the specified output stream
+     */
+    private static OutputStream checkNotNull(final OutputStream outputStream)
+    {
+        if (outputStream == null)
+        {
+            throw new IllegalArgumentException("outputStream must not be null");
+        }
+        return outputStream;
+    }
+}
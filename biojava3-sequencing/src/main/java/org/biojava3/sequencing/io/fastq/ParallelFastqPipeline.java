@@ -0,0 +1,614 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.io.fastq;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.biojava3.core.util.ConcurrencyTools;
+
+/**
+ * Multi-threaded FASTQ pipeline.
+ *
+ * <p>
+ * The input is read on the calling thread and split into chunks of whole FASTQ formatted
+ * sequences.  Finding the record boundaries only requires counting sequence and quality
+ * lengths line by line, so the calling thread does little more than copy bytes.  Each chunk is
+ * then parsed with a {@link MutableFastqReader}, passed through the transforms and formatted with
+ * the FASTQ writer on a worker thread.  Formatted chunks are written to the output on the calling
+ * thread in input order, so the output is identical to that of a single threaded pipeline.
+ * At most <code>maxChunksInFlight</code> chunks are held in memory at any time.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ * <pre>
+ * long written = new ParallelFastqPipeline(FastqVariant.FASTQ_ILLUMINA, new SangerFastqWriter())
+ *     .withTransform(FastqTransforms.convert(FastqVariant.FASTQ_SANGER))
+ *     .withTransform(FastqTransforms.trimQuality(20))
+ *     .withTransform(FastqTransforms.minimumLength(36))
+ *     .process(new File("illumina.fastq.gz"), new File("sanger.fastq"));
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * Gzip compressed input is decompressed on the calling thread.  Errors in the input are
+ * reported with the same messages as {@link MutableFastqReader}.
+ * </p>
+ *
+ * @since 3.0.6
+ */
+public final class ParallelFastqPipeline
+{
+    /** Default chunk size, in bytes. */
+    static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    /** Buffer size for files. */
+    private static final int BUFFER_SIZE = 65536;
+
+    /** FASTQ sequence format variant of the input. */
+    private final FastqVariant variant;
+
+    /** FASTQ writer used to format the output. */
+    private final FastqWriter writer;
+
+    /** Transforms, applied in order. */
+    private final List<FastqTransform> transforms = new ArrayList<FastqTransform>();
+
+    /** Chunk size, in bytes. */
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /** Maximum number of chunks in flight. */
+    private int maxChunksInFlight = 2 * Runtime.getRuntime().availableProcessors();
+
+    /** Executor service, or null to use the shared thread pool. */
+    private ExecutorService executorService;
+
+
+    /**
+     * Create a new multi-threaded FASTQ pipeline.
+     *
+     * @param variant FASTQ sequence format variant of the input, must not be null
+     * @param writer FASTQ writer used to format the output, must not be null and must be thread safe
+     */
+    public ParallelFastqPipeline(final FastqVariant variant, final FastqWriter writer)
+    {
+        if (variant == null)
+        {
+            throw new IllegalArgumentException("variant must not be null");
+        }
+        if (writer == null)
+        {
+            throw new IllegalArgumentException("writer must not be null");
+        }
+        this.variant = variant;
+        this.writer = writer;
+    }
+
+
+    /**
+     * Add the specified transform to this pipeline.  Transforms are applied in the order they are added.
+     *
+     * @param transform transform to add, must not be null and must be thread safe
+     * @return this pipeline
+     */
+    public ParallelFastqPipeline withTransform(final FastqTransform transform)
+    {
+        if (transform == null)
+        {
+            throw new IllegalArgumentException("transform must not be null");
+        }
+        transforms.add(transform);
+        return this;
+    }
+
+    /**
+     * Set the target chunk size for this pipeline.  Chunks end at the first record boundary
+     * at or after the chunk size.
+     *
+     * @param chunkSize target chunk size, in bytes, must be at least one
+     * @return this pipeline
+     */
+    public ParallelFastqPipeline withChunkSize(final int chunkSize)
+    {
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException("chunkSize must be at least one");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of chunks being parsed or waiting to be written for this pipeline.
+     *
+     * @param maxChunksInFlight maximum number of chunks in flight, must be at least one
+     * @return this pipeline
+     */
+    public ParallelFastqPipeline withMaxChunksInFlight(final int maxChunksInFlight)
+    {
+        if (maxChunksInFlight < 1)
+        {
+            throw new IllegalArgumentException("maxChunksInFlight must be at least one");
+        }
+        this.maxChunksInFlight = maxChunksInFlight;
+        return this;
+    }
+
+    /**
+     * Set the executor service for this pipeline.  Defaults to the shared thread pool
+     * of {@link ConcurrencyTools}.
+     *
+     * @param executorService executor service, must not be null
+     * @return this pipeline
+     */
+    public ParallelFastqPipeline withExecutorService(final ExecutorService executorService)
+    {
+        if (executorService == null)
+        {
+            throw new IllegalArgumentException("executorService must not be null");
+        }
+        this.executorService = executorService;
+        return this;
+    }
+
+    /**
+     * Process the specified input file and write the results to the specified output file.
+     * Files with names ending in <code>.gz</code> are read and written gzip compressed.
+     *
+     * @param input input file, must not be null
+     * @param output output file, must not be null
+     * @return the number of FASTQ formatted sequences written
+     * @throws IOException if an I/O error occurs or the input is not valid
+     */
+    public long process(final File input, final File output) throws IOException
+    {
+        if (input == null)
+        {
+            throw new IllegalArgumentException("input must not be null");
+        }
+        if (output == null)
+        {
+            throw new IllegalArgumentException("output must not be null");
+        }
+        InputStream inputStream = new FileInputStream(input);
+        BufferedWriter bufferedWriter = null;
+        try
+        {
+            if (input.getName().endsWith(".gz"))
+            {
+                inputStream = new GZIPInputStream(inputStream, BUFFER_SIZE);
+            }
+            OutputStream outputStream = new FileOutputStream(output);
+            if (output.getName().endsWith(".gz"))
+            {
+                outputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+            }
+            bufferedWriter = new BufferedWriter(new OutputStreamWriter(outputStream, "US-ASCII"), BUFFER_SIZE);
+            return process(inputStream, bufferedWriter);
+        }
+        finally
+        {
+            try
+            {
+                inputStream.close();
+            }
+            catch (IOException e)
+            {
+                // ignore
+            }
+            if (bufferedWriter != null)
+            {
+                bufferedWriter.close();
+            }
+        }
+    }
+
+    /**
+     * Process the specified input stream and append the results to the specified appendable.
+     * Neither the input stream nor the appendable are closed.
+     *
+     * @param inputStream input stream, must not be null
+     * @param appendable appendable to append the results to, must not be null
+     * @return the number of FASTQ formatted sequences written
+     * @throws IOException if an I/O error occurs or the input is not valid
+     */
+    public long process(final InputStream inputStream, final Appendable appendable) throws IOException
+    {
+        if (inputStream == null)
+        {
+            throw new IllegalArgumentException("inputStream must not be null");
+        }
+        if (appendable == null)
+        {
+            throw new IllegalArgumentException("appendable must not be null");
+        }
+        ExecutorService executor = (executorService == null) ? ConcurrencyTools.getThreadPool() : executorService;
+        ChunkSplitter splitter = new ChunkSplitter(inputStream, chunkSize);
+        Deque<Future<Chunk>> inFlight = new ArrayDeque<Future<Chunk>>(maxChunksInFlight);
+        long written = 0;
+        try
+        {
+            byte[] bytes;
+            while ((bytes = splitter.next()) != null)
+            {
+                if (inFlight.size() >= maxChunksInFlight)
+                {
+                    written += append(inFlight.removeFirst(), appendable);
+                }
+                inFlight.addLast(executor.submit(new ChunkTask(bytes)));
+            }
+            while (!inFlight.isEmpty())
+            {
+                written += append(inFlight.removeFirst(), appendable);
+            }
+        }
+        finally
+        {
+            for (Future<Chunk> future : inFlight)
+            {
+                future.cancel(true);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Wait for the specified chunk and append it to the specified appendable.
+     *
+     * @param future future chunk
+     * @param appendable appendable
+     * @return the number of FASTQ formatted sequences written
+     * @throws IOException if an I/O error occurs or the chunk is not valid
+     */
+    private static int append(final Future<Chunk> future, final Appendable appendable) throws IOException
+    {
+        Chunk chunk;
+        try
+        {
+            chunk = future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted waiting for chunk");
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                // rethrow with the original message
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+        appendable.append(chunk.output);
+        return chunk.count;
+    }
+
+
+    /**
+     * Formatted output of a chunk.
+     */
+    private static final class Chunk
+    {
+        /** Formatted FASTQ formatted sequences. */
+        private final StringBuilder output;
+
+        /** Number of FASTQ formatted sequences in the output. */
+        private final int count;
+
+
+        /**
+         * Create a new chunk.
+         *
+         * @param output formatted FASTQ formatted sequences
+         * @param count number of FASTQ formatted sequences in the output
+         */
+        Chunk(final StringBuilder output, final int count)
+        {
+            this.output = output;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Parses, transforms and formats a chunk on a worker thread.
+     */
+    private final class ChunkTask
+        implements Callable<Chunk>
+    {
+        /** Input bytes. */
+        private final byte[] bytes;
+
+
+        /**
+         * Create a new chunk task.
+         *
+         * @param bytes input bytes
+         */
+        ChunkTask(final byte[] bytes)
+        {
+            this.bytes = bytes;
+        }
+
+
+        /** {@inheritDoc} */
+        public Chunk call() throws IOException
+        {
+            MutableFastqReader reader = new MutableFastqReader(new ByteArrayInputStream(bytes), variant);
+            MutableFastq fastq = new MutableFastq();
+            StringBuilder output = new StringBuilder(bytes.length + (bytes.length >> 3));
+            int count = 0;
+            while (reader.read(fastq))
+            {
+                if (Thread.interrupted())
+                {
+                    throw new IOException("interrupted processing chunk");
+                }
+                boolean keep = true;
+                for (int i = 0, size = transforms.size(); keep && (i < size); i++)
+                {
+                    keep = transforms.get(i).transform(fastq);
+                }
+                if (keep)
+                {
+                    writer.append(output, fastq.toFastq());
+                    count++;
+                }
+            }
+            return new Chunk(output, count);
+        }
+    }
+
+    /**
+     * Splits the input into chunks of whole FASTQ formatted sequences.  Mirrors the line handling
+     * of {@link MutableFastqReader} without validating or copying the records, so that chunks only
+     * end where the reader would start a new record.
+     */
+    private static final class ChunkSplitter
+    {
+        /** Expecting a description line. */
+        private static final int DESCRIPTION = 0;
+
+        /** Expecting the first sequence line. */
+        private static final int FIRST_SEQUENCE = 1;
+
+        /** Expecting a sequence line or the repeat description line. */
+        private static final int SEQUENCE = 2;
+
+        /** Expecting a quality line. */
+        private static final int QUALITY = 3;
+
+        /** Input stream. */
+        private final InputStream inputStream;
+
+        /** Target chunk size. */
+        private final int chunkSize;
+
+        /** Read buffer. */
+        private byte[] buffer;
+
+        /** Number of valid bytes in the read buffer. */
+        private int limit;
+
+        /** Start of the current line. */
+        private int lineStart;
+
+        /** Position from which to continue scanning for the end of the current line. */
+        private int scan;
+
+        /** Parser state. */
+        private int state = DESCRIPTION;
+
+        /** Sequence length of the current record. */
+        private long sequenceLength;
+
+        /** Quality length of the current record. */
+        private long qualityLength;
+
+        /** True if the end of the input has been reached. */
+        private boolean eof;
+
+
+        /**
+         * Create a new chunk splitter.
+         *
+         * @param inputStream input stream
+         * @param chunkSize target chunk size
+         */
+        ChunkSplitter(final InputStream inputStream, final int chunkSize)
+        {
+            this.inputStream = inputStream;
+            this.chunkSize = chunkSize;
+            buffer = new byte[Math.max(BUFFER_SIZE, chunkSize + BUFFER_SIZE)];
+        }
+
+
+        /**
+         * Return the next chunk, or null if the end of the input has been reached.  The last chunk
+         * may end in an incomplete record, which is reported when the chunk is parsed.
+         *
+         * @return the next chunk, or null if the end of the input has been reached
+         * @throws IOException if an I/O error occurs
+         */
+        byte[] next() throws IOException
+        {
+            while (true)
+            {
+                for (int i = scan; i < limit; i++)
+                {
+                    if (buffer[i] == '\n')
+                    {
+                        endLine(lineStart, i);
+                        lineStart = i + 1;
+                        if (state == DESCRIPTION)
+                        {
+                            if (lineStart >= chunkSize)
+                            {
+                                scan = lineStart;
+                                return cut(lineStart);
+                            }
+                        }
+                    }
+                }
+                scan = limit;
+                if (eof)
+                {
+                    return (limit == 0) ? null : cut(limit);
+                }
+                fill();
+            }
+        }
+
+        /**
+         * Read more bytes from the input stream, growing the read buffer as needed.
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        private void fill() throws IOException
+        {
+            if (limit == buffer.length)
+            {
+                byte[] larger = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, larger, 0, limit);
+                buffer = larger;
+            }
+            int read = inputStream.read(buffer, limit, buffer.length - limit);
+            if (read < 0)
+            {
+                eof = true;
+            }
+            else
+            {
+                limit += read;
+            }
+        }
+
+        /**
+         * Return a copy of the first <code>length</code> bytes of the read buffer and move the
+         * remaining bytes to the start of the read buffer.
+         *
+         * @param length number of bytes to return
+         * @return a copy of the first <code>length</code> bytes of the read buffer
+         */
+        private byte[] cut(final int length)
+        {
+            byte[] chunk = new byte[length];
+            System.arraycopy(buffer, 0, chunk, 0, length);
+            System.arraycopy(buffer, length, buffer, 0, limit - length);
+            limit -= length;
+            lineStart -= length;
+            scan -= length;
+            return chunk;
+        }
+
+        /**
+         * Advance the parser state over the specified line.
+         *
+         * @param start start of the line
+         * @param end end of the line, exclusive
+         */
+        private void endLine(final int start, final int end)
+        {
+            switch (state)
+            {
+            case DESCRIPTION:
+                sequenceLength = 0;
+                qualityLength = 0;
+                state = FIRST_SEQUENCE;
+                break;
+            case FIRST_SEQUENCE:
+                sequenceLength += trimmedLength(start, end);
+                state = SEQUENCE;
+                break;
+            case SEQUENCE:
+                if ((end > start) && (buffer[start] == '+'))
+                {
+                    state = QUALITY;
+                }
+                else
+                {
+                    sequenceLength += trimmedLength(start, end);
+                }
+                break;
+            default:
+                qualityLength += trimmedLength(start, end);
+                if (qualityLength >= sequenceLength)
+                {
+                    state = DESCRIPTION;
+                }
+                break;
+            }
+        }
+
+        /**
+         * Return the length of the specified line with leading and trailing whitespace removed.
+         *
+         * @param start start of the line
+         * @param end end of the line, exclusive
+         * @return the length of the specified line with leading and trailing whitespace removed
+         */
+        private int trimmedLength(final int start, final int end)
+        {
+            int s = start;
+            int e = end;
+            while ((e > s) && ((buffer[e - 1] & 0xff) <= ' '))
+            {
+                e--;
+            }
+            while ((s < e) && ((buffer[s] & 0xff) <= ' '))
+            {
+                s++;
+            }
+            return e - s;
+        }
+    }
+}
@@ -43,6 +43,33 @@
  * </p>
  *
  * <p>
+ * To process a large, possibly gzipped, sequencing run without creating objects per record:
+ * <pre>
+ * MutableFastqReader reader = MutableFastqReader.open(new File("run.fastq.gz"), FastqVariant.FASTQ_SANGER);
+ * MutableFastqWriter writer = MutableFastqWriter.open(new File("filtered.fastq"), FastqVariant.FASTQ_SANGER);
+ * MutableFastq fastq = new MutableFastq();
+ * while (reader.read(fastq))
+ * {
+ *   // fastq.getSequenceBytes(), fastq.getQualityScores() ...
+ *   writer.write(fastq);
+ * }
+ * reader.close();
+ * writer.close();
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * To convert, trim and filter a sequencing run on all available processors, keeping the input order:
+ * <pre>
+ * new ParallelFastqPipeline(FastqVariant.FASTQ_ILLUMINA, new SangerFastqWriter())
+ *     .withTransform(FastqTransforms.convert(FastqVariant.FASTQ_SANGER))
+ *     .withTransform(FastqTransforms.trimQuality(20))
+ *     .withTransform(FastqTransforms.minimumLength(36))
+ *     .process(new File("run.fastq.gz"), new File("trimmed.fastq"));
+ * </pre>
+ * </p>
+ *
+ * <p>
  * For further documentation on the FASTQ sequence format,
  * its variants, and how they are handled in O|B|F projects,
  * see:
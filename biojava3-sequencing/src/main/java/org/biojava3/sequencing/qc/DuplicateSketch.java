@@ -0,0 +1,201 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.qc;
+
+import java.util.Arrays;
+
+/**
+ * Bounded hash sketch used to estimate the number of distinct sequences in a stream.
+ *
+ * <p>
+ * The sketch keeps the <code>capacity</code> smallest 63 bit hash values seen so far with the
+ * number of times each was seen (a bottom-k sketch).  Once the sketch is full the number of
+ * distinct values is estimated from the largest hash value kept.  Most hash values are larger
+ * than all of the values kept, so adding a value usually costs a single comparison.  Two sketches
+ * with the same capacity can be merged and give the same result as a single sketch over both
+ * streams.
+ * </p>
+ *
+ * @since 3.0.6
+ */
+final class DuplicateSketch
+{
+    /** Maximum number of hash values kept. */
+    private final int capacity;
+
+    /** Smallest hash values seen, in ascending order. */
+    private final long[] hashes;
+
+    /** Number of times each hash value was seen. */
+    private final int[] counts;
+
+    /** Number of hash values kept. */
+    private int size;
+
+
+    /**
+     * Create a new duplicate sketch.
+     *
+     * @param capacity maximum number of hash values kept, must be at least two
+     */
+    DuplicateSketch(final int capacity)
+    {
+        if (capacity < 2)
+        {
+            throw new IllegalArgumentException("capacity must be at least two");
+        }
+        this.capacity = capacity;
+        hashes = new long[capacity];
+        counts = new int[capacity];
+    }
+
+
+    /**
+     * Return the maximum number of hash values kept.
+     *
+     * @return the maximum number of hash values kept
+     */
+    int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Add the specified 64 bit hash value to this sketch.
+     *
+     * @param hash hash value
+     */
+    void add(final long hash)
+    {
+        add(hash >>> 1, 1);
+    }
+
+    /**
+     * Add the specified 63 bit hash value to this sketch the specified number of times.
+     *
+     * @param hash non-negative hash value
+     * @param count number of times
+     */
+    private void add(final long hash, final int count)
+    {
+        if ((size == capacity) && (hash > hashes[size - 1]))
+        {
+            return;
+        }
+        int index = Arrays.binarySearch(hashes, 0, size, hash);
+        if (index >= 0)
+        {
+            counts[index] += count;
+            return;
+        }
+        int insert = -index - 1;
+        if (size == capacity)
+        {
+            // drop the largest hash value
+            size--;
+        }
+        System.arraycopy(hashes, insert, hashes, insert + 1, size - insert);
+        System.arraycopy(counts, insert, counts, insert + 1, size - insert);
+        hashes[insert] = hash;
+        counts[insert] = count;
+        size++;
+    }
+
+    /**
+     * Merge the specified sketch into this sketch.
+     *
+     * @param sketch sketch to merge, must have the same capacity as this sketch
+     */
+    void merge(final DuplicateSketch sketch)
+    {
+        if (sketch.capacity != capacity)
+        {
+            throw new IllegalArgumentException("sketch capacity must be " + capacity + ", was " + sketch.capacity);
+        }
+        for (int i = 0; i < sketch.size; i++)
+        {
+            add(sketch.hashes[i], sketch.counts[i]);
+        }
+    }
+
+    /**
+     * Return the estimated number of distinct hash values added to this sketch.  The estimate
+     * is exact until more than <code>capacity</code> distinct values have been added, after which
+     * the relative standard error is about <code>1 / sqrt(capacity)</code>.
+     *
+     * @return the estimated number of distinct hash values added to this sketch
+     */
+    long estimateDistinct()
+    {
+        if (size < capacity)
+        {
+            return size;
+        }
+        double fraction = (hashes[size - 1] + 1.0d) / Long.MAX_VALUE;
+        return Math.round((capacity - 1) / fraction);
+    }
+
+    /**
+     * Return the fraction of the distinct hash values kept by this sketch that were seen more than once.
+     *
+     * @return the fraction of the distinct hash values kept by this sketch that were seen more than once
+     */
+    double duplicatedFraction()
+    {
+        if (size == 0)
+        {
+            return 0.0d;
+        }
+        int duplicated = 0;
+        for (int i = 0; i < size; i++)
+        {
+            if (counts[i] > 1)
+            {
+                duplicated++;
+            }
+        }
+        return duplicated / (double) size;
+    }
+
+    /**
+     * Return a 64 bit hash of the specified bytes.
+     *
+     * @param bytes bytes to hash
+     * @param length number of bytes to hash
+     * @return a 64 bit hash of the specified bytes
+     */
+    static long hash(final byte[] bytes, final int length)
+    {
+        // FNV-1a followed by the MurmurHash3 finalizer to spread the low bits
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++)
+        {
+            h ^= bytes[i] & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
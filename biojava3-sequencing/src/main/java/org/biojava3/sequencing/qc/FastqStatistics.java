@@ -0,0 +1,563 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.qc;
+
+import java.io.IOException;
+
+import java.util.Locale;
+
+import org.biojava3.sequencing.io.fastq.Fastq;
+import org.biojava3.sequencing.io.fastq.MutableFastq;
+
+/**
+ * Streaming quality control statistics for FASTQ formatted sequences.
+ *
+ * <p>
+ * Statistics are accumulated in one pass into primitive arrays: a quality score histogram and
+ * base counts for each position, read lengths, and a bounded hash sketch of the sequences to
+ * estimate the duplicate rate.  Nothing is allocated per read once the arrays have grown to the
+ * longest read.  Statistics collected on separate threads can be combined with {@link #merge}.
+ * </p>
+ *
+ * <p>
+ * Quality scores are recorded as decoded for the FASTQ sequence format variant of each read,
+ * so all reads should use the same variant.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread safe, see {@link FastqStatisticsCollector} for collecting
+ * statistics from several threads.
+ * </p>
+ *
+ * @since 3.0.6
+ */
+public final class FastqStatistics
+{
+    /** Smallest quality score recorded, the minimum for the Solexa variant. */
+    public static final int MINIMUM_QUALITY_SCORE = -5;
+
+    /** Largest quality score recorded, the maximum for the Sanger variant. */
+    public static final int MAXIMUM_QUALITY_SCORE = 93;
+
+    /** Default number of hash values kept to estimate the duplicate rate. */
+    public static final int DEFAULT_SKETCH_SIZE = 16384;
+
+    /** Number of quality score histogram bins per position. */
+    private static final int QUALITY_BINS = MAXIMUM_QUALITY_SCORE - MINIMUM_QUALITY_SCORE + 1;
+
+    /** Base count index for A. */
+    private static final int A = 0;
+
+    /** Base count index for C. */
+    private static final int C = 1;
+
+    /** Base count index for G. */
+    private static final int G = 2;
+
+    /** Base count index for T and U. */
+    private static final int T = 3;
+
+    /** Base count index for N and any other symbol. */
+    private static final int N = 4;
+
+    /** Number of base counts per position. */
+    private static final int BASES = 5;
+
+    /** Base count index for each ASCII value. */
+    private static final byte[] BASE_INDEX = new byte[128];
+
+    static
+    {
+        for (int i = 0; i < BASE_INDEX.length; i++)
+        {
+            BASE_INDEX[i] = N;
+        }
+        BASE_INDEX['A'] = A;
+        BASE_INDEX['a'] = A;
+        BASE_INDEX['C'] = C;
+        BASE_INDEX['c'] = C;
+        BASE_INDEX['G'] = G;
+        BASE_INDEX['g'] = G;
+        BASE_INDEX['T'] = T;
+        BASE_INDEX['t'] = T;
+        BASE_INDEX['U'] = T;
+        BASE_INDEX['u'] = T;
+    }
+
+    /** Number of reads. */
+    private long readCount;
+
+    /** Number of bases. */
+    private long baseCount;
+
+    /** Minimum read length. */
+    private int minimumLength = Integer.MAX_VALUE;
+
+    /** Maximum read length. */
+    private int maximumLength;
+
+    /** Quality score histogram, <code>QUALITY_BINS</code> bins per position. */
+    private long[] qualityHistogram;
+
+    /** Base counts, <code>BASES</code> counts per position. */
+    private long[] baseCounts;
+
+    /** Duplicate sketch. */
+    private final DuplicateSketch sketch;
+
+    /** Scratch mutable FASTQ formatted sequence for {@link #add(Fastq)}. */
+    private MutableFastq scratch;
+
+
+    /**
+     * Create a new empty FASTQ statistics.
+     */
+    public FastqStatistics()
+    {
+        this(DEFAULT_SKETCH_SIZE);
+    }
+
+    /**
+     * Create a new empty FASTQ statistics with the specified duplicate sketch size.
+     *
+     * @param sketchSize number of hash values kept to estimate the duplicate rate, must be at least two
+     */
+    public FastqStatistics(final int sketchSize)
+    {
+        sketch = new DuplicateSketch(sketchSize);
+        qualityHistogram = new long[256 * QUALITY_BINS];
+        baseCounts = new long[256 * BASES];
+    }
+
+
+    /**
+     * Add the specified mutable FASTQ formatted sequence to these statistics.
+     *
+     * @param fastq mutable FASTQ formatted sequence to add, must not be null
+     */
+    public void add(final MutableFastq fastq)
+    {
+        if (fastq == null)
+        {
+            throw new IllegalArgumentException("fastq must not be null");
+        }
+        int length = fastq.getSequenceLength();
+        ensurePositions(length);
+        byte[] sequence = fastq.getSequenceBytes();
+        int[] qualityScores = fastq.getQualityScores();
+        int qualityLength = Math.min(length, fastq.getQualityLength());
+        for (int i = 0; i < length; i++)
+        {
+            baseCounts[i * BASES + BASE_INDEX[sequence[i] & 0x7f]]++;
+        }
+        for (int i = 0; i < qualityLength; i++)
+        {
+            int bin = qualityScores[i] - MINIMUM_QUALITY_SCORE;
+            if ((bin < 0) || (bin >= QUALITY_BINS))
+            {
+                throw new IllegalArgumentException("quality score must be between " + MINIMUM_QUALITY_SCORE
+                                                   + " and " + MAXIMUM_QUALITY_SCORE + ", was " + qualityScores[i]);
+            }
+            qualityHistogram[i * QUALITY_BINS + bin]++;
+        }
+        readCount++;
+        baseCount += length;
+        minimumLength = Math.min(minimumLength, length);
+        maximumLength = Math.max(maximumLength, length);
+        sketch.add(DuplicateSketch.hash(sequence, length));
+    }
+
+    /**
+     * Add the specified FASTQ formatted sequence to these statistics.
+     *
+     * @param fastq FASTQ formatted sequence to add, must not be null
+     */
+    public void add(final Fastq fastq)
+    {
+        if (fastq == null)
+        {
+            throw new IllegalArgumentException("fastq must not be null");
+        }
+        if (scratch == null)
+        {
+            scratch = new MutableFastq();
+        }
+        add(scratch.set(fastq));
+    }
+
+    /**
+     * Merge the specified statistics into these statistics.
+     *
+     * @param statistics statistics to merge, must not be null and must use the same duplicate sketch size
+     * @return these statistics
+     */
+    public FastqStatistics merge(final FastqStatistics statistics)
+    {
+        if (statistics == null)
+        {
+            throw new IllegalArgumentException("statistics must not be null");
+        }
+        ensurePositions(statistics.maximumLength);
+        for (int i = 0, size = statistics.maximumLength * QUALITY_BINS; i < size; i++)
+        {
+            qualityHistogram[i] += statistics.qualityHistogram[i];
+        }
+        for (int i = 0, size = statistics.maximumLength * BASES; i < size; i++)
+        {
+            baseCounts[i] += statistics.baseCounts[i];
+        }
+        sketch.merge(statistics.sketch);
+        readCount += statistics.readCount;
+        baseCount += statistics.baseCount;
+        minimumLength = Math.min(minimumLength, statistics.minimumLength);
+        maximumLength = Math.max(maximumLength, statistics.maximumLength);
+        return this;
+    }
+
+    /**
+     * Return the number of reads.
+     *
+     * @return the number of reads
+     */
+    public long getReadCount()
+    {
+        return readCount;
+    }
+
+    /**
+     * Return the number of bases.
+     *
+     * @return the number of bases
+     */
+    public long getBaseCount()
+    {
+        return baseCount;
+    }
+
+    /**
+     * Return the minimum read length, or zero if no reads have been added.
+     *
+     * @return the minimum read length
+     */
+    public int getMinimumLength()
+    {
+        return (readCount == 0) ? 0 : minimumLength;
+    }
+
+    /**
+     * Return the maximum read length, which is also the number of positions with statistics.
+     *
+     * @return the maximum read length
+     */
+    public int getMaximumLength()
+    {
+        return maximumLength;
+    }
+
+    /**
+     * Return the mean read length.
+     *
+     * @return the mean read length
+     */
+    public double getMeanLength()
+    {
+        return (readCount == 0) ? 0.0d : baseCount / (double) readCount;
+    }
+
+    /**
+     * Return the fraction of G and C bases out of all A, C, G and T bases.
+     *
+     * @return the fraction of G and C bases out of all A, C, G and T bases
+     */
+    public double getGcContent()
+    {
+        long gc = 0;
+        long acgt = 0;
+        for (int position = 0; position < maximumLength; position++)
+        {
+            int offset = position * BASES;
+            gc += baseCounts[offset + G] + baseCounts[offset + C];
+            acgt += baseCounts[offset + A] + baseCounts[offset + C] + baseCounts[offset + G] + baseCounts[offset + T];
+        }
+        return (acgt == 0) ? 0.0d : gc / (double) acgt;
+    }
+
+    /**
+     * Return the fraction of G and C bases out of all A, C, G and T bases at the specified position.
+     *
+     * @param position zero based position, must be at least zero and less than the maximum read length
+     * @return the fraction of G and C bases out of all A, C, G and T bases at the specified position
+     */
+    public double getGcContent(final int position)
+    {
+        int offset = checkPosition(position) * BASES;
+        long gc = baseCounts[offset + G] + baseCounts[offset + C];
+        long acgt = gc + baseCounts[offset + A] + baseCounts[offset + T];
+        return (acgt == 0) ? 0.0d : gc / (double) acgt;
+    }
+
+    /**
+     * Return the fraction of bases that are N or any other symbol than A, C, G, T or U.
+     *
+     * @return the fraction of bases that are N
+     */
+    public double getNRate()
+    {
+        long n = 0;
+        for (int position = 0; position < maximumLength; position++)
+        {
+            n += baseCounts[position * BASES + N];
+        }
+        return (baseCount == 0) ? 0.0d : n / (double) baseCount;
+    }
+
+    /**
+     * Return the fraction of bases at the specified position that are N or any other symbol than A, C, G, T or U.
+     *
+     * @param position zero based position, must be at least zero and less than the maximum read length
+     * @return the fraction of bases at the specified position that are N
+     */
+    public double getNRate(final int position)
+    {
+        int offset = checkPosition(position) * BASES;
+        long total = 0;
+        for (int i = 0; i < BASES; i++)
+        {
+            total += baseCounts[offset + i];
+        }
+        return (total == 0) ? 0.0d : baseCounts[offset + N] / (double) total;
+    }
+
+    /**
+     * Return the number of bases at the specified position with the specified quality score.
+     *
+     * @param position zero based position, must be at least zero and less than the maximum read length
+     * @param qualityScore quality score
+     * @return the number of bases at the specified position with the specified quality score
+     */
+    public long getQualityScoreCount(final int position, final int qualityScore)
+    {
+        int offset = checkPosition(position) * QUALITY_BINS;
+        if ((qualityScore < MINIMUM_QUALITY_SCORE) || (qualityScore > MAXIMUM_QUALITY_SCORE))
+        {
+            return 0L;
+        }
+        return qualityHistogram[offset + qualityScore - MINIMUM_QUALITY_SCORE];
+    }
+
+    /**
+     * Return the mean quality score over all bases.
+     *
+     * @return the mean quality score over all bases
+     */
+    public double getMeanQualityScore()
+    {
+        long sum = 0;
+        long total = 0;
+        for (int i = 0, size = maximumLength * QUALITY_BINS; i < size; i++)
+        {
+            long count = qualityHistogram[i];
+            sum += count * ((i % QUALITY_BINS) + MINIMUM_QUALITY_SCORE);
+            total += count;
+        }
+        return (total == 0) ? 0.0d : sum / (double) total;
+    }
+
+    /**
+     * Return the mean quality score at the specified position.
+     *
+     * @param position zero based position, must be at least zero and less than the maximum read length
+     * @return the mean quality score at the specified position
+     */
+    public double getMeanQualityScore(final int position)
+    {
+        int offset = checkPosition(position) * QUALITY_BINS;
+        long sum = 0;
+        long total = 0;
+        for (int bin = 0; bin < QUALITY_BINS; bin++)
+        {
+            long count = qualityHistogram[offset + bin];
+            sum += count * (bin + MINIMUM_QUALITY_SCORE);
+            total += count;
+        }
+        return (total == 0) ? 0.0d : sum / (double) total;
+    }
+
+    /**
+     * Return the quality score at the specified quantile at the specified position, for example
+     * <code>getQualityScoreQuantile(position, 0.5d)</code> for the median.
+     *
+     * @param position zero based position, must be at least zero and less than the maximum read length
+     * @param quantile quantile, must be between zero and one
+     * @return the quality score at the specified quantile at the specified position
+     */
+    public int getQualityScoreQuantile(final int position, final double quantile)
+    {
+        if ((quantile < 0.0d) || (quantile > 1.0d))
+        {
+            throw new IllegalArgumentException("quantile must be between zero and one");
+        }
+        int offset = checkPosition(position) * QUALITY_BINS;
+        long total = 0;
+        for (int bin = 0; bin < QUALITY_BINS; bin++)
+        {
+            total += qualityHistogram[offset + bin];
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long cumulative = 0;
+        for (int bin = 0; bin < QUALITY_BINS; bin++)
+        {
+            cumulative += qualityHistogram[offset + bin];
+            if (cumulative >= rank)
+            {
+                return bin + MINIMUM_QUALITY_SCORE;
+            }
+        }
+        return MINIMUM_QUALITY_SCORE;
+    }
+
+    /**
+     * Return the estimated number of distinct sequences.
+     *
+     * @return the estimated number of distinct sequences
+     */
+    public long getEstimatedDistinctReads()
+    {
+        return Math.min(readCount, sketch.estimateDistinct());
+    }
+
+    /**
+     * Return the estimated fraction of reads that are duplicates of an earlier read.
+     *
+     * @return the estimated fraction of reads that are duplicates of an earlier read
+     */
+    public double getDuplicateRate()
+    {
+        return (readCount == 0) ? 0.0d : 1.0d - getEstimatedDistinctReads() / (double) readCount;
+    }
+
+    /**
+     * Return the estimated fraction of distinct sequences that occur more than once.
+     *
+     * @return the estimated fraction of distinct sequences that occur more than once
+     */
+    public double getDuplicatedSequenceFraction()
+    {
+        return sketch.duplicatedFraction();
+    }
+
+    /**
+     * Append a compact tab delimited report of these statistics to the specified appendable.
+     * Summary lines start with <code>#</code> and are followed by one line per position.
+     *
+     * @param <T> extends Appendable
+     * @param appendable appendable to append the report to, must not be null
+     * @return the specified appendable with the report appended
+     * @throws IOException if an I/O error occurs
+     */
+    public <T extends Appendable> T appendReport(final T appendable) throws IOException
+    {
+        if (appendable == null)
+        {
+            throw new IllegalArgumentException("appendable must not be null");
+        }
+        appendable.append("#reads\t" + readCount + "\n");
+        appendable.append("#bases\t" + baseCount + "\n");
+        appendable.append("#length\t" + getMinimumLength() + "\t" + format(getMeanLength()) + "\t" + maximumLength + "\n");
+        appendable.append("#mean_quality\t" + format(getMeanQualityScore()) + "\n");
+        appendable.append("#gc\t" + format(getGcContent()) + "\n");
+        appendable.append("#n_rate\t" + format(getNRate()) + "\n");
+        appendable.append("#distinct_reads\t" + getEstimatedDistinctReads() + "\n");
+        appendable.append("#duplicate_rate\t" + format(getDuplicateRate()) + "\n");
+        appendable.append("#position\tmean\tq10\tq25\tmedian\tq75\tq90\tgc\tn_rate\n");
+        for (int position = 0; position < maximumLength; position++)
+        {
+            appendable.append((position + 1) + "\t" + format(getMeanQualityScore(position))
+                              + "\t" + getQualityScoreQuantile(position, 0.1d)
+                              + "\t" + getQualityScoreQuantile(position, 0.25d)
+                              + "\t" + getQualityScoreQuantile(position, 0.5d)
+                              + "\t" + getQualityScoreQuantile(position, 0.75d)
+                              + "\t" + getQualityScoreQuantile(position, 0.9d)
+                              + "\t" + format(getGcContent(position))
+                              + "\t" + format(getNRate(position)) + "\n");
+        }
+        return appendable;
+    }
+
+    /** {@inheritDoc} */
+    public String toString()
+    {
+        try
+        {
+            return appendReport(new StringBuilder()).toString();
+        }
+        catch (IOException e)
+        {
+            // StringBuilder does not throw IOException
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Grow the arrays to hold at least the specified number of positions.
+     *
+     * @param positions number of positions
+     */
+    private void ensurePositions(final int positions)
+    {
+        if (positions * BASES > baseCounts.length)
+        {
+            int capacity = Math.max(positions, 2 * (baseCounts.length / BASES));
+            long[] histogram = new long[capacity * QUALITY_BINS];
+            System.arraycopy(qualityHistogram, 0, histogram, 0, qualityHistogram.length);
+            qualityHistogram = histogram;
+            long[] counts = new long[capacity * BASES];
+            System.arraycopy(baseCounts, 0, counts, 0, baseCounts.length);
+            baseCounts = counts;
+        }
+    }
+
+    /**
+     * Check the specified position.
+     *
+     * @param position zero based position
+     * @return the specified position
+     */
+    private int checkPosition(final int position)
+    {
+        if ((position < 0) || (position >= maximumLength))
+        {
+            throw new IllegalArgumentException("position must be at least zero and less than " + maximumLength);
+        }
+        return position;
+    }
+
+    /**
+     * Format the specified value with four decimal places.
+     *
+     * @param value value
+     * @return the specified value formatted with four decimal places
+     */
+    private static String format(final double value)
+    {
+        return String.format(Locale.US, "%.4f", value);
+    }
+}
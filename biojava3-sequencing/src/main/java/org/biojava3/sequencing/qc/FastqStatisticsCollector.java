@@ -0,0 +1,128 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.qc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.biojava3.sequencing.io.fastq.FastqTransform;
+import org.biojava3.sequencing.io.fastq.MutableFastq;
+
+/**
+ * Collects {@link FastqStatistics} from several threads, for example as a transform of a
+ * {@link org.biojava3.sequencing.io.fastq.ParallelFastqPipeline}.  Each thread adds to its own
+ * statistics without locking and the statistics of all threads are merged on request.
+ *
+ * <p>
+ * Usage:
+ * <pre>
+ * FastqStatisticsCollector before = new FastqStatisticsCollector();
+ * FastqStatisticsCollector after = new FastqStatisticsCollector();
+ * new ParallelFastqPipeline(FastqVariant.FASTQ_SANGER, new SangerFastqWriter())
+ *     .withTransform(before)
+ *     .withTransform(FastqTransforms.slidingWindowTrim(4, 20))
+ *     .withTransform(after)
+ *     .process(new File("run.fastq.gz"), new File("trimmed.fastq"));
+ * System.out.println(after.getStatistics());
+ * </pre>
+ * </p>
+ *
+ * @since 3.0.6
+ */
+public final class FastqStatisticsCollector
+    implements FastqTransform
+{
+    /** Duplicate sketch size. */
+    private final int sketchSize;
+
+    /** Statistics of all threads. */
+    private final List<FastqStatistics> statistics = new ArrayList<FastqStatistics>();
+
+    /** Statistics of the current thread. */
+    private final ThreadLocal<FastqStatistics> threadStatistics = new ThreadLocal<FastqStatistics>()
+        {
+            /** {@inheritDoc} */
+            protected FastqStatistics initialValue()
+            {
+                FastqStatistics threadStatistics = new FastqStatistics(sketchSize);
+                synchronized (statistics)
+                {
+                    statistics.add(threadStatistics);
+                }
+                return threadStatistics;
+            }
+        };
+
+
+    /**
+     * Create a new FASTQ statistics collector.
+     */
+    public FastqStatisticsCollector()
+    {
+        this(FastqStatistics.DEFAULT_SKETCH_SIZE);
+    }
+
+    /**
+     * Create a new FASTQ statistics collector with the specified duplicate sketch size.
+     *
+     * @param sketchSize number of hash values kept to estimate the duplicate rate, must be at least two
+     */
+    public FastqStatisticsCollector(final int sketchSize)
+    {
+        if (sketchSize < 2)
+        {
+            throw new IllegalArgumentException("sketchSize must be at least two");
+        }
+        this.sketchSize = sketchSize;
+    }
+
+
+    /**
+     * Add the specified mutable FASTQ formatted sequence to the statistics of the current thread.
+     *
+     * @param fastq mutable FASTQ formatted sequence to add
+     * @return true
+     */
+    public boolean transform(final MutableFastq fastq)
+    {
+        threadStatistics.get().add(fastq);
+        return true;
+    }
+
+    /**
+     * Return new statistics with the statistics of all threads merged.  Should only be called once
+     * all threads have finished adding.
+     *
+     * @return new statistics with the statistics of all threads merged
+     */
+    public FastqStatistics getStatistics()
+    {
+        FastqStatistics merged = new FastqStatistics(sketchSize);
+        synchronized (statistics)
+        {
+            for (FastqStatistics s : statistics)
+            {
+                merged.merge(s);
+            }
+        }
+        return merged;
+    }
+}
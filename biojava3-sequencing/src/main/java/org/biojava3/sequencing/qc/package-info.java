@@ -0,0 +1,47 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+
+/**
+ * Streaming quality control for FASTQ formatted sequences.
+ *
+ * <p>
+ * To collect statistics in one pass over a sequencing run and print a compact report:
+ * <pre>
+ * FastqStatistics statistics = new FastqStatistics();
+ * MutableFastqReader reader = MutableFastqReader.open(new File("run.fastq.gz"), FastqVariant.FASTQ_SANGER);
+ * MutableFastq fastq = new MutableFastq();
+ * while (reader.read(fastq))
+ * {
+ *   statistics.add(fastq);
+ * }
+ * reader.close();
+ * statistics.appendReport(System.out);
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * Quality trimming and adapter trimming are provided by
+ * {@link org.biojava3.sequencing.io.fastq.FastqTransforms}.
+ * </p>
+ *
+ * @since 3.0.6
+ */
+package org.biojava3.sequencing.qc;
@@ -0,0 +1,175 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.io.fastq;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import java.nio.charset.Charset;
+
+import java.util.Random;
+
+import com.google.common.io.Files;
+
+/**
+ * Records per second benchmark of {@link MutableFastqReader} against {@link SangerFastqReader}.
+ *
+ * <pre>
+ * java org.biojava3.sequencing.io.fastq.FastqReaderBenchmark [file.fastq[.gz]] [iterations]
+ * </pre>
+ *
+ * If no file is given a temporary file of one million 100 bp Sanger records is generated.
+ */
+public final class FastqReaderBenchmark
+{
+
+    /**
+     * Private no-arg constructor.
+     */
+    private FastqReaderBenchmark()
+    {
+        // empty
+    }
+
+
+    /**
+     * Write a file of random Sanger FASTQ formatted sequences.
+     *
+     * @param file file to write
+     * @param records number of records
+     * @param length sequence length
+     * @throws IOException if an I/O error occurs
+     */
+    static void generate(final File file, final int records, final int length) throws IOException
+    {
+        Random random = new Random(42L);
+        char[] bases = { 'A', 'C', 'G', 'T' };
+        BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+        try
+        {
+            for (int i = 0; i < records; i++)
+            {
+                writer.write("@read" + i + "/1\n");
+                for (int j = 0; j < length; j++)
+                {
+                    writer.write(bases[random.nextInt(4)]);
+                }
+                writer.write("\n+\n");
+                for (int j = 0; j < length; j++)
+                {
+                    writer.write((char) (33 + random.nextInt(42)));
+                }
+                writer.write("\n");
+            }
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    /**
+     * Count the records in the specified file with {@link SangerFastqReader}.
+     */
+    static long streamSanger(final File file) throws IOException
+    {
+        final long[] count = new long[1];
+        new SangerFastqReader().stream(Files.newReaderSupplier(file, Charset.forName("US-ASCII")), new StreamListener()
+            {
+                /** {@inheritDoc} */
+                public void fastq(final Fastq fastq)
+                {
+                    FastqTools.qualityScores(fastq);
+                    count[0]++;
+                }
+            });
+        return count[0];
+    }
+
+    /**
+     * Count the records in the specified file with {@link MutableFastqReader}.
+     */
+    static long readMutable(final File file) throws IOException
+    {
+        long count = 0;
+        MutableFastqReader reader = MutableFastqReader.open(file, FastqVariant.FASTQ_SANGER);
+        try
+        {
+            MutableFastq fastq = new MutableFastq();
+            while (reader.read(fastq))
+            {
+                count++;
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+        return count;
+    }
+
+    /**
+     * Main.
+     *
+     * @param args command line arguments
+     * @throws Exception if an error occurs
+     */
+    public static void main(final String[] args) throws Exception
+    {
+        File file;
+        if (args.length > 0)
+        {
+            file = new File(args[0]);
+        }
+        else
+        {
+            file = File.createTempFile("fastqReaderBenchmark", ".fastq");
+            file.deleteOnExit();
+            generate(file, 1000000, 100);
+        }
+        int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+        boolean gzip = file.getName().endsWith(".gz");
+
+        for (int i = 0; i < iterations; i++)
+        {
+            if (!gzip)
+            {
+                long start = System.nanoTime();
+                long records = streamSanger(file);
+                report("SangerFastqReader", records, System.nanoTime() - start);
+            }
+            long start = System.nanoTime();
+            long records = readMutable(file);
+            report("MutableFastqReader", records, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Print the records per second.
+     */
+    private static void report(final String name, final long records, final long nanos)
+    {
+        double seconds = nanos / 1.0e9d;
+        System.out.println(String.format("%-20s %10d records %8.3f s %12.0f records/s", name, records, seconds, records / seconds));
+    }
+}
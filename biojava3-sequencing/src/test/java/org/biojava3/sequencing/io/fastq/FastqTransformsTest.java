@@ -0,0 +1,157 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.io.fastq;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for FastqTransforms.
+ */
+public final class FastqTransformsTest
+    extends TestCase
+{
+
+    private static MutableFastq fastq(final String sequence, final String quality)
+    {
+        return new MutableFastq().set(new FastqBuilder().withDescription("read").withSequence(sequence).withQuality(quality).build());
+    }
+
+    public void testConvert()
+    {
+        MutableFastq fastq = fastq("ACGT", "!+5I");
+        assertTrue(FastqTransforms.convert(FastqVariant.FASTQ_ILLUMINA).transform(fastq));
+        assertEquals(FastqVariant.FASTQ_ILLUMINA, fastq.getVariant());
+        assertEquals("@JTh", fastq.getQuality());
+        assertEquals(0, fastq.getQualityScores()[0]);
+        assertEquals(40, fastq.getQualityScores()[3]);
+
+        assertTrue(FastqTransforms.convert(FastqVariant.FASTQ_SOLEXA).transform(fastq));
+        assertEquals(-5, fastq.getQualityScores()[0]);
+        assertEquals(10, fastq.getQualityScores()[1]);
+        assertEquals(40, fastq.getQualityScores()[3]);
+
+        try
+        {
+            FastqTransforms.convert(null);
+            fail("convert(null) expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    public void testTrimQuality()
+    {
+        MutableFastq fastq = fastq("ACGTACGT", "!+IIII+!");
+        assertTrue(FastqTransforms.trimQuality(20).transform(fastq));
+        assertEquals("GTAC", fastq.getSequence());
+        assertEquals("IIII", fastq.getQuality());
+        assertEquals(40, fastq.getQualityScores()[0]);
+
+        fastq = fastq("ACGT", "!!!!");
+        assertTrue(FastqTransforms.trimQuality(20).transform(fastq));
+        assertEquals(0, fastq.getSequenceLength());
+        assertEquals(0, fastq.getQualityLength());
+    }
+
+    public void testSlidingWindowTrim()
+    {
+        // window of 4 drops below a mean of 20 at position 6, of which the first base is kept
+        MutableFastq fastq = fastq("ACGTACGTACGT", "IIIIII5!!!II");
+        assertTrue(FastqTransforms.slidingWindowTrim(4, 20).transform(fastq));
+        assertEquals("ACGTACG", fastq.getSequence());
+        assertEquals("IIIIII5", fastq.getQuality());
+
+        fastq = fastq("ACGTACGT", "IIIIIIII");
+        assertTrue(FastqTransforms.slidingWindowTrim(4, 20).transform(fastq));
+        assertEquals("ACGTACGT", fastq.getSequence());
+
+        fastq = fastq("ACG", "!!!");
+        assertTrue(FastqTransforms.slidingWindowTrim(4, 20).transform(fastq));
+        assertEquals("ACG", fastq.getSequence());
+
+        try
+        {
+            FastqTransforms.slidingWindowTrim(0, 20);
+            fail("slidingWindowTrim(0, ) expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    public void testAdapterTrim()
+    {
+        FastqTransform transform = FastqTransforms.adapterTrim("AGATCGGAAG", 3, 1);
+
+        MutableFastq fastq = fastq("ACGTACGTAGATCGGAAGAGCACAC", "IIIIIIIIIIIIIIIIIIIIIIIII");
+        assertTrue(transform.transform(fastq));
+        assertEquals("ACGTACGT", fastq.getSequence());
+        assertEquals("IIIIIIII", fastq.getQuality());
+
+        // one mismatch
+        fastq = fastq("ACGTACGTAGATCGCAAGAGC", "IIIIIIIIIIIIIIIIIIIII");
+        assertTrue(transform.transform(fastq));
+        assertEquals("ACGTACGT", fastq.getSequence());
+
+        // partial adapter at the 3' end, lower case
+        fastq = fastq("CCCCCCCCCCagat", "IIIIIIIIIIIIII");
+        assertTrue(transform.transform(fastq));
+        assertEquals("CCCCCCCCCC", fastq.getSequence());
+
+        // overlap shorter than minimum
+        fastq = fastq("CCCCCCCCCCAG", "IIIIIIIIIIII");
+        assertTrue(transform.transform(fastq));
+        assertEquals("CCCCCCCCCCAG", fastq.getSequence());
+
+        // no adapter
+        fastq = fastq("CCCCCCCCCCCCCCCCCCCC", "IIIIIIIIIIIIIIIIIIII");
+        assertTrue(transform.transform(fastq));
+        assertEquals(20, fastq.getSequenceLength());
+
+        try
+        {
+            FastqTransforms.adapterTrim("", 3, 1);
+            fail("adapterTrim(\"\", , ) expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    public void testMinimumLength()
+    {
+        assertTrue(FastqTransforms.minimumLength(4).transform(fastq("ACGT", "IIII")));
+        assertFalse(FastqTransforms.minimumLength(5).transform(fastq("ACGT", "IIII")));
+        try
+        {
+            FastqTransforms.minimumLength(-1);
+            fail("minimumLength(-1) expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.io.fastq;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.nio.channels.Channels;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for MutableFastqReader and MutableFastqWriter.
+ */
+public final class MutableFastqReaderTest
+    extends TestCase
+{
+
+    /**
+     * Return all the example files in the same directory as <code>example.fastq</code>.
+     */
+    private File[] exampleFiles() throws Exception
+    {
+        File example = new File(getClass().getResource("example.fastq").toURI());
+        return example.getParentFile().listFiles();
+    }
+
+    /**
+     * Read the specified file with the byte oriented reader.
+     */
+    private static List<Fastq> readMutable(final File file, final FastqVariant variant) throws IOException
+    {
+        List<Fastq> result = new ArrayList<Fastq>();
+        MutableFastqReader reader = MutableFastqReader.open(file, variant);
+        try
+        {
+            MutableFastq fastq = new MutableFastq(4);
+            while (reader.read(fastq))
+            {
+                result.add(fastq.toFastq());
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+        return result;
+    }
+
+    /**
+     * Read the specified file with the reader for the specified variant.
+     */
+    private static List<Fastq> read(final File file, final FastqVariant variant) throws IOException
+    {
+        FastqReader reader = null;
+        switch (variant)
+        {
+        case FASTQ_SANGER:
+            reader = new SangerFastqReader();
+            break;
+        case FASTQ_SOLEXA:
+            reader = new SolexaFastqReader();
+            break;
+        default:
+            reader = new IlluminaFastqReader();
+            break;
+        }
+        List<Fastq> result = new ArrayList<Fastq>();
+        for (Fastq fastq : reader.read(file))
+        {
+            result.add(fastq);
+        }
+        return result;
+    }
+
+    private static void assertFastqEquals(final Fastq expected, final Fastq observed)
+    {
+        assertEquals(expected.getDescription(), observed.getDescription());
+        assertEquals(expected.getSequence(), observed.getSequence());
+        assertEquals(expected.getQuality(), observed.getQuality());
+        assertEquals(expected.getVariant(), observed.getVariant());
+    }
+
+    public void testSameAsFastqReader() throws Exception
+    {
+        int files = 0;
+        for (File file : exampleFiles())
+        {
+            if (!file.getName().endsWith(".fastq"))
+            {
+                continue;
+            }
+            files++;
+            for (FastqVariant variant : FastqVariant.values())
+            {
+                List<Fastq> expected = null;
+                try
+                {
+                    expected = read(file, variant);
+                }
+                catch (IOException e)
+                {
+                    try
+                    {
+                        readMutable(file, variant);
+                        fail("expected IOException reading " + file.getName() + " as " + variant);
+                    }
+                    catch (IOException e2)
+                    {
+                        // expected
+                    }
+                    continue;
+                }
+                List<Fastq> observed = readMutable(file, variant);
+                assertEquals(file.getName(), expected.size(), observed.size());
+                for (int i = 0; i < expected.size(); i++)
+                {
+                    assertFastqEquals(expected.get(i), observed.get(i));
+                }
+            }
+        }
+        assertTrue(files > 0);
+    }
+
+    public void testErrorExamples() throws Exception
+    {
+        for (String errorExample : AbstractFastqReaderTest.ERROR_EXAMPLES)
+        {
+            InputStream inputStream = getClass().getResourceAsStream(errorExample);
+            MutableFastqReader reader = new MutableFastqReader(inputStream, FastqVariant.FASTQ_SANGER);
+            try
+            {
+                MutableFastq fastq = new MutableFastq();
+                while (reader.read(fastq))
+                {
+                    // empty
+                }
+                fail("expected IOException reading " + errorExample);
+            }
+            catch (IOException e)
+            {
+                // expected
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+    }
+
+    public void testQualityScores() throws Exception
+    {
+        MutableFastqReader reader = new MutableFastqReader(getClass().getResourceAsStream("sanger_full_range_original_sanger.fastq"), FastqVariant.FASTQ_SANGER);
+        MutableFastq fastq = new MutableFastq();
+        while (reader.read(fastq))
+        {
+            Fastq immutable = fastq.toFastq();
+            int[] expected = FastqTools.qualityScores(immutable, new int[immutable.getQuality().length()]);
+            assertEquals(expected.length, fastq.getQualityLength());
+            for (int i = 0; i < expected.length; i++)
+            {
+                assertEquals(expected[i], fastq.getQualityScores()[i]);
+            }
+        }
+        reader.close();
+    }
+
+    public void testSmallBuffer() throws Exception
+    {
+        InputStream inputStream = getClass().getResourceAsStream("longreads_original_sanger.fastq");
+        MutableFastqReader reader = new MutableFastqReader(Channels.newChannel(inputStream), FastqVariant.FASTQ_SANGER, 7);
+        List<Fastq> observed = new ArrayList<Fastq>();
+        MutableFastq fastq = new MutableFastq();
+        while (reader.read(fastq))
+        {
+            observed.add(fastq.toFastq());
+        }
+        reader.close();
+
+        List<Fastq> expected = new ArrayList<Fastq>();
+        for (Fastq f : new SangerFastqReader().read(getClass().getResource("longreads_original_sanger.fastq")))
+        {
+            expected.add(f);
+        }
+        assertEquals(expected.size(), observed.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            assertFastqEquals(expected.get(i), observed.get(i));
+        }
+    }
+
+    public void testGzipRoundTrip() throws Exception
+    {
+        File file = new File(getClass().getResource("misc_dna_original_sanger.fastq").toURI());
+        List<Fastq> expected = read(file, FastqVariant.FASTQ_SANGER);
+
+        File gz = File.createTempFile("mutableFastqReaderTest", ".fastq.gz");
+        gz.deleteOnExit();
+        MutableFastqWriter writer = MutableFastqWriter.open(gz, FastqVariant.FASTQ_SANGER);
+        MutableFastq fastq = new MutableFastq();
+        for (Fastq f : expected)
+        {
+            writer.write(fastq.set(f));
+        }
+        writer.close();
+
+        List<Fastq> observed = readMutable(gz, FastqVariant.FASTQ_SANGER);
+        assertEquals(expected.size(), observed.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            assertFastqEquals(expected.get(i), observed.get(i));
+        }
+    }
+
+    public void testWriterSameAsFastqWriter() throws Exception
+    {
+        File file = new File(getClass().getResource("longreads_original_sanger.fastq").toURI());
+        StringBuilder expected = new SangerFastqWriter().append(new StringBuilder(), read(file, FastqVariant.FASTQ_SANGER));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        MutableFastqWriter writer = new MutableFastqWriter(outputStream, FastqVariant.FASTQ_SANGER);
+        MutableFastqReader reader = MutableFastqReader.open(file, FastqVariant.FASTQ_SANGER);
+        MutableFastq fastq = new MutableFastq();
+        while (reader.read(fastq))
+        {
+            writer.write(fastq);
+        }
+        reader.close();
+        writer.close();
+        assertEquals(expected.toString(), outputStream.toString("US-ASCII"));
+    }
+
+    public void testWriterVariantMismatch() throws Exception
+    {
+        MutableFastqWriter writer = new MutableFastqWriter(new ByteArrayOutputStream(), FastqVariant.FASTQ_SANGER);
+        MutableFastq fastq = new MutableFastq();
+        fastq.set(new FastqBuilder()
+                  .withDescription("description")
+                  .withSequence("ACGT")
+                  .withQuality("hhhh")
+                  .withVariant(FastqVariant.FASTQ_ILLUMINA)
+                  .build());
+        try
+        {
+            writer.write(fastq);
+            fail("write expected IOException");
+        }
+        catch (IOException e)
+        {
+            // expected
+        }
+    }
+
+    public void testEmpty() throws Exception
+    {
+        MutableFastqReader reader = new MutableFastqReader(new ByteArrayInputStream(new byte[0]), FastqVariant.FASTQ_SANGER);
+        assertFalse(reader.read(new MutableFastq()));
+        reader.close();
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.io.fastq;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for ParallelFastqPipeline.
+ */
+public final class ParallelFastqPipelineTest
+    extends TestCase
+{
+    private static final String[] ORIGINALS = new String[] {
+        "sanger_full_range_original_sanger.fastq",
+        "solexa_full_range_original_solexa.fastq",
+        "illumina_full_range_original_illumina.fastq",
+        "longreads_original_sanger.fastq",
+        "misc_dna_original_sanger.fastq",
+        "misc_rna_original_sanger.fastq",
+        "wrapping_original_sanger.fastq"
+    };
+
+    private static FastqReader reader(final FastqVariant variant)
+    {
+        switch (variant)
+        {
+        case FASTQ_SANGER:
+            return new SangerFastqReader();
+        case FASTQ_SOLEXA:
+            return new SolexaFastqReader();
+        default:
+            return new IlluminaFastqReader();
+        }
+    }
+
+    private static FastqWriter writer(final FastqVariant variant)
+    {
+        switch (variant)
+        {
+        case FASTQ_SANGER:
+            return new SangerFastqWriter();
+        case FASTQ_SOLEXA:
+            return new SolexaFastqWriter();
+        default:
+            return new IlluminaFastqWriter();
+        }
+    }
+
+    private static FastqVariant originalVariant(final String name)
+    {
+        return FastqVariant.parseFastqVariant("fastq-" + name.substring(name.lastIndexOf('_') + 1, name.indexOf('.')));
+    }
+
+    private static String expected(final Iterable<Fastq> fastq, final FastqVariant variant) throws IOException
+    {
+        return writer(variant).append(new StringBuilder(), fastq).toString();
+    }
+
+    private static String randomFastq(final int count, final long seed)
+    {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++)
+        {
+            int length = 1 + random.nextInt(150);
+            sb.append("@read").append(i).append("\n");
+            for (int j = 0; j < length; j++)
+            {
+                sb.append("ACGTN".charAt(random.nextInt(5)));
+            }
+            sb.append("\n+\n");
+            for (int j = 0; j < length; j++)
+            {
+                sb.append((char) (33 + random.nextInt(42)));
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    public void testConstructor()
+    {
+        assertNotNull(new ParallelFastqPipeline(FastqVariant.FASTQ_SANGER, new SangerFastqWriter()));
+        try
+        {
+            new ParallelFastqPipeline(null, new SangerFastqWriter());
+            fail("ctr(null, ) expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+        try
+        {
+            new ParallelFastqPipeline(FastqVariant.FASTQ_SANGER, null);
+            fail("ctr(, null) expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    public void testConvert() throws Exception
+    {
+        for (String original : ORIGINALS)
+        {
+            FastqVariant from = originalVariant(original);
+            for (FastqVariant to : FastqVariant.values())
+            {
+                String name = original.substring(0, original.indexOf("_original")) + "_as_" + to.lowercaseName().substring(6) + ".fastq";
+                String expected = expected(reader(to).read(getClass().getResource(name)), to);
+                for (int chunkSize : new int[] { 1, 100, ParallelFastqPipeline.DEFAULT_CHUNK_SIZE })
+                {
+                    StringBuilder observed = new StringBuilder();
+                    new ParallelFastqPipeline(from, writer(to))
+                        .withTransform(FastqTransforms.convert(to))
+                        .withChunkSize(chunkSize)
+                        .process(getClass().getResourceAsStream(original), observed);
+                    assertEquals(name + " chunkSize=" + chunkSize, expected, observed.toString());
+                }
+            }
+        }
+    }
+
+    public void testOrderPreserved() throws Exception
+    {
+        String input = randomFastq(5000, 42L);
+        String expected = expected(new SangerFastqReader().read(new ByteArrayInputStream(input.getBytes("US-ASCII"))), FastqVariant.FASTQ_SANGER);
+        StringBuilder observed = new StringBuilder();
+        long written = new ParallelFastqPipeline(FastqVariant.FASTQ_SANGER, new SangerFastqWriter())
+            .withChunkSize(1000)
+            .withMaxChunksInFlight(3)
+            .process(new ByteArrayInputStream(input.getBytes("US-ASCII")), observed);
+        assertEquals(5000L, written);
+        assertEquals(expected, observed.toString());
+    }
+
+    public void testTransforms() throws Exception
+    {
+        String input = randomFastq(1000, 7L);
+        List<Fastq> expected = new ArrayList<Fastq>();
+        for (Fastq fastq : new SangerFastqReader().read(new ByteArrayInputStream(input.getBytes("US-ASCII"))))
+        {
+            String quality = fastq.getQuality();
+            int start = 0;
+            int end = quality.length();
+            while ((start < end) && (quality.charAt(start) - 33 < 20))
+            {
+                start++;
+            }
+            while ((end > start) && (quality.charAt(end - 1) - 33 < 20))
+            {
+                end--;
+            }
+            if (end - start >= 30)
+            {
+                expected.add(new FastqBuilder()
+                             .withDescription(fastq.getDescription())
+                             .withSequence(fastq.getSequence().substring(start, end))
+                             .withQuality(quality.substring(start, end))
+                             .build());
+            }
+        }
+        StringBuilder observed = new StringBuilder();
+        long written = new ParallelFastqPipeline(FastqVariant.FASTQ_SANGER, new SangerFastqWriter())
+            .withTransform(FastqTransforms.trimQuality(20))
+            .withTransform(FastqTransforms.minimumLength(30))
+            .withChunkSize(4096)
+            .process(new ByteArrayInputStream(input.getBytes("US-ASCII")), observed);
+        assertEquals(expected.size(), written);
+        assertEquals(expected(expected, FastqVariant.FASTQ_SANGER), observed.toString());
+    }
+
+    public void testErrorExamples() throws Exception
+    {
+        for (String errorExample : AbstractFastqReaderTest.ERROR_EXAMPLES)
+        {
+            for (int chunkSize : new int[] { 1, ParallelFastqPipeline.DEFAULT_CHUNK_SIZE })
+            {
+                InputStream inputStream = getClass().getResourceAsStream(errorExample);
+                try
+                {
+                    new ParallelFastqPipeline(FastqVariant.FASTQ_SANGER, new SangerFastqWriter())
+                        .withChunkSize(chunkSize)
+                        .process(inputStream, new StringBuilder());
+                    fail("expected IOException processing " + errorExample);
+                }
+                catch (IOException e)
+                {
+                    // expected
+                }
+                finally
+                {
+                    inputStream.close();
+                }
+            }
+        }
+    }
+
+    public void testWriterVariantMismatch() throws Exception
+    {
+        try
+        {
+            new ParallelFastqPipeline(FastqVariant.FASTQ_SANGER, new IlluminaFastqWriter())
+                .process(getClass().getResourceAsStream("example.fastq"), new StringBuilder());
+            fail("expected IOException");
+        }
+        catch (IOException e)
+        {
+            // expected
+        }
+    }
+
+    public void testEmpty() throws Exception
+    {
+        StringBuilder observed = new StringBuilder();
+        assertEquals(0L, new ParallelFastqPipeline(FastqVariant.FASTQ_SANGER, new SangerFastqWriter())
+                     .process(new ByteArrayInputStream(new byte[0]), observed));
+        assertEquals(0, observed.length());
+    }
+
+    public void testGzipFiles() throws Exception
+    {
+        File input = File.createTempFile("parallelFastqPipelineTest", ".fastq.gz");
+        File output = File.createTempFile("parallelFastqPipelineTest", ".fastq.gz");
+        try
+        {
+            List<Fastq> fastq = new ArrayList<Fastq>();
+            for (Fastq f : new SangerFastqReader().read(new ByteArrayInputStream(randomFastq(200, 3L).getBytes("US-ASCII"))))
+            {
+                fastq.add(f);
+            }
+            MutableFastqWriter writer = MutableFastqWriter.open(input, FastqVariant.FASTQ_SANGER);
+            MutableFastq mutable = new MutableFastq();
+            for (Fastq f : fastq)
+            {
+                writer.write(mutable.set(f));
+            }
+            writer.close();
+
+            assertEquals(200L, new ParallelFastqPipeline(FastqVariant.FASTQ_SANGER, new SangerFastqWriter())
+                         .withChunkSize(512)
+                         .process(input, output));
+
+            MutableFastqReader reader = MutableFastqReader.open(output, FastqVariant.FASTQ_SANGER);
+            for (Fastq f : fastq)
+            {
+                assertTrue(reader.read(mutable));
+                assertEquals(f.getSequence(), mutable.getSequence());
+                assertEquals(f.getQuality(), mutable.getQuality());
+            }
+            assertFalse(reader.read(mutable));
+            reader.close();
+        }
+        finally
+        {
+            input.delete();
+            output.delete();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ */
+package org.biojava3.sequencing.qc;
+
+import java.io.ByteArrayInputStream;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.biojava3.sequencing.io.fastq.Fastq;
+import org.biojava3.sequencing.io.fastq.FastqBuilder;
+import org.biojava3.sequencing.io.fastq.FastqVariant;
+import org.biojava3.sequencing.io.fastq.MutableFastq;
+import org.biojava3.sequencing.io.fastq.ParallelFastqPipeline;
+import org.biojava3.sequencing.io.fastq.SangerFastqReader;
+import org.biojava3.sequencing.io.fastq.SangerFastqWriter;
+
+/**
+ * Unit test for FastqStatistics and FastqStatisticsCollector.
+ */
+public final class FastqStatisticsTest
+    extends TestCase
+{
+
+    private static Fastq fastq(final String sequence, final String quality)
+    {
+        return new FastqBuilder().withDescription("read").withSequence(sequence).withQuality(quality).build();
+    }
+
+    private static Fastq randomFastq(final Random random, final int index)
+    {
+        int length = 50 + random.nextInt(50);
+        StringBuilder sequence = new StringBuilder(length);
+        StringBuilder quality = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+        {
+            sequence.append("ACGTN".charAt(random.nextInt(5)));
+            quality.append((char) (33 + random.nextInt(41)));
+        }
+        return new FastqBuilder().withDescription("read" + index).withSequence(sequence.toString()).withQuality(quality.toString()).build();
+    }
+
+    private static void assertStatisticsEquals(final FastqStatistics expected, final FastqStatistics observed)
+    {
+        assertEquals(expected.getReadCount(), observed.getReadCount());
+        assertEquals(expected.getBaseCount(), observed.getBaseCount());
+        assertEquals(expected.getMinimumLength(), observed.getMinimumLength());
+        assertEquals(expected.getMaximumLength(), observed.getMaximumLength());
+        assertEquals(expected.getEstimatedDistinctReads(), observed.getEstimatedDistinctReads());
+        assertEquals(expected.toString(), observed.toString());
+    }
+
+    public void testEmpty()
+    {
+        FastqStatistics statistics = new FastqStatistics();
+        assertEquals(0L, statistics.getReadCount());
+        assertEquals(0L, statistics.getBaseCount());
+        assertEquals(0, statistics.getMinimumLength());
+        assertEquals(0, statistics.getMaximumLength());
+        assertEquals(0.0d, statistics.getGcContent());
+        assertEquals(0.0d, statistics.getNRate());
+        assertEquals(0.0d, statistics.getDuplicateRate());
+        assertNotNull(statistics.toString());
+    }
+
+    public void testAddNull()
+    {
+        try
+        {
+            new FastqStatistics().add((MutableFastq) null);
+            fail("add(null) expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    public void testStatistics()
+    {
+        FastqStatistics statistics = new FastqStatistics();
+        statistics.add(fastq("ACGN", "I+5!"));
+        statistics.add(fastq("GGCCTT", "IIII55"));
+        statistics.add(fastq("ACGN", "I+5!"));
+
+        assertEquals(3L, statistics.getReadCount());
+        assertEquals(14L, statistics.getBaseCount());
+        assertEquals(4, statistics.getMinimumLength());
+        assertEquals(6, statistics.getMaximumLength());
+        assertEquals(14.0d / 3.0d, statistics.getMeanLength(), 0.0001d);
+        assertEquals(2.0d / 14.0d, statistics.getNRate(), 0.0001d);
+        assertEquals(8.0d / 12.0d, statistics.getGcContent(), 0.0001d);
+        assertEquals(1.0d / 3.0d, statistics.getGcContent(0), 0.0001d);
+        assertEquals(2.0d / 3.0d, statistics.getNRate(3), 0.0001d);
+
+        assertEquals(40.0d, statistics.getMeanQualityScore(0), 0.0001d);
+        assertEquals(2L, statistics.getQualityScoreCount(1, 10));
+        assertEquals(1L, statistics.getQualityScoreCount(1, 40));
+        assertEquals(10, statistics.getQualityScoreQuantile(1, 0.5d));
+        assertEquals(40, statistics.getQualityScoreQuantile(1, 1.0d));
+        assertEquals(0, statistics.getQualityScoreQuantile(3, 0.0d));
+        assertEquals(20, statistics.getQualityScoreQuantile(5, 0.5d));
+
+        assertEquals(2L, statistics.getEstimatedDistinctReads());
+        assertEquals(1.0d / 3.0d, statistics.getDuplicateRate(), 0.0001d);
+        assertEquals(0.5d, statistics.getDuplicatedSequenceFraction(), 0.0001d);
+
+        try
+        {
+            statistics.getMeanQualityScore(6);
+            fail("getMeanQualityScore(6) expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    public void testMerge()
+    {
+        Random random = new Random(11L);
+        FastqStatistics all = new FastqStatistics(64);
+        FastqStatistics first = new FastqStatistics(64);
+        FastqStatistics second = new FastqStatistics(64);
+        for (int i = 0; i < 2000; i++)
+        {
+            Fastq fastq = randomFastq(random, i % 700);
+            all.add(fastq);
+            if (i % 3 == 0)
+            {
+                first.add(fastq);
+            }
+            else
+            {
+                second.add(fastq);
+            }
+        }
+        assertStatisticsEquals(all, new FastqStatistics(64).merge(first).merge(second));
+
+        try
+        {
+            all.merge(new FastqStatistics(32));
+            fail("merge with different sketch size expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    public void testDuplicateEstimate()
+    {
+        Random random = new Random(5L);
+        FastqStatistics statistics = new FastqStatistics(4096);
+        MutableFastq fastq = new MutableFastq();
+        Fastq[] distinct = new Fastq[50000];
+        for (int i = 0; i < distinct.length; i++)
+        {
+            distinct[i] = randomFastq(random, i);
+        }
+        for (int i = 0; i < 200000; i++)
+        {
+            statistics.add(fastq.set(distinct[random.nextInt(distinct.length)]));
+        }
+        // about 49100 of the 50000 are expected to be drawn
+        double expectedDistinct = distinct.length * (1.0d - Math.exp(-4.0d));
+        assertEquals(expectedDistinct, statistics.getEstimatedDistinctReads(), expectedDistinct * 0.05d);
+        assertEquals(1.0d - expectedDistinct / 200000.0d, statistics.getDuplicateRate(), 0.02d);
+    }
+
+    public void testCollector() throws Exception
+    {
+        Random random = new Random(3L);
+        FastqStatistics expected = new FastqStatistics();
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 3000; i++)
+        {
+            Fastq fastq = randomFastq(random, i);
+            expected.add(fastq);
+            new SangerFastqWriter().append(input, fastq);
+        }
+        FastqStatisticsCollector collector = new FastqStatisticsCollector();
+        new ParallelFastqPipeline(FastqVariant.FASTQ_SANGER, new SangerFastqWriter())
+            .withTransform(collector)
+            .withChunkSize(2048)
+            .process(new ByteArrayInputStream(input.toString().getBytes("US-ASCII")), new StringBuilder());
+        assertStatisticsEquals(expected, collector.getStatistics());
+    }
+
+    public void testReport() throws Exception
+    {
+        FastqStatistics statistics = new FastqStatistics();
+        for (Fastq fastq : new SangerFastqReader().read(getClass().getResource("/org/biojava3/sequencing/io/fastq/sanger_full_range_original_sanger.fastq")))
+        {
+            statistics.add(fastq);
+        }
+        String report = statistics.appendReport(new StringBuilder()).toString();
+        String[] lines = report.split("\n");
+        assertEquals("#reads\t2", lines[0]);
+        assertEquals("#length\t94\t94.0000\t94", lines[2]);
+        assertEquals(9 + 94, lines.length);
+        assertTrue(lines[9].startsWith("1\t46.5000\t"));
+    }
+}
@@ -8,6 +8,7 @@ import org.biojava.bio.structure.AtomImpl;
 import org.biojava.bio.structure.Calc;
 import org.biojava.bio.structure.Chain;
 import org.biojava.bio.structure.Group;
+import org.biojava.bio.structure.RigidTransform;
 import org.biojava.bio.structure.StructureException;
 import org.biojava.bio.structure.align.AFPTwister;
 import org.biojava.bio.structure.align.fatcat.FatCatFlexible;
@@ -127,18 +128,13 @@ public class StructureAlignmentDisplay {
           
             if ( afpChain.getBlockRotationMatrix().length > 0 ) {
 
-               Matrix m1      = afpChain.getBlockRotationMatrix()[0];
-               //m1.print(3,3);
-               Atom   vector1 = afpChain.getBlockShiftVector()[0];
-               //System.out.println("shift vector:" + vector1);
+               RigidTransform transform = afpChain.getBlockTransform(0);
 
                for ( Group g : hetatms2){                       
-                  Calc.rotate(g, m1);
-                  Calc.shift(g,vector1);
+                  Calc.transform(g, transform);
                }
                for (Group g: nucs2){
-                  Calc.rotate(g, m1);
-                  Calc.shift(g,vector1);
+                  Calc.transform(g, transform);
                }
             }
          }
@@ -158,14 +154,13 @@ public class StructureAlignmentDisplay {
    */
    public static void shiftCA2(AFPChain afpChain, Atom[] ca2,  Matrix m, Atom shift, Group[] twistedGroups)
    {
+      RigidTransform transform = RigidTransform.fromMatrix(m, shift);
       int i = -1;
       for (Atom a: ca2){
          i++;
          Group g = a.getGroup();
         
-         
-         Calc.rotate(g,m);
-         Calc.shift(g, shift);
+         Calc.transform(g, transform);
          twistedGroups[i]=g;
       }
 
@@ -28,16 +28,21 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.Stroke;
 import java.awt.geom.Line2D;
 import java.awt.image.BufferedImage;
 import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.swing.JPanel;
 
 import org.biojava.bio.structure.align.StrucAligParameters;
 import org.biojava.bio.structure.align.pairwise.AlternativeAlignment;
 import org.biojava.bio.structure.align.pairwise.FragmentPair;
+import org.biojava.bio.structure.gui.util.MatrixTileRenderer;
 import org.biojava.bio.structure.gui.util.color.ContinuousColorMapper;
 import org.biojava.bio.structure.gui.util.color.DefaultMatrixMapper;
 import org.biojava.bio.structure.jama.Matrix;
@@ -61,7 +66,10 @@ public class JMatrixPanel extends JPanel{
 	 * 
 	 */
 	private static final long serialVersionUID = -1720879395453257846L;
-	BufferedImage _bufImage;
+
+	// the number of rendered tiles that are kept
+	private static final int MAX_CACHED_TILES = 256;
+
 	Matrix matrix;
 	ContinuousColorMapper cellColor; //Maps matrix elements to a color
 	float scale;
@@ -72,6 +80,10 @@ public class JMatrixPanel extends JPanel{
 	
 	final static BasicStroke stroke = new BasicStroke(2.0f);
 	StrucAligParameters params;
+
+	// renders the matrix into tiles, which are drawn instead of the single elements
+	transient MatrixTileRenderer renderer;
+	transient Map<String,BufferedImage> tiles;
 	
 	public JMatrixPanel(){
 		scale = 1;
@@ -146,6 +158,7 @@ public class JMatrixPanel extends JPanel{
 	 */
 	public void setMatrix(Matrix matrix) {
 		this.matrix = matrix;
+		renderer = null;
 		setPreferredSize();
 	}
 
@@ -153,20 +166,6 @@ public class JMatrixPanel extends JPanel{
 
 		//super.paintComponent(g);
 
-		Graphics2D g2 = (Graphics2D)g;
-		if ( _bufImage == null){						
-
-			int w = getWidth();
-			int h = getHeight();
-			_bufImage = (BufferedImage) createImage(w,h);
-			//Graphics gc = _bufImage.createGraphics();
-			//gc.setColor(Color.blue);
-			//gc.fillRect(0,0,w,h);
-
-		}
-
-
-		g2.drawImage(_bufImage,null,0,0);
 		drawDistances(g);
 
 		drawPairs(g);
@@ -269,37 +268,68 @@ public class JMatrixPanel extends JPanel{
 	/**
 	 * For each element in matrix, draw it as a colored square or pixel.
 	 * 
-	 * The color of a matrix element with value x is specified as
-	 *   - H: 1-x/scalevalue
-	 *   - S: saturation
-	 *   - B: 1-x/scalevalue
+	 * The matrix is rendered once into tiles by a {@link MatrixTileRenderer}, at the level that matches the
+	 * scale. Only the tiles that are visible are drawn.
 	 * @param g1
 	 */
 	public void drawDistances(Graphics g1){
 		Graphics2D g = (Graphics2D)g1;
 
-		int c = matrix.getRowDimension();
-		int d = matrix.getColumnDimension();
-
+		MatrixTileRenderer r = getRenderer();
 		float scale = getScale();
-		int width = Math.round(scale);
-
-		for (int i = 0; i < c; i++) {
-			int ipaint = Math.round(i*scale);
-
-			for (int j = 0; j < d; j++) {
-				double val = matrix.get(i,j);
-
-				int jpaint = Math.round(j*scale);
+		int level = MatrixTileRenderer.getLevel(scale);
+		// screen pixels per pixel of the level
+		double f = scale * (1 << level);
+		int tileSize = r.getTileSize();
+
+		Rectangle clip = g.getClipBounds();
+		if ( clip == null)
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+		int firstX = Math.max(0, (int)(clip.x / (tileSize * f)));
+		int firstY = Math.max(0, (int)(clip.y / (tileSize * f)));
+		int lastX = Math.min(r.getTileColumns(level) - 1, (int)((clip.x + clip.width) / (tileSize * f)));
+		int lastY = Math.min(r.getTileRows(level) - 1, (int)((clip.y + clip.height) / (tileSize * f)));
+
+		Object oldHint = g.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+		for (int ty = firstY; ty <= lastY; ty++) {
+			int y1 = (int)Math.round(ty * tileSize * f);
+			int y2 = (int)Math.round((ty + 1) * tileSize * f);
+			for (int tx = firstX; tx <= lastX; tx++) {
+				int x1 = (int)Math.round(tx * tileSize * f);
+				int x2 = (int)Math.round((tx + 1) * tileSize * f);
+				g.drawImage(getTile(level, tx, ty), x1, y1, x2, y2, 0, 0, tileSize, tileSize, null);
+			}
+		}
+		if ( oldHint != null)
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, oldHint);
 
-				Color color = cellColor.getColor(val);
-				g.setColor(color);
+	}
 
-				g.fillRect(ipaint,jpaint,width,width);
-			}
+	private MatrixTileRenderer getRenderer(){
+		if ( renderer == null) {
+			renderer = new MatrixTileRenderer(matrix, cellColor);
+			tiles = new LinkedHashMap<String, BufferedImage>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
 
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+					return size() > MAX_CACHED_TILES;
+				}
+			};
 		}
+		return renderer;
+	}
 
+	private BufferedImage getTile(int level, int tx, int ty){
+		String key = level + "/" + tx + "/" + ty;
+		BufferedImage tile = tiles.get(key);
+		if ( tile == null) {
+			tile = renderer.getTileImage(level, tx, ty);
+			tiles.put(key, tile);
+		}
+		return tile;
 	}
 
 	
@@ -319,6 +349,7 @@ public class JMatrixPanel extends JPanel{
 		try {
 			Method setSaturation = cellColor.getClass().getMethod("setSaturation",Float.TYPE);
 			setSaturation.invoke(cellColor);
+			renderer = null;
 		} catch (Exception e) {
 			throw new IllegalStateException("Error calling setSaturation(float) for "+cellColor.getClass());
 		}
@@ -340,6 +371,7 @@ public class JMatrixPanel extends JPanel{
 		try{
 			Method setScalevalue = cellColor.getClass().getMethod("setScalevalue",Float.TYPE);
 			setScalevalue.invoke(cellColor);
+			renderer = null;
 		} catch (Exception e) {
 			throw new IllegalStateException("Error calling setScalevalue(float) for "+cellColor.getClass());
 		}
@@ -357,6 +389,7 @@ public class JMatrixPanel extends JPanel{
 	 */
 	public void setCellColor(ContinuousColorMapper cellColor) {
 		this.cellColor = cellColor;
+		renderer = null;
 	}
 	
 
@@ -0,0 +1,470 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.gui.util;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.biojava.bio.structure.align.model.AFPChain;
+import org.biojava.bio.structure.align.pairwise.AlternativeAlignment;
+import org.biojava.bio.structure.gui.util.color.ContinuousColorMapper;
+import org.biojava.bio.structure.jama.Matrix;
+
+/** Renders a distance or score matrix, and alignment paths on top of it, into ARGB pixel buffers without
+ * using Swing. Works on headless servers.
+ * <p>
+ * Like {@link org.biojava.bio.structure.gui.JMatrixPanel} the image shows the transpose of the matrix: the
+ * pixel at x,y shows the element in row x and column y. At level 0 every element is one pixel. Each further
+ * level halves the width and the height by averaging 2x2 pixels of the previous level, until the image fits
+ * into one tile. Every level is split into square tiles, which can be rendered one by one, e.g. to only draw
+ * the visible part of a large matrix.
+ * <p>
+ * The colors of the matrix are calculated once, when the first tile is rendered. Paths are drawn onto each
+ * tile when it is rendered, so they keep their width at all levels.
+ *
+ * @since 3.0.6
+ */
+public class MatrixTileRenderer {
+
+	/** the default width and height of a tile */
+	public static final int DEFAULT_TILE_SIZE = 256;
+
+	private final double[][] matrix;
+	private final int width;
+	private final int height;
+	private final int tileSize;
+	private final ContinuousColorMapper cellColor;
+
+	private final List<Path> paths;
+	private int lineWidth;
+
+	// the pixels of every level, built when they are needed first
+	private int[][] levels;
+
+	/** Creates a renderer with the default tile size.
+	 *
+	 * @param matrix the matrix, which must not be changed while it is rendered
+	 * @param cellColor maps the elements of the matrix to colors
+	 */
+	public MatrixTileRenderer(Matrix matrix, ContinuousColorMapper cellColor){
+		this(matrix, cellColor, DEFAULT_TILE_SIZE);
+	}
+
+	/** Creates a renderer.
+	 *
+	 * @param matrix the matrix, which must not be changed while it is rendered
+	 * @param cellColor maps the elements of the matrix to colors
+	 * @param tileSize the width and height of a tile
+	 */
+	public MatrixTileRenderer(Matrix matrix, ContinuousColorMapper cellColor, int tileSize){
+		if ( tileSize < 1)
+			throw new IllegalArgumentException("tileSize needs to be at least 1");
+		this.matrix = matrix.getArray();
+		this.width = matrix.getRowDimension();
+		this.height = matrix.getColumnDimension();
+		this.tileSize = tileSize;
+		this.cellColor = cellColor;
+		paths = new ArrayList<Path>();
+		lineWidth = 2;
+	}
+
+	/** @return the width of the image at level 0, i.e. the number of rows of the matrix */
+	public int getWidth() {
+		return width;
+	}
+
+	/** @return the height of the image at level 0, i.e. the number of columns of the matrix */
+	public int getHeight() {
+		return height;
+	}
+
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	public int getLineWidth() {
+		return lineWidth;
+	}
+
+	/** @param lineWidth the width of paths in pixels, at every level */
+	public synchronized void setLineWidth(int lineWidth) {
+		this.lineWidth = Math.max(1, lineWidth);
+	}
+
+	/** @return the number of levels, the last one fits into a single tile */
+	public int getLevelCount() {
+		int n = 1;
+		int size = Math.max(width, height);
+		while ( size > tileSize) {
+			size = (size + 1) / 2;
+			n++;
+		}
+		return n;
+	}
+
+	/** Returns the level to render a matrix at a scale, e.g. as used by
+	 * {@link org.biojava.bio.structure.gui.JMatrixPanel#setScale(float)}. The level is never smaller than the
+	 * scale, so its tiles need to be shrunk by less than a factor of two to be displayed.
+	 *
+	 * @param scale the number of screen pixels per matrix element
+	 * @return the level
+	 */
+	public static int getLevel(float scale){
+		int level = 0;
+		while ( scale * (1 << (level + 1)) <= 1.0f && level < 30)
+			level++;
+		return level;
+	}
+
+	public int getLevelWidth(int level) {
+		return levelSize(width, level);
+	}
+
+	public int getLevelHeight(int level) {
+		return levelSize(height, level);
+	}
+
+	private static int levelSize(int size, int level){
+		for (int i = 0 ; i < level ; i++)
+			size = (size + 1) / 2;
+		return size;
+	}
+
+	/** @return the number of tiles in x direction at a level */
+	public int getTileColumns(int level) {
+		return (getLevelWidth(level) + tileSize - 1) / tileSize;
+	}
+
+	/** @return the number of tiles in y direction at a level */
+	public int getTileRows(int level) {
+		return (getLevelHeight(level) + tileSize - 1) / tileSize;
+	}
+
+	/** Adds a path, which is drawn on top of the matrix.
+	 *
+	 * @param x the positions in the rows of the matrix
+	 * @param y the positions in the columns of the matrix
+	 * @param length the number of points of the path
+	 * @param argb the color
+	 */
+	public synchronized void addPath(int[] x, int[] y, int length, int argb){
+		paths.add(new Path(x, y, length, argb));
+	}
+
+	/** Adds the paths of alternative alignments, with the same colors as
+	 * {@link org.biojava.bio.structure.gui.JMatrixPanel}.
+	 *
+	 * @param aligs the alignments
+	 * @param selectedAlignmentPos the selected alignment, which is white, or -1
+	 */
+	public void addAlternativeAlignments(AlternativeAlignment[] aligs, int selectedAlignmentPos){
+		int nr = aligs.length;
+		for (int i = 0; i < nr; i++) {
+			Color color;
+			if ( selectedAlignmentPos == i)
+				color = Color.white;
+			else
+				color = Color.getHSBColor(i * (1 / (float)nr), 1.0f, 1.0f);
+			int[] idx1 = aligs[i].getIdx1();
+			int[] idx2 = aligs[i].getIdx2();
+			addPath(idx1, idx2, idx1.length, color.getRGB());
+		}
+	}
+
+	/** Adds the aligned positions of an alignment, one path per block.
+	 *
+	 * @param afpChain the alignment, whose first protein corresponds to the rows of the matrix
+	 * @param argb the color
+	 */
+	public void addAlignment(AFPChain afpChain, int argb){
+		int[][][] optAln = afpChain.getOptAln();
+		int[] optLen = afpChain.getOptLen();
+		if ( optAln == null || optLen == null)
+			return;
+		for (int bk = 0 ; bk < afpChain.getBlockNum() ; bk++)
+			addPath(optAln[bk][0], optAln[bk][1], optLen[bk], argb);
+	}
+
+	public synchronized void clearPaths() {
+		paths.clear();
+	}
+
+	/** Renders a tile. Pixels outside of the image are transparent.
+	 *
+	 * @param level the level
+	 * @param tileX the column of the tile
+	 * @param tileY the row of the tile
+	 * @param buffer the buffer for the tileSize x tileSize pixels, row by row. If null a new buffer is created.
+	 * @return the buffer
+	 */
+	public int[] renderTile(int level, int tileX, int tileY, int[] buffer){
+		int n = tileSize * tileSize;
+		if ( buffer == null)
+			buffer = new int[n];
+		else if ( buffer.length < n)
+			throw new IllegalArgumentException("buffer needs to contain at least " + n + " pixels");
+
+		int[] pixels = getLevel(level);
+		int w = getLevelWidth(level);
+		int h = getLevelHeight(level);
+		int x0 = tileX * tileSize;
+		int y0 = tileY * tileSize;
+		int cols = Math.max(0, Math.min(tileSize, w - x0));
+		int rows = Math.max(0, Math.min(tileSize, h - y0));
+
+		for (int y = 0 ; y < tileSize ; y++){
+			int off = y * tileSize;
+			if ( y < rows) {
+				System.arraycopy(pixels, (y0 + y) * w + x0, buffer, off, cols);
+				Arrays.fill(buffer, off + cols, off + tileSize, 0);
+			} else {
+				Arrays.fill(buffer, off, off + tileSize, 0);
+			}
+		}
+
+		drawPaths(level, x0, y0, cols, rows, buffer, tileSize);
+		return buffer;
+	}
+
+	/** Renders a tile into a new image.
+	 */
+	public BufferedImage getTileImage(int level, int tileX, int tileY){
+		BufferedImage image = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB);
+		int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		renderTile(level, tileX, tileY, data);
+		return image;
+	}
+
+	/** Renders a complete level into a new image.
+	 */
+	public BufferedImage getImage(int level){
+		int w = getLevelWidth(level);
+		int h = getLevelHeight(level);
+		BufferedImage image = new BufferedImage(Math.max(1, w), Math.max(1, h), BufferedImage.TYPE_INT_ARGB);
+		int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		if ( w > 0 && h > 0) {
+			System.arraycopy(getLevel(level), 0, data, 0, w * h);
+			drawPaths(level, 0, 0, w, h, data, w);
+		}
+		return image;
+	}
+
+	/** Writes a complete level as a PNG file.
+	 *
+	 * @param file the file to write
+	 * @param level the level
+	 * @throws IOException if the file can not be written
+	 */
+	public void writePNG(File file, int level) throws IOException {
+		if ( ! ImageIO.write(getImage(level), "png", file))
+			throw new IOException("No PNG writer available");
+	}
+
+	/** Writes all tiles of all levels as PNG files, as &lt;directory&gt;/&lt;level&gt;/&lt;x&gt;_&lt;y&gt;.png.
+	 *
+	 * @param directory the directory to write the tiles to
+	 * @return the number of written tiles
+	 * @throws IOException if a file can not be written
+	 */
+	public int writeTiles(File directory) throws IOException {
+		BufferedImage image = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB);
+		int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		int n = 0;
+		for (int level = 0 ; level < getLevelCount() ; level++){
+			File dir = new File(directory, String.valueOf(level));
+			if ( ! dir.isDirectory() && ! dir.mkdirs())
+				throw new IOException("Could not create directory " + dir);
+			for (int ty = 0 ; ty < getTileRows(level) ; ty++){
+				for (int tx = 0 ; tx < getTileColumns(level) ; tx++){
+					renderTile(level, tx, ty, data);
+					if ( ! ImageIO.write(image, "png", new File(dir, tx + "_" + ty + ".png")))
+						throw new IOException("No PNG writer available");
+					n++;
+				}
+			}
+		}
+		return n;
+	}
+
+	/** @return the pixels of a level, row by row */
+	private synchronized int[] getLevel(int level){
+		if ( levels == null) {
+			levels = new int[getLevelCount()][];
+			levels[0] = colorMatrix();
+		}
+		if ( level < 0 || level >= levels.length)
+			throw new IllegalArgumentException("level " + level + " is not between 0 and " + (levels.length - 1));
+		for (int l = 1 ; l <= level ; l++){
+			if ( levels[l] == null)
+				levels[l] = shrink(levels[l - 1], getLevelWidth(l - 1), getLevelHeight(l - 1));
+		}
+		return levels[level];
+	}
+
+	private int[] colorMatrix(){
+		int[] pixels = new int[width * height];
+		for (int i = 0 ; i < width ; i++){
+			double[] row = matrix[i];
+			for (int j = 0 ; j < height ; j++)
+				pixels[j * width + i] = cellColor.getColor(row[j]).getRGB();
+		}
+		return pixels;
+	}
+
+	/** halves an image by averaging each channel over 2x2 pixels */
+	private static int[] shrink(int[] pixels, int w, int h){
+		int nw = (w + 1) / 2;
+		int nh = (h + 1) / 2;
+		int[] result = new int[nw * nh];
+		for (int y = 0 ; y < nh ; y++){
+			int y1 = 2 * y;
+			int y2 = Math.min(y1 + 1, h - 1);
+			for (int x = 0 ; x < nw ; x++){
+				int x1 = 2 * x;
+				int x2 = Math.min(x1 + 1, w - 1);
+				int p1 = pixels[y1 * w + x1];
+				int p2 = pixels[y1 * w + x2];
+				int p3 = pixels[y2 * w + x1];
+				int p4 = pixels[y2 * w + x2];
+				int argb = 0;
+				for (int shift = 0 ; shift < 32 ; shift += 8){
+					int sum = ((p1 >>> shift) & 0xFF) + ((p2 >>> shift) & 0xFF)
+							+ ((p3 >>> shift) & 0xFF) + ((p4 >>> shift) & 0xFF);
+					argb |= ((sum + 2) >> 2) << shift;
+				}
+				result[y * nw + x] = argb;
+			}
+		}
+		return result;
+	}
+
+	/** draws the paths into a part of a level, which is stored with stride pixels per row */
+	private void drawPaths(int level, int x0, int y0, int cols, int rows, int[] buffer, int stride){
+		List<Path> toDraw;
+		int pen;
+		synchronized (this) {
+			if ( paths.isEmpty())
+				return;
+			toDraw = new ArrayList<Path>(paths);
+			pen = lineWidth;
+		}
+		Canvas canvas = new Canvas(buffer, stride, x0, y0, cols, rows, pen);
+		for (Path path : toDraw)
+			path.draw(canvas, level);
+	}
+
+	/** a clipped part of a level, which is stored in a buffer */
+	private static class Canvas {
+		final int[] buffer;
+		final int stride;
+		final int x0, y0, x1, y1;
+		final int pen;
+
+		Canvas(int[] buffer, int stride, int x0, int y0, int cols, int rows, int pen){
+			this.buffer = buffer;
+			this.stride = stride;
+			this.x0 = x0;
+			this.y0 = y0;
+			this.x1 = x0 + cols;
+			this.y1 = y0 + rows;
+			this.pen = pen;
+		}
+
+		/** @return true if a line between the points may touch the canvas */
+		boolean intersects(int ax, int ay, int bx, int by){
+			return Math.max(ax, bx) + pen > x0 && Math.min(ax, bx) < x1
+					&& Math.max(ay, by) + pen > y0 && Math.min(ay, by) < y1;
+		}
+
+		void dot(int x, int y, int argb){
+			for (int py = Math.max(y, y0) ; py < Math.min(y + pen, y1) ; py++){
+				int off = (py - y0) * stride - x0;
+				for (int px = Math.max(x, x0) ; px < Math.min(x + pen, x1) ; px++)
+					buffer[off + px] = argb;
+			}
+		}
+
+		/** Bresenham's line algorithm */
+		void line(int ax, int ay, int bx, int by, int argb){
+			int dx = Math.abs(bx - ax);
+			int dy = -Math.abs(by - ay);
+			int sx = ax < bx ? 1 : -1;
+			int sy = ay < by ? 1 : -1;
+			int err = dx + dy;
+			while (true) {
+				dot(ax, ay, argb);
+				if ( ax == bx && ay == by)
+					break;
+				int e2 = 2 * err;
+				if ( e2 >= dy) {
+					err += dy;
+					ax += sx;
+				}
+				if ( e2 <= dx) {
+					err += dx;
+					ay += sy;
+				}
+			}
+		}
+	}
+
+	private static class Path {
+		final int[] x;
+		final int[] y;
+		final int length;
+		final int argb;
+
+		Path(int[] x, int[] y, int length, int argb){
+			this.x = x;
+			this.y = y;
+			this.length = length;
+			this.argb = argb;
+		}
+
+		void draw(Canvas canvas, int level){
+			if ( length == 0)
+				return;
+			int px = x[0] >> level;
+			int py = y[0] >> level;
+			if ( length == 1 && canvas.intersects(px, py, px, py))
+				canvas.dot(px, py, argb);
+			for (int i = 1 ; i < length ; i++){
+				int nx = x[i] >> level;
+				int ny = y[i] >> level;
+				if ( canvas.intersects(px, py, nx, ny))
+					canvas.line(px, py, nx, ny, argb);
+				px = nx;
+				py = ny;
+			}
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.gui;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+import javax.imageio.ImageIO;
+
+import junit.framework.TestCase;
+
+import org.biojava.bio.structure.gui.util.MatrixTileRenderer;
+import org.biojava.bio.structure.gui.util.color.ContinuousColorMapper;
+import org.biojava.bio.structure.gui.util.color.DefaultMatrixMapper;
+import org.biojava.bio.structure.jama.Matrix;
+
+/** Tests the headless rendering of matrices into tiles.
+ *
+ */
+public class TestMatrixTileRenderer extends TestCase {
+
+	private Matrix matrix;
+	private ContinuousColorMapper colors;
+
+	@Override
+	protected void setUp() {
+		// not square and not a multiple of the tile size
+		matrix = new Matrix(150, 70);
+		for (int i = 0 ; i < matrix.getRowDimension() ; i++)
+			for (int j = 0 ; j < matrix.getColumnDimension() ; j++)
+				matrix.set(i, j, Math.abs(i - 2 * j) / 10.0);
+		colors = new DefaultMatrixMapper(10, 0.9f);
+	}
+
+	public void testLevels() {
+		MatrixTileRenderer r = new MatrixTileRenderer(matrix, colors, 32);
+		// 150 -> 75 -> 38 -> 19
+		assertEquals(4, r.getLevelCount());
+		assertEquals(5, r.getTileColumns(0));
+		assertEquals(3, r.getTileRows(0));
+		assertEquals(19, r.getLevelWidth(3));
+		assertEquals(9, r.getLevelHeight(3));
+		assertEquals(1, r.getTileColumns(3));
+
+		assertEquals(0, MatrixTileRenderer.getLevel(4f));
+		assertEquals(0, MatrixTileRenderer.getLevel(1f));
+		assertEquals(0, MatrixTileRenderer.getLevel(0.6f));
+		assertEquals(1, MatrixTileRenderer.getLevel(0.5f));
+		assertEquals(2, MatrixTileRenderer.getLevel(0.25f));
+	}
+
+	public void testTiles() {
+		MatrixTileRenderer r = new MatrixTileRenderer(matrix, colors, 32);
+		int[] tile = r.renderTile(0, 2, 1, null);
+		for (int y = 0 ; y < 32 ; y++){
+			for (int x = 0 ; x < 32 ; x++){
+				int i = 64 + x;
+				int j = 32 + y;
+				int expected = colors.getColor(matrix.get(i, j)).getRGB();
+				assertEquals(expected, tile[y * 32 + x]);
+			}
+		}
+
+		// the last tile is only partly covered by the matrix
+		r.renderTile(0, 4, 2, tile);
+		assertEquals(colors.getColor(matrix.get(149, 69)).getRGB(), tile[5 * 32 + 21]);
+		assertEquals(0, tile[5 * 32 + 22]);
+		assertEquals(0, tile[6 * 32 + 21]);
+
+		// a shrunk pixel averages four elements
+		int[] shrunk = r.renderTile(1, 0, 0, null);
+		int sum = 0;
+		for (int k = 0 ; k < 4 ; k++)
+			sum += colors.getColor(matrix.get(2 + k % 2, 2 + k / 2)).getRed();
+		assertEquals((sum + 2) / 4, new Color(shrunk[32 + 1]).getRed());
+	}
+
+	public void testPaths() throws Exception {
+		MatrixTileRenderer r = new MatrixTileRenderer(matrix, colors, 32);
+		r.setLineWidth(1);
+		int red = Color.red.getRGB();
+		// a diagonal path across tile borders
+		r.addPath(new int[] { 10, 100 }, new int[] { 5, 50 }, 2, red);
+
+		BufferedImage image = r.getImage(0);
+		assertEquals(150, image.getWidth());
+		assertEquals(70, image.getHeight());
+		// every column between the end points contains a pixel of the line
+		for (int x = 10 ; x <= 100 ; x++){
+			int y = 5 + (x - 10) / 2;
+			assertTrue("no line at " + x, image.getRGB(x, y) == red || image.getRGB(x, y + 1) == red);
+		}
+		assertEquals(red, r.renderTile(0, 3, 1, null)[(50 - 32) * 32 + (100 - 96)]);
+		assertEquals(red, r.renderTile(2, 0, 0, null)[(50 >> 2) * 32 + (100 >> 2)]);
+
+		File dir = File.createTempFile("tiles", "");
+		dir.delete();
+		try {
+			int n = r.writeTiles(dir);
+			assertEquals(15 + 6 + 2 + 1, n);
+			BufferedImage png = ImageIO.read(new File(dir, "0/3_1.png"));
+			assertEquals(32, png.getWidth());
+			assertEquals(red, png.getRGB(100 - 96, 50 - 32));
+
+			File full = new File(dir, "full.png");
+			r.writePNG(full, 1);
+			assertEquals(75, ImageIO.read(full).getWidth());
+		} finally {
+			for (File level : dir.listFiles()){
+				if ( level.isDirectory())
+					for (File f : level.listFiles())
+						f.delete();
+				level.delete();
+			}
+			dir.delete();
+		}
+	}
+}
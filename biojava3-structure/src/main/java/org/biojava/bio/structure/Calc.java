@@ -440,14 +440,12 @@ public class Calc {
 		double x = atom.getX();
 		double y = atom.getY() ;
 		double z = atom.getZ();
-		double[][] ad = new double[][]{{x,y,z}};
 
-		Matrix am = new Matrix(ad);
-		Matrix na = am.times(m);
-
-		atom.setX(na.get(0,0));
-		atom.setY(na.get(0,1));
-		atom.setZ(na.get(0,2));
+		// the atom is a row vector that is multiplied with the matrix
+		double[][] a = m.getArray();
+		atom.setX(x * a[0][0] + y * a[1][0] + z * a[2][0]);
+		atom.setY(x * a[0][1] + y * a[1][1] + z * a[2][1]);
+		atom.setZ(x * a[0][2] + y * a[1][2] + z * a[2][2]);
 
 	}
 
@@ -458,13 +456,7 @@ public class Calc {
 	 */
 	public static final void rotate(Group group, Matrix m){
 
-		AtomIterator iter = new AtomIterator(group) ;
-
-		while (iter.hasNext()) {
-			Atom atom = (Atom) iter.next() ;
-			rotate(atom,m);
-
-		}
+		transform(group, RigidTransform.fromMatrix(m, null));
 
 	}
 
@@ -475,14 +467,52 @@ public class Calc {
 	 */
 	public static final void rotate(Structure structure, Matrix m){
 
-		AtomIterator iter = new AtomIterator(structure) ;
+		transform(structure, RigidTransform.fromMatrix(m, null));
 
-		while (iter.hasNext()) {
-			Atom atom = (Atom) iter.next() ;
-			rotate(atom,m);
+	}
 
+	/** Transform an atom in place.
+	 * 
+	 * @param atom the atom to be moved
+	 * @param t the transformation to be applied
+	 */
+	public static final void transform(Atom atom, RigidTransform t){
+		t.transform(atom);
+	}
+
+	/** Transform a set of atoms in place.
+	 * 
+	 * @param atoms the atoms to be moved
+	 * @param t the transformation to be applied
+	 */
+	public static final void transform(Atom[] atoms, RigidTransform t){
+		t.transform(atoms);
+	}
+
+	/** Transform all atoms of a group.
+	 * 
+	 * @param group the group to be moved
+	 * @param t the transformation to be applied
+	 */
+	public static final void transform(Group group, RigidTransform t){
+
+		AtomIterator iter = new AtomIterator(group) ;
+		while (iter.hasNext()) {
+			t.transform(iter.next());
 		}
+	}
+
+	/** Transform all atoms of a structure.
+	 * 
+	 * @param structure the structure to be moved
+	 * @param t the transformation to be applied
+	 */
+	public static final void transform(Structure structure, RigidTransform t){
 
+		AtomIterator iter = new AtomIterator(structure) ;
+		while (iter.hasNext()) {
+			t.transform(iter.next());
+		}
 	}
 
 	/** calculate structure + Matrix coodinates ... 
@@ -491,45 +521,8 @@ public class Calc {
 	 * @param matrix a Matrix object
 	 */
 	public static final void plus(Structure s, Matrix matrix){
-		AtomIterator iter = new AtomIterator(s) ;
-		Atom oldAtom = null;
-		Atom rotOldAtom = null;
-		while (iter.hasNext()) {
-			Atom atom = null ;
-
-			atom = (Atom) iter.next() ;
-			try {
-				if ( oldAtom != null){
-					//System.out.println("before " +getDistance(oldAtom,atom));
-				}
-			} catch (Exception e){
-				e.printStackTrace();
-			}
-			oldAtom = (Atom)atom.clone();
-
-			double x = atom.getX();
-			double y = atom.getY() ;
-			double z = atom.getZ();
-			double[][] ad = new double[][]{{x,y,z}};
-
-			Matrix am = new Matrix(ad);
-			Matrix na = am.plus(matrix);
-
-			double[] coords = new double[3] ;
-			coords[0] = na.get(0,0);
-			coords[1] = na.get(0,1);
-			coords[2] = na.get(0,2);
-			atom.setCoords(coords);
-			try {
-				if ( rotOldAtom != null){
-					//System.out.println("after " + getDistance(rotOldAtom,atom));
-				}
-			} catch (Exception e){
-				e.printStackTrace();
-			}
-			rotOldAtom  = (Atom) atom.clone();
-		}
-
+		double[] v = matrix.getArray()[0];
+		transform(s, RigidTransform.translation(v[0], v[1], v[2]));
 	}
 
 
@@ -543,17 +536,9 @@ public class Calc {
 
 		AtomIterator iter = new AtomIterator(structure) ;
 		while (iter.hasNext() ) {
-			Atom atom = null ;
-
-			atom = (Atom) iter.next()  ;	    
+			Atom atom = iter.next()  ;	    
 
-			Atom natom = add(atom,a);	   
-			double x = natom.getX();
-			double y = natom.getY() ;
-			double z = natom.getZ();
-			atom.setX(x);
-			atom.setY(y);
-			atom.setZ(z);
+			shift(atom, a);
 
 		}
 	}
@@ -565,13 +550,9 @@ public class Calc {
 	 */
 	public static final void shift(Atom a, Atom b){
 
-		Atom natom = add(a,b);      
-		double x = natom.getX();
-		double y = natom.getY() ;
-		double z = natom.getZ();
-		a.setX(x);
-		a.setY(y);
-		a.setZ(z);
+		a.setX(a.getX() + b.getX());
+		a.setY(a.getY() + b.getY());
+		a.setZ(a.getZ() + b.getZ());
 	}
 
 	/** Shift a Group with a vector.
@@ -583,17 +564,9 @@ public class Calc {
 
 		AtomIterator iter = new AtomIterator(group) ;
 		while (iter.hasNext() ) {
-			Atom atom = null ;
-
-			atom = (Atom) iter.next()  ;     
+			Atom atom = iter.next()  ;     
 
-			Atom natom = add(atom,a);       
-			double x = natom.getX();
-			double y = natom.getY() ;
-			double z = natom.getZ();
-			atom.setX(x);
-			atom.setY(y);
-			atom.setZ(z);
+			shift(atom, a);
 
 		}
 	}
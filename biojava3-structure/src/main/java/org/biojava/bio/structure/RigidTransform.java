@@ -0,0 +1,286 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure;
+
+import java.io.Serializable;
+
+import org.biojava.bio.structure.jama.Matrix;
+
+/** An immutable transformation of 3D coordinates: a 3x3 matrix followed by a translation.
+ * <p>
+ * A point p is transformed to R&middot;p + t. Applying a transform to an atom or to a coordinate array does not
+ * allocate any objects, so it can be used to move large structures or assemblies atom by atom.
+ * <p>
+ * Note that the rotation matrices of {@link SVDSuperimposer}, {@link Calc#rotate(Atom, Matrix)} and the block
+ * rotations of {@link org.biojava.bio.structure.align.model.AFPChain} are applied to row vectors, p&middot;M.
+ * They are converted by {@link #fromMatrix(Matrix, Atom)}, which transposes the matrix.
+ *
+ * @since 3.0.6
+ */
+public final class RigidTransform implements Serializable {
+
+	private static final long serialVersionUID = 5826131398418232934L;
+
+	/** the transform that does not change any coordinates */
+	public static final RigidTransform IDENTITY = new RigidTransform(
+			1, 0, 0,
+			0, 1, 0,
+			0, 0, 1,
+			0, 0, 0);
+
+	private final double m00, m01, m02;
+	private final double m10, m11, m12;
+	private final double m20, m21, m22;
+	private final double tx, ty, tz;
+
+	/** Creates a transform from the matrix, in row-major order, and the translation.
+	 */
+	public RigidTransform(double m00, double m01, double m02,
+			double m10, double m11, double m12,
+			double m20, double m21, double m22,
+			double tx, double ty, double tz){
+		this.m00 = m00; this.m01 = m01; this.m02 = m02;
+		this.m10 = m10; this.m11 = m11; this.m12 = m12;
+		this.m20 = m20; this.m21 = m21; this.m22 = m22;
+		this.tx = tx; this.ty = ty; this.tz = tz;
+	}
+
+	/** Creates a transform from a matrix and a translation.
+	 *
+	 * @param matrix a 3x3 matrix that is applied to column vectors, R&middot;p
+	 * @param translation the translation, may be null
+	 */
+	public RigidTransform(double[][] matrix, double[] translation){
+		this(matrix[0][0], matrix[0][1], matrix[0][2],
+				matrix[1][0], matrix[1][1], matrix[1][2],
+				matrix[2][0], matrix[2][1], matrix[2][2],
+				translation == null ? 0 : translation[0],
+				translation == null ? 0 : translation[1],
+				translation == null ? 0 : translation[2]);
+	}
+
+	/** Converts a rotation and shift as used by {@link Calc#rotate(Atom, Matrix)} and
+	 * {@link Calc#shift(Atom, Atom)}: the rotation is applied to row vectors, then the shift is added.
+	 *
+	 * @param rotation a 3x3 rotation matrix, applied as p&middot;M
+	 * @param shift the shift vector, may be null
+	 * @return the transform
+	 */
+	public static RigidTransform fromMatrix(Matrix rotation, Atom shift){
+		double[][] m = rotation.getArray();
+		return new RigidTransform(
+				m[0][0], m[1][0], m[2][0],
+				m[0][1], m[1][1], m[2][1],
+				m[0][2], m[1][2], m[2][2],
+				shift == null ? 0 : shift.getX(),
+				shift == null ? 0 : shift.getY(),
+				shift == null ? 0 : shift.getZ());
+	}
+
+	/** @return a transform that only translates */
+	public static RigidTransform translation(double x, double y, double z){
+		return new RigidTransform(1, 0, 0, 0, 1, 0, 0, 0, 1, x, y, z);
+	}
+
+	/** Returns the transform that applies first the other transform and then this one.
+	 *
+	 * @param before the transform that is applied first
+	 * @return this &middot; before
+	 */
+	public RigidTransform compose(RigidTransform before){
+		RigidTransform b = before;
+		return new RigidTransform(
+				m00 * b.m00 + m01 * b.m10 + m02 * b.m20,
+				m00 * b.m01 + m01 * b.m11 + m02 * b.m21,
+				m00 * b.m02 + m01 * b.m12 + m02 * b.m22,
+				m10 * b.m00 + m11 * b.m10 + m12 * b.m20,
+				m10 * b.m01 + m11 * b.m11 + m12 * b.m21,
+				m10 * b.m02 + m11 * b.m12 + m12 * b.m22,
+				m20 * b.m00 + m21 * b.m10 + m22 * b.m20,
+				m20 * b.m01 + m21 * b.m11 + m22 * b.m21,
+				m20 * b.m02 + m21 * b.m12 + m22 * b.m22,
+				m00 * b.tx + m01 * b.ty + m02 * b.tz + tx,
+				m10 * b.tx + m11 * b.ty + m12 * b.tz + ty,
+				m20 * b.tx + m21 * b.ty + m22 * b.tz + tz);
+	}
+
+	/** Returns the inverse transform. The matrix does not need to be a rotation, e.g. crystallographic
+	 * transformations in fractional coordinates can be inverted as well.
+	 *
+	 * @return the inverse
+	 * @throws IllegalStateException if the matrix is singular
+	 */
+	public RigidTransform invert(){
+		double c00 = m11 * m22 - m12 * m21;
+		double c01 = m02 * m21 - m01 * m22;
+		double c02 = m01 * m12 - m02 * m11;
+		double det = m00 * c00 + m10 * c01 + m20 * c02;
+		if ( det == 0 || Double.isNaN(det))
+			throw new IllegalStateException("transformation matrix is singular");
+		double f = 1.0 / det;
+
+		double i00 = c00 * f;
+		double i01 = c01 * f;
+		double i02 = c02 * f;
+		double i10 = (m12 * m20 - m10 * m22) * f;
+		double i11 = (m00 * m22 - m02 * m20) * f;
+		double i12 = (m02 * m10 - m00 * m12) * f;
+		double i20 = (m10 * m21 - m11 * m20) * f;
+		double i21 = (m01 * m20 - m00 * m21) * f;
+		double i22 = (m00 * m11 - m01 * m10) * f;
+
+		return new RigidTransform(
+				i00, i01, i02,
+				i10, i11, i12,
+				i20, i21, i22,
+				-(i00 * tx + i01 * ty + i02 * tz),
+				-(i10 * tx + i11 * ty + i12 * tz),
+				-(i20 * tx + i21 * ty + i22 * tz));
+	}
+
+	/** Transforms the coordinates of an atom in place.
+	 *
+	 * @param atom the atom to move
+	 */
+	public void transform(Atom atom){
+		double x = atom.getX();
+		double y = atom.getY();
+		double z = atom.getZ();
+		atom.setX(m00 * x + m01 * y + m02 * z + tx);
+		atom.setY(m10 * x + m11 * y + m12 * z + ty);
+		atom.setZ(m20 * x + m21 * y + m22 * z + tz);
+	}
+
+	/** Transforms the coordinates of atoms in place.
+	 *
+	 * @param atoms the atoms to move
+	 */
+	public void transform(Atom[] atoms){
+		for (Atom atom : atoms)
+			transform(atom);
+	}
+
+	/** Transforms a point. The source and destination may be the same array.
+	 *
+	 * @param src the array containing the point, as x, y, z
+	 * @param srcOffset the index of x in src
+	 * @param dst the array to write the transformed point to
+	 * @param dstOffset the index of x in dst
+	 */
+	public void transform(double[] src, int srcOffset, double[] dst, int dstOffset){
+		double x = src[srcOffset];
+		double y = src[srcOffset + 1];
+		double z = src[srcOffset + 2];
+		dst[dstOffset]     = m00 * x + m01 * y + m02 * z + tx;
+		dst[dstOffset + 1] = m10 * x + m11 * y + m12 * z + ty;
+		dst[dstOffset + 2] = m20 * x + m21 * y + m22 * z + tz;
+	}
+
+	/** Transforms a number of points stored one after the other as x, y, z. The source and destination may be
+	 * the same array.
+	 *
+	 * @param src the array containing the points
+	 * @param srcOffset the index of the first x in src
+	 * @param dst the array to write the transformed points to
+	 * @param dstOffset the index of the first x in dst
+	 * @param count the number of points
+	 */
+	public void transform(double[] src, int srcOffset, double[] dst, int dstOffset, int count){
+		int end = srcOffset + 3 * count;
+		for (int i = srcOffset, j = dstOffset ; i < end ; i += 3, j += 3)
+			transform(src, i, dst, j);
+	}
+
+	/** @return the element of the matrix in a row and column, i.e. for column vectors */
+	public double get(int row, int column){
+		switch (row * 3 + column){
+		case 0: return m00;
+		case 1: return m01;
+		case 2: return m02;
+		case 3: return m10;
+		case 4: return m11;
+		case 5: return m12;
+		case 6: return m20;
+		case 7: return m21;
+		case 8: return m22;
+		default:
+			throw new IndexOutOfBoundsException("no element " + row + "," + column + " in a 3x3 matrix");
+		}
+	}
+
+	/** @return a copy of the translation as x, y, z */
+	public double[] getTranslation(){
+		return new double[] { tx, ty, tz };
+	}
+
+	/** Returns the matrix as used by {@link Calc#rotate(Atom, Matrix)}, i.e. transposed.
+	 *
+	 * @return a new 3x3 matrix
+	 * @see #fromMatrix(Matrix, Atom)
+	 */
+	public Matrix getRotationMatrix(){
+		return new Matrix(new double[][] {
+				{ m00, m10, m20 },
+				{ m01, m11, m21 },
+				{ m02, m12, m22 } });
+	}
+
+	/** Returns the translation as used by {@link Calc#shift(Atom, Atom)}.
+	 *
+	 * @return a new atom with the translation as coordinates
+	 */
+	public Atom getShiftVector(){
+		Atom a = new AtomImpl();
+		a.setX(tx);
+		a.setY(ty);
+		a.setZ(tz);
+		return a;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if ( this == obj)
+			return true;
+		if ( ! (obj instanceof RigidTransform))
+			return false;
+		RigidTransform o = (RigidTransform) obj;
+		return Double.compare(m00, o.m00) == 0 && Double.compare(m01, o.m01) == 0 && Double.compare(m02, o.m02) == 0
+				&& Double.compare(m10, o.m10) == 0 && Double.compare(m11, o.m11) == 0 && Double.compare(m12, o.m12) == 0
+				&& Double.compare(m20, o.m20) == 0 && Double.compare(m21, o.m21) == 0 && Double.compare(m22, o.m22) == 0
+				&& Double.compare(tx, o.tx) == 0 && Double.compare(ty, o.ty) == 0 && Double.compare(tz, o.tz) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		double[] values = { m00, m01, m02, m10, m11, m12, m20, m21, m22, tx, ty, tz };
+		return java.util.Arrays.hashCode(values);
+	}
+
+	@Override
+	public String toString() {
+		return "RigidTransform [" + m00 + " " + m01 + " " + m02 + " | " + tx + "; "
+				+ m10 + " " + m11 + " " + m12 + " | " + ty + "; "
+				+ m20 + " " + m21 + " " + m22 + " | " + tz + "]";
+	}
+}
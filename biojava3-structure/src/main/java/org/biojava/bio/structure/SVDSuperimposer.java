@@ -329,6 +329,15 @@ public class SVDSuperimposer {
         return a;
     }
 
+    /** Get the rotation and the shift as one transformation, which superimposes the second atom set onto
+     * the first one.
+     *
+     * @return the transformation
+     */
+    public RigidTransform getTransform(){
+        return RigidTransform.fromMatrix(rot, getTranslation());
+    }
+
     /** Simple debug method to print a Matrix object on System.out.
      *
      * @param m a Matrix
@@ -34,6 +34,7 @@ import org.biojava.bio.structure.Calc;
 import org.biojava.bio.structure.Chain;
 import org.biojava.bio.structure.ChainImpl;
 import org.biojava.bio.structure.Group;
+import org.biojava.bio.structure.RigidTransform;
 import org.biojava.bio.structure.SVDSuperimposer;
 import org.biojava.bio.structure.StructureException;
 import org.biojava.bio.structure.StructureTools;
@@ -296,13 +297,9 @@ public class AFPTwister
          afpChain.setBlockShiftVector(shifts);
       }
 
+      RigidTransform transform = RigidTransform.fromMatrix(r, t);
       for (Atom a : ca2){
-         //Calc.rotate(a, r);
-         //Calc.shift(a, t);
-
-         Calc.rotate(a.getGroup(),r);
-         Calc.shift(a.getGroup(),t);
-
+         Calc.transform(a.getGroup(), transform);
       }
 
 
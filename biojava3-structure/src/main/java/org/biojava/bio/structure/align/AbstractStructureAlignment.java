@@ -4,6 +4,7 @@ import org.biojava.bio.structure.Atom;
 import org.biojava.bio.structure.StructureException;
 import org.biojava.bio.structure.align.ce.ConfigStrucAligParams;
 import org.biojava.bio.structure.align.model.AFPChain;
+import org.biojava.bio.structure.align.model.CompactAFPChain;
 
 public abstract class AbstractStructureAlignment implements StructureAlignment {
 
@@ -19,6 +20,19 @@ public abstract class AbstractStructureAlignment implements StructureAlignment {
 
 	abstract public String getVersion() ;
 
+	/** Run an alignment and only keep its result, not the working data of the algorithm.
+	 * 
+	 * @param ca1 the CA atoms of the first structure
+	 * @param ca2 the CA atoms of the second structure
+	 * @param params the parameters of the algorithm
+	 * @return the compact result
+	 * @throws StructureException
+	 * @see AFPChain#compact()
+	 */
+	public CompactAFPChain alignCompact(Atom[] ca1, Atom[] ca2, Object params) throws StructureException {
+		return align(ca1, ca2, params).compact();
+	}
+
 	abstract public void setParameters(ConfigStrucAligParams parameters);
 
 	public String printHelp() {
@@ -14,6 +14,7 @@ import org.biojava.bio.structure.StructureTools;
 import org.biojava.bio.structure.align.ce.ConfigStrucAligParams;
 import org.biojava.bio.structure.align.client.PdbPair;
 import org.biojava.bio.structure.align.model.AFPChain;
+import org.biojava.bio.structure.align.util.AlignmentResultWriter;
 import org.biojava.bio.structure.align.util.AtomCache;
 import org.biojava.bio.structure.align.util.SynchronizedOutFile;
 import org.biojava.bio.structure.align.xml.AFPChainXMLConverter;
@@ -34,6 +35,8 @@ public class CallableStructureAlignment implements  Callable<AFPChain> {
 	private String algorithmName;
 
 	private ConfigStrucAligParams params;
+
+	private AlignmentResultWriter resultWriter;
 	
 	public CallableStructureAlignment( ) {
 		
@@ -74,8 +77,13 @@ public class CallableStructureAlignment implements  Callable<AFPChain> {
 
 			outFile.write(result);
 
-			String xml = AFPChainXMLConverter.toXML(afpChain, ca1, ca2);
-			writeXML(outFileDir,pair.getName1(), pair.getName2(), xml);
+			if ( resultWriter != null) {
+				// all results go to one binary file instead of one XML file per pair
+				resultWriter.write(afpChain);
+			} else {
+				String xml = AFPChainXMLConverter.toXML(afpChain, ca1, ca2);
+				writeXML(outFileDir,pair.getName1(), pair.getName2(), xml);
+			}
 
 		} catch ( Exception e){
 			e.printStackTrace();
@@ -107,6 +115,18 @@ public class CallableStructureAlignment implements  Callable<AFPChain> {
 		this.outFile = outFile;
 	}
 
+	public AlignmentResultWriter getResultWriter() {
+		return resultWriter;
+	}
+
+	/** Set a writer for the binary result file. If set, no XML file is written for the pair.
+	 *
+	 * @param resultWriter the writer, shared by all alignments of a search
+	 */
+	public void setResultWriter(AlignmentResultWriter resultWriter) {
+		this.resultWriter = resultWriter;
+	}
+
 	public Atom[] getCa1() {
 		return ca1;
 	}
@@ -0,0 +1,152 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.align.benchmark;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.biojava.bio.structure.cath.CathDatabase;
+import org.biojava.bio.structure.cath.CathDomain;
+import org.biojava.bio.structure.scop.ScopDatabase;
+import org.biojava.bio.structure.scop.ScopDomain;
+
+/** A domain of a benchmark set together with its position in a classification hierarchy, e.g. SCOP or CATH.
+ *
+ * The lineage lists the identifiers of the nodes from the root of the hierarchy down to the domain, e.g. class,
+ * fold, superfamily and family for SCOP. Two domains are related at a level if their lineages agree up to and
+ * including that level.
+ *
+ * @since 3.0.6
+ */
+public class BenchmarkDomain implements Serializable {
+
+	private static final long serialVersionUID = -6219460436587946043L;
+
+	/** the SCOP levels of a lineage created by {@link #fromScop(ScopDomain)} */
+	public static final int SCOP_CLASS = 0;
+	public static final int SCOP_FOLD = 1;
+	public static final int SCOP_SUPERFAMILY = 2;
+	public static final int SCOP_FAMILY = 3;
+
+	/** the CATH levels of a lineage created by {@link #fromCath(CathDomain)} */
+	public static final int CATH_CLASS = 0;
+	public static final int CATH_ARCHITECTURE = 1;
+	public static final int CATH_TOPOLOGY = 2;
+	public static final int CATH_HOMOLOGY = 3;
+
+	private final String name;
+	private final String[] lineage;
+
+	/**
+	 * @param name the name of the domain, as understood by {@link org.biojava.bio.structure.align.util.AtomCache}
+	 * @param lineage the identifiers of the levels of the hierarchy, starting at the root
+	 */
+	public BenchmarkDomain(String name, String... lineage){
+		this.name = name;
+		this.lineage = lineage.clone();
+	}
+
+	/** @return a domain with the class, fold, superfamily and family sunids of a SCOP domain */
+	public static BenchmarkDomain fromScop(ScopDomain domain){
+		return new BenchmarkDomain(domain.getScopId(),
+				String.valueOf(domain.getClassId()),
+				String.valueOf(domain.getFoldId()),
+				String.valueOf(domain.getSuperfamilyId()),
+				String.valueOf(domain.getFamilyId()));
+	}
+
+	/** @return a domain with the class, architecture, topology and homologous superfamily of a CATH domain */
+	public static BenchmarkDomain fromCath(CathDomain domain){
+		String c = String.valueOf(domain.getClassId());
+		String a = c + "." + domain.getArchitectureId();
+		String t = a + "." + domain.getTopologyId();
+		String h = t + "." + domain.getHomologyId();
+		return new BenchmarkDomain(domain.getDomainName(), c, a, t, h);
+	}
+
+	/** Looks up SCOP domains. Domains that can not be found are reported on System.err and skipped.
+	 *
+	 * @param scop the SCOP installation, e.g. a local {@link org.biojava.bio.structure.scop.ScopInstallation}
+	 * @param scopIds the SCOP ids, e.g. d1bcoa1
+	 * @return the domains
+	 */
+	public static List<BenchmarkDomain> fromScop(ScopDatabase scop, Collection<String> scopIds){
+		List<BenchmarkDomain> domains = new ArrayList<BenchmarkDomain>(scopIds.size());
+		for (String id : scopIds){
+			ScopDomain d = scop.getDomainByScopID(id);
+			if ( d == null) {
+				System.err.println("Could not find SCOP domain " + id);
+				continue;
+			}
+			domains.add(fromScop(d));
+		}
+		return domains;
+	}
+
+	/** Looks up CATH domains. Domains that can not be found are reported on System.err and skipped.
+	 *
+	 * @param cath the CATH installation, e.g. a local {@link org.biojava.bio.structure.cath.CathInstallation}
+	 * @param cathIds the CATH domain names, e.g. 1bcoA01
+	 * @return the domains
+	 */
+	public static List<BenchmarkDomain> fromCath(CathDatabase cath, Collection<String> cathIds){
+		List<BenchmarkDomain> domains = new ArrayList<BenchmarkDomain>(cathIds.size());
+		for (String id : cathIds){
+			CathDomain d = cath.getDomainByCathId(id);
+			if ( d == null) {
+				System.err.println("Could not find CATH domain " + id);
+				continue;
+			}
+			domains.add(fromCath(d));
+		}
+		return domains;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/** @return a copy of the lineage */
+	public String[] getLineage() {
+		return lineage.clone();
+	}
+
+	/** @return the number of levels in which both lineages agree, starting at the root */
+	public int getSharedLevels(BenchmarkDomain other){
+		int n = Math.min(lineage.length, other.lineage.length);
+		for (int i = 0 ; i < n ; i++){
+			if ( lineage[i] == null || ! lineage[i].equals(other.lineage[i]))
+				return i;
+		}
+		return n;
+	}
+
+	@Override
+	public String toString() {
+		return name + " " + Arrays.toString(lineage);
+	}
+}
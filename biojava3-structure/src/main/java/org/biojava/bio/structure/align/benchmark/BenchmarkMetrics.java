@@ -0,0 +1,150 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.align.benchmark;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/** ROC and precision statistics of scores for pairs that are known to be related or unrelated.
+ *
+ * Pairs are ranked by decreasing score. Pairs with the same score are treated as tied, i.e. they are counted
+ * as one step of the ranking.
+ *
+ * @since 3.0.6
+ */
+public class BenchmarkMetrics {
+
+	private final int positives;
+	private final int negatives;
+
+	// the true and false positives above each distinct score, from the highest score down
+	private final int[] tp;
+	private final int[] fp;
+
+	/**
+	 * @param scores the scores of the pairs, higher scores mean more similar
+	 * @param related for every pair if it is related
+	 */
+	public BenchmarkMetrics(final double[] scores, boolean[] related){
+		if ( scores.length != related.length)
+			throw new IllegalArgumentException("scores and related need to have the same length");
+
+		Integer[] order = new Integer[scores.length];
+		for (int i = 0 ; i < order.length ; i++)
+			order[i] = i;
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				return Double.compare(scores[b], scores[a]);
+			}
+		});
+
+		int[] tps = new int[scores.length + 1];
+		int[] fps = new int[scores.length + 1];
+		int steps = 0;
+		int t = 0, f = 0;
+		for (int k = 0 ; k < order.length ; k++){
+			int i = order[k];
+			if ( related[i])
+				t++;
+			else
+				f++;
+			// a step ends where the next score is different
+			if ( k == order.length - 1 || Double.compare(scores[order[k + 1]], scores[i]) != 0) {
+				steps++;
+				tps[steps] = t;
+				fps[steps] = f;
+			}
+		}
+		tp = Arrays.copyOf(tps, steps + 1);
+		fp = Arrays.copyOf(fps, steps + 1);
+		positives = t;
+		negatives = f;
+	}
+
+	public int getPositives() {
+		return positives;
+	}
+
+	public int getNegatives() {
+		return negatives;
+	}
+
+	/** @return the area under the ROC curve, 0.5 for random scores, or NaN if there are no positives or no
+	 * negatives */
+	public double getAUC() {
+		if ( positives == 0 || negatives == 0)
+			return Double.NaN;
+		double area = 0;
+		for (int s = 1 ; s < tp.length ; s++){
+			// trapezoid, which counts ties as half correct
+			area += (fp[s] - fp[s - 1]) * (tp[s] + tp[s - 1]) / 2.0;
+		}
+		return area / ((double) positives * negatives);
+	}
+
+	/** @return the fraction of related pairs that score higher than the best unrelated pair */
+	public double getRecallAtFirstFalsePositive() {
+		if ( positives == 0)
+			return Double.NaN;
+		for (int s = 1 ; s < tp.length ; s++){
+			if ( fp[s] > 0)
+				return tp[s - 1] / (double) positives;
+		}
+		return 1.0;
+	}
+
+	/** @return the highest precision at which at least the given fraction of the related pairs is found */
+	public double getPrecisionAtRecall(double recall) {
+		if ( positives == 0)
+			return Double.NaN;
+		double best = 0;
+		for (int s = 1 ; s < tp.length ; s++){
+			if ( tp[s] >= recall * positives)
+				best = Math.max(best, tp[s] / (double)(tp[s] + fp[s]));
+		}
+		return best;
+	}
+
+	/** @return the average of the precision at each related pair, i.e. the area under the precision recall
+	 * curve */
+	public double getAveragePrecision() {
+		if ( positives == 0)
+			return Double.NaN;
+		double sum = 0;
+		for (int s = 1 ; s < tp.length ; s++){
+			int found = tp[s] - tp[s - 1];
+			if ( found > 0)
+				sum += found * tp[s] / (double)(tp[s] + fp[s]);
+		}
+		return sum / positives;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("positives %d, negatives %d, AUC %.4f, average precision %.4f, "
+				+ "precision at 50%% recall %.4f, recall at first false positive %.4f",
+				positives, negatives, getAUC(), getAveragePrecision(), getPrecisionAtRecall(0.5),
+				getRecallAtFirstFalsePositive());
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.align.benchmark;
+
+/** The scores of all pairs of a run of {@link DomainBenchmark} for one algorithm, and how long it took.
+ *
+ * Pairs that could not be aligned have a score of NaN and are left out of the metrics.
+ *
+ * @since 3.0.6
+ */
+public class BenchmarkResult {
+
+	private final String algorithmName;
+	private final BenchmarkScore scoreType;
+	private final String[] names1;
+	private final String[] names2;
+	private final boolean[] related;
+	private final double[] scores;
+	private final long[] millis;
+	private final int computed;
+	private final long wallMillis;
+	private final int threads;
+
+	/**
+	 * @param algorithmName the name of the algorithm
+	 * @param scoreType the score that is used to rank the pairs
+	 * @param names1 the first domain of every pair
+	 * @param names2 the second domain of every pair
+	 * @param related for every pair if the domains are related
+	 * @param scores the score of every pair
+	 * @param millis the time it took to align every pair
+	 * @param computed the number of pairs that have been aligned in this run, the others came from a checkpoint
+	 * @param wallMillis the time this run took
+	 * @param threads the number of threads of this run
+	 */
+	public BenchmarkResult(String algorithmName, BenchmarkScore scoreType, String[] names1, String[] names2,
+			boolean[] related, double[] scores, long[] millis, int computed, long wallMillis, int threads){
+		this.algorithmName = algorithmName;
+		this.scoreType = scoreType;
+		this.names1 = names1;
+		this.names2 = names2;
+		this.related = related;
+		this.scores = scores;
+		this.millis = millis;
+		this.computed = computed;
+		this.wallMillis = wallMillis;
+		this.threads = threads;
+	}
+
+	public String getAlgorithmName() {
+		return algorithmName;
+	}
+
+	public BenchmarkScore getScoreType() {
+		return scoreType;
+	}
+
+	/** @return the number of pairs of the benchmark */
+	public int size() {
+		return scores.length;
+	}
+
+	public String getName1(int pair) {
+		return names1[pair];
+	}
+
+	public String getName2(int pair) {
+		return names2[pair];
+	}
+
+	public boolean isRelated(int pair) {
+		return related[pair];
+	}
+
+	/** @return the score of a pair, or NaN if it could not be aligned */
+	public double getScore(int pair) {
+		return scores[pair];
+	}
+
+	/** @return the time it took to align a pair, in milliseconds */
+	public long getMillis(int pair) {
+		return millis[pair];
+	}
+
+	/** @return the number of pairs that could not be aligned */
+	public int getFailed() {
+		int failed = 0;
+		for (double s : scores){
+			if ( Double.isNaN(s))
+				failed++;
+		}
+		return failed;
+	}
+
+	/** @return the number of pairs that have been aligned in this run */
+	public int getComputed() {
+		return computed;
+	}
+
+	public long getWallMillis() {
+		return wallMillis;
+	}
+
+	/** @return the number of pairs that have been aligned in this run per second of wall time */
+	public double getPairsPerSecond() {
+		if ( wallMillis == 0)
+			return Double.NaN;
+		return computed * 1000.0 / wallMillis;
+	}
+
+	/** @return the average time of one alignment in milliseconds, summed over all threads */
+	public double getMeanMillis() {
+		long sum = 0;
+		int n = 0;
+		for (int i = 0 ; i < millis.length ; i++){
+			if ( ! Double.isNaN(scores[i])) {
+				sum += millis[i];
+				n++;
+			}
+		}
+		return n == 0 ? Double.NaN : sum / (double) n;
+	}
+
+	/** @return the ROC and precision statistics of the pairs that could be aligned */
+	public BenchmarkMetrics getMetrics() {
+		int n = scores.length - getFailed();
+		double[] s = new double[n];
+		boolean[] r = new boolean[n];
+		int k = 0;
+		for (int i = 0 ; i < scores.length ; i++){
+			if ( Double.isNaN(scores[i]))
+				continue;
+			s[k] = scoreType.orient(scores[i]);
+			r[k] = related[i];
+			k++;
+		}
+		return new BenchmarkMetrics(s, r);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s (%s): %d pairs, %d failed, %d aligned in %.1f s with %d threads, "
+				+ "%.2f pairs/s, %.1f ms per alignment%n  %s",
+				algorithmName, scoreType, size(), getFailed(), computed, wallMillis / 1000.0, threads,
+				getPairsPerSecond(), getMeanMillis(), getMetrics());
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.align.benchmark;
+
+import org.biojava.bio.structure.Atom;
+import org.biojava.bio.structure.StructureException;
+import org.biojava.bio.structure.align.model.AFPChain;
+import org.biojava.bio.structure.align.util.AFPChainScorer;
+
+/** The score of an alignment that is used to rank the pairs of a benchmark.
+ *
+ * @since 3.0.6
+ */
+public enum BenchmarkScore {
+
+	/** the TM-score, normalized by the length of the first domain */
+	TM_SCORE(true),
+	/** the probability of the alignment as reported by the algorithm, e.g. the Z-score of CE */
+	Z_SCORE(true),
+	/** the probability of the alignment as reported by the algorithm, e.g. the P-value of FATCAT */
+	P_VALUE(false),
+	/** the raw score of the alignment */
+	ALIGN_SCORE(true),
+	/** the RMSD of the optimal alignment */
+	RMSD(false),
+	/** the sequence identity of the aligned residues */
+	IDENTITY(true);
+
+	private final boolean higherIsBetter;
+
+	private BenchmarkScore(boolean higherIsBetter){
+		this.higherIsBetter = higherIsBetter;
+	}
+
+	/** @return true if a higher value of this score means that the domains are more similar */
+	public boolean isHigherBetter() {
+		return higherIsBetter;
+	}
+
+	/** Gets the score of an alignment.
+	 *
+	 * @param afpChain the alignment
+	 * @param ca1 the atoms of the first domain
+	 * @param ca2 the atoms of the second domain
+	 * @return the score
+	 * @throws StructureException if the score can not be calculated
+	 */
+	public double getScore(AFPChain afpChain, Atom[] ca1, Atom[] ca2) throws StructureException {
+		switch (this){
+		case TM_SCORE:
+			double tm = afpChain.getTMScore();
+			if ( tm < 0) {
+				tm = AFPChainScorer.getTMScore(afpChain, ca1, ca2);
+				afpChain.setTMScore(tm);
+			}
+			return tm;
+		case Z_SCORE:
+		case P_VALUE:
+			return afpChain.getProbability();
+		case ALIGN_SCORE:
+			return afpChain.getAlignScore();
+		case RMSD:
+			return afpChain.getTotalRmsdOpt();
+		case IDENTITY:
+			return afpChain.getIdentity();
+		default:
+			throw new IllegalStateException("Unknown score " + this);
+		}
+	}
+
+	/** @return the score turned around if necessary, so that higher values mean more similar domains */
+	public double orient(double score){
+		return higherIsBetter ? score : -score;
+	}
+}
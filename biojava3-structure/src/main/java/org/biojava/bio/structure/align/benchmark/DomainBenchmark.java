@@ -0,0 +1,504 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.align.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.biojava.bio.structure.Atom;
+import org.biojava.bio.structure.StructureException;
+import org.biojava.bio.structure.align.StructureAlignment;
+import org.biojava.bio.structure.align.StructureAlignmentFactory;
+import org.biojava.bio.structure.align.ce.ConfigStrucAligParams;
+import org.biojava.bio.structure.align.model.AFPChain;
+import org.biojava.bio.structure.align.util.AtomCache;
+import org.biojava.bio.structure.cath.CathInstallation;
+import org.biojava.bio.structure.scop.ScopFactory;
+import org.biojava.bio.structure.scop.ScopInstallation;
+
+/** Aligns all pairs, or a random sample of the pairs, of a set of classified domains and measures how well the
+ * alignment scores separate related from unrelated domains.
+ *
+ * A pair is related if both domains share the positive level of the hierarchy, e.g. the SCOP superfamily, and
+ * unrelated if they differ at the negative level, e.g. the SCOP fold. All other pairs are left out of the
+ * benchmark. The coordinates come from a {@link DomainCoordinateStore}, so the structures are parsed only once
+ * for all algorithms.
+ *
+ * The pairs are aligned in parallel, each thread with its own instance of the algorithm. If a checkpoint
+ * directory is set, every score is appended to a file in that directory as soon as it is known, and a run that
+ * has been interrupted continues where it stopped.
+ *
+ * <pre>
+ * DomainBenchmark -pdbFilePath /tmp/pdb -scop /tmp/scop -domains domains.txt -algorithm jCE,jFatCat_rigid
+ *       -pairs 10000 -checkpoint /tmp/benchmark -store /tmp/benchmark/domains.store
+ * </pre>
+ *
+ * @since 3.0.6
+ */
+public class DomainBenchmark {
+
+	private final List<BenchmarkDomain> domains;
+	private final DomainCoordinateStore store;
+
+	private int nrThreads;
+	private int sampleSize;
+	private long seed;
+	private File checkpointDir;
+	private BenchmarkScore scoreType;
+	private final Map<String, ConfigStrucAligParams> parameters;
+	private int positiveLevel;
+	private int negativeLevel;
+
+	/**
+	 * @param domains the domains of the benchmark
+	 * @param store the coordinates of the domains. Domains that are not in the store are left out.
+	 */
+	public DomainBenchmark(List<BenchmarkDomain> domains, DomainCoordinateStore store){
+		this.domains = new ArrayList<BenchmarkDomain>();
+		for (BenchmarkDomain d : domains){
+			if ( store.contains(d.getName()))
+				this.domains.add(d);
+		}
+		this.store = store;
+		nrThreads = Runtime.getRuntime().availableProcessors();
+		sampleSize = 0;
+		seed = 0;
+		scoreType = BenchmarkScore.TM_SCORE;
+		parameters = new HashMap<String, ConfigStrucAligParams>();
+		positiveLevel = BenchmarkDomain.SCOP_SUPERFAMILY;
+		negativeLevel = BenchmarkDomain.SCOP_FOLD;
+	}
+
+	/** @return the domains that are part of the benchmark */
+	public List<BenchmarkDomain> getDomains() {
+		return new ArrayList<BenchmarkDomain>(domains);
+	}
+
+	public int getNrThreads() {
+		return nrThreads;
+	}
+
+	public void setNrThreads(int nrThreads) {
+		if ( nrThreads < 1)
+			throw new IllegalArgumentException("Need at least one thread");
+		this.nrThreads = nrThreads;
+	}
+
+	public int getSampleSize() {
+		return sampleSize;
+	}
+
+	/** Aligns only a random sample of the pairs.
+	 *
+	 * @param sampleSize the number of pairs, or 0 to align all pairs
+	 * @param seed the seed of the random sample, so that an interrupted run picks the same pairs again
+	 */
+	public void setSampleSize(int sampleSize, long seed) {
+		this.sampleSize = sampleSize;
+		this.seed = seed;
+	}
+
+	public File getCheckpointDir() {
+		return checkpointDir;
+	}
+
+	/** @param checkpointDir the directory to keep the scores of every algorithm in, or null for no checkpoints */
+	public void setCheckpointDir(File checkpointDir) {
+		this.checkpointDir = checkpointDir;
+	}
+
+	public BenchmarkScore getScoreType() {
+		return scoreType;
+	}
+
+	public void setScoreType(BenchmarkScore scoreType) {
+		this.scoreType = scoreType;
+	}
+
+	/** Sets the parameters of an algorithm. Algorithms without parameters use their defaults.
+	 * The parameters are shared by all threads and must not be changed during a run.
+	 *
+	 * @param algorithmName the name of the algorithm
+	 * @param params the parameters
+	 */
+	public void setParameters(String algorithmName, ConfigStrucAligParams params) {
+		parameters.put(algorithmName, params);
+	}
+
+	/** Sets the levels of the hierarchy that define related and unrelated pairs. The default is the SCOP
+	 * superfamily and fold, which are the CATH topology and architecture in a CATH lineage. Use
+	 * {@link BenchmarkDomain#CATH_HOMOLOGY} and {@link BenchmarkDomain#CATH_TOPOLOGY} for CATH.
+	 *
+	 * @param positiveLevel the deepest level that related domains share
+	 * @param negativeLevel the level at which unrelated domains differ
+	 */
+	public void setLevels(int positiveLevel, int negativeLevel) {
+		if ( negativeLevel > positiveLevel)
+			throw new IllegalArgumentException("The negative level can not be below the positive level");
+		this.positiveLevel = positiveLevel;
+		this.negativeLevel = negativeLevel;
+	}
+
+	/** @return 1 if the domains are related, 0 if they are unrelated and -1 if the pair is not part of the
+	 * benchmark */
+	private int getLabel(BenchmarkDomain d1, BenchmarkDomain d2){
+		int shared = d1.getSharedLevels(d2);
+		if ( shared > positiveLevel)
+			return 1;
+		if ( shared <= negativeLevel)
+			return 0;
+		return -1;
+	}
+
+	/** @return the pairs of the benchmark, as indices into {@link #getDomains()} */
+	public List<int[]> getPairs() {
+		int n = domains.size();
+		long total = (long) n * (n - 1) / 2;
+		List<int[]> pairs = new ArrayList<int[]>();
+
+		if ( sampleSize <= 0 || sampleSize >= total) {
+			for (int i = 0 ; i < n ; i++){
+				for (int j = i + 1 ; j < n ; j++){
+					if ( getLabel(domains.get(i), domains.get(j)) >= 0)
+						pairs.add(new int[] { i, j });
+				}
+			}
+			return pairs;
+		}
+
+		// rejection sampling, so that large sets do not need a list of all pairs
+		Random random = new Random(seed);
+		Set<Long> seen = new HashSet<Long>();
+		long attempts = 0;
+		long maxAttempts = 100L * sampleSize;
+		while ( pairs.size() < sampleSize && attempts++ < maxAttempts) {
+			int i = random.nextInt(n);
+			int j = random.nextInt(n);
+			if ( i == j)
+				continue;
+			if ( i > j) {
+				int t = i;
+				i = j;
+				j = t;
+			}
+			if ( ! seen.add((long) i * n + j))
+				continue;
+			if ( getLabel(domains.get(i), domains.get(j)) >= 0)
+				pairs.add(new int[] { i, j });
+		}
+		return pairs;
+	}
+
+	/** Aligns the pairs of the benchmark with one algorithm.
+	 *
+	 * @param algorithmName the name of an algorithm of the {@link StructureAlignmentFactory}
+	 * @return the scores of the pairs
+	 * @throws StructureException if the algorithm is not known
+	 * @throws IOException if the checkpoint can not be read or written
+	 */
+	public BenchmarkResult run(final String algorithmName) throws StructureException, IOException {
+		// fail early for unknown algorithms
+		StructureAlignmentFactory.getAlgorithm(algorithmName);
+
+		final List<int[]> pairs = getPairs();
+		int size = pairs.size();
+		final String[] names1 = new String[size];
+		final String[] names2 = new String[size];
+		boolean[] related = new boolean[size];
+		final double[] scores = new double[size];
+		final long[] millis = new long[size];
+		for (int p = 0 ; p < size ; p++){
+			BenchmarkDomain d1 = domains.get(pairs.get(p)[0]);
+			BenchmarkDomain d2 = domains.get(pairs.get(p)[1]);
+			names1[p] = d1.getName();
+			names2[p] = d2.getName();
+			related[p] = getLabel(d1, d2) == 1;
+			scores[p] = Double.NaN;
+		}
+
+		final List<Integer> todo = new ArrayList<Integer>();
+		final Writer checkpoint;
+		if ( checkpointDir != null) {
+			checkpointDir.mkdirs();
+			File file = getCheckpointFile(algorithmName);
+			Map<String, String[]> done = readCheckpoint(file);
+			for (int p = 0 ; p < size ; p++){
+				String[] line = done.get(names1[p] + "\t" + names2[p]);
+				if ( line == null) {
+					todo.add(p);
+				} else {
+					scores[p] = Double.parseDouble(line[2]);
+					millis[p] = Long.parseLong(line[3]);
+				}
+			}
+			checkpoint = new BufferedWriter(new FileWriter(file, true));
+		} else {
+			for (int p = 0 ; p < size ; p++)
+				todo.add(p);
+			checkpoint = null;
+		}
+
+		final ConfigStrucAligParams params = parameters.get(algorithmName);
+		final AtomicInteger next = new AtomicInteger();
+		Runnable worker = new Runnable() {
+			public void run() {
+				StructureAlignment algorithm;
+				try {
+					algorithm = StructureAlignmentFactory.getAlgorithm(algorithmName);
+				} catch (StructureException e){
+					throw new IllegalStateException(e);
+				}
+				if ( params != null)
+					algorithm.setParameters(params);
+
+				int k;
+				while ( (k = next.getAndIncrement()) < todo.size()) {
+					int p = todo.get(k);
+					long start = System.nanoTime();
+					double score;
+					try {
+						Atom[] ca1 = store.getAtoms(names1[p]);
+						Atom[] ca2 = store.getAtoms(names2[p]);
+						AFPChain afpChain = algorithm.align(ca1, ca2);
+						score = scoreType.getScore(afpChain, ca1, ca2);
+					} catch (Exception e){
+						System.err.println("Could not align " + names1[p] + " " + names2[p] + ": " + e.getMessage());
+						score = Double.NaN;
+					}
+					millis[p] = (System.nanoTime() - start) / 1000000L;
+					scores[p] = score;
+
+					if ( checkpoint != null) {
+						synchronized (checkpoint) {
+							try {
+								checkpoint.write(names1[p] + "\t" + names2[p] + "\t" + score + "\t" + millis[p] + "\n");
+								checkpoint.flush();
+							} catch (IOException e){
+								throw new IllegalStateException("Could not write checkpoint", e);
+							}
+						}
+					}
+				}
+			}
+		};
+
+		long start = System.currentTimeMillis();
+		ExecutorService executor = Executors.newFixedThreadPool(nrThreads);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int t = 0 ; t < nrThreads ; t++)
+				futures.add(executor.submit(worker));
+			for (Future<?> f : futures){
+				try {
+					f.get();
+				} catch (Exception e){
+					throw new StructureException("Benchmark of " + algorithmName + " failed", e);
+				}
+			}
+		} finally {
+			executor.shutdown();
+			if ( checkpoint != null)
+				checkpoint.close();
+		}
+		long wall = System.currentTimeMillis() - start;
+
+		return new BenchmarkResult(algorithmName, scoreType, names1, names2, related, scores, millis,
+				todo.size(), wall, nrThreads);
+	}
+
+	/** @return the file that keeps the scores of an algorithm */
+	public File getCheckpointFile(String algorithmName) {
+		if ( checkpointDir == null)
+			return null;
+		return new File(checkpointDir, algorithmName + "_" + scoreType + ".tsv");
+	}
+
+	private static Map<String, String[]> readCheckpoint(File file) throws IOException {
+		Map<String, String[]> done = new HashMap<String, String[]>();
+		if ( ! file.exists())
+			return done;
+		BufferedReader in = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while ( (line = in.readLine()) != null) {
+				String[] fields = line.split("\t");
+				// the last line may be incomplete if the run has been killed
+				if ( fields.length != 4)
+					continue;
+				try {
+					Double.parseDouble(fields[2]);
+					Long.parseLong(fields[3]);
+				} catch (NumberFormatException e){
+					continue;
+				}
+				done.put(fields[0] + "\t" + fields[1], fields);
+			}
+		} finally {
+			in.close();
+		}
+		return done;
+	}
+
+	private static List<String> readNames(File file) throws IOException {
+		List<String> names = new ArrayList<String>();
+		BufferedReader in = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while ( (line = in.readLine()) != null) {
+				line = line.trim();
+				if ( line.length() == 0 || line.startsWith("#"))
+					continue;
+				names.add(line.split("\\s+")[0]);
+			}
+		} finally {
+			in.close();
+		}
+		return names;
+	}
+
+	private static void printUsage() {
+		System.err.println("DomainBenchmark -pdbFilePath <dir> (-scop <dir> | -cath <dir>) -domains <file>");
+		System.err.println("      [-algorithm <name,name,...>] [-threads <n>] [-pairs <n>] [-seed <n>]");
+		System.err.println("      [-checkpoint <dir>] [-store <file>] [-score <" + Arrays.toString(BenchmarkScore.values()) + ">]");
+		System.err.println("  Only uses local files. The domains file lists one SCOP or CATH domain per line.");
+	}
+
+	public static void main(String[] args) throws Exception {
+		String pdbFilePath = null;
+		String scopDir = null;
+		String cathDir = null;
+		String domainsFile = null;
+		String algorithms = "jCE";
+		int threads = Runtime.getRuntime().availableProcessors();
+		int pairs = 0;
+		long seed = 0;
+		String checkpointDir = null;
+		String storeFile = null;
+		BenchmarkScore score = BenchmarkScore.TM_SCORE;
+
+		for (int i = 0 ; i < args.length ; i++){
+			String arg = args[i];
+			if ( i + 1 >= args.length) {
+				printUsage();
+				return;
+			}
+			String value = args[++i];
+			if ( arg.equals("-pdbFilePath"))
+				pdbFilePath = value;
+			else if ( arg.equals("-scop"))
+				scopDir = value;
+			else if ( arg.equals("-cath"))
+				cathDir = value;
+			else if ( arg.equals("-domains"))
+				domainsFile = value;
+			else if ( arg.equals("-algorithm"))
+				algorithms = value;
+			else if ( arg.equals("-threads"))
+				threads = Integer.parseInt(value);
+			else if ( arg.equals("-pairs"))
+				pairs = Integer.parseInt(value);
+			else if ( arg.equals("-seed"))
+				seed = Long.parseLong(value);
+			else if ( arg.equals("-checkpoint"))
+				checkpointDir = value;
+			else if ( arg.equals("-store"))
+				storeFile = value;
+			else if ( arg.equals("-score"))
+				score = BenchmarkScore.valueOf(value.toUpperCase());
+			else {
+				System.err.println("Unknown argument " + arg);
+				printUsage();
+				return;
+			}
+		}
+		if ( pdbFilePath == null || domainsFile == null || (scopDir == null) == (cathDir == null)) {
+			printUsage();
+			return;
+		}
+
+		List<String> names = readNames(new File(domainsFile));
+		List<BenchmarkDomain> domains;
+		if ( scopDir != null) {
+			ScopInstallation scop = new ScopInstallation(scopDir);
+			ScopFactory.setScopDatabase(scop);
+			domains = BenchmarkDomain.fromScop(scop, names);
+		} else {
+			domains = BenchmarkDomain.fromCath(new CathInstallation(cathDir), names);
+		}
+		List<String> domainNames = new ArrayList<String>();
+		for (BenchmarkDomain d : domains)
+			domainNames.add(d.getName());
+
+		DomainCoordinateStore store;
+		if ( storeFile != null && new File(storeFile).exists())
+			store = DomainCoordinateStore.read(new File(storeFile));
+		else
+			store = new DomainCoordinateStore();
+
+		AtomCache cache = new AtomCache(pdbFilePath, false);
+		cache.setAutoFetch(false);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			long start = System.currentTimeMillis();
+			int loaded = store.load(cache, domainNames, executor);
+			System.out.println("Loaded " + loaded + " domains in " + (System.currentTimeMillis() - start) + " ms, "
+					+ store.size() + " domains with " + store.getResidueCount() + " residues in the store");
+		} finally {
+			executor.shutdown();
+		}
+		if ( storeFile != null)
+			store.write(new File(storeFile));
+
+		DomainBenchmark benchmark = new DomainBenchmark(domains, store);
+		benchmark.setNrThreads(threads);
+		benchmark.setSampleSize(pairs, seed);
+		benchmark.setScoreType(score);
+		if ( checkpointDir != null)
+			benchmark.setCheckpointDir(new File(checkpointDir));
+		if ( cathDir != null)
+			benchmark.setLevels(BenchmarkDomain.CATH_HOMOLOGY, BenchmarkDomain.CATH_TOPOLOGY);
+
+		for (String algorithm : algorithms.split(",")){
+			BenchmarkResult result = benchmark.run(algorithm.trim());
+			System.out.println(result);
+		}
+	}
+}
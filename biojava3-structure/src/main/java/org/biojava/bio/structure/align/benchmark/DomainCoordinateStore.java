@@ -0,0 +1,412 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.align.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.biojava.bio.structure.AminoAcidImpl;
+import org.biojava.bio.structure.Atom;
+import org.biojava.bio.structure.AtomImpl;
+import org.biojava.bio.structure.Chain;
+import org.biojava.bio.structure.ChainImpl;
+import org.biojava.bio.structure.Group;
+import org.biojava.bio.structure.HetatomImpl;
+import org.biojava.bio.structure.ResidueNumber;
+import org.biojava.bio.structure.align.util.AtomCache;
+import org.biojava.bio.structure.io.PDBParseException;
+
+/** Keeps the CA atoms of many domains in a few flat arrays, so that they are loaded and parsed only once for an
+ * all-against-all comparison.
+ *
+ * Per residue the store keeps the coordinates as floats, the residue number, the insertion code and indices
+ * into small tables of residue and chain names. {@link #getAtoms(String)} creates new Atom objects from them,
+ * which the caller may modify. A store can be written to a file and read back, so that later benchmarks do not
+ * need to parse any PDB files.
+ *
+ * Domains can be added from several threads. Reading is safe while no domains are being added.
+ *
+ * @since 3.0.6
+ */
+public class DomainCoordinateStore {
+
+	private static final int FILE_MAGIC = 0x424A4443; // BJDC
+	private static final int FILE_VERSION = 1;
+
+	private final Map<String, Integer> domainIndex;
+	private final List<String> domainNames;
+	// the first residue of every domain, plus the total number of residues
+	private int[] domainStart;
+
+	private float[] coords;
+	private int[] resNums;
+	private char[] insCodes;
+	private short[] resNameIdx;
+	private short[] chainIdx;
+	private int residues;
+
+	private final List<String> resNames;
+	private final Map<String, Short> resNameLookup;
+	private final List<String> chainNames;
+	private final Map<String, Short> chainLookup;
+
+	public DomainCoordinateStore(){
+		domainIndex = new HashMap<String, Integer>();
+		domainNames = new ArrayList<String>();
+		domainStart = new int[] { 0 };
+		coords = new float[3 * 1024];
+		resNums = new int[1024];
+		insCodes = new char[1024];
+		resNameIdx = new short[1024];
+		chainIdx = new short[1024];
+		resNames = new ArrayList<String>();
+		resNameLookup = new HashMap<String, Short>();
+		chainNames = new ArrayList<String>();
+		chainLookup = new HashMap<String, Short>();
+	}
+
+	/** @return the number of domains in the store */
+	public synchronized int size() {
+		return domainNames.size();
+	}
+
+	/** @return the total number of residues in the store */
+	public synchronized int getResidueCount() {
+		return residues;
+	}
+
+	public synchronized boolean contains(String name) {
+		return domainIndex.containsKey(name);
+	}
+
+	/** @return the names of the domains, in the order they have been added */
+	public synchronized List<String> getNames() {
+		return new ArrayList<String>(domainNames);
+	}
+
+	/** @return the number of residues of a domain, or -1 if it is not in the store */
+	public synchronized int getLength(String name) {
+		Integer d = domainIndex.get(name);
+		if ( d == null)
+			return -1;
+		return domainStart[d + 1] - domainStart[d];
+	}
+
+	/** Adds the CA atoms of a domain. A domain that is already in the store is replaced.
+	 *
+	 * @param name the name of the domain
+	 * @param ca the CA atoms
+	 */
+	public synchronized void add(String name, Atom[] ca) {
+		if ( domainIndex.containsKey(name))
+			remove(name);
+
+		ensureCapacity(residues + ca.length);
+		for (Atom a : ca){
+			int r = residues++;
+			coords[3 * r]     = (float) a.getX();
+			coords[3 * r + 1] = (float) a.getY();
+			coords[3 * r + 2] = (float) a.getZ();
+
+			Group g = a.getGroup();
+			ResidueNumber num = g == null ? null : g.getResidueNumber();
+			resNums[r] = num == null || num.getSeqNum() == null ? r - domainStart[domainNames.size()] + 1 : num.getSeqNum();
+			insCodes[r] = num == null || num.getInsCode() == null ? ' ' : num.getInsCode();
+			resNameIdx[r] = lookup(g == null ? "UNK" : g.getPDBName(), resNames, resNameLookup);
+			String chainId = null;
+			if ( g != null && g.getChain() != null)
+				chainId = g.getChain().getChainID();
+			if ( chainId == null && num != null)
+				chainId = num.getChainId();
+			chainIdx[r] = lookup(chainId == null ? " " : chainId, chainNames, chainLookup);
+		}
+		domainIndex.put(name, domainNames.size());
+		domainNames.add(name);
+		if ( domainStart.length <= domainNames.size())
+			domainStart = Arrays.copyOf(domainStart, 2 * domainStart.length + 1);
+		domainStart[domainNames.size()] = residues;
+	}
+
+	private void remove(String name) {
+		int d = domainIndex.remove(name);
+		int from = domainStart[d];
+		int to = domainStart[d + 1];
+		int n = to - from;
+		System.arraycopy(coords, 3 * to, coords, 3 * from, 3 * (residues - to));
+		System.arraycopy(resNums, to, resNums, from, residues - to);
+		System.arraycopy(insCodes, to, insCodes, from, residues - to);
+		System.arraycopy(resNameIdx, to, resNameIdx, from, residues - to);
+		System.arraycopy(chainIdx, to, chainIdx, from, residues - to);
+		residues -= n;
+
+		domainNames.remove(d);
+		for (int i = d ; i <= domainNames.size() ; i++)
+			domainStart[i] = domainStart[i + 1] - n;
+		for (int i = d ; i < domainNames.size() ; i++)
+			domainIndex.put(domainNames.get(i), i);
+	}
+
+	private static short lookup(String value, List<String> table, Map<String, Short> lookup){
+		Short idx = lookup.get(value);
+		if ( idx == null) {
+			if ( table.size() >= Short.MAX_VALUE)
+				throw new IllegalStateException("Too many different names in the coordinate store");
+			idx = (short) table.size();
+			table.add(value);
+			lookup.put(value, idx);
+		}
+		return idx;
+	}
+
+	private void ensureCapacity(int n){
+		if ( n <= resNums.length)
+			return;
+		int size = Math.max(n, 2 * resNums.length);
+		coords = Arrays.copyOf(coords, 3 * size);
+		resNums = Arrays.copyOf(resNums, size);
+		insCodes = Arrays.copyOf(insCodes, size);
+		resNameIdx = Arrays.copyOf(resNameIdx, size);
+		chainIdx = Arrays.copyOf(chainIdx, size);
+	}
+
+	/** Creates the CA atoms of a domain. Every call returns new atoms, groups and chains.
+	 *
+	 * @param name the name of the domain
+	 * @return the atoms, or null if the domain is not in the store
+	 */
+	public Atom[] getAtoms(String name) {
+		int from, to;
+		float[] coords;
+		int[] resNums;
+		char[] insCodes;
+		short[] resNameIdx;
+		short[] chainIdx;
+		String[] resNames, chainNames;
+		synchronized (this) {
+			Integer d = domainIndex.get(name);
+			if ( d == null)
+				return null;
+			from = domainStart[d];
+			to = domainStart[d + 1];
+			coords = this.coords;
+			resNums = this.resNums;
+			insCodes = this.insCodes;
+			resNameIdx = this.resNameIdx;
+			chainIdx = this.chainIdx;
+			resNames = this.resNames.toArray(new String[this.resNames.size()]);
+			chainNames = this.chainNames.toArray(new String[this.chainNames.size()]);
+		}
+
+		Atom[] ca = new Atom[to - from];
+		Map<String, Chain> chains = new HashMap<String, Chain>();
+		for (int r = from ; r < to ; r++){
+			Atom a = new AtomImpl();
+			a.setName("CA");
+			a.setFullName(" CA ");
+			a.setX(coords[3 * r]);
+			a.setY(coords[3 * r + 1]);
+			a.setZ(coords[3 * r + 2]);
+
+			String chainId = chainNames[chainIdx[r]];
+			Chain chain = chains.get(chainId);
+			if ( chain == null) {
+				chain = new ChainImpl();
+				chain.setChainID(chainId);
+				chains.put(chainId, chain);
+			}
+			String resName = resNames[resNameIdx[r]];
+			Group g = resName.length() == 3 ? new AminoAcidImpl() : new HetatomImpl();
+			try {
+				g.setPDBName(resName);
+			} catch (PDBParseException e){
+				// can not happen, the length has been checked
+				throw new IllegalStateException(e);
+			}
+			char ins = insCodes[r];
+			g.setResidueNumber(new ResidueNumber(chainId, resNums[r], ins == ' ' ? null : ins));
+			g.addAtom(a);
+			chain.addGroup(g);
+			ca[r - from] = a;
+		}
+		return ca;
+	}
+
+	/** Loads the CA atoms of domains that are not in the store yet. Domains that can not be loaded are reported
+	 * on System.err and skipped.
+	 *
+	 * @param cache the cache to load the structures from. Set {@link AtomCache#setAutoFetch(boolean)} to false
+	 * to only use local files.
+	 * @param names the names of the domains
+	 * @param executor the executor to load the domains on, or null to load them in the calling thread
+	 * @return the number of loaded domains
+	 */
+	public int load(final AtomCache cache, Collection<String> names, ExecutorService executor) {
+		final List<String> todo = new ArrayList<String>();
+		for (String name : new LinkedHashSet<String>(names)){
+			if ( ! contains(name))
+				todo.add(name);
+		}
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicInteger loaded = new AtomicInteger();
+		Runnable worker = new Runnable() {
+			public void run() {
+				int i;
+				while ( (i = next.getAndIncrement()) < todo.size()) {
+					String name = todo.get(i);
+					try {
+						Atom[] ca = cache.getAtoms(name);
+						add(name, ca);
+						loaded.incrementAndGet();
+					} catch (Exception e){
+						System.err.println("Could not load " + name + ": " + e.getMessage());
+					}
+				}
+			}
+		};
+
+		if ( executor == null) {
+			worker.run();
+		} else {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int t = 0 ; t < todo.size() && t < Runtime.getRuntime().availableProcessors() ; t++)
+				futures.add(executor.submit(worker));
+			for (Future<?> f : futures){
+				try {
+					f.get();
+				} catch (Exception e){
+					throw new IllegalStateException("Loading domains failed", e);
+				}
+			}
+		}
+		return loaded.get();
+	}
+
+	/** Writes the store to a file.
+	 *
+	 * @param file the file to write
+	 * @throws IOException if the file can not be written
+	 */
+	public synchronized void write(File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeInt(FILE_MAGIC);
+			out.writeInt(FILE_VERSION);
+			writeStrings(out, resNames);
+			writeStrings(out, chainNames);
+			out.writeInt(domainNames.size());
+			for (int d = 0 ; d < domainNames.size() ; d++){
+				out.writeUTF(domainNames.get(d));
+				out.writeInt(domainStart[d + 1] - domainStart[d]);
+			}
+			for (int r = 0 ; r < residues ; r++){
+				out.writeFloat(coords[3 * r]);
+				out.writeFloat(coords[3 * r + 1]);
+				out.writeFloat(coords[3 * r + 2]);
+				out.writeInt(resNums[r]);
+				out.writeChar(insCodes[r]);
+				out.writeShort(resNameIdx[r]);
+				out.writeShort(chainIdx[r]);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/** Reads a store that has been written by {@link #write(File)}.
+	 *
+	 * @param file the file to read
+	 * @return the store
+	 * @throws IOException if the file can not be read or is not a coordinate store
+	 */
+	public static DomainCoordinateStore read(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if ( in.readInt() != FILE_MAGIC)
+				throw new IOException(file + " is not a domain coordinate store");
+			int version = in.readInt();
+			if ( version != FILE_VERSION)
+				throw new IOException("Unsupported version " + version + " of domain coordinate store " + file);
+
+			DomainCoordinateStore store = new DomainCoordinateStore();
+			for (String s : readStrings(in))
+				lookup(s, store.resNames, store.resNameLookup);
+			for (String s : readStrings(in))
+				lookup(s, store.chainNames, store.chainLookup);
+
+			int n = in.readInt();
+			store.domainStart = new int[n + 1];
+			for (int d = 0 ; d < n ; d++){
+				String name = in.readUTF();
+				store.domainIndex.put(name, d);
+				store.domainNames.add(name);
+				store.domainStart[d + 1] = store.domainStart[d] + in.readInt();
+			}
+			int residues = store.domainStart[n];
+			store.ensureCapacity(residues);
+			for (int r = 0 ; r < residues ; r++){
+				store.coords[3 * r]     = in.readFloat();
+				store.coords[3 * r + 1] = in.readFloat();
+				store.coords[3 * r + 2] = in.readFloat();
+				store.resNums[r] = in.readInt();
+				store.insCodes[r] = in.readChar();
+				store.resNameIdx[r] = in.readShort();
+				store.chainIdx[r] = in.readShort();
+			}
+			store.residues = residues;
+			return store;
+		} finally {
+			in.close();
+		}
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+		out.writeInt(strings.size());
+		for (String s : strings)
+			out.writeUTF(s);
+	}
+
+	private static List<String> readStrings(DataInputStream in) throws IOException {
+		int n = in.readInt();
+		List<String> strings = new ArrayList<String>(n);
+		for (int i = 0 ; i < n ; i++)
+			strings.add(in.readUTF());
+		return strings;
+	}
+}
@@ -26,6 +26,7 @@ package org.biojava.bio.structure.align.ce;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 
 import org.biojava.bio.structure.Atom;
@@ -109,6 +110,14 @@ public class CECalculator {
 
 	List<MatrixListener> matrixListeners;
 
+	// large fragment matrices are calculated in parallel on this executor
+	private ExecutorService executor;
+
+	// set if the next call of extractFragments should use the given intramolecular distances
+	private boolean intraDistancesGiven;
+
+	// the second structure is dist2 rotated by this many residues, see setIntraDistances
+	private int dist2Rotation;
 
 
 	public CECalculator(CeParameters params){
@@ -142,8 +151,12 @@ public class CECalculator {
 		f1 = new int[nse1];
 		f2 = new int[nse2];
 		
-		dist1 = initIntraDistmatrix(ca1, nse1);
-		dist2 = initIntraDistmatrix(ca2, nse2);
+		if ( ! intraDistancesGiven || dist1.length != nse1 || dist2.length != nse2) {
+			dist1 = initIntraDistmatrix(ca1, nse1);
+			dist2 = initIntraDistmatrix(ca2, nse2);
+			dist2Rotation = 0;
+		}
+		intraDistancesGiven = false;
 		
 		
 		if ( debug )
@@ -380,37 +393,8 @@ public class CECalculator {
 
 	public double[][] initSumOfDistances(int nse1, int nse2, int winSize, int  winSizeComb1, Atom[] ca1, Atom[] ca2) {
 
-		double d;
-
-		double[][] mat   = new double[nse1][nse2];
-
-		// init the initial mat[] array.
-		// at this stage mat contains the sum of the distances of fragments of the matrices dist1, dist
-		for(int ise1=0; ise1<nse1; ise1++) {
-			for(int ise2=0; ise2<nse2; ise2++) {
-
-				mat[ise1][ise2]=-1.0;
-
-				if(ise1>nse1-winSize || ise2>nse2-winSize) continue;
-
-				d=0.0; 
-				// this sums up over the distances of the fragments
-				for(int is1=0; is1<winSize-2; is1++)
-					for(int is2=is1+2; is2<winSize; is2++) {
-						//System.out.println("pos1 :" +  (ise1+is1) + " " + (ise1+is2) +  " " + (ise2+is1) + " " + (ise2+is2));
-						// is this abs or floor? check!
-						d+=Math.abs(dist1[ise1+is1][ise1+is2]-dist2[ise2+is1][ise2+is2]);							
-					}					
-				mat[ise1][ise2]=d/winSizeComb1;					
-
-				//System.out.println("mat ["+ise1+"]["+ise2+"]="+mat[ise1][ise2]);
-			}
-
-		}
-
-		// verified: mat[][] probably ok.
-
-		return mat;
+		// at this stage mat contains the sum of the distances of fragments of the matrices dist1, dist2
+		return FragmentSimilarity.initSumOfDistances(dist1, dist2, dist2Rotation, nse1, nse2, winSize, winSizeComb1, executor);
 	}
 
 
@@ -893,21 +877,29 @@ nBestTrace=nTrace;
 
 		for(int itrace=0; itrace<nTrace; itrace++) {
 			score+=  Math.abs(dist1[trace1[itrace]][mse1]-
-					dist2[trace2[itrace]][mse2]);
+					getDist2(trace2[itrace], mse2));
 
 			score+=  Math.abs(dist1[trace1[itrace]+winSize-1]
 			                        [mse1+winSize-1]-
-			                        dist2[trace2[itrace]+winSize-1][mse2+winSize-1]);
+			                        getDist2(trace2[itrace]+winSize-1, mse2+winSize-1));
 
 			for(int id=1; id<winSize-1; id++) 
 				score+=  Math.abs(dist1[trace1[itrace]+id][mse1+winSize-1-id]-
-						dist2[trace2[itrace]+id][mse2+winSize-1-id]);
+						getDist2(trace2[itrace]+id, mse2+winSize-1-id));
 
 		}
 		
 		return score;
 	}
 
+	/** the distance between the residues i and j of the second structure, taking the rotation of dist2 into account */
+	private double getDist2(int i, int j) {
+		if ( dist2Rotation == 0)
+			return dist2[i][j];
+		int n = dist2.length;
+		return dist2[(i+dist2Rotation)%n][(j+dist2Rotation)%n];
+	}
+
 	public void nextStep( AFPChain afpChain,
 			Atom[] ca1, Atom[] ca2) throws StructureException{
 
@@ -2162,7 +2154,10 @@ nBestTrace=nTrace;
 			 afpChain.setDisTable1(new Matrix(dist1));
 		 else 
 			 afpChain.setDisTable1 (Matrix.identity(3, 3));
-		 if ( nse2 > 0 && dist2.length > 0 )
+		 // a rotated dist2 is not in the order of ca2, the caller has to provide the table
+		 if ( dist2Rotation != 0)
+			 afpChain.setDisTable2(null);
+		 else if ( nse2 > 0 && dist2.length > 0 )
 			 afpChain.setDisTable2(new Matrix(dist2));
 		 else
 			 afpChain.setDisTable2(Matrix.identity(3, 3));
@@ -2334,7 +2329,54 @@ nBestTrace=nTrace;
 
 	public void setDist2(double[][] dist2) {
 		this.dist2 = dist2;
+		dist2Rotation = 0;
+	}
+
+	/** Provides the intramolecular distance matrices for the next call of
+	 * {@link #extractFragments(AFPChain, Atom[], Atom[]) extractFragments}, which then does not calculate them
+	 * from the atoms. This allows callers that align the same structures repeatedly to calculate them only once.
+	 * The matrices are only read, so they can be shared between calculators.
+	 * 
+	 * @param dist1 the distances between the atoms of the first structure
+	 * @param dist2 the distances between the atoms of the second structure
+	 */
+	public void setIntraDistances(double[][] dist1, double[][] dist2) {
+		setIntraDistances(dist1, dist2, 0);
+	}
+
+	/** Provides the intramolecular distance matrices for the next call of
+	 * {@link #extractFragments(AFPChain, Atom[], Atom[]) extractFragments}, where the second structure
+	 * is a circular permutation of the structure of dist2: the distance between its residues i and j is
+	 * dist2[(i+rotation2)%n2][(j+rotation2)%n2]. This avoids copying dist2 for every permutation.
+	 * 
+	 * <p>The distance table of the second structure is not set on the resulting alignment if rotation2 is not 0.
+	 * 
+	 * @param dist1 the distances between the atoms of the first structure
+	 * @param dist2 the distances between the atoms of the second structure before the permutation
+	 * @param rotation2 the number of residues the second structure is rotated by, 0 &lt;= rotation2 &lt; n2
+	 */
+	public void setIntraDistances(double[][] dist1, double[][] dist2, int rotation2) {
+		this.dist1 = dist1;
+		this.dist2 = dist2;
+		dist2Rotation = rotation2;
+		intraDistancesGiven = true;
 	}
 	 
 	 
+	/** Returns the executor used to calculate large fragment matrices in parallel.
+	 * 
+	 * @return the executor, or null if all calculations are done in the calling thread
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/** Sets the executor used to calculate large fragment matrices in parallel.
+	 * 
+	 * @param executor the executor, or null to do all calculations in the calling thread (default)
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
 }
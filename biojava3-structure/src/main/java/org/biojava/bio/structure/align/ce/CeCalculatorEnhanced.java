@@ -26,6 +26,7 @@ package org.biojava.bio.structure.align.ce;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 
 import org.biojava.bio.structure.Atom;
@@ -111,6 +112,9 @@ public class CeCalculatorEnhanced {
 
 	List<MatrixListener> matrixListeners;
 
+	// large fragment matrices are calculated in parallel on this executor
+	private ExecutorService executor;
+
 	public static final boolean GLOBAL_ALIGN1 = false;
 	public static final boolean GLOBAL_ALIGN2 = false;
 
@@ -383,37 +387,8 @@ public class CeCalculatorEnhanced {
 
 	public double[][] initSumOfDistances(int nse1, int nse2, int winSize, int  winSizeComb1, Atom[] ca1, Atom[] ca2) {
 
-		double d;
-
-		double[][] mat   = new double[nse1][nse2];
-
-		// init the initial mat[] array.
-		// at this stage mat contains the sum of the distances of fragments of the matrices dist1, dist
-		for(int ise1=0; ise1<nse1; ise1++) {
-			for(int ise2=0; ise2<nse2; ise2++) {
-
-				mat[ise1][ise2]=-1.0;
-
-				if(ise1>nse1-winSize || ise2>nse2-winSize) continue;
-
-				d=0.0; 
-				// this sums up over the distances of the fragments
-				for(int is1=0; is1<winSize-2; is1++)
-					for(int is2=is1+2; is2<winSize; is2++) {
-						//System.out.println("pos1 :" +  (ise1+is1) + " " + (ise1+is2) +  " " + (ise2+is1) + " " + (ise2+is2));
-						// is this abs or floor? check!
-						d+=Math.abs(dist1[ise1+is1][ise1+is2]-dist2[ise2+is1][ise2+is2]);							
-					}					
-				mat[ise1][ise2]=d/winSizeComb1;					
-
-				//System.out.println("mat ["+ise1+"]["+ise2+"]="+mat[ise1][ise2]);
-			}
-
-		}
-
-		// verified: mat[][] probably ok.
-
-		return mat;
+		// at this stage mat contains the sum of the distances of fragments of the matrices dist1, dist2
+		return FragmentSimilarity.initSumOfDistances(dist1, dist2, nse1, nse2, winSize, winSizeComb1, executor);
 	}
 
 
@@ -2419,4 +2394,20 @@ nBestTrace=nTrace;
 	}
 
 
+	/** Returns the executor used to calculate large fragment matrices in parallel.
+	 * 
+	 * @return the executor, or null if all calculations are done in the calling thread
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/** Sets the executor used to calculate large fragment matrices in parallel.
+	 * 
+	 * @param executor the executor, or null to do all calculations in the calling thread (default)
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
 }
@@ -24,6 +24,8 @@
 
 package org.biojava.bio.structure.align.ce;
 
+import java.util.concurrent.ExecutorService;
+
 
 import org.biojava.bio.structure.Atom;
 import org.biojava.bio.structure.Group;
@@ -55,6 +57,7 @@ public class CeMain extends AbstractStructureAlignment implements StructureAlign
 	protected CeParameters params;
 	protected CECalculator calculator;
 	private Atom[] ca2clone;
+	private ExecutorService executor;
 	
 	public CeMain(){
 		super();
@@ -94,6 +97,30 @@ public class CeMain extends AbstractStructureAlignment implements StructureAlign
 	 * Align ca2 onto ca1.
 	 */
 	public AFPChain align(Atom[] ca1, Atom[] ca2, Object param) throws StructureException{		
+		return align(ca1, ca2, param, null, null);
+	}
+
+	/**
+	 * Align ca2 onto ca1, using intramolecular distance matrices that have been calculated before.
+	 * 
+	 * @param dist1 the distances between the atoms of ca1, or null to calculate them
+	 * @param dist2 the distances between the atoms of ca2, or null to calculate them
+	 */
+	AFPChain align(Atom[] ca1, Atom[] ca2, Object param, double[][] dist1, double[][] dist2) throws StructureException{
+		return align(ca1, ca2, param, dist1, dist2, 0);
+	}
+
+	/**
+	 * Align ca2 onto ca1, where ca2 is a circular permutation of a structure whose distance matrix
+	 * has been calculated before: the distance between the atoms i and j of ca2 is
+	 * dist2[(i+rotation2)%n2][(j+rotation2)%n2]. The alignment has no distance table of ca2 if rotation2 is not 0.
+	 * 
+	 * @param dist1 the distances between the atoms of ca1, or null to calculate them
+	 * @param dist2 the distances between the atoms of the unpermuted ca2, or null to calculate them
+	 * @param rotation2 the number of residues ca2 is rotated by
+	 * @see CECalculator#setIntraDistances(double[][], double[][], int)
+	 */
+	AFPChain align(Atom[] ca1, Atom[] ca2, Object param, double[][] dist1, double[][] dist2, int rotation2) throws StructureException{
 		if ( ! (param instanceof CeParameters))
 			throw new IllegalArgumentException("CE algorithm needs an object of call CeParameters as argument.");
 
@@ -112,6 +139,9 @@ public class CeMain extends AbstractStructureAlignment implements StructureAlign
 		}
 
 		calculator = new CECalculator(params);
+		calculator.setExecutor(executor);
+		if ( dist1 != null && dist2 != null)
+			calculator.setIntraDistances(dist1, dist2, rotation2);
 
 		//Build alignment ca1 to ca2-ca2
 		AFPChain afpChain = new AFPChain();
@@ -179,4 +209,21 @@ public class CeMain extends AbstractStructureAlignment implements StructureAlign
 	public CECalculator getCECalculator() {
 		return calculator;
 	}
+
+	/** Returns the executor that is used to calculate large fragment matrices in parallel.
+	 * 
+	 * @return the executor, or null if all calculations are done in the calling thread
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/** Sets the executor that is used to calculate large fragment matrices in parallel.
+	 * 
+	 * @param executor the executor, or null to do all calculations in the calling thread (default)
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+		calculator.setExecutor(executor);
+	}
 }
@@ -0,0 +1,282 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.align.ce;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** Calculates the CE fragment similarity matrix, i.e. for every pair of fragments of length winSize
+ * the average difference of their intra-fragment distances.
+ *
+ * For the fragments starting at ise1 and ise2 the CE matrix is
+ * <pre>
+ * mat[ise1][ise2] = sum over 0 &lt;= is1, is1 + 2 &lt;= is2 &lt; winSize of
+ *                   |dist1[ise1+is1][ise1+is2] - dist2[ise2+is1][ise2+is2]| / winSizeComb1
+ * </pre>
+ * Grouping the terms by the offset k = is2 - is1 shows that the cells along a diagonal of the matrix share most
+ * of their terms: moving from (ise1,ise2) to (ise1+1,ise2+1) adds one term and removes one term per offset.
+ * This class calculates every term of a diagonal once and keeps one running sum per offset while it walks along
+ * the diagonal, which reduces the cost per cell from winSize<sup>2</sup> to winSize operations. The distances for each offset are copied into flat arrays first,
+ * so the inner loops only read consecutive memory.
+ *
+ * Blocks of rows are distributed over the threads of an executor. The calling thread works on blocks as well,
+ * so the calculation also completes if all threads of the executor are busy, e.g. when CE itself is running
+ * in that executor.
+ *
+ * The result matches the original double loop up to floating point rounding.
+ *
+ * @since 3.0.6
+ */
+public class FragmentSimilarity {
+
+	/** matrices with fewer cells are always calculated in the calling thread */
+	public static final int PARALLEL_THRESHOLD = 200000;
+
+	private static final int BLOCK_ROWS = 64;
+
+	private final double[] band1;
+	private final double[] band2;
+	private final int nse1;
+	private final int nse2;
+	private final int winSize;
+	private final int winSizeComb1;
+	private final int rows;
+	private final int cols;
+
+	private final double[][] mat;
+
+	private FragmentSimilarity(double[][] dist1, double[][] dist2, int rotation2, int nse1, int nse2, int winSize, int winSizeComb1){
+		this.nse1 = nse1;
+		this.nse2 = nse2;
+		this.winSize = winSize;
+		this.winSizeComb1 = winSizeComb1;
+
+		rows = nse1 - winSize + 1;
+		cols = nse2 - winSize + 1;
+
+		band1 = bands(dist1, 0, nse1, winSize);
+		band2 = bands(dist2, rotation2, nse2, winSize);
+
+		mat = new double[nse1][nse2];
+	}
+
+	/** Calculates the CE fragment similarity matrix in the calling thread.
+	 *
+	 * @param dist1 intramolecular distance matrix of the first structure
+	 * @param dist2 intramolecular distance matrix of the second structure
+	 * @param nse1 number of residues of the first structure
+	 * @param nse2 number of residues of the second structure
+	 * @param winSize fragment length
+	 * @param winSizeComb1 the number of distance pairs per fragment, (winSize-1)*(winSize-2)/2
+	 * @return the matrix. Cells that do not start a complete fragment are -1.
+	 */
+	public static double[][] initSumOfDistances(double[][] dist1, double[][] dist2, int nse1, int nse2, int winSize, int winSizeComb1){
+		return initSumOfDistances(dist1, dist2, nse1, nse2, winSize, winSizeComb1, null);
+	}
+
+	/** Calculates the CE fragment similarity matrix, distributing blocks of rows over the threads of an executor.
+	 *
+	 * @param dist1 intramolecular distance matrix of the first structure
+	 * @param dist2 intramolecular distance matrix of the second structure
+	 * @param nse1 number of residues of the first structure
+	 * @param nse2 number of residues of the second structure
+	 * @param winSize fragment length
+	 * @param winSizeComb1 the number of distance pairs per fragment, (winSize-1)*(winSize-2)/2
+	 * @param executor the executor to use for large matrices, or null to use only the calling thread
+	 * @return the matrix. Cells that do not start a complete fragment are -1.
+	 */
+	public static double[][] initSumOfDistances(double[][] dist1, double[][] dist2, int nse1, int nse2, int winSize, int winSizeComb1,
+			ExecutorService executor){
+		return initSumOfDistances(dist1, dist2, 0, nse1, nse2, winSize, winSizeComb1, executor);
+	}
+
+	/** Calculates the CE fragment similarity matrix for a circular permutation of the second structure,
+	 * whose distances are dist2[(i+rotation2)%nse2][(j+rotation2)%nse2].
+	 *
+	 * @param dist1 intramolecular distance matrix of the first structure
+	 * @param dist2 intramolecular distance matrix of the second structure before the permutation
+	 * @param rotation2 the number of residues the second structure is rotated by
+	 * @param nse1 number of residues of the first structure
+	 * @param nse2 number of residues of the second structure
+	 * @param winSize fragment length
+	 * @param winSizeComb1 the number of distance pairs per fragment, (winSize-1)*(winSize-2)/2
+	 * @param executor the executor to use for large matrices, or null to use only the calling thread
+	 * @return the matrix. Cells that do not start a complete fragment are -1.
+	 */
+	public static double[][] initSumOfDistances(double[][] dist1, double[][] dist2, int rotation2, int nse1, int nse2,
+			int winSize, int winSizeComb1, ExecutorService executor){
+
+		FragmentSimilarity calc = new FragmentSimilarity(dist1, dist2, rotation2, nse1, nse2, winSize, winSizeComb1);
+		calc.run(executor);
+		return calc.mat;
+	}
+
+	/** copies the distances dist[p][p+k] for k = 2 .. winSize-1 into one flat array, one band per offset.
+	 * With a rotation the indices p and p+k are shifted by it, modulo nse. */
+	private static double[] bands(double[][] dist, int rotation, int nse, int winSize){
+		int nk = Math.max(0, winSize - 2);
+		double[] band = new double[nk * nse];
+		for (int k = 2 ; k < winSize ; k++){
+			int off = (k - 2) * nse;
+			for (int p = 0 ; p + k < nse ; p++)
+				band[off + p] = dist[(p + rotation) % nse][(p + k + rotation) % nse];
+		}
+		return band;
+	}
+
+	private void run(ExecutorService executor){
+		if ( rows <= 0 || cols <= 0) {
+			for (double[] row : mat)
+				Arrays.fill(row, -1.0);
+			return;
+		}
+
+		final int nBlocks = (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+
+		int nHelpers = 0;
+		if ( executor != null && (long) rows * cols >= PARALLEL_THRESHOLD) {
+			int threads;
+			if ( executor instanceof ThreadPoolExecutor)
+				threads = ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+			else
+				threads = Runtime.getRuntime().availableProcessors();
+			nHelpers = Math.min(threads, nBlocks) - 1;
+		}
+
+		if ( nHelpers <= 0) {
+			calcRows(0, nse1);
+			return;
+		}
+
+		final AtomicInteger nextBlock = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(nBlocks);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+		Runnable worker = new Runnable() {
+			public void run() {
+				int block;
+				while ( (block = nextBlock.getAndIncrement()) < nBlocks) {
+					try {
+						int start = block * BLOCK_ROWS;
+						// the last block also fills the rows that do not start a fragment
+						int end = (block == nBlocks - 1) ? nse1 : start + BLOCK_ROWS;
+						calcRows(start, end);
+					} catch (Throwable t){
+						error.compareAndSet(null, t);
+					} finally {
+						done.countDown();
+					}
+				}
+			}
+		};
+
+		for (int i = 0 ; i < nHelpers ; i++) {
+			try {
+				executor.execute(worker);
+			} catch (RejectedExecutionException e){
+				// the calling thread does the remaining work
+				break;
+			}
+		}
+		worker.run();
+
+		// the remaining blocks are being calculated by helpers that are already running
+		boolean interrupted = false;
+		while (true) {
+			try {
+				done.await();
+				break;
+			} catch (InterruptedException e){
+				interrupted = true;
+			}
+		}
+		if ( interrupted)
+			Thread.currentThread().interrupt();
+
+		Throwable t = error.get();
+		if ( t instanceof RuntimeException)
+			throw (RuntimeException) t;
+		if ( t instanceof Error)
+			throw (Error) t;
+	}
+
+	/** fills the rows start (inclusive) to end (exclusive) of the matrix */
+	private void calcRows(int start, int end){
+
+		for (int ise1 = start ; ise1 < end ; ise1++)
+			Arrays.fill(mat[ise1], -1.0);
+
+		int last = Math.min(end, rows);
+		if ( start >= last)
+			return;
+
+		// work arrays for one diagonal: the terms of one offset and the sums of the cells
+		double[] terms = new double[Math.max(rows, cols) + winSize];
+		double[] sums  = new double[Math.max(rows, cols)];
+
+		// every diagonal that crosses this block of rows, entering either at the first row or at the first column
+		for (int ise2 = cols - 1 ; ise2 > 0 ; ise2--)
+			calcDiagonal(start, ise2, last, terms, sums);
+		for (int ise1 = start ; ise1 < last ; ise1++)
+			calcDiagonal(ise1, 0, last, terms, sums);
+	}
+
+	/** calculates the cells of the diagonal from (ise1, ise2) until row last or the last column */
+	private void calcDiagonal(int ise1, int ise2, int last, double[] terms, double[] sums){
+
+		int m = Math.min(last - ise1, cols - ise2);
+
+		Arrays.fill(sums, 0, m, 0.0);
+
+		for (int k = 0 ; k < winSize - 2 ; k++){
+			int off1 = k * nse1 + ise1;
+			int off2 = k * nse2 + ise2;
+			int len = winSize - 2 - k; // the number of terms of a window for offset k+2
+
+			// every term is calculated once and then used by all cells whose window contains it
+			int n = m + len - 1;
+			for (int q = 0 ; q < n ; q++)
+				terms[q] = Math.abs(band1[off1 + q] - band2[off2 + q]);
+
+			double s = 0.0;
+			for (int q = 0 ; q < len ; q++)
+				s += terms[q];
+			sums[0] += s;
+
+			// moving to the next cell adds the term that enters the window and removes the one that leaves it
+			for (int t = 1 ; t < m ; t++){
+				s += terms[t + len - 1] - terms[t - 1];
+				sums[t] += s;
+			}
+		}
+
+		for (int t = 0 ; t < m ; t++)
+			mat[ise1 + t][ise2 + t] = sums[t] / winSizeComb1;
+	}
+}
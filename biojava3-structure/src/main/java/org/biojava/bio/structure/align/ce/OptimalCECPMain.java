@@ -29,6 +29,13 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.biojava.bio.structure.Atom;
 import org.biojava.bio.structure.StructureException;
@@ -234,9 +241,14 @@ public class OptimalCECPMain extends CeMain {
 			afpChain.setSequentialAlignment(false);
 		// fix up matrices
 		// ca1 corresponds to row indices, while ca2 corresponds to column indices.
-		afpChain.setDistanceMatrix(permuteMatrix(afpChain.getDistanceMatrix(),0,-cp));
+		// alignments without aligned residues have no matrices
+		if(afpChain.getDistanceMatrix() != null) {
+			afpChain.setDistanceMatrix(permuteMatrix(afpChain.getDistanceMatrix(),0,-cp));
+		}
 		// this is square, so permute both
-		afpChain.setDisTable2(permuteMatrix(afpChain.getDisTable2(),-cp,-cp));
+		if(afpChain.getDisTable2() != null) {
+			afpChain.setDisTable2(permuteMatrix(afpChain.getDisTable2(),-cp,-cp));
+		}
 
 		//TODO fix up other AFP parameters?
 		
@@ -458,6 +470,15 @@ public class OptimalCECPMain extends CeMain {
 	 * quite slow. Use {@link #alignHeuristic(Atom[], Atom[], Object)} for a
 	 * faster algorithm.
 	 * 
+	 * <p>The intramolecular distances are calculated once and rotated for each
+	 * CP site. The CP sites are aligned in parallel, on the
+	 * {@link #setExecutor(ExecutorService) executor} if one is set and on a
+	 * temporary thread pool otherwise. If <i>alignments</i> is null, CP sites
+	 * which can not produce any alignment are skipped: CE only starts an
+	 * alignment from a pair of fragments which is more similar than the
+	 * {@link CeParameters#getRmsdThr() rmsdThr}, so CP sites without such a
+	 * pair score 0 and can not beat the unpermuted alignment.
+	 * 
 	 * @param ca1 CA atoms of the first protein
 	 * @param ca2 CA atoms of the second protein
 	 * @param param {@link CeParameters} object
@@ -472,58 +493,64 @@ public class OptimalCECPMain extends CeMain {
 	{
 		long startTime = System.currentTimeMillis();
 		
-		if(alignments.length != ca2.length) {
+		if(alignments != null && alignments.length != ca2.length) {
 			throw new IllegalArgumentException("scores param should have same length as ca2");
 		}
 		
 		AFPChain unaligned = super.align(ca1, ca2, param);
 		AFPChain bestAlignment = unaligned;
-		
+
+		if(alignments != null) {
+			alignments[0] = unaligned;
+		}
+
+		// the distances of the unpermuted alignment are rotated for every CP site
+		double[][] dist1 = calculator.getDist1();
+		double[][] dist2 = calculator.getDist2();
+
+		boolean[] seeded = null;
+		if(alignments == null) {
+			seeded = findSeededCutPoints(dist1, dist2, (CeParameters) param);
+		}
+
+		List<Integer> cutPoints = new ArrayList<Integer>(ca2.length);
+		for(int cp=1;cp<ca2.length;cp++) {
+			if(seeded == null || seeded[cp]) {
+				cutPoints.add(cp);
+			}
+		}
+
 		if(debug) {
 			// print progress bar header
 			System.out.print("|");
-			for(int cp=1;cp<ca2.length-1;cp++) {
+			for(int i=1;i<cutPoints.size();i++) {
 				System.out.print("=");
 			}
 			System.out.println("|");
 			System.out.print(".");
 		}
 
-		if(alignments != null) {
-			alignments[0] = unaligned;
-		}
-		
-		for(int cp=1;cp<ca2.length;cp++) {
-			// clone ca2 to prevent side effects from propegating
-			Atom[] ca2p = StructureTools.cloneCAArray(ca2);
+		AFPChain[] permuted = alignCutPoints(ca1, ca2, param, dist1, dist2, cutPoints);
 
-			//permute one each time. Alters ca2p as a side effect
-			AFPChain currentAlignment = alignPermuted(ca1,ca2p,param,cp);
-			
-			// increment progress bar
-			if(debug) System.out.print(".");
-			
-			// fix up names, since cloning ca2 wipes it
-			try {
-				currentAlignment.setName2(ca2[0].getGroup().getChain().getParent().getName()+" CP="+cp);
-			} catch( Exception e) {
-				//null pointers, empty arrays, etc.
+		// CP sites are compared in order, so the result does not depend on the scheduling
+		for(int cp=1;cp<ca2.length;cp++) {
+			AFPChain currentAlignment = permuted[cp];
+			if(currentAlignment == null) {
+				continue;
 			}
-			double currentScore = currentAlignment.getAlignScore();
-			
 			if(alignments != null) {
 				alignments[cp] = currentAlignment;
 			}
-			
-			if(currentScore>bestAlignment.getAlignScore()) {
+			if(currentAlignment.getAlignScore()>bestAlignment.getAlignScore()) {
 				bestAlignment = currentAlignment;
 			}
 		}
+
 		if(debug) {
 			long elapsedTime = System.currentTimeMillis()-startTime;
 			System.out.println();
 			System.out.format("%d alignments took %.4f s (%.1f ms avg)\n",
-					ca2.length, elapsedTime/1000., (double)elapsedTime/ca2.length);
+					cutPoints.size()+1, elapsedTime/1000., (double)elapsedTime/(cutPoints.size()+1));
 		}
 
 		
@@ -531,9 +558,203 @@ public class OptimalCECPMain extends CeMain {
 		
 	}
 
+	/**
+	 * Aligns ca1 with ca2 permuted at each of the given CP sites.
+	 * 
+	 * <p>Every CP site is aligned by its own {@link CeMain}, since CeMain keeps
+	 * the state of the alignment. The tasks take the next CP site from a shared
+	 * counter and the calling thread runs them as well, so all CP sites are
+	 * aligned even if the executor is busy.
+	 * 
+	 * @return the alignments, indexed by CP site
+	 */
+	private AFPChain[] alignCutPoints(final Atom[] ca1, final Atom[] ca2, final Object param,
+			final double[][] dist1, final double[][] dist2, final List<Integer> cutPoints)
+	throws StructureException
+	{
+		final AFPChain[] results = new AFPChain[ca2.length];
+		final AtomicInteger next = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(cutPoints.size());
+		final AtomicReference<Exception> error = new AtomicReference<Exception>();
+		final String name2 = getName(ca2);
+
+		Runnable worker = new Runnable() {
+			public void run() {
+				int i;
+				while( (i = next.getAndIncrement()) < cutPoints.size()) {
+					int cp = cutPoints.get(i);
+					try {
+						if(error.get() == null) {
+							results[cp] = alignRotated(ca1, ca2, param, dist1, dist2, cp, name2);
+						}
+					} catch(Exception e) {
+						error.compareAndSet(null, e);
+					} finally {
+						done.countDown();
+					}
+					// increment progress bar
+					if(debug) System.out.print(".");
+				}
+			}
+		};
+
+		int threads = Math.min(cutPoints.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = getExecutor();
+		ExecutorService pool = null;
+		if(executor == null && threads > 1) {
+			pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "OptimalCECP");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+			executor = pool;
+		}
+
+		try {
+			if(executor != null) {
+				for(int i=1;i<threads;i++) {
+					try {
+						executor.execute(worker);
+					} catch(RejectedExecutionException e) {
+						// the calling thread aligns the remaining CP sites
+						break;
+					}
+				}
+			}
+			worker.run();
+
+			// wait for the CP sites that are still being aligned by other threads
+			boolean interrupted = false;
+			while(true) {
+				try {
+					done.await();
+					break;
+				} catch(InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if(interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		} finally {
+			if(pool != null) {
+				pool.shutdown();
+			}
+		}
+
+		Exception e = error.get();
+		if(e instanceof StructureException) {
+			throw (StructureException) e;
+		}
+		if(e instanceof RuntimeException) {
+			throw (RuntimeException) e;
+		}
+		return results;
+	}
+
+	/**
+	 * Aligns ca1 with ca2 permuted by <i>cp</i> residues, without modifying ca2.
+	 * The permuted distances are read from dist2 by rotating its indices,
+	 * dist2 itself is not copied.
+	 */
+	private AFPChain alignRotated(Atom[] ca1, Atom[] ca2, Object param,
+			double[][] dist1, double[][] dist2, int cp, String name2)
+	throws StructureException
+	{
+		int n2 = ca2.length;
+
+		Atom[] ca2p = new Atom[n2];
+		System.arraycopy(ca2, cp, ca2p, 0, n2-cp);
+		System.arraycopy(ca2, 0, ca2p, n2-cp, cp);
+
+		CeMain ce = new CeMain();
+		AFPChain afpChain = ce.align(ca1, ca2p, param, dist1, dist2, cp);
+
+		// un-permute alignment
+		permuteAFPChain(afpChain, -cp);
+
+		// dist2 is already in the order of the un-permuted alignment
+		if(n2 > 0) {
+			afpChain.setDisTable2(new Matrix(dist2));
+		}
+
+		afpChain.setAlgorithmName(getAlgorithmName());
+		afpChain.setVersion(getVersion());
+		if(name2 != null) {
+			afpChain.setName2(name2+" CP="+cp);
+		}
+		return afpChain;
+	}
+
+	/**
+	 * Finds the CP sites at which CE can start an alignment, i.e. where a pair
+	 * of fragments differs by less than the rmsdThr.
+	 * 
+	 * <p>The fragment similarities of all CP sites are obtained from a single
+	 * matrix, which compares the fragments of ca1 with the fragments of ca2
+	 * starting at every residue and wrapping around its terminus. Permuting ca2
+	 * by cp residues keeps all fragments except the winSize-1 ones which cross
+	 * the new terminus.
+	 * 
+	 * @return for every CP site, whether it has at least one pair of similar fragments
+	 */
+	private static boolean[] findSeededCutPoints(double[][] dist1, double[][] dist2, CeParameters params) {
+		int n1 = dist1.length;
+		int n2 = dist2.length;
+		int winSize = params.getWinSize();
+		int winSizeComb1 = (winSize-1)*(winSize-2)/2;
+
+		boolean[] seeded = new boolean[n2];
+		if(winSize > n1 || winSize > n2) {
+			// no fragments at all
+			return seeded;
+		}
+
+		// ca2 extended by its first winSize-1 residues
+		int ext = n2+winSize-1;
+		double[][] dist2ext = new double[ext][ext];
+		for(int i=0;i<ext;i++) {
+			for(int j=0;j<ext;j++) {
+				dist2ext[i][j] = dist2[i%n2][j%n2];
+			}
+		}
+		double[][] mat = FragmentSimilarity.initSumOfDistances(dist1, dist2ext, n1, ext, winSize, winSizeComb1);
+
+		// allow for the rounding differences between the circular and the permuted matrices
+		double rmsdThr = params.getRmsdThr() + 1e-9;
+
+		// similar[q]: the fragment starting at residue q of ca2 is similar to a fragment of ca1
+		boolean[] similar = new boolean[n2];
+		for(int ise1=0;ise1<=n1-winSize;ise1++) {
+			for(int q=0;q<n2;q++) {
+				double d = mat[ise1][q];
+				if(d >= 0 && d < rmsdThr) {
+					similar[q] = true;
+				}
+			}
+		}
+
+		// CP site cp keeps the fragments starting at cp .. cp+n2-winSize (mod n2)
+		for(int cp=0;cp<n2;cp++) {
+			for(int i=0;i<=n2-winSize && !seeded[cp];i++) {
+				seeded[cp] = similar[(cp+i)%n2];
+			}
+		}
+		return seeded;
+	}
+
+	private static String getName(Atom[] ca) {
+		try {
+			return ca[0].getGroup().getChain().getParent().getName();
+		} catch( Exception e) {
+			//null pointers, empty arrays, etc.
+			return null;
+		}
+	}
 
 
-	
 	public static void main(String[] args){
 		try {
 			String name1, name2;
@@ -34,6 +34,7 @@ import org.biojava.bio.structure.align.ce.ConfigStrucAligParams;
 import org.biojava.bio.structure.align.fatcat.calc.FatCatParameters;
 
 import org.biojava.bio.structure.align.model.AFPChain;
+import org.biojava.bio.structure.align.model.CompactAFPChain;
 
 
 public class FatCatFlexible  extends FatCat implements StructureAlignment{
@@ -72,6 +73,15 @@ public class FatCatFlexible  extends FatCat implements StructureAlignment{
 		return afpChain;
 	}
 
+	/** Run an alignment and only keep its result, not the working data of the algorithm.
+	 * 
+	 * @see AFPChain#compact()
+	 */
+	public CompactAFPChain alignCompact(Atom[] ca1, Atom[] ca2, Object param)
+	throws StructureException {
+		return align(ca1, ca2, param).compact();
+	}
+
 	public String getAlgorithmName() {
 
 		return algorithmName;
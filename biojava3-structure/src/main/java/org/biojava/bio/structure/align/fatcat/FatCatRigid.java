@@ -32,6 +32,7 @@ import org.biojava.bio.structure.align.ce.ConfigStrucAligParams;
 import org.biojava.bio.structure.align.fatcat.calc.FatCatParameters;
 
 import org.biojava.bio.structure.align.model.AFPChain;
+import org.biojava.bio.structure.align.model.CompactAFPChain;
 
 
 public class FatCatRigid extends FatCat implements StructureAlignment{
@@ -69,6 +70,15 @@ public class FatCatRigid extends FatCat implements StructureAlignment{
 		return afpChain;
 	}
 
+	/** Run an alignment and only keep its result, not the working data of the algorithm.
+	 * 
+	 * @see AFPChain#compact()
+	 */
+	public CompactAFPChain alignCompact(Atom[] ca1, Atom[] ca2, Object param)
+	throws StructureException {
+		return align(ca1, ca2, param).compact();
+	}
+
 	public String getAlgorithmName() {
 
 		return algorithmName;
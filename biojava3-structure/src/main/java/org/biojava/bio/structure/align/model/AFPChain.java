@@ -27,6 +27,7 @@ import java.util.Map;
 
 
 import org.biojava.bio.structure.Atom;
+import org.biojava.bio.structure.RigidTransform;
 import org.biojava.bio.structure.align.ce.CeMain;
 import org.biojava.bio.structure.align.ce.CeSideChainMain;
 import org.biojava.bio.structure.align.util.AFPAlignmentDisplay;
@@ -386,6 +387,16 @@ public class AFPChain implements Serializable, Cloneable
 		
 	}
 
+	/** Returns the result of the alignment without the working data of the algorithm, e.g. the distance
+	 * matrices and the AFPs. Use this to keep large numbers of alignment results in memory.
+	 * 
+	 * @return a compact copy of the result
+	 * @see CompactAFPChain
+	 */
+	public CompactAFPChain compact(){
+		return CompactAFPChain.fromAFPChain(this);
+	}
+
 	public String toString(){
 
 		//int lA = ca1Length;
@@ -1271,6 +1282,20 @@ public class AFPChain implements Serializable, Cloneable
 		this.blockShiftVector = blockShiftVector;
 	}
 
+	/** Returns the rotation and shift of a block, which superimpose the second protein onto the first one.
+	 *
+	 * @param block the block number
+	 * @return the transformation, or null if the block has no rotation matrix
+	 */
+	public RigidTransform getBlockTransform(int block)
+	{
+		if ( blockRotationMatrix == null || block >= blockRotationMatrix.length
+				|| blockRotationMatrix[block] == null)
+			return null;
+		Atom shift = blockShiftVector == null || block >= blockShiftVector.length ? null : blockShiftVector[block];
+		return RigidTransform.fromMatrix(blockRotationMatrix[block], shift);
+	}
+
 	public String getAlgorithmName() {
 		return algorithmName;
 	}
@@ -1097,6 +1097,21 @@ public class AfpChainWriter
 		return str.toString();
 	}
 
+	/** The summary of a compact alignment result, in the same format as {@link #toDBSearchResult(AFPChain)}.
+	 * 
+	 * @param result the alignment result
+	 * @return one line of the database search result file
+	 */
+	public static String toDBSearchResult(CompactAFPChain result)
+	{
+		return toDBSearchResult(result.toAFPChain());
+	}
+
+	public static String toRotMat(CompactAFPChain result)
+	{
+		return toRotMat(result.toAFPChain());
+	}
+
 	public static String toRotMat(AFPChain afpChain)
 	{
 
@@ -0,0 +1,732 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.align.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.biojava.bio.structure.Atom;
+import org.biojava.bio.structure.AtomImpl;
+import org.biojava.bio.structure.RigidTransform;
+import org.biojava.bio.structure.jama.Matrix;
+
+/** The result of a pairwise structure alignment, without the working data of the algorithm.
+ *
+ * An {@link AFPChain} keeps the distance matrices, the list of AFPs and other intermediate results of the
+ * alignment, which need memory proportional to the product of the protein lengths. This class only keeps the
+ * scores, the aligned positions as int arrays and the superposition of each block as 12 doubles, so its size is
+ * proportional to the length of the alignment. It is meant for keeping large numbers of results, e.g. of a
+ * database search.
+ *
+ * Use {@link #fromAFPChain(AFPChain)} or {@link AFPChain#compact()} to create it and {@link #toAFPChain()} to
+ * obtain an AFPChain for display or serialization again.
+ *
+ * @since 3.0.6
+ */
+public class CompactAFPChain implements Serializable {
+
+	private static final long serialVersionUID = 3418645120386547206L;
+
+	/** the number of values per block in the {@link #getBlockTransforms() block transforms} */
+	public static final int TRANSFORM_SIZE = 12;
+
+	String algorithmName;
+	String version;
+	String name1;
+	String name2;
+	String description2;
+
+	int ca1Length;
+	int ca2Length;
+	long calculationTime;
+
+	double alignScore;
+	double alignScoreUpdate;
+	double probability;
+	double normAlignScore;
+	double identity;
+	double similarity;
+	double tmScore;
+	double chainRmsd;
+	double totalRmsdIni;
+	double totalRmsdOpt;
+	int totalLenIni;
+	int gapLen;
+	int alnLength;
+	int afpNum;
+	boolean sequentialAlignment;
+
+	// the aligned positions of all blocks, one after the other
+	int[] optLen;
+	int[] aligned1;
+	int[] aligned2;
+
+	// chain:residue number of the aligned positions, if only these are known
+	String[] pdbRes1;
+	String[] pdbRes2;
+
+	int[] blockSize;
+	int[] blockGap;
+	double[] blockScore;
+	double[] blockRmsd;
+	double[] blockTransforms;
+
+	public CompactAFPChain(){
+		algorithmName = AFPChain.DEFAULT_ALGORITHM_NAME;
+		version = "1.0";
+		identity = -1;
+		similarity = -1;
+		tmScore = -1;
+		sequentialAlignment = true;
+		optLen = new int[0];
+		aligned1 = new int[0];
+		aligned2 = new int[0];
+		blockSize = new int[0];
+		blockGap = new int[0];
+		blockScore = new double[0];
+		blockRmsd = new double[0];
+		blockTransforms = new double[0];
+	}
+
+	/** Extracts the result of an alignment. The AFPChain is not modified.
+	 *
+	 * @param afpChain the alignment
+	 * @return the compact representation of the alignment
+	 */
+	public static CompactAFPChain fromAFPChain(AFPChain afpChain){
+
+		CompactAFPChain c = new CompactAFPChain();
+
+		c.algorithmName   = afpChain.getAlgorithmName();
+		c.version         = afpChain.getVersion();
+		c.name1           = afpChain.getName1();
+		c.name2           = afpChain.getName2();
+		c.description2    = afpChain.getDescription2();
+		c.ca1Length       = afpChain.getCa1Length();
+		c.ca2Length       = afpChain.getCa2Length();
+		c.calculationTime = afpChain.getCalculationTime();
+
+		c.alignScore       = afpChain.getAlignScore();
+		c.alignScoreUpdate = afpChain.getAlignScoreUpdate();
+		c.probability      = afpChain.getProbability();
+		c.normAlignScore   = afpChain.getNormAlignScore();
+		c.identity         = afpChain.getIdentity();
+		c.similarity       = afpChain.getSimilarity();
+		c.tmScore          = afpChain.getTMScore();
+		c.chainRmsd        = afpChain.getChainRmsd();
+		c.totalRmsdIni     = afpChain.getTotalRmsdIni();
+		c.totalRmsdOpt     = afpChain.getTotalRmsdOpt();
+		c.totalLenIni      = afpChain.getTotalLenIni();
+		c.gapLen           = afpChain.getGapLen();
+		c.alnLength        = afpChain.getAlnLength();
+		c.afpNum           = afpChain.getAfpSet() == null ? 0 : afpChain.getAfpSet().size();
+		c.sequentialAlignment = afpChain.isSequentialAlignment();
+
+		int blockNum = afpChain.getBlockNum();
+		int[] len = afpChain.getOptLen();
+		int[][][] optAln = afpChain.getOptAln();
+		String[][][] pdbAln = afpChain.getPdbAln();
+		if ( len == null || (optAln == null && pdbAln == null))
+			blockNum = 0;
+
+		c.optLen = new int[blockNum];
+		int total = 0;
+		for (int bk = 0 ; bk < blockNum ; bk++){
+			c.optLen[bk] = len[bk];
+			total += len[bk];
+		}
+
+		if ( optAln != null) {
+			c.aligned1 = new int[total];
+			c.aligned2 = new int[total];
+			int pos = 0;
+			for (int bk = 0 ; bk < blockNum ; bk++){
+				System.arraycopy(optAln[bk][0], 0, c.aligned1, pos, len[bk]);
+				System.arraycopy(optAln[bk][1], 0, c.aligned2, pos, len[bk]);
+				pos += len[bk];
+			}
+		} else if ( blockNum > 0) {
+			// parsed from XML without coordinates
+			c.aligned1 = null;
+			c.aligned2 = null;
+			c.pdbRes1 = new String[total];
+			c.pdbRes2 = new String[total];
+			int pos = 0;
+			for (int bk = 0 ; bk < blockNum ; bk++){
+				System.arraycopy(pdbAln[bk][0], 0, c.pdbRes1, pos, len[bk]);
+				System.arraycopy(pdbAln[bk][1], 0, c.pdbRes2, pos, len[bk]);
+				pos += len[bk];
+			}
+		}
+
+		c.blockSize  = copy(afpChain.getBlockSize(), blockNum);
+		c.blockGap   = copy(afpChain.getBlockGap(), blockNum);
+		c.blockScore = copy(afpChain.getBlockScore(), blockNum);
+		c.blockRmsd  = copy(afpChain.getBlockRmsd(), blockNum);
+
+		Matrix[] rot  = afpChain.getBlockRotationMatrix();
+		Atom[] shift = afpChain.getBlockShiftVector();
+		c.blockTransforms = new double[blockNum * TRANSFORM_SIZE];
+		for (int bk = 0 ; bk < blockNum ; bk++){
+			int off = bk * TRANSFORM_SIZE;
+			if ( rot == null || shift == null || bk >= rot.length || bk >= shift.length
+					|| rot[bk] == null || shift[bk] == null){
+				// no superposition known for this block
+				Arrays.fill(c.blockTransforms, off, off + TRANSFORM_SIZE, Double.NaN);
+				continue;
+			}
+			for (int x = 0 ; x < 3 ; x++)
+				for (int y = 0 ; y < 3 ; y++)
+					c.blockTransforms[off + x * 3 + y] = rot[bk].get(x, y);
+			c.blockTransforms[off + 9]  = shift[bk].getX();
+			c.blockTransforms[off + 10] = shift[bk].getY();
+			c.blockTransforms[off + 11] = shift[bk].getZ();
+		}
+
+		return c;
+	}
+
+	private static int[] copy(int[] values, int n){
+		int[] result = new int[n];
+		if ( values != null)
+			System.arraycopy(values, 0, result, 0, Math.min(n, values.length));
+		return result;
+	}
+
+	private static double[] copy(double[] values, int n){
+		double[] result = new double[n];
+		if ( values != null)
+			System.arraycopy(values, 0, result, 0, Math.min(n, values.length));
+		return result;
+	}
+
+	/** Creates an AFPChain with the content of this result, e.g. for {@link AfpChainWriter} or the XML converter.
+	 * The working data of the alignment algorithm is not available. The alignment strings for display can be
+	 * rebuilt with {@link org.biojava.bio.structure.align.util.AFPAlignmentDisplay#getAlign(AFPChain, Atom[], Atom[])}
+	 * once the atoms are loaded.
+	 *
+	 * @return a new AFPChain
+	 */
+	public AFPChain toAFPChain(){
+		AFPChain a = new AFPChain();
+
+		a.setAlgorithmName(algorithmName);
+		a.setVersion(version);
+		a.setName1(name1);
+		a.setName2(name2);
+		a.setDescription2(description2);
+		a.setCa1Length(ca1Length);
+		a.setCa2Length(ca2Length);
+		a.setCalculationTime(calculationTime);
+
+		a.setAlignScore(alignScore);
+		a.setAlignScoreUpdate(alignScoreUpdate);
+		a.setProbability(probability);
+		a.setNormAlignScore(normAlignScore);
+		a.setIdentity(identity);
+		a.setSimilarity(similarity);
+		a.setTMScore(tmScore);
+		a.setChainRmsd(chainRmsd);
+		a.setTotalRmsdIni(totalRmsdIni);
+		a.setTotalRmsdOpt(totalRmsdOpt);
+		a.setTotalLenIni(totalLenIni);
+		a.setGapLen(gapLen);
+		a.setAlnLength(alnLength);
+		a.setSequentialAlignment(sequentialAlignment);
+
+		List<AFP> afpSet = new ArrayList<AFP>(afpNum);
+		for (int i = 0 ; i < afpNum ; i++)
+			afpSet.add(new AFP());
+		a.setAfpSet(afpSet);
+
+		int blockNum = optLen.length;
+		a.setBlockNum(blockNum);
+		a.setOptLen(optLen.clone());
+		a.setOptLength(getOptLength());
+		a.setTotalLenOpt(getOptLength());
+
+		if ( aligned1 != null)
+			a.setOptAln(getOptAln());
+		else
+			a.setPdbAln(getPdbAln());
+
+		a.setBlockSize(blockSize.clone());
+		a.setBlockGap(blockGap.clone());
+		a.setBlockScore(blockScore.clone());
+		a.setBlockRmsd(blockRmsd.clone());
+
+		Matrix[] rot = new Matrix[blockNum];
+		Atom[] shift = new Atom[blockNum];
+		for (int bk = 0 ; bk < blockNum ; bk++){
+			rot[bk] = getBlockRotationMatrix(bk);
+			shift[bk] = getBlockShiftVector(bk);
+		}
+		a.setBlockRotationMatrix(rot);
+		a.setBlockShiftVector(shift);
+
+		return a;
+	}
+
+	/** Returns the aligned positions, in the layout of {@link AFPChain#getOptAln()}.
+	 *
+	 * @return optAln[block][protein][position], or null if only the residue numbers are known
+	 */
+	public int[][][] getOptAln(){
+		if ( aligned1 == null)
+			return null;
+		int[][][] optAln = new int[optLen.length][2][];
+		int pos = 0;
+		for (int bk = 0 ; bk < optLen.length ; bk++){
+			optAln[bk][0] = Arrays.copyOfRange(aligned1, pos, pos + optLen[bk]);
+			optAln[bk][1] = Arrays.copyOfRange(aligned2, pos, pos + optLen[bk]);
+			pos += optLen[bk];
+		}
+		return optAln;
+	}
+
+	/** Returns the aligned residues as chain:residue number, in the layout of {@link AFPChain#getPdbAln()}.
+	 *
+	 * @return pdbAln[block][protein][position], or null if the aligned positions are known
+	 */
+	public String[][][] getPdbAln(){
+		if ( pdbRes1 == null)
+			return null;
+		String[][][] pdbAln = new String[optLen.length][2][];
+		int pos = 0;
+		for (int bk = 0 ; bk < optLen.length ; bk++){
+			pdbAln[bk][0] = Arrays.copyOfRange(pdbRes1, pos, pos + optLen[bk]);
+			pdbAln[bk][1] = Arrays.copyOfRange(pdbRes2, pos, pos + optLen[bk]);
+			pos += optLen[bk];
+		}
+		return pdbAln;
+	}
+
+	/** Returns the rotation of a block. The rotation is applied to the second protein as in
+	 * {@link AFPChain#getBlockRotationMatrix()}.
+	 *
+	 * @param block the block number
+	 * @return the rotation matrix, or null if it is not known
+	 */
+	public Matrix getBlockRotationMatrix(int block){
+		int off = block * TRANSFORM_SIZE;
+		if ( Double.isNaN(blockTransforms[off]))
+			return null;
+		Matrix m = new Matrix(3, 3);
+		for (int x = 0 ; x < 3 ; x++)
+			for (int y = 0 ; y < 3 ; y++)
+				m.set(x, y, blockTransforms[off + x * 3 + y]);
+		return m;
+	}
+
+	/** Returns the translation of a block, which is applied after the rotation.
+	 *
+	 * @param block the block number
+	 * @return the translation, or null if it is not known
+	 */
+	public Atom getBlockShiftVector(int block){
+		int off = block * TRANSFORM_SIZE;
+		if ( Double.isNaN(blockTransforms[off]))
+			return null;
+		Atom shift = new AtomImpl();
+		shift.setX(blockTransforms[off + 9]);
+		shift.setY(blockTransforms[off + 10]);
+		shift.setZ(blockTransforms[off + 11]);
+		return shift;
+	}
+
+	/** Returns the rotation and shift of a block as one transformation.
+	 *
+	 * @param block the block number
+	 * @return the transformation, or null if it is not known
+	 */
+	public RigidTransform getBlockTransform(int block){
+		int off = block * TRANSFORM_SIZE;
+		if ( Double.isNaN(blockTransforms[off]))
+			return null;
+		double[] t = blockTransforms;
+		// the stored rotation is applied to row vectors
+		return new RigidTransform(
+				t[off],     t[off + 3], t[off + 6],
+				t[off + 1], t[off + 4], t[off + 7],
+				t[off + 2], t[off + 5], t[off + 8],
+				t[off + 9], t[off + 10], t[off + 11]);
+	}
+
+	/** @return the number of blocks of the alignment */
+	public int getBlockNum() {
+		return optLen.length;
+	}
+
+	/** @return the number of aligned residue pairs */
+	public int getOptLength() {
+		int n = 0;
+		for (int len : optLen)
+			n += len;
+		return n;
+	}
+
+	/** Get the coverage of protein 1 with the alignment
+	 *
+	 * @return percentage of coverage, between 0 and 100.
+	 */
+	public int getCoverage1(){
+		return Math.round(getOptLength() / (float) ca1Length * 100);
+	}
+
+	/** Get the coverage of protein 2 with the alignment
+	 *
+	 * @return percentage of coverage, between 0 and 100.
+	 */
+	public int getCoverage2(){
+		return Math.round(getOptLength() / (float) ca2Length * 100);
+	}
+
+	/** @return the number of aligned pairs per block */
+	public int[] getOptLen() {
+		return optLen;
+	}
+
+	/** The aligned positions of the first protein. The positions of all blocks are stored one after the other,
+	 * block b has {@link #getOptLen() optLen}[b] positions.
+	 *
+	 * @return the positions, or null if only the residue numbers are known
+	 */
+	public int[] getAligned1() {
+		return aligned1;
+	}
+
+	/** The aligned positions of the second protein, in the same layout as {@link #getAligned1()}.
+	 *
+	 * @return the positions, or null if only the residue numbers are known
+	 */
+	public int[] getAligned2() {
+		return aligned2;
+	}
+
+	/** Sets the aligned positions of all blocks.
+	 *
+	 * @param optLen the number of aligned pairs per block
+	 * @param aligned1 the aligned positions of the first protein, of all blocks one after the other
+	 * @param aligned2 the aligned positions of the second protein
+	 */
+	public void setAlignment(int[] optLen, int[] aligned1, int[] aligned2) {
+		int total = 0;
+		for (int len : optLen)
+			total += len;
+		if ( aligned1.length != total || aligned2.length != total)
+			throw new IllegalArgumentException("expected " + total + " aligned positions, got "
+					+ aligned1.length + " and " + aligned2.length);
+		this.optLen = optLen;
+		this.aligned1 = aligned1;
+		this.aligned2 = aligned2;
+		this.pdbRes1 = null;
+		this.pdbRes2 = null;
+		resizeBlocks(optLen.length);
+	}
+
+	/** @return the aligned residues of the first protein as chain:residue number, or null if the positions are known */
+	public String[] getPdbRes1() {
+		return pdbRes1;
+	}
+
+	/** @return the aligned residues of the second protein as chain:residue number, or null if the positions are known */
+	public String[] getPdbRes2() {
+		return pdbRes2;
+	}
+
+	/** Sets the aligned residues of all blocks as chain:residue number, for results whose atoms are not loaded.
+	 *
+	 * @param optLen the number of aligned pairs per block
+	 * @param pdbRes1 the aligned residues of the first protein, of all blocks one after the other
+	 * @param pdbRes2 the aligned residues of the second protein
+	 */
+	public void setPdbAlignment(int[] optLen, String[] pdbRes1, String[] pdbRes2) {
+		int total = 0;
+		for (int len : optLen)
+			total += len;
+		if ( pdbRes1.length != total || pdbRes2.length != total)
+			throw new IllegalArgumentException("expected " + total + " aligned residues, got "
+					+ pdbRes1.length + " and " + pdbRes2.length);
+		this.optLen = optLen;
+		this.pdbRes1 = pdbRes1;
+		this.pdbRes2 = pdbRes2;
+		this.aligned1 = null;
+		this.aligned2 = null;
+		resizeBlocks(optLen.length);
+	}
+
+	private void resizeBlocks(int blockNum){
+		if ( blockSize.length == blockNum)
+			return;
+		blockSize  = copy(blockSize, blockNum);
+		blockGap   = copy(blockGap, blockNum);
+		blockScore = copy(blockScore, blockNum);
+		blockRmsd  = copy(blockRmsd, blockNum);
+		double[] transforms = new double[blockNum * TRANSFORM_SIZE];
+		Arrays.fill(transforms, Double.NaN);
+		System.arraycopy(blockTransforms, 0, transforms, 0, Math.min(transforms.length, blockTransforms.length));
+		blockTransforms = transforms;
+	}
+
+	/** The superposition of each block: the rotation matrix row by row, followed by the translation.
+	 * The values of a block are NaN if its superposition is not known.
+	 *
+	 * @return {@link #TRANSFORM_SIZE} values per block
+	 */
+	public double[] getBlockTransforms() {
+		return blockTransforms;
+	}
+
+	public void setBlockTransforms(double[] blockTransforms) {
+		if ( blockTransforms.length != optLen.length * TRANSFORM_SIZE)
+			throw new IllegalArgumentException("expected " + TRANSFORM_SIZE + " values for each of the " + optLen.length + " blocks");
+		this.blockTransforms = blockTransforms;
+	}
+
+	public int[] getBlockSize() {
+		return blockSize;
+	}
+
+	public void setBlockSize(int[] blockSize) {
+		this.blockSize = blockSize;
+	}
+
+	public int[] getBlockGap() {
+		return blockGap;
+	}
+
+	public void setBlockGap(int[] blockGap) {
+		this.blockGap = blockGap;
+	}
+
+	public double[] getBlockScore() {
+		return blockScore;
+	}
+
+	public void setBlockScore(double[] blockScore) {
+		this.blockScore = blockScore;
+	}
+
+	public double[] getBlockRmsd() {
+		return blockRmsd;
+	}
+
+	public void setBlockRmsd(double[] blockRmsd) {
+		this.blockRmsd = blockRmsd;
+	}
+
+	public String getAlgorithmName() {
+		return algorithmName;
+	}
+
+	public void setAlgorithmName(String algorithmName) {
+		this.algorithmName = algorithmName;
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public void setVersion(String version) {
+		this.version = version;
+	}
+
+	public String getName1() {
+		return name1;
+	}
+
+	public void setName1(String name1) {
+		this.name1 = name1;
+	}
+
+	public String getName2() {
+		return name2;
+	}
+
+	public void setName2(String name2) {
+		this.name2 = name2;
+	}
+
+	public String getDescription2() {
+		return description2;
+	}
+
+	public void setDescription2(String description2) {
+		this.description2 = description2;
+	}
+
+	public int getCa1Length() {
+		return ca1Length;
+	}
+
+	public void setCa1Length(int ca1Length) {
+		this.ca1Length = ca1Length;
+	}
+
+	public int getCa2Length() {
+		return ca2Length;
+	}
+
+	public void setCa2Length(int ca2Length) {
+		this.ca2Length = ca2Length;
+	}
+
+	public long getCalculationTime() {
+		return calculationTime;
+	}
+
+	public void setCalculationTime(long calculationTime) {
+		this.calculationTime = calculationTime;
+	}
+
+	public double getAlignScore() {
+		return alignScore;
+	}
+
+	public void setAlignScore(double alignScore) {
+		this.alignScore = alignScore;
+	}
+
+	public double getAlignScoreUpdate() {
+		return alignScoreUpdate;
+	}
+
+	public void setAlignScoreUpdate(double alignScoreUpdate) {
+		this.alignScoreUpdate = alignScoreUpdate;
+	}
+
+	/** @return the P-value of the alignment, or the Z-score for CE */
+	public double getProbability() {
+		return probability;
+	}
+
+	public void setProbability(double probability) {
+		this.probability = probability;
+	}
+
+	public double getNormAlignScore() {
+		return normAlignScore;
+	}
+
+	public void setNormAlignScore(double normAlignScore) {
+		this.normAlignScore = normAlignScore;
+	}
+
+	public double getIdentity() {
+		return identity;
+	}
+
+	public void setIdentity(double identity) {
+		this.identity = identity;
+	}
+
+	public double getSimilarity() {
+		return similarity;
+	}
+
+	public void setSimilarity(double similarity) {
+		this.similarity = similarity;
+	}
+
+	/** @return the TM-score, or -1 if it has not been calculated */
+	public double getTMScore() {
+		return tmScore;
+	}
+
+	public void setTMScore(double tmScore) {
+		this.tmScore = tmScore;
+	}
+
+	public double getChainRmsd() {
+		return chainRmsd;
+	}
+
+	public void setChainRmsd(double chainRmsd) {
+		this.chainRmsd = chainRmsd;
+	}
+
+	public double getTotalRmsdIni() {
+		return totalRmsdIni;
+	}
+
+	public void setTotalRmsdIni(double totalRmsdIni) {
+		this.totalRmsdIni = totalRmsdIni;
+	}
+
+	public double getTotalRmsdOpt() {
+		return totalRmsdOpt;
+	}
+
+	public void setTotalRmsdOpt(double totalRmsdOpt) {
+		this.totalRmsdOpt = totalRmsdOpt;
+	}
+
+	public int getTotalLenIni() {
+		return totalLenIni;
+	}
+
+	public void setTotalLenIni(int totalLenIni) {
+		this.totalLenIni = totalLenIni;
+	}
+
+	public int getGapLen() {
+		return gapLen;
+	}
+
+	public void setGapLen(int gapLen) {
+		this.gapLen = gapLen;
+	}
+
+	public int getAlnLength() {
+		return alnLength;
+	}
+
+	public void setAlnLength(int alnLength) {
+		this.alnLength = alnLength;
+	}
+
+	/** @return the number of AFPs the algorithm found */
+	public int getAfpNum() {
+		return afpNum;
+	}
+
+	public void setAfpNum(int afpNum) {
+		this.afpNum = afpNum;
+	}
+
+	public boolean isSequentialAlignment() {
+		return sequentialAlignment;
+	}
+
+	public void setSequentialAlignment(boolean sequentialAlignment) {
+		this.sequentialAlignment = sequentialAlignment;
+	}
+
+	public String toString(){
+		return name1 + "\t" + name2 + "\t" + algorithmName + "\tscore:" + String.format("%.2f", alignScore)
+				+ "\tEQR:" + getOptLength() + "\tblocks:" + getBlockNum();
+	}
+}
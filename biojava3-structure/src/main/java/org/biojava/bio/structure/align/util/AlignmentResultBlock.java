@@ -0,0 +1,491 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.align.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.biojava.bio.structure.align.model.CompactAFPChain;
+
+/** Encodes a block of alignment results for the binary result files of {@link AlignmentResultWriter}.
+ *
+ * Within a block the values are stored column by column, i.e. first all first names, then all second names, then
+ * all scores, and so on, and the block is deflated as a whole. Values of the same kind next to each other compress
+ * much better than whole records. The aligned positions are stored as runs of consecutive residue pairs.
+ *
+ * A block on disk consists of
+ * <pre>
+ * int  BLOCK_MAGIC
+ * int  number of results
+ * int  length of the uncompressed columns
+ * int  length of the compressed columns
+ * int  CRC32 of the compressed columns
+ * byte[] compressed columns
+ * </pre>
+ *
+ * @since 3.0.6
+ */
+final class AlignmentResultBlock {
+
+	static final int FILE_MAGIC = 0x424A4152; // BJAR
+	static final int FILE_VERSION = 1;
+	static final int FILE_HEADER_SIZE = 8;
+
+	static final int BLOCK_MAGIC = 0x424C4B31; // BLK1
+	static final int BLOCK_HEADER_SIZE = 20;
+
+	private static final byte POSITIONS = 0;
+	private static final byte RESIDUES = 1;
+
+	private AlignmentResultBlock(){
+	}
+
+	/** Encodes and compresses results, including the block header.
+	 *
+	 * @param results the results of the block
+	 * @return the block as it is written to the file
+	 */
+	static byte[] encode(List<CompactAFPChain> results) throws IOException {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * results.size() + 64);
+		DataOutputStream out = new DataOutputStream(bytes);
+		writeColumns(out, results);
+		out.close();
+		byte[] raw = bytes.toByteArray();
+
+		Deflater deflater = new Deflater();
+		deflater.setInput(raw);
+		deflater.finish();
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+		byte[] buf = new byte[8192];
+		while ( ! deflater.finished()){
+			int n = deflater.deflate(buf);
+			compressed.write(buf, 0, n);
+		}
+		deflater.end();
+		byte[] data = compressed.toByteArray();
+
+		CRC32 crc = new CRC32();
+		crc.update(data);
+
+		ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_HEADER_SIZE + data.length);
+		DataOutputStream header = new DataOutputStream(block);
+		header.writeInt(BLOCK_MAGIC);
+		header.writeInt(results.size());
+		header.writeInt(raw.length);
+		header.writeInt(data.length);
+		header.writeInt((int) crc.getValue());
+		header.write(data);
+		header.close();
+		return block.toByteArray();
+	}
+
+	/** Decompresses and decodes the data of a block.
+	 *
+	 * @param data the compressed columns
+	 * @param count the number of results, from the block header
+	 * @param rawLength the length of the uncompressed columns, from the block header
+	 * @param crc the checksum from the block header
+	 * @return the results
+	 * @throws IOException if the data is corrupt
+	 */
+	static List<CompactAFPChain> decode(byte[] data, int count, int rawLength, int crc) throws IOException {
+		CRC32 check = new CRC32();
+		check.update(data);
+		if ( (int) check.getValue() != crc)
+			throw new IOException("Checksum error in alignment result block");
+
+		byte[] raw = new byte[rawLength];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			int n = 0;
+			while ( n < rawLength && ! inflater.finished())
+				n += inflater.inflate(raw, n, rawLength - n);
+			if ( n != rawLength)
+				throw new IOException("Alignment result block is shorter than its header says");
+		} catch (DataFormatException e){
+			throw new IOException("Corrupt alignment result block: " + e.getMessage());
+		} finally {
+			inflater.end();
+		}
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+		return readColumns(in, count);
+	}
+
+	private static void writeColumns(DataOutputStream out, List<CompactAFPChain> results) throws IOException {
+		int n = results.size();
+
+		// algorithm names and versions repeat, so they are replaced by a dictionary
+		Map<String, Integer> dict = new HashMap<String, Integer>();
+		List<String> words = new ArrayList<String>();
+		int[] algorithm = new int[n];
+		int[] version = new int[n];
+		for (int i = 0 ; i < n ; i++){
+			algorithm[i] = lookup(dict, words, results.get(i).getAlgorithmName());
+			version[i] = lookup(dict, words, results.get(i).getVersion());
+		}
+		writeVarInt(out, words.size());
+		for (String w : words)
+			writeString(out, w);
+		for (int i = 0 ; i < n ; i++)
+			writeVarInt(out, algorithm[i]);
+		for (int i = 0 ; i < n ; i++)
+			writeVarInt(out, version[i]);
+
+		for (CompactAFPChain r : results)
+			writeString(out, r.getName1());
+		for (CompactAFPChain r : results)
+			writeString(out, r.getName2());
+		for (CompactAFPChain r : results)
+			writeString(out, r.getDescription2());
+
+		for (CompactAFPChain r : results)
+			writeVarInt(out, r.getCa1Length());
+		for (CompactAFPChain r : results)
+			writeVarInt(out, r.getCa2Length());
+		for (CompactAFPChain r : results)
+			writeVarLong(out, r.getCalculationTime());
+
+		for (CompactAFPChain r : results)
+			out.writeDouble(r.getAlignScore());
+		for (CompactAFPChain r : results)
+			out.writeDouble(r.getAlignScoreUpdate());
+		for (CompactAFPChain r : results)
+			out.writeDouble(r.getProbability());
+		for (CompactAFPChain r : results)
+			out.writeDouble(r.getNormAlignScore());
+		for (CompactAFPChain r : results)
+			out.writeDouble(r.getIdentity());
+		for (CompactAFPChain r : results)
+			out.writeDouble(r.getSimilarity());
+		for (CompactAFPChain r : results)
+			out.writeDouble(r.getTMScore());
+		for (CompactAFPChain r : results)
+			out.writeDouble(r.getChainRmsd());
+		for (CompactAFPChain r : results)
+			out.writeDouble(r.getTotalRmsdIni());
+		for (CompactAFPChain r : results)
+			out.writeDouble(r.getTotalRmsdOpt());
+
+		for (CompactAFPChain r : results)
+			writeVarInt(out, r.getTotalLenIni());
+		for (CompactAFPChain r : results)
+			writeVarInt(out, r.getGapLen());
+		for (CompactAFPChain r : results)
+			writeVarInt(out, r.getAlnLength());
+		for (CompactAFPChain r : results)
+			writeVarInt(out, r.getAfpNum());
+		for (CompactAFPChain r : results)
+			out.writeBoolean(r.isSequentialAlignment());
+
+		// the columns of the alignment blocks, for all results one after the other
+		for (CompactAFPChain r : results)
+			writeVarInt(out, r.getBlockNum());
+		for (CompactAFPChain r : results)
+			for (int len : r.getOptLen())
+				writeVarInt(out, len);
+		for (CompactAFPChain r : results)
+			for (int v : r.getBlockSize())
+				writeVarInt(out, v);
+		for (CompactAFPChain r : results)
+			for (int v : r.getBlockGap())
+				writeVarInt(out, v);
+		for (CompactAFPChain r : results)
+			for (double v : r.getBlockScore())
+				out.writeDouble(v);
+		for (CompactAFPChain r : results)
+			for (double v : r.getBlockRmsd())
+				out.writeDouble(v);
+		for (CompactAFPChain r : results)
+			for (double v : r.getBlockTransforms())
+				out.writeDouble(v);
+
+		// the aligned residues
+		for (CompactAFPChain r : results)
+			out.writeByte(r.getAligned1() != null ? POSITIONS : RESIDUES);
+		for (CompactAFPChain r : results){
+			if ( r.getAligned1() != null)
+				writeRuns(out, r.getOptLen(), r.getAligned1(), r.getAligned2());
+			else {
+				for (String s : r.getPdbRes1())
+					writeString(out, s);
+				for (String s : r.getPdbRes2())
+					writeString(out, s);
+			}
+		}
+	}
+
+	private static List<CompactAFPChain> readColumns(DataInput in, int n) throws IOException {
+
+		CompactAFPChain[] results = new CompactAFPChain[n];
+		for (int i = 0 ; i < n ; i++)
+			results[i] = new CompactAFPChain();
+
+		String[] words = new String[readVarInt(in)];
+		for (int w = 0 ; w < words.length ; w++)
+			words[w] = readString(in);
+		for (CompactAFPChain r : results)
+			r.setAlgorithmName(words[readVarInt(in)]);
+		for (CompactAFPChain r : results)
+			r.setVersion(words[readVarInt(in)]);
+
+		for (CompactAFPChain r : results)
+			r.setName1(readString(in));
+		for (CompactAFPChain r : results)
+			r.setName2(readString(in));
+		for (CompactAFPChain r : results)
+			r.setDescription2(readString(in));
+
+		for (CompactAFPChain r : results)
+			r.setCa1Length(readVarInt(in));
+		for (CompactAFPChain r : results)
+			r.setCa2Length(readVarInt(in));
+		for (CompactAFPChain r : results)
+			r.setCalculationTime(readVarLong(in));
+
+		for (CompactAFPChain r : results)
+			r.setAlignScore(in.readDouble());
+		for (CompactAFPChain r : results)
+			r.setAlignScoreUpdate(in.readDouble());
+		for (CompactAFPChain r : results)
+			r.setProbability(in.readDouble());
+		for (CompactAFPChain r : results)
+			r.setNormAlignScore(in.readDouble());
+		for (CompactAFPChain r : results)
+			r.setIdentity(in.readDouble());
+		for (CompactAFPChain r : results)
+			r.setSimilarity(in.readDouble());
+		for (CompactAFPChain r : results)
+			r.setTMScore(in.readDouble());
+		for (CompactAFPChain r : results)
+			r.setChainRmsd(in.readDouble());
+		for (CompactAFPChain r : results)
+			r.setTotalRmsdIni(in.readDouble());
+		for (CompactAFPChain r : results)
+			r.setTotalRmsdOpt(in.readDouble());
+
+		for (CompactAFPChain r : results)
+			r.setTotalLenIni(readVarInt(in));
+		for (CompactAFPChain r : results)
+			r.setGapLen(readVarInt(in));
+		for (CompactAFPChain r : results)
+			r.setAlnLength(readVarInt(in));
+		for (CompactAFPChain r : results)
+			r.setAfpNum(readVarInt(in));
+		for (CompactAFPChain r : results)
+			r.setSequentialAlignment(in.readBoolean());
+
+		int[][] optLen = new int[n][];
+		for (int i = 0 ; i < n ; i++)
+			optLen[i] = new int[readVarInt(in)];
+		for (int[] len : optLen)
+			for (int b = 0 ; b < len.length ; b++)
+				len[b] = readVarInt(in);
+
+		int[][] blockSize = readInts(in, optLen);
+		int[][] blockGap = readInts(in, optLen);
+		double[][] blockScore = readDoubles(in, optLen, 1);
+		double[][] blockRmsd = readDoubles(in, optLen, 1);
+		double[][] transforms = readDoubles(in, optLen, CompactAFPChain.TRANSFORM_SIZE);
+
+		byte[] kind = new byte[n];
+		in.readFully(kind);
+		for (int i = 0 ; i < n ; i++){
+			int total = 0;
+			for (int len : optLen[i])
+				total += len;
+			if ( kind[i] == POSITIONS) {
+				int[] aligned1 = new int[total];
+				int[] aligned2 = new int[total];
+				readRuns(in, optLen[i], aligned1, aligned2);
+				results[i].setAlignment(optLen[i], aligned1, aligned2);
+			} else if ( kind[i] == RESIDUES) {
+				String[] pdbRes1 = new String[total];
+				String[] pdbRes2 = new String[total];
+				for (int k = 0 ; k < total ; k++)
+					pdbRes1[k] = readString(in);
+				for (int k = 0 ; k < total ; k++)
+					pdbRes2[k] = readString(in);
+				results[i].setPdbAlignment(optLen[i], pdbRes1, pdbRes2);
+			} else {
+				throw new IOException("Unknown alignment type " + kind[i]);
+			}
+			results[i].setBlockSize(blockSize[i]);
+			results[i].setBlockGap(blockGap[i]);
+			results[i].setBlockScore(blockScore[i]);
+			results[i].setBlockRmsd(blockRmsd[i]);
+			results[i].setBlockTransforms(transforms[i]);
+		}
+
+		List<CompactAFPChain> list = new ArrayList<CompactAFPChain>(n);
+		for (CompactAFPChain r : results)
+			list.add(r);
+		return list;
+	}
+
+	private static int[][] readInts(DataInput in, int[][] optLen) throws IOException {
+		int[][] values = new int[optLen.length][];
+		for (int i = 0 ; i < optLen.length ; i++){
+			values[i] = new int[optLen[i].length];
+			for (int b = 0 ; b < values[i].length ; b++)
+				values[i][b] = readVarInt(in);
+		}
+		return values;
+	}
+
+	private static double[][] readDoubles(DataInput in, int[][] optLen, int perBlock) throws IOException {
+		double[][] values = new double[optLen.length][];
+		for (int i = 0 ; i < optLen.length ; i++){
+			values[i] = new double[optLen[i].length * perBlock];
+			for (int b = 0 ; b < values[i].length ; b++)
+				values[i][b] = in.readDouble();
+		}
+		return values;
+	}
+
+	/** writes the aligned pairs as runs of pairs where both positions increase by one */
+	private static void writeRuns(DataOutput out, int[] optLen, int[] aligned1, int[] aligned2) throws IOException {
+		int pos = 0;
+		int prev1 = 0;
+		int prev2 = 0;
+		for (int len : optLen){
+			int end = pos + len;
+			// count the runs of this block first
+			int runs = 0;
+			for (int k = pos ; k < end ; k++){
+				if ( k == pos || aligned1[k] != aligned1[k-1] + 1 || aligned2[k] != aligned2[k-1] + 1)
+					runs++;
+			}
+			writeVarInt(out, runs);
+
+			int k = pos;
+			while ( k < end){
+				int start = k;
+				k++;
+				while ( k < end && aligned1[k] == aligned1[k-1] + 1 && aligned2[k] == aligned2[k-1] + 1)
+					k++;
+				writeVarInt(out, aligned1[start] - prev1);
+				writeVarInt(out, aligned2[start] - prev2);
+				writeVarInt(out, k - start);
+				prev1 = aligned1[k-1];
+				prev2 = aligned2[k-1];
+			}
+			pos = end;
+		}
+	}
+
+	private static void readRuns(DataInput in, int[] optLen, int[] aligned1, int[] aligned2) throws IOException {
+		int pos = 0;
+		int prev1 = 0;
+		int prev2 = 0;
+		for (int block = 0 ; block < optLen.length ; block++){
+			int end = pos + optLen[block];
+			int runs = readVarInt(in);
+			for (int r = 0 ; r < runs ; r++){
+				int start1 = prev1 + readVarInt(in);
+				int start2 = prev2 + readVarInt(in);
+				int len = readVarInt(in);
+				if ( len < 1 || pos + len > end)
+					throw new IOException("Corrupt aligned positions");
+				for (int k = 0 ; k < len ; k++){
+					aligned1[pos] = start1 + k;
+					aligned2[pos] = start2 + k;
+					pos++;
+				}
+				prev1 = start1 + len - 1;
+				prev2 = start2 + len - 1;
+			}
+		}
+	}
+
+	private static int lookup(Map<String, Integer> dict, List<String> words, String word){
+		Integer index = dict.get(word);
+		if ( index == null) {
+			index = words.size();
+			dict.put(word, index);
+			words.add(word);
+		}
+		return index;
+	}
+
+	private static void writeString(DataOutput out, String s) throws IOException {
+		out.writeBoolean(s != null);
+		if ( s != null)
+			out.writeUTF(s);
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		if ( ! in.readBoolean())
+			return null;
+		return in.readUTF();
+	}
+
+	/** writes a value in 7 bit groups, small values take one byte. Negative values are zig-zag encoded. */
+	static void writeVarInt(DataOutput out, int value) throws IOException {
+		writeVarLong(out, value);
+	}
+
+	static int readVarInt(DataInput in) throws IOException {
+		return (int) readVarLong(in);
+	}
+
+	static void writeVarLong(DataOutput out, long value) throws IOException {
+		long v = (value << 1) ^ (value >> 63);
+		while ( (v & ~0x7FL) != 0){
+			out.writeByte((int) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		out.writeByte((int) v);
+	}
+
+	static long readVarLong(DataInput in) throws IOException {
+		long v = 0;
+		int shift = 0;
+		while (true) {
+			int b = in.readUnsignedByte();
+			v |= (long) (b & 0x7F) << shift;
+			if ( (b & 0x80) == 0)
+				break;
+			shift += 7;
+			if ( shift > 63)
+				throw new IOException("Malformed variable length number");
+		}
+		return (v >>> 1) ^ -(v & 1);
+	}
+}
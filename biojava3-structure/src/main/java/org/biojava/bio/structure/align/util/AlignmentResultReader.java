@@ -0,0 +1,370 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.align.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.biojava.bio.structure.Atom;
+import org.biojava.bio.structure.StructureException;
+import org.biojava.bio.structure.align.model.CompactAFPChain;
+import org.biojava.bio.structure.align.xml.AFPChainXMLConverter;
+
+/** Reads the binary result files written by {@link AlignmentResultWriter}.
+ *
+ * All results can be read one after the other by iterating over the reader. The results for one query, i.e. for
+ * one first structure, are found quickly if an index has been created with {@link #createIndex(File)}. The index
+ * lists for every query the blocks that contain its results, sorted by the name of the query. Blocks that have
+ * been appended after the index was created are searched as well.
+ *
+ * @since 3.0.6
+ */
+public class AlignmentResultReader implements Iterable<CompactAFPChain> {
+
+	/** the index of a result file is stored in a file with the same name and this suffix */
+	public static final String INDEX_SUFFIX = ".idx";
+
+	private static final int INDEX_MAGIC = 0x424A4149; // BJAI
+	private static final int INDEX_VERSION = 1;
+
+	private final File file;
+
+	// the index: the sorted names of the queries and the offsets of the blocks containing their results
+	private String[] indexNames;
+	private long[] indexOffsets;
+	private long indexedLength;
+
+	/** Opens a result file and its index, if there is one.
+	 *
+	 * @param file the result file. A file that does not exist yet contains no results.
+	 * @throws IOException if the file is not a result file
+	 */
+	public AlignmentResultReader(File file) throws IOException {
+		this.file = file;
+		if ( file.exists() && file.length() > 0)
+			checkHeader(file);
+		loadIndex();
+	}
+
+	static void checkHeader(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new FileInputStream(file));
+		try {
+			if ( in.readInt() != AlignmentResultBlock.FILE_MAGIC)
+				throw new IOException(file + " is not an alignment result file");
+			int version = in.readInt();
+			if ( version != AlignmentResultBlock.FILE_VERSION)
+				throw new IOException("Unsupported version " + version + " of alignment result file " + file);
+		} catch (EOFException e){
+			throw new IOException(file + " is not an alignment result file");
+		} finally {
+			in.close();
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/** @return the index file of a result file */
+	public static File getIndexFile(File file) {
+		return new File(file.getPath() + INDEX_SUFFIX);
+	}
+
+	/** @return true if the index of the file has been found */
+	public boolean hasIndex() {
+		return indexNames != null;
+	}
+
+	/** Returns an iterator over all results in the file. Errors while reading the file are thrown as
+	 * IllegalStateException.
+	 */
+	public Iterator<CompactAFPChain> iterator() {
+		return new Iterator<CompactAFPChain>() {
+			long offset = AlignmentResultBlock.FILE_HEADER_SIZE;
+			Iterator<CompactAFPChain> block = Collections.<CompactAFPChain>emptyList().iterator();
+
+			public boolean hasNext() {
+				while ( ! block.hasNext() && offset >= 0) {
+					List<CompactAFPChain> results = new ArrayList<CompactAFPChain>();
+					try {
+						offset = readBlock(offset, results);
+					} catch (IOException e){
+						throw new IllegalStateException("Could not read " + file + ": " + e.getMessage(), e);
+					}
+					block = results.iterator();
+				}
+				return block.hasNext();
+			}
+
+			public CompactAFPChain next() {
+				if ( ! hasNext())
+					throw new NoSuchElementException();
+				return block.next();
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/** Returns all results of a query, in the order they have been written.
+	 *
+	 * @param name1 the name of the first structure of the alignments
+	 * @return the results
+	 * @throws IOException if the file can not be read
+	 */
+	public List<CompactAFPChain> getResults(String name1) throws IOException {
+		List<CompactAFPChain> results = new ArrayList<CompactAFPChain>();
+		List<CompactAFPChain> block = new ArrayList<CompactAFPChain>();
+
+		long offset = AlignmentResultBlock.FILE_HEADER_SIZE;
+		if ( indexNames != null) {
+			int i = Arrays.binarySearch(indexNames, name1);
+			if ( i >= 0) {
+				// the entries of a name are sorted by offset, go back to the first one
+				while ( i > 0 && indexNames[i - 1].equals(name1))
+					i--;
+				for ( ; i < indexNames.length && indexNames[i].equals(name1) ; i++){
+					block.clear();
+					readBlock(indexOffsets[i], block);
+					select(block, name1, results);
+				}
+			}
+			offset = indexedLength;
+		}
+
+		// the blocks that are not indexed
+		while ( offset >= 0) {
+			block.clear();
+			offset = readBlock(offset, block);
+			select(block, name1, results);
+		}
+		return results;
+	}
+
+	private static void select(List<CompactAFPChain> block, String name1, List<CompactAFPChain> results){
+		for (CompactAFPChain r : block){
+			if ( name1.equals(r.getName1()))
+				results.add(r);
+		}
+	}
+
+	/** Reads the block at an offset.
+	 *
+	 * @return the offset of the next block, or -1 if there is no complete block at the offset
+	 */
+	private long readBlock(long offset, List<CompactAFPChain> results) throws IOException {
+		if ( ! file.exists())
+			return -1;
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			long length = raf.length();
+			if ( offset + AlignmentResultBlock.BLOCK_HEADER_SIZE > length)
+				return -1;
+			raf.seek(offset);
+			if ( raf.readInt() != AlignmentResultBlock.BLOCK_MAGIC)
+				throw new IOException("No alignment result block at offset " + offset);
+			int count = raf.readInt();
+			int rawLength = raf.readInt();
+			int dataLength = raf.readInt();
+			int crc = raf.readInt();
+			long next = offset + AlignmentResultBlock.BLOCK_HEADER_SIZE + dataLength;
+			if ( next > length) {
+				// the block is still being written
+				return -1;
+			}
+			byte[] data = new byte[dataLength];
+			raf.readFully(data);
+			results.addAll(AlignmentResultBlock.decode(data, count, rawLength, crc));
+			return next;
+		} finally {
+			raf.close();
+		}
+	}
+
+	private void loadIndex() throws IOException {
+		File indexFile = getIndexFile(file);
+		if ( ! indexFile.exists())
+			return;
+
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+		try {
+			if ( in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION)
+				return;
+			long length = in.readLong();
+			if ( length > file.length()) {
+				// the index belongs to a different file
+				return;
+			}
+			int n = in.readInt();
+			String[] names = new String[n];
+			long[] offsets = new long[n];
+			for (int i = 0 ; i < n ; i++){
+				names[i] = in.readUTF();
+				offsets[i] = in.readLong();
+			}
+			indexNames = names;
+			indexOffsets = offsets;
+			indexedLength = length;
+		} catch (EOFException e){
+			// an incomplete index is not used
+		} finally {
+			in.close();
+		}
+	}
+
+	/** Creates or replaces the index of a result file. The index lists the blocks that contain the results of
+	 * each query, sorted by the name of the query.
+	 *
+	 * @param file the result file
+	 * @return the number of entries in the index
+	 * @throws IOException if the file can not be read or the index can not be written
+	 */
+	public static int createIndex(File file) throws IOException {
+
+		AlignmentResultReader reader = new AlignmentResultReader(file);
+
+		List<IndexEntry> entries = new ArrayList<IndexEntry>();
+		List<CompactAFPChain> block = new ArrayList<CompactAFPChain>();
+		long offset = AlignmentResultBlock.FILE_HEADER_SIZE;
+		long indexed = offset;
+		while ( offset >= 0) {
+			block.clear();
+			long next = reader.readBlock(offset, block);
+			if ( next < 0)
+				break;
+			String last = null;
+			for (CompactAFPChain r : block){
+				String name = r.getName1();
+				// results of the same query are usually written together
+				if ( name != null && ! name.equals(last))
+					entries.add(new IndexEntry(name, offset));
+				last = name;
+			}
+			offset = indexed = next;
+		}
+
+		Collections.sort(entries);
+
+		File indexFile = getIndexFile(file);
+		File tmp = new File(indexFile.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+		int n = 0;
+		try {
+			out.writeInt(INDEX_MAGIC);
+			out.writeInt(INDEX_VERSION);
+			out.writeLong(indexed);
+			// duplicates of the same name and block are removed while writing
+			int count = 0;
+			for (int i = 0 ; i < entries.size() ; i++){
+				if ( i == 0 || entries.get(i).compareTo(entries.get(i - 1)) != 0)
+					count++;
+			}
+			out.writeInt(count);
+			for (int i = 0 ; i < entries.size() ; i++){
+				IndexEntry e = entries.get(i);
+				if ( i > 0 && e.compareTo(entries.get(i - 1)) == 0)
+					continue;
+				out.writeUTF(e.name);
+				out.writeLong(e.offset);
+				n++;
+			}
+		} finally {
+			out.close();
+		}
+		if ( indexFile.exists() && ! indexFile.delete())
+			throw new IOException("Could not replace " + indexFile);
+		if ( ! tmp.renameTo(indexFile))
+			throw new IOException("Could not rename " + tmp + " to " + indexFile);
+		return n;
+	}
+
+	/** Writes all results as XML, in the format of {@link AFPChainXMLConverter}, enclosed in an
+	 * &lt;alignments&gt; element.
+	 *
+	 * Results that have been converted from XML contain the residue numbers and are written as they are. For
+	 * the other results the atoms of both structures are loaded from the cache.
+	 *
+	 * @param out where to write the XML to
+	 * @param cache the cache to load the atoms from, may be null if all results contain residue numbers
+	 * @return the number of written results
+	 * @throws IOException if the file can not be read or the XML can not be written
+	 * @throws StructureException if the atoms of a structure can not be loaded
+	 */
+	public int exportXML(Writer out, AtomCache cache) throws IOException, StructureException {
+		int n = 0;
+		out.write("<alignments>");
+		for (CompactAFPChain r : this){
+			String xml;
+			if ( r.getAligned1() == null) {
+				xml = AFPChainXMLConverter.toXML(r, null, null);
+			} else {
+				if ( cache == null)
+					throw new StructureException("The atoms of " + r.getName1() + " and " + r.getName2()
+							+ " are needed to write the aligned residues");
+				Atom[] ca1 = cache.getAtoms(r.getName1());
+				Atom[] ca2 = cache.getAtoms(r.getName2());
+				xml = AFPChainXMLConverter.toXML(r, ca1, ca2);
+			}
+			out.write(xml);
+			n++;
+		}
+		out.write("</alignments>");
+		out.flush();
+		return n;
+	}
+
+	private static class IndexEntry implements Comparable<IndexEntry> {
+		final String name;
+		final long offset;
+
+		IndexEntry(String name, long offset){
+			this.name = name;
+			this.offset = offset;
+		}
+
+		public int compareTo(IndexEntry o) {
+			int c = name.compareTo(o.name);
+			if ( c != 0)
+				return c;
+			return offset < o.offset ? -1 : (offset == o.offset ? 0 : 1);
+		}
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.align.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.biojava.bio.structure.align.model.AFPChain;
+import org.biojava.bio.structure.align.model.CompactAFPChain;
+import org.biojava.bio.structure.align.xml.AFPChainXMLParser;
+
+/** Appends alignment results to a binary result file, a compact replacement for text and XML files of large
+ * database searches.
+ *
+ * Results are collected into blocks, which are stored column by column and compressed, see
+ * {@link AlignmentResultBlock}. A file is a header followed by any number of blocks. Blocks are only ever appended,
+ * so several writers, also in different processes, can write to the same file: every block is appended while
+ * holding a lock on the file. The results of a block become visible to readers once the block is complete.
+ *
+ * All methods are thread safe. The results that have not filled a block yet are written by {@link #flush()} and
+ * {@link #close()}.
+ *
+ * Use {@link AlignmentResultReader} to read the file.
+ *
+ * @since 3.0.6
+ */
+public class AlignmentResultWriter {
+
+	/** the default number of results per block */
+	public static final int DEFAULT_BLOCK_SIZE = 1000;
+
+	// file locks are held by the JVM, so threads of the same JVM need to take turns
+	private static final Object appendLock = new Object();
+
+	private final File file;
+	private final int blockSize;
+
+	private List<CompactAFPChain> pending;
+	private long written;
+
+	/** Create a writer that appends to a file, using the default block size.
+	 *
+	 * @param file the result file, which is created if it does not exist yet
+	 * @throws IOException if the file exists but is not a result file
+	 */
+	public AlignmentResultWriter(File file) throws IOException {
+		this(file, DEFAULT_BLOCK_SIZE);
+	}
+
+	/** Create a writer that appends to a file.
+	 *
+	 * @param file the result file, which is created if it does not exist yet
+	 * @param blockSize the number of results per block. Larger blocks compress better, smaller blocks are
+	 * written more often.
+	 * @throws IOException if the file exists but is not a result file
+	 */
+	public AlignmentResultWriter(File file, int blockSize) throws IOException {
+		if ( file.isDirectory())
+			throw new FileNotFoundException("please provide a file and not a directory");
+		if ( blockSize < 1)
+			throw new IllegalArgumentException("blockSize needs to be at least 1");
+		if ( file.exists() && file.length() > 0)
+			AlignmentResultReader.checkHeader(file);
+
+		this.file = file;
+		this.blockSize = blockSize;
+		pending = new ArrayList<CompactAFPChain>(blockSize);
+	}
+
+	/** Adds a result. The working data of the alignment is not stored.
+	 *
+	 * @param afpChain the alignment
+	 * @throws IOException if a block can not be written
+	 */
+	public void write(AFPChain afpChain) throws IOException {
+		write(afpChain.compact());
+	}
+
+	/** Adds a result.
+	 *
+	 * @param result the alignment result
+	 * @throws IOException if a block can not be written
+	 */
+	public void write(CompactAFPChain result) throws IOException {
+		List<CompactAFPChain> block = null;
+		synchronized (this) {
+			pending.add(result);
+			if ( pending.size() >= blockSize) {
+				block = pending;
+				pending = new ArrayList<CompactAFPChain>(blockSize);
+			}
+		}
+		// blocks are encoded and compressed in the writing thread, only the append itself is serialized
+		if ( block != null)
+			append(block);
+	}
+
+	/** Converts the alignments of an XML document, as written by
+	 * {@link org.biojava.bio.structure.align.xml.AFPChainXMLConverter}, and adds them. Several alignments can be
+	 * combined in one document, e.g. &lt;alignments&gt;&lt;AFPChain .../&gt;...&lt;/alignments&gt;.
+	 *
+	 * @param xml the XML document
+	 * @return the number of added results
+	 * @throws IOException if a block can not be written
+	 */
+	public int importXML(String xml) throws IOException {
+		AFPChain[] afpChains = AFPChainXMLParser.parseMultiXML(xml);
+		for (AFPChain afpChain : afpChains)
+			write(afpChain);
+		return afpChains.length;
+	}
+
+	/** Writes the results that do not fill a complete block yet.
+	 *
+	 * @throws IOException if the block can not be written
+	 */
+	public void flush() throws IOException {
+		List<CompactAFPChain> block;
+		synchronized (this) {
+			if ( pending.isEmpty())
+				return;
+			block = pending;
+			pending = new ArrayList<CompactAFPChain>(blockSize);
+		}
+		append(block);
+	}
+
+	/** Writes the remaining results. The writer can still be used afterwards.
+	 *
+	 * @throws IOException if the block can not be written
+	 */
+	public void close() throws IOException {
+		flush();
+	}
+
+	/** @return the number of results that have been written to the file by this writer */
+	public synchronized long getWrittenCount() {
+		return written;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	private void append(List<CompactAFPChain> results) throws IOException {
+		byte[] block = AlignmentResultBlock.encode(results);
+
+		synchronized (appendLock) {
+			FileOutputStream out = new FileOutputStream(file, true);
+			try {
+				FileChannel channel = out.getChannel();
+				FileLock lock = channel.lock();
+				try {
+					if ( channel.size() == 0)
+						writeFully(channel, header());
+					writeFully(channel, block);
+					channel.force(false);
+				} finally {
+					lock.release();
+				}
+			} finally {
+				out.close();
+			}
+		}
+
+		synchronized (this) {
+			written += results.size();
+		}
+	}
+
+	private static byte[] header() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(AlignmentResultBlock.FILE_HEADER_SIZE);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(AlignmentResultBlock.FILE_MAGIC);
+		out.writeInt(AlignmentResultBlock.FILE_VERSION);
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	private static void writeFully(FileChannel channel, byte[] data) throws IOException {
+		ByteBuffer buf = ByteBuffer.wrap(data);
+		while ( buf.hasRemaining())
+			channel.write(buf);
+	}
+}
@@ -43,8 +43,9 @@ import org.biojava.bio.structure.StructureException;
 import org.biojava.bio.structure.StructureTools;
 import org.biojava.bio.structure.align.ce.AbstractUserArgumentProcessor;
 import org.biojava.bio.structure.align.client.StructureName;
+import org.biojava.bio.structure.cath.CathDatabase;
 import org.biojava.bio.structure.cath.CathDomain;
-import org.biojava.bio.structure.cath.CathInstallation;
+import org.biojava.bio.structure.cath.IndexedCathInstallation;
 import org.biojava.bio.structure.cath.CathSegment;
 import org.biojava.bio.structure.domain.PDPProvider;
 import org.biojava.bio.structure.domain.RemotePDPProvider;
@@ -86,6 +87,8 @@ public class AtomCache {
 
 	private  ScopDatabase scopInstallation ;
 
+	private CathDatabase cathInstallation;
+
 	protected PDPProvider pdpprovider;
 
 	boolean autoFetch;
@@ -181,6 +184,7 @@ public class AtomCache {
 	public void setPath(String path) {
 		System.setProperty(AbstractUserArgumentProcessor.PDB_DIR,path);
 		this.path = path;
+		cathInstallation = null;
 	}
 
 	/** Is the organization of files within the directory split, as on the PDB FTP servers,
@@ -711,12 +715,20 @@ public class AtomCache {
 	}
 
 
+	/** The CATH installation is kept in the directory of the PDB files. It is shared by all CATH domains, so
+	 * that the CATH files are not parsed again for every domain. */
+	private synchronized CathDatabase getCathInstallation() {
+		if ( cathInstallation == null)
+			cathInstallation = new IndexedCathInstallation(path);
+		return cathInstallation;
+	}
+
 	private Structure getStructureFromCATHDomain(StructureName structureName)
 			throws IOException, StructureException {
 
 
 
-		CathInstallation cathInstall = new CathInstallation(path);
+		CathDatabase cathInstall = getCathInstallation();
 
 		CathDomain cathDomain = cathInstall.getDomainByCathId(structureName.getName());
 
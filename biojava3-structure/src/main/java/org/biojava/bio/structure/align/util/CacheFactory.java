@@ -1,27 +1,38 @@
 package org.biojava.bio.structure.align.util;
 
-import org.biojava3.core.util.SoftHashMap;
+import org.biojava3.core.util.ConcurrentCache;
 
 
-/** provides a SoftHashMap singleton.
+/** provides a {@link org.biojava3.core.util.SoftHashMap} singleton. The map is a view of a soft referenced {@link ConcurrentCache},
+ * which is available through {@link #getConcurrentCache()}.
  * 
  * 
- * @Deprecated find better ways for caching or use a SoftHashMap directly
+ * @Deprecated find better ways for caching or use a ConcurrentCache directly
  */
 
 public class CacheFactory  {
 
-	@SuppressWarnings("rawtypes")
-	private static SoftHashMap  cache  = new SoftHashMap ();
+	private static final ConcurrentCache<Object, Object> concurrentCache = new ConcurrentCache<Object, Object>(ConcurrentCache.Retention.SOFT);
+
+	@SuppressWarnings({ "rawtypes", "deprecation" })
+	private static final org.biojava3.core.util.SoftHashMap cache = new org.biojava3.core.util.SoftHashMap<Object, Object>(concurrentCache);
 	
 	// no public constructor;
 	private CacheFactory(){
 		
 	}
 	
-	@SuppressWarnings("rawtypes")
-	public static SoftHashMap getCache(){
+	@SuppressWarnings({ "rawtypes", "deprecation" })
+	public static org.biojava3.core.util.SoftHashMap getCache(){
 		return cache;
 	}
+
+	/** the cache behind {@link #getCache()}
+	 * 
+	 * @return the shared cache
+	 */
+	public static ConcurrentCache<Object, Object> getConcurrentCache(){
+		return concurrentCache;
+	}
 	
 }
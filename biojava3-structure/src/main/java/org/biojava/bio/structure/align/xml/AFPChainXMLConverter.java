@@ -7,6 +7,7 @@ import java.io.StringWriter;
 import org.biojava.bio.structure.Atom;
 import org.biojava.bio.structure.StructureException;
 import org.biojava.bio.structure.align.model.AFPChain;
+import org.biojava.bio.structure.align.model.CompactAFPChain;
 import org.biojava.bio.structure.align.util.AlignmentTools;
 import org.biojava.bio.structure.jama.Matrix;
 import org.biojava3.core.util.PrettyXMLWriter;
@@ -213,6 +214,18 @@ public class AFPChainXMLConverter {
 		return toXML(afpChain, null, null);
 	}
 
+	/** Convert a compact alignment result to the XML representation of its AFPChain
+	 * 
+	 * @param result the alignment result
+	 * @param ca1 the atoms of the first structure, or null if the result contains the PDB residue numbers
+	 * @param ca2 the atoms of the second structure, or null if the result contains the PDB residue numbers
+	 * @return XML representation of the result
+	 */
+	public static String toXML(CompactAFPChain result, Atom[] ca1, Atom[] ca2) throws IOException{
+
+		return toXML(result.toAFPChain(), ca1, ca2);
+	}
+
 
 	public static void printXMLHeader(PrettyXMLWriter xml, AFPChain afpChain) throws IOException{
 		xml.attribute("name1", afpChain.getName1());
@@ -245,8 +258,13 @@ public class AFPChainXMLConverter {
 			xml.attribute("tmScore", String.format("%.2f",afpChain.getTMScore()));
 		}
 		
-		// test if alignment is CP:
-		if ( ! AlignmentTools.isSequentialAlignment(afpChain,false)) {
+		// test if alignment is CP. Alignments parsed without atoms only know the residue numbers, use their flag
+		boolean sequential;
+		if ( afpChain.getOptAln() != null)
+			sequential = AlignmentTools.isSequentialAlignment(afpChain,false);
+		else
+			sequential = afpChain.isSequentialAlignment();
+		if ( ! sequential) {
 			xml.attribute("cp","true");
 		}
 	}
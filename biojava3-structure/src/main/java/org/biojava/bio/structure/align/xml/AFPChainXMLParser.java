@@ -6,8 +6,10 @@ import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.biojava.bio.structure.Atom;
 import org.biojava.bio.structure.AtomImpl;
@@ -21,20 +23,13 @@ import org.biojava.bio.structure.align.model.AFPChain;
 import org.biojava.bio.structure.align.util.AFPAlignmentDisplay;
 import org.biojava.bio.structure.jama.Matrix;
 
-import org.w3c.dom.Document;
-
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-import org.xml.sax.SAXParseException;
-
 //http://www.developerfusion.com/code/2064/a-simple-way-to-read-an-xml-file-in-java/
 
 public class AFPChainXMLParser
 {
 
+	/** shared by all calls; the factory can be used by several threads once it has been configured */
+	private static final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
 	
 	/** new utility method that checks that the order of the pair in the XML alignment is correct and flips the direction if needed
 	 * 
@@ -208,156 +203,175 @@ public class AFPChainXMLParser
 	public static AFPChain[] parseMultiXML(String xml) {
 		List<AFPChain> afpChains = new ArrayList<AFPChain>();
 
+		XMLStreamReader reader = null;
 		try
 		{
-			//Convert string to XML document
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder db = factory.newDocumentBuilder();
-			InputSource inStream = new InputSource();
-			inStream.setCharacterStream(new StringReader(xml));
-			Document doc = db.parse(inStream);
-
-			// normalize text representation
-			doc.getDocumentElement().normalize();
-
-
-			//Element rootElement = doc.getDocumentElement();
-
-			NodeList listOfAFPChains = doc.getElementsByTagName("AFPChain");
-			//int numArrays = listOfArrays.getLength();			
-			// go over the blocks
-			for(int afpPos=0; afpPos<listOfAFPChains.getLength() ; afpPos++)
+			// read the XML as a stream, no document is built
+			reader = inputFactory.createXMLStreamReader(new StringReader(xml));
+
+			AFPChain a = null;
+			int minLength = 0;
+			int depth = 0;
+			int chainDepth = -1;
+			int blockDepth = -1;
+			int blockNr = -1;
+			int nrEqr = 0;
+
+			while (reader.hasNext())
 			{
-
-				AFPChain a = new AFPChain();
-				a.setAlgorithmName(AFPChain.DEFAULT_ALGORITHM_NAME);
-				a.setVersion("1.0");
-				Node rootElement       = listOfAFPChains.item(afpPos);
-
-				a.setName1(getAttribute(rootElement,"name1"));				
-				a.setName2(getAttribute(rootElement,"name2"));
-				String algoname = getAttribute(rootElement,"method");
-				if ( algoname != null) {
-					a.setAlgorithmName(algoname);					
-				}
-				String version = getAttribute(rootElement,"version");
-				if ( version != null)
-					a.setVersion(version);
-
-				a.setAlnLength(	new Integer(getAttribute(rootElement,"alnLength")).intValue());
-				a.setBlockNum(		new Integer(getAttribute(rootElement,"blockNum")).intValue());
-				a.setGapLen(		new Integer(getAttribute(rootElement,"gapLen")).intValue());
-				a.setOptLength(	new Integer(getAttribute(rootElement,"optLength")).intValue());
-				a.setTotalLenIni(	new Integer(getAttribute(rootElement,"totalLenIni")).intValue());
-				a.setBlockNum(		new Integer(getAttribute(rootElement,"blockNum")).intValue());
-
-				if ( a.getAlgorithmName().equals(CeCPMain.algorithmName)){
-                   a.setSequentialAlignment(a.getBlockNum() == 1);
-                }
-				
-				a.setAlignScore(new Double(getAttribute(rootElement,"alignScore")).doubleValue());
-				a.setChainRmsd(new Double(getAttribute(rootElement,"chainRmsd")).doubleValue());
-				a.setIdentity(new Double(getAttribute(rootElement,"identity")).doubleValue());
-				a.setNormAlignScore(new Double(getAttribute(rootElement,"normAlignScore")).doubleValue());
-				a.setProbability(new Double(getAttribute(rootElement,"probability")).doubleValue());
-				a.setSimilarity(new Double(getAttribute(rootElement,"similarity")).doubleValue());
-				a.setTotalRmsdIni(new Double(getAttribute(rootElement,"totalRmsdIni")).doubleValue());
-				a.setTotalRmsdOpt(new Double(getAttribute(rootElement,"totalRmsdOpt")).doubleValue());
-				a.setAlignScoreUpdate(new Double(getAttribute(rootElement,"alignScoreUpdate")).doubleValue());
-				int ca1Length = new Integer(getAttribute(rootElement,"ca1Length")).intValue();
-				a.setCa1Length(ca1Length);
-				int ca2Length = new Integer(getAttribute(rootElement,"ca2Length")).intValue();						
-				a.setCa2Length(ca2Length);
-
-				String tmScoreS = getAttribute(rootElement,"tmScore");
-				if ( tmScoreS != null) {
-					Double tmScore = null;
-					try {
-					 tmScore = Double.parseDouble(tmScoreS);
-					} catch (Exception e){						
+				int event = reader.next();
+				if ( event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+					String name = reader.getLocalName();
+					if ( a == null) {
+						if ( name.equals("AFPChain")) {
+							a = processAFPChain(reader);
+							minLength = Math.min(a.getCa1Length(), a.getCa2Length());
+							chainDepth = depth;
+						}
+					} else if ( depth == chainDepth + 1) {
+						// we only look at blocks.
+						if ( name.equals("block")) {
+							blockNr = processBlock(reader, a, minLength);
+							blockDepth = depth;
+							nrEqr = 0;
+						}
+					} else if ( depth == blockDepth + 1 && reader.getAttributeCount() > 0) {
+						if ( name.equals("eqr"))
+							nrEqr++;
+						processBlockChild(reader, name, a, blockNr);
 					}
-					a.setTMScore(tmScore);
-				}
-				
-				String calcTimeS = getAttribute(rootElement,"time");
-				Long calcTime = -1L;
-				if ( calcTimeS != null){
-				
-					try {
-						calcTime = Long.parseLong(calcTimeS);
-						
-					} catch (Exception e){
-						e.printStackTrace();
-					}					
-				}
-				a.setCalculationTime(calcTime);
-				
-				Matrix[] ms = new Matrix[a.getBlockNum()];
-				a.setBlockRotationMatrix(ms);
-				Atom[] blockShiftVector = new Atom[a.getBlockNum()];
-				a.setBlockShiftVector(blockShiftVector);
-
-				int afpNum = new Integer(getAttribute(rootElement,"afpNum")).intValue();
-				List<AFP> afpSet = new ArrayList<AFP>();
-				for (int afp=0;afp<afpNum;afp++){
-					afpSet.add( new AFP());	
-				}
-
-				a.setAfpSet(afpSet);
-
-				int minLength = Math.min(ca1Length, ca2Length);
-				a.setFocusRes1(new int[minLength]);
-				a.setFocusRes2(new int[minLength]);
-
-
-				//NodeList listOfBlocks = doc.getElementsByTagName("block");
-				NodeList listOfBlocks = rootElement.getChildNodes();
-
-				//int numArrays = listOfArrays.getLength();
-
-				// go over the blocks
-				for(int i=0; i<listOfBlocks.getLength() ; i++)
-				{
-					Node block       = listOfBlocks.item(i);
-
-					// we only look at blocks.
-					if (! block.getNodeName().equals("block"))
-						continue;
-
-					processBlock(block, a, minLength);
-
-
+				} else if ( event == XMLStreamConstants.END_ELEMENT) {
+					if ( depth == blockDepth) {
+						//System.out.println("setting block " + blockNr + " eqr: " + nrEqr);
+						a.getOptLen()[blockNr] = nrEqr;
+						blockDepth = -1;
+					} else if ( depth == chainDepth) {
+						afpChains.add(a);
+						a = null;
+						chainDepth = -1;
+					}
+					depth--;
 				}
-
-				afpChains.add(a);
 			}
 		}
-		catch (SAXParseException err) 
+		catch (XMLStreamException err) 
 		{
+			// as for a document that can not be parsed, nothing is returned
+			afpChains.clear();
 			System.out.println ("** Parsing error" + ", line " 
-					+ err.getLineNumber () + ", uri " + err.getSystemId ());
+					+ (err.getLocation() == null ? -1 : err.getLocation().getLineNumber()));
 			System.out.println(" " + err.getMessage ());
 		}
-		catch (SAXException e)
-		{
-			Exception x = e.getException ();
-			((x == null) ? e : x).printStackTrace ();
-		}
 		catch (Throwable t)
 		{
 			t.printStackTrace ();
 		}
+		finally
+		{
+			if ( reader != null) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e){
+					// nothing left to read
+				}
+			}
+		}
 
 		return afpChains.toArray(new AFPChain[afpChains.size()]);
 	}
 
+	/** creates an AFPChain from the attributes of an AFPChain element */
+	private static AFPChain processAFPChain(XMLStreamReader rootElement){
+		AFPChain a = new AFPChain();
+		a.setAlgorithmName(AFPChain.DEFAULT_ALGORITHM_NAME);
+		a.setVersion("1.0");
+
+		a.setName1(getAttribute(rootElement,"name1"));				
+		a.setName2(getAttribute(rootElement,"name2"));
+		String algoname = getAttribute(rootElement,"method");
+		if ( algoname != null) {
+			a.setAlgorithmName(algoname);					
+		}
+		String version = getAttribute(rootElement,"version");
+		if ( version != null)
+			a.setVersion(version);
+
+		a.setAlnLength(	new Integer(getAttribute(rootElement,"alnLength")).intValue());
+		a.setBlockNum(		new Integer(getAttribute(rootElement,"blockNum")).intValue());
+		a.setGapLen(		new Integer(getAttribute(rootElement,"gapLen")).intValue());
+		a.setOptLength(	new Integer(getAttribute(rootElement,"optLength")).intValue());
+		a.setTotalLenIni(	new Integer(getAttribute(rootElement,"totalLenIni")).intValue());
+		a.setBlockNum(		new Integer(getAttribute(rootElement,"blockNum")).intValue());
+
+		if ( a.getAlgorithmName().equals(CeCPMain.algorithmName)){
+			a.setSequentialAlignment(a.getBlockNum() == 1);
+		}
+		if ( "true".equals(getAttribute(rootElement,"cp")))
+			a.setSequentialAlignment(false);
+
+		a.setAlignScore(new Double(getAttribute(rootElement,"alignScore")).doubleValue());
+		a.setChainRmsd(new Double(getAttribute(rootElement,"chainRmsd")).doubleValue());
+		a.setIdentity(new Double(getAttribute(rootElement,"identity")).doubleValue());
+		a.setNormAlignScore(new Double(getAttribute(rootElement,"normAlignScore")).doubleValue());
+		a.setProbability(new Double(getAttribute(rootElement,"probability")).doubleValue());
+		a.setSimilarity(new Double(getAttribute(rootElement,"similarity")).doubleValue());
+		a.setTotalRmsdIni(new Double(getAttribute(rootElement,"totalRmsdIni")).doubleValue());
+		a.setTotalRmsdOpt(new Double(getAttribute(rootElement,"totalRmsdOpt")).doubleValue());
+		a.setAlignScoreUpdate(new Double(getAttribute(rootElement,"alignScoreUpdate")).doubleValue());
+		int ca1Length = new Integer(getAttribute(rootElement,"ca1Length")).intValue();
+		a.setCa1Length(ca1Length);
+		int ca2Length = new Integer(getAttribute(rootElement,"ca2Length")).intValue();						
+		a.setCa2Length(ca2Length);
+
+		String tmScoreS = getAttribute(rootElement,"tmScore");
+		if ( tmScoreS != null) {
+			Double tmScore = null;
+			try {
+				tmScore = Double.parseDouble(tmScoreS);
+			} catch (Exception e){						
+			}
+			a.setTMScore(tmScore);
+		}
+
+		String calcTimeS = getAttribute(rootElement,"time");
+		Long calcTime = -1L;
+		if ( calcTimeS != null){
 
-	private static  void processBlock(Node block, AFPChain a, int minLength){
-		NodeList valList = block.getChildNodes();
-		int numChildren  = valList.getLength();
+			try {
+				calcTime = Long.parseLong(calcTimeS);
 
-		NamedNodeMap map = block.getAttributes();
+			} catch (Exception e){
+				e.printStackTrace();
+			}					
+		}
+		a.setCalculationTime(calcTime);
+
+		Matrix[] ms = new Matrix[a.getBlockNum()];
+		a.setBlockRotationMatrix(ms);
+		Atom[] blockShiftVector = new Atom[a.getBlockNum()];
+		a.setBlockShiftVector(blockShiftVector);
+
+		int afpNum = new Integer(getAttribute(rootElement,"afpNum")).intValue();
+		List<AFP> afpSet = new ArrayList<AFP>();
+		for (int afp=0;afp<afpNum;afp++){
+			afpSet.add( new AFP());	
+		}
+
+		a.setAfpSet(afpSet);
 
+		int minLength = Math.min(ca1Length, ca2Length);
+		a.setFocusRes1(new int[minLength]);
+		a.setFocusRes2(new int[minLength]);
+
+		return a;
+	}
+
+	/** reads the attributes of a block element
+	 * 
+	 * @return the number of the block
+	 */
+	private static int processBlock(XMLStreamReader block, AFPChain a, int minLength){
 		int blockNum = a.getBlockNum();
 
 		int[] 	  optLen 			= a.getOptLen();
@@ -368,7 +382,6 @@ public class AFPChainXMLParser
 		if ( pdbAln == null)
 			pdbAln         = new String[blockNum][2][minLength];
 
-		//int[][][] optAln 			= new int[blockNum][2][minLength];
 		int[]     blockGap = a.getBlockGap();
 		if ( blockGap == null )
 			blockGap = new int[blockNum];
@@ -382,90 +395,22 @@ public class AFPChainXMLParser
 		double[]  blockRmsd = a.getBlockRmsd();
 		if (blockRmsd == null )
 			blockRmsd = new double[blockNum];
-		Matrix[] ms     = a.getBlockRotationMatrix();
-		Atom[] shifts = a.getBlockShiftVector();
 
-		int blockNr = new Integer( map.getNamedItem("blockNr").getTextContent()).intValue();
+		int blockNr = new Integer( getAttribute(block, "blockNr")).intValue();
 
-		int thisBlockGap = new Integer(map.getNamedItem("blockGap").getTextContent()).intValue();
+		int thisBlockGap = new Integer(getAttribute(block, "blockGap")).intValue();
 		blockGap[blockNr] = thisBlockGap;
 
-		int thisBlockSize = new Integer(map.getNamedItem("blockSize").getTextContent()).intValue();
+		int thisBlockSize = new Integer(getAttribute(block, "blockSize")).intValue();
 		blockSize[blockNr] = thisBlockSize;
 
-		double thisBlockScore = new Double(map.getNamedItem("blockScore").getTextContent()).doubleValue();
+		double thisBlockScore = new Double(getAttribute(block, "blockScore")).doubleValue();
 		blockScore[blockNr] = thisBlockScore;
 
-		double thisBlockRmsd = new Double(map.getNamedItem("blockRmsd").getTextContent()).doubleValue();
+		double thisBlockRmsd = new Double(getAttribute(block, "blockRmsd")).doubleValue();
 		blockRmsd[blockNr] = thisBlockRmsd;
 
-
-		// parse out the equivalent positions from the file
-		int nrEqr = 0;
-		for ( int e =0; e< numChildren ; e++){
-			Node  eqr = valList.item(e);
-
-			if(!eqr.hasAttributes()) continue;
-
-
-			if ( eqr.getNodeName().equals("eqr")) {
-				nrEqr++;
-				NamedNodeMap atts = eqr.getAttributes();
-
-				int eqrNr = new Integer(atts.getNamedItem("eqrNr").getTextContent()).intValue();
-
-				String pdbres1 = atts.getNamedItem("pdbres1").getTextContent();
-				String chain1 = atts.getNamedItem("chain1").getTextContent();
-				String pdbres2 = atts.getNamedItem("pdbres2").getTextContent();
-				String chain2 = atts.getNamedItem("chain2").getTextContent();
-
-				//System.out.println(blockNr + " " + eqrNr + " " + chain1+" " + pdbres1 + ":" + chain2 + " " + pdbres2);
-
-				pdbAln[blockNr][0][eqrNr] = chain1+":"+pdbres1;
-				pdbAln[blockNr][1][eqrNr] = chain2+":"+pdbres2;
-
-				//  A WORK AROUND FOR THE PROBLEM THAT WE DON:T HAVE PDBs LOADED AT THIS TIME...
-
-				/* int pos1 = getPositionForPDBresunm(pdbres1,chain1,ca1);
-				int pos2 = getPositionForPDBresunm(pdbres2,chain2,ca2);
-				//System.out.println("settion optAln " + blockNr + " " + eqrNr + " " + pos1);
-				optAln[blockNr][0][eqrNr] = pos1;
-				optAln[blockNr][1][eqrNr] = pos2;
-				 */
-			} else if ( eqr.getNodeName().equals("matrix")){
-				// process Matrix
-				Matrix m = new Matrix(3,3);
-
-				for (int i =1 ; i <= 3 ; i++){
-					for (int j =1 ; j <= 3 ; j++){
-						String att = getAttribute(eqr, "mat" +i + j);
-						double val = Double.parseDouble(att);
-						m.set(i-1,j-1,val);
-
-					}	
-				}
-				ms[blockNr] = m;
-
-			} else if ( eqr.getNodeName().equals("shift")){
-				Atom shift = new AtomImpl();
-				double x = Double.parseDouble(getAttribute(eqr, "x"));
-				double y = Double.parseDouble(getAttribute(eqr, "y"));
-				double z = Double.parseDouble(getAttribute(eqr, "z"));
-				shift.setX(x);
-				shift.setY(y);
-				shift.setZ(z);
-				shifts[blockNr] = shift;
-
-			}
-
-		}
-		//System.out.println("setting block " + blockNr + " eqr: " + nrEqr);
-		optLen[blockNr] = nrEqr;
-
-
-
 		a.setOptLen(optLen);
-		//a.setOptAln(optAln);
 		a.setPdbAln(pdbAln);
 		a.setBlockGap(blockGap);
 		a.setBlockSize(blockSize);
@@ -473,27 +418,56 @@ public class AFPChainXMLParser
 		a.setBlockScore(blockScore);
 		a.setBlockRmsd(blockRmsd);
 
+		return blockNr;
+	}
 
+	/** reads an equivalent position, the rotation matrix or the shift vector of a block */
+	private static void processBlockChild(XMLStreamReader eqr, String name, AFPChain a, int blockNr){
+		if ( name.equals("eqr")) {
+			int eqrNr = new Integer(getAttribute(eqr, "eqrNr")).intValue();
 
-	}
+			String pdbres1 = getAttribute(eqr, "pdbres1");
+			String chain1 = getAttribute(eqr, "chain1");
+			String pdbres2 = getAttribute(eqr, "pdbres2");
+			String chain2 = getAttribute(eqr, "chain2");
 
-	private static String getAttribute(Node node, String attr){
-		if( ! node.hasAttributes()) 
-			return null;
+			//System.out.println(blockNr + " " + eqrNr + " " + chain1+" " + pdbres1 + ":" + chain2 + " " + pdbres2);
 
-		NamedNodeMap atts = node.getAttributes();
+			String[][][] pdbAln = a.getPdbAln();
+			pdbAln[blockNr][0][eqrNr] = chain1+":"+pdbres1;
+			pdbAln[blockNr][1][eqrNr] = chain2+":"+pdbres2;
 
-		if ( atts == null)
-			return null;
+			// the positions in the atom arrays are set by rebuildAFPChain, once the atoms are known
 
-		Node att = atts.getNamedItem(attr);
-		if ( att == null)
-			return null;
+		} else if ( name.equals("matrix")){
+			// process Matrix
+			Matrix m = new Matrix(3,3);
 
-		String value = att.getTextContent();
+			for (int i =1 ; i <= 3 ; i++){
+				for (int j =1 ; j <= 3 ; j++){
+					String att = getAttribute(eqr, "mat" +i + j);
+					double val = Double.parseDouble(att);
+					m.set(i-1,j-1,val);
 
-		return value;
+				}	
+			}
+			a.getBlockRotationMatrix()[blockNr] = m;
+
+		} else if ( name.equals("shift")){
+			Atom shift = new AtomImpl();
+			double x = Double.parseDouble(getAttribute(eqr, "x"));
+			double y = Double.parseDouble(getAttribute(eqr, "y"));
+			double z = Double.parseDouble(getAttribute(eqr, "z"));
+			shift.setX(x);
+			shift.setY(y);
+			shift.setZ(z);
+			a.getBlockShiftVector()[blockNr] = shift;
+
+		}
+	}
 
+	private static String getAttribute(XMLStreamReader node, String attr){
+		return node.getAttributeValue(null, attr);
 	}
 
 	/** get the position of PDB residue nr X in the ato marray
@@ -234,6 +234,8 @@ public class CathInstallation implements CathDatabase{
         CathNode node = getCathNode( domain.getCATH() );
         List<CathNode> tree = new ArrayList<CathNode>();
         while (node != null) {
+            // class nodes are their own parent
+            if (node.getNodeId().equals(node.getParentId())) break;
             node = getCathNode( node.getParentId() );
             if (node != null) tree.add(node);
         }
@@ -397,9 +399,34 @@ public class CathInstallation implements CathDatabase{
     }
 
     private void parseCathDomainDescriptionFile(BufferedReader bufferedReader) throws IOException{
+        CathDomain cathDescription;
+        while ( (cathDescription = parseCathDomainDescription(bufferedReader)) != null ) {
+            String pdbId = cathDescription.getPdbId().substring(0,4); // includes chain letter
+            List<CathDomain> domainList;
+            if ( pdbMap.containsKey(pdbId)){
+                domainList = pdbMap.get(pdbId);
+            } else {
+                domainList = new ArrayList<CathDomain>();
+                pdbMap.put(pdbId,domainList);
+            }
+
+            domainList.add(cathDescription);
+
+            domainMap.put( cathDescription.getDomainName(), cathDescription );
+        }
+//        transposeDomainData();
+    }
+
+    /** Parses the next domain of a CathDomainDescriptionFile.
+     *
+     * @param bufferedReader the file
+     * @return the domain, or null at the end of the file
+     * @throws IOException if the file can not be read
+     * @since 3.0.6
+     */
+    protected CathDomain parseCathDomainDescription(BufferedReader bufferedReader) throws IOException{
         String line;
         DateFormat dateFormat = new SimpleDateFormat("dd-MMM-yyyy");
-        int counter = 0;
         CathDomain cathDescription = null; //TODO initialize these or catch NPE
         StringBuilder name = null;
         StringBuilder source = null;
@@ -473,24 +500,10 @@ public class CathInstallation implements CathDatabase{
                 cathDescription.setSequenceHeader( seqh.toString() );
                 cathDescription.setSequence( seqs.toString() );
                 cathDescription.setSegments(segments);
-                counter++;
-
-                String pdbId = cathDescription.getPdbId().substring(0,4); // includes chain letter
-			    List<CathDomain> domainList;
-			    if ( pdbMap.containsKey(pdbId)){
-				    domainList = pdbMap.get(pdbId);
-			    } else {
-				    domainList = new ArrayList<CathDomain>();
-				    pdbMap.put(pdbId,domainList);
-			    }
-
-                domainList.add(cathDescription);
-
-                domainMap.put( cathDescription.getDomainName(), cathDescription );
-
+                return cathDescription;
             }
         }
-//        transposeDomainData();
+        return null;
     }
 
 /*    private void transposeDomainData() {
@@ -501,7 +514,7 @@ public class CathInstallation implements CathDatabase{
         }
     }*/
 
-    private CathDomain parseCathListFileLine(String line) {
+    protected CathDomain parseCathListFileLine(String line) {
         CathDomain cathDomain = new CathDomain();
         String [] token = line.split("\\s+");
         cathDomain.setDomainName(token[0]);
@@ -519,7 +532,7 @@ public class CathInstallation implements CathDatabase{
         return cathDomain;
     }
 
-    private CathNode parseCathNamesFileLine(String line) {
+    protected CathNode parseCathNamesFileLine(String line) {
         CathNode cathNode = new CathNode();
         String[] token = line.split("\\s+",3);
         cathNode.setNodeId( token[0] );
@@ -543,93 +556,110 @@ public class CathInstallation implements CathDatabase{
         while ( ((line = bufferedReader.readLine()) != null) ) {
             if ( line.startsWith("#") ) continue;
             if ( line.length() == 0 ) continue;
-            String[] token = line.split("\\s+");
-            String chainId = token[0];
-            Integer numberOfDomains = Integer.parseInt( token[1].substring(1) );
-            Integer numberOfFragments = Integer.parseInt( token[2].substring(1) );
-            int domIdx = 3;
-            int segIdx;
-            Integer sstop;
-            Integer sstart;
-            Integer fstart;
-            Integer fstop;
-            Integer flength;
-            for (int i=1; i<=numberOfDomains; i++) {
-                DecimalFormat df = new DecimalFormat("00");
-                String domainId;
-                CathDomain domain;
+            List<CathFragment> fragments = parseCathDomallLine(line, domainMap);
+            if (parseCathFragments) {
+                String chainId = line.split("\\s+", 2)[0];
+                fragmentMap.put(chainId, fragments);
+            }
+        }
+    }
+
+    /** Parses a line of the CathDomall file and sets the segments of its domains.
+     *
+     * @param line the line
+     * @param domains the domains to set the segments of, by domain name. Domains of the line that are not in the
+     * map are skipped.
+     * @return the fragments of the chain, or null if fragments are not parsed
+     * @since 3.0.6
+     */
+    protected List<CathFragment> parseCathDomallLine(String line, Map<String, CathDomain> domains) {
+        String[] token = line.split("\\s+");
+        String chainId = token[0];
+        Integer numberOfDomains = Integer.parseInt( token[1].substring(1) );
+        Integer numberOfFragments = Integer.parseInt( token[2].substring(1) );
+        int domIdx = 3;
+        int segIdx;
+        Integer sstop;
+        Integer sstart;
+        Integer fstart;
+        Integer fstop;
+        Integer flength;
+        for (int i=1; i<=numberOfDomains; i++) {
+            DecimalFormat df = new DecimalFormat("00");
+            String domainId;
+            CathDomain domain;
 
 //                This logic is necessary because singular domains may be labeled with 00 or 01.
 //                If there is more than one domain, they are always numbered from 01.
-                if (numberOfDomains==1) {
-                    domainId = chainId + "00";
-                    domain = domainMap.get(domainId);
-                    if (domain==null) {
-                        domainId = chainId + "01";
-                        domain = domainMap.get(domainId);
-                    }
-                } else {
-                    domainId = chainId + df.format(i);
-                    domain = domainMap.get(domainId);
+            if (numberOfDomains==1) {
+                domainId = chainId + "00";
+                domain = domains.get(domainId);
+                if (domain==null) {
+                    domainId = chainId + "01";
+                    domain = domains.get(domainId);
                 }
+            } else {
+                domainId = chainId + df.format(i);
+                domain = domains.get(domainId);
+            }
 
-                Integer numberOfSegments = Integer.parseInt( token[domIdx] );
+            Integer numberOfSegments = Integer.parseInt( token[domIdx] );
 
-                if ( domain == null ) {
-                    domIdx += 6*numberOfSegments + 1;
-                    continue;
-                }
+            if ( domain == null ) {
+                domIdx += 6*numberOfSegments + 1;
+                continue;
+            }
 
-                List<CathSegment> segments = new ArrayList<CathSegment>(numberOfSegments);
-                segIdx = 1; // Offset from domIdx.
-                for (int j=1; j<=numberOfSegments; j++) {
-                    CathSegment segment = new CathSegment();
-                    segment.setSegmentId(j);
+            List<CathSegment> segments = new ArrayList<CathSegment>(numberOfSegments);
+            segIdx = 1; // Offset from domIdx.
+            for (int j=1; j<=numberOfSegments; j++) {
+                CathSegment segment = new CathSegment();
+                segment.setSegmentId(j);
 //                    String chainLetter = token[domIdx+segIdx]; // Redundant unless some domains cross chain boundaries.
-                    sstart = Integer.parseInt( token[domIdx + segIdx + 1] );
-                    String sstartInsertion = token[domIdx + segIdx + 2];
-                    sstartInsertion = sstartInsertion.equals("-") ? "" : sstartInsertion;
+                sstart = Integer.parseInt( token[domIdx + segIdx + 1] );
+                String sstartInsertion = token[domIdx + segIdx + 2];
+                sstartInsertion = sstartInsertion.equals("-") ? "" : sstartInsertion;
 //                    String chainLetter = token[domIdx+segIdx+4]; // Redundant unless some segments cross chain boundaries.
-                    segment.setStart(sstart + sstartInsertion);
+                segment.setStart(sstart + sstartInsertion);
 
-                    sstop = Integer.parseInt( token[domIdx + segIdx + 4] );
-                    String sstopInsertion = token[domIdx + segIdx + 5];
-                    sstopInsertion = sstopInsertion.equals("-") ? "" : sstopInsertion;
+                sstop = Integer.parseInt( token[domIdx + segIdx + 4] );
+                String sstopInsertion = token[domIdx + segIdx + 5];
+                sstopInsertion = sstopInsertion.equals("-") ? "" : sstopInsertion;
 
-                    segment.setStart(sstart + sstartInsertion);
-                    segment.setStop(sstop + sstopInsertion);
-                    segment.setLength(1 + sstop - sstart);
-                    segments.add(segment);
+                segment.setStart(sstart + sstartInsertion);
+                segment.setStop(sstop + sstopInsertion);
+                segment.setLength(1 + sstop - sstart);
+                segments.add(segment);
 
-                    segIdx += 6;
-                }
-                domain.setSegments(segments);
-                domIdx += 6*numberOfSegments + 1;
+                segIdx += 6;
             }
-            if (parseCathFragments) {
+            domain.setSegments(segments);
+            domIdx += 6*numberOfSegments + 1;
+        }
+        if (parseCathFragments) {
             List<CathFragment> fragments = new ArrayList<CathFragment>(numberOfFragments);
-                for (int i=1; i<=numberOfFragments; i++) {
-                    CathFragment fragment = new CathFragment();
-                    fragment.setFragmentId(i);
+            for (int i=1; i<=numberOfFragments; i++) {
+                CathFragment fragment = new CathFragment();
+                fragment.setFragmentId(i);
 //                    String chainLetter = token[domIdx]; // Redundant unless some fragments cross chain boundaries.
-                    fstart = Integer.parseInt( token[domIdx+1] );
-                    String fstartInsertion = token[domIdx + 2];
-                    fstartInsertion = fstartInsertion.equals("-") ? "" : fstartInsertion;
-                    fragment.setStart(fstart + fstartInsertion);
+                fstart = Integer.parseInt( token[domIdx+1] );
+                String fstartInsertion = token[domIdx + 2];
+                fstartInsertion = fstartInsertion.equals("-") ? "" : fstartInsertion;
+                fragment.setStart(fstart + fstartInsertion);
 //                    String chainLetter = token[domIdx+3]; // Redundant unless some fragments cross chain boundaries.
-                    fstop = Integer.parseInt( token[domIdx+4] );
-                    String fstopInsertion = token[domIdx + 5];
-                    fstopInsertion = fstopInsertion.equals("-") ? "" : fstopInsertion;
-                    fragment.setStop(fstop + fstopInsertion);
-                    flength = Integer.parseInt( token[domIdx + 6].replaceAll("[^0-9]","") );
-                    fragment.setLength(flength);
-                    fragments.add(fragment);
-                    domIdx += 7;
-                }
-                fragmentMap.put(chainId, fragments);
+                fstop = Integer.parseInt( token[domIdx+4] );
+                String fstopInsertion = token[domIdx + 5];
+                fstopInsertion = fstopInsertion.equals("-") ? "" : fstopInsertion;
+                fragment.setStop(fstop + fstopInsertion);
+                flength = Integer.parseInt( token[domIdx + 6].replaceAll("[^0-9]","") );
+                fragment.setLength(flength);
+                fragments.add(fragment);
+                domIdx += 7;
             }
-//            if ( domIdx != token.length ); // Problems.
+            return fragments;
         }
+//            if ( domIdx != token.length ); // Problems.
+        return null;
     }
 
     protected void downloadFileFromRemote(URL remoteURL, File localFile) throws FileNotFoundException, IOException{
@@ -0,0 +1,412 @@
+/*
+ * BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ */
+
+package org.biojava.bio.structure.cath;
+
+import org.biojava.bio.structure.align.util.UserConfiguration;
+import org.biojava.bio.structure.io.util.ClassificationIndex;
+import org.biojava3.core.util.InputStreamProvider;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Provides access to a local CATH installation through an index file, instead of keeping the whole
+ * classification in memory.
+ *
+ * The first time the classification is used, the CATH files are downloaded if necessary and an index file
+ * (CathIndex.v + version) is written next to them. Afterwards only the memory mapped index is used, and domains
+ * and nodes are created from it when they are requested. The index is built again if the CATH files change.
+ *
+ * In addition to the methods of {@link CathDatabase}, {@link #searchNodes(String)} and
+ * {@link #searchDescriptions(String)} find nodes and domains by the start of the words of their descriptions.
+ *
+ * @since 3.0.6
+ */
+public class IndexedCathInstallation extends CathInstallation {
+
+    public static final String indexFileName = "CathIndex";
+
+    private static final String DOMAIN = "domain";
+    private static final String PDB = "pdb";
+    private static final String CATH = "cath";
+    private static final String DESCRIPTION = "description";
+    private static final String TOKEN = "token";
+    private static final String DOMALL = "domall";
+    private static final String NODE = "node";
+    private static final String NODE_NAME = "nodename";
+    private static final String NODE_TOKEN = "nodetoken";
+    private static final String CATEGORY = "category";
+
+    private ClassificationIndex index;
+
+    public IndexedCathInstallation(String cacheLocation, boolean usingCDDF, boolean parseCF) {
+        super(cacheLocation, usingCDDF, parseCF);
+    }
+
+    public IndexedCathInstallation(String cacheLocation) {
+        this(cacheLocation, false, false);
+    }
+
+    public IndexedCathInstallation() {
+        this((new UserConfiguration()).getPdbFilePath());
+    }
+
+    public String getIndexFileName() {
+        return cacheLocation + indexFileName + (useCathDomainDescriptionFile ? "CDDF" : "") + ".v" + cathVersion;
+    }
+
+    private String[] getSourceFileNames() {
+        if (useCathDomainDescriptionFile) {
+            return new String[] { getDomainDescriptionFileName(), getNodeListFileName() };
+        }
+        return new String[] { getDomainListFileName(), getDomallFileName(), getNodeListFileName() };
+    }
+
+    /** @return a text that changes whenever one of the CATH files changes, or null if a file is missing */
+    private String getSourceStamp() {
+        StringBuilder stamp = new StringBuilder(cathVersion);
+        for (String name : getSourceFileNames()) {
+            File f = new File(name);
+            if ( !f.exists() ) return null;
+            stamp.append('|').append(f.getName()).append(':').append(f.length()).append(':').append(f.lastModified());
+        }
+        return stamp.toString();
+    }
+
+    /** Opens the index, and builds it first if it does not exist or is out of date.
+     *
+     * @return the index, or null if it can not be built
+     */
+    protected synchronized ClassificationIndex getIndex() {
+        if ( index != null ) return index;
+
+        File indexFile = new File(getIndexFileName());
+        String stamp = getSourceStamp();
+        if ( indexFile.exists() ) {
+            try {
+                ClassificationIndex existing = ClassificationIndex.open(indexFile);
+                if ( stamp == null || existing.getStamp().equals(stamp) ) {
+                    index = existing;
+                    return index;
+                }
+            } catch (IOException e) {
+                System.err.println("Could not read CATH index " + indexFile + ", building it again: " + e.getMessage());
+            }
+        }
+
+        try {
+            if ( !new File(getNodeListFileName()).exists() ) downloadNodeListFile();
+            if (useCathDomainDescriptionFile) {
+                if ( !new File(getDomainDescriptionFileName()).exists() ) downloadDomainDescriptionFile();
+            } else {
+                if ( !new File(getDomainListFileName()).exists() ) downloadDomainListFile();
+                if ( !new File(getDomallFileName()).exists() ) downloadDomallFile();
+            }
+            buildIndex(indexFile, getSourceStamp());
+            index = ClassificationIndex.open(indexFile);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+        return index;
+    }
+
+    private void buildIndex(File indexFile, String stamp) throws IOException {
+        long timeS = System.currentTimeMillis();
+        ClassificationIndex.Builder builder = new ClassificationIndex.Builder();
+        for (String table : new String[] { DOMAIN, PDB, CATH, DESCRIPTION, TOKEN, DOMALL, NODE, NODE_NAME, NODE_TOKEN, CATEGORY }) {
+            builder.addTable(table);
+        }
+
+        BufferedReader reader = open(getNodeListFileName());
+        try {
+            String line;
+            while ( (line = reader.readLine()) != null ) {
+                if ( line.startsWith("#") ) continue;
+                CathNode node = parseCathNamesFileLine(line);
+                long record = builder.addRecord(line);
+                builder.addKey(NODE, node.getNodeId(), record);
+                builder.addKey(NODE_NAME, node.getDescription(), record);
+                builder.addKey(CATEGORY, node.getCategory().toString(), record);
+                for (String token : ClassificationIndex.tokenize(node.getDescription())) {
+                    builder.addKey(NODE_TOKEN, token, record);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        if (useCathDomainDescriptionFile) {
+            reader = open(getDomainDescriptionFileName());
+            try {
+                String line;
+                StringBuilder block = new StringBuilder();
+                while ( (line = reader.readLine()) != null ) {
+                    if ( line.startsWith("#") ) continue;
+                    block.append(line).append('\n');
+                    if ( !line.startsWith("//") ) continue;
+
+                    String text = block.toString();
+                    block.setLength(0);
+                    CathDomain domain = parseCathDomainDescription(new BufferedReader(new StringReader(text)));
+                    if ( domain == null ) continue;
+                    long record = builder.addRecord(text);
+                    addDomainKeys(builder, domain, record);
+                    builder.addKey(DESCRIPTION, domain.getName(), record);
+                    for (String token : ClassificationIndex.tokenize(domain.getName())) {
+                        builder.addKey(TOKEN, token, record);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } else {
+            reader = open(getDomainListFileName());
+            try {
+                String line;
+                while ( (line = reader.readLine()) != null ) {
+                    if ( line.startsWith("#") ) continue;
+                    addDomainKeys(builder, parseCathListFileLine(line), builder.addRecord(line));
+                }
+            } finally {
+                reader.close();
+            }
+
+            reader = open(getDomallFileName());
+            try {
+                String line;
+                while ( (line = reader.readLine()) != null ) {
+                    if ( line.startsWith("#") ) continue;
+                    if ( line.length() == 0 ) continue;
+                    builder.addKey(DOMALL, line.split("\\s+", 2)[0], builder.addRecord(line));
+                }
+            } finally {
+                reader.close();
+            }
+        }
+
+        builder.write(indexFile, stamp);
+        System.out.println("indexed CATH " + cathVersion + " in " + (System.currentTimeMillis() - timeS) + " ms.");
+    }
+
+    private static void addDomainKeys(ClassificationIndex.Builder builder, CathDomain domain, long record) {
+        builder.addKey(DOMAIN, domain.getDomainName(), record);
+        builder.addKey(PDB, domain.getDomainName().substring(0, 4).toLowerCase(), record);
+        builder.addKey(CATH, domain.getCATH(), record);
+    }
+
+    private static BufferedReader open(String fileName) throws IOException {
+        InputStreamProvider ips = new InputStreamProvider();
+        return new BufferedReader(new InputStreamReader(ips.getInputStream(new File(fileName))));
+    }
+
+    /** Creates the domains of some records, including their segments. */
+    private List<CathDomain> getDomains(ClassificationIndex idx, List<Long> records) {
+        List<CathDomain> domains = new ArrayList<CathDomain>(records.size());
+        try {
+            for (long r : records) {
+                String record = idx.getRecord(r);
+                if (useCathDomainDescriptionFile) {
+                    domains.add(parseCathDomainDescription(new BufferedReader(new StringReader(record))));
+                } else {
+                    domains.add(parseCathListFileLine(record));
+                }
+            }
+        } catch (IOException e) {
+            // can not happen when reading from a String
+            throw new IllegalStateException(e);
+        }
+        if ( !useCathDomainDescriptionFile ) {
+            addSegments(idx, domains);
+        }
+        return domains;
+    }
+
+    /** Sets the segments of domains from the CathDomall records of their chains. */
+    private void addSegments(ClassificationIndex idx, List<CathDomain> domains) {
+        Map<String, Map<String, CathDomain>> chains = new LinkedHashMap<String, Map<String, CathDomain>>();
+        for (CathDomain d : domains) {
+            String chainId = d.getDomainName().substring(0, d.getDomainName().length() - 2);
+            Map<String, CathDomain> chain = chains.get(chainId);
+            if ( chain == null ) {
+                chain = new HashMap<String, CathDomain>();
+                chains.put(chainId, chain);
+            }
+            chain.put(d.getDomainName(), d);
+        }
+
+        for (Map.Entry<String, Map<String, CathDomain>> e : chains.entrySet()) {
+            String chainId = e.getKey();
+            Map<String, CathDomain> chain = e.getValue();
+            for (long r : idx.lookup(DOMALL, chainId)) {
+                // the other domains of the chain decide which domain a single segment belongs to
+                for (long p : idx.lookup(PDB, chainId.substring(0, 4).toLowerCase())) {
+                    String line = idx.getRecord(p);
+                    String name = line.split("\\s+", 2)[0];
+                    if ( name.startsWith(chainId) && !chain.containsKey(name) ) {
+                        chain.put(name, parseCathListFileLine(line));
+                    }
+                }
+                parseCathDomallLine(idx.getRecord(r), chain);
+            }
+        }
+    }
+
+    private CathDomain getFirst(List<CathDomain> domains) {
+        return domains.isEmpty() ? null : domains.get(0);
+    }
+
+    private List<CathNode> getNodes(ClassificationIndex idx, List<Long> records) {
+        List<CathNode> nodes = new ArrayList<CathNode>(records.size());
+        for (long r : records) {
+            nodes.add(parseCathNamesFileLine(idx.getRecord(r)));
+        }
+        return nodes;
+    }
+
+    @Override
+    public CathNode getCathNode(String nodeId) {
+        ClassificationIndex idx = getIndex();
+        if ( idx == null ) return null;
+        List<CathNode> nodes = getNodes(idx, idx.lookup(NODE, nodeId));
+        return nodes.isEmpty() ? null : nodes.get(0);
+    }
+
+    @Override
+    public List<CathDomain> getByCategory(CathCategory category) {
+        List<CathDomain> matches = new ArrayList<CathDomain>();
+        ClassificationIndex idx = getIndex();
+        if ( idx == null ) return matches;
+        for (CathNode node : getNodes(idx, idx.lookup(CATEGORY, category.toString()))) {
+            CathDomain domain = getDomainByCathId(node.getRepresentative());
+            if ( domain != null ) matches.add(domain);
+        }
+        return matches;
+    }
+
+    @Override
+    public List<CathDomain> filterByCathCode(String query) {
+        ClassificationIndex idx = getIndex();
+        if ( idx == null ) return new ArrayList<CathDomain>();
+        return getDomains(idx, idx.lookupPrefix(CATH, query));
+    }
+
+    @Override
+    public List<CathDomain> filterByNodeName(String query) {
+        List<CathDomain> matches = new ArrayList<CathDomain>();
+        ClassificationIndex idx = getIndex();
+        if ( idx == null ) return matches;
+        for (CathNode n : getNodes(idx, idx.lookupPrefix(NODE_NAME, query))) {
+            matches.addAll(getDomainsByNodeId(n.getNodeId()));
+        }
+        return matches;
+    }
+
+    /** Finds nodes whose description contains words starting with every word of the query, ignoring case.
+     *
+     * @param query the words to search for
+     * @return the matching nodes
+     */
+    public List<CathNode> searchNodes(String query) {
+        ClassificationIndex idx = getIndex();
+        if ( idx == null ) return new ArrayList<CathNode>();
+        return getNodes(idx, idx.searchTokens(NODE_TOKEN, query));
+    }
+
+    @Override
+    public List<CathDomain> filterByDescription(String query) {
+        ClassificationIndex idx = getIndex();
+        if ( idx == null ) return new ArrayList<CathDomain>();
+        return getDomains(idx, idx.lookupPrefix(DESCRIPTION, query));
+    }
+
+    /** Finds domains whose name contains words starting with every word of the query, ignoring case. Domains
+     * only have names if the CathDomainDescriptionFile is used.
+     *
+     * @param query the words to search for
+     * @return the matching domains
+     */
+    public List<CathDomain> searchDescriptions(String query) {
+        ClassificationIndex idx = getIndex();
+        if ( idx == null ) return new ArrayList<CathDomain>();
+        return getDomains(idx, idx.searchTokens(TOKEN, query));
+    }
+
+    @Override
+    public CathDomain getDescriptionByNodeId(String nodeId) {
+        CathNode node = getCathNode(nodeId);
+        if ( node == null ) return null;
+        return getDomainByCathId(node.getRepresentative());
+    }
+
+    @Override
+    public List<CathDomain> getDomainsForPdb(String pdbId) {
+        ClassificationIndex idx = getIndex();
+        if ( idx == null ) return null;
+        List<CathDomain> domains = getDomains(idx, idx.lookup(PDB, pdbId.toLowerCase()));
+        return domains.isEmpty() ? null : domains;
+    }
+
+    @Override
+    public CathDomain getDomainByCathId(String cathId) {
+        ClassificationIndex idx = getIndex();
+        if ( idx == null ) return null;
+        return getFirst(getDomains(idx, idx.lookup(DOMAIN, cathId)));
+    }
+
+    @Override
+    public CathDomain getDescriptionByCathId(String cathId) {
+        return getDomainByCathId(cathId);
+    }
+
+    @Override
+    public List<CathDomain> getDomainsByNodeId(String nodeId) {
+        ClassificationIndex idx = getIndex();
+        if ( idx == null ) return new ArrayList<CathDomain>();
+        return getDomains(idx, idx.lookupPrefix(CATH, nodeId));
+    }
+
+    @Override
+    public List<CathFragment> getFragmentsByPdbId(String pdbId) {
+        if ( useCathDomainDescriptionFile || !parseCathFragments ) return null;
+        ClassificationIndex idx = getIndex();
+        if ( idx == null ) return null;
+        for (long r : idx.lookup(DOMALL, pdbId)) {
+            return parseCathDomallLine(idx.getRecord(r), new HashMap<String, CathDomain>());
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void setCacheLocation(String cacheLocation) {
+        super.setCacheLocation(cacheLocation);
+        index = null;
+    }
+}
@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 
@@ -39,16 +40,18 @@ public class AllChemCompProvider implements ChemCompProvider, Runnable{
 	static AtomicBoolean loading       = new AtomicBoolean(false);
 	static AtomicBoolean isInitialized = new AtomicBoolean(false);
 
+	// released once the dictionary has been loaded, readers block on it instead of polling
+	static final CountDownLatch loaded = new CountDownLatch(1);
+
 	public AllChemCompProvider(){
 
-		if ( loading.get()) {
-			System.err.println("other thread is already loading all chemcomps, no need to init twice");
-			return;
-		}
 		if ( isInitialized.get())
 			return;
 
-		loading.set(true);
+		if ( ! loading.compareAndSet(false, true)) {
+			System.err.println("other thread is already loading all chemcomps, no need to init twice");
+			return;
+		}
 
 		Thread t = new Thread(this);
 		t.start();
@@ -167,20 +170,16 @@ public class AllChemCompProvider implements ChemCompProvider, Runnable{
 	 */
 	public ChemComp getChemComp(String recordName) {
 
-		while ( loading.get()) {
-
-			// another thread is still initializing the definitions
-			try {
-				// wait half a second
-
-				Thread.sleep(500);
-			} catch (InterruptedException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
+		// another thread might still be initializing the definitions
+		try {
+			loaded.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
 		}
-		
-		
+
+		if ( dict == null)
+			return null;
 
 		return dict.getChemComp(recordName);
 	}
@@ -204,8 +203,9 @@ public class AllChemCompProvider implements ChemCompProvider, Runnable{
 		long timeE = System.currentTimeMillis();
 		System.out.println("time to init chem comp dictionary: " + (timeE - timeS) / 1000 + " sec.");
 
+		isInitialized.set(true);
 		loading.set(false);
-		isInitialized.set(true);		
+		loaded.countDown();
 	}
 
 }
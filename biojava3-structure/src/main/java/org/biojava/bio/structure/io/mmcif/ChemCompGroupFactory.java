@@ -30,39 +30,62 @@ import org.biojava.bio.structure.NucleotideImpl;
 
 import org.biojava.bio.structure.io.mmcif.chem.PolymerType;
 import org.biojava.bio.structure.io.mmcif.model.ChemComp;
-import org.biojava3.core.util.SoftHashMap;
+
+import org.biojava3.core.util.ConcurrentCache;
 
 
 public class ChemCompGroupFactory {
 
-	static ChemCompProvider chemCompProvider = new DownloadChemCompProvider();
+	static volatile ChemCompProvider chemCompProvider = new DownloadChemCompProvider();
+
+	/** marks components the provider could not find, so they are not requested again */
+	private static final ChemComp NOT_FOUND = new ChemComp();
 
-	static SoftHashMap<String, ChemComp> cache = new SoftHashMap<String, ChemComp>(0);
+	/** every component is loaded at most once per provider, even if several threads ask for it at the same time:
+	 * the first thread loads it, the others wait for its result. If the provider throws, nothing is cached and
+	 * the next request tries again.
+	 */
+	static final ConcurrentCache<String, ChemComp> cache = new ConcurrentCache<String, ChemComp>(ConcurrentCache.Retention.STRONG);
 
 	public static ChemComp getChemComp(String recordName){
 
 		recordName = recordName.toUpperCase().trim();
 
+		final ChemCompProvider provider = chemCompProvider;
+
 		// we are using the cache, to avoid hitting the file system too often.
-		ChemComp cc = cache.get(recordName);
-		if ( cc != null)
-			return cc;
-
-		// not cached, get the chem comp from the provider 
-		cc = chemCompProvider.getChemComp(recordName);
-		
-		cache.put(recordName, cc);
+		ChemComp cc = cache.computeIfAbsent(recordName, new ConcurrentCache.Loader<String, ChemComp>() {
+			public ChemComp load(String id) {
+				ChemComp c = provider.getChemComp(id);
+				return c == null ? NOT_FOUND : c;
+			}
+		});
+
+		if ( cc == NOT_FOUND)
+			return null;
 		return cc;
 	}
 
+	/** changes the provider and clears the cache of components loaded with the previous provider
+	 * 
+	 * @param provider
+	 */
 	public static void setChemCompProvider(ChemCompProvider provider){
 		chemCompProvider = provider;
+		cache.clear();
 	}
 
 	public static ChemCompProvider getChemCompProvider(){
 		return chemCompProvider;
 	}
 
+	/** remove all cached components
+	 * 
+	 */
+	public static void clearCache(){
+		cache.clear();
+	}
+
 	public static Group getGroupFromChemCompDictionary(String recordName) {
 
 		// make sure we work with upper case records		
@@ -0,0 +1,479 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.io.mmcif;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.biojava.bio.structure.io.mmcif.model.ChemComp;
+import org.biojava.bio.structure.io.mmcif.model.ChemCompDescriptor;
+import org.biojava3.core.util.InputStreamProvider;
+
+/** A {@link ChemCompProvider} that reads chemical component definitions from a binary snapshot
+ * of the components.cif file.
+ *
+ * The snapshot is compiled once from components.cif and is memory mapped when the provider is created,
+ * so startup only costs a file mapping and every lookup is a binary search followed by the deserialization of
+ * a single component. The snapshot file can be shared by several JVMs.
+ *
+ * The file layout is a header (magic number, version, number of components), followed by a table of fixed size
+ * slots sorted by component id (8 bytes id, 8 bytes offset, 4 bytes length), followed by the serialized
+ * {@link ChemComp} objects.
+ *
+ * Components that are not contained in the snapshot are requested from an optional fallback provider.
+ *
+ * @since 3.0.6
+ */
+public class ChemCompSnapshot implements ChemCompProvider {
+
+	public static final String DEFAULT_SNAPSHOT_FILE = "components.ccsnap";
+
+	private static final int MAGIC   = 0x43435350; // "CCSP"
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 12;
+	private static final int ID_SIZE     = 8;
+	private static final int SLOT_SIZE   = ID_SIZE + 8 + 4;
+
+	private static final Logger logger = Logger.getLogger("org.biojava.bio.structure");
+
+	private final File file;
+	private final MappedByteBuffer buffer;
+	private final int size;
+	private final ChemCompProvider fallback;
+
+	/** Maps a compiled snapshot file.
+	 *
+	 * @param snapshot the snapshot file, as written by {@link #compile(File, File)}
+	 * @throws IOException if the file can not be read or is not a snapshot
+	 */
+	public ChemCompSnapshot(File snapshot) throws IOException {
+		this(snapshot, null);
+	}
+
+	/** Maps a compiled snapshot file.
+	 *
+	 * @param snapshot the snapshot file, as written by {@link #compile(File, File)}
+	 * @param fallback provider for components that are not contained in the snapshot, or null
+	 * @throws IOException if the file can not be read or is not a snapshot
+	 */
+	public ChemCompSnapshot(File snapshot, ChemCompProvider fallback) throws IOException {
+		this.file = snapshot;
+		this.fallback = fallback;
+
+		RandomAccessFile raf = new RandomAccessFile(snapshot, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			// the mapping stays valid after the channel has been closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			raf.close();
+		}
+
+		if ( buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+			throw new IOException(snapshot + " is not a chemical component snapshot");
+		if ( buffer.getInt(4) != VERSION)
+			throw new IOException("unsupported chemical component snapshot version " + buffer.getInt(4) + " in " + snapshot);
+
+		size = buffer.getInt(8);
+		if ( (long) HEADER_SIZE + (long) size * SLOT_SIZE > buffer.limit())
+			throw new IOException("truncated chemical component snapshot " + snapshot);
+	}
+
+	/** Returns a provider for the snapshot of a components.cif file. The snapshot is stored next to the components.cif
+	 * file and is compiled first, if it does not exist yet or is older than the components.cif file.
+	 *
+	 * @param componentsCif the components.cif(.gz) file
+	 * @param fallback provider for components that are not contained in the snapshot, or null
+	 * @return a provider for the snapshot
+	 * @throws IOException
+	 */
+	public static ChemCompSnapshot open(File componentsCif, ChemCompProvider fallback) throws IOException {
+		File snapshot = new File(componentsCif.getParentFile(), DEFAULT_SNAPSHOT_FILE);
+
+		if ( ! snapshot.exists() || snapshot.lastModified() < componentsCif.lastModified()) {
+			compile(componentsCif, snapshot);
+		}
+		return new ChemCompSnapshot(snapshot, fallback);
+	}
+
+	/** Compiles a components.cif(.gz) file into a binary snapshot. Components are serialized while the file is parsed,
+	 * so the dictionary is never held in memory as a whole. The snapshot is written to a temporary file first and
+	 * then renamed, so other processes never see a partially written snapshot.
+	 *
+	 * @param componentsCif the components.cif(.gz) file
+	 * @param snapshot the snapshot file to write
+	 * @return the number of components in the snapshot
+	 * @throws IOException
+	 */
+	public static int compile(File componentsCif, File snapshot) throws IOException {
+		long timeS = System.currentTimeMillis();
+
+		File dir = snapshot.getAbsoluteFile().getParentFile();
+		File data = File.createTempFile("chemcomp", ".data", dir);
+		File tmp = File.createTempFile("chemcomp", ".tmp", dir);
+		try {
+			SnapshotConsumer consumer = new SnapshotConsumer(data);
+			try {
+				InputStream inStream = new InputStreamProvider().getInputStream(componentsCif.getPath());
+				BufferedReader buf = new BufferedReader(new InputStreamReader(inStream));
+				try {
+					MMcifParser parser = new SimpleMMcifParser();
+					parser.addMMcifConsumer(consumer);
+					parser.parse(buf);
+				} finally {
+					buf.close();
+				}
+				consumer.flush();
+			} finally {
+				consumer.close();
+			}
+
+			List<Slot> slots = consumer.slots;
+			Collections.sort(slots);
+
+			long dataStart = HEADER_SIZE + (long) slots.size() * SLOT_SIZE;
+
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(slots.size());
+
+				String previous = null;
+				for (Slot slot : slots){
+					if ( slot.id.equals(previous))
+						throw new IOException("duplicate chemical component " + slot.id + " in " + componentsCif);
+					previous = slot.id;
+
+					out.write(slot.key);
+					out.writeLong(dataStart + slot.offset);
+					out.writeInt(slot.length);
+				}
+
+				InputStream in = new FileInputStream(data);
+				try {
+					byte[] b = new byte[64 * 1024];
+					int read;
+					while ((read = in.read(b)) != -1)
+						out.write(b, 0, read);
+				} finally {
+					in.close();
+				}
+			} finally {
+				out.close();
+			}
+
+			if ( ! tmp.renameTo(snapshot)) {
+				// renaming onto an existing file fails on some platforms
+				snapshot.delete();
+				if ( ! tmp.renameTo(snapshot))
+					throw new IOException("could not move " + tmp + " to " + snapshot);
+			}
+
+			long timeE = System.currentTimeMillis();
+			logger.info("compiled " + slots.size() + " chemical components into " + snapshot + " in " + (timeE - timeS) + " ms.");
+
+			return slots.size();
+		} finally {
+			data.delete();
+			tmp.delete();
+		}
+	}
+
+	/** {@inheritDoc}
+	 *
+	 */
+	public ChemComp getChemComp(String recordName) {
+
+		String id = recordName.toUpperCase().trim();
+
+		int slot = find(id);
+		if ( slot < 0) {
+			if ( fallback != null)
+				return fallback.getChemComp(id);
+			return null;
+		}
+
+		int pos = HEADER_SIZE + slot * SLOT_SIZE + ID_SIZE;
+		long offset = buffer.getLong(pos);
+		int length  = buffer.getInt(pos + 8);
+
+		// the shared buffer is only accessed with absolute reads, every reader works on its own view
+		ByteBuffer blob = buffer.duplicate();
+		blob.position((int) offset);
+		blob.limit((int) offset + length);
+
+		try {
+			ObjectInputStream in = new ObjectInputStream(new ByteBufferInputStream(blob));
+			try {
+				return (ChemComp) in.readObject();
+			} finally {
+				in.close();
+			}
+		} catch (Exception e){
+			logger.warning("could not read chemical component " + id + " from " + file + ": " + e.getMessage());
+		}
+		return null;
+	}
+
+	/** Returns true if the snapshot contains a definition for this component.
+	 *
+	 * @param recordName the ID of the {@link ChemComp}
+	 * @return true if the snapshot contains a definition for this component
+	 */
+	public boolean contains(String recordName){
+		return find(recordName.toUpperCase().trim()) >= 0;
+	}
+
+	/** Returns the IDs of all components in this snapshot, in sorted order.
+	 *
+	 * @return the IDs of all components
+	 */
+	public List<String> getIds(){
+		List<String> ids = new ArrayList<String>(size);
+		byte[] key = new byte[ID_SIZE];
+		for (int i = 0 ; i < size ; i++){
+			readKey(i, key);
+			ids.add(new String(key, 0, keyLength(key)));
+		}
+		return ids;
+	}
+
+	/** Returns the number of components in this snapshot.
+	 *
+	 * @return the number of components
+	 */
+	public int size(){
+		return size;
+	}
+
+	public File getFile(){
+		return file;
+	}
+
+	public ChemCompProvider getFallback(){
+		return fallback;
+	}
+
+	private int find(String id){
+		byte[] key = toKey(id);
+		if ( key == null)
+			return -1;
+
+		byte[] other = new byte[ID_SIZE];
+		int low = 0;
+		int high = size - 1;
+		while ( low <= high){
+			int mid = (low + high) >>> 1;
+			readKey(mid, other);
+			int cmp = compareKeys(other, key);
+			if ( cmp < 0)
+				low = mid + 1;
+			else if ( cmp > 0)
+				high = mid - 1;
+			else
+				return mid;
+		}
+		return -1;
+	}
+
+	private void readKey(int slot, byte[] key){
+		int pos = HEADER_SIZE + slot * SLOT_SIZE;
+		for (int i = 0 ; i < ID_SIZE ; i++)
+			key[i] = buffer.get(pos + i);
+	}
+
+	/** converts an ID to its zero padded ASCII representation, or null if it does not fit into a slot.
+	 */
+	private static byte[] toKey(String id){
+		if ( id.length() == 0 || id.length() > ID_SIZE)
+			return null;
+		byte[] key = new byte[ID_SIZE];
+		for (int i = 0 ; i < id.length() ; i++){
+			char c = id.charAt(i);
+			if ( c > 127)
+				return null;
+			key[i] = (byte) c;
+		}
+		return key;
+	}
+
+	private static int keyLength(byte[] key){
+		int length = 0;
+		while ( length < key.length && key[length] != 0)
+			length++;
+		return length;
+	}
+
+	private static int compareKeys(byte[] a, byte[] b){
+		for (int i = 0 ; i < ID_SIZE ; i++){
+			int cmp = (a[i] & 0xff) - (b[i] & 0xff);
+			if ( cmp != 0)
+				return cmp;
+		}
+		return 0;
+	}
+
+	private static class Slot implements Comparable<Slot> {
+		final String id;
+		final byte[] key;
+		final long offset;
+		final int length;
+
+		Slot(String id, byte[] key, long offset, int length){
+			this.id = id;
+			this.key = key;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		public int compareTo(Slot o) {
+			return compareKeys(key, o.key);
+		}
+	}
+
+	/** Serializes every component to the data file as soon as the parser has finished with it,
+	 * i.e. when the next component starts or the document ends.
+	 */
+	private static class SnapshotConsumer extends ChemCompConsumer {
+
+		final List<Slot> slots = new ArrayList<Slot>();
+		final DataOutputStream out;
+		ChemComp current;
+		long offset;
+		IOException error;
+
+		SnapshotConsumer(File data) throws IOException {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(data)));
+		}
+
+		@Override
+		public void newChemComp(ChemComp c) {
+			write();
+			current = c;
+		}
+
+		@Override
+		public void newChemCompDescriptor(ChemCompDescriptor ccd) {
+			if ( current != null)
+				current.getDescriptors().add(ccd);
+		}
+
+		@Override
+		public void documentEnd() {
+			write();
+		}
+
+		void flush() throws IOException {
+			write();
+			if ( error != null)
+				throw error;
+			out.flush();
+		}
+
+		void close() throws IOException {
+			out.close();
+		}
+
+		private void write(){
+			if ( current == null || error != null)
+				return;
+
+			ChemComp c = current;
+			current = null;
+
+			byte[] key = toKey(c.getId());
+			if ( key == null) {
+				logger.warning("chemical component id " + c.getId() + " is too long for the snapshot, skipping.");
+				return;
+			}
+
+			try {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				ObjectOutputStream oos = new ObjectOutputStream(bytes);
+				oos.writeObject(c);
+				oos.close();
+
+				bytes.writeTo(out);
+				slots.add(new Slot(c.getId(), key, offset, bytes.size()));
+				offset += bytes.size();
+			} catch (IOException e){
+				// the parser does not let consumers throw checked exceptions
+				error = e;
+			}
+		}
+	}
+
+	/** An InputStream view of a ByteBuffer.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buf;
+
+		ByteBufferInputStream(ByteBuffer buf){
+			this.buf = buf;
+		}
+
+		@Override
+		public int read() {
+			if ( ! buf.hasRemaining())
+				return -1;
+			return buf.get() & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if ( len == 0)
+				return 0;
+			if ( ! buf.hasRemaining())
+				return -1;
+			len = Math.min(len, buf.remaining());
+			buf.get(b, off, len);
+			return len;
+		}
+
+		@Override
+		public int available() {
+			return buf.remaining();
+		}
+	}
+}
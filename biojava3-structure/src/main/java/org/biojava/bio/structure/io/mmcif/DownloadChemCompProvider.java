@@ -13,7 +13,7 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
 import java.util.zip.GZIPOutputStream;
 
 
@@ -47,8 +47,10 @@ public class DownloadChemCompProvider implements ChemCompProvider {
 
 	private static String serverLocation = "http://www.rcsb.org/pdb/files/ligand/";
 
-	// flags to make sure there is only one thread running that is loading the dictionary
-	static AtomicBoolean loading = new AtomicBoolean(false);
+	private static final Logger logger = Logger.getLogger("org.biojava.bio.structure");
+
+	// lock to make sure there is only one thread installing all definitions
+	private static final Object installLock = new Object();
 
 	static final List<String> protectedIDs = new ArrayList<String> ();
 	static {
@@ -89,7 +91,7 @@ public class DownloadChemCompProvider implements ChemCompProvider {
 
 		if ( ! f.exists()) {
 
-			downloadAllDefinitions();
+			downloadAllDefinitions(f);
 
 		} else {
 			// file exists.. did it get extracted?
@@ -213,7 +215,7 @@ public class DownloadChemCompProvider implements ChemCompProvider {
 
 			String filename = getLocalFileName(recordName);
 
-			System.out.println("reading " + filename);
+			logger.fine("reading " + filename);
 			InputStreamProvider isp = new InputStreamProvider();
 
 			InputStream inStream = isp.getInputStream(filename);
@@ -226,7 +228,12 @@ public class DownloadChemCompProvider implements ChemCompProvider {
 			// you could also hook in your own and build up you own data model.
 			parser.addMMcifConsumer(consumer);
 
-			parser.parse(new BufferedReader(new InputStreamReader(inStream)));
+			BufferedReader buf = new BufferedReader(new InputStreamReader(inStream));
+			try {
+				parser.parse(buf);
+			} finally {
+				buf.close();
+			}
 
 			ChemicalComponentDictionary dict = consumer.getDictionary();
 
@@ -312,7 +319,7 @@ public class DownloadChemCompProvider implements ChemCompProvider {
 
 		String u = serverLocation + recordName + ".cif";
 
-		System.out.println("downloading " + u);
+		logger.info("downloading " + u);
 
 		try {
 
@@ -322,25 +329,27 @@ public class DownloadChemCompProvider implements ChemCompProvider {
 
 			InputStream conn = uconn.getInputStream();
 
-			FileOutputStream outPut = new FileOutputStream(localName);
+			// write to a temporary file first, so that other threads never read a partially downloaded definition
+			File localFile = new File(localName);
+			File tmpFile = new File(localName + ".tmp" + Thread.currentThread().getId());
 
-			GZIPOutputStream gzOutPut = new GZIPOutputStream(outPut);
-
-			PrintWriter pw = new PrintWriter(gzOutPut);
+			PrintWriter pw = new PrintWriter(new GZIPOutputStream(new FileOutputStream(tmpFile)));
 
 			BufferedReader fileBuffer = new BufferedReader(new InputStreamReader(conn));
+			try {
+				String line;
 
-			String line;
-
-			while ((line = fileBuffer.readLine()) != null) {
-				pw.println(line);
+				while ((line = fileBuffer.readLine()) != null) {
+					pw.println(line);
+				}
+			} finally {
+				pw.close();
+				fileBuffer.close();
 			}
 
-			pw.flush();
-			pw.close();
-
-			outPut.close();
-			conn.close();
+			if ( ! tmpFile.renameTo(localFile) && ! localFile.exists())
+				throw new IOException("could not move " + tmpFile + " to " + localFile);
+			tmpFile.delete();
 
 
 		} catch (Exception e){
@@ -368,32 +377,21 @@ public class DownloadChemCompProvider implements ChemCompProvider {
 
 	}
 
-	private void downloadAllDefinitions() {
-
-		if ( loading.get()){
-			System.out.println("Waiting for other thread to install chemical components...");
-		}
-
-		while ( loading.get() ) {
-
-			// another thread is already downloading the components definitions
-			// wait for the other thread to finish...
+	private void downloadAllDefinitions(File componentsFile) {
 
-			try {
-				// wait half a second
-
-				Thread.sleep(500);
-			} catch (InterruptedException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
+		// threads arriving while another thread is installing block here 
+		// until the installation has finished, instead of polling.
+		synchronized (installLock) {
+			if ( componentsFile.exists()) {
+				logger.info("Another thread installed the chemical components.");
+				return;
 			}
-
-			System.out.println("Another thread installed the chemical components.");
-			return;
-
+			installAllDefinitions();
 		}
+	}
+
+	private void installAllDefinitions() {
 
-		loading.set(true);
 		long timeS = System.currentTimeMillis();
 
 		System.out.println("Performing first installation of chemical components.");
@@ -409,7 +407,6 @@ public class DownloadChemCompProvider implements ChemCompProvider {
 		split();
 		long timeE = System.currentTimeMillis();		
 		System.out.println("time to install chem comp dictionary: " + (timeE - timeS) / 1000 + " sec.");		
-		loading.set(false);
 
 	}
 
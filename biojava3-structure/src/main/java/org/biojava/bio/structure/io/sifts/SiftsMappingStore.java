@@ -0,0 +1,694 @@
+/**
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ * @since 3.0.6
+ */
+package org.biojava.bio.structure.io.sifts;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.biojava3.core.util.InputStreamProvider;
+
+/** A read only file of SIFTS residue mappings between PDB chains and UniProt, for mapping many positions
+ * without parsing the SIFTS XML files again and again.
+ *
+ * The store is built once, e.g. from all files in the SIFTS directory of the PDB cache, and keeps the mapping
+ * as ranges of consecutive PDB residue numbers that map to consecutive UniProt positions. The ranges are
+ * sorted by PDB residue number for every chain and by UniProt position for every accession, so both
+ * directions are answered by binary search. The file is memory mapped and nothing is kept on the heap.
+ *
+ * <pre>
+ * SiftsMappingStore.Builder builder = new SiftsMappingStore.Builder();
+ * builder.addDirectory(new File(pdbFilePath, "SIFTS"));
+ * builder.write(file);
+ *
+ * SiftsMappingStore store = SiftsMappingStore.open(file);
+ * SiftsResidue r = store.getUniProtPosition("4hhb", "A", "10");
+ * List&lt;SiftsResidue&gt; residues = store.getPdbPositions("P69905", 11);
+ * </pre>
+ *
+ * A store can be read by several threads at the same time.
+ *
+ * @since 3.0.6
+ */
+public class SiftsMappingStore {
+
+	private static final int FILE_MAGIC = 0x424A534D; // BJSM
+	private static final int FILE_VERSION = 1;
+
+	private static final int HEADER_SIZE = 20;
+
+	/** 4 characters PDB id and up to 4 characters chain id */
+	private static final int CHAIN_KEY_SIZE = 8;
+	private static final int CHAIN_ENTRY_SIZE = CHAIN_KEY_SIZE + 8;
+
+	private static final int ACCESSION_KEY_SIZE = 16;
+	private static final int ACCESSION_ENTRY_SIZE = ACCESSION_KEY_SIZE + 12;
+
+	/** residue number, insertion code, length, UniProt start, accession and chain */
+	private static final int RANGE_SIZE = 24;
+
+	private static final Pattern RES_NUM = Pattern.compile("(-?\\d+)([A-Za-z]?)");
+
+	private final File file;
+	private final MappedByteBuffer buffer;
+	private final int chainCount;
+	private final int accessionCount;
+	private final int rangeCount;
+	private final int chains;
+	private final int accessions;
+	private final int ranges;
+	private final int uniProtRefs;
+
+	private SiftsMappingStore(File file, MappedByteBuffer buffer) throws IOException {
+		this.file = file;
+		this.buffer = buffer;
+		if ( buffer.limit() < HEADER_SIZE || buffer.getInt(0) != FILE_MAGIC)
+			throw new IOException(file + " is not a SIFTS mapping store");
+		int version = buffer.getInt(4);
+		if ( version != FILE_VERSION)
+			throw new IOException("Unsupported version " + version + " of SIFTS mapping store " + file);
+
+		chainCount = buffer.getInt(8);
+		accessionCount = buffer.getInt(12);
+		rangeCount = buffer.getInt(16);
+		chains = HEADER_SIZE;
+		accessions = chains + chainCount * CHAIN_ENTRY_SIZE;
+		ranges = accessions + accessionCount * ACCESSION_ENTRY_SIZE;
+		uniProtRefs = ranges + rangeCount * RANGE_SIZE;
+		if ( buffer.limit() != uniProtRefs + 4 * rangeCount)
+			throw new IOException("SIFTS mapping store " + file + " is incomplete");
+	}
+
+	/** Opens a store that has been written by a {@link Builder}.
+	 *
+	 * @param file the store file
+	 * @return the store
+	 * @throws IOException if the file can not be read or is not a SIFTS mapping store
+	 */
+	public static SiftsMappingStore open(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			if ( channel.size() > Integer.MAX_VALUE)
+				throw new IOException("SIFTS mapping store " + file + " is too large");
+			// the mapping stays valid after the file has been closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new SiftsMappingStore(file, buffer);
+		} finally {
+			raf.close();
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/** @return the number of PDB chains in the store */
+	public int getChainCount() {
+		return chainCount;
+	}
+
+	/** @return the number of UniProt accessions in the store */
+	public int getAccessionCount() {
+		return accessionCount;
+	}
+
+	/** @return the number of ranges of consecutive residues in the store */
+	public int getRangeCount() {
+		return rangeCount;
+	}
+
+	/** Maps a PDB residue to UniProt.
+	 *
+	 * @param pdbId the PDB id
+	 * @param chainId the chain id
+	 * @param pdbResNum the residue number, with the insertion code if there is one, e.g. "1H"
+	 * @return a residue with the PDB and UniProt positions, or null if the residue is not mapped
+	 */
+	public SiftsResidue getUniProtPosition(String pdbId, String chainId, String pdbResNum) {
+		Matcher m = RES_NUM.matcher(pdbResNum.trim());
+		String key = chainKey(pdbId, chainId);
+		if ( ! m.matches() || key == null)
+			return null;
+		int resNum = Integer.parseInt(m.group(1));
+		int insCode = insCode(m.group(2));
+
+		int chain = find(chains, CHAIN_ENTRY_SIZE, chainCount, CHAIN_KEY_SIZE, key);
+		if ( chain < 0)
+			return null;
+		int first = buffer.getInt(chains + chain * CHAIN_ENTRY_SIZE + CHAIN_KEY_SIZE);
+		int count = buffer.getInt(chains + chain * CHAIN_ENTRY_SIZE + CHAIN_KEY_SIZE + 4);
+
+		// the last range that does not start after the residue
+		int lo = first;
+		int hi = first + count;
+		while ( lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			int pos = ranges + mid * RANGE_SIZE;
+			if ( compareResidues(buffer.getInt(pos), buffer.getInt(pos + 4), resNum, insCode) <= 0)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		if ( lo == first)
+			return null;
+		int range = lo - 1;
+		int pos = ranges + range * RANGE_SIZE;
+		int offset = resNum - buffer.getInt(pos);
+		if ( buffer.getInt(pos + 4) != insCode || offset >= buffer.getInt(pos + 8))
+			return null;
+		return toResidue(range, offset);
+	}
+
+	/** Maps a UniProt position to all PDB residues that are mapped to it.
+	 *
+	 * @param accession the UniProt accession
+	 * @param uniProtPos the position in the UniProt sequence
+	 * @return the residues, ordered by PDB id and chain id
+	 */
+	public List<SiftsResidue> getPdbPositions(String accession, int uniProtPos) {
+		List<SiftsResidue> residues = new ArrayList<SiftsResidue>();
+		if ( ! isKey(accession, ACCESSION_KEY_SIZE))
+			return residues;
+		int acc = find(accessions, ACCESSION_ENTRY_SIZE, accessionCount, ACCESSION_KEY_SIZE, accession);
+		if ( acc < 0)
+			return residues;
+		int entry = accessions + acc * ACCESSION_ENTRY_SIZE + ACCESSION_KEY_SIZE;
+		int first = buffer.getInt(entry);
+		int count = buffer.getInt(entry + 4);
+		int maxLength = buffer.getInt(entry + 8);
+
+		// the ranges of an accession are sorted by their start, so after the last range that starts at or before
+		// the position only ranges that start less than maxLength before it can contain it
+		int lo = first;
+		int hi = first + count;
+		while ( lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if ( uniProtStart(buffer.getInt(uniProtRefs + 4 * mid)) <= uniProtPos)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		List<Integer> found = new ArrayList<Integer>();
+		for (int i = lo - 1 ; i >= first ; i--){
+			int range = buffer.getInt(uniProtRefs + 4 * i);
+			int start = uniProtStart(range);
+			if ( start <= uniProtPos - maxLength)
+				break;
+			if ( uniProtPos < start + buffer.getInt(ranges + range * RANGE_SIZE + 8))
+				found.add(range);
+		}
+		// ranges are stored by chain
+		Collections.sort(found);
+		for (int range : found)
+			residues.add(toResidue(range, uniProtPos - uniProtStart(range)));
+		return residues;
+	}
+
+	private int uniProtStart(int range) {
+		return buffer.getInt(ranges + range * RANGE_SIZE + 12);
+	}
+
+	private SiftsResidue toResidue(int range, int offset) {
+		int pos = ranges + range * RANGE_SIZE;
+		String chainKey = readKey(chains + buffer.getInt(pos + 20) * CHAIN_ENTRY_SIZE, CHAIN_KEY_SIZE);
+
+		SiftsResidue res = new SiftsResidue();
+		res.setPdbId(chainKey.substring(0, 4));
+		res.setChainId(chainKey.substring(4));
+		int insCode = buffer.getInt(pos + 4);
+		res.setPdbResNum(String.valueOf(buffer.getInt(pos) + offset) + (insCode == 0 ? "" : String.valueOf((char) insCode)));
+		res.setUniProtAccessionId(readKey(accessions + buffer.getInt(pos + 16) * ACCESSION_ENTRY_SIZE, ACCESSION_KEY_SIZE));
+		res.setUniProtPos(buffer.getInt(pos + 12) + offset);
+		return res;
+	}
+
+	/** binary search in a section of entries that start with a fixed size key */
+	private int find(int section, int entrySize, int count, int keySize, String key) {
+		int lo = 0;
+		int hi = count - 1;
+		while ( lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int c = compareKey(section + mid * entrySize, keySize, key);
+			if ( c < 0)
+				lo = mid + 1;
+			else if ( c > 0)
+				hi = mid - 1;
+			else
+				return mid;
+		}
+		return -1;
+	}
+
+	private int compareKey(int pos, int keySize, String key) {
+		for (int i = 0 ; i < keySize ; i++){
+			int a = buffer.get(pos + i) & 0xFF;
+			int b = i < key.length() ? key.charAt(i) : 0;
+			if ( a != b)
+				return a - b;
+		}
+		return 0;
+	}
+
+	private String readKey(int pos, int keySize) {
+		StringBuilder s = new StringBuilder(keySize);
+		for (int i = 0 ; i < keySize ; i++){
+			byte b = buffer.get(pos + i);
+			if ( b == 0)
+				break;
+			s.append((char) b);
+		}
+		return s.toString();
+	}
+
+	private static int compareResidues(int resNum1, int insCode1, int resNum2, int insCode2) {
+		if ( resNum1 != resNum2)
+			return resNum1 < resNum2 ? -1 : 1;
+		return insCode1 - insCode2;
+	}
+
+	private static int insCode(String insCode) {
+		return insCode.length() == 0 ? 0 : insCode.charAt(0);
+	}
+
+	/** @return true if a text can be stored as a key of the given size */
+	private static boolean isKey(String s, int keySize) {
+		if ( s == null || s.length() == 0 || s.length() > keySize)
+			return false;
+		for (int i = 0 ; i < s.length() ; i++){
+			char c = s.charAt(i);
+			if ( c == 0 || c > 127)
+				return false;
+		}
+		return true;
+	}
+
+	/** @return the key of a chain, or null if the chain can not be stored */
+	private static String chainKey(String pdbId, String chainId) {
+		if ( pdbId == null || pdbId.length() != 4 || chainId == null)
+			return null;
+		String key = pdbId.toLowerCase() + chainId;
+		return isKey(key, CHAIN_KEY_SIZE) && chainId.length() > 0 ? key : null;
+	}
+
+	/** Collects SIFTS mappings in memory and writes them to a store. Consecutive residues are merged into ranges
+	 * while they are added, so the builder needs much less memory than the parsed XML files.
+	 *
+	 */
+	public static class Builder {
+
+		private final Map<String, List<Range>> chainRanges;
+		private final Map<String, String> accessionNames;
+		private int skipped;
+
+		private static class Range {
+			int resNum;
+			int insCode;
+			int length;
+			int uniProtStart;
+			String accession;
+			int chain;
+		}
+
+		public Builder(){
+			chainRanges = new HashMap<String, List<Range>>();
+			accessionNames = new HashMap<String, String>();
+		}
+
+		/** @return the number of residues that have been skipped, because their residue number, chain id or
+		 * accession can not be stored */
+		public int getSkippedCount() {
+			return skipped;
+		}
+
+		/** Adds the mapping of a residue. Residues of a chain should be added in the order of the sequence, so
+		 * that consecutive residues can be merged.
+		 *
+		 * @param pdbId the PDB id
+		 * @param chainId the chain id
+		 * @param pdbResNum the residue number, with the insertion code if there is one
+		 * @param accession the UniProt accession
+		 * @param uniProtPos the position in the UniProt sequence
+		 * @return false if the residue has been skipped
+		 */
+		public boolean addResidue(String pdbId, String chainId, String pdbResNum, String accession, int uniProtPos) {
+			if ( pdbResNum == null) {
+				skipped++;
+				return false;
+			}
+			Matcher m = RES_NUM.matcher(pdbResNum.trim());
+			if ( ! m.matches()) {
+				skipped++;
+				return false;
+			}
+			return addRange(pdbId, chainId, Integer.parseInt(m.group(1)), insCode(m.group(2)), 1, accession, uniProtPos);
+		}
+
+		private boolean addRange(String pdbId, String chainId, int resNum, int insCode, int length, String accession, int uniProtStart) {
+			String key = chainKey(pdbId, chainId);
+			if ( key == null || ! isKey(accession, ACCESSION_KEY_SIZE) || (insCode != 0 && length != 1)) {
+				skipped++;
+				return false;
+			}
+			String acc = accessionNames.get(accession);
+			if ( acc == null) {
+				acc = accession;
+				accessionNames.put(acc, acc);
+			}
+			List<Range> list = chainRanges.get(key);
+			if ( list == null) {
+				list = new ArrayList<Range>();
+				chainRanges.put(key, list);
+			}
+
+			if ( ! list.isEmpty()) {
+				Range last = list.get(list.size() - 1);
+				if ( last.accession == acc && last.insCode == 0 && insCode == 0
+						&& last.resNum + last.length == resNum && last.uniProtStart + last.length == uniProtStart) {
+					last.length += length;
+					return true;
+				}
+			}
+			Range r = new Range();
+			r.resNum = resNum;
+			r.insCode = insCode;
+			r.length = length;
+			r.uniProtStart = uniProtStart;
+			r.accession = acc;
+			list.add(r);
+			return true;
+		}
+
+		/** Adds the residues of a SIFTS XML file, as provided by {@link SiftsMappingProvider}. The file is read
+		 * as a stream, so the XML is never kept in memory. Residues that are not observed in the structure or that
+		 * are not mapped to UniProt are skipped.
+		 *
+		 * @param is the XML
+		 * @throws IOException if the XML can not be read
+		 */
+		public void addSiftsXml(InputStream is) throws IOException {
+			try {
+				XMLStreamReader xml = XMLInputFactory.newInstance().createXMLStreamReader(is);
+				try {
+					boolean inResidue = false;
+					String pdbId = null;
+					String chainId = null;
+					String pdbResNum = null;
+					String accession = null;
+					Integer uniProtPos = null;
+					while ( xml.hasNext()) {
+						int event = xml.next();
+						if ( event == XMLStreamConstants.START_ELEMENT) {
+							String name = xml.getLocalName();
+							if ( name.equals("residue")) {
+								inResidue = true;
+								pdbId = chainId = pdbResNum = accession = null;
+								uniProtPos = null;
+							} else if ( inResidue && name.equals("crossRefDb")) {
+								String dbSource = xml.getAttributeValue(null, "dbSource");
+								String dbCoordSys = xml.getAttributeValue(null, "dbCoordSys");
+								if ( "PDB".equals(dbSource) && "PDBresnum".equals(dbCoordSys)) {
+									pdbId = xml.getAttributeValue(null, "dbAccessionId");
+									chainId = xml.getAttributeValue(null, "dbChainId");
+									pdbResNum = xml.getAttributeValue(null, "dbResNum");
+								} else if ( "UniProt".equals(dbCoordSys)) {
+									accession = xml.getAttributeValue(null, "dbAccessionId");
+									try {
+										uniProtPos = Integer.valueOf(xml.getAttributeValue(null, "dbResNum"));
+									} catch (NumberFormatException e){
+										uniProtPos = null;
+									}
+								}
+							}
+						} else if ( event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("residue")) {
+							inResidue = false;
+							if ( pdbResNum != null && uniProtPos != null)
+								addResidue(pdbId, chainId, pdbResNum, accession, uniProtPos);
+						}
+					}
+				} finally {
+					xml.close();
+				}
+			} catch (XMLStreamException e){
+				throw new IOException("Could not parse SIFTS XML: " + e.getMessage());
+			}
+		}
+
+		/** Adds the segments of the flat SIFTS file pdb_chain_uniprot.tsv, which has the columns PDB, CHAIN,
+		 * SP_PRIMARY, RES_BEG, RES_END, PDB_BEG, PDB_END, SP_BEG and SP_END. Segments that start or end with an
+		 * insertion code, or whose PDB and UniProt lengths differ, can not be mapped residue by residue and are
+		 * skipped.
+		 *
+		 * @param is the file
+		 * @throws IOException if the file can not be read
+		 */
+		public void addChainUniProtFile(InputStream is) throws IOException {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(is));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if ( line.startsWith("#") || line.startsWith("PDB\t") || line.trim().length() == 0)
+					continue;
+				String[] spl = line.split("\t");
+				if ( spl.length < 9) {
+					skipped++;
+					continue;
+				}
+				try {
+					int pdbBeg = Integer.parseInt(spl[5].trim());
+					int pdbEnd = Integer.parseInt(spl[6].trim());
+					int spBeg = Integer.parseInt(spl[7].trim());
+					int spEnd = Integer.parseInt(spl[8].trim());
+					if ( pdbEnd - pdbBeg != spEnd - spBeg || pdbEnd < pdbBeg) {
+						skipped++;
+						continue;
+					}
+					addRange(spl[0], spl[1], pdbBeg, 0, pdbEnd - pdbBeg + 1, spl[2], spBeg);
+				} catch (NumberFormatException e){
+					skipped++;
+				}
+			}
+		}
+
+		/** Adds all SIFTS XML files (*.xml and *.xml.gz) in a directory and its subdirectories, such as the
+		 * SIFTS directory of the PDB cache.
+		 *
+		 * @param dir the directory
+		 * @throws IOException if a file can not be read
+		 */
+		public void addDirectory(File dir) throws IOException {
+			File[] files = dir.listFiles();
+			if ( files == null)
+				return;
+			Arrays.sort(files);
+			for (File f : files){
+				if ( f.isDirectory())
+					addDirectory(f);
+				else if ( f.getName().endsWith(".xml") || f.getName().endsWith(".xml.gz"))
+					addFile(f);
+			}
+		}
+
+		/** Adds a SIFTS XML file or, if the name contains "pdb_chain_uniprot", the flat SIFTS file. The file may
+		 * be compressed.
+		 *
+		 * @param f the file
+		 * @throws IOException if the file can not be read
+		 */
+		public void addFile(File f) throws IOException {
+			InputStreamProvider prov = new InputStreamProvider();
+			InputStream is = prov.getInputStream(f);
+			try {
+				if ( f.getName().contains("pdb_chain_uniprot"))
+					addChainUniProtFile(is);
+				else
+					addSiftsXml(is);
+			} finally {
+				is.close();
+			}
+		}
+
+		/** Writes the store. The file is written under a temporary name first and then renamed, so that readers
+		 * never see an incomplete store.
+		 *
+		 * @param file the file to write
+		 * @throws IOException if the file can not be written
+		 */
+		public void write(File file) throws IOException {
+			Comparator<Range> byResidue = new Comparator<Range>() {
+				public int compare(Range a, Range b) {
+					return compareResidues(a.resNum, a.insCode, b.resNum, b.insCode);
+				}
+			};
+			Map<String, List<Range>> sortedChains = new TreeMap<String, List<Range>>(chainRanges);
+			List<Range> all = new ArrayList<Range>();
+			int chain = 0;
+			for (List<Range> list : sortedChains.values()){
+				Collections.sort(list, byResidue);
+				for (Range r : list){
+					r.chain = chain;
+					all.add(r);
+				}
+				chain++;
+			}
+
+			Map<String, List<Integer>> byAccession = new TreeMap<String, List<Integer>>();
+			for (int i = 0 ; i < all.size() ; i++){
+				List<Integer> refs = byAccession.get(all.get(i).accession);
+				if ( refs == null) {
+					refs = new ArrayList<Integer>();
+					byAccession.put(all.get(i).accession, refs);
+				}
+				refs.add(i);
+			}
+			Map<String, Integer> accessionIndex = new HashMap<String, Integer>();
+			for (String acc : byAccession.keySet())
+				accessionIndex.put(acc, accessionIndex.size());
+
+			long size = HEADER_SIZE + (long) sortedChains.size() * CHAIN_ENTRY_SIZE
+					+ (long) byAccession.size() * ACCESSION_ENTRY_SIZE + (long) all.size() * (RANGE_SIZE + 4);
+			if ( size > Integer.MAX_VALUE)
+				throw new IOException("Too many ranges for a SIFTS mapping store");
+
+			File tmp = new File(file.getPath() + ".tmp");
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+			try {
+				out.writeInt(FILE_MAGIC);
+				out.writeInt(FILE_VERSION);
+				out.writeInt(sortedChains.size());
+				out.writeInt(byAccession.size());
+				out.writeInt(all.size());
+
+				int first = 0;
+				for (Map.Entry<String, List<Range>> e : sortedChains.entrySet()){
+					writeKey(out, e.getKey(), CHAIN_KEY_SIZE);
+					out.writeInt(first);
+					out.writeInt(e.getValue().size());
+					first += e.getValue().size();
+				}
+
+				first = 0;
+				for (Map.Entry<String, List<Integer>> e : byAccession.entrySet()){
+					int maxLength = 0;
+					for (int r : e.getValue())
+						maxLength = Math.max(maxLength, all.get(r).length);
+					writeKey(out, e.getKey(), ACCESSION_KEY_SIZE);
+					out.writeInt(first);
+					out.writeInt(e.getValue().size());
+					out.writeInt(maxLength);
+					first += e.getValue().size();
+				}
+
+				for (Range r : all){
+					out.writeInt(r.resNum);
+					out.writeInt(r.insCode);
+					out.writeInt(r.length);
+					out.writeInt(r.uniProtStart);
+					out.writeInt(accessionIndex.get(r.accession));
+					out.writeInt(r.chain);
+				}
+
+				final List<Range> ranges = all;
+				Comparator<Integer> byUniProtStart = new Comparator<Integer>() {
+					public int compare(Integer a, Integer b) {
+						int sa = ranges.get(a).uniProtStart;
+						int sb = ranges.get(b).uniProtStart;
+						if ( sa != sb)
+							return sa < sb ? -1 : 1;
+						return a.compareTo(b);
+					}
+				};
+				for (List<Integer> refs : byAccession.values()){
+					Collections.sort(refs, byUniProtStart);
+					for (int r : refs)
+						out.writeInt(r);
+				}
+			} finally {
+				out.close();
+			}
+			if ( file.exists() && ! file.delete())
+				throw new IOException("Could not replace " + file);
+			if ( ! tmp.renameTo(file))
+				throw new IOException("Could not rename " + tmp + " to " + file);
+		}
+
+		private static void writeKey(DataOutputStream out, String key, int keySize) throws IOException {
+			for (int i = 0 ; i < keySize ; i++)
+				out.writeByte(i < key.length() ? key.charAt(i) : 0);
+		}
+	}
+
+	/** Builds a store from SIFTS files.
+	 *
+	 * @param args the store file, followed by SIFTS XML files, pdb_chain_uniprot.tsv files or directories of
+	 * SIFTS XML files
+	 */
+	public static void main(String[] args){
+		if ( args.length < 2) {
+			System.err.println("usage: SiftsMappingStore <store file> <SIFTS file or directory> ...");
+			return;
+		}
+		try {
+			long timeS = System.currentTimeMillis();
+			Builder builder = new Builder();
+			for (int i = 1 ; i < args.length ; i++){
+				File f = new File(args[i]);
+				if ( f.isDirectory())
+					builder.addDirectory(f);
+				else
+					builder.addFile(f);
+			}
+			File file = new File(args[0]);
+			builder.write(file);
+			SiftsMappingStore store = open(file);
+			System.out.println("wrote " + store.getChainCount() + " chains, " + store.getAccessionCount()
+					+ " accessions and " + store.getRangeCount() + " ranges in "
+					+ (System.currentTimeMillis() - timeS) + " ms. Skipped " + builder.getSkippedCount() + " residues.");
+		} catch (Exception e){
+			e.printStackTrace();
+		}
+	}
+}
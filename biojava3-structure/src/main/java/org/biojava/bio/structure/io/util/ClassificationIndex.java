@@ -0,0 +1,448 @@
+/**
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ * @since 3.0.6
+ */
+package org.biojava.bio.structure.io.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/** A read only file of text records with tables of sorted keys, for lookups in large flat files such as the
+ * SCOP and CATH classification files without keeping them on the heap.
+ *
+ * Every table maps keys to records and may contain the same key several times. Keys are compared as UTF-8
+ * bytes, so a table can be searched for exact keys and for key prefixes by binary search. The file is memory
+ * mapped, so opening an index is fast and only the parts that are used are ever read.
+ *
+ * <pre>
+ * ClassificationIndex.Builder builder = new ClassificationIndex.Builder();
+ * long record = builder.addRecord(line);
+ * builder.addKey("pdb", pdbId, record);
+ * builder.write(file, stamp);
+ *
+ * ClassificationIndex index = ClassificationIndex.open(file);
+ * for (long r : index.lookup("pdb", "4hhb"))
+ *     parse(index.getRecord(r));
+ * </pre>
+ *
+ * An index can be read by several threads at the same time.
+ *
+ * @since 3.0.6
+ */
+public class ClassificationIndex {
+
+	private static final int FILE_MAGIC = 0x424A4349; // BJCI
+	private static final int FILE_VERSION = 1;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final File file;
+	private final MappedByteBuffer buffer;
+	private final String stamp;
+	private final int recordsStart;
+	private final Map<String, Table> tables;
+
+	/** the position of a table in the file */
+	private static class Table {
+		int count;
+		int keyOffsets;
+		int records;
+		int keys;
+	}
+
+	private ClassificationIndex(File file, MappedByteBuffer buffer) throws IOException {
+		this.file = file;
+		this.buffer = buffer;
+		if ( buffer.limit() < 8 || buffer.getInt(0) != FILE_MAGIC)
+			throw new IOException(file + " is not a classification index");
+		int version = buffer.getInt(4);
+		if ( version != FILE_VERSION)
+			throw new IOException("Unsupported version " + version + " of classification index " + file);
+
+		int pos = 8;
+		int len = buffer.getInt(pos);
+		stamp = readString(pos + 4, len);
+		pos += 4 + len;
+
+		int recordsLength = buffer.getInt(pos);
+		recordsStart = pos + 4;
+		pos = recordsStart + recordsLength;
+
+		int nrTables = buffer.getInt(pos);
+		pos += 4;
+		tables = new HashMap<String, Table>();
+		for (int t = 0 ; t < nrTables ; t++){
+			len = buffer.getInt(pos);
+			String name = readString(pos + 4, len);
+			pos += 4 + len;
+			Table table = new Table();
+			table.count = buffer.getInt(pos);
+			int keysLength = buffer.getInt(pos + 4);
+			table.keyOffsets = pos + 8;
+			table.records = table.keyOffsets + 4 * table.count;
+			table.keys = table.records + 8 * table.count;
+			pos = table.keys + keysLength;
+			tables.put(name, table);
+		}
+	}
+
+	/** Opens an index that has been written by a {@link Builder}.
+	 *
+	 * @param file the index file
+	 * @return the index
+	 * @throws IOException if the file can not be read or is not an index
+	 */
+	public static ClassificationIndex open(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			if ( channel.size() > Integer.MAX_VALUE)
+				throw new IOException("Classification index " + file + " is too large");
+			// the mapping stays valid after the file has been closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new ClassificationIndex(file, buffer);
+		} finally {
+			raf.close();
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/** @return the stamp that has been passed to {@link Builder#write(File, String)}, e.g. to find out if the
+	 * index is older than the files it has been built from */
+	public String getStamp() {
+		return stamp;
+	}
+
+	/** @return the names of the tables */
+	public Set<String> getTableNames() {
+		return tables.keySet();
+	}
+
+	/** @return the number of keys of a table, or 0 if the index has no such table */
+	public int size(String tableName) {
+		Table table = tables.get(tableName);
+		return table == null ? 0 : table.count;
+	}
+
+	/** @return the text of a record */
+	public String getRecord(long record) {
+		int pos = recordsStart + (int) record;
+		return readString(pos + 4, buffer.getInt(pos));
+	}
+
+	/** Finds the records of a key.
+	 *
+	 * @param tableName the table
+	 * @param key the key
+	 * @return the records, in the order in which they have been added to the index
+	 */
+	public List<Long> lookup(String tableName, String key) {
+		return find(tableName, key.getBytes(UTF8), false);
+	}
+
+	/** Finds the records of all keys that start with a prefix.
+	 *
+	 * @param tableName the table
+	 * @param prefix the start of the keys
+	 * @return the records, ordered by key and without duplicates
+	 */
+	public List<Long> lookupPrefix(String tableName, String prefix) {
+		return find(tableName, prefix.getBytes(UTF8), true);
+	}
+
+	/** @return all records of a table, ordered by key and without duplicates */
+	public List<Long> getAll(String tableName) {
+		return find(tableName, new byte[0], true);
+	}
+
+	private List<Long> find(String tableName, byte[] query, boolean prefix) {
+		Table table = tables.get(tableName);
+		if ( table == null)
+			return new ArrayList<Long>();
+
+		// the first key that is not smaller than the query
+		int lo = 0;
+		int hi = table.count;
+		while ( lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if ( compare(table, mid, query, false) < 0)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+
+		Set<Long> records = new LinkedHashSet<Long>();
+		for (int i = lo ; i < table.count && compare(table, i, query, prefix) == 0 ; i++)
+			records.add(buffer.getLong(table.records + 8 * i));
+		return new ArrayList<Long>(records);
+	}
+
+	/** compares the key at an index of a table with a query. If prefix is true, only the length of the query is
+	 * compared */
+	private int compare(Table table, int index, byte[] query, boolean prefix) {
+		int pos = table.keys + buffer.getInt(table.keyOffsets + 4 * index);
+		int len = buffer.getShort(pos) & 0xFFFF;
+		pos += 2;
+		int n = Math.min(len, query.length);
+		for (int i = 0 ; i < n ; i++){
+			int a = buffer.get(pos + i) & 0xFF;
+			int b = query[i] & 0xFF;
+			if ( a != b)
+				return a - b;
+		}
+		if ( prefix)
+			return len >= query.length ? 0 : -1;
+		return len - query.length;
+	}
+
+	private String readString(int pos, int len) {
+		byte[] bytes = new byte[len];
+		ByteBuffer b = buffer.duplicate();
+		b.position(pos);
+		b.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	/** Splits a text into lower case words, for token search over descriptions.
+	 *
+	 * @param text the text
+	 * @return the distinct words of the text
+	 */
+	public static Set<String> tokenize(String text) {
+		Set<String> tokens = new LinkedHashSet<String>();
+		if ( text == null)
+			return tokens;
+		for (String t : text.toLowerCase(Locale.ENGLISH).split("[^\\p{L}\\p{N}]+")){
+			if ( t.length() > 0)
+				tokens.add(t);
+		}
+		return tokens;
+	}
+
+	/** Finds the records for which every word of a query is the start of a word in a token table, i.e. a table
+	 * whose keys have been created by {@link #tokenize(String)}.
+	 *
+	 * @param tableName the token table
+	 * @param query the words to search for
+	 * @return the matching records
+	 */
+	public List<Long> searchTokens(String tableName, String query) {
+		Set<Long> matches = null;
+		for (String token : tokenize(query)){
+			List<Long> found = lookupPrefix(tableName, token);
+			if ( matches == null)
+				matches = new LinkedHashSet<Long>(found);
+			else
+				matches.retainAll(new HashSet<Long>(found));
+			if ( matches.isEmpty())
+				break;
+		}
+		if ( matches == null)
+			return new ArrayList<Long>();
+		return new ArrayList<Long>(matches);
+	}
+
+	/** Collects the records and keys of a new index in memory and writes them to a file.
+	 *
+	 */
+	public static class Builder {
+
+		private final ByteArrayOutputStream recordBytes;
+		private final DataOutputStream records;
+		private final Map<String, TableBuilder> tables;
+
+		private static class TableBuilder {
+			List<byte[]> keys = new ArrayList<byte[]>();
+			long[] records = new long[16];
+		}
+
+		public Builder(){
+			recordBytes = new ByteArrayOutputStream();
+			records = new DataOutputStream(recordBytes);
+			tables = new LinkedHashMap<String, TableBuilder>();
+		}
+
+		/** Adds a record.
+		 *
+		 * @param text the text of the record, e.g. a line of a flat file
+		 * @return the id of the record, to add keys for it
+		 */
+		public long addRecord(String text) {
+			long id = records.size();
+			byte[] bytes = text.getBytes(UTF8);
+			if ( id + 4 + bytes.length > Integer.MAX_VALUE)
+				throw new IllegalStateException("Too many records for a classification index");
+			try {
+				records.writeInt(bytes.length);
+				records.write(bytes);
+			} catch (IOException e){
+				// can not happen for a ByteArrayOutputStream
+				throw new IllegalStateException(e);
+			}
+			return id;
+		}
+
+		/** Adds a key for a record to a table.
+		 *
+		 * @param tableName the table, which is created if necessary
+		 * @param key the key
+		 * @param record the record, as returned by {@link #addRecord(String)}
+		 */
+		public void addKey(String tableName, String key, long record) {
+			byte[] bytes = key.getBytes(UTF8);
+			if ( bytes.length > 0xFFFF)
+				throw new IllegalArgumentException("Key is too long for a classification index");
+			TableBuilder table = tables.get(tableName);
+			if ( table == null) {
+				table = new TableBuilder();
+				tables.put(tableName, table);
+			}
+			int n = table.keys.size();
+			if ( n == table.records.length)
+				table.records = Arrays.copyOf(table.records, 2 * n);
+			table.records[n] = record;
+			table.keys.add(bytes);
+		}
+
+		/** Creates an empty table, so that it exists even if no keys are added.
+		 *
+		 * @param tableName the table
+		 */
+		public void addTable(String tableName) {
+			if ( ! tables.containsKey(tableName))
+				tables.put(tableName, new TableBuilder());
+		}
+
+		/** Writes the index. The file is written under a temporary name first and then renamed, so that readers
+		 * never see an incomplete index.
+		 *
+		 * @param file the file to write
+		 * @param stamp a text to store with the index, see {@link ClassificationIndex#getStamp()}
+		 * @throws IOException if the file can not be written
+		 */
+		public void write(File file, String stamp) throws IOException {
+			File tmp = new File(file.getPath() + ".tmp");
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+			try {
+				out.writeInt(FILE_MAGIC);
+				out.writeInt(FILE_VERSION);
+				writeString(out, stamp);
+				records.flush();
+				out.writeInt(recordBytes.size());
+				recordBytes.writeTo(out);
+
+				out.writeInt(tables.size());
+				for (Map.Entry<String, TableBuilder> e : tables.entrySet())
+					writeTable(out, e.getKey(), e.getValue());
+			} finally {
+				out.close();
+			}
+			if ( file.exists() && ! file.delete())
+				throw new IOException("Could not replace " + file);
+			if ( ! tmp.renameTo(file))
+				throw new IOException("Could not rename " + tmp + " to " + file);
+		}
+
+		private static void writeTable(DataOutputStream out, String name, final TableBuilder table) throws IOException {
+			Integer[] order = new Integer[table.keys.size()];
+			for (int i = 0 ; i < order.length ; i++)
+				order[i] = i;
+			Arrays.sort(order, new Comparator<Integer>() {
+				public int compare(Integer a, Integer b) {
+					int c = compareBytes(table.keys.get(a), table.keys.get(b));
+					if ( c != 0)
+						return c;
+					// keep the records of a key in the order they have been added
+					return a.compareTo(b);
+				}
+			});
+
+			// drop keys that have been added twice for the same record
+			List<Integer> unique = new ArrayList<Integer>(order.length);
+			for (int k = 0 ; k < order.length ; k++){
+				if ( k > 0 && table.records[order[k]] == table.records[order[k - 1]]
+						&& compareBytes(table.keys.get(order[k]), table.keys.get(order[k - 1])) == 0)
+					continue;
+				unique.add(order[k]);
+			}
+
+			int keysLength = 0;
+			for (int i : unique)
+				keysLength += 2 + table.keys.get(i).length;
+
+			writeString(out, name);
+			out.writeInt(unique.size());
+			out.writeInt(keysLength);
+			int offset = 0;
+			for (int i : unique){
+				out.writeInt(offset);
+				offset += 2 + table.keys.get(i).length;
+			}
+			for (int i : unique)
+				out.writeLong(table.records[i]);
+			for (int i : unique){
+				byte[] key = table.keys.get(i);
+				out.writeShort(key.length);
+				out.write(key);
+			}
+		}
+
+		private static int compareBytes(byte[] a, byte[] b) {
+			int n = Math.min(a.length, b.length);
+			for (int i = 0 ; i < n ; i++){
+				int c = (a[i] & 0xFF) - (b[i] & 0xFF);
+				if ( c != 0)
+					return c;
+			}
+			return a.length - b.length;
+		}
+
+		private static void writeString(DataOutputStream out, String s) throws IOException {
+			byte[] bytes = s.getBytes(UTF8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+}
@@ -5,15 +5,13 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.biojava.bio.structure.Atom;
-import org.biojava.bio.structure.AtomImpl;
-import org.biojava.bio.structure.Calc;
 import org.biojava.bio.structure.Chain;
 import org.biojava.bio.structure.Group;
+import org.biojava.bio.structure.RigidTransform;
 import org.biojava.bio.structure.Structure;
 import org.biojava.bio.structure.io.mmcif.model.PdbxStructAssembly;
 import org.biojava.bio.structure.io.mmcif.model.PdbxStructAssemblyGen;
 import org.biojava.bio.structure.io.mmcif.model.PdbxStructOperList;
-import org.biojava.bio.structure.jama.Matrix;
 
 
 
@@ -85,19 +83,10 @@ public class BiologicalAssemblyBuilder {
 					 */
 					foundChain = true;
 					Chain newChain = (Chain)c.clone();
-					Matrix m = max.getMatrix();
-					//m = m.transpose();
-					double[] vector = max.getVector();
-					Atom v = new AtomImpl();
-					v.setCoords(vector);
+					RigidTransform transform = max.getTransform();
 					for ( Group g :newChain.getAtomGroups()) {
 						for ( Atom a : g.getAtoms()) {
-							//max.transformPoint(a.getCoords(), tmpcoords);
-							//a.setX(tmpcoords[0]);
-							//a.setY(tmpcoords[1]);
-							//a.setZ(tmpcoords[2]);
-							Calc.rotate(a, m);
-							Calc.shift(a, v);
+							transform.transform(a);
 						}
 					}
 
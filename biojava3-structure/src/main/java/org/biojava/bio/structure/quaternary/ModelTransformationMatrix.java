@@ -13,6 +13,7 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
+import org.biojava.bio.structure.RigidTransform;
 import org.biojava.bio.structure.jama.Matrix;
 import org.biojava3.core.util.PrettyXMLWriter;
 import org.w3c.dom.Document;
@@ -737,6 +738,20 @@ public class ModelTransformationMatrix implements Cloneable {
 
 
 
+	/** Returns the rotation and translation as one transformation, which can be applied to atoms without
+	 * creating temporary objects.
+	 *
+	 * @return the transformation, equivalent to rotating with {@link #getMatrix()} and shifting by
+	 * {@link #getVector()}
+	 */
+	public RigidTransform getTransform(){
+		return new RigidTransform(
+				values[0], values[1], values[2],
+				values[4], values[5], values[6],
+				values[8], values[9], values[10],
+				values[12], values[13], values[14]);
+	}
+
 	public Matrix getMatrix(){
 
 
@@ -34,7 +34,7 @@ import org.biojava.bio.structure.align.util.AtomCache;
 import org.biojava.bio.structure.io.FileParsingParameters;
 import org.biojava.bio.structure.io.PDBFileReader;
 import org.biojava.bio.structure.quaternary.ModelTransformationMatrix;
-import org.biojava3.core.util.SoftHashMap;
+import org.biojava3.core.util.ConcurrentCache;
 
 
 /** A biounit provider that loads the biol assembly from thepublic PDB file, rather than re-creating it on the fly out of the default PDB file for the asym unit
@@ -44,7 +44,7 @@ import org.biojava3.core.util.SoftHashMap;
  */
 public class FileBasedPDBBioUnitDataProvider implements BioUnitDataProvider{
 
-	SoftHashMap<String, PDBHeader> headerCache = new SoftHashMap<String, PDBHeader>(0);
+	ConcurrentCache<String, PDBHeader> headerCache = new ConcurrentCache<String, PDBHeader>(ConcurrentCache.Retention.SOFT);
 
 	Structure s = null;
 	
@@ -9,7 +9,7 @@ import org.biojava.bio.structure.StructureTools;
 import org.biojava.bio.structure.align.util.AtomCache;
 import org.biojava.bio.structure.io.FileParsingParameters;
 import org.biojava.bio.structure.quaternary.ModelTransformationMatrix;
-import org.biojava3.core.util.SoftHashMap;
+import org.biojava3.core.util.ConcurrentCache;
 
 
 /** A BioUnitDataProvider that extracts the necessary info from PDB files
@@ -20,7 +20,7 @@ import org.biojava3.core.util.SoftHashMap;
 public class PDBBioUnitDataProvider implements BioUnitDataProvider{
 
 	
-	SoftHashMap<String, PDBHeader> headerCache = new SoftHashMap<String, PDBHeader>(0);
+	ConcurrentCache<String, PDBHeader> headerCache = new ConcurrentCache<String, PDBHeader>(ConcurrentCache.Retention.SOFT);
 	
 	Structure s = null;
 	
@@ -0,0 +1,320 @@
+/**
+ *                  BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+
+package org.biojava.bio.structure.scop;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.biojava.bio.structure.align.util.UserConfiguration;
+import org.biojava.bio.structure.io.util.ClassificationIndex;
+import org.biojava3.core.util.InputStreamProvider;
+
+
+/** Provides access to a local SCOP installation through an index file, instead of keeping the whole
+ * classification in memory.
+ *
+ * The first time the classification is used, the dir.cla, dir.des and dir.hie files are downloaded if necessary
+ * and an index file (scop.index_ + version) is written next to them. Afterwards only the index is used: it is
+ * memory mapped, and domains, descriptions and nodes are created from it when they are requested. The index is
+ * built again if the SCOP files change. Once the index exists, the SCOP files may be deleted.
+ *
+ * In addition to the methods of {@link ScopDatabase}, {@link #searchDescriptions(String)} finds descriptions by
+ * the start of the words they contain.
+ *
+ * @since 3.0.6
+ */
+public class IndexedScopInstallation extends ScopInstallation {
+
+	public static final String indexFileName = "scop.index_";
+
+	private static final String SUNID = "sunid";
+	private static final String CLASSIFICATION = "classification";
+	private static final String DESCRIPTION = "description";
+	private static final String TOKEN = "token";
+	private static final String CATEGORY = "category";
+	private static final String PDB = "pdb";
+	private static final String SCOPID = "scopid";
+	private static final String LINEAGE = "lineage";
+	private static final String NODE = "node";
+
+	private ClassificationIndex index;
+
+	/** Create a new indexed SCOP installation.
+	 *
+	 * @param cacheLocation where the SCOP files and the index are stored. Missing SCOP files are downloaded.
+	 */
+	public IndexedScopInstallation(String cacheLocation){
+		super(cacheLocation);
+	}
+
+	public IndexedScopInstallation() {
+		this((new UserConfiguration()).getPdbFilePath());
+	}
+
+	protected String getIndexFilename(){
+		return cacheLocation + indexFileName + scopVersion;
+	}
+
+	/** @return a text that changes whenever one of the SCOP files changes, or null if a file is missing */
+	private String getSourceStamp(){
+		StringBuilder stamp = new StringBuilder(scopVersion);
+		for (String name : new String[] { getClaFilename(), getDesFilename(), getHieFilename() }){
+			File f = new File(name);
+			if ( ! f.exists())
+				return null;
+			stamp.append('|').append(f.getName()).append(':').append(f.length()).append(':').append(f.lastModified());
+		}
+		return stamp.toString();
+	}
+
+	/** Opens the index, and builds it first if it does not exist or is out of date.
+	 *
+	 * @return the index, or null if it can not be built
+	 */
+	protected synchronized ClassificationIndex getIndex(){
+		if ( index != null)
+			return index;
+
+		File indexFile = new File(getIndexFilename());
+		String stamp = getSourceStamp();
+		if ( indexFile.exists()) {
+			try {
+				ClassificationIndex existing = ClassificationIndex.open(indexFile);
+				if ( stamp == null || existing.getStamp().equals(stamp)) {
+					index = existing;
+					return index;
+				}
+			} catch (IOException e){
+				System.err.println("Could not read SCOP index " + indexFile + ", building it again: " + e.getMessage());
+			}
+		}
+
+		try {
+			if ( ! new File(getClaFilename()).exists())
+				downloadClaFile();
+			if ( ! new File(getDesFilename()).exists())
+				downloadDesFile();
+			if ( ! new File(getHieFilename()).exists())
+				downloadHieFile();
+
+			buildIndex(indexFile, getSourceStamp());
+			index = ClassificationIndex.open(indexFile);
+		} catch (Exception e){
+			e.printStackTrace();
+			return null;
+		}
+		return index;
+	}
+
+	private void buildIndex(File indexFile, String stamp) throws IOException {
+		long timeS = System.currentTimeMillis();
+		ClassificationIndex.Builder builder = new ClassificationIndex.Builder();
+		for (String table : new String[] { SUNID, CLASSIFICATION, DESCRIPTION, TOKEN, CATEGORY, PDB, SCOPID, LINEAGE, NODE})
+			builder.addTable(table);
+
+		BufferedReader buffer = open(getDesFilename());
+		try {
+			String line;
+			while ((line = buffer.readLine ()) != null) {
+				if ( line.startsWith("#"))
+					continue;
+				ScopDescription d = parseDescriptionLine(line);
+				if ( d == null)
+					continue;
+				long record = builder.addRecord(line);
+				builder.addKey(SUNID, String.valueOf(d.getSunID()), record);
+				builder.addKey(CLASSIFICATION, d.getClassificationId(), record);
+				builder.addKey(DESCRIPTION, d.getDescription().toLowerCase(), record);
+				builder.addKey(CATEGORY, d.getCategory().toString(), record);
+				for (String token : ClassificationIndex.tokenize(d.getDescription()))
+					builder.addKey(TOKEN, token, record);
+			}
+		} finally {
+			buffer.close();
+		}
+
+		buffer = open(getClaFilename());
+		try {
+			String line;
+			while ((line = buffer.readLine ()) != null) {
+				if ( line.startsWith("#"))
+					continue;
+				ScopDomain d = parseClassificationLine(line);
+				if ( d == null)
+					continue;
+				long record = builder.addRecord(line);
+				builder.addKey(PDB, d.getPdbId().toLowerCase(), record);
+				builder.addKey(SCOPID, d.getScopId().toLowerCase(), record);
+				for (int sunid : new int[] { d.getClassId(), d.getFoldId(), d.getSuperfamilyId(), d.getFamilyId(),
+						d.getDomainId(), d.getSpeciesId(), d.getPx() })
+					builder.addKey(LINEAGE, String.valueOf(sunid), record);
+			}
+		} finally {
+			buffer.close();
+		}
+
+		buffer = open(getHieFilename());
+		try {
+			String line;
+			while ((line = buffer.readLine ()) != null) {
+				if ( line.startsWith("#"))
+					continue;
+				ScopNode n = parseHierarchyLine(line);
+				if ( n == null)
+					continue;
+				builder.addKey(NODE, String.valueOf(n.getSunid()), builder.addRecord(line));
+			}
+		} finally {
+			buffer.close();
+		}
+
+		builder.write(indexFile, stamp);
+		System.out.println("indexed SCOP " + scopVersion + " in " + (System.currentTimeMillis() - timeS) + " ms.");
+	}
+
+	private static BufferedReader open(String fileName) throws IOException {
+		InputStreamProvider ips = new InputStreamProvider();
+		return new BufferedReader(new InputStreamReader(ips.getInputStream(new File(fileName))));
+	}
+
+	private List<ScopDescription> getDescriptions(ClassificationIndex idx, List<Long> records){
+		List<ScopDescription> descriptions = new ArrayList<ScopDescription>(records.size());
+		for (long r : records){
+			ScopDescription d = parseDescriptionLine(idx.getRecord(r));
+			if ( d != null)
+				descriptions.add(d);
+		}
+		return descriptions;
+	}
+
+	private List<ScopDomain> getDomains(ClassificationIndex idx, List<Long> records){
+		List<ScopDomain> domains = new ArrayList<ScopDomain>(records.size());
+		for (long r : records){
+			ScopDomain d = parseClassificationLine(idx.getRecord(r));
+			if ( d != null)
+				domains.add(d);
+		}
+		return domains;
+	}
+
+	@Override
+	public List<ScopDescription> getByCategory(ScopCategory category){
+		ClassificationIndex idx = getIndex();
+		if ( idx == null)
+			return new ArrayList<ScopDescription>();
+		return getDescriptions(idx, idx.lookup(CATEGORY, category.toString()));
+	}
+
+	@Override
+	public List<ScopDescription> filterByClassificationId(String query){
+		ClassificationIndex idx = getIndex();
+		if ( idx == null)
+			return new ArrayList<ScopDescription>();
+		return getDescriptions(idx, idx.lookupPrefix(CLASSIFICATION, query));
+	}
+
+	@Override
+	public List<ScopDescription> filterByDescription(String query){
+		ClassificationIndex idx = getIndex();
+		if ( idx == null)
+			return new ArrayList<ScopDescription>();
+		return getDescriptions(idx, idx.lookupPrefix(DESCRIPTION, query.toLowerCase()));
+	}
+
+	/** Finds descriptions that contain words starting with every word of the query, ignoring case. E.g.
+	 * "hem alpha" finds "Hemoglobin, alpha-chain".
+	 *
+	 * @param query the words to search for
+	 * @return the matching descriptions
+	 */
+	public List<ScopDescription> searchDescriptions(String query){
+		ClassificationIndex idx = getIndex();
+		if ( idx == null)
+			return new ArrayList<ScopDescription>();
+		return getDescriptions(idx, idx.searchTokens(TOKEN, query));
+	}
+
+	@Override
+	public ScopDescription getScopDescriptionBySunid(int sunid){
+		ClassificationIndex idx = getIndex();
+		if ( idx == null)
+			return null;
+		List<ScopDescription> d = getDescriptions(idx, idx.lookup(SUNID, String.valueOf(sunid)));
+		return d.isEmpty() ? null : d.get(0);
+	}
+
+	@Override
+	public List<ScopDomain> getDomainsForPDB(String pdbId){
+		ClassificationIndex idx = getIndex();
+		if ( idx == null)
+			return new ArrayList<ScopDomain>();
+		return getDomains(idx, idx.lookup(PDB, pdbId.toLowerCase()));
+	}
+
+	@Override
+	public ScopDomain getDomainByScopID(String scopId) {
+		if ( scopId.length() < 6) {
+			throw new IllegalArgumentException("Does not look like a scop ID! " + scopId);
+		}
+		ClassificationIndex idx = getIndex();
+		if ( idx == null)
+			return null;
+		List<ScopDomain> d = getDomains(idx, idx.lookup(SCOPID, scopId.toLowerCase()));
+		return d.isEmpty() ? null : d.get(0);
+	}
+
+	@Override
+	public ScopNode getScopNode(int sunid){
+		ClassificationIndex idx = getIndex();
+		if ( idx == null)
+			return null;
+		for (long r : idx.lookup(NODE, String.valueOf(sunid)))
+			return parseHierarchyLine(idx.getRecord(r));
+		return null;
+	}
+
+	@Override
+	public List<ScopDomain> getScopDomainsBySunid(Integer sunid){
+		ClassificationIndex idx = getIndex();
+		if ( idx == null)
+			return new ArrayList<ScopDomain>();
+		return getDomains(idx, idx.lookup(LINEAGE, String.valueOf(sunid)));
+	}
+
+	@Override
+	public synchronized void setCacheLocation(String cacheLocation) {
+		super.setCacheLocation(cacheLocation);
+		index = null;
+	}
+
+	@Override
+	public synchronized void setScopVersion(String scopVersion) {
+		super.setScopVersion(scopVersion);
+		index = null;
+	}
+}
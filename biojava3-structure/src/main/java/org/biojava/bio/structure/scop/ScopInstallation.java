@@ -422,39 +422,52 @@ public class ScopInstallation implements ScopDatabase {
 			if ( line.startsWith("#"))
 				continue;
 
-			String[] spl  = line.split("\t");
-
-			if ( spl.length != 3 ) {
-				System.err.println("parseHierarchy: Can't parse line " + line +" (length: " + spl.length+")");
+			ScopNode node = parseHierarchyLine(line);
+			if ( node == null)
 				continue;
-			}
 			counter++;
-			int sunid       = Integer.parseInt(spl[0]);
-			int parentSunid = -1;
 
-			if ( sunid != 0)
-				parentSunid = Integer.parseInt(spl[1]);
+			scopTree.put(node.getSunid(), node);
+		}
+		System.out.println("parsed " + counter + " scop sunid nodes.");
+	}
 
-			String children = spl[2];
-			String[] childIds = children.split(",");
+	/** Parses a line of the dir.hie file.
+	 *
+	 * @param line the line
+	 * @return the node, or null if the line can not be parsed
+	 * @since 3.0.6
+	 */
+	protected ScopNode parseHierarchyLine(String line) {
+		String[] spl  = line.split("\t");
 
-			List<Integer> chis = new ArrayList<Integer>();
+		if ( spl.length != 3 ) {
+			System.err.println("parseHierarchy: Can't parse line " + line +" (length: " + spl.length+")");
+			return null;
+		}
+		int sunid       = Integer.parseInt(spl[0]);
+		int parentSunid = -1;
 
-			for ( String id : childIds){
-				if ( id.equals("-"))
-					continue;
-				chis.add(Integer.parseInt(id));
-			}
+		if ( sunid != 0)
+			parentSunid = Integer.parseInt(spl[1]);
 
-			ScopNode node = new ScopNode();
+		String children = spl[2];
+		String[] childIds = children.split(",");
 
-			node.setSunid(sunid);
-			node.setParentSunid(parentSunid);
-			node.setChildren(chis);
+		List<Integer> chis = new ArrayList<Integer>();
 
-			scopTree.put(sunid, node);
+		for ( String id : childIds){
+			if ( id.equals("-"))
+				continue;
+			chis.add(Integer.parseInt(id));
 		}
-		System.out.println("parsed " + counter + " scop sunid nodes.");
+
+		ScopNode node = new ScopNode();
+
+		node.setSunid(sunid);
+		node.setParentSunid(parentSunid);
+		node.setChildren(chis);
+		return node;
 	}
 
 
@@ -477,32 +490,45 @@ public class ScopInstallation implements ScopDatabase {
 			if ( line.startsWith("#"))
 				continue;
 
-			String[] spl  = line.split("\t");
-
-			if ( spl.length != 5 ) {
-				System.err.println("parseDescriptions: Can't parse line " + line +" (length: " + spl.length+")");
+			ScopDescription c = parseDescriptionLine(line);
+			if ( c == null)
 				continue;
-			}
 			counter++;
 
-			//46464  dm  a.1.1.2 -   Hemoglobin I
-			int sunID = Integer.parseInt(spl[0]);
-			ScopCategory category =  ScopCategory.fromString(spl[1]);
-			String classificationId = spl[2];
-			String name = spl[3];
-			String desc = spl[4];
+			sunidMap.put(new Integer(c.getSunID()), c);
 
-			ScopDescription c = new ScopDescription();
-			c.setSunID(sunID);
-			c.setCategory(category);
-			c.setClassificationId(classificationId);
-			c.setName(name);
-			c.setDescription(desc);
+		}
+		System.out.println("parsed " + counter + " scop sunid descriptions.");
+	}
 
-			sunidMap.put(new Integer(sunID), c);
+	/** Parses a line of the dir.des file.
+	 *
+	 * @param line the line
+	 * @return the description, or null if the line can not be parsed
+	 * @since 3.0.6
+	 */
+	protected ScopDescription parseDescriptionLine(String line) {
+		String[] spl  = line.split("\t");
 
+		if ( spl.length != 5 ) {
+			System.err.println("parseDescriptions: Can't parse line " + line +" (length: " + spl.length+")");
+			return null;
 		}
-		System.out.println("parsed " + counter + " scop sunid descriptions.");
+
+		//46464  dm  a.1.1.2 -   Hemoglobin I
+		int sunID = Integer.parseInt(spl[0]);
+		ScopCategory category =  ScopCategory.fromString(spl[1]);
+		String classificationId = spl[2];
+		String name = spl[3];
+		String desc = spl[4];
+
+		ScopDescription c = new ScopDescription();
+		c.setSunID(sunID);
+		c.setCategory(category);
+		c.setClassificationId(classificationId);
+		c.setName(name);
+		c.setDescription(desc);
+		return c;
 	}
 
 
@@ -515,69 +541,83 @@ public class ScopInstallation implements ScopDatabase {
 			if ( line.startsWith("#"))
 				continue;
 
-			String[] spl  = line.split("\t");
-
-			if ( spl.length != 6){
-				System.err.println("Can't parse line " + line);
+			ScopDomain d = parseClassificationLine(line);
+			if ( d == null)
 				continue;
+			counter++;
 
+			String pdbId = d.getPdbId();
+			List<ScopDomain> domainList;
+			if ( domainMap.containsKey(pdbId)){
+				domainList = domainMap.get(pdbId);
+			} else {
+				domainList = new ArrayList<ScopDomain>();
+				domainMap.put(pdbId,domainList);
 			}
-			counter++;
 
-			String scopId = spl[0];
-			String pdbId = spl[1];
-			String range = spl[2];
-			String classificationId = spl[3];
-			Integer sunid = Integer.parseInt(spl[4]);
-			String tree = spl[5];
+			domainList.add(d);
+			if ( d.getSunid() == 47763)
+				System.out.println("FOUND DOMAIN!!!! " + d.getSunid() + " " + d);
+		}
+		System.out.println("parsed "+ counter + " scop sunid domains.");
+
+	}
+
+	/** Parses a line of the dir.cla file.
+	 *
+	 * @param line the line
+	 * @return the domain, or null if the line can not be parsed
+	 * @since 3.0.6
+	 */
+	protected ScopDomain parseClassificationLine(String line) {
+		String[] spl  = line.split("\t");
 
+		if ( spl.length != 6){
+			System.err.println("Can't parse line " + line);
+			return null;
 
+		}
 
-			ScopDomain d = new ScopDomain();
-			d.setScopId(scopId);
-			d.setPdbId(pdbId);
+		String scopId = spl[0];
+		String pdbId = spl[1];
+		String range = spl[2];
+		String classificationId = spl[3];
+		Integer sunid = Integer.parseInt(spl[4]);
+		String tree = spl[5];
 
-			d.setRanges(extractRanges(range));
 
-			d.setClassificationId(classificationId);
-			d.setSunid(sunid);
 
-			String[] treeSplit = tree.split(",");
+		ScopDomain d = new ScopDomain();
+		d.setScopId(scopId);
+		d.setPdbId(pdbId);
 
-			if (  treeSplit.length != 7 ) {
-				System.err.println("can't process: " + line );
-			}
+		d.setRanges(extractRanges(range));
 
-			int classId =Integer.parseInt(treeSplit[0].substring(3));
-			int foldId = Integer.parseInt(treeSplit[1].substring(3));
-			int superfamilyId = Integer.parseInt(treeSplit[2].substring(3));
-			int familyId = Integer.parseInt(treeSplit[3].substring(3));						
-			int domainId = Integer.parseInt(treeSplit[4].substring(3));
-			int speciesId = Integer.parseInt(treeSplit[5].substring(3));
-			int px = Integer.parseInt(treeSplit[6].substring(3));
-
-			d.setClassId(classId);
-			d.setFoldId(foldId);
-			d.setSuperfamilyId(superfamilyId);
-			d.setFamilyId(familyId);
-			d.setDomainId(domainId);
-			d.setSpeciesId(speciesId);
-			d.setPx(px);
+		d.setClassificationId(classificationId);
+		d.setSunid(sunid);
 
-			List<ScopDomain> domainList;
-			if ( domainMap.containsKey(pdbId)){
-				domainList = domainMap.get(pdbId);
-			} else {
-				domainList = new ArrayList<ScopDomain>();
-				domainMap.put(pdbId,domainList);
-			}
+		String[] treeSplit = tree.split(",");
 
-			domainList.add(d);
-			if ( sunid == 47763)
-				System.out.println("FOUND DOMAIN!!!! " + sunid + " " + d);
+		if (  treeSplit.length != 7 ) {
+			System.err.println("can't process: " + line );
 		}
-		System.out.println("parsed "+ counter + " scop sunid domains.");
 
+		int classId =Integer.parseInt(treeSplit[0].substring(3));
+		int foldId = Integer.parseInt(treeSplit[1].substring(3));
+		int superfamilyId = Integer.parseInt(treeSplit[2].substring(3));
+		int familyId = Integer.parseInt(treeSplit[3].substring(3));
+		int domainId = Integer.parseInt(treeSplit[4].substring(3));
+		int speciesId = Integer.parseInt(treeSplit[5].substring(3));
+		int px = Integer.parseInt(treeSplit[6].substring(3));
+
+		d.setClassId(classId);
+		d.setFoldId(foldId);
+		d.setSuperfamilyId(superfamilyId);
+		d.setFamilyId(familyId);
+		d.setDomainId(domainId);
+		d.setSpeciesId(speciesId);
+		d.setPx(px);
+		return d;
 	}
 
 	/** 
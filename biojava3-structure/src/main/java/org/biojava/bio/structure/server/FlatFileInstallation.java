@@ -53,10 +53,13 @@ import org.biojava.bio.structure.io.PDBFileReader;
  *     modification date, biological description of the structure</li>
  * <li>chaininfo.txt - contains information about every chain, like the compound information from the header, the nr of amino acids in chain,
  *     The alignment to the SEQRES residues </li>
+ * <li>pdbheaders.idx - a binary {@link PDBHeaderIndex} of the PDB headers, used by {@link #getPDBHeader(String)}
+ *     if it exists</li>
  * </ul>
  *     
  * In order to create these index files for this PDB installation, please see the PrepareIndexFile class.
  * @see PrepareIndexFile
+ * @see PDBHeaderIndexer
  * 
  * @author Andreas Prlic
  * @deprecated
@@ -74,9 +77,12 @@ implements PDBInstallation
 
     public static final String DEFAULT_INDEX_FILE = "pdbinfo.txt";
     public static final String DEFAUL_CHAIN_FILE  = "chaininfo.txt";
+    public static final String DEFAULT_HEADER_INDEX_FILE = "pdbheaders.idx";
 
     private File indexFile;
     private File chainInfoFile;
+    private File headerIndexFile;
+    private PDBHeaderIndex headerIndex;
 
     List<PDBHeader> filteredPDBs  ;
     PDBFileReader reader;
@@ -103,6 +109,7 @@ implements PDBInstallation
         //default is in the same directory as filePath...
         indexFile = new File(filePath + File.separator +DEFAULT_INDEX_FILE);
         chainInfoFile = new File(filePath + File.separator + DEFAUL_CHAIN_FILE);
+        headerIndexFile = new File(filePath + File.separator + DEFAULT_HEADER_INDEX_FILE);
         filtersApplied = false;
         filteredPDBs = new ArrayList<PDBHeader>();
         filterIterator = null;
@@ -125,6 +132,13 @@ implements PDBInstallation
     public void setChainInfoFile(File chainInfoFile) {
         this.chainInfoFile = chainInfoFile;
     }
+    public File getHeaderIndexFile() {
+        return headerIndexFile;
+    }
+    public synchronized void setHeaderIndexFile(File headerIndexFile) {
+        closeHeaderIndex();
+        this.headerIndexFile = headerIndexFile;
+    }
     public File getFilePath() {
         return filePath;
     }
@@ -234,12 +248,29 @@ implements PDBInstallation
         if ( ! filtersApplied)
             applyFilters();
 
-        throw new UnsupportedOperationException("can not get all PDBHeaders yet");
+        return new ArrayList<PDBHeader>(filteredPDBs);
 
     }
 
+    /** get the header of a PDB entry. If the binary header index exists the header is looked up there first.
+     * Ids that are not in the index are looked up in the headers read by {@link #applyFilters()}.
+     * 
+     * @param pdbId
+     * @return the header or null if the PDB id is not known
+     */
     public PDBHeader getPDBHeader(String pdbId){
 
+        PDBHeaderIndex index = getHeaderIndex();
+        if ( index != null){
+            try {
+                PDBHeader header = index.getPDBHeader(pdbId);
+                if ( header != null)
+                    return header;
+            } catch (IOException e){
+                logger.warning("could not read " + headerIndexFile + " " + e.getMessage());
+            }
+        }
+
         Iterator<PDBHeader> iter = filteredPDBs.iterator();
 
         while (iter.hasNext()){
@@ -253,6 +284,31 @@ implements PDBInstallation
         return null;
     }
 
+    private synchronized PDBHeaderIndex getHeaderIndex(){
+        if ( headerIndex == null && headerIndexFile.exists()){
+            try {
+                headerIndex = new PDBHeaderIndex(headerIndexFile);
+            } catch (IOException e){
+                logger.warning("could not open " + headerIndexFile + " " + e.getMessage());
+            }
+        }
+        return headerIndex;
+    }
+
+    /** close the binary header index, e.g. after it has been rebuilt. It is reopened on the next lookup.
+     * 
+     */
+    public synchronized void closeHeaderIndex(){
+        if ( headerIndex != null){
+            try {
+                headerIndex.close();
+            } catch (IOException e){
+                logger.warning("could not close " + headerIndexFile + " " + e.getMessage());
+            }
+            headerIndex = null;
+        }
+    }
+
     public Structure getStructure(String pdbId) {
         Structure s = null;
         try {
@@ -0,0 +1,335 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * created at Oct 19, 2026
+ */
+package org.biojava.bio.structure.server;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import org.biojava.bio.structure.PDBHeader;
+
+/** A compact binary index of the headers of all PDB files of a {@link FlatFileInstallation}.
+ * <p>
+ * The file starts with a directory of fixed size slots (4 byte PDB id, 8 byte record offset)
+ * sorted by PDB id, followed by one variable length record per entry. A lookup is a binary search
+ * over the directory and a single seek to the record, so the index is never loaded into memory as a whole.
+ * Each record also stores the modification time and size of the PDB file it was parsed from, which
+ * allows {@link PDBHeaderIndexer} to only reparse new or changed files.
+ * </p>
+ * 
+ * @see PDBHeaderIndexer
+ */
+public class PDBHeaderIndex {
+
+	private static final int MAGIC = 0x50444248; // "PDBH"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 12;
+	private static final int SLOT_SIZE = 12;
+
+	private final RandomAccessFile file;
+	private final int size;
+
+	/** one PDB file in the index
+	 * 
+	 */
+	public static class Entry {
+		private final String pdbId;
+		private final String path;
+		private final long lastModified;
+		private final long length;
+		private final String technique;
+		private final float resolution;
+		private final long depDate;
+		private final long modDate;
+		private final String title;
+		private final String classification;
+
+		public Entry(String pdbId, File file, PDBHeader header){
+			this(pdbId, file.getAbsolutePath(), file.lastModified(), file.length(), header.getTechnique(), 
+					header.getResolution(), time(header.getDepDate()), time(header.getModDate()), 
+					header.getTitle(), header.getClassification());
+		}
+
+		Entry(String pdbId, String path, long lastModified, long length, String technique, float resolution, 
+				long depDate, long modDate, String title, String classification){
+			this.pdbId = normalize(pdbId);
+			this.path = path;
+			this.lastModified = lastModified;
+			this.length = length;
+			this.technique = technique;
+			this.resolution = resolution;
+			this.depDate = depDate;
+			this.modDate = modDate;
+			this.title = title;
+			this.classification = classification;
+		}
+
+		private static long time(Date date){
+			return date == null ? -1 : date.getTime();
+		}
+
+		/** the PDB id in lower case
+		 * 
+		 */
+		public String getPdbId() {
+			return pdbId;
+		}
+
+		/** absolute path of the PDB file
+		 * 
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		public long getLength() {
+			return length;
+		}
+
+		/** true if the file has not been changed since this entry was created
+		 * 
+		 * @param f
+		 */
+		public boolean isUpToDate(File f){
+			return f.lastModified() == lastModified && f.length() == length;
+		}
+
+		/** create a PDBHeader with the content of this entry
+		 * 
+		 */
+		public PDBHeader toPDBHeader(){
+			PDBHeader header = new PDBHeader();
+			header.setIdCode(pdbId.toUpperCase(Locale.US));
+			header.setTechnique(technique);
+			header.setResolution(resolution);
+			if (depDate != -1)
+				header.setDepDate(new Date(depDate));
+			if (modDate != -1)
+				header.setModDate(new Date(modDate));
+			header.setTitle(title);
+			header.setClassification(classification);
+			return header;
+		}
+
+		private void write(DataOutputStream out) throws IOException {
+			out.writeLong(lastModified);
+			out.writeLong(length);
+			out.writeFloat(resolution);
+			out.writeLong(depDate);
+			out.writeLong(modDate);
+			writeString(out, path);
+			writeString(out, technique);
+			writeString(out, title);
+			writeString(out, classification);
+		}
+
+		private static Entry read(String pdbId, RandomAccessFile in) throws IOException {
+			long lastModified = in.readLong();
+			long length = in.readLong();
+			float resolution = in.readFloat();
+			long depDate = in.readLong();
+			long modDate = in.readLong();
+			String path = readString(in);
+			String technique = readString(in);
+			String title = readString(in);
+			String classification = readString(in);
+			return new Entry(pdbId, path, lastModified, length, technique, resolution, depDate, modDate, title, classification);
+		}
+
+		@Override
+		public String toString() {
+			return pdbId + " " + path;
+		}
+	}
+
+	/** open an index for lookups. Call {@link #close()} when done.
+	 * 
+	 * @param indexFile
+	 * @throws IOException if the file is not a PDB header index
+	 */
+	public PDBHeaderIndex(File indexFile) throws IOException {
+		file = new RandomAccessFile(indexFile, "r");
+		try {
+			if (file.readInt() != MAGIC || file.readInt() != VERSION)
+				throw new IOException("Not a PDB header index " + indexFile);
+			size = file.readInt();
+		} catch (IOException e){
+			file.close();
+			throw e;
+		}
+	}
+
+	/** number of PDB entries in the index
+	 * 
+	 */
+	public int size(){
+		return size;
+	}
+
+	/** look up the entry for a PDB id
+	 * 
+	 * @param pdbId a 4 character PDB id, case is ignored
+	 * @return the entry or null if the PDB id is not in the index. Ids that do not have 4 characters are never in the index.
+	 * @throws IOException
+	 */
+	public synchronized Entry getEntry(String pdbId) throws IOException {
+		if (pdbId == null || pdbId.length() != 4)
+			return null;
+		String id = normalize(pdbId);
+		byte[] key = new byte[4];
+		int lo = 0;
+		int hi = size - 1;
+		while (lo <= hi){
+			int mid = (lo + hi) >>> 1;
+			file.seek(HEADER_SIZE + (long) mid * SLOT_SIZE);
+			file.readFully(key);
+			int c = new String(key, "US-ASCII").compareTo(id);
+			if (c < 0)
+				lo = mid + 1;
+			else if (c > 0)
+				hi = mid - 1;
+			else {
+				file.seek(file.readLong());
+				return Entry.read(id, file);
+			}
+		}
+		return null;
+	}
+
+	/** look up the header for a PDB id
+	 * 
+	 * @param pdbId
+	 * @return the header or null if the PDB id is not in the index
+	 * @throws IOException
+	 */
+	public PDBHeader getPDBHeader(String pdbId) throws IOException {
+		Entry entry = getEntry(pdbId);
+		return entry == null ? null : entry.toPDBHeader();
+	}
+
+	/** read all entries in PDB id order
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized List<Entry> getEntries() throws IOException {
+		List<Entry> entries = new ArrayList<Entry>(size);
+		byte[] key = new byte[4];
+		for (int i = 0 ; i < size ; i++){
+			file.seek(HEADER_SIZE + (long) i * SLOT_SIZE);
+			file.readFully(key);
+			file.seek(file.readLong());
+			entries.add(Entry.read(new String(key, "US-ASCII"), file));
+		}
+		return entries;
+	}
+
+	public void close() throws IOException {
+		file.close();
+	}
+
+	/** write a new index. The entries are sorted by PDB id, for duplicate ids the last entry is kept.
+	 * The index is written to a temporary file first and then renamed over the old index, so readers never see a partial index.
+	 * On platforms that can not rename over an existing file the old index is deleted first,
+	 * then the index is missing for a short time.
+	 * 
+	 * @param indexFile
+	 * @param entries
+	 * @throws IOException
+	 */
+	public static void write(File indexFile, List<Entry> entries) throws IOException {
+		List<Entry> sorted = new ArrayList<Entry>(entries);
+		// stable sort, so the last of several entries with the same id is last in its run
+		Collections.sort(sorted, new Comparator<Entry>() {
+			public int compare(Entry o1, Entry o2) {
+				return o1.getPdbId().compareTo(o2.getPdbId());
+			}
+		});
+		List<Entry> unique = new ArrayList<Entry>(sorted.size());
+		for (int i = 0 ; i < sorted.size() ; i++){
+			if (i + 1 < sorted.size() && sorted.get(i + 1).getPdbId().equals(sorted.get(i).getPdbId()))
+				continue;
+			unique.add(sorted.get(i));
+		}
+
+		ByteArrayOutputStream records = new ByteArrayOutputStream();
+		DataOutputStream recordOut = new DataOutputStream(records);
+		long[] offsets = new long[unique.size()];
+		long start = HEADER_SIZE + (long) unique.size() * SLOT_SIZE;
+		for (int i = 0 ; i < unique.size() ; i++){
+			offsets[i] = start + recordOut.size();
+			unique.get(i).write(recordOut);
+		}
+		recordOut.flush();
+
+		File tmp = new File(indexFile.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(unique.size());
+			for (int i = 0 ; i < unique.size() ; i++){
+				out.write(unique.get(i).getPdbId().getBytes("US-ASCII"));
+				out.writeLong(offsets[i]);
+			}
+			records.writeTo(out);
+		} finally {
+			out.close();
+		}
+		if (tmp.renameTo(indexFile))
+			return;
+		// e.g. on Windows, where an existing file can not be replaced by a rename
+		if (indexFile.exists() && ! indexFile.delete())
+			throw new IOException("Could not replace " + indexFile);
+		if (! tmp.renameTo(indexFile))
+			throw new IOException("Could not rename " + tmp + " to " + indexFile);
+	}
+
+	private static String normalize(String pdbId){
+		if (pdbId == null || pdbId.length() != 4)
+			throw new IllegalArgumentException("PDB id must have 4 characters: " + pdbId);
+		return pdbId.toLowerCase(Locale.US);
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		out.writeBoolean(s != null);
+		if (s != null)
+			out.writeUTF(s);
+	}
+
+	private static String readString(RandomAccessFile in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
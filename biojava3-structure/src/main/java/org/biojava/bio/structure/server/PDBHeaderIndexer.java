@@ -0,0 +1,184 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * created at Oct 19, 2026
+ */
+package org.biojava.bio.structure.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.biojava.bio.structure.PDBHeader;
+import org.biojava.bio.structure.Structure;
+import org.biojava.bio.structure.io.FileParsingParameters;
+import org.biojava.bio.structure.io.PDBFileParser;
+import org.biojava3.core.util.ConcurrencyTools;
+import org.biojava3.core.util.InputStreamProvider;
+
+/** Builds or updates the {@link PDBHeaderIndex} of a directory of PDB files.
+ * <p>
+ * Only the header records are parsed ({@link FileParsingParameters#setHeaderOnly(boolean)}) and the files
+ * are parsed in parallel on the {@link ConcurrencyTools} thread pool. Files whose modification time and size
+ * match the existing index are not parsed again, so a weekly update only costs the new and changed entries.
+ * Files that can not be parsed are logged and left out of the index.
+ * </p>
+ * 
+ * <pre>
+ * PDBHeaderIndexer indexer = new PDBHeaderIndexer(new File("/pdb/all"), new File("/pdb/all/pdbheaders.idx"));
+ * indexer.update();
+ * </pre>
+ */
+public class PDBHeaderIndexer {
+
+	private static final Logger logger = Logger.getLogger(PDBHeaderIndexer.class.getName());
+
+	private final File pdbDirectory;
+	private final File indexFile;
+
+	private int parsedCount;
+	private int failedCount;
+
+	/** 
+	 * @param pdbDirectory directory with files named like pdb1234.ent.gz or 1234.pdb.gz
+	 * @param indexFile
+	 */
+	public PDBHeaderIndexer(File pdbDirectory, File indexFile){
+		this.pdbDirectory = pdbDirectory;
+		this.indexFile = indexFile;
+	}
+
+	public PDBHeaderIndexer(FlatFileInstallation installation){
+		this(installation.getFilePath(), installation.getHeaderIndexFile());
+	}
+
+	/** bring the index up to date with the PDB directory
+	 * 
+	 * @return number of entries in the new index
+	 * @throws IOException if the index can not be read or written
+	 */
+	public int update() throws IOException {
+		long start = System.currentTimeMillis();
+		Map<String, PDBHeaderIndex.Entry> previous = new HashMap<String, PDBHeaderIndex.Entry>();
+		if (indexFile.exists()){
+			PDBHeaderIndex index = new PDBHeaderIndex(indexFile);
+			try {
+				for (PDBHeaderIndex.Entry entry : index.getEntries())
+					previous.put(entry.getPath(), entry);
+			} finally {
+				index.close();
+			}
+		}
+
+		File[] pdbfiles = new PrepareIndexFile().getAllPDB(pdbDirectory);
+		List<PDBHeaderIndex.Entry> entries = new ArrayList<PDBHeaderIndex.Entry>(pdbfiles.length);
+		List<Future<PDBHeaderIndex.Entry>> futures = new ArrayList<Future<PDBHeaderIndex.Entry>>();
+		for (final File f : pdbfiles){
+			PDBHeaderIndex.Entry entry = previous.get(f.getAbsolutePath());
+			if (entry != null && entry.isUpToDate(f)){
+				entries.add(entry);
+				continue;
+			}
+			futures.add(ConcurrencyTools.submit(new Callable<PDBHeaderIndex.Entry>() {
+				public PDBHeaderIndex.Entry call() throws Exception {
+					return parse(f);
+				}
+			}, "indexing " + f.getName()));
+		}
+
+		parsedCount = futures.size();
+		failedCount = 0;
+		for (Future<PDBHeaderIndex.Entry> future : futures){
+			try {
+				entries.add(future.get());
+			} catch (InterruptedException e){
+				throw new IOException("interrupted while indexing " + pdbDirectory);
+			} catch (ExecutionException e){
+				failedCount++;
+				logger.log(Level.WARNING, "could not index PDB file", e.getCause());
+			}
+		}
+
+		PDBHeaderIndex.write(indexFile, entries);
+		logger.info("indexed " + entries.size() + " PDB files, parsed " + parsedCount + ", failed " + failedCount
+				+ " in " + (System.currentTimeMillis() - start) / 1000 + " sec");
+		return entries.size();
+	}
+
+	/** number of files parsed by the last {@link #update()}
+	 * 
+	 */
+	public int getParsedCount() {
+		return parsedCount;
+	}
+
+	/** number of files that could not be parsed by the last {@link #update()}
+	 * 
+	 */
+	public int getFailedCount() {
+		return failedCount;
+	}
+
+	/** parse the header of one file. Each call uses its own parser, the parsers are not thread safe.
+	 * 
+	 * @param f
+	 * @throws IOException
+	 */
+	static PDBHeaderIndex.Entry parse(File f) throws IOException {
+		FileParsingParameters params = new FileParsingParameters();
+		params.setHeaderOnly(true);
+
+		PDBFileParser parser = new PDBFileParser();
+		parser.setFileParsingParameters(params);
+
+		InputStream in = new InputStreamProvider().getInputStream(f);
+		Structure s;
+		try {
+			s = parser.parsePDBFile(in);
+		} finally {
+			in.close();
+		}
+		PDBHeader header = s.getPDBHeader();
+		String pdbId = header.getIdCode();
+		if (pdbId == null || pdbId.length() != 4)
+			pdbId = getPdbIdFromFileName(f.getName());
+		return new PDBHeaderIndex.Entry(pdbId, f, header);
+	}
+
+	/** pdb1234.ent.gz or 1234.pdb.gz
+	 * 
+	 * @param name
+	 */
+	static String getPdbIdFromFileName(String name){
+		if (name.startsWith("pdb") && name.length() >= 7)
+			return name.substring(3, 7);
+		if (name.length() >= 4)
+			return name.substring(0, 4);
+		throw new IllegalArgumentException("can not get a PDB id from file name " + name);
+	}
+}
@@ -0,0 +1,443 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * created at Oct 19, 2026
+ */
+package org.biojava.bio.structure.server;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.biojava.bio.structure.Chain;
+import org.biojava.bio.structure.Group;
+import org.biojava.bio.structure.PDBHeader;
+import org.biojava.bio.structure.Structure;
+
+/** A {@link StructureServer} that parses the structures of a {@link PDBInstallation} on a pool of parser
+ * threads and keeps them in a bounded queue until they are requested.
+ * <p>
+ * The queue is bounded both by the number of structures ({@link #setCacheSize(int)}) and by an estimate of
+ * the memory they use ({@link #setMemoryBudget(long)}), so a few very large entries can not exhaust the heap. 
+ * When the queue is full the parsers block until a consumer takes a structure. A single structure larger 
+ * than the budget is still queued when the queue is empty.
+ * </p>
+ * <p>
+ * If the installation can list its entries with {@link PDBInstallation#getAll()} the parsers load them 
+ * concurrently with {@link PDBInstallation#getStructure(String)}, otherwise they take turns calling 
+ * {@link PDBInstallation#next()}.
+ * </p>
+ * 
+ * <pre>
+ * PrefetchingStructureServer server = new PrefetchingStructureServer(4);
+ * server.setPDBInstallation(new FlatFileInstallation(new File("/pdb/all")));
+ * server.process(myAnalysis, 8);
+ * System.out.println(server.getMetrics());
+ * </pre>
+ * 
+ * @see SimpleStructureServer
+ */
+public class PrefetchingStructureServer implements StructureServer {
+
+	public static final Logger logger = Logger.getLogger("org.biojava.bio.structure");
+
+	/** rough heap cost of one atom including its group and chain share, used for the memory budget */
+	public static final long BYTES_PER_ATOM = 250;
+
+	public static final int DEFAULT_CACHE_SIZE = 64;
+	public static final long DEFAULT_MEMORY_BUDGET = 256L * 1024 * 1024;
+
+	private final int nrParsers;
+	private final List<StructureListener> listeners = new CopyOnWriteArrayList<StructureListener>();
+	private PDBInstallation installation;
+	private int cacheSize = DEFAULT_CACHE_SIZE;
+	private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+	private final LinkedList<Prefetched> queue = new LinkedList<Prefetched>();
+
+	private ExecutorService parsers;
+	private Iterator<PDBHeader> headers;
+	private int runningParsers;
+	private boolean started;
+
+	private long startTime;
+	private long parsed;
+	private long failed;
+	private long consumed;
+	private int maxQueueDepth;
+	private long queuedBytes;
+	private long parserBlockedNanos;
+	private long consumerWaitNanos;
+
+	private static class Prefetched {
+		final Structure structure;
+		final long bytes;
+
+		Prefetched(Structure structure, long bytes){
+			this.structure = structure;
+			this.bytes = bytes;
+		}
+	}
+
+	/** 
+	 * @param nrParsers number of threads that parse structures
+	 */
+	public PrefetchingStructureServer(int nrParsers){
+		if (nrParsers < 1)
+			throw new IllegalArgumentException("need at least one parser thread");
+		this.nrParsers = nrParsers;
+	}
+
+	/** use one parser thread per available processor
+	 * 
+	 */
+	public PrefetchingStructureServer(){
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public void addStructureListener(StructureListener listener) {
+		listeners.add(listener);
+	}
+
+	public void clearStructureListeners() {
+		listeners.clear();
+	}
+
+	public void setPDBInstallation(PDBInstallation installation) {
+		lock.lock();
+		try {
+			if (started)
+				throw new IllegalStateException("the installation can not be changed after prefetching has started");
+			this.installation = installation;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public PDBInstallation getPDBInstallation() {
+		return installation;
+	}
+
+	/** the maximum number of parsed structures waiting in the queue
+	 * 
+	 */
+	public void setCacheSize(int nr) {
+		if (nr < 1)
+			throw new IllegalArgumentException("cache size must be at least 1");
+		lock.lock();
+		try {
+			cacheSize = nr;
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	/** the maximum estimated memory of the parsed structures waiting in the queue
+	 * 
+	 * @param bytes
+	 * @see #BYTES_PER_ATOM
+	 */
+	public void setMemoryBudget(long bytes) {
+		lock.lock();
+		try {
+			memoryBudget = bytes;
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	public int getNrParsers() {
+		return nrParsers;
+	}
+
+	/** take the next structure and send it to the listener in the calling thread. 
+	 * Blocks until a structure has been parsed; at the end of the installation the event holds a null structure.
+	 */
+	public void requestNextStructure(StructureListener listener) {
+		Structure s = takeStructure();
+		listener.newStructure(new StructureEventImpl(s));
+	}
+
+	/** blocks until it is known if another structure will be available
+	 * 
+	 */
+	public boolean hasNextStructure() {
+		start();
+		lock.lock();
+		try {
+			long waitStart = System.nanoTime();
+			while (queue.isEmpty() && runningParsers > 0)
+				notEmpty.awaitUninterruptibly();
+			consumerWaitNanos += System.nanoTime() - waitStart;
+			return ! queue.isEmpty();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** take the next parsed structure, blocking while the parsers are still working
+	 * 
+	 * @return the next structure or null if all structures of the installation have been returned
+	 */
+	public Structure takeStructure() {
+		start();
+		lock.lock();
+		try {
+			long waitStart = System.nanoTime();
+			while (queue.isEmpty() && runningParsers > 0){
+				try {
+					notEmpty.await();
+				} catch (InterruptedException e){
+					Thread.currentThread().interrupt();
+					return null;
+				}
+			}
+			consumerWaitNanos += System.nanoTime() - waitStart;
+			if (queue.isEmpty())
+				return null;
+			Prefetched p = queue.removeFirst();
+			queuedBytes -= p.bytes;
+			consumed++;
+			notFull.signalAll();
+			return p.structure;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** send every structure of the installation to the listener, using the given number of worker threads.
+	 * The listener is called concurrently and has to be thread safe. Returns when all structures have been processed.
+	 * 
+	 * @param listener
+	 * @param nrWorkers
+	 * @throws InterruptedException
+	 */
+	public void process(final StructureListener listener, int nrWorkers) throws InterruptedException {
+		ExecutorService workers = Executors.newFixedThreadPool(nrWorkers, new DaemonThreadFactory("structure-worker"));
+		for (int i = 0 ; i < nrWorkers ; i++){
+			workers.submit(new Runnable() {
+				public void run() {
+					Structure s;
+					while ((s = takeStructure()) != null){
+						try {
+							listener.newStructure(new StructureEventImpl(s));
+						} catch (RuntimeException e){
+							logger.log(Level.WARNING, "processing " + s.getPDBCode() + " failed", e);
+						}
+					}
+				}
+			});
+		}
+		workers.shutdown();
+		while (! workers.awaitTermination(1, TimeUnit.MINUTES))
+			logger.info(getMetrics().toString());
+	}
+
+	/** current throughput and queue state
+	 * 
+	 */
+	public StructureServerMetrics getMetrics() {
+		lock.lock();
+		try {
+			return new StructureServerMetrics(parsed, failed, consumed, queue.size(), maxQueueDepth, queuedBytes,
+					started ? System.currentTimeMillis() - startTime : 0, parserBlockedNanos / 1000000, consumerWaitNanos / 1000000);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** stop the parsers and drop all queued structures
+	 * 
+	 */
+	public void shutdown() {
+		lock.lock();
+		try {
+			if (parsers != null)
+				parsers.shutdownNow();
+			queue.clear();
+			queuedBytes = 0;
+			runningParsers = 0;
+			notEmpty.signalAll();
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void start() {
+		lock.lock();
+		try {
+			if (started)
+				return;
+			if (installation == null)
+				throw new IllegalStateException("no PDB installation has been set");
+			started = true;
+			startTime = System.currentTimeMillis();
+			List<PDBHeader> all = null;
+			try {
+				all = installation.getAll();
+			} catch (UnsupportedOperationException e){
+				// fall back to the iterator of the installation
+			}
+			headers = all == null ? null : all.iterator();
+			runningParsers = nrParsers;
+			parsers = Executors.newFixedThreadPool(nrParsers, new DaemonThreadFactory("structure-parser"));
+			for (int i = 0 ; i < nrParsers ; i++){
+				parsers.submit(new Runnable() {
+					public void run() {
+						parse();
+					}
+				});
+			}
+			parsers.shutdown();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void parse() {
+		try {
+			while (! Thread.currentThread().isInterrupted()){
+				Structure s;
+				if (headers != null){
+					String pdbId = nextPdbId();
+					if (pdbId == null)
+						break;
+					s = installation.getStructure(pdbId);
+				} else {
+					synchronized (installation){
+						if (! installation.hasNext())
+							break;
+						s = installation.next();
+					}
+				}
+				if (s == null){
+					lock.lock();
+					try {
+						failed++;
+					} finally {
+						lock.unlock();
+					}
+					continue;
+				}
+				for (StructureListener li : listeners)
+					li.newStructure(new StructureEventImpl(s));
+				if (! put(s))
+					break;
+			}
+		} catch (RuntimeException e){
+			logger.log(Level.WARNING, "structure parser stopped", e);
+		} finally {
+			lock.lock();
+			try {
+				runningParsers--;
+				notEmpty.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private String nextPdbId() {
+		synchronized (headers){
+			return headers.hasNext() ? headers.next().getIdCode() : null;
+		}
+	}
+
+	/** add a structure to the queue, blocking while the queue is full
+	 * 
+	 * @return false if the parser was interrupted
+	 */
+	private boolean put(Structure s) {
+		long bytes = estimateSize(s);
+		lock.lock();
+		try {
+			parsed++;
+			long waitStart = System.nanoTime();
+			while (! queue.isEmpty() && (queue.size() >= cacheSize || queuedBytes + bytes > memoryBudget)){
+				try {
+					notFull.await();
+				} catch (InterruptedException e){
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			parserBlockedNanos += System.nanoTime() - waitStart;
+			queue.addLast(new Prefetched(s, bytes));
+			queuedBytes += bytes;
+			maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+			notEmpty.signal();
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** estimate the heap used by a structure from its number of atoms in all models
+	 * 
+	 * @param s
+	 */
+	static long estimateSize(Structure s) {
+		long atoms = 0;
+		for (int m = 0 ; m < s.nrModels() ; m++){
+			for (Chain c : s.getModel(m)){
+				for (Group g : c.getAtomGroups())
+					atoms += g.size();
+			}
+		}
+		return atoms * BYTES_PER_ATOM;
+	}
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+		private final String name;
+		private int count = 0;
+
+		DaemonThreadFactory(String name){
+			this.name = name;
+		}
+
+		public synchronized Thread newThread(Runnable r) {
+			Thread t = new Thread(r, name + "-" + (++count));
+			t.setDaemon(true);
+			return t;
+		}
+	}
+}
@@ -68,6 +68,22 @@ public class PrepareIndexFile {
 
 	}
 
+	/** create or update the binary header index for this installation. 
+	 * Only the headers are parsed, in parallel, and files that did not change since the last run are skipped.
+	 * 
+	 * @param installation
+	 * @return number of entries in the index
+	 * @see PDBHeaderIndexer
+	 */
+	public int prepareHeaderIndexForInstallation(FlatFileInstallation installation)
+	throws IOException{
+
+		installation.closeHeaderIndex();
+		int size = new PDBHeaderIndexer(installation).update();
+		installation.closeHeaderIndex();
+		return size;
+	}
+
 
 	/** parses a set of PDB files and writes info into a file
 	 * the file is tab separated and has the following columns:
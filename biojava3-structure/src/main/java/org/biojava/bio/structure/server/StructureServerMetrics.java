@@ -0,0 +1,112 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * created at Oct 19, 2026
+ */
+package org.biojava.bio.structure.server;
+
+/** A snapshot of the throughput and queue state of a {@link PrefetchingStructureServer}.
+ * 
+ */
+public class StructureServerMetrics {
+
+	private final long parsed;
+	private final long failed;
+	private final long consumed;
+	private final int queueDepth;
+	private final int maxQueueDepth;
+	private final long queuedBytes;
+	private final long elapsedMillis;
+	private final long parserBlockedMillis;
+	private final long consumerWaitMillis;
+
+	StructureServerMetrics(long parsed, long failed, long consumed, int queueDepth, int maxQueueDepth, long queuedBytes,
+			long elapsedMillis, long parserBlockedMillis, long consumerWaitMillis){
+		this.parsed = parsed;
+		this.failed = failed;
+		this.consumed = consumed;
+		this.queueDepth = queueDepth;
+		this.maxQueueDepth = maxQueueDepth;
+		this.queuedBytes = queuedBytes;
+		this.elapsedMillis = elapsedMillis;
+		this.parserBlockedMillis = parserBlockedMillis;
+		this.consumerWaitMillis = consumerWaitMillis;
+	}
+
+	/** number of structures parsed so far */
+	public long getParsed() {
+		return parsed;
+	}
+
+	/** number of structures that could not be loaded */
+	public long getFailed() {
+		return failed;
+	}
+
+	/** number of structures handed out to consumers */
+	public long getConsumed() {
+		return consumed;
+	}
+
+	/** number of parsed structures waiting for a consumer */
+	public int getQueueDepth() {
+		return queueDepth;
+	}
+
+	public int getMaxQueueDepth() {
+		return maxQueueDepth;
+	}
+
+	/** estimated memory held by the queued structures */
+	public long getQueuedBytes() {
+		return queuedBytes;
+	}
+
+	/** time since the parsers were started */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/** total time parsers spent waiting for free space in the queue, high values mean the consumers are the bottleneck */
+	public long getParserBlockedMillis() {
+		return parserBlockedMillis;
+	}
+
+	/** total time consumers spent waiting for a parsed structure, high values mean the parsers are the bottleneck */
+	public long getConsumerWaitMillis() {
+		return consumerWaitMillis;
+	}
+
+	/** parsed structures per second */
+	public double getParseThroughput() {
+		return elapsedMillis == 0 ? 0 : parsed * 1000.0 / elapsedMillis;
+	}
+
+	/** consumed structures per second */
+	public double getConsumeThroughput() {
+		return elapsedMillis == 0 ? 0 : consumed * 1000.0 / elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("parsed %d (%.1f/s) failed %d consumed %d (%.1f/s) queue %d (max %d, %d kB) parsers blocked %d ms consumers waited %d ms",
+				parsed, getParseThroughput(), failed, consumed, getConsumeThroughput(), queueDepth, maxQueueDepth,
+				queuedBytes / 1024, parserBlockedMillis, consumerWaitMillis);
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.biojava.bio.structure.jama.Matrix;
+import org.biojava.bio.structure.quaternary.ModelTransformationMatrix;
+
+/** Tests that {@link RigidTransform} moves atoms like the Matrix based methods of {@link Calc}.
+ *
+ */
+public class RigidTransformTest extends TestCase {
+
+	private static final double EPS = 1e-9;
+
+	private Random random;
+
+	@Override
+	protected void setUp() {
+		random = new Random(42);
+	}
+
+	private Atom randomAtom(){
+		Atom a = new AtomImpl();
+		a.setX(random.nextGaussian() * 20);
+		a.setY(random.nextGaussian() * 20);
+		a.setZ(random.nextGaussian() * 20);
+		return a;
+	}
+
+	/** a rotation matrix as used by Calc.rotate(Atom, Matrix) */
+	private Matrix randomRotation(){
+		return Calc.matrixFromEuler(random.nextDouble() * 360 - 180,
+				random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+	}
+
+	private static void assertSamePosition(Atom expected, Atom actual){
+		assertEquals(expected.getX(), actual.getX(), EPS);
+		assertEquals(expected.getY(), actual.getY(), EPS);
+		assertEquals(expected.getZ(), actual.getZ(), EPS);
+	}
+
+	public void testFromMatrix() {
+		for (int i = 0 ; i < 20 ; i++){
+			Matrix m = randomRotation();
+			Atom shift = randomAtom();
+			RigidTransform t = RigidTransform.fromMatrix(m, shift);
+
+			Atom a = randomAtom();
+			Atom expected = (Atom) a.clone();
+			Calc.rotate(expected, m);
+			Calc.shift(expected, shift);
+			t.transform(a);
+			assertSamePosition(expected, a);
+
+			assertTrue(Matrix.identity(3, 3).minus(m).minus(
+					Matrix.identity(3, 3).minus(t.getRotationMatrix())).normF() < EPS);
+			assertSamePosition(shift, t.getShiftVector());
+		}
+	}
+
+	public void testComposeAndInvert() {
+		RigidTransform t1 = RigidTransform.fromMatrix(randomRotation(), randomAtom());
+		RigidTransform t2 = RigidTransform.fromMatrix(randomRotation(), randomAtom());
+
+		Atom a = randomAtom();
+		Atom expected = (Atom) a.clone();
+		t1.transform(expected);
+		t2.transform(expected);
+
+		Atom b = (Atom) a.clone();
+		t2.compose(t1).transform(b);
+		assertSamePosition(expected, b);
+
+		t2.compose(t1).invert().transform(b);
+		assertSamePosition(a, b);
+
+		// a general, non orthogonal matrix
+		RigidTransform skew = new RigidTransform(2, 0.5, 0, 0, 1, 0.25, 0, 0, 3, 1, 2, 3);
+		b = (Atom) a.clone();
+		skew.compose(skew.invert()).transform(b);
+		assertSamePosition(a, b);
+
+		try {
+			new RigidTransform(1, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0).invert();
+			fail("expected an exception for a singular matrix");
+		} catch (IllegalStateException e){
+			// expected
+		}
+	}
+
+	public void testBulk() {
+		RigidTransform t = RigidTransform.fromMatrix(randomRotation(), randomAtom());
+		int n = 50;
+		double[] coords = new double[3 * n + 2];
+		for (int i = 0 ; i < coords.length ; i++)
+			coords[i] = random.nextGaussian() * 10;
+		double[] out = new double[3 * n + 1];
+		t.transform(coords, 2, out, 1, n);
+
+		for (int i = 0 ; i < n ; i++){
+			Atom a = new AtomImpl();
+			a.setX(coords[2 + 3 * i]);
+			a.setY(coords[3 + 3 * i]);
+			a.setZ(coords[4 + 3 * i]);
+			t.transform(a);
+			assertEquals(a.getX(), out[1 + 3 * i], EPS);
+			assertEquals(a.getY(), out[2 + 3 * i], EPS);
+			assertEquals(a.getZ(), out[3 + 3 * i], EPS);
+		}
+
+		// in place
+		t.transform(coords, 2, coords, 2, n);
+		for (int i = 0 ; i < 3 * n ; i++)
+			assertEquals(out[1 + i], coords[2 + i], EPS);
+	}
+
+	public void testModelTransformationMatrix() {
+		ModelTransformationMatrix max = new ModelTransformationMatrix();
+		max.setTransformationMatrix(randomRotation(), new double[] { 1.5, -2, 30 });
+
+		Atom a = randomAtom();
+		Atom expected = (Atom) a.clone();
+		Atom v = new AtomImpl();
+		v.setCoords(max.getVector());
+		Calc.rotate(expected, max.getMatrix());
+		Calc.shift(expected, v);
+
+		max.getTransform().transform(a);
+		assertSamePosition(expected, a);
+	}
+
+	public void testSVDSuperimposer() throws StructureException {
+		RigidTransform moved = RigidTransform.fromMatrix(randomRotation(), randomAtom());
+		Atom[] atoms1 = new Atom[10];
+		Atom[] atoms2 = new Atom[10];
+		for (int i = 0 ; i < atoms1.length ; i++){
+			atoms1[i] = randomAtom();
+			atoms2[i] = (Atom) atoms1[i].clone();
+			moved.transform(atoms2[i]);
+		}
+
+		SVDSuperimposer svd = new SVDSuperimposer(atoms1, atoms2);
+		Calc.transform(atoms2, svd.getTransform());
+		for (int i = 0 ; i < atoms1.length ; i++)
+			assertSamePosition(atoms1[i], atoms2[i]);
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.align;
+
+import java.util.Random;
+
+import org.biojava.bio.structure.AminoAcidImpl;
+import org.biojava.bio.structure.Atom;
+import org.biojava.bio.structure.AtomImpl;
+import org.biojava.bio.structure.Chain;
+import org.biojava.bio.structure.ChainImpl;
+import org.biojava.bio.structure.Group;
+import org.biojava.bio.structure.ResidueNumber;
+
+/** Synthetic CA chains for tests that align structures without any files from the PDB.
+ *
+ */
+public class SyntheticCAChains {
+
+	private SyntheticCAChains(){
+	}
+
+	/** a chain of CA atoms 3.8A apart, which changes its direction gradually */
+	public static double[][] randomChain(Random random, int len){
+		double[][] coords = new double[len][];
+		double[] pos = new double[3];
+		double[] dir = { 1, 0, 0 };
+		for (int i = 0 ; i < len ; i++){
+			coords[i] = pos.clone();
+			double norm = 0;
+			for (int k = 0 ; k < 3 ; k++){
+				dir[k] += random.nextGaussian() * 0.6;
+				norm += dir[k] * dir[k];
+			}
+			norm = Math.sqrt(norm);
+			for (int k = 0 ; k < 3 ; k++){
+				dir[k] /= norm;
+				pos[k] += 3.8 * dir[k];
+			}
+		}
+		return coords;
+	}
+
+	/** a copy of the coordinates with gaussian noise of the given standard deviation */
+	public static double[][] perturb(Random random, double[][] coords, double sd){
+		double[][] p = new double[coords.length][3];
+		for (int i = 0 ; i < coords.length ; i++)
+			for (int k = 0 ; k < 3 ; k++)
+				p[i][k] = coords[i][k] + random.nextGaussian() * sd;
+		return p;
+	}
+
+	/** the CA atoms of a chain of alternating ALA and GLY residues, numbered from 10 with an insertion code 'A'
+	 * on the sixth residue.
+	 */
+	public static Atom[] makeCA(double[][] coords, String chainId) throws Exception {
+		Chain chain = new ChainImpl();
+		chain.setChainID(chainId);
+		Atom[] ca = new Atom[coords.length];
+		for (int i = 0 ; i < coords.length ; i++){
+			ca[i] = new AtomImpl();
+			ca[i].setFullName(" CA ");
+			ca[i].setName("CA");
+			ca[i].setCoords(coords[i]);
+			Group aa = new AminoAcidImpl();
+			aa.setPDBName(i % 2 == 0 ? "ALA" : "GLY");
+			aa.setResidueNumber(new ResidueNumber(chainId, i + 10, i == 5 ? 'A' : null));
+			aa.addAtom(ca[i]);
+			chain.addGroup(aa);
+		}
+		return ca;
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.align.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.biojava.bio.structure.Atom;
+import org.biojava.bio.structure.align.SyntheticCAChains;
+import org.biojava.bio.structure.align.ce.CeMain;
+
+/** Tests the domain benchmark on two synthetic folds, without any files from the PDB.
+ *
+ */
+public class TestDomainBenchmark extends TestCase {
+
+	private List<BenchmarkDomain> domains;
+	private DomainCoordinateStore store;
+
+	@Override
+	protected void setUp() throws Exception {
+		Random random = new Random(11);
+		domains = new ArrayList<BenchmarkDomain>();
+		store = new DomainCoordinateStore();
+		for (int fold = 0 ; fold < 2 ; fold++){
+			double[][] chain = SyntheticCAChains.randomChain(random, 60);
+			for (int k = 0 ; k < 3 ; k++){
+				String name = "d" + fold + "_" + k;
+				// the same superfamily, with noisy coordinates
+				store.add(name, SyntheticCAChains.makeCA(SyntheticCAChains.perturb(random, chain, 0.5), "A"));
+				domains.add(new BenchmarkDomain(name, "1", "f" + fold, "sf" + fold, "fa" + fold + k));
+			}
+		}
+	}
+
+	public void testStore() throws Exception {
+		assertEquals(6, store.size());
+		assertEquals(360, store.getResidueCount());
+
+		Atom[] ca = store.getAtoms("d1_2");
+		assertEquals(60, ca.length);
+		assertEquals("GLY", ca[5].getGroup().getPDBName());
+		assertEquals(Character.valueOf('A'), ca[5].getGroup().getResidueNumber().getInsCode());
+		assertEquals(Integer.valueOf(15), ca[5].getGroup().getResidueNumber().getSeqNum());
+		assertEquals("A", ca[5].getGroup().getChain().getChainID());
+		assertNull(store.getAtoms("unknown"));
+
+		// replacing a domain keeps the others
+		double x = store.getAtoms("d1_0")[3].getX();
+		store.add("d0_1", SyntheticCAChains.makeCA(new double[10][3], "B"));
+		assertEquals(6, store.size());
+		assertEquals(10, store.getLength("d0_1"));
+		assertEquals(x, store.getAtoms("d1_0")[3].getX(), 1e-5);
+
+		File file = File.createTempFile("domains", ".store");
+		try {
+			store.write(file);
+			DomainCoordinateStore read = DomainCoordinateStore.read(file);
+			assertEquals(store.getNames(), read.getNames());
+			Atom[] a = store.getAtoms("d1_2");
+			Atom[] b = read.getAtoms("d1_2");
+			for (int i = 0 ; i < a.length ; i++){
+				assertEquals(a[i].getY(), b[i].getY(), 0);
+				assertEquals(a[i].getGroup().getResidueNumber(), b[i].getGroup().getResidueNumber());
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	public void testMetrics() {
+		double[] scores = { 0.9, 0.8, 0.7, 0.7, 0.3, 0.2 };
+		boolean[] related = { true, true, false, true, false, false };
+		BenchmarkMetrics m = new BenchmarkMetrics(scores, related);
+		assertEquals(3, m.getPositives());
+		assertEquals(3, m.getNegatives());
+		// 8 of 9 pairs ordered correctly, one tie
+		assertEquals(8.5 / 9, m.getAUC(), 1e-10);
+		assertEquals(2 / 3.0, m.getRecallAtFirstFalsePositive(), 1e-10);
+		assertEquals(1.0, m.getPrecisionAtRecall(0.5), 1e-10);
+		assertEquals(0.75, m.getPrecisionAtRecall(1.0), 1e-10);
+		assertEquals((1 + 1 + 0.75) / 3, m.getAveragePrecision(), 1e-10);
+	}
+
+	public void testRun() throws Exception {
+		DomainBenchmark benchmark = new DomainBenchmark(domains, store);
+		benchmark.setNrThreads(2);
+		assertEquals(15, benchmark.getPairs().size());
+
+		File dir = File.createTempFile("benchmark", "");
+		dir.delete();
+		benchmark.setCheckpointDir(dir);
+		try {
+			BenchmarkResult result = benchmark.run(CeMain.algorithmName);
+			assertEquals(15, result.size());
+			assertEquals(15, result.getComputed());
+			assertEquals(0, result.getFailed());
+			BenchmarkMetrics metrics = result.getMetrics();
+			assertEquals(6, metrics.getPositives());
+			assertEquals(9, metrics.getNegatives());
+			assertTrue(metrics.getAUC() > 0.9);
+
+			// drop the last pairs and one half written line from the checkpoint
+			File file = benchmark.getCheckpointFile(CeMain.algorithmName);
+			List<String> lines = new ArrayList<String>();
+			BufferedReader in = new BufferedReader(new FileReader(file));
+			String line;
+			while ( (line = in.readLine()) != null)
+				lines.add(line);
+			in.close();
+			assertEquals(15, lines.size());
+			FileWriter out = new FileWriter(file);
+			for (int i = 0 ; i < 11 ; i++)
+				out.write(lines.get(i) + "\n");
+			out.write("d0_0\td1_");
+			out.close();
+
+			BenchmarkResult resumed = benchmark.run(CeMain.algorithmName);
+			assertEquals(4, resumed.getComputed());
+			for (int p = 0 ; p < result.size() ; p++)
+				assertEquals(result.getScore(p), resumed.getScore(p), 1e-10);
+		} finally {
+			for (File f : dir.listFiles())
+				f.delete();
+			dir.delete();
+		}
+
+		// a sample is reproducible
+		benchmark.setCheckpointDir(null);
+		benchmark.setSampleSize(5, 42);
+		List<int[]> a = benchmark.getPairs();
+		List<int[]> b = benchmark.getPairs();
+		assertEquals(5, a.size());
+		for (int i = 0 ; i < a.size() ; i++)
+			assertEquals(a.get(i)[1], b.get(i)[1]);
+	}
+}
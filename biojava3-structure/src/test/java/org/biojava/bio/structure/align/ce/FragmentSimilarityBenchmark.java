@@ -0,0 +1,58 @@
+package org.biojava.bio.structure.align.ce;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Times the calculation of the CE fragment similarity matrix for two synthetic chains with the original
+ * double loop, the incremental calculation in one thread and the incremental calculation on a thread pool.
+ *
+ * Arguments: [length1] [length2] [winSize] [threads], defaults 1500 1200 8 and the number of processors
+ */
+public class FragmentSimilarityBenchmark {
+
+	public static void main(String[] args) {
+		int nse1 = (args.length > 0) ? Integer.parseInt(args[0]) : 1500;
+		int nse2 = (args.length > 1) ? Integer.parseInt(args[1]) : 1200;
+		int winSize = (args.length > 2) ? Integer.parseInt(args[2]) : 8;
+		int threads = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		int winSizeComb1 = (winSize-1)*(winSize-2)/2;
+
+		Random random = new Random(42L);
+		double[][] dist1 = FragmentSimilarityTest.randomDistances(random, nse1);
+		double[][] dist2 = FragmentSimilarityTest.randomDistances(random, nse2);
+		System.out.printf("Chains of %d and %d residues, fragment length %d, %d threads%n", nse1, nse2, winSize, threads);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (int run = 0; run < 3; run++) {
+				long start = System.nanoTime();
+				double[][] expected = FragmentSimilarityTest.reference(dist1, dist2, nse1, nse2, winSize, winSizeComb1);
+				long loop = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				double[][] serial = FragmentSimilarity.initSumOfDistances(dist1, dist2, nse1, nse2, winSize, winSizeComb1);
+				long incremental = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				double[][] parallel = FragmentSimilarity.initSumOfDistances(dist1, dist2, nse1, nse2, winSize, winSizeComb1, executor);
+				long pooled = System.nanoTime() - start;
+
+				System.out.printf("double loop: %d ms, incremental: %d ms, incremental on %d threads: %d ms, max difference %.2e%n",
+						loop / 1000000, incremental / 1000000, threads, pooled / 1000000,
+						Math.max(maxDifference(expected, serial), maxDifference(expected, parallel)));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static double maxDifference(double[][] a, double[][] b) {
+		double max = 0.0;
+		for (int i = 0; i < a.length; i++)
+			for (int j = 0; j < a[i].length; j++)
+				max = Math.max(max, Math.abs(a[i][j] - b[i][j]));
+		return max;
+	}
+}
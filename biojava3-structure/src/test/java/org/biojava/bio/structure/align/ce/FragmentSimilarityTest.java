@@ -0,0 +1,128 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.align.ce;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+/** Compares the incremental fragment similarity matrix with the original double loop of CE.
+ *
+ */
+public class FragmentSimilarityTest extends TestCase {
+
+	/** the original CECalculator.initSumOfDistances */
+	static double[][] reference(double[][] dist1, double[][] dist2, int nse1, int nse2, int winSize, int winSizeComb1){
+		double[][] mat = new double[nse1][nse2];
+		for(int ise1=0; ise1<nse1; ise1++) {
+			for(int ise2=0; ise2<nse2; ise2++) {
+				mat[ise1][ise2]=-1.0;
+				if(ise1>nse1-winSize || ise2>nse2-winSize) continue;
+				double d=0.0;
+				for(int is1=0; is1<winSize-2; is1++)
+					for(int is2=is1+2; is2<winSize; is2++)
+						d+=Math.abs(dist1[ise1+is1][ise1+is2]-dist2[ise2+is1][ise2+is2]);
+				mat[ise1][ise2]=d/winSizeComb1;
+			}
+		}
+		return mat;
+	}
+
+	/** distances between random points along a chain, like the CA atoms of a protein */
+	static double[][] randomDistances(Random random, int n){
+		double[][] xyz = new double[n][3];
+		for (int i = 1 ; i < n ; i++)
+			for (int c = 0 ; c < 3 ; c++)
+				xyz[i][c] = xyz[i-1][c] + random.nextGaussian() * 2.2;
+		double[][] dist = new double[n][n];
+		for (int i = 0 ; i < n ; i++)
+			for (int j = 0 ; j < n ; j++){
+				double dx = xyz[i][0] - xyz[j][0];
+				double dy = xyz[i][1] - xyz[j][1];
+				double dz = xyz[i][2] - xyz[j][2];
+				dist[i][j] = Math.sqrt(dx * dx + dy * dy + dz * dz);
+			}
+		return dist;
+	}
+
+	private void compare(double[][] expected, double[][] actual){
+		assertEquals(expected.length, actual.length);
+		for (int i = 0 ; i < expected.length ; i++){
+			assertEquals(expected[i].length, actual[i].length);
+			for (int j = 0 ; j < expected[i].length ; j++)
+				assertEquals("mat[" + i + "][" + j + "]", expected[i][j], actual[i][j], 1e-9);
+		}
+	}
+
+	private void compare(int nse1, int nse2, int winSize, ExecutorService executor){
+		Random random = new Random(nse1 * 31 + nse2);
+		double[][] dist1 = randomDistances(random, nse1);
+		double[][] dist2 = randomDistances(random, nse2);
+		int winSizeComb1 = (winSize-1)*(winSize-2)/2;
+
+		compare(reference(dist1, dist2, nse1, nse2, winSize, winSizeComb1),
+				FragmentSimilarity.initSumOfDistances(dist1, dist2, nse1, nse2, winSize, winSizeComb1, executor));
+	}
+
+	public void testSerial(){
+		compare(120, 95, 8, null);
+		compare(95, 120, 8, null);
+		compare(40, 40, 3, null);
+		compare(30, 50, 12, null);
+	}
+
+	public void testShortChains(){
+		// chains that are shorter than a fragment
+		compare(5, 50, 8, null);
+		compare(50, 7, 8, null);
+		compare(8, 8, 8, null);
+	}
+
+	public void testRotation(){
+		Random random = new Random(17);
+		int nse1 = 60, nse2 = 45, winSize = 8;
+		int winSizeComb1 = (winSize-1)*(winSize-2)/2;
+		double[][] dist1 = randomDistances(random, nse1);
+		double[][] dist2 = randomDistances(random, nse2);
+		for (int cp : new int[] { 0, 1, 20, nse2 - 1 }){
+			double[][] permuted = new double[nse2][nse2];
+			for (int i = 0 ; i < nse2 ; i++)
+				for (int j = 0 ; j < nse2 ; j++)
+					permuted[i][j] = dist2[(i + cp) % nse2][(j + cp) % nse2];
+			compare(reference(dist1, permuted, nse1, nse2, winSize, winSizeComb1),
+					FragmentSimilarity.initSumOfDistances(dist1, dist2, cp, nse1, nse2, winSize, winSizeComb1, null));
+		}
+	}
+
+	public void testParallel(){
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			compare(700, 650, 8, executor);
+			compare(1000, 300, 8, executor);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.align.ce;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+import org.biojava.bio.structure.Atom;
+import org.biojava.bio.structure.StructureTools;
+import org.biojava.bio.structure.align.SyntheticCAChains;
+import org.biojava.bio.structure.align.model.AFPChain;
+
+/** Compares the parallel search of {@link OptimalCECPMain} with aligning every
+ * circular permutation one after the other.
+ *
+ */
+public class OptimalCECPMainTest extends TestCase {
+
+	private static final int LENGTH = 60;
+	private static final int CP = 23;
+
+	private Atom[] ca1;
+	private Atom[] ca2;
+
+	@Override
+	protected void setUp() throws Exception {
+		double[][] coords = SyntheticCAChains.randomChain(new Random(7), LENGTH);
+
+		// ca2 is ca1 permuted at CP and moved away
+		double[][] permuted = new double[LENGTH][];
+		for (int i = 0 ; i < LENGTH ; i++){
+			double[] c = coords[(i + CP) % LENGTH];
+			permuted[i] = new double[] { c[0] + 10, c[1] - 5, c[2] };
+		}
+		ca1 = SyntheticCAChains.makeCA(coords, "A");
+		ca2 = SyntheticCAChains.makeCA(permuted, "A");
+	}
+
+	public void testAllAlignments() throws Exception {
+		OptimalCECPMain ce = new OptimalCECPMain();
+		CeParameters params = (CeParameters) ce.getParameters();
+
+		AFPChain[] alignments = new AFPChain[LENGTH];
+		AFPChain best = ce.alignOptimal(ca1, ca2, params, alignments);
+
+		int bestCP = -1;
+		for (int cp = 0 ; cp < LENGTH ; cp++){
+			// the original algorithm: a copy of ca2 is permuted in place
+			OptimalCECPMain serial = new OptimalCECPMain();
+			AFPChain expected = serial.alignPermuted(ca1, StructureTools.cloneCAArray(ca2), params, cp);
+
+			assertNotNull("CP " + cp, alignments[cp]);
+			assertEquals("CP " + cp, expected.getAlignScore(), alignments[cp].getAlignScore(), 1e-6);
+			assertEquals("CP " + cp, expected.getOptLength(), alignments[cp].getOptLength());
+			assertEquals("CP " + cp, expected.getBlockNum(), alignments[cp].getBlockNum());
+			for (int b = 0 ; b < expected.getBlockNum() ; b++){
+				for (int pos = 0 ; pos < expected.getOptLen()[b] ; pos++){
+					assertEquals(expected.getOptAln()[b][0][pos], alignments[cp].getOptAln()[b][0][pos]);
+					assertEquals(expected.getOptAln()[b][1][pos], alignments[cp].getOptAln()[b][1][pos]);
+				}
+			}
+			if ( bestCP < 0 || expected.getAlignScore() > alignments[bestCP].getAlignScore())
+				bestCP = cp;
+		}
+
+		assertSame(alignments[bestCP], best);
+		assertEquals(OptimalCECPMain.algorithmName, best.getAlgorithmName());
+		assertEquals(LENGTH, best.getOptLength());
+	}
+
+	public void testPrunedSearch() throws Exception {
+		OptimalCECPMain ce = new OptimalCECPMain();
+		CeParameters params = (CeParameters) ce.getParameters();
+		AFPChain[] alignments = new AFPChain[LENGTH];
+		AFPChain expected = ce.alignOptimal(ca1, ca2, params, alignments);
+
+		ExecutorService pool = Executors.newFixedThreadPool(3);
+		try {
+			ce.setExecutor(pool);
+			AFPChain best = ce.alignOptimal(ca1, ca2, params, null);
+			assertEquals(expected.getAlignScore(), best.getAlignScore(), 1e-6);
+			assertEquals(expected.getOptLength(), best.getOptLength());
+			assertEquals(expected.getTotalRmsdOpt(), best.getTotalRmsdOpt(), 1e-6);
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.align.ce;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.biojava.bio.structure.Atom;
+import org.biojava.bio.structure.align.SyntheticCAChains;
+import org.biojava.bio.structure.align.fatcat.FatCatRigid;
+import org.biojava.bio.structure.align.model.AFPChain;
+import org.biojava.bio.structure.align.model.AfpChainWriter;
+import org.biojava.bio.structure.align.model.CompactAFPChain;
+import org.biojava.bio.structure.align.xml.AFPChainXMLConverter;
+import org.biojava.bio.structure.align.xml.AFPChainXMLParser;
+
+/** Tests that a {@link CompactAFPChain} serializes like the alignment it was made from.
+ *
+ */
+public class TestCompactAFPChain extends TestCase {
+
+	private Atom[] ca1;
+	private Atom[] ca2;
+
+	@Override
+	protected void setUp() throws Exception {
+		Random random = new Random(11);
+		double[][] coords = SyntheticCAChains.randomChain(random, 80);
+
+		// a rotated, noisy copy of residues 6 .. 69
+		double[][] moved = new double[64][];
+		double c = Math.cos(0.7), s = Math.sin(0.7);
+		for (int i = 0 ; i < moved.length ; i++){
+			double[] p = coords[i + 6];
+			moved[i] = new double[] {
+					c * p[0] - s * p[1] + 3 + random.nextGaussian() * 0.3,
+					s * p[0] + c * p[1] - 2 + random.nextGaussian() * 0.3,
+					p[2] + random.nextGaussian() * 0.3 };
+		}
+		ca1 = SyntheticCAChains.makeCA(coords, "A");
+		ca2 = SyntheticCAChains.makeCA(moved, "B");
+	}
+
+	public void testCE() throws Exception {
+		CeMain ce = new CeMain();
+		AFPChain afpChain = ce.align(ca1, ca2);
+		assertTrue(afpChain.getOptLength() > 0);
+
+		compare(afpChain, ce.alignCompact(ca1, ca2, ce.getParameters()));
+	}
+
+	public void testFatCat() throws Exception {
+		FatCatRigid fatCat = new FatCatRigid();
+		AFPChain afpChain = fatCat.align(ca1, ca2);
+		assertTrue(afpChain.getOptLength() > 0);
+
+		compare(afpChain, fatCat.alignCompact(ca1, ca2, fatCat.getParameters()));
+	}
+
+	private void compare(AFPChain afpChain, CompactAFPChain fromAligner) throws Exception {
+		CompactAFPChain compact = afpChain.compact();
+
+		assertEquals(afpChain.getOptLength(), compact.getOptLength());
+		assertEquals(afpChain.getBlockNum(), compact.getBlockNum());
+		assertTrue(Arrays.deepEquals(trim(afpChain), compact.getOptAln()));
+		assertEquals(afpChain.getOptLength(), fromAligner.getOptLength());
+		assertEquals(afpChain.getAlignScore(), fromAligner.getAlignScore(), 1e-9);
+
+		String xml = AFPChainXMLConverter.toXML(afpChain, ca1, ca2);
+		assertEquals(xml, AFPChainXMLConverter.toXML(compact, ca1, ca2));
+		assertEquals(AfpChainWriter.toDBSearchResult(afpChain), AfpChainWriter.toDBSearchResult(compact));
+		assertEquals(AfpChainWriter.toRotMat(afpChain), AfpChainWriter.toRotMat(compact));
+
+		// a result parsed without atoms keeps the residue numbers
+		AFPChain parsed = AFPChainXMLParser.parseMultiXML(xml)[0];
+		CompactAFPChain compactParsed = parsed.compact();
+		assertNull(compactParsed.getOptAln());
+		assertEquals(xml, AFPChainXMLConverter.toXML(compactParsed, null, null));
+
+		// and so do the aligned positions once the atoms are known
+		AFPChain rebuilt = compactParsed.toAFPChain();
+		AFPChainXMLParser.rebuildAFPChain(rebuilt, ca1, ca2);
+		assertEquals(xml, AFPChainXMLConverter.toXML(rebuilt, ca1, ca2));
+
+		// the compact result does not grow with the product of the protein lengths
+		int compactSize = serializedSize(compact);
+		assertTrue("compact size " + compactSize, compactSize < 2000 + 16 * afpChain.getOptLength());
+		assertTrue(compactSize < serializedSize(afpChain));
+	}
+
+	/** the optAln of an AFPChain may be longer than the aligned positions */
+	private static int[][][] trim(AFPChain afpChain){
+		int[][][] optAln = new int[afpChain.getBlockNum()][2][];
+		for (int bk = 0 ; bk < optAln.length ; bk++){
+			for (int i = 0 ; i < 2 ; i++)
+				optAln[bk][i] = Arrays.copyOf(afpChain.getOptAln()[bk][i], afpChain.getOptLen()[bk]);
+		}
+		return optAln;
+	}
+
+	private static int serializedSize(Object o) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(o);
+		out.close();
+
+		// make sure it can be read back
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		assertNotNull(in.readObject());
+		in.close();
+		return bytes.size();
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ *                  BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.align.util;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.biojava.bio.structure.align.model.AFPChain;
+import org.biojava.bio.structure.align.model.CompactAFPChain;
+import org.biojava.bio.structure.align.xml.AFPChainXMLConverter;
+import org.biojava.bio.structure.align.xml.AFPChainXMLParser;
+
+/** Tests writing, indexing and reading binary alignment result files.
+ *
+ */
+public class TestAlignmentResultFile extends TestCase {
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+		file = File.createTempFile("results", ".bjar");
+		file.delete();
+	}
+
+	@Override
+	protected void tearDown() {
+		file.delete();
+		AlignmentResultReader.getIndexFile(file).delete();
+	}
+
+	/** a result with random scores and blocks of partly consecutive aligned positions */
+	private static CompactAFPChain randomResult(Random random, String name1, String name2){
+		CompactAFPChain r = new CompactAFPChain();
+		r.setName1(name1);
+		r.setName2(name2);
+		r.setAlgorithmName(random.nextBoolean() ? "jCE" : "jFatCat_rigid");
+		r.setDescription2(random.nextBoolean() ? null : "protein " + name2);
+		r.setCa1Length(100 + random.nextInt(300));
+		r.setCa2Length(100 + random.nextInt(300));
+		r.setCalculationTime(random.nextInt(10000));
+		r.setAlignScore(random.nextDouble() * 500);
+		r.setProbability(random.nextDouble() * 1e-5);
+		r.setTMScore(random.nextDouble());
+		r.setTotalRmsdOpt(random.nextDouble() * 4);
+		r.setIdentity(random.nextDouble());
+		r.setAfpNum(random.nextInt(200));
+		r.setSequentialAlignment(random.nextBoolean());
+
+		int blockNum = 1 + random.nextInt(3);
+		int[] optLen = new int[blockNum];
+		List<Integer> p1 = new ArrayList<Integer>();
+		List<Integer> p2 = new ArrayList<Integer>();
+		int i = random.nextInt(10);
+		int j = random.nextInt(10);
+		for (int b = 0 ; b < blockNum ; b++){
+			optLen[b] = b == 1 ? 0 : random.nextInt(60);
+			for (int k = 0 ; k < optLen[b] ; k++){
+				p1.add(i);
+				p2.add(j);
+				i += random.nextInt(10) == 0 ? 2 : 1;
+				j += random.nextInt(10) == 0 ? 3 : 1;
+			}
+			// circular permutations jump back
+			j = random.nextInt(50);
+		}
+		int[] a1 = new int[p1.size()];
+		int[] a2 = new int[p2.size()];
+		for (int k = 0 ; k < a1.length ; k++){
+			a1[k] = p1.get(k);
+			a2[k] = p2.get(k);
+		}
+		r.setAlignment(optLen, a1, a2);
+
+		double[] transforms = new double[blockNum * CompactAFPChain.TRANSFORM_SIZE];
+		for (int k = 0 ; k < transforms.length ; k++)
+			transforms[k] = random.nextGaussian();
+		// a block without a superposition
+		Arrays.fill(transforms, 0, CompactAFPChain.TRANSFORM_SIZE, Double.NaN);
+		r.setBlockTransforms(transforms);
+		for (int b = 0 ; b < blockNum ; b++){
+			r.getBlockRmsd()[b] = random.nextDouble();
+			r.getBlockScore()[b] = random.nextDouble() * 100;
+			r.getBlockSize()[b] = random.nextInt(10);
+		}
+		return r;
+	}
+
+	private static void assertSameResult(CompactAFPChain expected, CompactAFPChain actual){
+		assertEquals(expected.getName1(), actual.getName1());
+		assertEquals(expected.getName2(), actual.getName2());
+		assertEquals(expected.getAlgorithmName(), actual.getAlgorithmName());
+		assertEquals(expected.getVersion(), actual.getVersion());
+		assertEquals(expected.getDescription2(), actual.getDescription2());
+		assertEquals(expected.getCa1Length(), actual.getCa1Length());
+		assertEquals(expected.getCa2Length(), actual.getCa2Length());
+		assertEquals(expected.getCalculationTime(), actual.getCalculationTime());
+		assertEquals(expected.getAlignScore(), actual.getAlignScore());
+		assertEquals(expected.getProbability(), actual.getProbability());
+		assertEquals(expected.getTMScore(), actual.getTMScore());
+		assertEquals(expected.getTotalRmsdOpt(), actual.getTotalRmsdOpt());
+		assertEquals(expected.getIdentity(), actual.getIdentity());
+		assertEquals(expected.getAfpNum(), actual.getAfpNum());
+		assertEquals(expected.isSequentialAlignment(), actual.isSequentialAlignment());
+		assertTrue(Arrays.equals(expected.getOptLen(), actual.getOptLen()));
+		assertTrue(Arrays.equals(expected.getAligned1(), actual.getAligned1()));
+		assertTrue(Arrays.equals(expected.getAligned2(), actual.getAligned2()));
+		assertTrue(Arrays.equals(expected.getBlockTransforms(), actual.getBlockTransforms()));
+		assertTrue(Arrays.equals(expected.getBlockRmsd(), actual.getBlockRmsd()));
+		assertTrue(Arrays.equals(expected.getBlockScore(), actual.getBlockScore()));
+		assertTrue(Arrays.equals(expected.getBlockSize(), actual.getBlockSize()));
+	}
+
+	public void testConcurrentWriters() throws Exception {
+		final int threads = 4;
+		final int perThread = 250;
+		final Map<String, CompactAFPChain> expected = new HashMap<String, CompactAFPChain>();
+		final List<List<CompactAFPChain>> work = new ArrayList<List<CompactAFPChain>>();
+		Random random = new Random(3);
+		for (int t = 0 ; t < threads ; t++){
+			List<CompactAFPChain> results = new ArrayList<CompactAFPChain>();
+			for (int i = 0 ; i < perThread ; i++){
+				CompactAFPChain r = randomResult(random, "q" + t, "d" + i);
+				results.add(r);
+				expected.put(r.getName1() + " " + r.getName2(), r);
+			}
+			work.add(results);
+		}
+
+		// two writers on the same file
+		final AlignmentResultWriter[] writers = {
+				new AlignmentResultWriter(file, 37), new AlignmentResultWriter(file, 100) };
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Object>> futures = new ArrayList<Future<Object>>();
+			for (int t = 0 ; t < threads ; t++){
+				final int thread = t;
+				futures.add(pool.submit(new Callable<Object>() {
+					public Object call() throws Exception {
+						for (CompactAFPChain r : work.get(thread))
+							writers[thread % 2].write(r);
+						return null;
+					}
+				}));
+			}
+			for (Future<Object> f : futures)
+				f.get();
+		} finally {
+			pool.shutdown();
+		}
+		for (AlignmentResultWriter w : writers)
+			w.close();
+		assertEquals(threads * perThread, writers[0].getWrittenCount() + writers[1].getWrittenCount());
+
+		AlignmentResultReader reader = new AlignmentResultReader(file);
+		int n = 0;
+		for (CompactAFPChain r : reader){
+			assertSameResult(expected.get(r.getName1() + " " + r.getName2()), r);
+			n++;
+		}
+		assertEquals(threads * perThread, n);
+	}
+
+	public void testIndex() throws Exception {
+		Random random = new Random(5);
+		AlignmentResultWriter writer = new AlignmentResultWriter(file, 16);
+		List<CompactAFPChain> q7 = new ArrayList<CompactAFPChain>();
+		for (int q = 0 ; q < 20 ; q++){
+			for (int i = 0 ; i < 30 ; i++){
+				CompactAFPChain r = randomResult(random, "q" + q, "d" + i);
+				writer.write(r);
+				if ( q == 7)
+					q7.add(r);
+			}
+		}
+		writer.close();
+
+		assertTrue(AlignmentResultReader.createIndex(file) > 20);
+		AlignmentResultReader reader = new AlignmentResultReader(file);
+		assertTrue(reader.hasIndex());
+		List<CompactAFPChain> found = reader.getResults("q7");
+		assertEquals(q7.size(), found.size());
+		for (int i = 0 ; i < q7.size() ; i++)
+			assertSameResult(q7.get(i), found.get(i));
+		assertTrue(reader.getResults("unknown").isEmpty());
+
+		// results appended after the index was created are found as well
+		CompactAFPChain late = randomResult(random, "q7", "late");
+		writer.write(late);
+		writer.close();
+		found = new AlignmentResultReader(file).getResults("q7");
+		assertEquals(q7.size() + 1, found.size());
+		assertSameResult(late, found.get(q7.size()));
+	}
+
+	public void testXMLConversion() throws Exception {
+		Random random = new Random(9);
+		StringBuilder xml = new StringBuilder("<alignments>");
+		List<String> expected = new ArrayList<String>();
+		for (int i = 0 ; i < 5 ; i++){
+			CompactAFPChain r = randomResult(random, "1abc.A", "2xyz.B" + i);
+			r.setSequentialAlignment(true);
+			// results from XML only know the residue numbers
+			String[] res1 = new String[r.getOptLength()];
+			String[] res2 = new String[r.getOptLength()];
+			for (int k = 0 ; k < res1.length ; k++){
+				res1[k] = "A:" + r.getAligned1()[k];
+				res2[k] = "B:" + r.getAligned2()[k] + (k % 7 == 0 ? "A" : "");
+			}
+			r.setPdbAlignment(r.getOptLen(), res1, res2);
+			String single = AFPChainXMLConverter.toXML(r, null, null);
+			expected.add(single);
+			xml.append(single);
+		}
+		xml.append("</alignments>");
+
+		AlignmentResultWriter writer = new AlignmentResultWriter(file);
+		assertEquals(5, writer.importXML(xml.toString()));
+		writer.close();
+
+		StringWriter out = new StringWriter();
+		assertEquals(5, new AlignmentResultReader(file).exportXML(out, null));
+		assertEquals(xml.toString(), out.toString());
+
+		AFPChain[] parsed = AFPChainXMLParser.parseMultiXML(out.toString());
+		assertEquals(5, parsed.length);
+		for (int i = 0 ; i < parsed.length ; i++)
+			assertEquals(expected.get(i), AFPChainXMLConverter.toXML(parsed[i]));
+	}
+
+	public void testNotAResultFile() throws Exception {
+		File other = File.createTempFile("results", ".txt");
+		try {
+			java.io.FileWriter w = new java.io.FileWriter(other);
+			w.write("1abc\t2xyz\t12.0\n");
+			w.close();
+			try {
+				new AlignmentResultWriter(other);
+				fail("expected an IOException");
+			} catch (java.io.IOException e){
+				// expected
+			}
+		} finally {
+			other.delete();
+		}
+	}
+}
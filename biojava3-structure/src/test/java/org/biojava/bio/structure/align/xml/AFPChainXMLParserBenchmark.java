@@ -0,0 +1,76 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.align.xml;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.xml.sax.InputSource;
+
+/**
+ * Times parsing alignment XML files: building a DOM document, which is what the parser did before it read
+ * the alignments, against parsing the alignments with the streaming {@link AFPChainXMLParser}.
+ *
+ * Arguments: [rounds], default 200
+ */
+public class AFPChainXMLParserBenchmark {
+
+	private static final String[] FILES = { "/align/1FEZ.A_1O08.A.xml", "/align/1P80.D_2IUF.E.xml" };
+
+	public static void main(String[] args) throws Exception {
+		int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+
+		for (String file : FILES) {
+			String xml = read(file);
+			System.out.printf("%s: %d characters, %d alignment(s)%n", file, xml.length(), AFPChainXMLParser.parseMultiXML(xml).length);
+
+			for (int run = 0; run < 3; run++) {
+				long start = System.nanoTime();
+				for (int i = 0; i < rounds; i++)
+					DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+				long dom = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for (int i = 0; i < rounds; i++)
+					AFPChainXMLParser.parseMultiXML(xml);
+				long streaming = System.nanoTime() - start;
+
+				System.out.printf("DOM document only: %.1f files/s, streaming parser: %.1f files/s%n",
+						rounds * 1e9 / dom, rounds * 1e9 / streaming);
+			}
+		}
+	}
+
+	private static String read(String resource) throws Exception {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(AFPChainXMLParserBenchmark.class.getResourceAsStream(resource), "UTF-8"));
+		StringBuilder s = new StringBuilder();
+		String line;
+		while ((line = reader.readLine()) != null)
+			s.append(line).append('\n');
+		reader.close();
+		return s.toString();
+	}
+}
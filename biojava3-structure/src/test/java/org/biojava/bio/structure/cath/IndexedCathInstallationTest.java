@@ -0,0 +1,163 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.cath;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/** Compares the indexed CATH installation with the parsed one on a small set of local CATH files.
+ *
+ */
+public class IndexedCathInstallationTest extends TestCase {
+
+	private static final String[] DOMAIN_LIST = {
+		"# CathDomainList",
+		"1oaiA00     1    10     8    10     1     1     1     1     1    59 1.000",
+		"2abcA01     1    10     8    10     2     1     1     1     1    66 2.100",
+		"2abcA02     3    40    50   300     5     1     1     1     1    76 2.100",
+		"2abcB00     3    40    50   300     5     1     1     1     2    70 2.100",
+	};
+
+	private static final String[] NAMES = {
+		"# CathNames",
+		"1             1oaiA00    :Mainly Alpha",
+		"1.10          1oaiA00    :Orthogonal Bundle",
+		"1.10.8        1oaiA00    :Helicase, Ruva Protein; domain 3",
+		"1.10.8.10     1oaiA00    :DNA helicase RuvA subunit, C-terminal domain",
+		"3             2abcA02    :Alpha Beta",
+		"3.40          2abcA02    :3-Layer(aba) Sandwich",
+		"3.40.50       2abcA02    :Rossmann fold",
+		"3.40.50.300   2abcA02    :P-loop containing nucleotide triphosphate hydrolases",
+	};
+
+	private static final String[] DOMALL = {
+		"# CathDomall",
+		"1oaiA D01 F00  1  A  561 - A  619 -",
+		"2abcA D02 F01  1  A    1 - A   66 -  2  A   67 - A  100 -  A  110 - A  150 -  A  101 - A  109 - (9)",
+		"2abcB D01 F00  1  B    5 A B   74 -",
+	};
+
+	private File dir;
+	private CathInstallation parsed;
+	private IndexedCathInstallation indexed;
+
+	@Override
+	protected void setUp() throws Exception {
+		dir = File.createTempFile("cath", "");
+		dir.delete();
+		dir.mkdirs();
+		parsed = new CathInstallation(dir.getPath(), false, true);
+		write(parsed.getDomainListFileName(), DOMAIN_LIST);
+		write(parsed.getNodeListFileName(), NAMES);
+		write(parsed.getDomallFileName(), DOMALL);
+		indexed = new IndexedCathInstallation(dir.getPath(), false, true);
+	}
+
+	@Override
+	protected void tearDown() {
+		for (File f : dir.listFiles())
+			f.delete();
+		dir.delete();
+	}
+
+	private static void write(String fileName, String[] lines) throws Exception {
+		FileWriter out = new FileWriter(fileName);
+		for (String line : lines)
+			out.write(line + "\n");
+		out.close();
+	}
+
+	private static List<String> names(List<CathDomain> domains) {
+		List<String> names = new ArrayList<String>();
+		for (CathDomain d : domains)
+			names.add(d.getDomainName());
+		Collections.sort(names);
+		return names;
+	}
+
+	private static String segments(CathDomain domain) {
+		StringBuilder s = new StringBuilder();
+		for (CathSegment segment : domain.getSegments())
+			s.append(segment.getSegmentId()).append(':').append(segment.getStart()).append('-').append(segment.getStop()).append(' ');
+		return s.toString();
+	}
+
+	public void testSameAsParsed() {
+		for (String name : new String[] { "1oaiA00", "2abcA01", "2abcA02", "2abcB00" }){
+			CathDomain a = parsed.getDomainByCathId(name);
+			CathDomain b = indexed.getDomainByCathId(name);
+			assertEquals(a.getCATH(), b.getCATH());
+			assertEquals(a.getSOILD(), b.getSOILD());
+			assertEquals(a.getResolution(), b.getResolution());
+			assertEquals(segments(a), segments(b));
+		}
+		assertEquals("1:67-100 2:110-150 ", segments(indexed.getDomainByCathId("2abcA02")));
+		assertEquals("1:5A-74 ", segments(indexed.getDomainByCathId("2abcB00")));
+		assertNull(indexed.getDomainByCathId("9xxxA00"));
+
+		assertEquals(names(parsed.getDomainsForPdb("2ABC")), names(indexed.getDomainsForPdb("2ABC")));
+		assertNull(indexed.getDomainsForPdb("9xxx"));
+		assertEquals(names(parsed.filterByCathCode("1.10")), names(indexed.filterByCathCode("1.10")));
+		assertEquals(names(parsed.getDomainsByNodeId("3.40.50.300")), names(indexed.getDomainsByNodeId("3.40.50.300")));
+		assertEquals(2, indexed.getDomainsByNodeId("3.40.50.300").size());
+		assertEquals(names(parsed.filterByNodeName("Rossmann")), names(indexed.filterByNodeName("Rossmann")));
+		assertEquals(names(parsed.getByCategory(CathCategory.Topolgy)), names(indexed.getByCategory(CathCategory.Topolgy)));
+		assertEquals("1oaiA00", indexed.getDescriptionByNodeId("1.10.8").getDomainName());
+
+		CathNode node = indexed.getCathNode("3.40.50");
+		assertEquals("Rossmann fold", node.getDescription());
+		assertEquals("3.40", node.getParentId());
+		assertEquals(3, indexed.getTree(indexed.getDomainByCathId("2abcB00")).size());
+
+		List<CathFragment> fragments = indexed.getFragmentsByPdbId("2abcA");
+		assertEquals(parsed.getFragmentsByPdbId("2abcA").size(), fragments.size());
+		assertEquals("101", fragments.get(0).getStart());
+		assertEquals(9, fragments.get(0).getLength().intValue());
+	}
+
+	public void testSearch() {
+		List<CathNode> nodes = indexed.searchNodes("helicase");
+		assertEquals(2, nodes.size());
+		nodes = indexed.searchNodes("ruva c-term");
+		assertEquals(1, nodes.size());
+		assertEquals("1.10.8.10", nodes.get(0).getNodeId());
+		assertTrue(indexed.searchNodes("helicase rossmann").isEmpty());
+	}
+
+	public void testIndexReused() throws Exception {
+		assertNotNull(indexed.getCathNode("1"));
+		File indexFile = new File(indexed.getIndexFileName());
+		assertTrue(indexFile.exists());
+
+		new File(parsed.getDomainListFileName()).delete();
+		new File(parsed.getNodeListFileName()).delete();
+		new File(parsed.getDomallFileName()).delete();
+		IndexedCathInstallation reopened = new IndexedCathInstallation(dir.getPath(), false, true);
+		assertEquals("1:561-619 ", segments(reopened.getDomainByCathId("1oaiA00")));
+	}
+}
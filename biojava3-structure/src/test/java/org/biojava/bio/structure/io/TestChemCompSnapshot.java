@@ -0,0 +1,199 @@
+/**
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.io;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import junit.framework.TestCase;
+
+import org.biojava.bio.structure.io.mmcif.ChemCompConsumer;
+import org.biojava.bio.structure.io.mmcif.ChemCompGroupFactory;
+import org.biojava.bio.structure.io.mmcif.ChemCompProvider;
+import org.biojava.bio.structure.io.mmcif.ChemCompSnapshot;
+import org.biojava.bio.structure.io.mmcif.SimpleMMcifParser;
+import org.biojava.bio.structure.io.mmcif.model.ChemComp;
+
+/** Tests the binary chemical component snapshot and the single flight loading in the {@link ChemCompGroupFactory}.
+ *
+ */
+public class TestChemCompSnapshot extends TestCase {
+
+	private static final String[] IDS = {"GLY", "ASP", "DT", "MSE", "HOH", "ZN", "SF4"};
+
+	private File componentsFile;
+	private File snapshotFile;
+
+	@Override
+	protected void setUp() throws Exception {
+		componentsFile = File.createTempFile("components", ".cif");
+		snapshotFile = File.createTempFile("components", ".ccsnap");
+
+		PrintWriter pw = new PrintWriter(new FileWriter(componentsFile));
+		for (String id : IDS){
+			BufferedReader buf = open(id);
+			String line;
+			while ((line = buf.readLine()) != null)
+				pw.println(line);
+			buf.close();
+		}
+		pw.close();
+	}
+
+	@Override
+	protected void tearDown() {
+		componentsFile.delete();
+		snapshotFile.delete();
+	}
+
+	private BufferedReader open(String id) throws Exception {
+		InputStream in = getClass().getResourceAsStream("/chemcomp/" + id + ".cif.gz");
+		assertNotNull("missing resource for " + id, in);
+		return new BufferedReader(new InputStreamReader(new GZIPInputStream(in)));
+	}
+
+	private ChemComp parse(String id) throws Exception {
+		SimpleMMcifParser parser = new SimpleMMcifParser();
+		ChemCompConsumer consumer = new ChemCompConsumer();
+		parser.addMMcifConsumer(consumer);
+		BufferedReader buf = open(id);
+		parser.parse(buf);
+		buf.close();
+		return consumer.getDictionary().getChemComp(id);
+	}
+
+	public void testSnapshot() throws Exception {
+
+		int count = ChemCompSnapshot.compile(componentsFile, snapshotFile);
+		assertEquals(IDS.length, count);
+
+		ChemCompSnapshot snapshot = new ChemCompSnapshot(snapshotFile);
+		assertEquals(IDS.length, snapshot.size());
+
+		List<String> expected = new ArrayList<String>(Arrays.asList(IDS));
+		Collections.sort(expected);
+		assertEquals(expected, snapshot.getIds());
+
+		for (String id : IDS){
+			ChemComp original = parse(id);
+			ChemComp cc = snapshot.getChemComp(id.toLowerCase());
+			assertNotNull(id, cc);
+			assertEquals(original.getId(), cc.getId());
+			assertEquals(original.getName(), cc.getName());
+			assertEquals(original.getFormula(), cc.getFormula());
+			assertEquals(original.getOne_letter_code(), cc.getOne_letter_code());
+			assertEquals(original.getPolymerType(), cc.getPolymerType());
+			assertEquals(original.getResidueType(), cc.getResidueType());
+			assertEquals(original.getDescriptors().size(), cc.getDescriptors().size());
+		}
+
+		assertFalse(snapshot.contains("XYZ"));
+		assertNull(snapshot.getChemComp("XYZ"));
+		assertNull(snapshot.getChemComp("TOOLONGID"));
+	}
+
+	public void testFallback() throws Exception {
+		ChemCompSnapshot.compile(componentsFile, snapshotFile);
+
+		final ChemComp unknown = new ChemComp();
+		unknown.setId("XYZ");
+		ChemCompSnapshot snapshot = new ChemCompSnapshot(snapshotFile, new ChemCompProvider() {
+			public ChemComp getChemComp(String recordName) {
+				return recordName.equals("XYZ") ? unknown : null;
+			}
+		});
+		assertSame(unknown, snapshot.getChemComp("xyz"));
+		assertEquals("GLY", snapshot.getChemComp("GLY").getId());
+	}
+
+	public void testNotASnapshot() throws Exception {
+		try {
+			new ChemCompSnapshot(componentsFile);
+			fail("expected an IOException");
+		} catch (IOException e){
+			// expected
+		}
+	}
+
+	public void testSingleFlight() throws Exception {
+
+		final AtomicInteger calls = new AtomicInteger();
+		ChemCompSnapshot.compile(componentsFile, snapshotFile);
+		final ChemCompSnapshot snapshot = new ChemCompSnapshot(snapshotFile);
+
+		ChemCompProvider previous = ChemCompGroupFactory.getChemCompProvider();
+		ChemCompGroupFactory.setChemCompProvider(new ChemCompProvider() {
+			public ChemComp getChemComp(String recordName) {
+				calls.incrementAndGet();
+				try {
+					// make sure all threads ask for the component while it is being loaded
+					Thread.sleep(200);
+				} catch (InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+				return snapshot.getChemComp(recordName);
+			}
+		});
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<ChemComp>> results = new ArrayList<Future<ChemComp>>();
+			for (int i = 0 ; i < 16 ; i++){
+				results.add(pool.submit(new Callable<ChemComp>() {
+					public ChemComp call() {
+						return ChemCompGroupFactory.getChemComp("asp");
+					}
+				}));
+			}
+			ChemComp first = results.get(0).get();
+			assertEquals("ASP", first.getId());
+			for (Future<ChemComp> f : results)
+				assertSame(first, f.get());
+
+			assertEquals(1, calls.get());
+
+			// unknown components are only requested once as well
+			assertNull(ChemCompGroupFactory.getChemComp("XYZ"));
+			assertNull(ChemCompGroupFactory.getChemComp("XYZ"));
+			assertEquals(2, calls.get());
+		} finally {
+			pool.shutdown();
+			ChemCompGroupFactory.setChemCompProvider(previous);
+		}
+	}
+}
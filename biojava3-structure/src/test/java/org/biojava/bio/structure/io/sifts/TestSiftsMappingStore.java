@@ -0,0 +1,145 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.io.sifts;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/** Compares the lookups of a SIFTS mapping store with the residues of the DOM parser.
+ *
+ */
+public class TestSiftsMappingStore extends TestCase {
+
+	private static String residue(String seqNum, String chain, String pdbResNum, String accession, String uniProtPos) {
+		StringBuilder s = new StringBuilder();
+		s.append("<residue dbSource=\"PDBe\" dbCoordSys=\"PDBe\" dbResNum=\"").append(seqNum).append("\" dbResName=\"ALA\">");
+		s.append("<crossRefDb dbSource=\"PDB\" dbCoordSys=\"PDBresnum\" dbAccessionId=\"1abc\" dbResNum=\"")
+			.append(pdbResNum).append("\" dbResName=\"ALA\" dbChainId=\"").append(chain).append("\"/>");
+		if ( accession != null)
+			s.append("<crossRefDb dbSource=\"UniProt\" dbCoordSys=\"UniProt\" dbAccessionId=\"").append(accession)
+				.append("\" dbResNum=\"").append(uniProtPos).append("\" dbResName=\"A\"/>");
+		if ( pdbResNum.equals("null"))
+			s.append("<residueDetail dbSource=\"MSD\" property=\"Annotation\">Not_Observed</residueDetail>");
+		s.append("</residue>");
+		return s.toString();
+	}
+
+	private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+		+ "<entry dbSource=\"PDBe\" dbAccessionId=\"1abc\">"
+		+ "<entity type=\"protein\" entityId=\"A\"><segment segId=\"1abc_A_1_6\" start=\"1\" end=\"6\"><listResidue>"
+		+ residue("1", "A", "null", "P12345", "9")
+		+ residue("2", "A", "1", "P12345", "10")
+		+ residue("3", "A", "2", "P12345", "11")
+		+ residue("4", "A", "3", "P12345", "12")
+		+ residue("5", "A", "3A", "P12345", "13")
+		+ residue("6", "A", "4", "P12345", "14")
+		+ residue("7", "A", "5", null, null)
+		+ "</listResidue></segment></entity>"
+		+ "<entity type=\"protein\" entityId=\"B\"><segment segId=\"1abc_B_1_3\" start=\"1\" end=\"3\"><listResidue>"
+		+ residue("1", "B", "101", "P12345", "10")
+		+ residue("2", "B", "102", "P12345", "11")
+		+ residue("3", "B", "103", "Q99999", "1")
+		+ "</listResidue></segment></entity>"
+		+ "</entry>";
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+		file = File.createTempFile("sifts", ".store");
+		SiftsMappingStore.Builder builder = new SiftsMappingStore.Builder();
+		builder.addSiftsXml(new ByteArrayInputStream(XML.getBytes("UTF-8")));
+		builder.addChainUniProtFile(new ByteArrayInputStream(
+				("# 2014/06/01\nPDB\tCHAIN\tSP_PRIMARY\tRES_BEG\tRES_END\tPDB_BEG\tPDB_END\tSP_BEG\tSP_END\n"
+				+ "2xyz\tC\tP12345\t1\t20\t-4\t15\t1\t20\n"
+				+ "2xyz\tD\tP12345\t1\t20\t1A\t20\t1\t20\n").getBytes("UTF-8")));
+		assertEquals(2, builder.getSkippedCount());
+		builder.write(file);
+	}
+
+	@Override
+	protected void tearDown() {
+		file.delete();
+	}
+
+	public void testPdbToUniProt() throws Exception {
+		SiftsMappingStore store = SiftsMappingStore.open(file);
+		assertEquals(3, store.getChainCount());
+		assertEquals(2, store.getAccessionCount());
+		// 1-3, 3A, 4 / 101-102, 103 / -4-15
+		assertEquals(6, store.getRangeCount());
+
+		SiftsXMLParser parser = new SiftsXMLParser();
+		parser.parseXmlFile(new ByteArrayInputStream(XML.getBytes("UTF-8")));
+		int mapped = 0;
+		for (SiftsEntity e : parser.getEntities()){
+			for (SiftsSegment seg : e.getSegments()){
+				for (SiftsResidue r : seg.getResidues()){
+					SiftsResidue s = store.getUniProtPosition("1ABC", r.getChainId(), r.getPdbResNum());
+					if ( r.getUniProtPos() == null || r.getPdbResNum().equals("null")) {
+						assertNull(s);
+						continue;
+					}
+					mapped++;
+					assertEquals(r.getUniProtAccessionId(), s.getUniProtAccessionId());
+					assertEquals(r.getUniProtPos(), s.getUniProtPos());
+					assertEquals(r.getPdbResNum(), s.getPdbResNum());
+					assertEquals("1abc", s.getPdbId());
+					assertEquals(r.getChainId(), s.getChainId());
+				}
+			}
+		}
+		assertEquals(8, mapped);
+
+		assertNull(store.getUniProtPosition("1abc", "A", "3B"));
+		assertNull(store.getUniProtPosition("1abc", "A", "0"));
+		assertNull(store.getUniProtPosition("1abc", "C", "1"));
+		assertEquals(5, store.getUniProtPosition("2xyz", "C", "0").getUniProtPos().intValue());
+		assertEquals(1, store.getUniProtPosition("2xyz", "C", "-4").getUniProtPos().intValue());
+		assertNull(store.getUniProtPosition("2xyz", "C", "16"));
+		assertNull(store.getUniProtPosition("2xyz", "D", "5"));
+	}
+
+	public void testUniProtToPdb() throws Exception {
+		SiftsMappingStore store = SiftsMappingStore.open(file);
+		List<SiftsResidue> residues = store.getPdbPositions("P12345", 11);
+		assertEquals(3, residues.size());
+		assertEquals("2", residues.get(0).getPdbResNum());
+		assertEquals("A", residues.get(0).getChainId());
+		assertEquals("102", residues.get(1).getPdbResNum());
+		assertEquals("B", residues.get(1).getChainId());
+		assertEquals("6", residues.get(2).getPdbResNum());
+		assertEquals("2xyz", residues.get(2).getPdbId());
+
+		residues = store.getPdbPositions("P12345", 13);
+		assertEquals(2, residues.size());
+		assertEquals("3A", residues.get(0).getPdbResNum());
+
+		assertEquals("103", store.getPdbPositions("Q99999", 1).get(0).getPdbResNum());
+		assertTrue(store.getPdbPositions("P12345", 21).isEmpty());
+		assertTrue(store.getPdbPositions("P00000", 1).isEmpty());
+	}
+}
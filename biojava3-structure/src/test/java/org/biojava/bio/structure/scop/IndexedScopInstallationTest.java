@@ -0,0 +1,190 @@
+/*
+ *                    BioJava development code
+ *
+ * This code may be freely distributed and modified under the
+ * terms of the GNU Lesser General Public Licence.  This should
+ * be distributed with the code.  If you do not have a copy,
+ * see:
+ *
+ *      http://www.gnu.org/copyleft/lesser.html
+ *
+ * Copyright for this code is held jointly by the individual
+ * authors.  These should be listed in @author doc comments.
+ *
+ * For more information on the BioJava project and its aims,
+ * or to join the biojava-l mailing list, visit the home page
+ * at:
+ *
+ *      http://www.biojava.org/
+ *
+ * Created on Oct 19, 2026
+ *
+ */
+package org.biojava.bio.structure.scop;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.biojava.bio.structure.io.util.ClassificationIndex;
+
+/** Compares the indexed SCOP installation with the parsed one on a small set of local SCOP files.
+ *
+ */
+public class IndexedScopInstallationTest extends TestCase {
+
+	private static final String[] CLA = {
+		"# dir.cla.scop.txt",
+		"d1dlwa_\t1dlw\tA:\ta.1.1.1\t14982\tcl=46456,cf=46457,sf=46458,fa=46459,dm=46460,sp=46461,px=14982",
+		"d1uvya_\t1uvy\tA:\ta.1.1.1\t100068\tcl=46456,cf=46457,sf=46458,fa=46459,dm=46460,sp=46461,px=100068",
+		"d1uvyb_\t1uvy\tB:\ta.1.1.1\t100069\tcl=46456,cf=46457,sf=46458,fa=46459,dm=46460,sp=46461,px=100069",
+		"d2hbga_\t2hbg\tA:\ta.1.1.2\t15152\tcl=46456,cf=46457,sf=46458,fa=46463,dm=46464,sp=46465,px=15152",
+	};
+
+	private static final String[] DES = {
+		"# dir.des.scop.txt",
+		"46456\tcl\ta\t-\tAll alpha proteins",
+		"46457\tcf\ta.1\t-\tGlobin-like",
+		"46458\tsf\ta.1.1\t-\tGlobin-like",
+		"46459\tfa\ta.1.1.1\t-\tTruncated hemoglobin",
+		"46460\tdm\ta.1.1.1\t-\tProtozoan/bacterial hemoglobin",
+		"46461\tsp\ta.1.1.1\t-\tCiliate (Paramecium caudatum)",
+		"46463\tfa\ta.1.1.2\t-\tGlobins",
+		"46464\tdm\ta.1.1.2\t-\tHemoglobin I",
+		"46465\tsp\ta.1.1.2\t-\tArk clam (Scapharca inaequivalvis)",
+		"14982\tpx\ta.1.1.1\td1dlwa_\t1dlw A:",
+		"100068\tpx\ta.1.1.1\td1uvya_\t1uvy A:",
+		"100069\tpx\ta.1.1.1\td1uvyb_\t1uvy B:",
+		"15152\tpx\ta.1.1.2\td2hbga_\t2hbg A:",
+	};
+
+	private static final String[] HIE = {
+		"# dir.hie.scop.txt",
+		"0\t-\t46456",
+		"46456\t0\t46457",
+		"46457\t46456\t46458",
+		"46458\t46457\t46459,46463",
+		"46459\t46458\t46460",
+		"46460\t46459\t46461",
+		"46461\t46460\t14982,100068,100069",
+		"46463\t46458\t46464",
+		"46464\t46463\t46465",
+		"46465\t46464\t15152",
+		"14982\t46461\t-",
+		"100068\t46461\t-",
+		"100069\t46461\t-",
+		"15152\t46465\t-",
+	};
+
+	private File dir;
+	private ScopInstallation parsed;
+	private IndexedScopInstallation indexed;
+
+	@Override
+	protected void setUp() throws Exception {
+		dir = File.createTempFile("scop", "");
+		dir.delete();
+		dir.mkdirs();
+		parsed = new ScopInstallation(dir.getPath());
+		write(parsed.getClaFilename(), CLA);
+		write(parsed.getDesFilename(), DES);
+		write(parsed.getHieFilename(), HIE);
+		indexed = new IndexedScopInstallation(dir.getPath());
+	}
+
+	@Override
+	protected void tearDown() {
+		for (File f : dir.listFiles())
+			f.delete();
+		dir.delete();
+	}
+
+	private static void write(String fileName, String[] lines) throws Exception {
+		FileWriter out = new FileWriter(fileName);
+		for (String line : lines)
+			out.write(line + "\n");
+		out.close();
+	}
+
+	private static List<String> ids(List<ScopDomain> domains) {
+		List<String> ids = new ArrayList<String>();
+		for (ScopDomain d : domains)
+			ids.add(d.getScopId());
+		return ids;
+	}
+
+	private static List<Integer> sunids(List<ScopDescription> descriptions) {
+		List<Integer> ids = new ArrayList<Integer>();
+		for (ScopDescription d : descriptions)
+			ids.add(d.getSunID());
+		Collections.sort(ids);
+		return ids;
+	}
+
+	public void testSameAsParsed() {
+		assertEquals(ids(parsed.getDomainsForPDB("1UVY")), ids(indexed.getDomainsForPDB("1UVY")));
+		assertEquals(2, indexed.getDomainsForPDB("1uvy").size());
+		assertTrue(indexed.getDomainsForPDB("9xxx").isEmpty());
+
+		ScopDomain d = indexed.getDomainByScopID("d2hbga_");
+		assertEquals(parsed.getDomainByScopID("d2hbga_").toString(), d.toString());
+		assertEquals(46463, d.getFamilyId());
+		assertNull(indexed.getDomainByScopID("d9xxxa_"));
+
+		assertEquals(parsed.getScopDescriptionBySunid(46459), indexed.getScopDescriptionBySunid(46459));
+		assertNull(indexed.getScopDescriptionBySunid(1));
+
+		for (ScopCategory c : ScopCategory.values())
+			assertEquals(sunids(parsed.getByCategory(c)), sunids(indexed.getByCategory(c)));
+		assertEquals(sunids(parsed.filterByClassificationId("a.1.1.1")), sunids(indexed.filterByClassificationId("a.1.1.1")));
+		assertEquals(sunids(parsed.filterByDescription("globin")), sunids(indexed.filterByDescription("globin")));
+		assertEquals(2, indexed.filterByDescription("Globin-LIKE").size());
+
+		assertEquals(ids(parsed.getScopDomainsBySunid(46459)).size(), indexed.getScopDomainsBySunid(46459).size());
+		assertEquals(4, indexed.getScopDomainsBySunid(46458).size());
+		assertEquals(1, indexed.getScopDomainsBySunid(15152).size());
+
+		List<ScopNode> tree = indexed.getTree(d);
+		assertEquals(parsed.getTree(d).size(), tree.size());
+		assertEquals(46456, tree.get(1).getSunid());
+		assertEquals(2, indexed.getScopNode(46458).getChildren().size());
+
+		assertEquals(ids(parsed.filterByDomainName("d1uvya")), ids(indexed.filterByDomainName("d1uvya")));
+	}
+
+	public void testSearch() {
+		// words may appear anywhere and in any order
+		assertEquals(sunids(indexed.filterByDescription("truncated")), sunids(indexed.searchDescriptions("HEMO trunc")));
+		assertEquals(3, indexed.searchDescriptions("hemoglobin").size());
+		assertTrue(indexed.searchDescriptions("hemoglobin clam").isEmpty());
+		assertEquals(46465, indexed.searchDescriptions("clam").get(0).getSunID());
+	}
+
+	public void testIndexReused() throws Exception {
+		assertNotNull(indexed.getDomainByScopID("d1dlwa_"));
+		File indexFile = new File(indexed.getIndexFilename());
+		assertTrue(indexFile.exists());
+		ClassificationIndex index = ClassificationIndex.open(indexFile);
+		assertEquals(4, index.size("scopid"));
+
+		// without the flat files the index is used as it is
+		new File(parsed.getClaFilename()).delete();
+		new File(parsed.getDesFilename()).delete();
+		new File(parsed.getHieFilename()).delete();
+		IndexedScopInstallation reopened = new IndexedScopInstallation(dir.getPath());
+		assertEquals("d1dlwa_", reopened.getDomainByScopID("d1dlwa_").getScopId());
+		assertEquals(indexFile.lastModified(), new File(reopened.getIndexFilename()).lastModified());
+
+		// a changed file invalidates the index
+		write(parsed.getClaFilename(), new String[] { CLA[1] });
+		write(parsed.getDesFilename(), DES);
+		write(parsed.getHieFilename(), HIE);
+		reopened = new IndexedScopInstallation(dir.getPath());
+		assertTrue(reopened.getDomainsForPDB("1uvy").isEmpty());
+		assertEquals(1, reopened.getDomainsForPDB("1dlw").size());
+	}
+}
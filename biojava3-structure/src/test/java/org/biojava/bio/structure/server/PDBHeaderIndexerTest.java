@@ -0,0 +1,119 @@
+package org.biojava.bio.structure.server;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.biojava.bio.structure.PDBHeader;
+
+import junit.framework.TestCase;
+
+public class PDBHeaderIndexerTest extends TestCase {
+
+	private File dir;
+
+	@Override
+	protected void setUp() throws Exception {
+		dir = File.createTempFile("PDBHeaderIndexerTest", "");
+		dir.delete();
+		dir.mkdir();
+		copy(getClass().getResourceAsStream("/2gox.pdb"), new File(dir, "pdb2gox.ent.gz"));
+		copy(getClass().getResourceAsStream("/3cdl.pdb"), new File(dir, "pdb3cdl.ent.gz"));
+		copy(new GZIPInputStream(getClass().getResourceAsStream("/4hhb.pdb.gz")), new File(dir, "4hhb.pdb.gz"));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File f : dir.listFiles())
+			f.delete();
+		dir.delete();
+	}
+
+	public void testIncrementalUpdate() throws Exception {
+		FlatFileInstallation installation = new FlatFileInstallation(dir);
+		PrepareIndexFile prep = new PrepareIndexFile();
+		assertEquals(3, prep.prepareHeaderIndexForInstallation(installation));
+
+		PDBHeader header = installation.getPDBHeader("2GOX");
+		assertNotNull(header);
+		assertEquals("2GOX", header.getIdCode());
+		assertEquals("X-RAY DIFFRACTION", header.getTechnique().trim());
+		assertEquals(2.2f, header.getResolution(), 0.001f);
+		assertEquals("CELL ADHESION/TOXIN", header.getClassification());
+		assertEquals("3CDL", installation.getPDBHeader("3cdl").getIdCode());
+		assertEquals("4HHB", installation.getPDBHeader("4hhb").getIdCode());
+		assertNull(installation.getPDBHeader("1abc"));
+
+		// nothing changed
+		PDBHeaderIndexer indexer = new PDBHeaderIndexer(installation);
+		installation.closeHeaderIndex();
+		assertEquals(3, indexer.update());
+		assertEquals(0, indexer.getParsedCount());
+
+		// one new, one removed
+		copy(getClass().getResourceAsStream("/104D_v30.pdb"), new File(dir, "pdb104d.ent.gz"));
+		assertTrue(new File(dir, "pdb3cdl.ent.gz").delete());
+		assertEquals(3, indexer.update());
+		assertEquals(1, indexer.getParsedCount());
+		assertEquals(0, indexer.getFailedCount());
+
+		PDBHeaderIndex index = new PDBHeaderIndex(installation.getHeaderIndexFile());
+		try {
+			assertEquals(3, index.size());
+			assertEquals("104d", index.getEntries().get(0).getPdbId());
+			assertNull(index.getEntry("3cdl"));
+			assertEquals("NMR", index.getPDBHeader("104D").getTechnique().trim());
+			assertEquals(header.getDepDate(), index.getPDBHeader("2gox").getDepDate());
+		} finally {
+			index.close();
+		}
+	}
+
+	public void testFallbackForIdsMissingFromIndex() throws Exception {
+		FlatFileInstallation installation = new FlatFileInstallation(dir);
+		assertEquals(3, new PrepareIndexFile().prepareHeaderIndexForInstallation(installation));
+
+		PDBHeader listed = new PDBHeader();
+		listed.setIdCode("1ABC");
+		installation.filteredPDBs.add(listed);
+
+		assertSame(listed, installation.getPDBHeader("1ABC"));
+		assertEquals("2GOX", installation.getPDBHeader("2GOX").getIdCode());
+		assertNull(installation.getPDBHeader("1XYZ"));
+	}
+
+	public void testIdsThatCanNotBeIndexed() throws Exception {
+		FlatFileInstallation installation = new FlatFileInstallation(dir);
+		assertEquals(3, new PrepareIndexFile().prepareHeaderIndexForInstallation(installation));
+
+		PDBHeader listed = new PDBHeader();
+		listed.setIdCode("2GOX.A");
+		installation.filteredPDBs.add(listed);
+
+		assertSame(listed, installation.getPDBHeader("2GOX.A"));
+		assertNull(installation.getPDBHeader("2GO"));
+		assertNull(installation.getPDBHeader(""));
+
+		PDBHeaderIndex index = new PDBHeaderIndex(installation.getHeaderIndexFile());
+		try {
+			assertNull(index.getPDBHeader("2GOX.A"));
+			assertNull(index.getEntry(null));
+		} finally {
+			index.close();
+		}
+	}
+
+	private static void copy(InputStream in, File gzFile) throws IOException {
+		OutputStream out = new GZIPOutputStream(new FileOutputStream(gzFile));
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) != -1)
+			out.write(buffer, 0, read);
+		in.close();
+		out.close();
+	}
+}
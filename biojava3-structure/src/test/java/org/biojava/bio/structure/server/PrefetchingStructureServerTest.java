@@ -0,0 +1,123 @@
+package org.biojava.bio.structure.server;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.biojava.bio.structure.PDBHeader;
+import org.biojava.bio.structure.Structure;
+import org.biojava.bio.structure.io.PDBFileParser;
+
+import junit.framework.TestCase;
+
+public class PrefetchingStructureServerTest extends TestCase {
+
+	private static final String[] FILES = { "/2gox.pdb", "/3cdl.pdb", "/104D_v30.pdb", "/388d_v30.pdb", "/2pos.pdb", "/3cfy.pdb" };
+
+	/** parses the test resources, getAll() is optional so both code paths of the server can be tested */
+	private static class ResourceInstallation implements PDBInstallation {
+		private final boolean listable;
+		private final Iterator<String> iterator;
+
+		ResourceInstallation(boolean listable){
+			this.listable = listable;
+			List<String> names = new ArrayList<String>();
+			Collections.addAll(names, FILES);
+			iterator = names.iterator();
+		}
+
+		public List<PDBHeader> getAll() {
+			if (! listable)
+				return null;
+			List<PDBHeader> headers = new ArrayList<PDBHeader>();
+			for (String file : FILES){
+				PDBHeader header = new PDBHeader();
+				header.setIdCode(file);
+				headers.add(header);
+			}
+			return headers;
+		}
+
+		public PDBHeader getPDBHeader(String pdbId) {
+			return null;
+		}
+
+		public void addPDBFilter(PDBFilter filter) {
+		}
+
+		public void clearFilters() {
+		}
+
+		public Structure getStructure(String file) {
+			try {
+				return new PDBFileParser().parsePDBFile(getClass().getResourceAsStream(file));
+			} catch (IOException e){
+				return null;
+			}
+		}
+
+		public Structure next() {
+			return getStructure(iterator.next());
+		}
+
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+	}
+
+	private static class CountingListener implements StructureListener {
+		final List<String> codes = Collections.synchronizedList(new ArrayList<String>());
+
+		public void newStructure(StructureEvent event) {
+			codes.add(event.getStructure().getPDBCode());
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		public void modifiedStructure(StructureEvent event) {
+		}
+
+		public void obsoleteStructure(StructureEvent event) {
+		}
+	}
+
+	public void testProcessWithBackpressure() throws Exception {
+		PrefetchingStructureServer server = new PrefetchingStructureServer(3);
+		server.setPDBInstallation(new ResourceInstallation(true));
+		server.setCacheSize(2);
+		CountingListener listener = new CountingListener();
+		server.process(listener, 2);
+
+		assertEquals(FILES.length, listener.codes.size());
+		StructureServerMetrics metrics = server.getMetrics();
+		assertEquals(FILES.length, metrics.getParsed());
+		assertEquals(FILES.length, metrics.getConsumed());
+		assertEquals(0, metrics.getFailed());
+		assertEquals(0, metrics.getQueueDepth());
+		assertEquals(0, metrics.getQueuedBytes());
+		assertTrue(metrics.getMaxQueueDepth() <= 2);
+		assertFalse(server.hasNextStructure());
+	}
+
+	public void testMemoryBudgetAndIteration() throws Exception {
+		PrefetchingStructureServer server = new PrefetchingStructureServer(2);
+		server.setPDBInstallation(new ResourceInstallation(false));
+		// every structure is larger than the budget, so only one is queued at a time
+		server.setMemoryBudget(1);
+
+		List<String> codes = new ArrayList<String>();
+		while (server.hasNextStructure()){
+			Structure s = server.takeStructure();
+			assertTrue(PrefetchingStructureServer.estimateSize(s) > 1);
+			codes.add(s.getPDBCode());
+		}
+		assertEquals(FILES.length, codes.size());
+		assertNull(server.takeStructure());
+		assertEquals(1, server.getMetrics().getMaxQueueDepth());
+	}
+}